@@ -26,6 +26,7 @@ import com.hazelcast.aggregation.impl.DoubleAverageAggregator;
 import com.hazelcast.aggregation.impl.DoubleSumAggregator;
 import com.hazelcast.aggregation.impl.FixedSumAggregator;
 import com.hazelcast.aggregation.impl.FloatingPointSumAggregator;
+import com.hazelcast.aggregation.impl.GroupByAggregator;
 import com.hazelcast.aggregation.impl.IntegerAverageAggregator;
 import com.hazelcast.aggregation.impl.IntegerSumAggregator;
 import com.hazelcast.aggregation.impl.LongAverageAggregator;
@@ -38,6 +39,7 @@ import com.hazelcast.aggregation.impl.NumberAverageAggregator;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -113,6 +115,42 @@ public final class Aggregators {
         return new DistinctValuesAggregator<>(attributePath);
     }
 
+    /**
+     * @param attributePath the attribute path of the group key
+     * @param downstream    the aggregator applied to the input values of each group
+     * @param <I> type of the input object.
+     * @param <K> type of the group key.
+     * @param <R> type of the downstream aggregation result.
+     * @return an aggregator that groups the input values by the value extracted from the given attributePath
+     * and aggregates each group with the downstream aggregator.
+     * Accepts null input values and null extracted values, null is a group key as any other.
+     * Fails with a {@link com.hazelcast.map.QueryResultSizeExceededException} if there are more than
+     * {@value GroupByAggregator#DEFAULT_MAX_GROUPS} groups.
+     * Aggregation result type is a Map of K to R.
+     */
+    public static <I, K, R> Aggregator<I, Map<K, R>> groupBy(String attributePath, Aggregator<I, R> downstream) {
+        return new GroupByAggregator<>(attributePath, downstream);
+    }
+
+    /**
+     * @param attributePath the attribute path of the group key
+     * @param downstream    the aggregator applied to the input values of each group
+     * @param maxGroups     the maximum number of groups
+     * @param <I> type of the input object.
+     * @param <K> type of the group key.
+     * @param <R> type of the downstream aggregation result.
+     * @return an aggregator that groups the input values by the value extracted from the given attributePath
+     * and aggregates each group with the downstream aggregator.
+     * Accepts null input values and null extracted values, null is a group key as any other.
+     * Fails with a {@link com.hazelcast.map.QueryResultSizeExceededException} if there are more than
+     * maxGroups groups.
+     * Aggregation result type is a Map of K to R.
+     */
+    public static <I, K, R> Aggregator<I, Map<K, R>> groupBy(String attributePath, Aggregator<I, R> downstream,
+                                                             int maxGroups) {
+        return new GroupByAggregator<>(attributePath, downstream, maxGroups);
+    }
+
     // ---------------------------------------------------------------------------------------------------------
     // average aggregators
     // ---------------------------------------------------------------------------------------------------------
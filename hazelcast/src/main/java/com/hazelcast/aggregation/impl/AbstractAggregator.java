@@ -19,11 +19,14 @@ package com.hazelcast.aggregation.impl;
 import com.hazelcast.aggregation.Aggregator;
 import com.hazelcast.internal.json.NonTerminalJsonValue;
 import com.hazelcast.query.impl.Extractable;
+import com.hazelcast.query.impl.QueryableEntry;
 import com.hazelcast.query.impl.getters.MultiResult;
 
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.function.DoubleConsumer;
+import java.util.function.LongConsumer;
 
 /**
  * Abstract class providing convenience for concrete implementations of an {@link Aggregator}
@@ -38,6 +41,10 @@ import java.util.Objects;
  * accumulated instead of the whole input object.
  * </li>
  * </ul>
+ * <p>
+ * The built-in aggregators of primitive numbers accumulate attributes of a primitive type without boxing them, see
+ * {@link #accumulatePrimitive(QueryableEntry)}. The boxed extraction is used whenever the primitive one is not
+ * applicable. The primitive path is package-private, so it doesn't leak into the public aggregator types.
  *
  * @param <I> input type
  * @param <E> extracted value type
@@ -47,6 +54,10 @@ public abstract class AbstractAggregator<I, E, R> implements Aggregator<I, R> {
 
     protected String attributePath;
 
+    private transient boolean primitiveUnavailable;
+    private transient LongConsumer longAccumulator;
+    private transient DoubleConsumer doubleAccumulator;
+
     public AbstractAggregator() {
         this(null);
     }
@@ -57,6 +68,13 @@ public abstract class AbstractAggregator<I, E, R> implements Aggregator<I, R> {
 
     @Override
     public final void accumulate(I entry) {
+        if (!primitiveUnavailable && attributePath != null && entry instanceof QueryableEntry) {
+            if (accumulatePrimitive((QueryableEntry) entry)) {
+                return;
+            }
+            // the attribute is not a primitive one, don't try again for the following entries
+            primitiveUnavailable = true;
+        }
 
         E extractedValue = extract(entry);
         if (extractedValue instanceof MultiResult) {
@@ -80,6 +98,64 @@ public abstract class AbstractAggregator<I, E, R> implements Aggregator<I, R> {
         }
     }
 
+    /**
+     * Accumulates the value of the attributePath of the given entry without boxing it, i.e. using
+     * {@link #extractLong} or {@link #extractDouble}. Called only if the attributePath is not null.
+     *
+     * @param entry the entry containing the value.
+     * @return {@code true} if the value has been accumulated, {@code false} if it has to be extracted as an object
+     * and accumulated by {@link #accumulateExtracted}.
+     */
+    boolean accumulatePrimitive(QueryableEntry entry) {
+        return false;
+    }
+
+    /**
+     * Accumulates a single value extracted by {@link #extractLong}.
+     */
+    void accumulateLong(long value) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Accumulates a single value extracted by {@link #extractDouble}.
+     */
+    void accumulateDouble(double value) {
+        throw new UnsupportedOperationException();
+    }
+
+    final boolean extractLong(QueryableEntry entry) {
+        if (longAccumulator == null) {
+            longAccumulator = this::accumulateLong;
+        }
+        return entry.extractLong(attributePath, longAccumulator);
+    }
+
+    final boolean extractDouble(QueryableEntry entry) {
+        if (doubleAccumulator == null) {
+            doubleAccumulator = this::accumulateDouble;
+        }
+        return entry.extractDouble(attributePath, doubleAccumulator);
+    }
+
+    /**
+     * Tells if the whole state of this aggregator is a single long which may be
+     * taken out with {@link #drainLongState()}. Lets {@link GroupByAggregator}
+     * keep the groups of such aggregators as primitive longs.
+     */
+    boolean hasLongState() {
+        return false;
+    }
+
+    /**
+     * Returns the long state of this aggregator and resets it to zero.
+     *
+     * @see #hasLongState()
+     */
+    long drainLongState() {
+        throw new UnsupportedOperationException();
+    }
+
     /**
      * Extract the value of the given attributePath from the given entry.
      */
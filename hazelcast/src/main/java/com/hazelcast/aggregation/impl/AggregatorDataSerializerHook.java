@@ -50,8 +50,9 @@ public final class AggregatorDataSerializerHook implements DataSerializerHook {
     public static final int MAX_BY = 17;
     public static final int MIN_BY = 18;
     public static final int CANONICALIZING_SET = 19;
+    public static final int GROUP_BY = 20;
 
-    private static final int LEN = CANONICALIZING_SET + 1;
+    private static final int LEN = GROUP_BY + 1;
 
     @Override
     public int getFactoryId() {
@@ -163,6 +164,11 @@ public final class AggregatorDataSerializerHook implements DataSerializerHook {
                 return new CanonicalizingHashSet();
             }
         };
+        constructors[GROUP_BY] = new ConstructorFunction<Integer, IdentifiedDataSerializable>() {
+            public IdentifiedDataSerializable createNew(Integer arg) {
+                return new GroupByAggregator();
+            }
+        };
 
         return new ArrayDataSerializableFactory(constructors);
     }
@@ -51,6 +51,18 @@ public final class CountAggregator<I> extends AbstractAggregator<I, Object, Long
         return count;
     }
 
+    @Override
+    boolean hasLongState() {
+        return true;
+    }
+
+    @Override
+    long drainLongState() {
+        long state = this.count;
+        this.count = 0;
+        return state;
+    }
+
     @Override
     public int getFactoryId() {
         return AggregatorDataSerializerHook.F_ID;
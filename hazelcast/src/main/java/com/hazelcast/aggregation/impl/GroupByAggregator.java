@@ -0,0 +1,358 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.aggregation.impl;
+
+import com.hazelcast.aggregation.Aggregator;
+import com.hazelcast.aggregation.Aggregators;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.internal.util.MapUtil;
+import com.hazelcast.internal.util.collection.Object2LongHashMap;
+import com.hazelcast.map.QueryResultSizeExceededException;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+import com.hazelcast.query.impl.QueryableEntry;
+import com.hazelcast.spi.impl.SerializationServiceSupport;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import static com.hazelcast.internal.util.Preconditions.checkNotNull;
+import static com.hazelcast.internal.util.Preconditions.checkPositive;
+
+/**
+ * Groups the input values by the value extracted from the given attributePath
+ * and aggregates each group with its own copy of the downstream aggregator.
+ * <p>
+ * The groups are kept in a hash table per accumulating aggregator, i.e. per
+ * partition or per accumulation chunk, and the tables are merged group by
+ * group when the aggregators are combined. The number of groups is bounded
+ * by {@code maxGroups}, exceeding it fails the aggregation with a
+ * {@link QueryResultSizeExceededException} instead of risking an OOME.
+ * <p>
+ * If the whole state of the downstream aggregator is a single long, as for
+ * {@link Aggregators#count()}, {@link Aggregators#longSum(String)} and
+ * {@link Aggregators#integerSum(String)}, the groups are kept as primitive
+ * longs and the downstream aggregator only accumulates one entry at a time.
+ * Otherwise each group gets a copy of the downstream aggregator, cloned using
+ * the serialization service the aggregator was deserialized with.
+ *
+ * @param <I> input type
+ * @param <K> group key type
+ * @param <R> downstream result type
+ */
+@SuppressFBWarnings("SE_BAD_FIELD")
+public final class GroupByAggregator<I, K, R>
+        extends AbstractAggregator<I, K, Map<K, R>>
+        implements IdentifiedDataSerializable {
+
+    /**
+     * The default maximum number of groups.
+     */
+    public static final int DEFAULT_MAX_GROUPS = 100000;
+
+    private Aggregator<I, R> downstream;
+    private int maxGroups;
+    private Map<K, Aggregator<I, R>> groups;
+    private LongGroups longGroups;
+
+    private transient AbstractAggregator<I, ?, ?> longDownstream;
+    private transient SerializationService serializationService;
+    private transient Data downstreamData;
+
+    public GroupByAggregator() {
+        super();
+    }
+
+    public GroupByAggregator(String attributePath, Aggregator<I, R> downstream) {
+        this(attributePath, downstream, DEFAULT_MAX_GROUPS);
+    }
+
+    public GroupByAggregator(String attributePath, Aggregator<I, R> downstream, int maxGroups) {
+        super(attributePath);
+        this.downstream = checkNotNull(downstream, "downstream aggregator cannot be null");
+        this.maxGroups = checkPositive("maxGroups", maxGroups);
+        initGroups(0);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void initGroups(int count) {
+        if (downstream instanceof AbstractAggregator && ((AbstractAggregator) downstream).hasLongState()) {
+            longDownstream = (AbstractAggregator<I, ?, ?>) downstream;
+            longGroups = new LongGroups(count);
+        } else {
+            groups = new HashMap<>(MapUtil.calculateInitialCapacity(count));
+        }
+    }
+
+    @Override
+    protected void accumulateExtracted(I entry, K groupKey) {
+        if (longGroups != null) {
+            longDownstream.accumulate(entry);
+            longGroups.add(groupKey, longDownstream.drainLongState(), maxGroups);
+            return;
+        }
+        if (serializationService == null && entry instanceof QueryableEntry) {
+            serializationService = ((QueryableEntry) entry).getSerializationService();
+        }
+        Aggregator<I, R> group = groups.get(groupKey);
+        if (group == null) {
+            group = newGroup(groupKey);
+        }
+        group.accumulate(entry);
+    }
+
+    @Override
+    public void onAccumulationFinished() {
+        if (groups == null) {
+            return;
+        }
+        for (Aggregator<I, R> group : groups.values()) {
+            group.onAccumulationFinished();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public void combine(Aggregator aggregator) {
+        GroupByAggregator<I, K, R> other = (GroupByAggregator<I, K, R>) aggregator;
+        if (longGroups != null) {
+            longGroups.addAll(other.longGroups, maxGroups);
+            return;
+        }
+        if (serializationService == null) {
+            serializationService = other.serializationService;
+        }
+        for (Map.Entry<K, Aggregator<I, R>> entry : other.groups.entrySet()) {
+            K groupKey = entry.getKey();
+            Aggregator<I, R> group = groups.get(groupKey);
+            if (group == null) {
+                group = newGroup(groupKey);
+            }
+            group.combine(entry.getValue());
+        }
+    }
+
+    @Override
+    public void onCombinationFinished() {
+        if (groups == null) {
+            return;
+        }
+        for (Aggregator<I, R> group : groups.values()) {
+            group.onCombinationFinished();
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Map<K, R> aggregate() {
+        if (longGroups != null) {
+            Map<K, R> result = new HashMap<>(MapUtil.calculateInitialCapacity(longGroups.size));
+            for (int i = 0; i < longGroups.size; i++) {
+                result.put((K) longGroups.keyAt(i), (R) Long.valueOf(longGroups.values[i]));
+            }
+            return result;
+        }
+        Map<K, R> result = new HashMap<>(MapUtil.calculateInitialCapacity(groups.size()));
+        for (Map.Entry<K, Aggregator<I, R>> entry : groups.entrySet()) {
+            result.put(entry.getKey(), entry.getValue().aggregate());
+        }
+        return result;
+    }
+
+    private Aggregator<I, R> newGroup(K groupKey) {
+        if (groups.size() >= maxGroups) {
+            throw new QueryResultSizeExceededException("The group by aggregation exceeded the limit of "
+                    + maxGroups + " groups");
+        }
+        if (downstreamData == null) {
+            if (serializationService == null) {
+                // queries always clone the aggregators using serialization, so this is a direct use
+                throw new IllegalStateException("No serialization service to copy the downstream aggregator "
+                        + downstream + " for a new group with, the group by aggregator has to be deserialized first");
+            }
+            downstreamData = serializationService.toData(downstream);
+        }
+        Aggregator<I, R> group = serializationService.toObject(downstreamData);
+        groups.put(groupKey, group);
+        return group;
+    }
+
+    @Override
+    public int getFactoryId() {
+        return AggregatorDataSerializerHook.F_ID;
+    }
+
+    @Override
+    public int getClassId() {
+        return AggregatorDataSerializerHook.GROUP_BY;
+    }
+
+    @Override
+    public void writeData(ObjectDataOutput out) throws IOException {
+        out.writeUTF(attributePath);
+        out.writeObject(downstream);
+        out.writeInt(maxGroups);
+        if (longGroups != null) {
+            out.writeInt(longGroups.size);
+            for (int i = 0; i < longGroups.size; i++) {
+                out.writeObject(longGroups.keyAt(i));
+                out.writeLong(longGroups.values[i]);
+            }
+            return;
+        }
+        out.writeInt(groups.size());
+        for (Map.Entry<K, Aggregator<I, R>> entry : groups.entrySet()) {
+            out.writeObject(entry.getKey());
+            out.writeObject(entry.getValue());
+        }
+    }
+
+    @Override
+    public void readData(ObjectDataInput in) throws IOException {
+        this.serializationService = ((SerializationServiceSupport) in).getSerializationService();
+        this.attributePath = in.readUTF();
+        this.downstream = in.readObject();
+        this.maxGroups = in.readInt();
+        int count = in.readInt();
+        initGroups(count);
+        if (longGroups != null) {
+            for (int i = 0; i < count; i++) {
+                K groupKey = in.readObject();
+                longGroups.add(groupKey, in.readLong(), Integer.MAX_VALUE);
+            }
+            return;
+        }
+        for (int i = 0; i < count; i++) {
+            K groupKey = in.readObject();
+            Aggregator<I, R> group = in.readObject();
+            groups.put(groupKey, group);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        GroupByAggregator<?, ?, ?> that = (GroupByAggregator<?, ?, ?>) o;
+        return Objects.equals(attributePath, that.attributePath)
+                && maxGroups == that.maxGroups
+                && Objects.equals(downstream, that.downstream)
+                && Objects.equals(groups, that.groups)
+                && Objects.equals(longGroups, that.longGroups);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(attributePath, downstream, maxGroups, groups, longGroups);
+    }
+
+    /**
+     * The groups of a downstream aggregator with a single long state. The
+     * group keys are mapped to slots of a plain long array, which keeps the
+     * group values unboxed and free of a reserved missing value.
+     */
+    private static final class LongGroups {
+
+        private static final int MIN_CAPACITY = 8;
+        // the primitive map doesn't support null keys
+        private static final Object NULL_KEY = new Object();
+
+        private final Object2LongHashMap<Object> slots;
+        private Object[] keys;
+        private long[] values;
+        private int size;
+
+        LongGroups(int expectedSize) {
+            int capacity = Math.max(MIN_CAPACITY, expectedSize);
+            this.slots = new Object2LongHashMap<>(-1);
+            this.keys = new Object[capacity];
+            this.values = new long[capacity];
+        }
+
+        void add(Object key, long value, int maxGroups) {
+            Object slotKey = key == null ? NULL_KEY : key;
+            long slot = slots.getValue(slotKey);
+            if (slot >= 0) {
+                values[(int) slot] += value;
+                return;
+            }
+            if (size >= maxGroups) {
+                throw new QueryResultSizeExceededException("The group by aggregation exceeded the limit of "
+                        + maxGroups + " groups");
+            }
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                values = Arrays.copyOf(values, size * 2);
+            }
+            slots.put(slotKey, size);
+            keys[size] = slotKey;
+            values[size] = value;
+            size++;
+        }
+
+        void addAll(LongGroups other, int maxGroups) {
+            for (int i = 0; i < other.size; i++) {
+                add(other.keyAt(i), other.values[i], maxGroups);
+            }
+        }
+
+        Object keyAt(int slot) {
+            Object key = keys[slot];
+            return key == NULL_KEY ? null : key;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            LongGroups that = (LongGroups) o;
+            if (size != that.size) {
+                return false;
+            }
+            for (int i = 0; i < size; i++) {
+                long slot = that.slots.getValue(keys[i]);
+                if (slot < 0 || that.values[(int) slot] != values[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            int hashCode = 0;
+            for (int i = 0; i < size; i++) {
+                hashCode += keys[i].hashCode() ^ Long.hashCode(values[i]);
+            }
+            return hashCode;
+        }
+    }
+}
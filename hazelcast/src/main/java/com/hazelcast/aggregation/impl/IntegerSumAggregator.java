@@ -21,6 +21,7 @@ import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
 import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
 import com.hazelcast.query.impl.Numbers;
+import com.hazelcast.query.impl.QueryableEntry;
 
 import java.io.IOException;
 import java.util.Objects;
@@ -43,6 +44,16 @@ public final class IntegerSumAggregator<I> extends AbstractAggregator<I, Number,
         sum += Numbers.asIntExactly(value);
     }
 
+    @Override
+    boolean accumulatePrimitive(QueryableEntry entry) {
+        return extractLong(entry);
+    }
+
+    @Override
+    void accumulateLong(long value) {
+        sum += Numbers.asIntExactly(value);
+    }
+
     @Override
     public void combine(Aggregator aggregator) {
         IntegerSumAggregator integerSumAggregator = (IntegerSumAggregator) aggregator;
@@ -54,6 +65,18 @@ public final class IntegerSumAggregator<I> extends AbstractAggregator<I, Number,
         return sum;
     }
 
+    @Override
+    boolean hasLongState() {
+        return true;
+    }
+
+    @Override
+    long drainLongState() {
+        long state = this.sum;
+        this.sum = 0;
+        return state;
+    }
+
     @Override
     public int getFactoryId() {
         return AggregatorDataSerializerHook.F_ID;
@@ -44,7 +44,6 @@ import com.hazelcast.internal.partition.PartitionAwareService;
 import com.hazelcast.internal.partition.PartitionMigrationEvent;
 import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.internal.services.PreJoinAwareService;
-import com.hazelcast.internal.services.SplitBrainHandlerService;
 import com.hazelcast.internal.services.SplitBrainProtectionAwareService;
 import com.hazelcast.internal.services.TenantContextAwareService;
 import com.hazelcast.internal.util.Clock;
@@ -61,11 +60,13 @@ import com.hazelcast.spi.impl.NodeEngineImpl;
 import com.hazelcast.spi.impl.eventservice.EventFilter;
 import com.hazelcast.spi.impl.eventservice.EventRegistration;
 import com.hazelcast.spi.impl.eventservice.EventService;
+import com.hazelcast.spi.impl.merge.MerkleTreeMergeAwareService;
 import com.hazelcast.spi.impl.operationservice.Operation;
 import com.hazelcast.spi.merge.SplitBrainMergePolicy;
 import com.hazelcast.spi.merge.SplitBrainMergePolicyProvider;
 import com.hazelcast.spi.properties.ClusterProperty;
 import com.hazelcast.wan.impl.WanReplicationService;
+import com.hazelcast.wan.impl.merkletree.MerkleTreeView;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
 import javax.cache.CacheException;
@@ -98,7 +99,7 @@ import static java.util.Collections.singleton;
 
 @SuppressWarnings("checkstyle:classdataabstractioncoupling")
 public abstract class AbstractCacheService implements ICacheService, PreJoinAwareService, PartitionAwareService,
-                                                      SplitBrainProtectionAwareService, SplitBrainHandlerService,
+                                                      SplitBrainProtectionAwareService, MerkleTreeMergeAwareService,
                                                       ClusterStateListener, TenantContextAwareService {
     /**
      * Map from full prefixed cache name to {@link CacheConfig}
@@ -830,6 +831,11 @@ public abstract class AbstractCacheService implements ICacheService, PreJoinAwar
         return splitBrainHandlerService.prepareMergeRunnable();
     }
 
+    @Override
+    public MerkleTreeView createMergeMerkleTree(String name, int partitionId, int depth) {
+        return splitBrainHandlerService.createMerkleTree(name, partitionId, depth);
+    }
+
     public CacheEventHandler getCacheEventHandler() {
         return cacheEventHandler;
     }
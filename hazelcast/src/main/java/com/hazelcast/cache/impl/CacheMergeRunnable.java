@@ -19,6 +19,7 @@ package com.hazelcast.cache.impl;
 import com.hazelcast.cache.impl.record.CacheRecord;
 import com.hazelcast.config.CacheConfig;
 import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.config.MerkleTreeConfig;
 import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.spi.impl.NodeEngine;
 import com.hazelcast.spi.impl.merge.AbstractMergeRunnable;
@@ -78,6 +79,12 @@ class CacheMergeRunnable extends AbstractMergeRunnable<Object, Object, ICacheRec
         }
     }
 
+    @Override
+    protected int getMerkleTreeDepth(String dataStructureName) {
+        MerkleTreeConfig merkleTreeConfig = cacheService.getConfigs().get(dataStructureName).getMerkleTreeConfig();
+        return merkleTreeConfig.isEnabled() ? merkleTreeConfig.getDepth() : 0;
+    }
+
     @Override
     protected InMemoryFormat getInMemoryFormat(String dataStructureName) {
         return cacheService.getConfigs().get(dataStructureName).getInMemoryFormat();
@@ -16,16 +16,24 @@
 
 package com.hazelcast.cache.impl;
 
+import com.hazelcast.cache.impl.record.CacheRecord;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializationService;
 import com.hazelcast.spi.impl.NodeEngine;
 import com.hazelcast.spi.impl.merge.AbstractSplitBrainHandlerService;
 import com.hazelcast.spi.merge.DiscardMergePolicy;
 import com.hazelcast.spi.merge.SplitBrainMergePolicy;
+import com.hazelcast.wan.impl.merkletree.ArrayMerkleTree;
+import com.hazelcast.wan.impl.merkletree.MerkleTree;
+import com.hazelcast.wan.impl.merkletree.MerkleTreeView;
 
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.Map;
 
 import static com.hazelcast.cache.impl.ICacheService.SERVICE_NAME;
 import static com.hazelcast.internal.util.ThreadUtil.assertRunningOnPartitionThread;
+import static com.hazelcast.wan.impl.merkletree.MerkleTreeUtil.addEntry;
 
 /**
  * Handles split-brain functionality for cache.
@@ -70,4 +78,22 @@ class CacheSplitBrainHandlerService extends AbstractSplitBrainHandlerService<ICa
         SplitBrainMergePolicy mergePolicy = cacheService.getMergePolicy(store.getName());
         return !(mergePolicy instanceof DiscardMergePolicy);
     }
+
+    /**
+     * Creates the Merkle tree of the entries of the given cache in the given
+     * partition, to be compared with the Merkle tree of a merging store.
+     *
+     * @see com.hazelcast.spi.impl.merge.MerkleTreeMergeAwareService
+     */
+    MerkleTreeView createMerkleTree(String cacheNameWithPrefix, int partitionId, int depth) {
+        MerkleTree merkleTree = new ArrayMerkleTree(depth);
+        ICacheRecordStore recordStore = segments[partitionId].getRecordStore(cacheNameWithPrefix);
+        if (recordStore != null) {
+            SerializationService ss = cacheService.nodeEngine.getSerializationService();
+            for (Map.Entry<Data, CacheRecord> entry : recordStore.getReadOnlyRecords().entrySet()) {
+                addEntry(merkleTree, entry.getKey(), ss.toData(entry.getValue().getValue()));
+            }
+        }
+        return merkleTree;
+    }
 }
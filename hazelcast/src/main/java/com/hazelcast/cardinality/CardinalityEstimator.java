@@ -19,6 +19,8 @@ package com.hazelcast.cardinality;
 import com.hazelcast.config.SplitBrainProtectionConfig;
 import com.hazelcast.core.DistributedObject;
 
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 
 import javax.annotation.Nonnull;
@@ -29,7 +31,7 @@ import javax.annotation.Nonnull;
  * on unique items, in significantly sized data cultures.
  * <p>
  * CardinalityEstimator is internally based on a HyperLogLog++ data-structure,
- * and uses P^2 byte registers for storage and computation. (Default P = 14)
+ * and uses 2^P 6-bit registers for storage and computation. (Default P = 14)
  * <p>
  * Supports split brain protection {@link SplitBrainProtectionConfig} since 3.10 in cluster versions 3.10 and higher.
  * <p>
@@ -62,6 +64,28 @@ public interface CardinalityEstimator extends DistributedObject {
      */
     void add(@Nonnull Object obj);
 
+    /**
+     * Adds all the given objects in the estimation set. Adding many objects
+     * at once is considerably cheaper than adding them one by one.
+     * <p>
+     * Objects are considered identical if they are serialized into the same
+     * binary blob.
+     * In other words: It does <strong>not</strong> use Java equality.
+     *
+     * <p>
+     * The default implementation adds the objects one by one with
+     * {@link #add(Object)}.
+     *
+     * @param objects objects to add in the estimation set.
+     * @throws NullPointerException if objects or any of the objects is null
+     * @since 4.2
+     */
+    default void addAll(@Nonnull Collection<?> objects) {
+        for (Object obj : objects) {
+            add(obj);
+        }
+    }
+
     /**
      * Estimates the cardinality of the aggregation so far.
      * If it was previously estimated and never invalidated, then a cached
@@ -106,6 +130,33 @@ public interface CardinalityEstimator extends DistributedObject {
      */
     CompletionStage<Void> addAsync(@Nonnull Object obj);
 
+    /**
+     * Adds all the given objects in the estimation set. Adding many objects
+     * at once is considerably cheaper than adding them one by one.
+     * <p>
+     * Objects are considered identical if they are serialized into the same
+     * binary blob.
+     * In other words: It does <strong>not</strong> use Java equality.
+     * <p>
+     * This method will dispatch a request and return immediately a {@link CompletionStage}.
+     * <p>
+     * The default implementation adds the objects one by one with
+     * {@link #addAsync(Object)} and completes when all the adds complete.
+     *
+     * @param objects objects to add in the estimation set.
+     * @return a {@link CompletionStage} API consumers can use to chain further computation stages
+     * @throws NullPointerException if objects or any of the objects is null
+     * @since 4.2
+     */
+    default CompletionStage<Void> addAllAsync(@Nonnull Collection<?> objects) {
+        CompletableFuture<?>[] futures = new CompletableFuture[objects.size()];
+        int i = 0;
+        for (Object obj : objects) {
+            futures[i++] = addAsync(obj).toCompletableFuture();
+        }
+        return CompletableFuture.allOf(futures);
+    }
+
     /**
      * Estimates the cardinality of the aggregation so far.
      * If it was previously estimated and never invalidated, then a cached version
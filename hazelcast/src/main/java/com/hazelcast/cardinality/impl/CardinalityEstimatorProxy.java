@@ -17,15 +17,18 @@
 package com.hazelcast.cardinality.impl;
 
 import com.hazelcast.cardinality.CardinalityEstimator;
+import com.hazelcast.cardinality.impl.operations.AggregateAllOperation;
 import com.hazelcast.cardinality.impl.operations.AggregateOperation;
 import com.hazelcast.cardinality.impl.operations.EstimateOperation;
 import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializationService;
 import com.hazelcast.spi.impl.AbstractDistributedObject;
 import com.hazelcast.spi.impl.NodeEngine;
 import com.hazelcast.spi.impl.operationservice.Operation;
 import com.hazelcast.spi.impl.operationservice.impl.InvocationFuture;
 
 import javax.annotation.Nonnull;
+import java.util.Collection;
 
 import static com.hazelcast.internal.util.Preconditions.checkNotNull;
 
@@ -61,6 +64,11 @@ public class CardinalityEstimatorProxy
         addAsync(obj).joinInternal();
     }
 
+    @Override
+    public void addAll(@Nonnull Collection<?> objects) {
+        addAllAsync(objects).joinInternal();
+    }
+
     @Override
     public long estimate() {
         return estimateAsync().joinInternal();
@@ -75,6 +83,21 @@ public class CardinalityEstimatorProxy
         return invokeOnPartition(operation);
     }
 
+    @Override
+    public InvocationFuture<Void> addAllAsync(@Nonnull Collection<?> objects) {
+        checkNotNull(objects, "Objects must not be null");
+        SerializationService serializationService = getNodeEngine().getSerializationService();
+        long[] hashes = new long[objects.size()];
+        int i = 0;
+        for (Object obj : objects) {
+            checkNotNull(obj, "Object must not be null");
+            hashes[i++] = serializationService.toData(obj).hash64();
+        }
+        Operation operation = new AggregateAllOperation(name, hashes)
+                .setPartitionId(partitionId);
+        return invokeOnPartition(operation);
+    }
+
     @Override
     public InvocationFuture<Long> estimateAsync() {
         Operation operation = new EstimateOperation(name)
@@ -31,14 +31,32 @@ import static com.hazelcast.cardinality.impl.hyperloglog.impl.HyperLogLogEncodin
 /**
  * 1. http://algo.inria.fr/flajolet/Publications/FlFuGaMe07.pdf
  * 2. http://static.googleusercontent.com/media/research.google.com/en//pubs/archive/40671.pdf
+ * <p>
+ * The 6-bit registers are packed ten to a {@code long}, which makes the
+ * encoder 25% smaller than one byte per register and lets {@link #merge}
+ * compare ten registers at a time. The serialized form is still one byte
+ * per register.
  */
 @SuppressWarnings("checkstyle:magicnumber")
 public class DenseHyperLogLogEncoder implements HyperLogLogEncoder {
 
+    private static final int REGISTER_BITS = 6;
+    private static final int REGISTERS_PER_WORD = 10;
+    private static final long REGISTER_MASK = (1L << REGISTER_BITS) - 1;
+    // the low bits of the even registers of a word, the odd ones are their guard bits during a merge
+    private static final long EVEN_REGISTERS_MASK = 0x03F03F03F03F03FL;
+    private static final long EVEN_REGISTERS_GUARD_BITS = 0x040040040040040L;
+    private static final double[] INV_POW_2 = new double[1 << REGISTER_BITS];
+
+    static {
+        for (int i = 0; i < INV_POW_2.length; i++) {
+            INV_POW_2[i] = Math.scalb(1d, -i);
+        }
+    }
+
     private int p;
-    private byte[] register;
+    private long[] register;
     private transient int numOfEmptyRegs;
-    private transient double[] invPowLookup;
     private transient int m;
     private transient long pFenseMask;
 
@@ -57,27 +75,24 @@ public class DenseHyperLogLogEncoder implements HyperLogLogEncoder {
         this.p = p;
         this.m = 1 << p;
         this.numOfEmptyRegs = m;
-        this.register = register != null ? register : new byte[m];
-        this.invPowLookup = new double[64 - p + 1];
+        this.register = new long[(m + REGISTERS_PER_WORD - 1) / REGISTERS_PER_WORD];
         this.pFenseMask = 1 << (64 - p) - 1;
-        this.prePopulateInvPowLookup();
+        if (register != null) {
+            assert register.length == m;
+            for (int i = 0; i < register.length; i++) {
+                mergeRegister(i, register[i]);
+            }
+        }
     }
 
     @Override
     public boolean add(long hash) {
-        final int index = (int) hash & (register.length - 1);
+        final int index = (int) hash & (m - 1);
         final int value = Long.numberOfTrailingZeros((hash >>> p) | pFenseMask) + 1;
 
-        assert index < register.length;
-        assert value <= (1 << 8) - 1;
         assert value <= 64 - p;
 
-        if (value > register[index]) {
-            register[index] = (byte) value;
-            return true;
-        }
-
-        return false;
+        return mergeRegister(index, value);
     }
 
     @Override
@@ -88,15 +103,14 @@ public class DenseHyperLogLogEncoder implements HyperLogLogEncoder {
 
     @Override
     public HyperLogLogEncoder merge(HyperLogLogEncoder encoder) {
-        DenseHyperLogLogEncoder otherDense;
         if (SPARSE.equals(encoder.getEncodingType())) {
-            otherDense = (DenseHyperLogLogEncoder) ((SparseHyperLogLogEncoder) encoder).asDense();
-        } else {
-            otherDense = (DenseHyperLogLogEncoder) encoder;
+            ((SparseHyperLogLogEncoder) encoder).mergeInto(this);
+            return this;
         }
 
+        long[] otherRegister = ((DenseHyperLogLogEncoder) encoder).register;
         for (int i = 0; i < register.length; i++) {
-            register[i] = (byte) Math.max(register[i], otherDense.register[i]);
+            register[i] = max(register[i], otherRegister[i]);
         }
 
         return this;
@@ -114,19 +128,23 @@ public class DenseHyperLogLogEncoder implements HyperLogLogEncoder {
 
     @Override
     public void writeData(ObjectDataOutput out) throws IOException {
+        byte[] unpacked = new byte[m];
+        for (int i = 0; i < m; i++) {
+            unpacked[i] = (byte) getRegister(i);
+        }
         out.writeInt(p);
-        out.writeByteArray(register);
+        out.writeByteArray(unpacked);
     }
 
     @Override
     public void readData(ObjectDataInput in) throws IOException {
-        init(in.readInt(), null);
-        this.register = in.readByteArray();
+        int precision = in.readInt();
+        init(precision, in.readByteArray());
     }
 
     @Override
     public int getMemoryFootprint() {
-        return m;
+        return register.length * Long.BYTES;
     }
 
     @Override
@@ -134,6 +152,34 @@ public class DenseHyperLogLogEncoder implements HyperLogLogEncoder {
         return HyperLogLogEncoding.DENSE;
     }
 
+    /**
+     * Sets the register with the given index to the given value if it is
+     * greater than the current one.
+     *
+     * @return {@code true} if the register was changed, {@code false} otherwise
+     */
+    boolean mergeRegister(int index, int value) {
+        assert index < m;
+        assert value <= REGISTER_MASK;
+
+        int word = index / REGISTERS_PER_WORD;
+        int shift = (index - word * REGISTERS_PER_WORD) * REGISTER_BITS;
+        long current = (register[word] >>> shift) & REGISTER_MASK;
+        if (value > current) {
+            register[word] += (value - current) << shift;
+            return true;
+        }
+
+        return false;
+    }
+
+    // package-private for testing
+    int getRegister(int index) {
+        int word = index / REGISTERS_PER_WORD;
+        int shift = (index - word * REGISTERS_PER_WORD) * REGISTER_BITS;
+        return (int) ((register[word] >>> shift) & REGISTER_MASK);
+    }
+
     private double alpha() {
         // make sure m is always >= 16 for p = 4 -> m = 16
         // if p ∈ [4..16] as of [1]
@@ -161,16 +207,23 @@ public class DenseHyperLogLogEncoder implements HyperLogLogEncoder {
     }
 
     private double computeE() {
-        double e = 0;
-        numOfEmptyRegs = 0;
-        for (byte r : register) {
-            if (r > 0) {
-                e += invPow(r);
-            } else {
-                numOfEmptyRegs++;
+        // counting the registers by value lets the sum be computed with one multiplication per distinct value
+        int[] histogram = new int[INV_POW_2.length];
+        for (long word : register) {
+            for (int i = 0; i < REGISTERS_PER_WORD; i++) {
+                histogram[(int) (word & REGISTER_MASK)]++;
+                word >>>= REGISTER_BITS;
             }
         }
-        return e + numOfEmptyRegs;
+        // the unused registers of the last word are empty
+        histogram[0] -= register.length * REGISTERS_PER_WORD - m;
+
+        double e = 0;
+        for (int i = histogram.length - 1; i >= 0; i--) {
+            e += histogram[i] * INV_POW_2[i];
+        }
+        numOfEmptyRegs = histogram[0];
+        return e;
     }
 
     /**
@@ -213,19 +266,25 @@ public class DenseHyperLogLogEncoder implements HyperLogLogEncoder {
         return e >= DenseHyperLogLogConstants.THRESHOLD[p - 4];
     }
 
-    private double invPow(int index) {
-        assert index <= 64 - p;
-        return invPowLookup[index];
-    }
-
     private long linearCounting(final int total, final int empty) {
         return (long) (total * Math.log(total / (double) empty));
     }
 
-    private void prePopulateInvPowLookup() {
-        invPowLookup[0] = 1;
-        for (int i = 1; i <= (64 - p); i++) {
-            invPowLookup[i] = Math.pow(2, -i);
-        }
+    /**
+     * Returns the maximum of every pair of registers of the given words.
+     * The even and the odd registers are compared separately, so every
+     * register has the six bits of its neighbour to borrow from.
+     */
+    private static long max(long x, long y) {
+        return maxOfEvenRegisters(x, y) | (maxOfEvenRegisters(x >>> REGISTER_BITS, y >>> REGISTER_BITS) << REGISTER_BITS);
+    }
+
+    private static long maxOfEvenRegisters(long x, long y) {
+        long a = x & EVEN_REGISTERS_MASK;
+        long b = y & EVEN_REGISTERS_MASK;
+        // the guard bit of a register stays set iff the register of a is not less than the one of b
+        long guards = ((a | EVEN_REGISTERS_GUARD_BITS) - b) & EVEN_REGISTERS_GUARD_BITS;
+        long aIsGreaterOrEqual = guards - (guards >>> REGISTER_BITS);
+        return (a & aIsGreaterOrEqual) | (b & ~aIsGreaterOrEqual);
     }
 }
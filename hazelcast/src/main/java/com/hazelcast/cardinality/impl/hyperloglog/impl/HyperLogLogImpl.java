@@ -70,8 +70,13 @@ public class HyperLogLogImpl
 
     @Override
     public void addAll(long[] hashes) {
+        boolean changed = false;
         for (long hash : hashes) {
-            add(hash);
+            convertToDenseIfNeeded();
+            changed |= encoder.add(hash);
+        }
+        if (changed) {
+            cachedEstimate = null;
         }
     }
 
@@ -132,15 +132,21 @@ public class SparseHyperLogLogEncoder
     }
 
     HyperLogLogEncoder asDense() {
+        DenseHyperLogLogEncoder dense = new DenseHyperLogLogEncoder(p);
+        mergeInto(dense);
+        return dense;
+    }
+
+    /**
+     * Merges the registers of this encoder into the given dense encoder
+     * of the same precision.
+     */
+    void mergeInto(DenseHyperLogLogEncoder dense) {
         mergeAndResetTmp();
 
-        byte[] dense = new byte[1 << this.p];
         for (int hash : register.explode()) {
-            int index = decodeHashPIndex(hash);
-            dense[index] = (byte) Math.max(dense[index], decodeHashRunOfZeros(hash));
+            dense.mergeRegister(decodeHashPIndex(hash), decodeHashRunOfZeros(hash));
         }
-
-        return new DenseHyperLogLogEncoder(p, dense);
     }
 
     private int encodeHash(long hash) {
@@ -69,6 +69,8 @@ import com.hazelcast.core.DistributedObjectListener;
 import com.hazelcast.core.HazelcastInstance;
 import com.hazelcast.core.IExecutorService;
 import com.hazelcast.core.LifecycleService;
+import com.hazelcast.countermap.CounterMap;
+import com.hazelcast.countermap.impl.CounterMapService;
 import com.hazelcast.cp.CPSubsystem;
 import com.hazelcast.cp.event.CPGroupAvailabilityListener;
 import com.hazelcast.cp.event.CPMembershipListener;
@@ -586,6 +588,13 @@ public class HazelcastClientInstanceImpl implements HazelcastInstance, Serializa
         return getDistributedObject(CardinalityEstimatorService.SERVICE_NAME, name);
     }
 
+    @Nonnull
+    @Override
+    public <K> CounterMap<K> getCounterMap(@Nonnull String name) {
+        checkNotNull(name, "Retrieving a counter map instance with a null name is not allowed!");
+        return getDistributedObject(CounterMapService.SERVICE_NAME, name);
+    }
+
     @Nonnull
     @Override
     public PNCounter getPNCounter(@Nonnull String name) {
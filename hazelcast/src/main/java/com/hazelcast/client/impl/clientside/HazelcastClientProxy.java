@@ -32,6 +32,7 @@ import com.hazelcast.core.HazelcastInstance;
 import com.hazelcast.core.ICacheManager;
 import com.hazelcast.core.IExecutorService;
 import com.hazelcast.core.LifecycleService;
+import com.hazelcast.countermap.CounterMap;
 import com.hazelcast.cp.CPSubsystem;
 import com.hazelcast.crdt.pncounter.PNCounter;
 import com.hazelcast.durableexecutor.DurableExecutorService;
@@ -201,6 +202,12 @@ public class HazelcastClientProxy implements HazelcastInstance, SerializationSer
         return getClient().getCardinalityEstimator(name);
     }
 
+    @Nonnull
+    @Override
+    public <K> CounterMap<K> getCounterMap(@Nonnull String name) {
+        return getClient().getCounterMap(name);
+    }
+
     @Nonnull
     @Override
     public PNCounter getPNCounter(@Nonnull String name) {
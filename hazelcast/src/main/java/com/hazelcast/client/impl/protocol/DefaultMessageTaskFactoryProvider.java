@@ -73,6 +73,10 @@ import com.hazelcast.client.impl.protocol.codec.CacheSetExpiryPolicyCodec;
 import com.hazelcast.client.impl.protocol.codec.CacheSizeCodec;
 import com.hazelcast.client.impl.protocol.codec.CardinalityEstimatorAddCodec;
 import com.hazelcast.client.impl.protocol.codec.CardinalityEstimatorEstimateCodec;
+import com.hazelcast.client.impl.protocol.codec.CounterMapAddAndGetAllCodec;
+import com.hazelcast.client.impl.protocol.codec.CounterMapAddAndGetCodec;
+import com.hazelcast.client.impl.protocol.codec.CounterMapGetCodec;
+import com.hazelcast.client.impl.protocol.codec.CounterMapRemoveCodec;
 import com.hazelcast.client.impl.protocol.codec.ClientAddClusterViewListenerCodec;
 import com.hazelcast.client.impl.protocol.codec.ClientAddDistributedObjectListenerCodec;
 import com.hazelcast.client.impl.protocol.codec.ClientAddMigrationListenerCodec;
@@ -471,6 +475,10 @@ import com.hazelcast.client.impl.protocol.task.cache.CacheSetExpiryPolicyMessage
 import com.hazelcast.client.impl.protocol.task.cache.CacheSizeMessageTask;
 import com.hazelcast.client.impl.protocol.task.cardinality.CardinalityEstimatorAddMessageTask;
 import com.hazelcast.client.impl.protocol.task.cardinality.CardinalityEstimatorEstimateMessageTask;
+import com.hazelcast.client.impl.protocol.task.countermap.CounterMapAddAndGetAllMessageTask;
+import com.hazelcast.client.impl.protocol.task.countermap.CounterMapAddAndGetMessageTask;
+import com.hazelcast.client.impl.protocol.task.countermap.CounterMapGetMessageTask;
+import com.hazelcast.client.impl.protocol.task.countermap.CounterMapRemoveMessageTask;
 import com.hazelcast.client.impl.protocol.task.crdt.pncounter.PNCounterAddMessageTask;
 import com.hazelcast.client.impl.protocol.task.crdt.pncounter.PNCounterGetConfiguredReplicaCountMessageTask;
 import com.hazelcast.client.impl.protocol.task.crdt.pncounter.PNCounterGetMessageTask;
@@ -880,6 +888,7 @@ public class DefaultMessageTaskFactoryProvider implements MessageTaskFactoryProv
         initializeGeneralTaskFactories();
         initializeQueueTaskFactories();
         initializeCardinalityTaskFactories();
+        initializeCounterMapTaskFactories();
         initializeScheduledExecutorTaskFactories();
         initializeContinuousMapQueryOperations();
         initializeDynamicConfigTaskFactories();
@@ -1552,6 +1561,17 @@ public class DefaultMessageTaskFactoryProvider implements MessageTaskFactoryProv
                 (cm, con) -> new CardinalityEstimatorEstimateMessageTask(cm, node, con));
     }
 
+    private void initializeCounterMapTaskFactories() {
+        factories.put(CounterMapGetCodec.REQUEST_MESSAGE_TYPE,
+                (cm, con) -> new CounterMapGetMessageTask(cm, node, con));
+        factories.put(CounterMapAddAndGetCodec.REQUEST_MESSAGE_TYPE,
+                (cm, con) -> new CounterMapAddAndGetMessageTask(cm, node, con));
+        factories.put(CounterMapAddAndGetAllCodec.REQUEST_MESSAGE_TYPE,
+                (cm, con) -> new CounterMapAddAndGetAllMessageTask(cm, node, con));
+        factories.put(CounterMapRemoveCodec.REQUEST_MESSAGE_TYPE,
+                (cm, con) -> new CounterMapRemoveMessageTask(cm, node, con));
+    }
+
     private void initializeScheduledExecutorTaskFactories() {
         factories.put(ScheduledExecutorSubmitToPartitionCodec.REQUEST_MESSAGE_TYPE,
                 (cm, con) -> new ScheduledExecutorSubmitToPartitionMessageTask(cm, node, con));
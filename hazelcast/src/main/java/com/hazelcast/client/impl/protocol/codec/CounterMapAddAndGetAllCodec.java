@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.client.impl.protocol.codec;
+
+import com.hazelcast.client.impl.protocol.ClientMessage;
+import com.hazelcast.client.impl.protocol.Generated;
+import com.hazelcast.client.impl.protocol.codec.builtin.*;
+import com.hazelcast.client.impl.protocol.codec.custom.*;
+
+import javax.annotation.Nullable;
+
+import static com.hazelcast.client.impl.protocol.ClientMessage.*;
+import static com.hazelcast.client.impl.protocol.codec.builtin.FixedSizeTypesCodec.*;
+
+/*
+ * This file is auto-generated by the Hazelcast Client Protocol Code Generator.
+ * To change this file, edit the templates or the protocol
+ * definitions on the https://github.com/hazelcast/hazelcast-client-protocol
+ * and regenerate it.
+ */
+
+/**
+ * Adds the given values to the counters of the given keys of a single partition.
+ */
+@Generated("eee26fdfc7a870188bbbb3e3050cc04e")
+public final class CounterMapAddAndGetAllCodec {
+    //hex: 0x230300
+    public static final int REQUEST_MESSAGE_TYPE = 2294528;
+    //hex: 0x230301
+    public static final int RESPONSE_MESSAGE_TYPE = 2294529;
+    private static final int REQUEST_INITIAL_FRAME_SIZE = PARTITION_ID_FIELD_OFFSET + INT_SIZE_IN_BYTES;
+    private static final int RESPONSE_INITIAL_FRAME_SIZE = RESPONSE_BACKUP_ACKS_FIELD_OFFSET + BYTE_SIZE_IN_BYTES;
+
+    private CounterMapAddAndGetAllCodec() {
+    }
+
+    @edu.umd.cs.findbugs.annotations.SuppressFBWarnings({"URF_UNREAD_PUBLIC_OR_PROTECTED_FIELD"})
+    public static class RequestParameters {
+
+        /**
+         * Name of the CounterMap
+         */
+        public java.lang.String name;
+
+        /**
+         * Keys of the counters, all of them in the partition the message is sent to
+         */
+        public java.util.List<com.hazelcast.internal.serialization.Data> keys;
+
+        /**
+         * The values to add to the counters, in the order of the keys
+         */
+        public long[] deltas;
+    }
+
+    public static ClientMessage encodeRequest(java.lang.String name, java.util.List<com.hazelcast.internal.serialization.Data> keys, long[] deltas) {
+        ClientMessage clientMessage = ClientMessage.createForEncode();
+        clientMessage.setRetryable(false);
+        clientMessage.setOperationName("CounterMap.AddAndGetAll");
+        ClientMessage.Frame initialFrame = new ClientMessage.Frame(new byte[REQUEST_INITIAL_FRAME_SIZE], UNFRAGMENTED_MESSAGE);
+        encodeInt(initialFrame.content, TYPE_FIELD_OFFSET, REQUEST_MESSAGE_TYPE);
+        encodeInt(initialFrame.content, PARTITION_ID_FIELD_OFFSET, -1);
+        clientMessage.add(initialFrame);
+        StringCodec.encode(clientMessage, name);
+        ListMultiFrameCodec.encode(clientMessage, keys, DataCodec::encode);
+        LongArrayCodec.encode(clientMessage, deltas);
+        return clientMessage;
+    }
+
+    public static CounterMapAddAndGetAllCodec.RequestParameters decodeRequest(ClientMessage clientMessage) {
+        ClientMessage.ForwardFrameIterator iterator = clientMessage.frameIterator();
+        RequestParameters request = new RequestParameters();
+        //empty initial frame
+        iterator.next();
+        request.name = StringCodec.decode(iterator);
+        request.keys = ListMultiFrameCodec.decode(iterator, DataCodec::decode);
+        request.deltas = LongArrayCodec.decode(iterator);
+        return request;
+    }
+
+    public static ClientMessage encodeResponse(long[] response) {
+        ClientMessage clientMessage = ClientMessage.createForEncode();
+        ClientMessage.Frame initialFrame = new ClientMessage.Frame(new byte[RESPONSE_INITIAL_FRAME_SIZE], UNFRAGMENTED_MESSAGE);
+        encodeInt(initialFrame.content, TYPE_FIELD_OFFSET, RESPONSE_MESSAGE_TYPE);
+        clientMessage.add(initialFrame);
+
+        LongArrayCodec.encode(clientMessage, response);
+        return clientMessage;
+    }
+
+    /**
+     * the updated values, in the order of the keys
+     */
+    public static long[] decodeResponse(ClientMessage clientMessage) {
+        ClientMessage.ForwardFrameIterator iterator = clientMessage.frameIterator();
+        //empty initial frame
+        iterator.next();
+        return LongArrayCodec.decode(iterator);
+    }
+
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.client.impl.protocol.task.countermap;
+
+import com.hazelcast.client.impl.protocol.ClientMessage;
+import com.hazelcast.client.impl.protocol.codec.CounterMapAddAndGetAllCodec;
+import com.hazelcast.client.impl.protocol.task.AbstractPartitionMessageTask;
+import com.hazelcast.countermap.impl.CounterMapService;
+import com.hazelcast.countermap.impl.operations.AddAndGetAllOperation;
+import com.hazelcast.instance.impl.Node;
+import com.hazelcast.internal.nio.Connection;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.security.permission.ActionConstants;
+import com.hazelcast.security.permission.CounterMapPermission;
+import com.hazelcast.spi.impl.operationservice.Operation;
+
+import java.security.Permission;
+
+public class CounterMapAddAndGetAllMessageTask
+        extends AbstractPartitionMessageTask<CounterMapAddAndGetAllCodec.RequestParameters> {
+
+    public CounterMapAddAndGetAllMessageTask(ClientMessage clientMessage, Node node, Connection connection) {
+        super(clientMessage, node, connection);
+    }
+
+    @Override
+    protected Operation prepareOperation() {
+        return new AddAndGetAllOperation(parameters.name, parameters.keys.toArray(new Data[0]), parameters.deltas);
+    }
+
+    @Override
+    protected CounterMapAddAndGetAllCodec.RequestParameters decodeClientMessage(ClientMessage clientMessage) {
+        return CounterMapAddAndGetAllCodec.decodeRequest(clientMessage);
+    }
+
+    @Override
+    protected ClientMessage encodeResponse(Object response) {
+        return CounterMapAddAndGetAllCodec.encodeResponse((long[]) response);
+    }
+
+    @Override
+    public String getServiceName() {
+        return CounterMapService.SERVICE_NAME;
+    }
+
+    @Override
+    public Permission getRequiredPermission() {
+        return new CounterMapPermission(parameters.name, ActionConstants.ACTION_MODIFY);
+    }
+
+    @Override
+    public String getDistributedObjectName() {
+        return parameters.name;
+    }
+
+    @Override
+    public String getMethodName() {
+        return "addAndGetAll";
+    }
+
+    @Override
+    public Object[] getParameters() {
+        return new Object[] { parameters.keys, parameters.deltas };
+    }
+}
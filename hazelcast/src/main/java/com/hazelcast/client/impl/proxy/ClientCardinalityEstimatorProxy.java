@@ -25,6 +25,10 @@ import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.spi.impl.InternalCompletableFuture;
 
 import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import static com.hazelcast.internal.util.Preconditions.checkNotNull;
 
@@ -48,6 +52,13 @@ public class ClientCardinalityEstimatorProxy
         addAsync(obj).joinInternal();
     }
 
+    @Override
+    public void addAll(@Nonnull Collection<?> objects) {
+        for (InternalCompletableFuture<Void> future : invokeAddAll(objects)) {
+            future.joinInternal();
+        }
+    }
+
     @Override
     public long estimate() {
         return estimateAsync().joinInternal();
@@ -62,9 +73,37 @@ public class ClientCardinalityEstimatorProxy
         return invokeOnPartitionAsync(request, clientMessage -> null);
     }
 
+    @Override
+    public CompletableFuture<Void> addAllAsync(@Nonnull Collection<?> objects) {
+        List<InternalCompletableFuture<Void>> futures = invokeAddAll(objects);
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
+    }
+
     @Override
     public InternalCompletableFuture<Long> estimateAsync() {
         ClientMessage request = CardinalityEstimatorEstimateCodec.encodeRequest(name);
         return invokeOnPartitionAsync(request, CardinalityEstimatorEstimateCodec::decodeResponse);
     }
+
+    /**
+     * The client protocol has no batch add message, the adds are pipelined
+     * instead to avoid a round trip per object.
+     */
+    private List<InternalCompletableFuture<Void>> invokeAddAll(Collection<?> objects) {
+        checkNotNull(objects, "Objects must not be null");
+
+        long[] hashes = new long[objects.size()];
+        int i = 0;
+        for (Object obj : objects) {
+            checkNotNull(obj, "Object must not be null");
+            hashes[i++] = toData(obj).hash64();
+        }
+
+        List<InternalCompletableFuture<Void>> futures = new ArrayList<>(hashes.length);
+        for (long hash : hashes) {
+            ClientMessage request = CardinalityEstimatorAddCodec.encodeRequest(name, hash);
+            futures.add(invokeOnPartitionAsync(request, clientMessage -> null));
+        }
+        return futures;
+    }
 }
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.client.impl.proxy;
+
+import com.hazelcast.client.impl.ClientDelegatingFuture;
+import com.hazelcast.client.impl.protocol.ClientMessage;
+import com.hazelcast.client.impl.protocol.codec.CounterMapAddAndGetAllCodec;
+import com.hazelcast.client.impl.protocol.codec.CounterMapAddAndGetCodec;
+import com.hazelcast.client.impl.protocol.codec.CounterMapGetCodec;
+import com.hazelcast.client.impl.protocol.codec.CounterMapRemoveCodec;
+import com.hazelcast.client.impl.spi.ClientContext;
+import com.hazelcast.client.impl.spi.ClientProxy;
+import com.hazelcast.client.impl.spi.impl.ClientInvocation;
+import com.hazelcast.client.impl.spi.impl.ClientInvocationFuture;
+import com.hazelcast.countermap.CounterMap;
+import com.hazelcast.countermap.impl.CounterMapPartitionBatch;
+import com.hazelcast.internal.serialization.Data;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static com.hazelcast.internal.util.ExceptionUtil.rethrow;
+import static com.hazelcast.internal.util.MapUtil.createHashMap;
+import static com.hazelcast.internal.util.Preconditions.checkNotNull;
+
+/**
+ * Proxy implementation of {@link CounterMap}.
+ *
+ * @param <K> the type of the keys
+ */
+public class ClientCounterMapProxy<K> extends ClientProxy implements CounterMap<K> {
+
+    private static final String NULL_KEY_MESSAGE = "Key must not be null";
+
+    public ClientCounterMapProxy(String serviceName, String name, ClientContext context) {
+        super(serviceName, name, context);
+    }
+
+    @Override
+    public long get(@Nonnull K key) {
+        checkNotNull(key, NULL_KEY_MESSAGE);
+        Data dataKey = toData(key);
+        ClientMessage request = CounterMapGetCodec.encodeRequest(name, dataKey);
+        ClientMessage response = invoke(request, dataKey);
+        return CounterMapGetCodec.decodeResponse(response);
+    }
+
+    @Override
+    public long addAndGet(@Nonnull K key, long delta) {
+        return addAndGetAsync(key, delta).joinInternal();
+    }
+
+    @Override
+    public ClientDelegatingFuture<Long> addAndGetAsync(@Nonnull K key, long delta) {
+        checkNotNull(key, NULL_KEY_MESSAGE);
+        Data dataKey = toData(key);
+        ClientMessage request = CounterMapAddAndGetCodec.encodeRequest(name, dataKey, delta);
+        int partitionId = getContext().getPartitionService().getPartitionId(dataKey);
+        ClientInvocationFuture future = new ClientInvocation(getClient(), request, getName(), partitionId).invoke();
+        return new ClientDelegatingFuture<>(future, getSerializationService(),
+                CounterMapAddAndGetCodec::decodeResponse, false);
+    }
+
+    @Override
+    public Map<K, Long> addAndGetAll(@Nonnull Map<? extends K, Long> deltas) {
+        Map<Integer, CounterMapPartitionBatch<K>> batches = CounterMapPartitionBatch.groupByPartition(deltas, this::toData,
+                getContext().getPartitionService()::getPartitionId);
+
+        List<CounterMapPartitionBatch<K>> invokedBatches = new ArrayList<>(batches.size());
+        List<ClientInvocationFuture> futures = new ArrayList<>(batches.size());
+        for (Map.Entry<Integer, CounterMapPartitionBatch<K>> entry : batches.entrySet()) {
+            CounterMapPartitionBatch<K> batch = entry.getValue();
+            ClientMessage request = CounterMapAddAndGetAllCodec.encodeRequest(name, batch.getDataKeys(), batch.getDeltas());
+            invokedBatches.add(batch);
+            futures.add(new ClientInvocation(getClient(), request, getName(), entry.getKey()).invoke());
+        }
+
+        Map<K, Long> result = createHashMap(deltas.size());
+        try {
+            for (int i = 0; i < futures.size(); i++) {
+                long[] values = CounterMapAddAndGetAllCodec.decodeResponse(futures.get(i).get());
+                invokedBatches.get(i).putResults(values, result);
+            }
+        } catch (Exception e) {
+            throw rethrow(e);
+        }
+        return result;
+    }
+
+    @Override
+    public long remove(@Nonnull K key) {
+        checkNotNull(key, NULL_KEY_MESSAGE);
+        Data dataKey = toData(key);
+        ClientMessage request = CounterMapRemoveCodec.encodeRequest(name, dataKey);
+        ClientMessage response = invoke(request, dataKey);
+        return CounterMapRemoveCodec.decodeResponse(response);
+    }
+
+    @Override
+    public String toString() {
+        return "CounterMap{" + "name='" + name + '\'' + '}';
+    }
+}
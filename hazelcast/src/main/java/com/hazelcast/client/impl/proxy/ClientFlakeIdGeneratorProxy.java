@@ -25,8 +25,14 @@ import com.hazelcast.client.impl.spi.ClientProxy;
 import com.hazelcast.client.impl.spi.impl.ClientInvocation;
 import com.hazelcast.flakeidgen.FlakeIdGenerator;
 import com.hazelcast.flakeidgen.impl.AutoBatcher;
+import com.hazelcast.flakeidgen.impl.AutoBatcher.IdBatchSupplier;
 import com.hazelcast.flakeidgen.impl.IdBatch;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import static com.hazelcast.client.properties.ClientProperty.FLAKE_ID_GENERATOR_PREFETCH_THRESHOLD_PERCENTAGE;
+
 /**
  * Proxy implementation of {@link FlakeIdGenerator}.
  */
@@ -38,8 +44,21 @@ public class ClientFlakeIdGeneratorProxy extends ClientProxy implements FlakeIdG
         super(serviceName, objectName, context);
 
         ClientFlakeIdGeneratorConfig config = getContext().getClientConfig().findFlakeIdGeneratorConfig(getName());
-        batcher = new AutoBatcher(config.getPrefetchCount(), config.getPrefetchValidityMillis(),
-                ClientFlakeIdGeneratorProxy.this::newIdBatch);
+        int prefetchThreshold = AutoBatcher.prefetchThreshold(config.getPrefetchCount(),
+                getClient().getProperties().getInteger(FLAKE_ID_GENERATOR_PREFETCH_THRESHOLD_PERCENTAGE));
+        batcher = new AutoBatcher(config.getPrefetchCount(), config.getPrefetchValidityMillis(), prefetchThreshold,
+                new IdBatchSupplier() {
+                    @Override
+                    public IdBatch newIdBatch(int batchSize) {
+                        return ClientFlakeIdGeneratorProxy.this.newIdBatch(batchSize);
+                    }
+
+                    @Override
+                    public CompletableFuture<IdBatch> newIdBatchAsync(int batchSize, Executor executor) {
+                        return ClientFlakeIdGeneratorProxy.this.newIdBatchAsync(batchSize);
+                    }
+                },
+                getContext().getTaskScheduler(), null);
     }
 
     @Override
@@ -51,10 +70,28 @@ public class ClientFlakeIdGeneratorProxy extends ClientProxy implements FlakeIdG
         ClientMessage requestMsg = FlakeIdGeneratorNewIdBatchCodec.encodeRequest(name, batchSize);
         ClientMessage responseMsg = new ClientInvocation(getClient(), requestMsg, getName())
                 .invoke().joinInternal();
+        return decodeIdBatch(responseMsg);
+    }
+
+    private CompletableFuture<IdBatch> newIdBatchAsync(int batchSize) {
+        ClientMessage requestMsg = FlakeIdGeneratorNewIdBatchCodec.encodeRequest(name, batchSize);
+        return new ClientInvocation(getClient(), requestMsg, getName())
+                .invoke().thenApply(ClientFlakeIdGeneratorProxy::decodeIdBatch);
+    }
+
+    private static IdBatch decodeIdBatch(ClientMessage responseMsg) {
         ResponseParameters response = FlakeIdGeneratorNewIdBatchCodec.decodeResponse(responseMsg);
         return new IdBatch(response.base, response.increment, response.batchSize);
     }
 
+    /**
+     * Returns the batcher serving the IDs of this proxy, exposed to read
+     * its prefetch and blocking fetch counters.
+     */
+    public AutoBatcher getBatcher() {
+        return batcher;
+    }
+
     @Override
     public String toString() {
         return "FlakeIdGenerator{name='" + name + "'}";
@@ -97,6 +97,7 @@ public class ClientContext {
         });
         client.disposeOnClientShutdown(() -> {
             nearCacheManagers.values().forEach(NearCacheManager::destroyAllNearCaches);
+            repairingTasks.values().forEach(RepairingTask::shutdown);
         });
     }
 
@@ -119,7 +120,7 @@ public class ClientContext {
             ILogger logger = loggingService.getLogger(RepairingTask.class);
             return new RepairingTask(properties, invalidationMetaDataFetcher, taskScheduler, serializationService,
                     minimalPartitionService,
-                    clientConnectionManager.getClientUuid(), logger);
+                    clientConnectionManager.getClientUuid(), logger, this.name);
         });
     }
 
@@ -290,6 +290,18 @@ public final class ClientProperty {
     public static final HazelcastProperty METRICS_COLLECTION_FREQUENCY
             = new HazelcastProperty("hazelcast.client.metrics.collection.frequency");
 
+    /**
+     * The percentage of the IDs of the current batch of a
+     * {@link com.hazelcast.flakeidgen.FlakeIdGenerator} left when the next
+     * batch is requested from the cluster in the background. The next batch
+     * is then usually available when the current one is spent and
+     * {@code newId()} doesn't have to wait for it.
+     * <p>
+     * Default: 0, the next batch is requested when the current one is spent
+     */
+    public static final HazelcastProperty FLAKE_ID_GENERATOR_PREFETCH_THRESHOLD_PERCENTAGE
+            = new HazelcastProperty("hazelcast.client.flakeidgen.prefetch.threshold.percentage", 0);
+
 
     private ClientProperty() {
     }
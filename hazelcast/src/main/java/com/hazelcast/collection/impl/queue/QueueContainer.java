@@ -26,12 +26,16 @@ import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.internal.serialization.SerializationService;
 import com.hazelcast.internal.util.Clock;
 import com.hazelcast.logging.ILogger;
+import com.hazelcast.memory.MemoryUnit;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
 import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
 import com.hazelcast.spi.impl.NodeEngine;
+import com.hazelcast.spi.properties.ClusterProperty;
+import com.hazelcast.spi.properties.HazelcastProperties;
 import com.hazelcast.transaction.TransactionException;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -58,8 +62,10 @@ import static com.hazelcast.internal.util.ExceptionUtil.rethrow;
 import static com.hazelcast.internal.util.MapUtil.createConcurrentHashMap;
 import static com.hazelcast.internal.util.MapUtil.createHashMap;
 import static com.hazelcast.internal.util.MapUtil.createLinkedHashMap;
+import static com.hazelcast.internal.util.Preconditions.checkPositive;
 import static com.hazelcast.internal.util.SetUtil.createHashSet;
 import static com.hazelcast.internal.util.StringUtil.isNullOrEmpty;
+import static com.hazelcast.internal.util.StringUtil.isNullOrEmptyAfterTrim;
 
 /**
  * The {@code QueueContainer} contains the actual queue and provides functionalities such as :
@@ -82,6 +88,13 @@ public class QueueContainer implements IdentifiedDataSerializable {
     private Queue<QueueItem> itemQueue;
     private QueueConfig config;
     private boolean isPriorityQueue;
+    /**
+     * If the items are stored in a {@link SegmentedItemQueue}
+     */
+    private boolean isSegmented;
+    private int segmentSize;
+    private long spillMemoryLimit;
+    private File spillDirectory;
     private QueueStoreWrapper store;
     private NodeEngine nodeEngine;
     private QueueService service;
@@ -297,6 +310,8 @@ public class QueueContainer implements IdentifiedDataSerializable {
     private void addTxItemOrdered(TxQueueItem txQueueItem) {
         if (isPriorityQueue) {
             getItemQueue().add(txQueueItem);
+        } else if (isSegmented) {
+            ((SegmentedItemQueue) getItemQueue()).offerOrdered(txQueueItem);
         } else {
             ListIterator<QueueItem> iterator = ((List<QueueItem>) getItemQueue()).listIterator();
             while (iterator.hasNext()) {
@@ -612,6 +627,19 @@ public class QueueContainer implements IdentifiedDataSerializable {
             maxSizeParam = getItemQueue().size();
         }
         Map<Long, Data> map = createLinkedHashMap(maxSizeParam);
+        if (isSegmented) {
+            // no queue store is used with segmented storage, the items are moved segment by segment
+            long current = Clock.currentTimeMillis();
+            int drained = ((SegmentedItemQueue) getItemQueue()).drain(maxSizeParam, item -> {
+                map.put(item.getItemId(), item.getSerializedObject());
+                // for stats
+                age(item, current);
+            });
+            if (drained != 0) {
+                scheduleEvictionIfEmpty();
+            }
+            return map;
+        }
         mapDrainIterator(maxSizeParam, map);
         if (store.isEnabled() && maxSizeParam != 0) {
             try {
@@ -915,7 +943,7 @@ public class QueueContainer implements IdentifiedDataSerializable {
      */
     public Queue<QueueItem> getItemQueue() {
         if (itemQueue == null) {
-            itemQueue = isPriorityQueue ? createPriorityQueue() : createLinkedList();
+            itemQueue = isPriorityQueue ? createPriorityQueue() : createFifoQueue();
             if (!txMap.isEmpty()) {
                 long maxItemId = Long.MIN_VALUE;
                 for (TxQueueItem item : txMap.values()) {
@@ -927,23 +955,25 @@ public class QueueContainer implements IdentifiedDataSerializable {
         return itemQueue;
     }
 
-    private Queue<QueueItem> createLinkedList() {
-        Queue<QueueItem> queue = new LinkedList<>();
+    private Queue<QueueItem> createFifoQueue() {
+        Queue<QueueItem> queue = isSegmented ? createSegmentedItemQueue() : new LinkedList<>();
         ConcurrentMap<Long, QueueItem> backupMap = this.backupMap;
         if (backupMap != null && !backupMap.isEmpty()) {
             List<QueueItem> values = new ArrayList<>(backupMap.values());
             Collections.sort(values);
             queue.addAll(values);
-            QueueItem lastItem = ((LinkedList<QueueItem>) queue).peekLast();
-            if (lastItem != null) {
-                setId(lastItem.itemId + ID_PROMOTION_OFFSET);
-            }
+            QueueItem lastItem = values.get(values.size() - 1);
+            setId(lastItem.itemId + ID_PROMOTION_OFFSET);
             backupMap.clear();
             this.backupMap = null;
         }
         return queue;
     }
 
+    private SegmentedItemQueue createSegmentedItemQueue() {
+        return new SegmentedItemQueue(this, segmentSize, spillMemoryLimit, spillMemoryLimit < 0 ? null : spillDirectory);
+    }
+
     private Queue<QueueItem> createPriorityQueue() {
         Queue<QueueItem> queue = createPriorityQueue(config);
         ConcurrentMap<Long, QueueItem> backupMap = this.backupMap;
@@ -1009,6 +1039,9 @@ public class QueueContainer implements IdentifiedDataSerializable {
         while ((item = itemQueue.poll()) != null) {
             backupMap.put(item.getItemId(), item);
         }
+        if (itemQueue instanceof SegmentedItemQueue) {
+            ((SegmentedItemQueue) itemQueue).destroy();
+        }
         this.itemQueue = null;
         this.backupMap = backupMap;
         return backupMap;
@@ -1054,6 +1087,7 @@ public class QueueContainer implements IdentifiedDataSerializable {
         }
 
         this.store = QueueStoreWrapper.create(name, storeConfig, serializationService, classLoader);
+        initSegmentedStorage(nodeEngine.getProperties());
 
         if (isPriorityQueue && store.isEnabled() && store.getMemoryLimit() < Integer.MAX_VALUE) {
             logger.warning("The queue '" + name + "' has both a comparator class and a store memory limit set. "
@@ -1061,6 +1095,30 @@ public class QueueContainer implements IdentifiedDataSerializable {
         }
     }
 
+    /**
+     * Enables the segmented storage if it is configured and applicable to this
+     * queue and moves the existing items (e.g. the items received by a
+     * migration) into a {@link SegmentedItemQueue}.
+     */
+    private void initSegmentedStorage(HazelcastProperties properties) {
+        isSegmented = !isPriorityQueue && !store.isEnabled()
+                && properties.getBoolean(ClusterProperty.QUEUE_SEGMENTED_STORAGE_ENABLED);
+        if (!isSegmented) {
+            return;
+        }
+        segmentSize = checkPositive(ClusterProperty.QUEUE_SEGMENT_SIZE.getName(),
+                properties.getInteger(ClusterProperty.QUEUE_SEGMENT_SIZE));
+        int spillMemoryLimitMB = properties.getInteger(ClusterProperty.QUEUE_SPILL_MEMORY_LIMIT_MB);
+        spillMemoryLimit = spillMemoryLimitMB < 0 ? -1 : MemoryUnit.MEGABYTES.toBytes(spillMemoryLimitMB);
+        String directory = properties.getString(ClusterProperty.QUEUE_SPILL_DIRECTORY);
+        spillDirectory = new File(isNullOrEmptyAfterTrim(directory) ? System.getProperty("java.io.tmpdir") : directory);
+        if (itemQueue != null && !(itemQueue instanceof SegmentedItemQueue)) {
+            Queue<QueueItem> copy = createSegmentedItemQueue();
+            copy.addAll(itemQueue);
+            itemQueue = copy;
+        }
+    }
+
     /**
      * Returns the next ID that can be used for uniquely identifying queue items
      */
@@ -1102,6 +1160,15 @@ public class QueueContainer implements IdentifiedDataSerializable {
         stats.setMaxAge(maxAge);
         long totalAgedCountVal = Math.max(totalAgedCount, 1);
         stats.setAverageAge(totalAge / totalAgedCountVal);
+        Queue<QueueItem> itemQueue = this.itemQueue;
+        if (itemQueue instanceof SegmentedItemQueue) {
+            SegmentedItemQueue segmentedItemQueue = (SegmentedItemQueue) itemQueue;
+            stats.setSpilledBytes(segmentedItemQueue.getSpilledBytes());
+            stats.setSpilledItemCount(segmentedItemQueue.getSpilledItemCount());
+        } else {
+            stats.setSpilledBytes(0);
+            stats.setSpilledItemCount(0);
+        }
     }
 
     /**
@@ -1145,6 +1212,8 @@ public class QueueContainer implements IdentifiedDataSerializable {
                 if (item.isPollOperation()) {
                     if (isPriorityQueue) {
                         getItemQueue().offer(item);
+                    } else if (isSegmented) {
+                        ((SegmentedItemQueue) getItemQueue()).offerFirst(item);
                     } else {
                         ((LinkedList) getItemQueue()).offerFirst(item);
                     }
@@ -1192,9 +1261,7 @@ public class QueueContainer implements IdentifiedDataSerializable {
     }
 
     public void destroy() {
-        if (itemQueue != null) {
-            itemQueue.clear();
-        }
+        destroyItemQueue();
         ConcurrentMap<Long, QueueItem> backupMap = this.backupMap;
         if (backupMap != null) {
             backupMap.clear();
@@ -1203,6 +1270,28 @@ public class QueueContainer implements IdentifiedDataSerializable {
         dataMap.clear();
     }
 
+    /**
+     * Clears the owned items and deletes the spill file of the segmented
+     * storage, if there is one.
+     */
+    void destroyItemQueue() {
+        if (itemQueue instanceof SegmentedItemQueue) {
+            ((SegmentedItemQueue) itemQueue).destroy();
+        } else if (itemQueue != null) {
+            itemQueue.clear();
+        }
+    }
+
+    /**
+     * Deletes the spill file of the segmented storage, if there is one. The
+     * items of other queues are left untouched.
+     */
+    void releaseSpillFile() {
+        if (itemQueue instanceof SegmentedItemQueue) {
+            ((SegmentedItemQueue) itemQueue).destroy();
+        }
+    }
+
     @Override
     public int getFactoryId() {
         return QueueDataSerializerHook.F_ID;
@@ -36,8 +36,8 @@ class QueueContainerCollector extends AbstractNamedContainerCollector<QueueConta
 
     @Override
     protected void destroy(QueueContainer container) {
-        // owned data is stored in the item queue
-        container.getItemQueue().clear();
+        // owned data is stored in the item queue, which may have spilled to a file
+        container.destroyItemQueue();
     }
 
     @Override
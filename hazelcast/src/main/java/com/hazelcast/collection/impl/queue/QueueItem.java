@@ -49,6 +49,13 @@ public class QueueItem implements IdentifiedDataSerializable, Comparable<QueueIt
         this.serializedObject = data;
     }
 
+    QueueItem(QueueContainer container, long itemId, @Nullable Data data, long creationTime) {
+        this.creationTime = creationTime;
+        this.container = container;
+        this.itemId = itemId;
+        this.serializedObject = data;
+    }
+
     public Data getSerializedObject() {
         if (serializedObject == null && container != null) {
             serializedObject = container.getDataFromMap(itemId);
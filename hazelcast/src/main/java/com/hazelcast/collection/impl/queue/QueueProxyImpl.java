@@ -20,6 +20,7 @@ import com.hazelcast.collection.IQueue;
 import com.hazelcast.config.QueueConfig;
 import com.hazelcast.collection.LocalQueueStats;
 import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.spi.impl.InternalCompletableFuture;
 import com.hazelcast.spi.impl.InitializingObject;
 import com.hazelcast.spi.impl.NodeEngine;
 
@@ -31,6 +32,7 @@ import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.concurrent.TimeUnit;
 
+import static com.hazelcast.internal.util.ConcurrencyUtil.CALLER_RUNS;
 import static com.hazelcast.internal.util.Preconditions.checkFalse;
 import static com.hazelcast.internal.util.Preconditions.checkNotNull;
 import static java.lang.Thread.currentThread;
@@ -85,6 +87,41 @@ public class QueueProxyImpl<E> extends QueueProxySupport<E> implements IQueue<E>
         return offerInternal(data, timeUnit.toMillis(timeout));
     }
 
+    /**
+     * Asynchronously inserts the item into this queue without waiting for
+     * space to become available.
+     *
+     * @param e the item to add
+     * @return the future completed with {@code true} if the item was added,
+     * {@code false} if the queue is full
+     */
+    public InternalCompletableFuture<Boolean> offerAsync(@Nonnull E e) {
+        checkNotNull(e, "Null item is not allowed!");
+
+        final NodeEngine nodeEngine = getNodeEngine();
+        final Data data = nodeEngine.toData(e);
+        return offerAsyncInternal(data, 0)
+                .thenApplyAsync(result -> (Boolean) result, CALLER_RUNS);
+    }
+
+    /**
+     * Asynchronously retrieves and removes the head of this queue, waiting up
+     * to the specified time for an item to become available. No thread is
+     * blocked while waiting.
+     *
+     * @param timeout  how long to wait before completing with {@code null}
+     * @param timeUnit the unit of the {@code timeout} argument
+     * @return the future completed with the head of this queue, or with
+     * {@code null} if no item became available in time
+     */
+    public InternalCompletableFuture<E> pollAsync(long timeout, @Nonnull TimeUnit timeUnit) {
+        checkNotNull(timeUnit, "Null timeUnit is not allowed!");
+
+        final NodeEngine nodeEngine = getNodeEngine();
+        return pollAsyncInternal(timeUnit.toMillis(timeout))
+                .thenApplyAsync(nodeEngine::toObject, CALLER_RUNS);
+    }
+
     @Nonnull
     @Override
     public E take() throws InterruptedException {
@@ -100,6 +100,12 @@ abstract class QueueProxySupport<E> extends AbstractDistributedObject<QueueServi
         return (Boolean) invokeAndGet(operation, InterruptedException.class);
     }
 
+    InvocationFuture<Object> offerAsyncInternal(Data data, long timeout) {
+        checkObjectNotNull(data);
+
+        return invoke(new OfferOperation(name, timeout, data));
+    }
+
     public boolean isEmpty() {
         IsEmptyOperation operation = new IsEmptyOperation(name);
         return (Boolean) invokeAndGet(operation);
@@ -130,6 +136,10 @@ abstract class QueueProxySupport<E> extends AbstractDistributedObject<QueueServi
         return invokeAndGet(operation, InterruptedException.class);
     }
 
+    InvocationFuture<Object> pollAsyncInternal(long timeout) {
+        return invoke(new PollOperation(name, timeout));
+    }
+
     boolean removeInternal(Data data) {
         checkObjectNotNull(data);
 
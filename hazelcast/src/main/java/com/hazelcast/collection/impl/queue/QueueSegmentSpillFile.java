@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.collection.impl.queue;
+
+import com.hazelcast.core.HazelcastException;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static com.hazelcast.internal.nio.IOUtil.closeResource;
+import static com.hazelcast.internal.nio.IOUtil.deleteQuietly;
+
+/**
+ * Local file into which the segments of a {@link SegmentedItemQueue} are
+ * spilled. Every spilled segment is written to its own memory-mapped region
+ * of the file. Released regions are kept in a free list and reused by later
+ * allocations, adjacent free regions are merged and free space at the end
+ * of the file is truncated, so the file does not grow beyond the spilled
+ * segments it holds when the queue never fully drains. The file is deleted
+ * once no spilled segment is left and when the queue is destroyed.
+ * <p>
+ * This class is not thread-safe, it is only accessed by the partition thread.
+ */
+final class QueueSegmentSpillFile {
+
+    private final File directory;
+    private final String prefix;
+    // offset -> size of the released regions below position
+    private final TreeMap<Long, Integer> freeRegions = new TreeMap<>();
+
+    private File file;
+    private RandomAccessFile randomAccessFile;
+    private FileChannel channel;
+    private long position;
+    private int regionCount;
+
+    QueueSegmentSpillFile(File directory, String queueName) {
+        this.directory = directory;
+        this.prefix = "hazelcast-queue-" + queueName.replaceAll("[^a-zA-Z0-9_-]", "_") + "-";
+    }
+
+    /**
+     * Maps a region of the given size, either a released region which is
+     * large enough or a new one at the end of the file.
+     *
+     * @param size the size of the region in bytes
+     * @return the offset of the region in the file
+     * @throws HazelcastException if the file cannot be created
+     */
+    long allocate(int size) {
+        try {
+            ensureOpen();
+        } catch (IOException e) {
+            throw new HazelcastException("Could not create queue spill file in " + directory, e);
+        }
+        regionCount++;
+        for (Map.Entry<Long, Integer> entry : freeRegions.entrySet()) {
+            int freeSize = entry.getValue();
+            if (freeSize >= size) {
+                long offset = entry.getKey();
+                freeRegions.remove(offset);
+                if (freeSize > size) {
+                    freeRegions.put(offset + size, freeSize - size);
+                }
+                return offset;
+            }
+        }
+        long offset = position;
+        position += size;
+        return offset;
+    }
+
+    /**
+     * Maps the region at the given offset.
+     *
+     * @param offset the offset returned by {@link #allocate(int)}
+     * @param size   the size of the region in bytes
+     * @return the writable buffer backed by the region
+     * @throws HazelcastException if the region cannot be mapped
+     */
+    MappedByteBuffer map(long offset, int size) {
+        try {
+            return channel.map(FileChannel.MapMode.READ_WRITE, offset, size);
+        } catch (IOException e) {
+            throw new HazelcastException("Could not spill queue segment to " + file, e);
+        }
+    }
+
+    /**
+     * Releases a region previously returned by {@link #allocate(int)}. The
+     * released region must not be accessed anymore.
+     *
+     * @param offset the offset of the region
+     * @param size   the size of the region in bytes
+     */
+    void release(long offset, int size) {
+        regionCount--;
+        if (regionCount == 0) {
+            destroy();
+            return;
+        }
+        Map.Entry<Long, Integer> previous = freeRegions.lowerEntry(offset);
+        if (previous != null && previous.getKey() + previous.getValue() == offset) {
+            freeRegions.remove(previous.getKey());
+            offset = previous.getKey();
+            size += previous.getValue();
+        }
+        Integer nextSize = freeRegions.remove(offset + size);
+        if (nextSize != null) {
+            size += nextSize;
+        }
+        if (offset + size == position) {
+            truncate(offset);
+        } else {
+            freeRegions.put(offset, size);
+        }
+    }
+
+    /**
+     * Returns the size of the file in bytes.
+     */
+    long getFileSize() {
+        return position;
+    }
+
+    /**
+     * Closes and deletes the file. All regions become invalid.
+     */
+    void destroy() {
+        closeResource(channel);
+        closeResource(randomAccessFile);
+        if (file != null) {
+            deleteQuietly(file);
+        }
+        channel = null;
+        randomAccessFile = null;
+        file = null;
+        position = 0;
+        regionCount = 0;
+        freeRegions.clear();
+    }
+
+    private void truncate(long newPosition) {
+        try {
+            channel.truncate(newPosition);
+        } catch (IOException e) {
+            throw new HazelcastException("Could not truncate queue spill file " + file, e);
+        }
+        position = newPosition;
+    }
+
+    private void ensureOpen() throws IOException {
+        if (channel != null) {
+            return;
+        }
+        if (!directory.isDirectory() && !directory.mkdirs() && !directory.isDirectory()) {
+            throw new IOException("Could not create queue spill directory " + directory);
+        }
+        file = File.createTempFile(prefix, ".spill", directory);
+        file.deleteOnExit();
+        randomAccessFile = new RandomAccessFile(file, "rw");
+        channel = randomAccessFile.getChannel();
+    }
+}
@@ -158,6 +158,8 @@ public class QueueService implements ManagedService, MigrationAwareService, Tran
 
     @Override
     public void reset() {
+        // the spill files of queues using segmented storage would otherwise outlive the containers
+        containerMap.values().forEach(QueueContainer::releaseSpillFile);
         containerMap.clear();
     }
 
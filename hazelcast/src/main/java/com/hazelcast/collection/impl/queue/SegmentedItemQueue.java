@@ -0,0 +1,537 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.collection.impl.queue;
+
+import com.hazelcast.core.HazelcastException;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.impl.HeapData;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.util.AbstractQueue;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.ListIterator;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+/**
+ * FIFO queue of {@link QueueItem}s which stores the items in fixed-size
+ * array segments instead of linked nodes.
+ * <p>
+ * When a spill directory is given and the data of the in-memory items
+ * exceeds the memory limit, every segment which gets full is spilled into a
+ * memory-mapped {@link QueueSegmentSpillFile}. The first segment always stays
+ * in memory; a spilled segment is read back as a whole once it becomes the
+ * head of the queue. Iteration reads spilled segments without bringing them
+ * back into memory, unless an item is removed through the iterator.
+ * <p>
+ * Bulk operations work on segments: {@link #addAll(Collection)} copies the
+ * items into segments in chunks and {@link #drain(int, Consumer)} detaches
+ * whole segments from the head of the queue.
+ * <p>
+ * The data of the items must not change while they are in the queue, that is
+ * why this queue is not used together with an enabled queue store.
+ * <p>
+ * This class is not thread-safe, it is only accessed by the partition thread.
+ */
+@SuppressWarnings("checkstyle:methodcount")
+final class SegmentedItemQueue extends AbstractQueue<QueueItem> {
+
+    // item ID, creation time and data length
+    private static final int SPILLED_ITEM_HEADER_BYTES = 2 * Long.BYTES + Integer.BYTES;
+    private static final int NULL_DATA_LENGTH = -1;
+
+    private final LinkedList<Segment> segments = new LinkedList<>();
+    private final QueueContainer container;
+    private final int segmentSize;
+    private final long memoryLimit;
+    private final QueueSegmentSpillFile spillFile;
+
+    private int size;
+    private int modCount;
+    private long inMemoryBytes;
+    private long spilledBytes;
+    private int spilledItemCount;
+
+    /**
+     * @param container      the container owning the queue
+     * @param segmentSize    the number of items in a segment
+     * @param memoryLimit    the number of data bytes kept in memory before segments are spilled
+     * @param spillDirectory the directory of the spill file or {@code null} if spilling is disabled
+     */
+    SegmentedItemQueue(QueueContainer container, int segmentSize, long memoryLimit, File spillDirectory) {
+        this.container = container;
+        this.segmentSize = segmentSize;
+        this.memoryLimit = memoryLimit;
+        this.spillFile = spillDirectory != null ? new QueueSegmentSpillFile(spillDirectory, container.getName()) : null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean offer(QueueItem item) {
+        Segment tail = writableTail();
+        tail.items[tail.tail++] = item;
+        added(tail, item);
+        return true;
+    }
+
+    /**
+     * Inserts the item at the head of the queue.
+     */
+    void offerFirst(QueueItem item) {
+        Segment head = segments.peekFirst();
+        if (head == null || head.isSpilled() || head.head == 0) {
+            head = new Segment(segmentSize);
+            head.head = segmentSize;
+            head.tail = segmentSize;
+            segments.addFirst(head);
+        }
+        head.items[--head.head] = item;
+        added(head, item);
+    }
+
+    /**
+     * Inserts the item before the first item with a greater item ID.
+     */
+    void offerOrdered(QueueItem item) {
+        ListIterator<Segment> iterator = segments.listIterator();
+        while (iterator.hasNext()) {
+            Segment segment = iterator.next();
+            if (item.getItemId() < segment.lastItemId()) {
+                if (segment.isSpilled()) {
+                    inflate(segment, readSpilled(segment));
+                }
+                insert(iterator, segment, item);
+                return;
+            }
+        }
+        offer(item);
+    }
+
+    @Override
+    public QueueItem peek() {
+        Segment head = segments.peekFirst();
+        if (head == null) {
+            return null;
+        }
+        if (head.isSpilled()) {
+            inflate(head, readSpilled(head));
+        }
+        return head.items[head.head];
+    }
+
+    /**
+     * Returns the last item of the queue or {@code null} if the queue is empty.
+     */
+    QueueItem peekLast() {
+        Segment tail = segments.peekLast();
+        if (tail == null) {
+            return null;
+        }
+        if (tail.isSpilled()) {
+            inflate(tail, readSpilled(tail));
+        }
+        return tail.items[tail.tail - 1];
+    }
+
+    @Override
+    public QueueItem poll() {
+        QueueItem item = peek();
+        if (item == null) {
+            return null;
+        }
+        Segment head = segments.getFirst();
+        head.items[head.head++] = null;
+        removed(head, item);
+        if (head.isEmpty()) {
+            segments.removeFirst();
+        }
+        return item;
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends QueueItem> items) {
+        QueueItem[] batch = items.toArray(new QueueItem[0]);
+        int offset = 0;
+        while (offset < batch.length) {
+            Segment tail = writableTail();
+            int count = Math.min(segmentSize - tail.tail, batch.length - offset);
+            System.arraycopy(batch, offset, tail.items, tail.tail, count);
+            for (int i = 0; i < count; i++) {
+                tail.tail++;
+                added(tail, batch[offset + i]);
+            }
+            offset += count;
+        }
+        return batch.length > 0;
+    }
+
+    /**
+     * Removes up to {@code maxItems} items from the head of the queue and
+     * passes them to the consumer in queue order. Segments which are drained
+     * completely are detached from the queue as a whole.
+     *
+     * @return the number of drained items
+     */
+    int drain(int maxItems, Consumer<QueueItem> consumer) {
+        int drained = 0;
+        while (drained < maxItems && !segments.isEmpty()) {
+            Segment head = segments.getFirst();
+            int count = head.count();
+            if (count > maxItems - drained) {
+                consumer.accept(poll());
+                drained++;
+                continue;
+            }
+            segments.removeFirst();
+            QueueItem[] items;
+            int from;
+            if (head.isSpilled()) {
+                items = readSpilled(head);
+                from = 0;
+                releaseSpilled(head);
+            } else {
+                items = head.items;
+                from = head.head;
+                inMemoryBytes -= head.dataBytes;
+            }
+            for (int i = from; i < from + count; i++) {
+                consumer.accept(items[i]);
+            }
+            size -= count;
+            drained += count;
+            modCount++;
+        }
+        return drained;
+    }
+
+    @Override
+    public void clear() {
+        for (Segment segment : segments) {
+            if (segment.isSpilled()) {
+                releaseSpilled(segment);
+            }
+        }
+        segments.clear();
+        size = 0;
+        inMemoryBytes = 0;
+        modCount++;
+    }
+
+    /**
+     * Clears the queue and deletes the spill file.
+     */
+    void destroy() {
+        clear();
+        if (spillFile != null) {
+            spillFile.destroy();
+        }
+    }
+
+    @Override
+    public Iterator<QueueItem> iterator() {
+        return new SegmentedIterator();
+    }
+
+    long getInMemoryBytes() {
+        return inMemoryBytes;
+    }
+
+    long getSpilledBytes() {
+        return spilledBytes;
+    }
+
+    int getSpilledItemCount() {
+        return spilledItemCount;
+    }
+
+    int getSegmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * Returns a segment with free space at its end. When a new segment has
+     * to be started, the previous (now full) segment is spilled if the
+     * memory limit is exceeded.
+     */
+    private Segment writableTail() {
+        Segment tail = segments.peekLast();
+        if (tail != null && !tail.isSpilled() && tail.tail < segmentSize) {
+            return tail;
+        }
+        if (tail != null && spillFile != null && !tail.isSpilled()
+                && inMemoryBytes > memoryLimit && tail != segments.peekFirst()) {
+            spill(tail);
+        }
+        Segment segment = new Segment(segmentSize);
+        segments.addLast(segment);
+        return segment;
+    }
+
+    private void insert(ListIterator<Segment> iterator, Segment segment, QueueItem item) {
+        QueueItem[] items = segment.items;
+        int index = segment.head;
+        while (items[index].getItemId() < item.getItemId()) {
+            index++;
+        }
+        if (segment.tail < segmentSize) {
+            System.arraycopy(items, index, items, index + 1, segment.tail - index);
+            items[index] = item;
+            segment.tail++;
+        } else if (segment.head > 0) {
+            System.arraycopy(items, segment.head, items, segment.head - 1, index - segment.head);
+            items[index - 1] = item;
+            segment.head--;
+        } else {
+            // split the full segment, the items after the insertion point go to a new segment
+            Segment next = new Segment(segmentSize);
+            int moved = segment.tail - index;
+            System.arraycopy(items, index, next.items, 0, moved);
+            for (int i = 0; i < moved; i++) {
+                next.dataBytes += dataSize(next.items[i]);
+                items[index + i] = null;
+            }
+            next.tail = moved;
+            segment.dataBytes -= next.dataBytes;
+            segment.tail = index + 1;
+            items[index] = item;
+            iterator.add(next);
+        }
+        added(segment, item);
+    }
+
+    private void added(Segment segment, QueueItem item) {
+        int bytes = dataSize(item);
+        segment.dataBytes += bytes;
+        inMemoryBytes += bytes;
+        size++;
+        modCount++;
+    }
+
+    private void removed(Segment segment, QueueItem item) {
+        int bytes = dataSize(item);
+        segment.dataBytes -= bytes;
+        inMemoryBytes -= bytes;
+        size--;
+        modCount++;
+    }
+
+    private void spill(Segment segment) {
+        QueueItem[] items = segment.items;
+        long totalSize = 0;
+        for (int i = segment.head; i < segment.tail; i++) {
+            totalSize += SPILLED_ITEM_HEADER_BYTES + dataSize(items[i]);
+        }
+        if (totalSize > Integer.MAX_VALUE) {
+            // a mapped region cannot be larger, keep the segment in memory
+            return;
+        }
+        int spillSize = (int) totalSize;
+        long offset = spillFile.allocate(spillSize);
+        MappedByteBuffer buffer;
+        try {
+            buffer = spillFile.map(offset, spillSize);
+        } catch (HazelcastException e) {
+            spillFile.release(offset, spillSize);
+            throw e;
+        }
+        for (int i = segment.head; i < segment.tail; i++) {
+            QueueItem item = items[i];
+            buffer.putLong(item.getItemId());
+            buffer.putLong(item.getCreationTime());
+            Data data = item.serializedObject;
+            if (data == null) {
+                buffer.putInt(NULL_DATA_LENGTH);
+            } else {
+                byte[] bytes = data.toByteArray();
+                buffer.putInt(bytes.length);
+                buffer.put(bytes);
+            }
+        }
+        segment.spilledCount = segment.count();
+        segment.spilledLastItemId = items[segment.tail - 1].getItemId();
+        segment.spilled = buffer;
+        segment.spilledOffset = offset;
+        segment.items = null;
+        inMemoryBytes -= segment.dataBytes;
+        spilledBytes += spillSize;
+        spilledItemCount += segment.spilledCount;
+    }
+
+    /**
+     * Reads the items of a spilled segment into a new array of the segment
+     * size, the items start at index 0. Does not change the segment.
+     */
+    private QueueItem[] readSpilled(Segment segment) {
+        ByteBuffer buffer = segment.spilled.duplicate();
+        buffer.clear();
+        QueueItem[] items = new QueueItem[segmentSize];
+        for (int i = 0; i < segment.spilledCount; i++) {
+            long itemId = buffer.getLong();
+            long creationTime = buffer.getLong();
+            int length = buffer.getInt();
+            Data data = null;
+            if (length != NULL_DATA_LENGTH) {
+                byte[] bytes = new byte[length];
+                buffer.get(bytes);
+                data = new HeapData(bytes);
+            }
+            items[i] = new QueueItem(container, itemId, data, creationTime);
+        }
+        return items;
+    }
+
+    /**
+     * Brings a spilled segment back into memory using the items read by
+     * {@link #readSpilled(Segment)}.
+     */
+    private void inflate(Segment segment, QueueItem[] items) {
+        int count = segment.spilledCount;
+        releaseSpilled(segment);
+        segment.items = items;
+        segment.head = 0;
+        segment.tail = count;
+        inMemoryBytes += segment.dataBytes;
+    }
+
+    private void releaseSpilled(Segment segment) {
+        int spillSize = segment.spilled.capacity();
+        spilledBytes -= spillSize;
+        spilledItemCount -= segment.spilledCount;
+        segment.spilled = null;
+        spillFile.release(segment.spilledOffset, spillSize);
+    }
+
+    private static int dataSize(QueueItem item) {
+        Data data = item.serializedObject;
+        return data == null ? 0 : data.totalSize();
+    }
+
+    /**
+     * A chunk of consecutive queue items. While in memory, the items are
+     * stored in {@code items[head..tail)}. While spilled, {@code items} is
+     * {@code null} and the items are encoded in the {@code spilled} buffer.
+     */
+    private static final class Segment {
+
+        QueueItem[] items;
+        int head;
+        int tail;
+        long dataBytes;
+
+        MappedByteBuffer spilled;
+        long spilledOffset;
+        int spilledCount;
+        long spilledLastItemId;
+
+        Segment(int segmentSize) {
+            items = new QueueItem[segmentSize];
+        }
+
+        boolean isSpilled() {
+            return items == null;
+        }
+
+        boolean isEmpty() {
+            return count() == 0;
+        }
+
+        int count() {
+            return items == null ? spilledCount : tail - head;
+        }
+
+        long lastItemId() {
+            return items == null ? spilledLastItemId : items[tail - 1].getItemId();
+        }
+    }
+
+    private final class SegmentedIterator implements Iterator<QueueItem> {
+
+        private final ListIterator<Segment> segmentIterator = segments.listIterator();
+        private Segment segment;
+        private QueueItem[] view;
+        private int index;
+        private int end;
+        private int lastReturned = -1;
+        private int expectedModCount = modCount;
+
+        @Override
+        public boolean hasNext() {
+            // segments are never empty
+            return index < end || segmentIterator.hasNext();
+        }
+
+        @Override
+        public QueueItem next() {
+            checkForComodification();
+            if (index >= end) {
+                if (!segmentIterator.hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                segment = segmentIterator.next();
+                if (segment.isSpilled()) {
+                    view = readSpilled(segment);
+                    index = 0;
+                    end = segment.spilledCount;
+                } else {
+                    view = segment.items;
+                    index = segment.head;
+                    end = segment.tail;
+                }
+            }
+            lastReturned = index;
+            return view[index++];
+        }
+
+        @Override
+        public void remove() {
+            if (lastReturned < 0) {
+                throw new IllegalStateException();
+            }
+            checkForComodification();
+            if (segment.isSpilled()) {
+                inflate(segment, view);
+            }
+            QueueItem[] items = segment.items;
+            QueueItem item = items[lastReturned];
+            System.arraycopy(items, lastReturned + 1, items, lastReturned, segment.tail - lastReturned - 1);
+            items[--segment.tail] = null;
+            removed(segment, item);
+            if (segment.isEmpty()) {
+                segmentIterator.remove();
+            }
+            index = lastReturned;
+            end = segment.tail;
+            lastReturned = -1;
+            expectedModCount = modCount;
+        }
+
+        private void checkForComodification() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+}
@@ -92,6 +92,8 @@ public abstract class AbstractCacheConfig<K, V> implements CacheConfiguration<K,
 
     protected EventJournalConfig eventJournalConfig = new EventJournalConfig();
 
+    protected MerkleTreeConfig merkleTreeConfig = new MerkleTreeConfig();
+
     /**
      * The ClassLoader to be used to resolve key &amp; value types, if set
      */
@@ -291,6 +293,26 @@ public abstract class AbstractCacheConfig<K, V> implements CacheConfiguration<K,
         return this;
     }
 
+    /**
+     * Gets the {@code MerkleTreeConfig} for this {@code CacheConfiguration}
+     *
+     * @return merkle tree config
+     */
+    public @Nonnull MerkleTreeConfig getMerkleTreeConfig() {
+        return merkleTreeConfig;
+    }
+
+    /**
+     * Sets the {@code MerkleTreeConfig} for this {@code CacheConfiguration}
+     *
+     * @param merkleTreeConfig merkle tree config
+     * @return this {@code CacheConfiguration} instance
+     */
+    public CacheConfiguration<K, V> setMerkleTreeConfig(@Nonnull MerkleTreeConfig merkleTreeConfig) {
+        this.merkleTreeConfig = checkNotNull(merkleTreeConfig, "merkleTreeConfig cannot be null!");
+        return this;
+    }
+
     @Override
     public Factory<CacheLoader<K, V>> getCacheLoaderFactory() {
         return cacheLoaderFactory.get(serializationService);
@@ -484,6 +506,7 @@ public abstract class AbstractCacheConfig<K, V> implements CacheConfiguration<K,
         result = 31 * result + (isManagementEnabled ? 1 : 0);
         result = 31 * result + hotRestartConfig.hashCode();
         result = 31 * result + eventJournalConfig.hashCode();
+        result = 31 * result + merkleTreeConfig.hashCode();
         return result;
     }
 
@@ -542,6 +565,9 @@ public abstract class AbstractCacheConfig<K, V> implements CacheConfiguration<K,
         if (!eventJournalConfig.equals(that.eventJournalConfig)) {
             return false;
         }
+        if (!merkleTreeConfig.equals(that.merkleTreeConfig)) {
+            return false;
+        }
         if (!hotRestartConfig.equals(that.hotRestartConfig)) {
             return false;
         }
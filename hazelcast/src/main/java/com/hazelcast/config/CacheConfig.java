@@ -105,6 +105,7 @@ public class CacheConfig<K, V> extends AbstractCacheConfig<K, V> {
             this.inMemoryFormat = config.inMemoryFormat;
             this.hotRestartConfig = new HotRestartConfig(config.hotRestartConfig);
             this.eventJournalConfig = new EventJournalConfig(config.eventJournalConfig);
+            this.merkleTreeConfig = new MerkleTreeConfig(config.merkleTreeConfig);
             // eviction config is not allowed to be null
             if (config.evictionConfig != null) {
                 this.evictionConfig = new EvictionConfig(config.evictionConfig);
@@ -154,6 +155,7 @@ public class CacheConfig<K, V> extends AbstractCacheConfig<K, V> {
         this.mergePolicyConfig = new MergePolicyConfig(simpleConfig.getMergePolicyConfig());
         this.hotRestartConfig = new HotRestartConfig(simpleConfig.getHotRestartConfig());
         this.eventJournalConfig = new EventJournalConfig(simpleConfig.getEventJournalConfig());
+        this.merkleTreeConfig = new MerkleTreeConfig(simpleConfig.getMerkleTreeConfig());
         this.disablePerEntryInvalidationEvents = simpleConfig.isDisablePerEntryInvalidationEvents();
     }
 
@@ -517,6 +519,7 @@ public class CacheConfig<K, V> extends AbstractCacheConfig<K, V> {
 
         out.writeObject(mergePolicyConfig);
         out.writeBoolean(disablePerEntryInvalidationEvents);
+        out.writeObject(merkleTreeConfig);
 
         writePartitionLostListenerConfigs(out);
     }
@@ -573,6 +576,7 @@ public class CacheConfig<K, V> extends AbstractCacheConfig<K, V> {
 
         mergePolicyConfig = in.readObject();
         disablePerEntryInvalidationEvents = in.readBoolean();
+        merkleTreeConfig = in.readObject();
 
         setClassLoader(in.getClassLoader());
         assert in instanceof SerializationServiceSupport;
@@ -698,6 +702,7 @@ public class CacheConfig<K, V> extends AbstractCacheConfig<K, V> {
         target.setEvictionConfig(getEvictionConfig());
         target.setHotRestartConfig(getHotRestartConfig());
         target.setEventJournalConfig(getEventJournalConfig());
+        target.setMerkleTreeConfig(getMerkleTreeConfig());
         target.setInMemoryFormat(getInMemoryFormat());
         if (resolved) {
             target.setKeyType(getKeyType());
@@ -100,6 +100,8 @@ public class CacheSimpleConfig implements IdentifiedDataSerializable, NamedConfi
 
     private EventJournalConfig eventJournalConfig = new EventJournalConfig();
 
+    private MerkleTreeConfig merkleTreeConfig = new MerkleTreeConfig();
+
     private MergePolicyConfig mergePolicyConfig = new MergePolicyConfig();
 
     /**
@@ -138,6 +140,7 @@ public class CacheSimpleConfig implements IdentifiedDataSerializable, NamedConfi
         this.mergePolicyConfig = new MergePolicyConfig(cacheSimpleConfig.mergePolicyConfig);
         this.hotRestartConfig = new HotRestartConfig(cacheSimpleConfig.hotRestartConfig);
         this.eventJournalConfig = new EventJournalConfig(cacheSimpleConfig.eventJournalConfig);
+        this.merkleTreeConfig = new MerkleTreeConfig(cacheSimpleConfig.merkleTreeConfig);
         this.disablePerEntryInvalidationEvents = cacheSimpleConfig.disablePerEntryInvalidationEvents;
     }
 
@@ -678,6 +681,26 @@ public class CacheSimpleConfig implements IdentifiedDataSerializable, NamedConfi
         return this;
     }
 
+    /**
+     * Gets the {@code MerkleTreeConfig} for this {@code CacheSimpleConfig}
+     *
+     * @return merkle tree config
+     */
+    public MerkleTreeConfig getMerkleTreeConfig() {
+        return merkleTreeConfig;
+    }
+
+    /**
+     * Sets the {@code MerkleTreeConfig} for this {@code CacheSimpleConfig}
+     *
+     * @param merkleTreeConfig merkle tree config
+     * @return this {@code CacheSimpleConfig} instance
+     */
+    public CacheSimpleConfig setMerkleTreeConfig(@Nonnull MerkleTreeConfig merkleTreeConfig) {
+        this.merkleTreeConfig = checkNotNull(merkleTreeConfig, "merkleTreeConfig cannot be null!");
+        return this;
+    }
+
     /**
      * Returns invalidation events disabled status for per entry.
      *
@@ -735,6 +758,7 @@ public class CacheSimpleConfig implements IdentifiedDataSerializable, NamedConfi
         out.writeObject(mergePolicyConfig);
         out.writeObject(hotRestartConfig);
         out.writeObject(eventJournalConfig);
+        out.writeObject(merkleTreeConfig);
     }
 
     @Override
@@ -763,6 +787,7 @@ public class CacheSimpleConfig implements IdentifiedDataSerializable, NamedConfi
         mergePolicyConfig = in.readObject();
         hotRestartConfig = in.readObject();
         eventJournalConfig = in.readObject();
+        merkleTreeConfig = in.readObject();
     }
 
     @Override
@@ -846,6 +871,9 @@ public class CacheSimpleConfig implements IdentifiedDataSerializable, NamedConfi
         if (!Objects.equals(eventJournalConfig, that.eventJournalConfig)) {
             return false;
         }
+        if (!Objects.equals(merkleTreeConfig, that.merkleTreeConfig)) {
+            return false;
+        }
         return Objects.equals(hotRestartConfig, that.hotRestartConfig);
     }
 
@@ -875,6 +903,7 @@ public class CacheSimpleConfig implements IdentifiedDataSerializable, NamedConfi
         result = 31 * result + (mergePolicyConfig != null ? mergePolicyConfig.hashCode() : 0);
         result = 31 * result + (hotRestartConfig != null ? hotRestartConfig.hashCode() : 0);
         result = 31 * result + (eventJournalConfig != null ? eventJournalConfig.hashCode() : 0);
+        result = 31 * result + (merkleTreeConfig != null ? merkleTreeConfig.hashCode() : 0);
         result = 31 * result + (disablePerEntryInvalidationEvents ? 1 : 0);
         return result;
     }
@@ -905,6 +934,7 @@ public class CacheSimpleConfig implements IdentifiedDataSerializable, NamedConfi
                 + ", mergePolicyConfig=" + mergePolicyConfig
                 + ", hotRestartConfig=" + hotRestartConfig
                 + ", eventJournal=" + eventJournalConfig
+                + ", merkleTree=" + merkleTreeConfig
                 + '}';
     }
 
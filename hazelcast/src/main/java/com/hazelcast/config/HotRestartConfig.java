@@ -60,6 +60,11 @@ public class HotRestartConfig implements IdentifiedDataSerializable {
 
     /**
      * Returns whether disk write should be followed by an {@code fsync()} system call.
+     * <p>
+     * In the open source persistence the writes are not forced one by one before the
+     * operation is acknowledged. The writes are flushed in groups every 100 milliseconds
+     * and, if fsync is enabled, the flush is followed by a single {@code fsync()}. An
+     * acknowledged write may be lost if the machine fails within that interval.
      *
      * @return true if fsync is be called after disk write, false otherwise
      */
@@ -69,6 +74,7 @@ public class HotRestartConfig implements IdentifiedDataSerializable {
 
     /**
      * Sets whether disk write should be followed by an {@code fsync()} system call.
+     * See {@link #isFsync()} for when the open source persistence calls it.
      *
      * @param fsync fsync
      * @return this HotRestartConfig
@@ -32,6 +32,11 @@ import static com.hazelcast.internal.util.Preconditions.checkPositive;
  * HotRestartConfig configures whether hot restart is enabled,
  * where disk data will be stored, should data be persisted
  * sync or async etc.
+ * <p>
+ * Only {@link com.hazelcast.map.IMap} data is persisted. The
+ * {@link HotRestartConfig} of a cache is accepted but has no effect,
+ * the entries of a {@link com.hazelcast.cache.ICache} are not
+ * written to disk and are lost when the cluster restarts.
  */
 public class HotRestartPersistenceConfig {
     /** Default directory name for the Hot Restart store's home */
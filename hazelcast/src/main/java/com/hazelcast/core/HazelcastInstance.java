@@ -26,6 +26,7 @@ import com.hazelcast.collection.IList;
 import com.hazelcast.collection.IQueue;
 import com.hazelcast.collection.ISet;
 import com.hazelcast.config.Config;
+import com.hazelcast.countermap.CounterMap;
 import com.hazelcast.cp.CPSubsystem;
 import com.hazelcast.crdt.pncounter.PNCounter;
 import com.hazelcast.durableexecutor.DurableExecutorService;
@@ -423,6 +424,22 @@ public interface HazelcastInstance {
      */
     @Nonnull CardinalityEstimator getCardinalityEstimator(@Nonnull String name);
 
+    /**
+     * Obtain a {@link CounterMap} with the given name.
+     * <p>
+     * The counter map holds {@code long} counters by key, partitioned
+     * across the cluster. It can be used to keep a large number of
+     * counters, such as one per entity, without the cost of a distributed
+     * object per counter.
+     *
+     * @param name the name of the counter map
+     * @param <K>  the type of the keys
+     * @return a {@link CounterMap}
+     * @since 4.2
+     */
+    @Beta
+    @Nonnull <K> CounterMap<K> getCounterMap(@Nonnull String name);
+
     /**
      * Creates or returns a {@link PNCounter} with the given
      * name.
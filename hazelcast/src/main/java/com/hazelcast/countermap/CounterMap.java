@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.countermap;
+
+import com.hazelcast.core.DistributedObject;
+import com.hazelcast.spi.annotation.Beta;
+
+import javax.annotation.Nonnull;
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * CounterMap is a partitioned, AP data-structure mapping keys to
+ * {@code long} counters.
+ * <p>
+ * It is meant for large numbers of counters, such as one per entity,
+ * where a distributed object per counter would be too costly. The
+ * counters are partitioned by key like the entries of an
+ * {@link com.hazelcast.map.IMap} and kept in one hash table per
+ * partition, which stores the serialized key of a counter next to its
+ * {@code long} value. A counter therefore costs its serialized key (an
+ * on-heap {@code Data} object and its byte array) and a slot of the
+ * table, but no value object, record or proxy. Every counter starts at
+ * {@code 0} and a counter which gets back to {@code 0} does not take
+ * any memory.
+ * <p>
+ * Updates are replicated to a single synchronous backup. Unlike
+ * {@link com.hazelcast.cp.IAtomicLong}, the counters are not linearizable
+ * and an update may be lost if the owner of the partition crashes
+ * before the backup is applied.
+ * <p>
+ * Keys are considered identical if they are serialized into the same
+ * binary blob. In other words: It does <strong>not</strong> use Java
+ * equality.
+ *
+ * @param <K> the type of the keys
+ * @since 4.2
+ */
+@Beta
+public interface CounterMap<K> extends DistributedObject {
+
+    /**
+     * Returns the current value of the counter of the given key.
+     *
+     * @param key the key of the counter
+     * @return the current value or {@code 0} if the counter has never
+     * been updated
+     * @throws NullPointerException if key is null
+     */
+    long get(@Nonnull K key);
+
+    /**
+     * Adds the given value to the counter of the given key.
+     *
+     * @param key   the key of the counter
+     * @param delta the value to add, can be negative
+     * @return the updated value
+     * @throws NullPointerException if key is null
+     */
+    long addAndGet(@Nonnull K key, long delta);
+
+    /**
+     * Adds the given value to the counter of the given key.
+     * <p>
+     * This method will dispatch a request and return immediately a
+     * {@link CompletionStage} bearing the updated value.
+     *
+     * @param key   the key of the counter
+     * @param delta the value to add, can be negative
+     * @return a {@link CompletionStage} bearing the updated value
+     * @throws NullPointerException if key is null
+     */
+    CompletionStage<Long> addAndGetAsync(@Nonnull K key, long delta);
+
+    /**
+     * Adds the given values to the counters of their keys.
+     * <p>
+     * The updates are sent in a single request per partition, which makes
+     * updating many counters at once considerably cheaper than updating
+     * them one by one. The updates of different partitions are not
+     * atomic: if this method throws an exception, some of them may have
+     * been applied.
+     *
+     * @param deltas the values to add, by the keys of the counters
+     * @return the updated values, by the keys of the counters
+     * @throws NullPointerException if deltas or any of its keys or values is null
+     */
+    Map<K, Long> addAndGetAll(@Nonnull Map<? extends K, Long> deltas);
+
+    /**
+     * Resets the counter of the given key to {@code 0}.
+     *
+     * @param key the key of the counter
+     * @return the value before the reset
+     * @throws NullPointerException if key is null
+     */
+    long remove(@Nonnull K key);
+}
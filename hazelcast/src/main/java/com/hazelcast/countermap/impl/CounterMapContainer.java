@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.countermap.impl;
+
+import com.hazelcast.internal.nio.IOUtil;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.util.collection.Object2LongHashMap;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+
+import java.io.IOException;
+
+/**
+ * The counters of a {@link com.hazelcast.countermap.CounterMap} in a
+ * single partition.
+ * <p>
+ * The counters are kept in an open addressing hash table of serialized
+ * keys and primitive values, so every stored counter holds on to its
+ * on-heap key and the key's byte array, while the value is not boxed.
+ * A counter with the value of {@code 0} is not stored. Not thread-safe,
+ * it is supposed to be accessed only by the partition thread.
+ */
+public class CounterMapContainer implements IdentifiedDataSerializable {
+
+    private Object2LongHashMap<Data> counters = new Object2LongHashMap<>(0);
+
+    public CounterMapContainer() {
+    }
+
+    private CounterMapContainer(Object2LongHashMap<Data> counters) {
+        this.counters = counters;
+    }
+
+    public long get(Data key) {
+        return counters.getValue(key);
+    }
+
+    public long addAndGet(Data key, long delta) {
+        long value = counters.getValue(key) + delta;
+        set(key, value);
+        return value;
+    }
+
+    public void set(Data key, long value) {
+        if (value == 0) {
+            counters.removeKey(key);
+        } else {
+            counters.put(key, value);
+        }
+    }
+
+    public long remove(Data key) {
+        return counters.removeKey(key);
+    }
+
+    public int size() {
+        return counters.size();
+    }
+
+    /**
+     * Returns a copy of this container which can be serialized outside
+     * of the partition thread.
+     */
+    public CounterMapContainer copy() {
+        return new CounterMapContainer(new Object2LongHashMap<>(counters));
+    }
+
+    @Override
+    public int getFactoryId() {
+        return CounterMapDataSerializerHook.F_ID;
+    }
+
+    @Override
+    public int getClassId() {
+        return CounterMapDataSerializerHook.CONTAINER;
+    }
+
+    @Override
+    public void writeData(ObjectDataOutput out) throws IOException {
+        out.writeInt(counters.size());
+        Object2LongHashMap<Data>.EntryIterator iterator = counters.entrySet().iterator();
+        while (iterator.hasNext()) {
+            iterator.next();
+            IOUtil.writeData(out, iterator.getKey());
+            out.writeLong(iterator.getLongValue());
+        }
+    }
+
+    @Override
+    public void readData(ObjectDataInput in) throws IOException {
+        int size = in.readInt();
+        counters = new Object2LongHashMap<>(0);
+        for (int i = 0; i < size; i++) {
+            Data key = IOUtil.readData(in);
+            counters.put(key, in.readLong());
+        }
+    }
+}
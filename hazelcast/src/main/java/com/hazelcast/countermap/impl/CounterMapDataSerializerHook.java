@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.countermap.impl;
+
+import com.hazelcast.countermap.impl.operations.AddAndGetAllOperation;
+import com.hazelcast.countermap.impl.operations.AddAndGetOperation;
+import com.hazelcast.countermap.impl.operations.GetOperation;
+import com.hazelcast.countermap.impl.operations.RemoveOperation;
+import com.hazelcast.countermap.impl.operations.ReplicationOperation;
+import com.hazelcast.countermap.impl.operations.SetBackupOperation;
+import com.hazelcast.internal.serialization.DataSerializerHook;
+import com.hazelcast.internal.serialization.impl.FactoryIdHelper;
+import com.hazelcast.nio.serialization.DataSerializableFactory;
+import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+
+import static com.hazelcast.internal.serialization.impl.FactoryIdHelper.COUNTER_MAP_DS_FACTORY;
+import static com.hazelcast.internal.serialization.impl.FactoryIdHelper.COUNTER_MAP_DS_FACTORY_ID;
+
+public final class CounterMapDataSerializerHook implements DataSerializerHook {
+
+    public static final int F_ID = FactoryIdHelper.getFactoryId(COUNTER_MAP_DS_FACTORY, COUNTER_MAP_DS_FACTORY_ID);
+
+    public static final int CONTAINER = 0;
+    public static final int GET = 1;
+    public static final int ADD_AND_GET = 2;
+    public static final int ADD_AND_GET_ALL = 3;
+    public static final int REMOVE = 4;
+    public static final int SET_BACKUP = 5;
+    public static final int REPLICATION = 6;
+
+    @Override
+    public int getFactoryId() {
+        return F_ID;
+    }
+
+    @Override
+    public DataSerializableFactory createFactory() {
+        return new DataSerializableFactory() {
+            @Override
+            public IdentifiedDataSerializable create(int typeId) {
+                switch (typeId) {
+                    case CONTAINER:
+                        return new CounterMapContainer();
+                    case GET:
+                        return new GetOperation();
+                    case ADD_AND_GET:
+                        return new AddAndGetOperation();
+                    case ADD_AND_GET_ALL:
+                        return new AddAndGetAllOperation();
+                    case REMOVE:
+                        return new RemoveOperation();
+                    case SET_BACKUP:
+                        return new SetBackupOperation();
+                    case REPLICATION:
+                        return new ReplicationOperation();
+                    default:
+                        return null;
+                }
+            }
+        };
+    }
+}
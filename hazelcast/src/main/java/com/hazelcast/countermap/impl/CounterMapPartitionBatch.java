@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.countermap.impl;
+
+import com.hazelcast.internal.serialization.Data;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+import static com.hazelcast.internal.util.Preconditions.checkNotNull;
+
+/**
+ * The updates of counters of a single partition, sent together by
+ * {@link com.hazelcast.countermap.CounterMap#addAndGetAll(Map)}.
+ *
+ * @param <K> the type of the keys
+ */
+public final class CounterMapPartitionBatch<K> {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final List<K> keys = new ArrayList<>();
+    private final List<Data> dataKeys = new ArrayList<>();
+    private long[] deltas = new long[INITIAL_CAPACITY];
+
+    private CounterMapPartitionBatch() {
+    }
+
+    /**
+     * Groups the given updates by the partitions of their keys.
+     *
+     * @param deltas        the values to add, by the keys of the counters
+     * @param toData        serializes a key
+     * @param toPartitionId returns the partition ID of a serialized key
+     * @param <K>           the type of the keys
+     * @return the updates by partition ID
+     */
+    public static <K> Map<Integer, CounterMapPartitionBatch<K>> groupByPartition(Map<? extends K, Long> deltas,
+                                                                                 Function<Object, Data> toData,
+                                                                                 ToIntFunction<Data> toPartitionId) {
+        checkNotNull(deltas, "Deltas must not be null");
+
+        Map<Integer, CounterMapPartitionBatch<K>> batches = new HashMap<>();
+        for (Map.Entry<? extends K, Long> entry : deltas.entrySet()) {
+            K key = checkNotNull(entry.getKey(), "Key must not be null");
+            long delta = checkNotNull(entry.getValue(), "Delta must not be null");
+            Data dataKey = toData.apply(key);
+            batches.computeIfAbsent(toPartitionId.applyAsInt(dataKey), partitionId -> new CounterMapPartitionBatch<>())
+                   .add(key, dataKey, delta);
+        }
+        return batches;
+    }
+
+    private void add(K key, Data dataKey, long delta) {
+        int index = keys.size();
+        if (index == deltas.length) {
+            deltas = Arrays.copyOf(deltas, index * 2);
+        }
+        keys.add(key);
+        dataKeys.add(dataKey);
+        deltas[index] = delta;
+    }
+
+    public List<Data> getDataKeys() {
+        return dataKeys;
+    }
+
+    public long[] getDeltas() {
+        return deltas.length == keys.size() ? deltas : Arrays.copyOf(deltas, keys.size());
+    }
+
+    /**
+     * Puts the given updated values into the result map by their keys.
+     *
+     * @param values the updated values, in the order of the keys of this batch
+     * @param result the map to put the values into
+     */
+    public void putResults(long[] values, Map<K, Long> result) {
+        for (int i = 0; i < values.length; i++) {
+            result.put(keys.get(i), values[i]);
+        }
+    }
+}
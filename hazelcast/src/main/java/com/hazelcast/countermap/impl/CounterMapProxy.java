@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.countermap.impl;
+
+import com.hazelcast.countermap.CounterMap;
+import com.hazelcast.countermap.impl.operations.AddAndGetAllOperation;
+import com.hazelcast.countermap.impl.operations.AddAndGetOperation;
+import com.hazelcast.countermap.impl.operations.GetOperation;
+import com.hazelcast.countermap.impl.operations.RemoveOperation;
+import com.hazelcast.internal.partition.IPartitionService;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.spi.impl.AbstractDistributedObject;
+import com.hazelcast.spi.impl.NodeEngine;
+import com.hazelcast.spi.impl.operationservice.Operation;
+import com.hazelcast.spi.impl.operationservice.impl.InvocationFuture;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static com.hazelcast.internal.util.MapUtil.createHashMap;
+import static com.hazelcast.internal.util.Preconditions.checkNotNull;
+
+public class CounterMapProxy<K>
+        extends AbstractDistributedObject<CounterMapService>
+        implements CounterMap<K> {
+
+    private static final String NULL_KEY_MESSAGE = "Key must not be null";
+
+    private final String name;
+    private final IPartitionService partitionService;
+
+    CounterMapProxy(String name, NodeEngine nodeEngine, CounterMapService service) {
+        super(nodeEngine, service);
+        this.name = name;
+        this.partitionService = nodeEngine.getPartitionService();
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String getServiceName() {
+        return CounterMapService.SERVICE_NAME;
+    }
+
+    @Override
+    public long get(@Nonnull K key) {
+        checkNotNull(key, NULL_KEY_MESSAGE);
+        Data dataKey = toData(key);
+        Operation operation = new GetOperation(name, dataKey)
+                .setPartitionId(partitionService.getPartitionId(dataKey));
+        return this.<Long>invokeOnPartition(operation).joinInternal();
+    }
+
+    @Override
+    public long addAndGet(@Nonnull K key, long delta) {
+        return addAndGetAsync(key, delta).joinInternal();
+    }
+
+    @Override
+    public InvocationFuture<Long> addAndGetAsync(@Nonnull K key, long delta) {
+        checkNotNull(key, NULL_KEY_MESSAGE);
+        Data dataKey = toData(key);
+        Operation operation = new AddAndGetOperation(name, dataKey, delta)
+                .setPartitionId(partitionService.getPartitionId(dataKey));
+        return invokeOnPartition(operation);
+    }
+
+    @Override
+    public Map<K, Long> addAndGetAll(@Nonnull Map<? extends K, Long> deltas) {
+        Map<Integer, CounterMapPartitionBatch<K>> batches
+                = CounterMapPartitionBatch.groupByPartition(deltas, this::toData, partitionService::getPartitionId);
+
+        List<CounterMapPartitionBatch<K>> invokedBatches = new ArrayList<>(batches.size());
+        List<InvocationFuture<long[]>> futures = new ArrayList<>(batches.size());
+        for (Map.Entry<Integer, CounterMapPartitionBatch<K>> entry : batches.entrySet()) {
+            CounterMapPartitionBatch<K> batch = entry.getValue();
+            Operation operation = new AddAndGetAllOperation(name, batch.getDataKeys().toArray(new Data[0]), batch.getDeltas())
+                    .setPartitionId(entry.getKey());
+            invokedBatches.add(batch);
+            futures.add(invokeOnPartition(operation));
+        }
+
+        Map<K, Long> result = createHashMap(deltas.size());
+        for (int i = 0; i < futures.size(); i++) {
+            invokedBatches.get(i).putResults(futures.get(i).joinInternal(), result);
+        }
+        return result;
+    }
+
+    @Override
+    public long remove(@Nonnull K key) {
+        checkNotNull(key, NULL_KEY_MESSAGE);
+        Data dataKey = toData(key);
+        Operation operation = new RemoveOperation(name, dataKey)
+                .setPartitionId(partitionService.getPartitionId(dataKey));
+        return this.<Long>invokeOnPartition(operation).joinInternal();
+    }
+
+    @Override
+    public String toString() {
+        return "CounterMap{" + "name='" + name + '\'' + '}';
+    }
+}
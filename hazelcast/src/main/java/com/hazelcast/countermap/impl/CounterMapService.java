@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.countermap.impl;
+
+import com.hazelcast.countermap.impl.operations.ReplicationOperation;
+import com.hazelcast.internal.partition.MigrationAwareService;
+import com.hazelcast.internal.partition.MigrationEndpoint;
+import com.hazelcast.internal.partition.PartitionMigrationEvent;
+import com.hazelcast.internal.partition.PartitionReplicationEvent;
+import com.hazelcast.internal.services.ManagedService;
+import com.hazelcast.internal.services.RemoteService;
+import com.hazelcast.spi.impl.NodeEngine;
+import com.hazelcast.spi.impl.operationservice.Operation;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Service of the {@link com.hazelcast.countermap.CounterMap}.
+ * <p>
+ * The counters of every counter map are kept in a {@link CounterMapContainer}
+ * per partition, which is only accessed by the partition thread.
+ */
+public class CounterMapService implements ManagedService, RemoteService, MigrationAwareService {
+
+    public static final String SERVICE_NAME = "hz:impl:counterMapService";
+
+    /**
+     * The number of synchronous backups of the counters.
+     */
+    public static final int BACKUP_COUNT = 1;
+
+    private NodeEngine nodeEngine;
+    private ConcurrentMap<String, CounterMapContainer>[] partitionContainers;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void init(NodeEngine nodeEngine, Properties properties) {
+        this.nodeEngine = nodeEngine;
+        int partitionCount = nodeEngine.getPartitionService().getPartitionCount();
+        this.partitionContainers = new ConcurrentMap[partitionCount];
+        for (int i = 0; i < partitionCount; i++) {
+            partitionContainers[i] = new ConcurrentHashMap<>();
+        }
+    }
+
+    /**
+     * Returns the container of the counters of the counter map with the
+     * given name in the given partition, creating it if necessary.
+     */
+    public CounterMapContainer getOrCreateContainer(String name, int partitionId) {
+        return partitionContainers[partitionId].computeIfAbsent(name, n -> new CounterMapContainer());
+    }
+
+    /**
+     * Returns the container of the counters of the counter map with the
+     * given name in the given partition or {@code null}, if there is none.
+     */
+    public CounterMapContainer getContainer(String name, int partitionId) {
+        return partitionContainers[partitionId].get(name);
+    }
+
+    /**
+     * Replaces the containers of the given partition with the given ones.
+     */
+    public void replaceContainers(int partitionId, Map<String, CounterMapContainer> containers) {
+        ConcurrentMap<String, CounterMapContainer> current = partitionContainers[partitionId];
+        current.clear();
+        current.putAll(containers);
+    }
+
+    @Override
+    public void reset() {
+        if (partitionContainers == null) {
+            return;
+        }
+        for (ConcurrentMap<String, CounterMapContainer> containers : partitionContainers) {
+            containers.clear();
+        }
+    }
+
+    @Override
+    public void shutdown(boolean terminate) {
+        reset();
+    }
+
+    @Override
+    public CounterMapProxy createDistributedObject(String objectName, UUID source, boolean local) {
+        return new CounterMapProxy<>(objectName, nodeEngine, this);
+    }
+
+    @Override
+    public void destroyDistributedObject(String objectName, boolean local) {
+        for (ConcurrentMap<String, CounterMapContainer> containers : partitionContainers) {
+            containers.remove(objectName);
+        }
+    }
+
+    @Override
+    public Operation prepareReplicationOperation(PartitionReplicationEvent event) {
+        if (event.getReplicaIndex() > BACKUP_COUNT) {
+            return null;
+        }
+        ConcurrentMap<String, CounterMapContainer> containers = partitionContainers[event.getPartitionId()];
+        Map<String, CounterMapContainer> data = new HashMap<>();
+        for (Map.Entry<String, CounterMapContainer> entry : containers.entrySet()) {
+            data.put(entry.getKey(), entry.getValue().copy());
+        }
+        // sent even if empty, so that stale counters of the replica are dropped
+        return new ReplicationOperation(data);
+    }
+
+    @Override
+    public void beforeMigration(PartitionMigrationEvent event) {
+    }
+
+    @Override
+    public void commitMigration(PartitionMigrationEvent event) {
+        if (event.getMigrationEndpoint() == MigrationEndpoint.SOURCE) {
+            clearPartitionReplica(event.getPartitionId(), event.getNewReplicaIndex());
+        }
+    }
+
+    @Override
+    public void rollbackMigration(PartitionMigrationEvent event) {
+        if (event.getMigrationEndpoint() == MigrationEndpoint.DESTINATION) {
+            clearPartitionReplica(event.getPartitionId(), event.getCurrentReplicaIndex());
+        }
+    }
+
+    private void clearPartitionReplica(int partitionId, int durabilityThreshold) {
+        if (durabilityThreshold == -1 || durabilityThreshold > BACKUP_COUNT) {
+            partitionContainers[partitionId].clear();
+        }
+    }
+}
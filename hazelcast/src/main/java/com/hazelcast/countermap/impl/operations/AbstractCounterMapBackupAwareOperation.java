@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.countermap.impl.operations;
+
+import com.hazelcast.countermap.impl.CounterMapService;
+import com.hazelcast.spi.impl.operationservice.BackupAwareOperation;
+import com.hazelcast.spi.impl.operationservice.MutatingOperation;
+
+/**
+ * Base class of the operations updating counters. The backups set the
+ * updated values rather than repeating the updates, so they can be
+ * safely retried.
+ */
+public abstract class AbstractCounterMapBackupAwareOperation
+        extends AbstractCounterMapOperation
+        implements BackupAwareOperation, MutatingOperation {
+
+    AbstractCounterMapBackupAwareOperation() {
+    }
+
+    AbstractCounterMapBackupAwareOperation(String name) {
+        super(name);
+    }
+
+    @Override
+    public boolean shouldBackup() {
+        return true;
+    }
+
+    @Override
+    public int getSyncBackupCount() {
+        return CounterMapService.BACKUP_COUNT;
+    }
+
+    @Override
+    public int getAsyncBackupCount() {
+        return 0;
+    }
+}
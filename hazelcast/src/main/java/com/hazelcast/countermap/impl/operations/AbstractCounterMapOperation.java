@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.countermap.impl.operations;
+
+import com.hazelcast.countermap.impl.CounterMapContainer;
+import com.hazelcast.countermap.impl.CounterMapDataSerializerHook;
+import com.hazelcast.countermap.impl.CounterMapService;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+import com.hazelcast.spi.impl.operationservice.NamedOperation;
+import com.hazelcast.spi.impl.operationservice.Operation;
+import com.hazelcast.spi.impl.operationservice.PartitionAwareOperation;
+
+import java.io.IOException;
+
+public abstract class AbstractCounterMapOperation
+        extends Operation
+        implements NamedOperation, PartitionAwareOperation, IdentifiedDataSerializable {
+
+    protected String name;
+
+    AbstractCounterMapOperation() {
+    }
+
+    AbstractCounterMapOperation(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public String getServiceName() {
+        return CounterMapService.SERVICE_NAME;
+    }
+
+    @Override
+    public int getFactoryId() {
+        return CounterMapDataSerializerHook.F_ID;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    CounterMapContainer getOrCreateContainer() {
+        CounterMapService service = getService();
+        return service.getOrCreateContainer(name, getPartitionId());
+    }
+
+    CounterMapContainer getContainer() {
+        CounterMapService service = getService();
+        return service.getContainer(name, getPartitionId());
+    }
+
+    @Override
+    protected void writeInternal(ObjectDataOutput out) throws IOException {
+        out.writeUTF(name);
+    }
+
+    @Override
+    protected void readInternal(ObjectDataInput in) throws IOException {
+        this.name = in.readUTF();
+    }
+
+    @Override
+    protected void toString(StringBuilder sb) {
+        super.toString(sb);
+
+        sb.append(", name=").append(name);
+    }
+}
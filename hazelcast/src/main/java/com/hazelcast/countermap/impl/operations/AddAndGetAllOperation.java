@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.countermap.impl.operations;
+
+import com.hazelcast.countermap.impl.CounterMapContainer;
+import com.hazelcast.countermap.impl.CounterMapDataSerializerHook;
+import com.hazelcast.internal.nio.IOUtil;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.spi.impl.operationservice.Operation;
+
+import java.io.IOException;
+
+/**
+ * Adds values to many counters of a single partition. Responds with the
+ * updated values, in the order of the keys.
+ */
+public class AddAndGetAllOperation extends AbstractCounterMapBackupAwareOperation {
+
+    private Data[] keys;
+    private long[] deltas;
+    private long[] values;
+
+    public AddAndGetAllOperation() {
+    }
+
+    public AddAndGetAllOperation(String name, Data[] keys, long[] deltas) {
+        super(name);
+        this.keys = keys;
+        this.deltas = deltas;
+    }
+
+    @Override
+    public void run() throws Exception {
+        CounterMapContainer container = getOrCreateContainer();
+        values = new long[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            values[i] = container.addAndGet(keys[i], deltas[i]);
+        }
+    }
+
+    @Override
+    public Object getResponse() {
+        return values;
+    }
+
+    @Override
+    public Operation getBackupOperation() {
+        return new SetBackupOperation(name, keys, values);
+    }
+
+    @Override
+    public int getClassId() {
+        return CounterMapDataSerializerHook.ADD_AND_GET_ALL;
+    }
+
+    @Override
+    protected void writeInternal(ObjectDataOutput out) throws IOException {
+        super.writeInternal(out);
+        out.writeInt(keys.length);
+        for (Data key : keys) {
+            IOUtil.writeData(out, key);
+        }
+        out.writeLongArray(deltas);
+    }
+
+    @Override
+    protected void readInternal(ObjectDataInput in) throws IOException {
+        super.readInternal(in);
+        keys = new Data[in.readInt()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = IOUtil.readData(in);
+        }
+        deltas = in.readLongArray();
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.countermap.impl.operations;
+
+import com.hazelcast.countermap.impl.CounterMapDataSerializerHook;
+import com.hazelcast.internal.nio.IOUtil;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.spi.impl.operationservice.Operation;
+
+import java.io.IOException;
+
+public class AddAndGetOperation extends AbstractCounterMapBackupAwareOperation {
+
+    private Data key;
+    private long delta;
+    private long value;
+
+    public AddAndGetOperation() {
+    }
+
+    public AddAndGetOperation(String name, Data key, long delta) {
+        super(name);
+        this.key = key;
+        this.delta = delta;
+    }
+
+    @Override
+    public void run() throws Exception {
+        value = getOrCreateContainer().addAndGet(key, delta);
+    }
+
+    @Override
+    public Object getResponse() {
+        return value;
+    }
+
+    @Override
+    public Operation getBackupOperation() {
+        return new SetBackupOperation(name, new Data[]{key}, new long[]{value});
+    }
+
+    @Override
+    public int getClassId() {
+        return CounterMapDataSerializerHook.ADD_AND_GET;
+    }
+
+    @Override
+    protected void writeInternal(ObjectDataOutput out) throws IOException {
+        super.writeInternal(out);
+        IOUtil.writeData(out, key);
+        out.writeLong(delta);
+    }
+
+    @Override
+    protected void readInternal(ObjectDataInput in) throws IOException {
+        super.readInternal(in);
+        key = IOUtil.readData(in);
+        delta = in.readLong();
+    }
+}
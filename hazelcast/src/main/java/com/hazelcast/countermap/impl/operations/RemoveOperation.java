@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.countermap.impl.operations;
+
+import com.hazelcast.countermap.impl.CounterMapContainer;
+import com.hazelcast.countermap.impl.CounterMapDataSerializerHook;
+import com.hazelcast.internal.nio.IOUtil;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.spi.impl.operationservice.Operation;
+
+import java.io.IOException;
+
+public class RemoveOperation extends AbstractCounterMapBackupAwareOperation {
+
+    private Data key;
+    private long oldValue;
+
+    public RemoveOperation() {
+    }
+
+    public RemoveOperation(String name, Data key) {
+        super(name);
+        this.key = key;
+    }
+
+    @Override
+    public void run() throws Exception {
+        CounterMapContainer container = getContainer();
+        oldValue = container == null ? 0 : container.remove(key);
+    }
+
+    @Override
+    public boolean shouldBackup() {
+        return oldValue != 0;
+    }
+
+    @Override
+    public Object getResponse() {
+        return oldValue;
+    }
+
+    @Override
+    public Operation getBackupOperation() {
+        return new SetBackupOperation(name, new Data[]{key}, new long[]{0});
+    }
+
+    @Override
+    public int getClassId() {
+        return CounterMapDataSerializerHook.REMOVE;
+    }
+
+    @Override
+    protected void writeInternal(ObjectDataOutput out) throws IOException {
+        super.writeInternal(out);
+        IOUtil.writeData(out, key);
+    }
+
+    @Override
+    protected void readInternal(ObjectDataInput in) throws IOException {
+        super.readInternal(in);
+        key = IOUtil.readData(in);
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.countermap.impl.operations;
+
+import com.hazelcast.countermap.impl.CounterMapContainer;
+import com.hazelcast.countermap.impl.CounterMapDataSerializerHook;
+import com.hazelcast.countermap.impl.CounterMapService;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+import com.hazelcast.spi.impl.operationservice.Operation;
+
+import java.io.IOException;
+import java.util.Map;
+
+import static com.hazelcast.internal.util.MapUtil.createHashMap;
+
+public class ReplicationOperation
+        extends Operation
+        implements IdentifiedDataSerializable {
+
+    private Map<String, CounterMapContainer> migrationData;
+
+    public ReplicationOperation() {
+    }
+
+    public ReplicationOperation(Map<String, CounterMapContainer> migrationData) {
+        this.migrationData = migrationData;
+    }
+
+    @Override
+    public void run() throws Exception {
+        CounterMapService service = getService();
+        service.replaceContainers(getPartitionId(), migrationData);
+    }
+
+    @Override
+    public String getServiceName() {
+        return CounterMapService.SERVICE_NAME;
+    }
+
+    @Override
+    public int getFactoryId() {
+        return CounterMapDataSerializerHook.F_ID;
+    }
+
+    @Override
+    public int getClassId() {
+        return CounterMapDataSerializerHook.REPLICATION;
+    }
+
+    @Override
+    protected void writeInternal(ObjectDataOutput out) throws IOException {
+        out.writeInt(migrationData.size());
+        for (Map.Entry<String, CounterMapContainer> entry : migrationData.entrySet()) {
+            out.writeUTF(entry.getKey());
+            out.writeObject(entry.getValue());
+        }
+    }
+
+    @Override
+    protected void readInternal(ObjectDataInput in) throws IOException {
+        int size = in.readInt();
+        migrationData = createHashMap(size);
+        for (int i = 0; i < size; i++) {
+            migrationData.put(in.readUTF(), in.readObject());
+        }
+    }
+}
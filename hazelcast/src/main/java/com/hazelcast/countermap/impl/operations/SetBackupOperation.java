@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.countermap.impl.operations;
+
+import com.hazelcast.countermap.impl.CounterMapContainer;
+import com.hazelcast.countermap.impl.CounterMapDataSerializerHook;
+import com.hazelcast.internal.nio.IOUtil;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.spi.impl.operationservice.BackupOperation;
+
+import java.io.IOException;
+
+/**
+ * Sets the counters of the given keys to the values they have on the
+ * primary replica.
+ */
+public class SetBackupOperation
+        extends AbstractCounterMapOperation
+        implements BackupOperation {
+
+    private Data[] keys;
+    private long[] values;
+
+    public SetBackupOperation() {
+    }
+
+    public SetBackupOperation(String name, Data[] keys, long[] values) {
+        super(name);
+        this.keys = keys;
+        this.values = values;
+    }
+
+    @Override
+    public void run() throws Exception {
+        CounterMapContainer container = getOrCreateContainer();
+        for (int i = 0; i < keys.length; i++) {
+            container.set(keys[i], values[i]);
+        }
+    }
+
+    @Override
+    public int getClassId() {
+        return CounterMapDataSerializerHook.SET_BACKUP;
+    }
+
+    @Override
+    protected void writeInternal(ObjectDataOutput out) throws IOException {
+        super.writeInternal(out);
+        out.writeInt(keys.length);
+        for (Data key : keys) {
+            IOUtil.writeData(out, key);
+        }
+        out.writeLongArray(values);
+    }
+
+    @Override
+    protected void readInternal(ObjectDataInput in) throws IOException {
+        super.readInternal(in);
+        keys = new Data[in.readInt()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = IOUtil.readData(in);
+        }
+        values = in.readLongArray();
+    }
+}
@@ -18,24 +18,70 @@ package com.hazelcast.flakeidgen.impl;
 
 import com.hazelcast.internal.util.Clock;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+import static com.hazelcast.internal.util.EmptyStatement.ignore;
+import static com.hazelcast.internal.util.Preconditions.checkTrue;
 
 /**
  * A utility to serve IDs from IdBatch one by one, watching for validity.
  * It's a separate class due to testability.
+ * <p>
+ * If a prefetch threshold is given, the next batch is requested
+ * asynchronously when only that many IDs are left in the current batch,
+ * so {@link #newId()} does not have to wait for it when the current
+ * batch is spent.
  */
 public class AutoBatcher {
+    private static final AtomicReferenceFieldUpdater<AutoBatcher, CompletableFuture> NEXT_BLOCK =
+            AtomicReferenceFieldUpdater.newUpdater(AutoBatcher.class, CompletableFuture.class, "nextBlock");
+    private static final AtomicLongFieldUpdater<AutoBatcher> BLOCKING_FETCH_COUNT =
+            AtomicLongFieldUpdater.newUpdater(AutoBatcher.class, "blockingFetchCount");
+    private static final AtomicLongFieldUpdater<AutoBatcher> BLOCKING_FETCH_NANOS =
+            AtomicLongFieldUpdater.newUpdater(AutoBatcher.class, "blockingFetchNanos");
+    private static final AtomicLongFieldUpdater<AutoBatcher> PREFETCH_COUNT =
+            AtomicLongFieldUpdater.newUpdater(AutoBatcher.class, "prefetchCount");
+    private static final int PERCENT = 100;
+
     private final int batchSize;
     private final long validity;
+    private final int prefetchThreshold;
+    private final Executor prefetchExecutor;
+    private final FetchListener fetchListener;
 
     private volatile Block block = new Block(new IdBatch(0, 0, 0), 0);
+    private volatile CompletableFuture<Block> nextBlock;
+    private volatile long blockingFetchCount;
+    private volatile long blockingFetchNanos;
+    private volatile long prefetchCount;
 
     private final IdBatchSupplier batchIdSupplier;
 
     public AutoBatcher(int batchSize, long validity, IdBatchSupplier idGenerator) {
+        this(batchSize, validity, 0, idGenerator, null, null);
+    }
+
+    /**
+     * @param prefetchThreshold the number of IDs left in the current batch
+     *                          when the next batch is requested, 0 disables
+     *                          prefetching
+     * @param prefetchExecutor  the executor to request the next batch on,
+     *                          only used if prefetching is enabled
+     * @param fetchListener     notified about prefetches and blocking fetches,
+     *                          can be null
+     */
+    public AutoBatcher(int batchSize, long validity, int prefetchThreshold, IdBatchSupplier idGenerator,
+                       Executor prefetchExecutor, FetchListener fetchListener) {
         this.batchSize = batchSize;
         this.validity = validity;
+        this.prefetchThreshold = prefetchThreshold;
+        this.prefetchExecutor = prefetchExecutor;
         this.batchIdSupplier = idGenerator;
+        this.fetchListener = fetchListener;
     }
 
     /**
@@ -45,9 +91,12 @@ public class AutoBatcher {
     public long newId() {
         for (; ; ) {
             Block block = this.block;
-            long res = block.next();
-            if (res != Long.MIN_VALUE) {
-                return res;
+            int index = block.nextIndex();
+            if (index >= 0) {
+                if (prefetchThreshold > 0 && index == Math.max(0, block.size() - prefetchThreshold)) {
+                    prefetch();
+                }
+                return block.idAt(index);
             }
 
             synchronized (this) {
@@ -55,11 +104,111 @@ public class AutoBatcher {
                     // new block was assigned in the meantime
                     continue;
                 }
-                this.block = new Block(batchIdSupplier.newIdBatch(batchSize), validity);
+                this.block = takeNextBlock();
             }
         }
     }
 
+    /**
+     * Converts the prefetch threshold percentage to the number of IDs left
+     * in a batch of the given size when the next batch is requested.
+     */
+    public static int prefetchThreshold(int batchSize, int thresholdPercentage) {
+        checkTrue(thresholdPercentage >= 0 && thresholdPercentage <= PERCENT,
+                "prefetch threshold percentage must be between 0 and 100, but is " + thresholdPercentage);
+        if (thresholdPercentage == 0) {
+            return 0;
+        }
+        return Math.max(1, (int) ((long) batchSize * thresholdPercentage / PERCENT));
+    }
+
+    /**
+     * Returns the number of times {@link #newId()} had to wait for a batch.
+     */
+    public long getBlockingFetchCount() {
+        return blockingFetchCount;
+    }
+
+    /**
+     * Returns the total time {@link #newId()} waited for batches in nanoseconds.
+     */
+    public long getBlockingFetchNanos() {
+        return blockingFetchNanos;
+    }
+
+    /**
+     * Returns the number of batches requested before the current batch was spent.
+     */
+    public long getPrefetchCount() {
+        return prefetchCount;
+    }
+
+    private void prefetch() {
+        CompletableFuture<Block> future = new CompletableFuture<>();
+        if (!NEXT_BLOCK.compareAndSet(this, null, future)) {
+            // a prefetched batch is not taken yet
+            return;
+        }
+        PREFETCH_COUNT.incrementAndGet(this);
+        if (fetchListener != null) {
+            fetchListener.onPrefetch();
+        }
+        batchIdSupplier.newIdBatchAsync(batchSize, prefetchExecutor)
+                       .whenComplete((idBatch, throwable) -> {
+                           if (throwable != null) {
+                               future.completeExceptionally(throwable);
+                           } else {
+                               future.complete(new Block(idBatch, validity));
+                           }
+                       });
+    }
+
+    private Block takeNextBlock() {
+        CompletableFuture<Block> next = nextBlock;
+        if (next != null) {
+            nextBlock = null;
+            if (next.isDone()) {
+                Block block = prefetchedBlock(next);
+                if (block != null) {
+                    return block;
+                }
+                next = null;
+            }
+        }
+
+        long startNanos = System.nanoTime();
+        try {
+            if (next != null) {
+                Block block = prefetchedBlock(next);
+                if (block != null) {
+                    return block;
+                }
+            }
+            return new Block(batchIdSupplier.newIdBatch(batchSize), validity);
+        } finally {
+            long waitNanos = System.nanoTime() - startNanos;
+            BLOCKING_FETCH_COUNT.incrementAndGet(this);
+            BLOCKING_FETCH_NANOS.addAndGet(this, waitNanos);
+            if (fetchListener != null) {
+                fetchListener.onBlockingFetch(waitNanos);
+            }
+        }
+    }
+
+    /**
+     * Returns the prefetched block or null, if it failed or expired.
+     */
+    private static Block prefetchedBlock(CompletableFuture<Block> future) {
+        try {
+            Block block = future.join();
+            return block.isExpired() ? null : block;
+        } catch (RuntimeException e) {
+            // the batch is fetched again, which reports a persistent failure
+            ignore(e);
+            return null;
+        }
+    }
+
     private static final class Block {
         private static final AtomicIntegerFieldUpdater<Block> NUM_RETURNED = AtomicIntegerFieldUpdater
                 .newUpdater(Block.class, "numReturned");
@@ -73,26 +222,57 @@ public class AutoBatcher {
             this.invalidSince = validity > 0 ? Clock.currentTimeMillis() + validity : Long.MAX_VALUE;
         }
 
+        boolean isExpired() {
+            return invalidSince <= Clock.currentTimeMillis();
+        }
+
+        int size() {
+            return idBatch.batchSize();
+        }
+
         /**
-         * Returns next ID or Long.MIN_VALUE, if there is none.
+         * Returns the index of the next ID or -1, if there is none.
          */
-        long next() {
-            if (invalidSince <= Clock.currentTimeMillis()) {
-                return Long.MIN_VALUE;
+        int nextIndex() {
+            if (isExpired()) {
+                return -1;
             }
             int index;
             do {
                 index = numReturned;
                 if (index == idBatch.batchSize()) {
-                    return Long.MIN_VALUE;
+                    return -1;
                 }
             } while (!NUM_RETURNED.compareAndSet(this, index, index + 1));
+            return index;
+        }
+
+        long idAt(int index) {
             return idBatch.base() + index * idBatch.increment();
         }
     }
 
     public interface IdBatchSupplier {
         IdBatch newIdBatch(int batchSize);
+
+        /**
+         * Requests a batch without blocking the caller. By default {@link
+         * #newIdBatch(int)} is called on the given executor.
+         */
+        default CompletableFuture<IdBatch> newIdBatchAsync(int batchSize, Executor executor) {
+            return CompletableFuture.supplyAsync(() -> newIdBatch(batchSize), executor);
+        }
     }
-}
 
+    public interface FetchListener {
+        /**
+         * Called when the next batch is requested before the current one is spent.
+         */
+        void onPrefetch();
+
+        /**
+         * Called after {@link #newId()} waited for a batch for the given time.
+         */
+        void onBlockingFetch(long waitNanos);
+    }
+}
@@ -20,6 +20,7 @@ import com.hazelcast.cluster.Member;
 import com.hazelcast.config.FlakeIdGeneratorConfig;
 import com.hazelcast.core.HazelcastException;
 import com.hazelcast.flakeidgen.FlakeIdGenerator;
+import com.hazelcast.flakeidgen.impl.AutoBatcher.FetchListener;
 import com.hazelcast.flakeidgen.impl.AutoBatcher.IdBatchSupplier;
 import com.hazelcast.internal.util.Clock;
 import com.hazelcast.internal.util.ThreadLocalRandomProvider;
@@ -36,6 +37,8 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 
 import static com.hazelcast.internal.util.ExceptionUtil.rethrow;
+import static com.hazelcast.spi.impl.executionservice.ExecutionService.ASYNC_EXECUTOR;
+import static com.hazelcast.spi.properties.ClusterProperty.FLAKE_ID_GENERATOR_PREFETCH_THRESHOLD_PERCENTAGE;
 import static com.hazelcast.internal.util.Preconditions.checkPositive;
 import static com.hazelcast.internal.util.Preconditions.checkTrue;
 import static java.lang.Thread.currentThread;
@@ -94,7 +97,9 @@ public class FlakeIdGeneratorProxy
         increment = 1 << bitsNodeId;
         epochStart = config.getEpochStart();
         nodeIdOffset = config.getNodeIdOffset();
-        batcher = new AutoBatcher(config.getPrefetchCount(), config.getPrefetchValidityMillis(),
+        int prefetchThreshold = AutoBatcher.prefetchThreshold(config.getPrefetchCount(),
+                nodeEngine.getProperties().getInteger(FLAKE_ID_GENERATOR_PREFETCH_THRESHOLD_PERCENTAGE));
+        batcher = new AutoBatcher(config.getPrefetchCount(), config.getPrefetchValidityMillis(), prefetchThreshold,
                 new IdBatchSupplier() {
                     @Override
                     public IdBatch newIdBatch(int batchSize) {
@@ -109,6 +114,18 @@ public class FlakeIdGeneratorProxy
                         }
                         return result.idBatch;
                     }
+                },
+                prefetchThreshold > 0 ? nodeEngine.getExecutionService().getExecutor(ASYNC_EXECUTOR) : null,
+                new FetchListener() {
+                    @Override
+                    public void onPrefetch() {
+                        getService().updateStatsForPrefetch(name);
+                    }
+
+                    @Override
+                    public void onBlockingFetch(long waitNanos) {
+                        getService().updateStatsForBlockingFetch(name, waitNanos);
+                    }
                 });
 
         if (logger.isFinestEnabled()) {
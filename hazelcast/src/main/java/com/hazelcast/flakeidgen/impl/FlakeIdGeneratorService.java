@@ -104,6 +104,33 @@ public class FlakeIdGeneratorService implements ManagedService, RemoteService,
         }
     }
 
+    /**
+     * Updates the statistics for the {@link FlakeIdGenerator} with the given
+     * name for a batch requested before the current batch was spent.
+     *
+     * @param name name of the generator, not null
+     */
+    public void updateStatsForPrefetch(String name) {
+        LocalFlakeIdGeneratorStatsImpl stats = getLocalFlakeIdStats(name);
+        if (stats != null) {
+            stats.incrementPrefetchCount();
+        }
+    }
+
+    /**
+     * Updates the statistics for the {@link FlakeIdGenerator} with the given
+     * name for a wait for a new batch when generating an ID.
+     *
+     * @param name      name of the generator, not null
+     * @param waitNanos the time waited for the batch
+     */
+    public void updateStatsForBlockingFetch(String name, long waitNanos) {
+        LocalFlakeIdGeneratorStatsImpl stats = getLocalFlakeIdStats(name);
+        if (stats != null) {
+            stats.updateBlockingFetch(waitNanos);
+        }
+    }
+
     private LocalFlakeIdGeneratorStatsImpl getLocalFlakeIdStats(String name) {
         if (!nodeEngine.getConfig().getFlakeIdGeneratorConfig(name).isStatisticsEnabled()) {
             return null;
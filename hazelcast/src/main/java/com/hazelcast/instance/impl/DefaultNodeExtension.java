@@ -62,6 +62,7 @@ import com.hazelcast.internal.diagnostics.OperationThreadSamplerPlugin;
 import com.hazelcast.internal.diagnostics.OverloadedConnectionsPlugin;
 import com.hazelcast.internal.diagnostics.PendingInvocationsPlugin;
 import com.hazelcast.internal.diagnostics.SlowOperationPlugin;
+import com.hazelcast.internal.diagnostics.StackSamplerPlugin;
 import com.hazelcast.internal.diagnostics.StoreLatencyPlugin;
 import com.hazelcast.internal.diagnostics.SystemLogPlugin;
 import com.hazelcast.internal.diagnostics.SystemPropertiesPlugin;
@@ -70,6 +71,7 @@ import com.hazelcast.internal.dynamicconfig.EmptyDynamicConfigListener;
 import com.hazelcast.internal.hotrestart.InternalHotRestartService;
 import com.hazelcast.internal.hotrestart.NoOpHotRestartService;
 import com.hazelcast.internal.hotrestart.NoopInternalHotRestartService;
+import com.hazelcast.internal.hotrestart.impl.DiskHotRestartService;
 import com.hazelcast.internal.jmx.ManagementService;
 import com.hazelcast.internal.management.TimedMemberStateFactory;
 import com.hazelcast.internal.memory.DefaultMemoryStats;
@@ -139,6 +141,8 @@ public class DefaultNodeExtension implements NodeExtension {
     protected PhoneHome phoneHome;
 
     private final MemoryStats memoryStats = new DefaultMemoryStats();
+    private final DiskHotRestartService diskHotRestartService;
+    private final InternalHotRestartService internalHotRestartService;
 
     public DefaultNodeExtension(Node node) {
         this.node = node;
@@ -147,13 +151,23 @@ public class DefaultNodeExtension implements NodeExtension {
         checkSecurityAllowed();
         checkPersistenceAllowed();
         createAndSetPhoneHome();
+
+        HotRestartPersistenceConfig hotRestartPersistenceConfig = node.getConfig().getHotRestartPersistenceConfig();
+        if (hotRestartPersistenceConfig != null && hotRestartPersistenceConfig.isEnabled()) {
+            diskHotRestartService = new DiskHotRestartService(node, hotRestartPersistenceConfig);
+            internalHotRestartService = diskHotRestartService;
+        } else {
+            diskHotRestartService = null;
+            internalHotRestartService = new NoopInternalHotRestartService();
+        }
     }
 
     private void checkPersistenceAllowed() {
         HotRestartPersistenceConfig hotRestartPersistenceConfig = node.getConfig().getHotRestartPersistenceConfig();
-        if (hotRestartPersistenceConfig != null && hotRestartPersistenceConfig.isEnabled()) {
+        if (hotRestartPersistenceConfig != null && hotRestartPersistenceConfig.isEnabled()
+                && hotRestartPersistenceConfig.getEncryptionAtRestConfig().isEnabled()) {
             if (!BuildInfoProvider.getBuildInfo().isEnterprise()) {
-                throw new IllegalStateException("Hot Restart requires Hazelcast Enterprise Edition");
+                throw new IllegalStateException("Hot Restart encryption at rest requires Hazelcast Enterprise Edition");
             }
         }
 
@@ -189,6 +203,9 @@ public class DefaultNodeExtension implements NodeExtension {
 
     @Override
     public void beforeStart() {
+        if (diskHotRestartService != null) {
+            diskHotRestartService.start();
+        }
     }
 
     @Override
@@ -257,6 +274,9 @@ public class DefaultNodeExtension implements NodeExtension {
 
     @Override
     public void afterStart() {
+        if (diskHotRestartService != null) {
+            diskHotRestartService.recover();
+        }
     }
 
     @Override
@@ -340,6 +360,9 @@ public class DefaultNodeExtension implements NodeExtension {
 
     @Override
     public Map<String, Object> createExtensionServices() {
+        if (diskHotRestartService != null) {
+            return Collections.singletonMap(DiskHotRestartService.SERVICE_NAME, diskHotRestartService);
+        }
         return Collections.emptyMap();
     }
 
@@ -385,6 +408,9 @@ public class DefaultNodeExtension implements NodeExtension {
 
     @Override
     public void beforeShutdown() {
+        if (diskHotRestartService != null) {
+            diskHotRestartService.shutdown();
+        }
     }
 
     @Override
@@ -496,7 +522,7 @@ public class DefaultNodeExtension implements NodeExtension {
 
     @Override
     public InternalHotRestartService getInternalHotRestartService() {
-        return new NoopInternalHotRestartService();
+        return internalHotRestartService;
     }
 
     @Override
@@ -563,6 +589,7 @@ public class DefaultNodeExtension implements NodeExtension {
         diagnostics.register(new NetworkingImbalancePlugin(nodeEngine));
         diagnostics.register(new OperationHeartbeatPlugin(nodeEngine));
         diagnostics.register(new OperationThreadSamplerPlugin(nodeEngine));
+        diagnostics.register(new StackSamplerPlugin(nodeEngine));
     }
 
     @Override
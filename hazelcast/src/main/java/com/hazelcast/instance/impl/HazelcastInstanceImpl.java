@@ -36,6 +36,8 @@ import com.hazelcast.core.HazelcastInstance;
 import com.hazelcast.core.HazelcastInstanceAware;
 import com.hazelcast.core.IExecutorService;
 import com.hazelcast.core.ManagedContext;
+import com.hazelcast.countermap.CounterMap;
+import com.hazelcast.countermap.impl.CounterMapService;
 import com.hazelcast.cp.CPSubsystem;
 import com.hazelcast.cp.internal.CPSubsystemImpl;
 import com.hazelcast.crdt.pncounter.PNCounter;
@@ -390,6 +392,13 @@ public class HazelcastInstanceImpl implements HazelcastInstance, SerializationSe
         return getDistributedObject(CardinalityEstimatorService.SERVICE_NAME, name);
     }
 
+    @Nonnull
+    @Override
+    public <K> CounterMap<K> getCounterMap(@Nonnull String name) {
+        checkNotNull(name, "Retrieving a counter map instance with a null name is not allowed!");
+        return getDistributedObject(CounterMapService.SERVICE_NAME, name);
+    }
+
     @Nonnull
     @Override
     public PNCounter getPNCounter(@Nonnull String name) {
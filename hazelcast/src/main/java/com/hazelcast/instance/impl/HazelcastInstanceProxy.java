@@ -31,6 +31,7 @@ import com.hazelcast.core.HazelcastInstanceNotActiveException;
 import com.hazelcast.core.ICacheManager;
 import com.hazelcast.core.IExecutorService;
 import com.hazelcast.core.LifecycleService;
+import com.hazelcast.countermap.CounterMap;
 import com.hazelcast.cp.CPSubsystem;
 import com.hazelcast.crdt.pncounter.PNCounter;
 import com.hazelcast.durableexecutor.DurableExecutorService;
@@ -275,6 +276,12 @@ public final class HazelcastInstanceProxy implements HazelcastInstance, Serializ
         return getOriginal().getCardinalityEstimator(name);
     }
 
+    @Nonnull
+    @Override
+    public <K> CounterMap<K> getCounterMap(@Nonnull String name) {
+        return getOriginal().getCounterMap(name);
+    }
+
     @Nonnull
     @Override
     public PNCounter getPNCounter(@Nonnull String name) {
@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.ascii;
+
+import com.hazelcast.internal.ascii.memcache.GetCommand;
+import com.hazelcast.internal.ascii.memcache.SetCommand;
+import com.hazelcast.internal.ascii.rest.HttpCommandProcessor;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.hazelcast.internal.ascii.TextCommandConstants.TextCommandType.GET;
+import static com.hazelcast.internal.ascii.TextCommandConstants.TextCommandType.HTTP_GET;
+import static com.hazelcast.internal.ascii.TextCommandConstants.TextCommandType.SET;
+import static com.hazelcast.internal.util.ConcurrencyUtil.CALLER_RUNS;
+
+/**
+ * Executes the text commands received on a single connection in the order
+ * they were received.
+ * <p>
+ * Consecutive memcache {@code get} commands and REST {@code GET} requests are
+ * issued without waiting for the previous ones to complete, and consecutive
+ * memcache {@code set} commands are grouped into a single {@code setAll} call
+ * per map. Any other command, a change of the command type or another group of
+ * {@code set} commands first waits for the outstanding commands, so each command observes the effects of the
+ * commands sent before it. Waiting does not block a thread: the pipeline
+ * stops draining and is rescheduled once the outstanding commands completed.
+ * The responses are written in request order by the
+ * {@link com.hazelcast.internal.nio.ascii.TextEncoder}.
+ */
+public final class TextCommandPipeline implements Runnable {
+
+    /**
+     * Maximum number of asynchronously executed commands of a connection
+     * which may be outstanding before the pipeline waits for them.
+     */
+    static final int MAX_IN_FLIGHT = 1024;
+
+    private final TextCommandServiceImpl textCommandService;
+    private final Queue<TextCommand> commands = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    // only accessed by the thread draining the pipeline, the scheduled flag orders the accesses
+    private final List<CompletableFuture<?>> inFlight = new ArrayList<>();
+    private TextCommandConstants.TextCommandType inFlightType;
+
+    TextCommandPipeline(TextCommandServiceImpl textCommandService) {
+        this.textCommandService = textCommandService;
+    }
+
+    /**
+     * Appends the commands to the pipeline and schedules their execution.
+     */
+    public void submit(Collection<TextCommand> received) {
+        commands.addAll(received);
+        schedule();
+    }
+
+    @Override
+    public void run() {
+        boolean suspended = false;
+        try {
+            suspended = !drain();
+        } finally {
+            // a suspended pipeline stays scheduled until the outstanding commands reschedule it
+            if (!suspended) {
+                scheduled.set(false);
+                if (!commands.isEmpty()) {
+                    schedule();
+                }
+            }
+        }
+    }
+
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            textCommandService.execute(this);
+        }
+    }
+
+    /**
+     * Executes the queued commands.
+     *
+     * @return {@code false} if the pipeline was suspended to wait for the
+     * outstanding commands, {@code true} if all commands were executed
+     */
+    private boolean drain() {
+        TextCommand command;
+        while ((command = commands.peek()) != null) {
+            TextCommandConstants.TextCommandType type = command.getType();
+            if (!canOverlapInFlight(type)) {
+                inFlight.removeIf(CompletableFuture::isDone);
+                if (!inFlight.isEmpty()) {
+                    resumeWhenInFlightCompleted();
+                    return false;
+                }
+            }
+            inFlightType = type;
+            commands.poll();
+            execute(command);
+        }
+        return true;
+    }
+
+    private boolean canOverlapInFlight(TextCommandConstants.TextCommandType type) {
+        return inFlight.isEmpty()
+                || type == inFlightType && isOverlapping(type) && inFlight.size() < MAX_IN_FLIGHT;
+    }
+
+    private static boolean isOverlapping(TextCommandConstants.TextCommandType type) {
+        // consecutive sets are stored by a single call which keeps the sets of a key ordered,
+        // a later group waits for it
+        return type == GET || type == HTTP_GET;
+    }
+
+    private void execute(TextCommand command) {
+        TextCommandConstants.TextCommandType type = command.getType();
+        TextCommandProcessor processor = textCommandService.getProcessor(type);
+        if (type == GET && command instanceof GetCommand) {
+            inFlight.add(textCommandService.getGetCommandProcessor().handleAsync((GetCommand) command));
+        } else if (type == SET) {
+            List<SetCommand> sets = new ArrayList<>();
+            sets.add((SetCommand) command);
+            while (commands.peek() != null && commands.peek().getType() == SET && sets.size() < MAX_IN_FLIGHT) {
+                sets.add((SetCommand) commands.poll());
+            }
+            inFlight.addAll(textCommandService.getSetCommandProcessor().handleAsync(sets));
+        } else if (processor instanceof HttpCommandProcessor) {
+            inFlight.add(((HttpCommandProcessor) processor).handleAsync(command));
+        } else {
+            textCommandService.handle(command);
+        }
+    }
+
+    private void resumeWhenInFlightCompleted() {
+        // the last callback may resume the pipeline on another thread before this loop is done,
+        // the resumed pipeline must find the in-flight list already cleared
+        List<CompletableFuture<?>> awaited = new ArrayList<>(inFlight);
+        inFlight.clear();
+        AtomicInteger remaining = new AtomicInteger(awaited.size());
+        for (CompletableFuture<?> future : awaited) {
+            // a failure has already been handled by the processor and answered to the client
+            future.whenCompleteAsync((ignored, throwable) -> {
+                if (remaining.decrementAndGet() == 0) {
+                    textCommandService.execute(this);
+                }
+            }, CALLER_RUNS);
+        }
+    }
+}
@@ -21,6 +21,7 @@ import com.hazelcast.internal.ascii.memcache.Stats;
 
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletionStage;
 
 @SuppressWarnings("checkstyle:methodcount")
 public interface TextCommandService {
@@ -31,12 +32,39 @@ public interface TextCommandService {
 
     Object poll(String queueName);
 
+    CompletionStage<Boolean> offerAsync(String queueName, Object value);
+
+    /**
+     * Polls the queue waiting up to the given number of seconds for an item,
+     * without blocking the calling thread.
+     */
+    CompletionStage<Object> pollAsync(String queueName, int seconds);
+
     void processRequest(TextCommand command);
 
+    /**
+     * Creates a pipeline executing the commands received on a single connection in order.
+     */
+    TextCommandPipeline createPipeline();
+
     void sendResponse(TextCommand textCommand);
 
+    /**
+     * Checks if the queue of responses waiting to be written is full. While it
+     * is, the connections stop reading commands and register a task resuming
+     * them, which is run once the queue has been drained to half of its
+     * capacity.
+     *
+     * @param resumeReading the task run once commands may be read again
+     * @return {@code true} if the queue is full and the task has been registered,
+     * {@code false} if commands may be read
+     */
+    boolean awaitResponseQueueCapacity(Runnable resumeReading);
+
     Object get(String mapName, String key);
 
+    CompletionStage<Object> getAsync(String mapName, String key);
+
     Map<String, Object> getAll(String mapName, Set<String> keys);
 
     byte[] getByteArray(String mapName, String key);
@@ -45,6 +73,10 @@ public interface TextCommandService {
 
     Object put(String mapName, String key, Object value, int ttlSeconds);
 
+    CompletionStage<Void> setAsync(String mapName, String key, Object value, int ttlSeconds);
+
+    CompletionStage<Void> setAllAsync(String mapName, Map<String, Object> entries);
+
     Object putIfAbsent(String mapName, String key, Object value, int ttlSeconds);
 
     Object replace(String mapName, String key, Object value);
@@ -16,6 +16,7 @@
 
 package com.hazelcast.internal.ascii;
 
+import com.hazelcast.collection.impl.queue.QueueProxyImpl;
 import com.hazelcast.core.HazelcastInstance;
 import com.hazelcast.instance.impl.Node;
 import com.hazelcast.instance.impl.OutOfMemoryErrorDispatcher;
@@ -31,10 +32,12 @@ import com.hazelcast.internal.ascii.memcache.Stats;
 import com.hazelcast.internal.ascii.memcache.StatsCommandProcessor;
 import com.hazelcast.internal.ascii.memcache.TouchCommandProcessor;
 import com.hazelcast.internal.ascii.memcache.VersionCommandProcessor;
+import com.hazelcast.internal.ascii.rest.HttpCommand;
 import com.hazelcast.internal.ascii.rest.HttpDeleteCommandProcessor;
 import com.hazelcast.internal.ascii.rest.HttpGetCommandProcessor;
 import com.hazelcast.internal.ascii.rest.HttpHeadCommandProcessor;
 import com.hazelcast.internal.ascii.rest.HttpPostCommandProcessor;
+import com.hazelcast.internal.ascii.rest.RestEndpointMetrics;
 import com.hazelcast.internal.ascii.rest.RestValue;
 import com.hazelcast.internal.nio.Protocols;
 import com.hazelcast.internal.nio.ascii.TextEncoder;
@@ -48,9 +51,12 @@ import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
 import java.nio.ByteBuffer;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
-import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -89,6 +95,7 @@ public class TextCommandServiceImpl implements TextCommandService {
     private static final int TEXT_COMMAND_PROCESSOR_SIZE = 100;
     private static final int MILLIS_TO_SECONDS = 1000;
     private static final long WAIT_TIME = 1000;
+    private static final int RESPONSE_QUEUE_CAPACITY = 200;
 
     private final TextCommandProcessor[] textCommandProcessors = new TextCommandProcessor[TEXT_COMMAND_PROCESSOR_SIZE];
     private final AtomicLong sets = new AtomicLong();
@@ -106,6 +113,9 @@ public class TextCommandServiceImpl implements TextCommandService {
     private final Node node;
     private final HazelcastInstance hazelcast;
     private final ILogger logger;
+    private final GetCommandProcessor getCommandProcessor;
+    private final SetCommandProcessor setCommandProcessor;
+    private final RestEndpointMetrics restEndpointMetrics = new RestEndpointMetrics();
 
     private volatile ResponseThreadRunnable responseThreadRunnable;
     private volatile boolean running = true;
@@ -118,9 +128,11 @@ public class TextCommandServiceImpl implements TextCommandService {
         this.hazelcast = node.hazelcastInstance;
         this.logger = node.getLogger(this.getClass().getName());
         EntryConverter entryConverter = new EntryConverter(this, node.getLogger(EntryConverter.class));
-        register(GET, new GetCommandProcessor(this, entryConverter));
+        this.getCommandProcessor = new GetCommandProcessor(this, entryConverter);
+        this.setCommandProcessor = new SetCommandProcessor(this);
+        register(GET, getCommandProcessor);
         register(BULK_GET, new BulkGetCommandProcessor(this, entryConverter));
-        register(SET, new SetCommandProcessor(this));
+        register(SET, setCommandProcessor);
         register(APPEND, new SetCommandProcessor(this));
         register(PREPEND, new SetCommandProcessor(this));
         register(ADD, new SetCommandProcessor(this));
@@ -142,6 +154,7 @@ public class TextCommandServiceImpl implements TextCommandService {
         register(HTTP_DELETE, new HttpDeleteCommandProcessor(this));
         register(HTTP_HEAD, new HttpHeadCommandProcessor(this));
         register(NO_OP, new NoOpCommandProcessor(this));
+        node.nodeEngine.getMetricsRegistry().registerDynamicMetricsProvider(restEndpointMetrics);
     }
 
     protected void register(TextCommandConstants.TextCommandType type, TextCommandProcessor processor) {
@@ -238,6 +251,42 @@ public class TextCommandServiceImpl implements TextCommandService {
         node.nodeEngine.getExecutionService().execute("hz:text", new CommandExecutor(command));
     }
 
+    @Override
+    public TextCommandPipeline createPipeline() {
+        return new TextCommandPipeline(this);
+    }
+
+    void execute(TextCommandPipeline pipeline) {
+        startResponseThreadIfNotRunning();
+        node.nodeEngine.getExecutionService().execute("hz:text", pipeline);
+    }
+
+    void handle(TextCommand command) {
+        try {
+            TextCommandConstants.TextCommandType type = command.getType();
+            TextCommandProcessor textCommandProcessor = textCommandProcessors[type.getValue()];
+            textCommandProcessor.handle(command);
+        } catch (Throwable e) {
+            logger.warning(e);
+        }
+    }
+
+    TextCommandProcessor getProcessor(TextCommandConstants.TextCommandType type) {
+        return textCommandProcessors[type.getValue()];
+    }
+
+    public RestEndpointMetrics getRestEndpointMetrics() {
+        return restEndpointMetrics;
+    }
+
+    GetCommandProcessor getGetCommandProcessor() {
+        return getCommandProcessor;
+    }
+
+    SetCommandProcessor getSetCommandProcessor() {
+        return setCommandProcessor;
+    }
+
     private void startResponseThreadIfNotRunning() {
         if (responseThreadRunnable == null) {
             synchronized (mutex) {
@@ -256,6 +305,11 @@ public class TextCommandServiceImpl implements TextCommandService {
         return hazelcast.getMap(mapName).get(key);
     }
 
+    @Override
+    public CompletionStage<Object> getAsync(String mapName, String key) {
+        return hazelcast.getMap(mapName).getAsync(key);
+    }
+
     @Override
     public Map<String, Object> getAll(String mapName, Set<String> keys) {
         IMap<String, Object> map = hazelcast.getMap(mapName);
@@ -298,6 +352,17 @@ public class TextCommandServiceImpl implements TextCommandService {
         return hazelcast.getMap(mapName).put(key, value, ttlSeconds, TimeUnit.SECONDS);
     }
 
+    @Override
+    public CompletionStage<Void> setAsync(String mapName, String key, Object value, int ttlSeconds) {
+        return hazelcast.getMap(mapName).setAsync(key, value, ttlSeconds, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public CompletionStage<Void> setAllAsync(String mapName, Map<String, Object> entries) {
+        IMap<String, Object> map = hazelcast.getMap(mapName);
+        return map.setAllAsync(entries);
+    }
+
     @Override
     public Object putIfAbsent(String mapName, String key, Object value, int ttlSeconds) {
         return hazelcast.getMap(mapName).putIfAbsent(key, value, ttlSeconds, TimeUnit.SECONDS);
@@ -352,6 +417,20 @@ public class TextCommandServiceImpl implements TextCommandService {
         return hazelcast.getQueue(queueName).poll();
     }
 
+    @Override
+    public CompletionStage<Boolean> offerAsync(String queueName, Object value) {
+        return getQueueProxy(queueName).offerAsync(value);
+    }
+
+    @Override
+    public CompletionStage<Object> pollAsync(String queueName, int seconds) {
+        return getQueueProxy(queueName).pollAsync(seconds, TimeUnit.SECONDS);
+    }
+
+    private QueueProxyImpl<Object> getQueueProxy(String queueName) {
+        return (QueueProxyImpl<Object>) hazelcast.<Object>getQueue(queueName);
+    }
+
     @Override
     public int size(String queueName) {
         return hazelcast.getQueue(queueName).size();
@@ -362,9 +441,18 @@ public class TextCommandServiceImpl implements TextCommandService {
         if (!textCommand.shouldReply() || textCommand.getRequestId() == -1) {
             throw new RuntimeException("Shouldn't reply " + textCommand);
         }
+        if (textCommand instanceof HttpCommand) {
+            restEndpointMetrics.record((HttpCommand) textCommand);
+        }
         responseThreadRunnable.sendResponse(textCommand);
     }
 
+    @Override
+    public boolean awaitResponseQueueCapacity(Runnable resumeReading) {
+        ResponseThreadRunnable rtr = responseThreadRunnable;
+        return rtr != null && rtr.awaitCapacity(resumeReading);
+    }
+
     @Override
     public void stop() {
         final ResponseThreadRunnable rtr = responseThreadRunnable;
@@ -388,18 +476,15 @@ public class TextCommandServiceImpl implements TextCommandService {
 
         @Override
         public void run() {
-            try {
-                TextCommandConstants.TextCommandType type = command.getType();
-                TextCommandProcessor textCommandProcessor = textCommandProcessors[type.getValue()];
-                textCommandProcessor.handle(command);
-            } catch (Throwable e) {
-                logger.warning(e);
-            }
+            handle(command);
         }
     }
 
     private class ResponseThreadRunnable implements Runnable {
-        private final BlockingQueue<TextCommand> blockingQueue = new ArrayBlockingQueue<TextCommand>(200);
+        // responses of pipelined commands are sent from callbacks which must not block or drop them, so the
+        // capacity is enforced by not reading new commands while it is reached, see awaitCapacity()
+        private final BlockingQueue<TextCommand> blockingQueue = new LinkedBlockingQueue<TextCommand>();
+        private final Queue<Runnable> blockedReaders = new ConcurrentLinkedQueue<>();
         private final Object stopObject = new Object();
 
         @SuppressFBWarnings("RV_RETURN_VALUE_IGNORED_BAD_PRACTICE")
@@ -407,11 +492,32 @@ public class TextCommandServiceImpl implements TextCommandService {
             blockingQueue.offer(textCommand);
         }
 
+        boolean awaitCapacity(Runnable resumeReading) {
+            if (blockingQueue.size() < RESPONSE_QUEUE_CAPACITY) {
+                return false;
+            }
+            blockedReaders.add(resumeReading);
+            // the queue may have been drained before the reader was added
+            resumeReadersIfDrained();
+            return true;
+        }
+
+        private void resumeReadersIfDrained() {
+            if (blockedReaders.isEmpty() || blockingQueue.size() > RESPONSE_QUEUE_CAPACITY / 2) {
+                return;
+            }
+            Runnable resumeReading;
+            while ((resumeReading = blockedReaders.poll()) != null) {
+                resumeReading.run();
+            }
+        }
+
         @Override
         public void run() {
             while (running) {
                 try {
                     TextCommand textCommand = blockingQueue.take();
+                    resumeReadersIfDrained();
                     if (TextCommandConstants.TextCommandType.STOP == textCommand.getType()) {
                         synchronized (stopObject) {
                             stopObject.notify();
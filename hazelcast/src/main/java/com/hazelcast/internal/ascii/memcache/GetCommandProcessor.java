@@ -17,23 +17,61 @@
 package com.hazelcast.internal.ascii.memcache;
 
 import com.hazelcast.internal.ascii.TextCommandService;
+import com.hazelcast.logging.ILogger;
 
+import java.util.concurrent.CompletableFuture;
+
+import static com.hazelcast.internal.ascii.TextCommandConstants.TextCommandType.ERROR_SERVER;
 import static com.hazelcast.internal.ascii.memcache.MemcacheUtils.parseMemcacheKey;
+import static com.hazelcast.internal.util.ConcurrencyUtil.CALLER_RUNS;
 
 public class GetCommandProcessor extends MemcacheCommandProcessor<GetCommand> {
     private final EntryConverter entryConverter;
+    private final ILogger logger;
 
     public GetCommandProcessor(TextCommandService textCommandService, EntryConverter entryConverter) {
         super(textCommandService);
         this.entryConverter = entryConverter;
+        this.logger = textCommandService.getNode().getLogger(this.getClass().getName());
     }
 
     @Override
     public void handle(GetCommand getCommand) {
-        String memcacheKey = getCommand.getKey();
-        MapNameAndKeyPair mapNameAndKeyPair = parseMemcacheKey(memcacheKey);
+        MapNameAndKeyPair mapNameAndKeyPair = parseMemcacheKey(getCommand.getKey());
         Object value = textCommandService.get(mapNameAndKeyPair.getMapName(), mapNameAndKeyPair.getKey());
-        MemcacheEntry entry = entryConverter.toEntry(memcacheKey, value);
+        sendResponse(getCommand, value);
+    }
+
+    /**
+     * Reads the value without waiting for it, the response is sent once the
+     * value arrives. A failed read is answered with "SERVER_ERROR".
+     *
+     * @return a future completed once the response has been sent
+     */
+    public CompletableFuture<Object> handleAsync(GetCommand getCommand) {
+        MapNameAndKeyPair mapNameAndKeyPair = parseMemcacheKey(getCommand.getKey());
+        // the response is only handed over to the response thread, no need for another thread hop
+        return textCommandService.getAsync(mapNameAndKeyPair.getMapName(), mapNameAndKeyPair.getKey())
+                .whenCompleteAsync((value, throwable) -> {
+                    if (throwable != null) {
+                        logger.warning(throwable);
+                        sendServerError(getCommand);
+                    } else {
+                        sendResponse(getCommand, value);
+                    }
+                }, CALLER_RUNS)
+                .toCompletableFuture();
+    }
+
+    private void sendServerError(GetCommand getCommand) {
+        ErrorCommand error = new ErrorCommand(ERROR_SERVER, "Could not read the value of " + getCommand.getKey());
+        // answers in place of the get command
+        error.init(getCommand.getDecoder(), getCommand.getRequestId());
+        textCommandService.sendResponse(error);
+    }
+
+    private void sendResponse(GetCommand getCommand, Object value) {
+        MemcacheEntry entry = entryConverter.toEntry(getCommand.getKey(), value);
         if (entry != null) {
             textCommandService.incrementGetHitCount();
         } else {
@@ -23,13 +23,25 @@ import com.hazelcast.logging.ILogger;
 
 import java.io.UnsupportedEncodingException;
 import java.net.URLDecoder;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 
 import static com.hazelcast.internal.ascii.TextCommandConstants.TextCommandType.ADD;
 import static com.hazelcast.internal.ascii.TextCommandConstants.TextCommandType.APPEND;
 import static com.hazelcast.internal.ascii.TextCommandConstants.TextCommandType.PREPEND;
 import static com.hazelcast.internal.ascii.TextCommandConstants.TextCommandType.REPLACE;
 import static com.hazelcast.internal.ascii.TextCommandConstants.TextCommandType.SET;
+import static com.hazelcast.internal.ascii.memcache.MemcacheUtils.parseMemcacheKey;
+import static com.hazelcast.internal.util.ConcurrencyUtil.CALLER_RUNS;
 import static com.hazelcast.internal.util.StringUtil.stringToBytes;
+import static java.util.Collections.emptySet;
+import static java.util.Collections.singletonList;
 
 public class SetCommandProcessor extends MemcacheCommandProcessor<SetCommand> {
 
@@ -101,6 +113,99 @@ public class SetCommandProcessor extends MemcacheCommandProcessor<SetCommand> {
         }
     }
 
+    /**
+     * Stores the values of consecutive "set" commands without waiting for the
+     * maps to be updated. Commands without expiration which target a map
+     * without a default time-to-live are grouped into a single
+     * {@code setAll} call per map, the others are stored one by one. A
+     * command setting a key again is only stored once the previous commands
+     * have been, unless both are part of the same {@code setAll} call, so the
+     * sets of a key are applied in the order of the commands. The responses
+     * are sent once the values are stored, a failed store is answered with
+     * "NOT_STORED".
+     *
+     * @return futures completed once the responses have been sent
+     */
+    public List<CompletableFuture<Void>> handleAsync(List<SetCommand> setCommands) {
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        int stored = storeAsync(setCommands, futures);
+        if (stored < setCommands.size()) {
+            List<SetCommand> remaining = setCommands.subList(stored, setCommands.size());
+            // failures have already been answered, the remaining commands are stored anyway
+            futures.add(allOf(futures)
+                    .handle((ignored, throwable) -> null)
+                    .thenCompose(ignored -> allOf(handleAsync(remaining))));
+        }
+        return futures;
+    }
+
+    /**
+     * Stores the commands up to the first one setting a key which is already
+     * being set by a different call.
+     *
+     * @return the number of commands stored
+     */
+    private int storeAsync(List<SetCommand> setCommands, List<CompletableFuture<Void>> futures) {
+        Map<String, Boolean> batchableMaps = new HashMap<>();
+        Map<String, List<SetCommand>> commandsPerMap = new HashMap<>();
+        Map<String, Map<String, Object>> entriesPerMap = new HashMap<>();
+        Map<String, Set<String>> keysSetOneByOne = new HashMap<>();
+        int stored = 0;
+        for (SetCommand setCommand : setCommands) {
+            MapNameAndKeyPair mapNameAndKey = parseMemcacheKey(setCommand.getKey());
+            String mapName = mapNameAndKey.getMapName();
+            String key = mapNameAndKey.getKey();
+            int ttl = textCommandService.getAdjustedTTLSeconds(setCommand.getExpiration());
+            // a zero expiration means "never expires", setAll would apply the default time-to-live instead
+            boolean batchable = ttl == 0 && batchableMaps.computeIfAbsent(mapName, this::hasNoDefaultTtl);
+            Map<String, Object> batch = entriesPerMap.get(mapName);
+            if (keysSetOneByOne.getOrDefault(mapName, emptySet()).contains(key)
+                    || !batchable && batch != null && batch.containsKey(key)) {
+                break;
+            }
+            Object value = new MemcacheEntry(setCommand.getKey(), setCommand.getValue(), setCommand.getFlag());
+            textCommandService.incrementSetCount();
+            if (batchable) {
+                commandsPerMap.computeIfAbsent(mapName, name -> new ArrayList<>()).add(setCommand);
+                entriesPerMap.computeIfAbsent(mapName, name -> new HashMap<>()).put(key, value);
+            } else {
+                keysSetOneByOne.computeIfAbsent(mapName, name -> new HashSet<>()).add(key);
+                futures.add(sendResponseWhenStored(textCommandService.setAsync(mapName, key, value, ttl),
+                        singletonList(setCommand)));
+            }
+            stored++;
+        }
+        for (Map.Entry<String, Map<String, Object>> entries : entriesPerMap.entrySet()) {
+            String mapName = entries.getKey();
+            futures.add(sendResponseWhenStored(textCommandService.setAllAsync(mapName, entries.getValue()),
+                    commandsPerMap.get(mapName)));
+        }
+        return stored;
+    }
+
+    private static CompletableFuture<Void> allOf(List<CompletableFuture<Void>> futures) {
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
+    }
+
+    private boolean hasNoDefaultTtl(String mapName) {
+        return textCommandService.getNode().getConfig().findMapConfig(mapName).getTimeToLiveSeconds() == 0;
+    }
+
+    private CompletableFuture<Void> sendResponseWhenStored(CompletionStage<Void> stored, List<SetCommand> setCommands) {
+        // the responses are only handed over to the response thread, no need for another thread hop
+        return stored.whenCompleteAsync((ignored, throwable) -> {
+            if (throwable != null) {
+                logger.warning(throwable);
+            }
+            for (SetCommand setCommand : setCommands) {
+                setCommand.setResponse(throwable == null ? TextCommandConstants.STORED : TextCommandConstants.NOT_STORED);
+                if (setCommand.shouldReply()) {
+                    textCommandService.sendResponse(setCommand);
+                }
+            }
+        }, CALLER_RUNS).toCompletableFuture();
+    }
+
     private void replaceCommandType(SetCommand setCommand, String mapName, String key, Object value, int ttl) {
         boolean replaced = (textCommandService.replace(mapName, key, value) != null);
         if (replaced) {
@@ -55,8 +55,12 @@ public abstract class HttpCommand extends AbstractTextCommand {
 
     protected final String uri;
     protected ByteBuffer response;
+    // written after the status line and headers without copying it into the response buffer first
+    protected ByteBuffer responseBody;
     protected boolean nextLine;
 
+    private final long creationNanos = System.nanoTime();
+
 
     public HttpCommand(TextCommandConstants.TextCommandType type, String uri) {
         super(type);
@@ -147,6 +151,7 @@ public abstract class HttpCommand extends AbstractTextCommand {
         }
         size += TextCommandConstants.RETURN.length;
         this.response = ByteBuffer.allocate(size);
+        this.responseBody = null;
         response.put(statusLine);
         response.put(CONTENT_LENGTH);
         response.put(len);
@@ -185,8 +190,8 @@ public abstract class HttpCommand extends AbstractTextCommand {
         size += len.length;
         size += TextCommandConstants.RETURN.length;
         size += TextCommandConstants.RETURN.length;
-        size += valueSize;
         this.response = ByteBuffer.allocate(size);
+        this.responseBody = value == null ? null : ByteBuffer.wrap(value);
         response.put(statusLine);
         if (contentType != null) {
             response.put(CONTENT_TYPE);
@@ -197,16 +202,33 @@ public abstract class HttpCommand extends AbstractTextCommand {
         response.put(len);
         response.put(TextCommandConstants.RETURN);
         response.put(TextCommandConstants.RETURN);
-        if (value != null) {
-            response.put(value);
-        }
         response.flip();
     }
 
+    /**
+     * Returns the {@link System#nanoTime()} at which this request was
+     * received.
+     */
+    public long getCreationNanos() {
+        return creationNanos;
+    }
+
+    /**
+     * Writes the prepared response. A large response body is streamed to the
+     * connection in as many writes as needed, directly from the value the
+     * response was prepared with.
+     */
     @Override
     public boolean writeTo(ByteBuffer dst) {
         copyToHeapBuffer(response, dst);
-        return !response.hasRemaining();
+        if (response.hasRemaining()) {
+            return false;
+        }
+        if (responseBody != null) {
+            copyToHeapBuffer(responseBody, dst);
+            return !responseBody.hasRemaining();
+        }
+        return true;
     }
 
     @Override
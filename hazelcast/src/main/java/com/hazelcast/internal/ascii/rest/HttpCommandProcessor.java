@@ -35,14 +35,19 @@ import javax.security.auth.login.LoginException;
 import java.io.UnsupportedEncodingException;
 import java.net.HttpURLConnection;
 import java.net.URLDecoder;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 
 import static com.hazelcast.internal.ascii.rest.HttpCommand.CONTENT_TYPE_BINARY;
 import static com.hazelcast.internal.ascii.rest.HttpCommand.CONTENT_TYPE_JSON;
 import static com.hazelcast.internal.ascii.rest.HttpCommand.CONTENT_TYPE_PLAIN_TEXT;
 import static com.hazelcast.internal.ascii.rest.HttpCommand.RES_200;
 import static com.hazelcast.internal.ascii.rest.HttpCommandProcessor.ResponseType.FAIL;
+import static com.hazelcast.internal.util.ConcurrencyUtil.CALLER_RUNS;
+import static com.hazelcast.internal.util.ExceptionUtil.peel;
 import static com.hazelcast.internal.util.StringUtil.bytesToString;
 import static com.hazelcast.internal.util.StringUtil.stringToBytes;
+import static java.util.concurrent.CompletableFuture.completedFuture;
 
 
 public abstract class HttpCommandProcessor<T> extends AbstractTextCommandProcessor<T> {
@@ -234,6 +239,42 @@ public abstract class HttpCommandProcessor<T> extends AbstractTextCommandProcess
         return true;
     }
 
+    /**
+     * Handles the request and returns a future which is completed once the
+     * response has been handed over for sending. Processors which do not block
+     * on the data structures while handling a request override this method,
+     * the default handles the request synchronously.
+     *
+     * @param request the HTTP request
+     * @return the future completed when the request has been answered
+     */
+    public CompletableFuture<Void> handleAsync(T request) {
+        handle(request);
+        return completedFuture(null);
+    }
+
+    /**
+     * Sends the response once the {@code prepared} stage completes. The stage
+     * is expected to prepare the response of the command when it completes
+     * successfully, a failure is answered with an internal server error.
+     *
+     * @param command  the HTTP request
+     * @param prepared the stage preparing the response
+     * @return the future completed when the response has been handed over for sending
+     */
+    protected CompletableFuture<Void> sendResponseWhenPrepared(@Nonnull HttpCommand command,
+                                                               @Nonnull CompletionStage<Void> prepared) {
+        return prepared.handleAsync((ignored, throwable) -> {
+            if (throwable != null) {
+                Throwable cause = peel(throwable);
+                logger.warning("An error occurred while handling request " + command, cause);
+                prepareResponse(HttpCommand.RES_500, command, exceptionResponse(cause));
+            }
+            textCommandService.sendResponse(command);
+            return (Void) null;
+        }, CALLER_RUNS).toCompletableFuture();
+    }
+
     protected void sendResponse(HttpPostCommand command, JsonObject json) {
         prepareResponse(command, json);
         textCommandService.sendResponse(command);
@@ -39,10 +39,13 @@ import com.hazelcast.internal.server.ServerConnectionManager;
 import com.hazelcast.internal.util.StringUtil;
 
 import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 
 import static com.hazelcast.instance.EndpointQualifier.CLIENT;
+import static com.hazelcast.internal.util.ConcurrencyUtil.CALLER_RUNS;
 import static com.hazelcast.internal.util.ExceptionUtil.peel;
+import static java.util.concurrent.CompletableFuture.completedFuture;
 
 @SuppressWarnings({"checkstyle:methodcount"})
 public class HttpGetCommandProcessor extends HttpCommandProcessor<HttpGetCommand> {
@@ -60,15 +63,20 @@ public class HttpGetCommandProcessor extends HttpCommandProcessor<HttpGetCommand
     }
 
     @Override
-    @SuppressWarnings({"checkstyle:cyclomaticcomplexity"})
     public void handle(HttpGetCommand command) {
+        handleAsync(command);
+    }
+
+    @Override
+    @SuppressWarnings({"checkstyle:cyclomaticcomplexity"})
+    public CompletableFuture<Void> handleAsync(HttpGetCommand command) {
         boolean sendResponse = true;
         try {
             String uri = command.getURI();
             if (uri.startsWith(URI_MAPS)) {
-                handleMap(command, uri);
+                return sendResponseWhenPrepared(command, handleMap(command, uri));
             } else if (uri.startsWith(URI_QUEUES)) {
-                handleQueue(command, uri);
+                return sendResponseWhenPrepared(command, handleQueue(command, uri));
             } else if (uri.startsWith(URI_INSTANCE)) {
                 handleInstance(command);
             } else if (uri.startsWith(URI_CLUSTER)) {
@@ -103,6 +111,7 @@ public class HttpGetCommandProcessor extends HttpCommandProcessor<HttpGetCommand
         if (sendResponse) {
             textCommandService.sendResponse(command);
         }
+        return completedFuture(null);
     }
 
     private void handleHealthReady(HttpGetCommand command) {
@@ -361,7 +370,7 @@ public class HttpGetCommandProcessor extends HttpCommandProcessor<HttpGetCommand
         prepareResponse(command, new JsonObject().add("name", textCommandService.getInstanceName()));
     }
 
-    private void handleQueue(HttpGetCommand command, String uri) {
+    private CompletionStage<Void> handleQueue(HttpGetCommand command, String uri) {
         int indexEnd = uri.indexOf('/', URI_QUEUES.length());
         String queueName = uri.substring(URI_QUEUES.length(), indexEnd);
         String secondStr = (uri.length() > (indexEnd + 1)) ? uri.substring(indexEnd + 1) : null;
@@ -369,20 +378,22 @@ public class HttpGetCommandProcessor extends HttpCommandProcessor<HttpGetCommand
         if (QUEUE_SIZE_COMMAND.equalsIgnoreCase(secondStr)) {
             int size = textCommandService.size(queueName);
             prepareResponse(command, Integer.toString(size));
+            return completedFuture(null);
         } else {
             int seconds = (secondStr == null) ? 0 : Integer.parseInt(secondStr);
-            Object value = textCommandService.poll(queueName, seconds);
-            prepareResponse(command, value);
+            // the poll waits for an item without occupying a thread
+            return textCommandService.pollAsync(queueName, seconds)
+                    .thenAcceptAsync(value -> prepareResponse(command, value), CALLER_RUNS);
         }
     }
 
-    private void handleMap(HttpGetCommand command, String uri) {
+    private CompletionStage<Void> handleMap(HttpGetCommand command, String uri) {
         uri = StringUtil.stripTrailingSlash(uri);
         int indexEnd = uri.indexOf('/', URI_MAPS.length());
         String mapName = uri.substring(URI_MAPS.length(), indexEnd);
         String key = uri.substring(indexEnd + 1);
-        Object value = textCommandService.get(mapName, key);
-        prepareResponse(command, value);
+        return textCommandService.getAsync(mapName, key)
+                .thenAcceptAsync(value -> prepareResponse(command, value), CALLER_RUNS);
     }
 
     @Override
@@ -33,16 +33,20 @@ import com.hazelcast.wan.impl.WanReplicationService;
 
 import java.io.UnsupportedEncodingException;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 
 import static com.hazelcast.cp.CPGroup.METADATA_CP_GROUP_NAME;
 import static com.hazelcast.internal.ascii.rest.HttpCommand.RES_400;
 import static com.hazelcast.internal.ascii.rest.HttpCommand.RES_403;
 import static com.hazelcast.internal.ascii.rest.HttpCommandProcessor.ResponseType.FAIL;
 import static com.hazelcast.internal.ascii.rest.HttpCommandProcessor.ResponseType.SUCCESS;
+import static com.hazelcast.internal.util.ConcurrencyUtil.CALLER_RUNS;
 import static com.hazelcast.internal.util.ExceptionUtil.peel;
 import static com.hazelcast.internal.util.StringUtil.lowerCaseInternal;
 import static com.hazelcast.internal.util.StringUtil.stringToBytes;
 import static com.hazelcast.internal.util.StringUtil.upperCaseInternal;
+import static java.util.concurrent.CompletableFuture.completedFuture;
 
 @SuppressWarnings({"checkstyle:cyclomaticcomplexity", "checkstyle:methodcount", "checkstyle:methodlength"})
 public class HttpPostCommandProcessor extends HttpCommandProcessor<HttpPostCommand> {
@@ -53,15 +57,20 @@ public class HttpPostCommandProcessor extends HttpCommandProcessor<HttpPostComma
     }
 
     @Override
-    @SuppressWarnings("checkstyle:npathcomplexity")
     public void handle(HttpPostCommand command) {
+        handleAsync(command);
+    }
+
+    @Override
+    @SuppressWarnings({"checkstyle:npathcomplexity", "checkstyle:returncount"})
+    public CompletableFuture<Void> handleAsync(HttpPostCommand command) {
         boolean sendResponse = true;
         try {
             String uri = command.getURI();
             if (uri.startsWith(URI_MAPS)) {
-                handleMap(command, uri);
+                return sendResponseWhenPrepared(command, handleMap(command, uri));
             } else if (uri.startsWith(URI_QUEUES)) {
-                handleQueue(command, uri);
+                return sendResponseWhenPrepared(command, handleQueue(command, uri));
             } else if (uri.startsWith(URI_CLUSTER_STATE_URL)) {
                 handleGetClusterState(command);
             } else if (uri.startsWith(URI_CHANGE_CLUSTER_STATE_URL)) {
@@ -70,7 +79,7 @@ public class HttpPostCommandProcessor extends HttpCommandProcessor<HttpPostComma
                 handleChangeClusterVersion(command);
             } else if (uri.startsWith(URI_SHUTDOWN_CLUSTER_URL)) {
                 handleClusterShutdown(command);
-                return;
+                return completedFuture(null);
             } else if (uri.startsWith(URI_FORCESTART_CLUSTER_URL)) {
                 handleForceStart(command);
             } else if (uri.startsWith(URI_HOT_RESTART_BACKUP_INTERRUPT_CLUSTER_URL)) {
@@ -83,7 +92,7 @@ public class HttpPostCommandProcessor extends HttpCommandProcessor<HttpPostComma
                 handleListNodes(command);
             } else if (uri.startsWith(URI_SHUTDOWN_NODE_CLUSTER_URL)) {
                 handleShutdownNode(command);
-                return;
+                return completedFuture(null);
             } else if (uri.startsWith(URI_WAN_SYNC_MAP)) {
                 handleWanSyncMap(command);
             } else if (uri.startsWith(URI_WAN_SYNC_ALL_MAPS)) {
@@ -128,6 +137,7 @@ public class HttpPostCommandProcessor extends HttpCommandProcessor<HttpPostComma
         if (sendResponse) {
             textCommandService.sendResponse(command);
         }
+        return completedFuture(null);
     }
 
     private void handleChangeClusterState(HttpPostCommand cmd) throws Throwable {
@@ -208,7 +218,7 @@ public class HttpPostCommandProcessor extends HttpCommandProcessor<HttpPostComma
         getNode().hazelcastInstance.shutdown();
     }
 
-    private void handleQueue(HttpPostCommand command, String uri) {
+    private CompletionStage<Void> handleQueue(HttpPostCommand command, String uri) {
         String simpleValue = null;
         String suffix;
         int baseUriLength = URI_QUEUES.length();
@@ -239,15 +249,17 @@ public class HttpPostCommandProcessor extends HttpCommandProcessor<HttpPostComma
             data = stringToBytes(simpleValue);
             contentType = QUEUE_SIMPLE_VALUE_CONTENT_TYPE;
         }
-        boolean offerResult = textCommandService.offer(queueName, new RestValue(data, contentType));
-        if (offerResult) {
-            command.send200();
-        } else {
-            command.send503();
-        }
+        return textCommandService.offerAsync(queueName, new RestValue(data, contentType))
+                .thenAcceptAsync(offerResult -> {
+                    if (offerResult) {
+                        command.send200();
+                    } else {
+                        command.send503();
+                    }
+                }, CALLER_RUNS);
     }
 
-    private void handleMap(HttpPostCommand command, String uri) {
+    private CompletionStage<Void> handleMap(HttpPostCommand command, String uri) {
         uri = StringUtil.stripTrailingSlash(uri);
         int indexEnd = uri.indexOf('/', URI_MAPS.length());
         if (indexEnd == -1) {
@@ -256,8 +268,8 @@ public class HttpPostCommandProcessor extends HttpCommandProcessor<HttpPostComma
         String mapName = uri.substring(URI_MAPS.length(), indexEnd);
         String key = uri.substring(indexEnd + 1);
         byte[] data = command.getData();
-        textCommandService.put(mapName, key, new RestValue(data, command.getContentType()), -1);
-        command.send200();
+        return textCommandService.setAsync(mapName, key, new RestValue(data, command.getContentType()), -1)
+                .thenAcceptAsync(ignored -> command.send200(), CALLER_RUNS);
     }
 
     /**
@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.ascii.rest;
+
+import com.hazelcast.internal.metrics.DynamicMetricsProvider;
+import com.hazelcast.internal.metrics.MetricDescriptor;
+import com.hazelcast.internal.metrics.MetricsCollectionContext;
+import com.hazelcast.internal.util.LatencyDistribution;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static com.hazelcast.internal.ascii.rest.HttpCommandProcessor.URI_CLUSTER;
+import static com.hazelcast.internal.ascii.rest.HttpCommandProcessor.URI_CLUSTER_MANAGEMENT_BASE_URL;
+import static com.hazelcast.internal.ascii.rest.HttpCommandProcessor.URI_CP_SUBSYSTEM_BASE_URL;
+import static com.hazelcast.internal.ascii.rest.HttpCommandProcessor.URI_HEALTH_URL;
+import static com.hazelcast.internal.ascii.rest.HttpCommandProcessor.URI_INSTANCE;
+import static com.hazelcast.internal.ascii.rest.HttpCommandProcessor.URI_LICENSE_INFO;
+import static com.hazelcast.internal.ascii.rest.HttpCommandProcessor.URI_MAPS;
+import static com.hazelcast.internal.ascii.rest.HttpCommandProcessor.URI_QUEUES;
+import static com.hazelcast.internal.ascii.rest.HttpCommandProcessor.URI_WAN_BASE_URL;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.REST_DISCRIMINATOR_ENDPOINT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.REST_METRIC_MAX_LATENCY;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.REST_METRIC_REQUEST_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.REST_METRIC_TOTAL_LATENCY;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.REST_PREFIX;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.REST_TAG_METHOD;
+import static com.hazelcast.internal.metrics.ProbeLevel.INFO;
+import static com.hazelcast.internal.metrics.ProbeUnit.COUNT;
+import static com.hazelcast.internal.metrics.ProbeUnit.US;
+
+/**
+ * Tracks the latency of the REST requests per endpoint and HTTP method,
+ * measured from the moment the request was read from the connection until its
+ * response was handed over for sending.
+ * <p>
+ * The endpoints are the top level REST resources, for instance {@code maps}
+ * or {@code health}, so the number of tracked latencies stays bounded
+ * whatever URIs the clients send.
+ */
+public final class RestEndpointMetrics implements DynamicMetricsProvider {
+
+    static final String OTHER_ENDPOINT = "other";
+
+    private static final String[][] ENDPOINTS = {
+            {URI_MAPS, "maps"},
+            {URI_QUEUES, "queues"},
+            {URI_HEALTH_URL, "health"},
+            {URI_INSTANCE, "instance"},
+            {URI_CLUSTER_MANAGEMENT_BASE_URL, "management"},
+            {URI_CLUSTER, "cluster"},
+            {URI_WAN_BASE_URL, "wan"},
+            {URI_CP_SUBSYSTEM_BASE_URL, "cp-subsystem"},
+            {URI_LICENSE_INFO, "license"},
+    };
+
+    private static final int METHOD_NAME_OFFSET = "HTTP_".length();
+
+    private final ConcurrentMap<EndpointKey, LatencyDistribution> latencies = new ConcurrentHashMap<>();
+
+    /**
+     * Records the latency of the request, which is about to be responded.
+     */
+    public void record(HttpCommand command) {
+        EndpointKey key = new EndpointKey(command.getType().name().substring(METHOD_NAME_OFFSET), endpoint(command.getURI()));
+        latencies.computeIfAbsent(key, k -> new LatencyDistribution()).done(command.getCreationNanos());
+    }
+
+    static String endpoint(String uri) {
+        if (uri != null) {
+            for (String[] endpoint : ENDPOINTS) {
+                if (uri.startsWith(endpoint[0])) {
+                    return endpoint[1];
+                }
+            }
+        }
+        return OTHER_ENDPOINT;
+    }
+
+    /**
+     * Returns the latency of the requests with the given HTTP method to the
+     * endpoint, or {@code null} if there were none.
+     */
+    public LatencyDistribution getLatency(String method, String endpoint) {
+        return latencies.get(new EndpointKey(method, endpoint));
+    }
+
+    @Override
+    public void provideDynamicMetrics(MetricDescriptor descriptor, MetricsCollectionContext context) {
+        for (Map.Entry<EndpointKey, LatencyDistribution> entry : latencies.entrySet()) {
+            EndpointKey key = entry.getKey();
+            LatencyDistribution latency = entry.getValue();
+            MetricDescriptor endpointDescriptor = descriptor
+                    .copy()
+                    .withPrefix(REST_PREFIX)
+                    .withDiscriminator(REST_DISCRIMINATOR_ENDPOINT, key.endpoint)
+                    .withTag(REST_TAG_METHOD, key.method);
+            context.collect(endpointDescriptor, REST_METRIC_REQUEST_COUNT, INFO, COUNT, latency.count());
+            context.collect(endpointDescriptor, REST_METRIC_TOTAL_LATENCY, INFO, US, latency.totalMicros());
+            context.collect(endpointDescriptor, REST_METRIC_MAX_LATENCY, INFO, US, latency.maxMicros());
+        }
+    }
+
+    private static final class EndpointKey {
+        private final String method;
+        private final String endpoint;
+
+        EndpointKey(String method, String endpoint) {
+            this.method = method;
+            this.endpoint = endpoint;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof EndpointKey)) {
+                return false;
+            }
+            EndpointKey that = (EndpointKey) o;
+            return method.equals(that.method) && endpoint.equals(that.endpoint);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * method.hashCode() + endpoint.hashCode();
+        }
+    }
+}
@@ -20,6 +20,7 @@ import com.hazelcast.config.CacheConfig;
 import com.hazelcast.config.CacheConfiguration;
 import com.hazelcast.config.CachePartitionLostListenerConfig;
 import com.hazelcast.config.EventJournalConfig;
+import com.hazelcast.config.MerkleTreeConfig;
 import com.hazelcast.config.EvictionConfig;
 import com.hazelcast.config.HotRestartConfig;
 import com.hazelcast.config.InMemoryFormat;
@@ -81,6 +82,13 @@ public class CacheConfigReadOnly<K, V> extends CacheConfig<K, V> {
         return new EventJournalConfigReadOnly(eventJournalConfig);
     }
 
+    @Nonnull
+    @Override
+    public MerkleTreeConfig getMerkleTreeConfig() {
+        MerkleTreeConfig merkleTreeConfig = super.getMerkleTreeConfig();
+        return new MerkleTreeConfigReadOnly(merkleTreeConfig);
+    }
+
     @Override
     public String getSplitBrainProtectionName() {
         return super.getSplitBrainProtectionName();
@@ -206,6 +214,11 @@ public class CacheConfigReadOnly<K, V> extends CacheConfig<K, V> {
         throw throwReadOnly();
     }
 
+    @Override
+    public CacheConfiguration<K, V> setMerkleTreeConfig(@Nonnull MerkleTreeConfig merkleTreeConfig) {
+        throw throwReadOnly();
+    }
+
     @Override
     public CacheConfiguration<K, V> setWriteThrough(boolean isWriteThrough) {
         throw throwReadOnly();
@@ -23,6 +23,7 @@ import com.hazelcast.config.EvictionConfig;
 import com.hazelcast.config.HotRestartConfig;
 import com.hazelcast.config.InMemoryFormat;
 import com.hazelcast.config.MergePolicyConfig;
+import com.hazelcast.config.MerkleTreeConfig;
 import com.hazelcast.config.WanReplicationRef;
 
 import java.util.ArrayList;
@@ -178,4 +179,14 @@ public class CacheSimpleConfigReadOnly extends CacheSimpleConfig {
     public CacheSimpleConfig setHotRestartConfig(HotRestartConfig hotRestartConfig) {
         throw new UnsupportedOperationException("This config is read-only cache: " + getName());
     }
+
+    @Override
+    public MerkleTreeConfig getMerkleTreeConfig() {
+        return new MerkleTreeConfigReadOnly(super.getMerkleTreeConfig());
+    }
+
+    @Override
+    public CacheSimpleConfig setMerkleTreeConfig(MerkleTreeConfig merkleTreeConfig) {
+        throw new UnsupportedOperationException("This config is read-only cache: " + getName());
+    }
 }
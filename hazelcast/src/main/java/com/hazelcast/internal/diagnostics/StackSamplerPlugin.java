@@ -0,0 +1,292 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.diagnostics;
+
+import com.hazelcast.internal.networking.Networking;
+import com.hazelcast.internal.networking.nio.NioNetworking;
+import com.hazelcast.internal.networking.nio.NioThread;
+import com.hazelcast.internal.server.Server;
+import com.hazelcast.internal.server.tcp.TcpServer;
+import com.hazelcast.internal.util.concurrent.ConcurrentItemCounter;
+import com.hazelcast.spi.impl.NodeEngineImpl;
+import com.hazelcast.spi.impl.operationexecutor.OperationExecutor;
+import com.hazelcast.spi.impl.operationexecutor.OperationRunner;
+import com.hazelcast.spi.impl.operationservice.impl.OperationServiceImpl;
+import com.hazelcast.spi.properties.HazelcastProperties;
+import com.hazelcast.spi.properties.HazelcastProperty;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.concurrent.locks.LockSupport;
+
+import static com.hazelcast.internal.util.ThreadUtil.createThreadName;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * The StackSamplerPlugin is a {@link DiagnosticsPlugin} that continuously
+ * samples the stacks of the partition and generic operation threads and of
+ * the networking threads.
+ * <p>
+ * Where the {@link OperationThreadSamplerPlugin} only tells which operations
+ * are running, this plugin also tells where the time is spent while running
+ * them. The samples are aggregated into folded stacks, one line per distinct
+ * stack with the number of times it was sampled, e.g.:
+ * <pre>
+ * PartitionOperationThread;com.hazelcast.map.impl.operation.PutOperation;java.lang.Thread.run;... 42
+ * </pre>
+ * The first frame is the type of the sampled thread and, for operation
+ * threads, the second frame is the class of the running operation. So each
+ * line can directly be fed to flame graph tooling. The operation threads are
+ * only sampled while they run an operation; idle time is not recorded.
+ * <p>
+ * The aggregated stacks are written and reset every period, so the memory
+ * usage is bounded by {@link #MAX_STACKS}. The stacks are captured for all
+ * threads at once with a single {@link ThreadMXBean#getThreadInfo(long[], int)}
+ * call, which keeps the overhead low enough to leave the plugin enabled in
+ * production.
+ */
+public class StackSamplerPlugin extends DiagnosticsPlugin {
+
+    /**
+     * The period in seconds the aggregated stack samples are written.
+     * <p>
+     * This isn't the frequency the threads are being sampled.
+     * <p>
+     * If set to 0, the plugin is disabled.
+     */
+    public static final HazelcastProperty PERIOD_SECONDS
+            = new HazelcastProperty("hazelcast.diagnostics.stacksamples.period.seconds", 0, SECONDS);
+
+    /**
+     * The period in milliseconds between taking samples.
+     * <p>
+     * The lower the period, the higher the overhead, but also the higher the
+     * precision.
+     */
+    public static final HazelcastProperty SAMPLER_PERIOD_MILLIS
+            = new HazelcastProperty("hazelcast.diagnostics.stacksamples.sampler.period.millis", 10, MILLISECONDS);
+
+    /**
+     * The maximum number of frames captured per stack sample. The frames
+     * closest to the root of deeper stacks are dropped.
+     */
+    public static final HazelcastProperty MAX_DEPTH
+            = new HazelcastProperty("hazelcast.diagnostics.stacksamples.max.depth", 64);
+
+    /**
+     * The maximum number of distinct stacks kept per period. Once reached,
+     * the samples of new stacks are only attributed to their thread type and
+     * operation under a {@value #TRUNCATED_FRAME} frame.
+     */
+    public static final HazelcastProperty MAX_STACKS
+            = new HazelcastProperty("hazelcast.diagnostics.stacksamples.max.stacks", 1000);
+
+    static final String TRUNCATED_FRAME = "[truncated]";
+    static final String NIO_INPUT_THREAD = "NioInputThread";
+    static final String NIO_OUTPUT_THREAD = "NioOutputThread";
+
+    private static final char FRAME_SEPARATOR = ';';
+
+    private final NodeEngineImpl nodeEngine;
+    private final OperationExecutor executor;
+    private final NioNetworking networking;
+    private final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+    private final long periodMillis;
+    private final long samplerPeriodMillis;
+    private final int maxDepth;
+    private final int maxStacks;
+
+    // written by the sampler thread, swapped by the diagnostics thread
+    private volatile ConcurrentItemCounter<String> samples = new ConcurrentItemCounter<String>();
+
+    public StackSamplerPlugin(NodeEngineImpl nodeEngine) {
+        super(nodeEngine.getLogger(StackSamplerPlugin.class));
+        this.nodeEngine = nodeEngine;
+        this.executor = ((OperationServiceImpl) nodeEngine.getOperationService()).getOperationExecutor();
+        Networking networking = getNetworking(nodeEngine);
+        this.networking = networking instanceof NioNetworking ? (NioNetworking) networking : null;
+        HazelcastProperties props = nodeEngine.getProperties();
+        this.periodMillis = props.getMillis(PERIOD_SECONDS);
+        this.samplerPeriodMillis = props.getMillis(SAMPLER_PERIOD_MILLIS);
+        this.maxDepth = props.getInteger(MAX_DEPTH);
+        this.maxStacks = props.getInteger(MAX_STACKS);
+    }
+
+    private static Networking getNetworking(NodeEngineImpl nodeEngine) {
+        Server server = nodeEngine.getNode().getServer();
+        if (!(server instanceof TcpServer)) {
+            return null;
+        }
+        return ((TcpServer) server).getNetworking();
+    }
+
+    @Override
+    public long getPeriodMillis() {
+        return periodMillis;
+    }
+
+    @Override
+    public void onStart() {
+        logger.info("Plugin:active: period-millis:" + periodMillis + " sampler-period-millis:" + samplerPeriodMillis
+                + " max-depth:" + maxDepth + " max-stacks:" + maxStacks);
+
+        new SamplerThread().start();
+    }
+
+    @Override
+    public void run(DiagnosticsLogWriter writer) {
+        ConcurrentItemCounter<String> current = samples;
+        samples = new ConcurrentItemCounter<String>();
+
+        writer.startSection("StackSamples");
+        for (String stack : current.keySet()) {
+            writer.writeEntry(stack + " " + current.get(stack));
+        }
+        writer.endSection();
+    }
+
+    /**
+     * Takes a single stack sample of all sampled threads.
+     */
+    // package-private for testing
+    void sample() {
+        OperationRunner[] partitionRunners = executor.getPartitionOperationRunners();
+        OperationRunner[] genericRunners = executor.getGenericOperationRunners();
+        NioThread[] inputThreads = networking == null ? null : networking.getInputThreads();
+        NioThread[] outputThreads = networking == null ? null : networking.getOutputThreads();
+
+        int capacity = partitionRunners.length + genericRunners.length + length(inputThreads) + length(outputThreads);
+        Sample sample = new Sample(capacity);
+        sample.addBusyRunners(partitionRunners);
+        sample.addBusyRunners(genericRunners);
+        sample.addThreads(inputThreads, NIO_INPUT_THREAD);
+        sample.addThreads(outputThreads, NIO_OUTPUT_THREAD);
+        if (sample.count == 0) {
+            return;
+        }
+
+        ThreadInfo[] threadInfos = threadMXBean.getThreadInfo(Arrays.copyOf(sample.threadIds, sample.count), maxDepth);
+        for (int i = 0; i < sample.count; i++) {
+            ThreadInfo threadInfo = threadInfos[i];
+            OperationRunner runner = sample.runners[i];
+            // the thread is gone or has moved on to another task while the stacks were taken
+            if (threadInfo == null || (runner != null && runner.currentTask() != sample.tasks[i])) {
+                continue;
+            }
+            record(sample.roots[i], sample.tasks[i], threadInfo.getStackTrace());
+        }
+    }
+
+    private void record(String root, Object task, StackTraceElement[] stackTrace) {
+        StringBuilder sb = new StringBuilder(root);
+        if (task != null) {
+            sb.append(FRAME_SEPARATOR).append(task.getClass().getName());
+        }
+        int prefixLength = sb.length();
+        for (int i = stackTrace.length - 1; i >= 0; i--) {
+            StackTraceElement frame = stackTrace[i];
+            sb.append(FRAME_SEPARATOR).append(frame.getClassName()).append('.').append(frame.getMethodName());
+        }
+
+        ConcurrentItemCounter<String> current = samples;
+        String stack = sb.toString();
+        if (current.get(stack) == 0 && current.keySet().size() >= maxStacks) {
+            sb.setLength(prefixLength);
+            stack = sb.append(FRAME_SEPARATOR).append(TRUNCATED_FRAME).toString();
+        }
+        current.inc(stack);
+    }
+
+    private static int length(Object[] array) {
+        return array == null ? 0 : array.length;
+    }
+
+    /**
+     * The threads selected to be sampled, together with what they were
+     * running right before their stacks are taken.
+     */
+    private static final class Sample {
+        private final long[] threadIds;
+        private final String[] roots;
+        private final OperationRunner[] runners;
+        private final Object[] tasks;
+        private int count;
+
+        private Sample(int capacity) {
+            this.threadIds = new long[capacity];
+            this.roots = new String[capacity];
+            this.runners = new OperationRunner[capacity];
+            this.tasks = new Object[capacity];
+        }
+
+        private void addBusyRunners(OperationRunner[] runners) {
+            for (OperationRunner runner : runners) {
+                // first the task, then the thread; see OperationRunner#currentThread
+                Object task = runner.currentTask();
+                if (task == null) {
+                    continue;
+                }
+                Thread thread = runner.currentThread();
+                if (thread == null) {
+                    continue;
+                }
+                add(thread.getId(), thread.getClass().getSimpleName(), runner, task);
+            }
+        }
+
+        private void addThreads(NioThread[] threads, String root) {
+            if (threads == null) {
+                return;
+            }
+            for (NioThread thread : threads) {
+                add(thread.getId(), root, null, null);
+            }
+        }
+
+        private void add(long threadId, String root, OperationRunner runner, Object task) {
+            threadIds[count] = threadId;
+            roots[count] = root;
+            runners[count] = runner;
+            tasks[count] = task;
+            count++;
+        }
+    }
+
+    private class SamplerThread extends Thread {
+
+        SamplerThread() {
+            super(createThreadName(nodeEngine.getHazelcastInstance().getName(), "StackSampler"));
+            setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            long periodNanos = MILLISECONDS.toNanos(samplerPeriodMillis);
+            while (nodeEngine.isRunning()) {
+                try {
+                    sample();
+                } catch (Exception e) {
+                    logger.finest("Failed to take stack samples", e);
+                }
+                LockSupport.parkNanos(periodNanos);
+            }
+        }
+    }
+}
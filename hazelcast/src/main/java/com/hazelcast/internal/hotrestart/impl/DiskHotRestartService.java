@@ -0,0 +1,347 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.hotrestart.impl;
+
+import com.hazelcast.config.HotRestartConfig;
+import com.hazelcast.config.HotRestartPersistenceConfig;
+import com.hazelcast.core.HazelcastException;
+import com.hazelcast.instance.impl.Node;
+import com.hazelcast.internal.hotrestart.NoopInternalHotRestartService;
+import com.hazelcast.internal.partition.IPartitionService;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.impl.HeapData;
+import com.hazelcast.internal.util.RuntimeAvailableProcessors;
+import com.hazelcast.internal.util.executor.ExecutorType;
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.map.impl.MapService;
+import com.hazelcast.map.impl.MapServiceContext;
+import com.hazelcast.map.impl.operation.MapOperationProvider;
+import com.hazelcast.spi.impl.InternalCompletableFuture;
+import com.hazelcast.spi.impl.NodeEngineImpl;
+import com.hazelcast.spi.impl.executionservice.ExecutionService;
+import com.hazelcast.spi.impl.operationservice.OperationService;
+import com.hazelcast.spi.properties.ClusterProperty;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeoutException;
+
+import static com.hazelcast.internal.nio.IOUtil.closeResource;
+import static java.lang.String.format;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Open source {@link com.hazelcast.internal.hotrestart.InternalHotRestartService}
+ * which persists the entries of IMaps with {@link HotRestartConfig} enabled into
+ * one {@link PartitionLog} per partition under the configured base directory and
+ * restores them when the member is started again.
+ * <p>
+ * Appended records are flushed by a background task every
+ * {@value #FLUSH_INTERVAL_MILLIS} milliseconds. Segments of maps configured with
+ * {@link HotRestartConfig#isFsync()} are fsynced by the same task, so a single
+ * fsync covers all writes to the partition made during the interval.
+ * <p>
+ * Recovery runs after the member has joined the cluster. The logs left by the
+ * previous run are read in parallel on all available processors and the live
+ * entries are put back through
+ * {@link MapOperationProvider#createPutFromLoadAllOperation}, the same path
+ * {@code IMap.loadAll} takes, to the current owners of their partitions.
+ * <p>
+ * The cluster-wide restart protocol of the enterprise implementation (persistent
+ * member identity, partition table validation, force and partial start) is not
+ * provided, {@link #isEnabled()} keeps returning {@code false} for the cluster
+ * services relying on it. Instead, a member joining a cluster which has been
+ * running for longer than the validation timeout discards its local data rather
+ * than overwriting newer values with it.
+ * <p>
+ * The service is registered under {@link #SERVICE_NAME} by the node extension,
+ * record stores look it up to append their mutations to the partition logs.
+ */
+public class DiskHotRestartService extends NoopInternalHotRestartService {
+
+    /**
+     * Name of the service.
+     */
+    public static final String SERVICE_NAME = "hz:impl:diskHotRestartService";
+
+    static final String MEMBER_DIR_PREFIX = "member-";
+    static final String PARTITION_DIR_PREFIX = "partition-";
+    static final long FLUSH_INTERVAL_MILLIS = 100;
+
+    private static final String LOCK_FILE_NAME = "lock";
+    private static final String RECOVERY_EXECUTOR = "hz:hot-restart-recovery";
+    private static final String FLUSH_EXECUTOR = "hz:hot-restart-flush";
+    private static final String COMPACTION_EXECUTOR = "hz:hot-restart-compaction";
+    private static final long SEGMENT_SIZE = 64 * 1024 * 1024;
+    private static final long COMPACTION_INTERVAL_MILLIS = 1000;
+    private static final int REPLAY_BATCH_SIZE = 1000;
+    private static final int MAX_REPLAY_BATCHES_IN_FLIGHT = 8;
+
+    private final Node node;
+    private final ILogger logger;
+    private final HotRestartPersistenceConfig config;
+
+    private File memberDir;
+    private FileChannel lockChannel;
+    private FileLock lock;
+    private PartitionLog[] partitionLogs;
+    private ScheduledFuture<?> flushTask;
+    private ScheduledFuture<?> compactionTask;
+    private volatile boolean shutdown;
+
+    public DiskHotRestartService(Node node, HotRestartPersistenceConfig config) {
+        this.node = node;
+        this.logger = node.getLogger(DiskHotRestartService.class);
+        this.config = config;
+    }
+
+    /**
+     * Locks a member directory under the base directory and opens the
+     * partition logs in it. Called before the node engine is created, so
+     * that record stores created afterwards can append to the logs.
+     */
+    public void start() {
+        int partitionCount = node.getProperties().getInteger(ClusterProperty.PARTITION_COUNT);
+        try {
+            lockMemberDir(config.getBaseDir().getAbsoluteFile());
+            partitionLogs = new PartitionLog[partitionCount];
+            for (int partitionId = 0; partitionId < partitionCount; partitionId++) {
+                partitionLogs[partitionId] = new PartitionLog(new File(memberDir, PARTITION_DIR_PREFIX + partitionId),
+                        SEGMENT_SIZE);
+            }
+        } catch (IOException e) {
+            throw new HazelcastException("Could not open hot restart directory " + config.getBaseDir(), e);
+        }
+        logger.info("Using hot restart directory " + memberDir);
+    }
+
+    /**
+     * Restores the data left by the previous run of the member and starts the
+     * background flush and compaction tasks. Called after the member has
+     * joined the cluster.
+     */
+    public void recover() {
+        ExecutionService executionService = node.getNodeEngine().getExecutionService();
+        flushTask = executionService.scheduleWithRepetition(FLUSH_EXECUTOR, this::flush,
+                FLUSH_INTERVAL_MILLIS, FLUSH_INTERVAL_MILLIS, MILLISECONDS);
+
+        List<PartitionLog> logs = new ArrayList<>();
+        for (PartitionLog log : partitionLogs) {
+            if (log.hasRecoveryData()) {
+                logs.add(log);
+            }
+        }
+        if (logs.isEmpty() || replay(logs)) {
+            for (PartitionLog log : logs) {
+                log.discardRecoveryData();
+            }
+        } else {
+            logger.warning(format("The logs of %d partitions keep the data of the previous run and are not compacted "
+                    + "until the member is restarted", logs.size()));
+        }
+        // logs keeping recovery data skip compaction themselves, see PartitionLog#compact()
+        compactionTask = executionService.scheduleWithRepetition(COMPACTION_EXECUTOR, this::compact,
+                COMPACTION_INTERVAL_MILLIS, COMPACTION_INTERVAL_MILLIS, MILLISECONDS);
+    }
+
+    /**
+     * Flushes and closes the partition logs. Mutations made after this call,
+     * including the clearing of the record stores while the node shuts down,
+     * are not persisted.
+     */
+    public void shutdown() {
+        if (shutdown || partitionLogs == null) {
+            return;
+        }
+        shutdown = true;
+        cancel(flushTask);
+        cancel(compactionTask);
+        for (PartitionLog log : partitionLogs) {
+            try {
+                log.close();
+            } catch (IOException e) {
+                logger.warning("Could not close hot restart log", e);
+            }
+        }
+        try {
+            lock.release();
+        } catch (IOException e) {
+            logger.finest(e);
+        }
+        closeResource(lockChannel);
+    }
+
+    public PartitionLog getPartitionLog(int partitionId) {
+        return partitionLogs[partitionId];
+    }
+
+    private boolean replay(List<PartitionLog> logs) {
+        long uptime = node.getClusterService().getClusterClock().getClusterUpTime();
+        if (!node.isMaster() && uptime > SECONDS.toMillis(config.getValidationTimeoutSeconds())) {
+            logger.warning(format("Discarding hot restart data in %s, the member joined a cluster which has been "
+                    + "running for %d ms and may hold newer values", memberDir, uptime));
+            return true;
+        }
+
+        long start = System.nanoTime();
+        long deadline = start + SECONDS.toNanos(config.getDataLoadTimeoutSeconds());
+        ExecutionService executionService = node.getNodeEngine().getExecutionService();
+        ExecutorService executor = executionService.register(RECOVERY_EXECUTOR, RuntimeAvailableProcessors.get(),
+                Integer.MAX_VALUE, ExecutorType.CACHED);
+        List<Future<Long>> futures = new ArrayList<>(logs.size());
+        try {
+            for (PartitionLog log : logs) {
+                futures.add(executor.submit(() -> replay(log)));
+            }
+            long entries = 0;
+            for (Future<Long> future : futures) {
+                entries += future.get(Math.max(0, deadline - System.nanoTime()), NANOSECONDS);
+            }
+            logger.info(format("Restored %d entries from %s in %d ms", entries, memberDir,
+                    NANOSECONDS.toMillis(System.nanoTime() - start)));
+            return true;
+        } catch (TimeoutException e) {
+            logger.severe("Hot restart data could not be restored in " + config.getDataLoadTimeoutSeconds()
+                    + " seconds, it is kept for the next start");
+        } catch (Exception e) {
+            logger.severe("Hot restart data could not be restored, it is kept for the next start", e);
+        } finally {
+            for (Future<Long> future : futures) {
+                future.cancel(true);
+            }
+            executionService.shutdownExecutor(RECOVERY_EXECUTOR);
+        }
+        return false;
+    }
+
+    private long replay(PartitionLog log) throws IOException {
+        NodeEngineImpl nodeEngine = node.getNodeEngine();
+        MapService mapService = nodeEngine.getService(MapService.SERVICE_NAME);
+        MapServiceContext mapServiceContext = mapService.getMapServiceContext();
+        IPartitionService partitionService = nodeEngine.getPartitionService();
+        OperationService operationService = nodeEngine.getOperationService();
+
+        long[] entries = {0};
+        Map<String, Boolean> enabledMaps = new HashMap<>();
+        Map<String, Map<Integer, List<Data>>> batches = new HashMap<>();
+        Deque<InternalCompletableFuture<Object>> futures = new ArrayDeque<>();
+        log.readRecoveryData((name, key, value) -> {
+            if (!enabledMaps.computeIfAbsent(name,
+                    n -> node.getConfig().findMapConfig(n).getHotRestartConfig().isEnabled())) {
+                return;
+            }
+            Data keyData = new HeapData(key);
+            int partitionId = partitionService.getPartitionId(keyData);
+            List<Data> batch = batches.computeIfAbsent(name, n -> new HashMap<>())
+                                      .computeIfAbsent(partitionId, id -> new ArrayList<>(2 * REPLAY_BATCH_SIZE));
+            batch.add(keyData);
+            batch.add(new HeapData(value));
+            entries[0]++;
+            if (batch.size() == 2 * REPLAY_BATCH_SIZE) {
+                batches.get(name).remove(partitionId);
+                // the values are streamed from the disk, only a few batches of them are held at once
+                if (futures.size() == MAX_REPLAY_BATCHES_IN_FLIGHT) {
+                    futures.poll().joinInternal();
+                }
+                futures.add(operationService.invokeOnPartition(MapService.SERVICE_NAME,
+                        mapServiceContext.getMapOperationProvider(name).createPutFromLoadAllOperation(name, batch, false),
+                        partitionId));
+            }
+        });
+        for (Map.Entry<String, Map<Integer, List<Data>>> map : batches.entrySet()) {
+            MapOperationProvider operationProvider = mapServiceContext.getMapOperationProvider(map.getKey());
+            for (Map.Entry<Integer, List<Data>> batch : map.getValue().entrySet()) {
+                futures.add(operationService.invokeOnPartition(MapService.SERVICE_NAME,
+                        operationProvider.createPutFromLoadAllOperation(map.getKey(), batch.getValue(), false),
+                        batch.getKey()));
+            }
+        }
+        for (InternalCompletableFuture<Object> future : futures) {
+            future.joinInternal();
+        }
+        return entries[0];
+    }
+
+    private void flush() {
+        for (PartitionLog log : partitionLogs) {
+            try {
+                log.flush();
+            } catch (Exception e) {
+                logger.warning("Could not flush hot restart log", e);
+            }
+        }
+    }
+
+    private void compact() {
+        for (PartitionLog log : partitionLogs) {
+            if (shutdown) {
+                return;
+            }
+            try {
+                log.compact();
+            } catch (Exception e) {
+                logger.warning("Could not compact hot restart log", e);
+            }
+        }
+    }
+
+    private void lockMemberDir(File baseDir) throws IOException {
+        for (int i = 0; ; i++) {
+            File dir = new File(baseDir, MEMBER_DIR_PREFIX + i);
+            if (!dir.isDirectory() && !dir.mkdirs()) {
+                throw new IOException("Could not create directory " + dir);
+            }
+            FileChannel channel = FileChannel.open(new File(dir, LOCK_FILE_NAME).toPath(), CREATE, WRITE);
+            FileLock fileLock = null;
+            try {
+                fileLock = channel.tryLock();
+            } catch (OverlappingFileLockException e) {
+                // locked by another member in this JVM
+                logger.finest(e);
+            }
+            if (fileLock != null) {
+                memberDir = dir;
+                lockChannel = channel;
+                lock = fileLock;
+                return;
+            }
+            closeResource(channel);
+        }
+    }
+
+    private static void cancel(ScheduledFuture<?> task) {
+        if (task != null) {
+            task.cancel(false);
+        }
+    }
+}
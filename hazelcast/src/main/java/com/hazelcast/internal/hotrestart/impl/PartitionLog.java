@@ -0,0 +1,580 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.hotrestart.impl;
+
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.logging.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+
+import static com.hazelcast.internal.util.EmptyStatement.ignore;
+import static com.hazelcast.internal.util.ExceptionUtil.rethrow;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Append-only log of the IMap mutations of a single partition.
+ * <p>
+ * Records are appended to the active segment file through an in-memory
+ * buffer which is drained by {@link #flush()}. The active segment is rolled
+ * once it grows over the segment size, and the closed segments are merged by
+ * {@link #compact()} into a single segment holding only the live entries.
+ * <p>
+ * Segments found when the log is opened were written by the previous run of
+ * the member. They are only read by {@link #readRecoveryData()} and deleted
+ * by {@link #discardRecoveryData()}. Compaction is not attempted before
+ * that, since dropping removals of the current run could otherwise
+ * resurrect entries of the previous one.
+ * <p>
+ * A record is laid out as {@code int bodyLength, int crc32(body), body},
+ * the body being {@code byte type, short nameLength, name, int keyLength,
+ * key} followed by {@code int valueLength, value} for puts. Reading stops at
+ * the first record of a segment which is truncated or fails its checksum.
+ * <p>
+ * Recovery and compaction read the segments twice: the first pass only keeps
+ * the position of the latest put of every key, the second one streams the
+ * live records found at these positions. Only the keys are held in memory,
+ * never the values of a whole partition.
+ */
+public final class PartitionLog implements Closeable {
+
+    static final byte PUT = 1;
+    static final byte REMOVE = 2;
+    static final byte CLEAR = 3;
+
+    static final String SEGMENT_SUFFIX = ".log";
+    static final String COMPACTED_SUFFIX = ".compacted";
+    static final String TMP_SUFFIX = ".tmp";
+
+    private static final ILogger LOGGER = Logger.getLogger(PartitionLog.class);
+    private static final byte[] EMPTY = new byte[0];
+    private static final int HEADER_LENGTH = 8;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int UNSIGNED_SHORT_MASK = 0xFFFF;
+    // a record position is the index of its segment in the upper bits and its offset in the segment in the lower ones
+    private static final int SEGMENT_INDEX_SHIFT = 40;
+    private static final long OFFSET_MASK = (1L << SEGMENT_INDEX_SHIFT) - 1;
+
+    private final File dir;
+    private final long segmentSize;
+    private final CRC32 crc = new CRC32();
+    private final List<File> recoverySegments;
+    private final List<File> closedSegments = new ArrayList<>();
+
+    private ByteBuffer buffer;
+    private FileChannel channel;
+    private File activeSegment;
+    private long activeSize;
+    private long nextSequence;
+    private long closedBytes;
+    private long lastCompactedBytes;
+    private boolean fsyncRequested;
+    private boolean recoveryDiscarded;
+    private boolean closed;
+
+    public PartitionLog(File dir, long segmentSize) throws IOException {
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("Could not create directory " + dir.getAbsolutePath());
+        }
+        this.dir = dir;
+        this.segmentSize = segmentSize;
+        this.recoverySegments = openSegments();
+        this.nextSequence = recoverySegments.isEmpty() ? 0 : sequenceOf(recoverySegments.get(recoverySegments.size() - 1)) + 1;
+        this.recoveryDiscarded = recoverySegments.isEmpty();
+    }
+
+    public void put(byte[] name, byte[] key, byte[] value, boolean fsync) {
+        append(PUT, name, key, value, fsync);
+    }
+
+    public void remove(byte[] name, byte[] key, boolean fsync) {
+        append(REMOVE, name, key, null, fsync);
+    }
+
+    public void clear(byte[] name, boolean fsync) {
+        append(CLEAR, name, EMPTY, null, fsync);
+    }
+
+    /**
+     * Writes the buffered records to the active segment and fsyncs it if
+     * any of them was appended with {@code fsync} requested.
+     */
+    public void flush() {
+        FileChannel toForce;
+        synchronized (this) {
+            if (closed || channel == null) {
+                return;
+            }
+            try {
+                drainBuffer();
+            } catch (IOException e) {
+                throw rethrow(e);
+            }
+            if (!fsyncRequested) {
+                return;
+            }
+            fsyncRequested = false;
+            toForce = channel;
+        }
+        try {
+            // forced outside of the lock so appends are not blocked by the disk
+            toForce.force(false);
+        } catch (ClosedChannelException e) {
+            // the segment has been rolled or the log closed, both force the segment
+            ignore(e);
+        } catch (IOException e) {
+            throw rethrow(e);
+        }
+    }
+
+    /**
+     * @return {@code true} if segments written by the previous run of the
+     * member are waiting to be recovered
+     */
+    public synchronized boolean hasRecoveryData() {
+        return !recoveryDiscarded;
+    }
+
+    /**
+     * Streams the live entries of the segments written by the previous run
+     * of the member to the given consumer.
+     */
+    void readRecoveryData(EntryConsumer consumer) throws IOException {
+        forEachLive(recoverySegments, consumer);
+    }
+
+    /**
+     * Deletes the segments written by the previous run of the member and
+     * allows compaction of the segments written since.
+     */
+    public synchronized void discardRecoveryData() {
+        for (File segment : recoverySegments) {
+            deleteFile(segment);
+        }
+        recoverySegments.clear();
+        recoveryDiscarded = true;
+    }
+
+    /**
+     * Merges the closed segments into a single segment holding only the live
+     * entries. Compaction runs once the closed segments grow to at least the
+     * segment size and twice the output of the previous compaction, which
+     * keeps the number of times an entry is rewritten proportional to the
+     * garbage produced next to it.
+     * <p>
+     * Must not be called concurrently with itself.
+     *
+     * @return {@code true} if the segments were compacted
+     */
+    public boolean compact() throws IOException {
+        List<File> segments;
+        synchronized (this) {
+            if (closed || !recoveryDiscarded || closedBytes < Math.max(segmentSize, 2 * lastCompactedBytes)) {
+                return false;
+            }
+            segments = new ArrayList<>(closedSegments);
+        }
+
+        long segmentBytes = 0;
+        for (File segment : segments) {
+            segmentBytes += segment.length();
+        }
+
+        // the output is made visible under the sequence of the last merged segment by
+        // an atomic rename, openSegments() completes the swap after a crash
+        File last = segments.get(segments.size() - 1);
+        File tmp = new File(dir, last.getName() + COMPACTED_SUFFIX + TMP_SUFFIX);
+        File compacted = new File(dir, last.getName() + COMPACTED_SUFFIX);
+        long written = writeLive(tmp, segments);
+        Files.move(tmp.toPath(), compacted.toPath(), ATOMIC_MOVE);
+
+        synchronized (this) {
+            for (File segment : segments) {
+                deleteFile(segment);
+            }
+            Files.move(compacted.toPath(), last.toPath(), ATOMIC_MOVE);
+            closedSegments.subList(0, segments.size()).clear();
+            closedSegments.add(0, last);
+            closedBytes += written - segmentBytes;
+            lastCompactedBytes = written;
+        }
+        return true;
+    }
+
+    /**
+     * Flushes and fsyncs the buffered records and closes the log. Records
+     * appended afterwards are ignored.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (channel != null) {
+            try {
+                drainBuffer();
+                channel.force(false);
+            } finally {
+                channel.close();
+            }
+        }
+    }
+
+    private synchronized void append(byte type, byte[] name, byte[] key, byte[] value, boolean fsync) {
+        if (closed) {
+            return;
+        }
+        int length = HEADER_LENGTH + bodyLength(name, key, value);
+        try {
+            if (channel == null) {
+                openActiveSegment();
+            }
+            if (buffer.remaining() < length) {
+                drainBuffer();
+            }
+            if (length > buffer.capacity()) {
+                ByteBuffer large = ByteBuffer.allocate(length);
+                encode(large, crc, type, name, key, value);
+                large.flip();
+                writeFully(channel, large);
+            } else {
+                encode(buffer, crc, type, name, key, value);
+            }
+            activeSize += length;
+            fsyncRequested |= fsync;
+            if (activeSize >= segmentSize) {
+                rollSegment();
+            }
+        } catch (IOException e) {
+            throw rethrow(e);
+        }
+    }
+
+    private void openActiveSegment() throws IOException {
+        if (buffer == null) {
+            buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        }
+        activeSegment = segmentFile(nextSequence++);
+        channel = FileChannel.open(activeSegment.toPath(), CREATE, WRITE, TRUNCATE_EXISTING);
+        activeSize = 0;
+    }
+
+    private void rollSegment() throws IOException {
+        drainBuffer();
+        try {
+            channel.force(false);
+        } finally {
+            channel.close();
+        }
+        channel = null;
+        fsyncRequested = false;
+        closedSegments.add(activeSegment);
+        closedBytes += activeSize;
+    }
+
+    private void drainBuffer() throws IOException {
+        if (buffer.position() == 0) {
+            return;
+        }
+        buffer.flip();
+        writeFully(channel, buffer);
+        buffer.clear();
+    }
+
+    private long writeLive(File file, List<File> segments) throws IOException {
+        long[] written = {0};
+        CRC32 checksum = new CRC32();
+        ByteBuffer[] out = {ByteBuffer.allocate(BUFFER_SIZE)};
+        try (FileChannel fileChannel = FileChannel.open(file.toPath(), CREATE, WRITE, TRUNCATE_EXISTING)) {
+            forEachLive(segments, (name, key, value) -> {
+                byte[] nameBytes = name.getBytes(UTF_8);
+                int length = HEADER_LENGTH + bodyLength(nameBytes, key, value);
+                if (out[0].remaining() < length) {
+                    out[0].flip();
+                    writeFully(fileChannel, out[0]);
+                    out[0] = length > out[0].capacity() ? ByteBuffer.allocate(length) : (ByteBuffer) out[0].clear();
+                }
+                encode(out[0], checksum, PUT, nameBytes, key, value);
+                written[0] += length;
+            });
+            out[0].flip();
+            writeFully(fileChannel, out[0]);
+            fileChannel.force(false);
+        }
+        return written[0];
+    }
+
+    private List<File> openSegments() throws IOException {
+        File[] files = dir.listFiles();
+        if (files == null) {
+            throw new IOException("Could not list directory " + dir.getAbsolutePath());
+        }
+        List<File> segments = new ArrayList<>();
+        File compacted = null;
+        for (File file : files) {
+            String name = file.getName();
+            if (name.endsWith(TMP_SUFFIX)) {
+                deleteFile(file);
+            } else if (name.endsWith(COMPACTED_SUFFIX)) {
+                compacted = file;
+            } else if (name.endsWith(SEGMENT_SUFFIX)) {
+                segments.add(file);
+            }
+        }
+        segments.sort((s1, s2) -> Long.compare(sequenceOf(s1), sequenceOf(s2)));
+
+        if (compacted != null) {
+            // a compaction was interrupted after its output had been completely written,
+            // the output replaces all segments up to and including the last merged one
+            File last = new File(dir, compacted.getName().substring(0, compacted.getName().length() - COMPACTED_SUFFIX.length()));
+            long lastSequence = sequenceOf(last);
+            while (!segments.isEmpty() && sequenceOf(segments.get(0)) <= lastSequence) {
+                deleteFile(segments.remove(0));
+            }
+            Files.move(compacted.toPath(), last.toPath(), ATOMIC_MOVE);
+            segments.add(0, last);
+        }
+        return segments;
+    }
+
+    private File segmentFile(long sequence) {
+        return new File(dir, sequence + SEGMENT_SUFFIX);
+    }
+
+    private static long sequenceOf(File segment) {
+        String name = segment.getName();
+        return Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private static int bodyLength(byte[] name, byte[] key, byte[] value) {
+        return Byte.BYTES + Short.BYTES + name.length + Integer.BYTES + key.length
+                + (value != null ? Integer.BYTES + value.length : 0);
+    }
+
+    private static void encode(ByteBuffer out, CRC32 checksum, byte type, byte[] name, byte[] key, byte[] value) {
+        int start = out.position();
+        int bodyLength = bodyLength(name, key, value);
+        out.putInt(bodyLength)
+           .putInt(0)
+           .put(type)
+           .putShort((short) name.length)
+           .put(name)
+           .putInt(key.length)
+           .put(key);
+        if (value != null) {
+            out.putInt(value.length).put(value);
+        }
+        checksum.reset();
+        checksum.update(out.array(), out.arrayOffset() + start + HEADER_LENGTH, bodyLength);
+        out.putInt(start + Integer.BYTES, (int) checksum.getValue());
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer src) throws IOException {
+        while (src.hasRemaining()) {
+            channel.write(src);
+        }
+    }
+
+    /**
+     * Passes the live entries of the given segments, oldest first, to the
+     * consumer. The segments are read twice, the first pass finds the
+     * positions of the live records, the second one reads them.
+     */
+    static void forEachLive(List<File> segments, EntryConsumer consumer) throws IOException {
+        Map<String, Map<LogKey, Long>> positions = new HashMap<>();
+        for (int i = 0; i < segments.size(); i++) {
+            long segmentPosition = (long) i << SEGMENT_INDEX_SHIFT;
+            readSegment(segments.get(i), (type, name, key, value, offset) ->
+                    index(positions, type, name, key, segmentPosition | offset));
+        }
+        long[] live = positions.values().stream()
+                               .flatMap(entries -> entries.values().stream())
+                               .mapToLong(Long::longValue)
+                               .sorted()
+                               .toArray();
+        positions.clear();
+
+        int next = 0;
+        for (int i = 0; i < segments.size() && next < live.length; i++) {
+            long segmentPosition = (long) i << SEGMENT_INDEX_SHIFT;
+            int[] cursor = {next};
+            readSegment(segments.get(i), (type, name, key, value, offset) -> {
+                if (cursor[0] < live.length && live[cursor[0]] == (segmentPosition | offset)) {
+                    cursor[0]++;
+                    consumer.accept(name, key, value);
+                }
+            });
+            next = cursor[0];
+            while (next < live.length && (live[next] & ~OFFSET_MASK) == segmentPosition) {
+                // the segment was truncated since the first pass, the entry is lost
+                next++;
+            }
+        }
+    }
+
+    /**
+     * Passes the records of a segment to the given handler, stopping at the
+     * first truncated or corrupted record.
+     */
+    @SuppressWarnings("checkstyle:cyclomaticcomplexity")
+    static void readSegment(File segment, RecordHandler handler) throws IOException {
+        CRC32 checksum = new CRC32();
+        long length = segment.length();
+        long remaining = length;
+        String lastName = null;
+        byte[] lastNameBytes = null;
+        try (BufferedInputStream raw = new BufferedInputStream(new FileInputStream(segment), BUFFER_SIZE)) {
+            DataInputStream header = new DataInputStream(raw);
+            DataInputStream body = new DataInputStream(new CheckedInputStream(raw, checksum));
+            while (remaining > 0) {
+                if (remaining < HEADER_LENGTH) {
+                    warnTruncated(segment, remaining);
+                    return;
+                }
+                long offset = length - remaining;
+                int bodyLength = header.readInt();
+                int expectedChecksum = header.readInt();
+                if (bodyLength <= 0 || bodyLength > remaining - HEADER_LENGTH) {
+                    warnTruncated(segment, remaining);
+                    return;
+                }
+                checksum.reset();
+                byte type = body.readByte();
+                byte[] name = readBytes(body, body.readShort() & UNSIGNED_SHORT_MASK, bodyLength);
+                byte[] key = readBytes(body, body.readInt(), bodyLength);
+                byte[] value = type == PUT ? readBytes(body, body.readInt(), bodyLength) : null;
+                if (name == null || key == null || type == PUT && value == null
+                        || (int) checksum.getValue() != expectedChecksum) {
+                    warnTruncated(segment, remaining);
+                    return;
+                }
+                remaining -= HEADER_LENGTH + bodyLength;
+
+                if (!Arrays.equals(name, lastNameBytes)) {
+                    lastNameBytes = name;
+                    lastName = new String(name, UTF_8);
+                }
+                handler.handle(type, lastName, key, value, offset);
+            }
+        } catch (EOFException e) {
+            warnTruncated(segment, remaining);
+        }
+    }
+
+    private static byte[] readBytes(DataInputStream in, int length, int bodyLength) throws IOException {
+        if (length < 0 || length > bodyLength) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return bytes;
+    }
+
+    private static void index(Map<String, Map<LogKey, Long>> positions, byte type, String name, byte[] key,
+                              long position) {
+        switch (type) {
+            case PUT:
+                positions.computeIfAbsent(name, n -> new HashMap<>()).put(new LogKey(key), position);
+                break;
+            case REMOVE:
+                Map<LogKey, Long> entries = positions.get(name);
+                if (entries != null) {
+                    entries.remove(new LogKey(key));
+                }
+                break;
+            case CLEAR:
+                positions.remove(name);
+                break;
+            default:
+                throw new IllegalStateException("Unknown record type " + type);
+        }
+    }
+
+    private static void warnTruncated(File segment, long remaining) {
+        LOGGER.warning("Ignoring the last " + remaining + " bytes of " + segment.getAbsolutePath()
+                + ", the record there is incomplete or corrupted");
+    }
+
+    private static void deleteFile(File file) {
+        if (!file.delete() && file.exists()) {
+            LOGGER.warning("Could not delete " + file.getAbsolutePath());
+        }
+    }
+
+    /**
+     * Consumes the live entries of a log.
+     */
+    @FunctionalInterface
+    interface EntryConsumer {
+
+        void accept(String name, byte[] key, byte[] value) throws IOException;
+    }
+
+    /**
+     * Handles the records of a segment.
+     */
+    @FunctionalInterface
+    interface RecordHandler {
+
+        void handle(byte type, String name, byte[] key, byte[] value, long offset) throws IOException;
+    }
+
+    /**
+     * Serialized key of a logged entry.
+     */
+    static final class LogKey {
+
+        final byte[] bytes;
+        private final int hash;
+
+        LogKey(byte[] bytes) {
+            this.bytes = bytes;
+            this.hash = Arrays.hashCode(bytes);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof LogKey && Arrays.equals(bytes, ((LogKey) o).bytes);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -167,6 +167,9 @@ public final class MetricDescriptorConstants {
     public static final String FLAKE_ID_METRIC_CREATION_TIME = "creationTime";
     public static final String FLAKE_ID_METRIC_BATCH_COUNT = "batchCount";
     public static final String FLAKE_ID_METRIC_ID_COUNT = "idCount";
+    public static final String FLAKE_ID_METRIC_PREFETCH_COUNT = "prefetchCount";
+    public static final String FLAKE_ID_METRIC_BLOCKING_FETCH_COUNT = "blockingFetchCount";
+    public static final String FLAKE_ID_METRIC_TOTAL_BLOCKING_FETCH_TIME = "totalBlockingFetchTime";
     // ===[/FLAKE ID GENERATOR]=========================================
 
     // ===[GC]==========================================================
@@ -196,6 +199,14 @@ public final class MetricDescriptorConstants {
     public static final String HOTRESTART_METRIC_GC_LIVE_TOMBSTONES = "liveTombstones";
     // ===[/HOT-RESTART]================================================
 
+    // ===[LATENCY HISTOGRAM]===========================================
+    public static final String LATENCY_HISTOGRAM_METRIC_COUNT = "count";
+    public static final String LATENCY_HISTOGRAM_METRIC_P50 = "p50";
+    public static final String LATENCY_HISTOGRAM_METRIC_P99 = "p99";
+    public static final String LATENCY_HISTOGRAM_METRIC_P999 = "p999";
+    public static final String LATENCY_HISTOGRAM_METRIC_MAX = "max";
+    // ===[/LATENCY HISTOGRAM]==========================================
+
     // ===[LIST]=======================================================
     public static final String LIST_PREFIX = "list";
     public static final String LIST_METRIC_LAST_ACCESS_TIME = "lastAccessTime";
@@ -207,9 +218,11 @@ public final class MetricDescriptorConstants {
     public static final String MAP_PREFIX = "map";
     public static final String MAP_PREFIX_INDEX = "map.index";
     public static final String MAP_PREFIX_NEARCACHE = "map.nearcache";
+    public static final String MAP_PREFIX_LATENCY = "map.latency";
     public static final String MAP_PREFIX_ENTRY_PROCESSOR_OFFLOADABLE_EXECUTOR = "map.entry.processor.offloadable.executor";
     public static final String MAP_DISCRIMINATOR_NAME = "name";
     public static final String MAP_TAG_INDEX = "index";
+    public static final String MAP_TAG_OPERATION = "operation";
     public static final String MAP_METRIC_LAST_ACCESS_TIME = "lastAccessTime";
     public static final String MAP_METRIC_LAST_UPDATE_TIME = "lastUpdateTime";
     public static final String MAP_METRIC_HITS = "hits";
@@ -239,6 +252,12 @@ public final class MetricDescriptorConstants {
     public static final String MAP_METRIC_TOTAL_MAX_SET_LATENCY = "totalMaxSetLatency";
     public static final String MAP_METRIC_TOTAL_MAX_GET_LATENCY = "totalMaxGetLatency";
     public static final String MAP_METRIC_TOTAL_MAX_REMOVE_LATENCY = "totalMaxRemoveLatency";
+    public static final String MAP_METRIC_OFFLOADED_ENTRY_PROCESSOR_BATCH_COUNT = "offloadedEntryProcessorBatchCount";
+    public static final String MAP_METRIC_OFFLOADED_ENTRY_PROCESSOR_ENTRY_COUNT = "offloadedEntryProcessorEntryCount";
+    public static final String MAP_METRIC_OFFLOADED_ENTRY_PROCESSOR_BATCH_LATENCY = "totalOffloadedEntryProcessorBatchLatency";
+    public static final String MAP_METRIC_EXPIRATION_COUNT = "expirationCount";
+    public static final String MAP_METRIC_TOTAL_EXPIRATION_LAG = "totalExpirationLag";
+    public static final String MAP_METRIC_MAX_EXPIRATION_LAG = "maxExpirationLag";
     public static final String MAP_METRIC_INDEX_CREATION_TIME = "creationTime";
     public static final String MAP_METRIC_INDEX_QUERY_COUNT = "queryCount";
     public static final String MAP_METRIC_INDEX_HIT_COUNT = "hitCount";
@@ -309,6 +328,9 @@ public final class MetricDescriptorConstants {
     public static final String NEARCACHE_METRIC_LAST_PERSISTENCE_DURATION = "lastPersistenceDuration";
     public static final String NEARCACHE_METRIC_LAST_PERSISTENCE_WRITTEN_BYTES = "lastPersistenceWrittenBytes";
     public static final String NEARCACHE_METRIC_LAST_PERSISTENCE_KEY_COUNT = "lastPersistenceKeyCount";
+    public static final String NEARCACHE_METRIC_PENDING_INVALIDATIONS = "pendingInvalidations";
+    public static final String NEARCACHE_METRIC_LAST_INVALIDATION_LAG = "lastInvalidationLag";
+    public static final String NEARCACHE_METRIC_MAX_INVALIDATION_LAG = "maxInvalidationLag";
     // ===[/NEAR CACHE]=================================================
 
     // ===[NETWORKING]==================================================
@@ -431,6 +453,10 @@ public final class MetricDescriptorConstants {
     public static final String PARTITIONS_METRIC_PARTITION_SERVICE_MIGRATION_QUEUE_SIZE = "migrationQueueSize";
     public static final String PARTITIONS_METRIC_PARTITION_REPLICA_MANAGER_REPLICA_SYNC_SEMAPHORE = "replicaSyncSemaphore";
     public static final String PARTITIONS_METRIC_PARTITION_REPLICA_MANAGER_SYNC_REQUEST_COUNTER = "replicaSyncRequestsCounter";
+    public static final String PARTITIONS_METRIC_PARTITION_REPLICA_MANAGER_DELTA_SYNC_COUNTER = "deltaReplicaSyncCounter";
+    public static final String PARTITIONS_METRIC_PARTITION_REPLICA_MANAGER_DELTA_SYNC_SAVED_BYTES = "deltaReplicaSyncSavedBytes";
+    public static final String PARTITIONS_METRIC_PARTITION_REPLICA_MANAGER_DELTA_SYNC_SKIPPED_COUNTER =
+            "deltaReplicaSyncSkippedCounter";
     public static final String PARTITIONS_METRIC_PARTITION_REPLICA_STATE_MANAGER_PARTITION_COUNT = "partitionCount";
     public static final String PARTITIONS_METRIC_PARTITION_REPLICA_STATE_MANAGER_LOCAL_PARTITION_COUNT = "localPartitionCount";
     public static final String PARTITIONS_METRIC_PARTITION_REPLICA_STATE_MANAGER_ACTIVE_PARTITION_COUNT = "activePartitionCount";
@@ -470,6 +496,8 @@ public final class MetricDescriptorConstants {
     public static final String QUEUE_METRIC_NUMBER_OF_OTHER_OPERATIONS = "numberOfOtherOperations";
     public static final String QUEUE_METRIC_NUMBER_OF_EVENTS = "numberOfEvents";
     public static final String QUEUE_METRIC_TOTAL = "total";
+    public static final String QUEUE_METRIC_SPILLED_BYTES = "spilledBytes";
+    public static final String QUEUE_METRIC_SPILLED_ITEM_COUNT = "spilledItemCount";
     // ===[/QUEUE]======================================================
 
     // ===[RELIABLE TOPIC]==============================================
@@ -498,6 +526,15 @@ public final class MetricDescriptorConstants {
     public static final String REPLICATED_MAP_TOTAL = "total";
     // ===[/REPLICATED MAP]==============================================
 
+    // ===[REST]========================================================
+    public static final String REST_PREFIX = "rest";
+    public static final String REST_DISCRIMINATOR_ENDPOINT = "endpoint";
+    public static final String REST_TAG_METHOD = "method";
+    public static final String REST_METRIC_REQUEST_COUNT = "requestCount";
+    public static final String REST_METRIC_TOTAL_LATENCY = "totalLatency";
+    public static final String REST_METRIC_MAX_LATENCY = "maxLatency";
+    // ===[/REST]=======================================================
+
     // ===[RUNTIME]=====================================================
     public static final String RUNTIME_FULL_METRIC_FREE_MEMORY = "runtime.freeMemory";
     public static final String RUNTIME_FULL_METRIC_TOTAL_MEMORY = "runtime.totalMemory";
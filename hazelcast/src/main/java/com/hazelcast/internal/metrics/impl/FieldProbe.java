@@ -19,6 +19,7 @@ package com.hazelcast.internal.metrics.impl;
 import com.hazelcast.internal.metrics.DoubleProbeFunction;
 import com.hazelcast.internal.metrics.LongProbeFunction;
 import com.hazelcast.internal.metrics.MetricDescriptor;
+import com.hazelcast.internal.metrics.MetricTarget;
 import com.hazelcast.internal.metrics.Probe;
 import com.hazelcast.internal.metrics.ProbeFunction;
 import com.hazelcast.internal.util.counters.Counter;
@@ -28,6 +29,7 @@ import java.util.Collection;
 import java.util.Map;
 import java.util.concurrent.Semaphore;
 
+import static com.hazelcast.internal.metrics.impl.MetricsUtil.extractExcludedTargets;
 import static com.hazelcast.internal.metrics.impl.ProbeUtils.TYPE_COLLECTION;
 import static com.hazelcast.internal.metrics.impl.ProbeUtils.TYPE_COUNTER;
 import static com.hazelcast.internal.metrics.impl.ProbeUtils.TYPE_DOUBLE_NUMBER;
@@ -50,6 +52,7 @@ abstract class FieldProbe implements ProbeFunction {
     final int type;
     final SourceMetadata sourceMetadata;
     final String probeName;
+    private volatile Collection<MetricTarget> excludedTargets;
 
     FieldProbe(Field field, Probe probe, int type, SourceMetadata sourceMetadata) {
         this.field = field;
@@ -62,6 +65,19 @@ abstract class FieldProbe implements ProbeFunction {
         field.setAccessible(true);
     }
 
+    /**
+     * Returns the targets this probe is excluded from. Cached on the first
+     * call, when the owning {@link SourceMetadata} is already complete.
+     */
+    Collection<MetricTarget> excludedTargets() {
+        Collection<MetricTarget> targets = excludedTargets;
+        if (targets == null) {
+            targets = extractExcludedTargets(probe, sourceMetadata);
+            excludedTargets = targets;
+        }
+        return targets;
+    }
+
     void register(MetricsRegistryImpl metricsRegistry, Object source, String namePrefix) {
         MetricDescriptor descriptor = metricsRegistry
                 .newMetricDescriptor()
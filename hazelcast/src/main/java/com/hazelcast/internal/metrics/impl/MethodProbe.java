@@ -19,15 +19,21 @@ package com.hazelcast.internal.metrics.impl;
 import com.hazelcast.internal.metrics.DoubleProbeFunction;
 import com.hazelcast.internal.metrics.LongProbeFunction;
 import com.hazelcast.internal.metrics.MetricDescriptor;
+import com.hazelcast.internal.metrics.MetricTarget;
 import com.hazelcast.internal.metrics.Probe;
 import com.hazelcast.internal.metrics.ProbeFunction;
 import com.hazelcast.internal.util.counters.Counter;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.util.Collection;
 import java.util.Map;
 import java.util.concurrent.Semaphore;
 
+import static com.hazelcast.internal.metrics.impl.MetricsUtil.extractExcludedTargets;
 import static com.hazelcast.internal.metrics.impl.ProbeUtils.TYPE_COLLECTION;
 import static com.hazelcast.internal.metrics.impl.ProbeUtils.TYPE_COUNTER;
 import static com.hazelcast.internal.metrics.impl.ProbeUtils.TYPE_DOUBLE_NUMBER;
@@ -38,22 +44,27 @@ import static com.hazelcast.internal.metrics.impl.ProbeUtils.TYPE_PRIMITIVE_LONG
 import static com.hazelcast.internal.metrics.impl.ProbeUtils.TYPE_SEMAPHORE;
 import static com.hazelcast.internal.metrics.impl.ProbeUtils.getType;
 import static com.hazelcast.internal.metrics.impl.ProbeUtils.isDouble;
+import static com.hazelcast.internal.util.ExceptionUtil.rethrow;
 import static java.lang.String.format;
 
 /**
  * A MethodProbe is a {@link ProbeFunction} that invokes a method that is annotated with {@link Probe}.
+ * <p>
+ * The method is invoked through a {@link MethodHandle} adapted to return
+ * a primitive if the method does, so reading a probe doesn't box the
+ * value like a reflective invocation would.
  */
 abstract class MethodProbe implements ProbeFunction {
 
-    private static final Object[] EMPTY_ARGS = new Object[0];
-
     final Method method;
     final CachedProbe probe;
     final int type;
     final SourceMetadata sourceMetadata;
     final String probeName;
+    final MethodHandle handle;
+    private volatile Collection<MetricTarget> excludedTargets;
 
-    MethodProbe(Method method, Probe probe, int type, SourceMetadata sourceMetadata) {
+    MethodProbe(Method method, Probe probe, int type, SourceMetadata sourceMetadata, Class<?> handleReturnType) {
         this.method = method;
         this.probe = new CachedProbe(probe);
         this.type = type;
@@ -62,7 +73,28 @@ abstract class MethodProbe implements ProbeFunction {
         assert probeName != null;
         assert probeName.length() > 0;
         method.setAccessible(true);
+        try {
+            MethodHandle methodHandle = MethodHandles.lookup().unreflect(method);
+            if (Modifier.isStatic(method.getModifiers())) {
+                methodHandle = MethodHandles.dropArguments(methodHandle, 0, Object.class);
+            }
+            this.handle = methodHandle.asType(MethodType.methodType(handleReturnType, Object.class));
+        } catch (IllegalAccessException e) {
+            throw rethrow(e);
+        }
+    }
 
+    /**
+     * Returns the targets this probe is excluded from. Cached on the first
+     * call, when the owning {@link SourceMetadata} is already complete.
+     */
+    Collection<MetricTarget> excludedTargets() {
+        Collection<MetricTarget> targets = excludedTargets;
+        if (targets == null) {
+            targets = extractExcludedTargets(probe, sourceMetadata);
+            excludedTargets = targets;
+        }
+        return targets;
     }
 
     void register(MetricsRegistryImpl metricsRegistry, Object source, String namePrefix) {
@@ -103,29 +135,36 @@ abstract class MethodProbe implements ProbeFunction {
     static class LongMethodProbe<S> extends MethodProbe implements LongProbeFunction<S> {
 
         LongMethodProbe(Method method, Probe probe, int type, SourceMetadata sourceMetadata) {
-            super(method, probe, type, sourceMetadata);
+            super(method, probe, type, sourceMetadata, type == TYPE_PRIMITIVE_LONG ? long.class : Object.class);
         }
 
         @Override
         public long get(S source) throws Exception {
+            try {
+                return type == TYPE_PRIMITIVE_LONG ? (long) handle.invokeExact((Object) source) : getFromObject(source);
+            } catch (Exception | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new IllegalStateException(t);
+            }
+        }
+
+        private long getFromObject(S source) throws Throwable {
+            Object result = (Object) handle.invokeExact((Object) source);
+            if (result == null) {
+                return 0;
+            }
             switch (type) {
-                case TYPE_PRIMITIVE_LONG:
-                    return ((Number) method.invoke(source, EMPTY_ARGS)).longValue();
                 case TYPE_LONG_NUMBER:
-                    Number longNumber = (Number) method.invoke(source, EMPTY_ARGS);
-                    return longNumber == null ? 0 : longNumber.longValue();
+                    return ((Number) result).longValue();
                 case TYPE_MAP:
-                    Map<?, ?> map = (Map<?, ?>) method.invoke(source, EMPTY_ARGS);
-                    return map == null ? 0 : map.size();
+                    return ((Map<?, ?>) result).size();
                 case TYPE_COLLECTION:
-                    Collection<?> collection = (Collection<?>) method.invoke(source, EMPTY_ARGS);
-                    return collection == null ? 0 : collection.size();
+                    return ((Collection<?>) result).size();
                 case TYPE_COUNTER:
-                    Counter counter = (Counter) method.invoke(source, EMPTY_ARGS);
-                    return counter == null ? 0 : counter.get();
+                    return ((Counter) result).get();
                 case TYPE_SEMAPHORE:
-                    Semaphore semaphore = (Semaphore) method.invoke(source, EMPTY_ARGS);
-                    return semaphore == null ? 0 : semaphore.availablePermits();
+                    return ((Semaphore) result).availablePermits();
                 default:
                     throw new IllegalStateException("Unrecognized type:" + type);
             }
@@ -135,18 +174,25 @@ abstract class MethodProbe implements ProbeFunction {
     static class DoubleMethodProbe<S> extends MethodProbe implements DoubleProbeFunction<S> {
 
         DoubleMethodProbe(Method method, Probe probe, int type, SourceMetadata sourceMetadata) {
-            super(method, probe, type, sourceMetadata);
+            super(method, probe, type, sourceMetadata, type == TYPE_DOUBLE_PRIMITIVE ? double.class : Object.class);
         }
 
         @Override
         public double get(S source) throws Exception {
-            switch (type) {
-                case TYPE_DOUBLE_PRIMITIVE:
-                case TYPE_DOUBLE_NUMBER:
-                    Number result = (Number) method.invoke(source, EMPTY_ARGS);
-                    return result == null ? 0 : result.doubleValue();
-                default:
-                    throw new IllegalStateException("Unrecognized type:" + type);
+            try {
+                switch (type) {
+                    case TYPE_DOUBLE_PRIMITIVE:
+                        return (double) handle.invokeExact((Object) source);
+                    case TYPE_DOUBLE_NUMBER:
+                        Number result = (Number) (Object) handle.invokeExact((Object) source);
+                        return result == null ? 0 : result.doubleValue();
+                    default:
+                        throw new IllegalStateException("Unrecognized type:" + type);
+                }
+            } catch (Exception | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new IllegalStateException(t);
             }
         }
     }
@@ -34,7 +34,6 @@ import java.util.Map;
 import java.util.function.Function;
 
 import static com.hazelcast.internal.metrics.impl.MetricsUtil.adjustExclusionsWithLevel;
-import static com.hazelcast.internal.metrics.impl.MetricsUtil.extractExcludedTargets;
 
 /**
  * Class representing a metrics collection cycle. It collects both static
@@ -113,7 +112,7 @@ class MetricsCollectionCycle {
                         .copy()
                         .withUnit(methodProbe.probe.unit())
                         .withMetric(methodProbe.getProbeName())
-                        .withExcludedTargets(extractExcludedTargets(methodProbe));
+                        .withExcludedTargets(methodProbe.excludedTargets());
 
                 lookupMetricValueCatcher(descriptorCopy).catchMetricValue(collectionId, source, methodProbe);
                 collect(descriptorCopy, source, methodProbe);
@@ -126,7 +125,7 @@ class MetricsCollectionCycle {
                         .copy()
                         .withUnit(fieldProbe.probe.unit())
                         .withMetric(fieldProbe.getProbeName())
-                        .withExcludedTargets(extractExcludedTargets(fieldProbe));
+                        .withExcludedTargets(fieldProbe.excludedTargets());
 
                 lookupMetricValueCatcher(descriptorCopy).catchMetricValue(collectionId, source, fieldProbe);
                 collect(descriptorCopy, source, fieldProbe);
@@ -148,6 +147,10 @@ class MetricsCollectionCycle {
             collectDouble(source, descriptor, doubleFunction);
         }
 
+        recycle(descriptor);
+    }
+
+    private void recycle(MetricDescriptor descriptor) {
         if (descriptor instanceof MetricDescriptorImpl) {
             descriptorSupplier.recycle((MetricDescriptorImpl) descriptor);
         }
@@ -192,6 +195,7 @@ class MetricsCollectionCycle {
 
                 lookupMetricValueCatcher(descriptorCopy).catchMetricValue(collectionId, value);
                 metricsCollector.collectLong(descriptorCopy, value);
+                recycle(descriptorCopy);
             }
         }
 
@@ -206,6 +210,7 @@ class MetricsCollectionCycle {
 
                 lookupMetricValueCatcher(descriptorCopy).catchMetricValue(collectionId, value);
                 metricsCollector.collectDouble(descriptorCopy, value);
+                recycle(descriptorCopy);
             }
         }
 
@@ -324,7 +324,13 @@ public class MetricsCompressor {
         metricBaos.reset();
         metricDos = new DataOutputStream(new DeflaterOutputStream(metricBaos, metricsCompressor));
 
-        dictionary = new MetricsDictionary();
+        // the words of the previous cycles are kept as long as most of them are still in use,
+        // every word ends up in the dictionary blob
+        if (dictionary == null || dictionary.size() > dictionary.usedWordCount() * 2) {
+            dictionary = new MetricsDictionary();
+        } else {
+            dictionary.nextCycle();
+        }
         count = 0;
         lastDescriptor = null;
     }
@@ -16,15 +16,24 @@
 
 package com.hazelcast.internal.metrics.impl;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
-import java.util.TreeMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 import static java.util.Objects.requireNonNull;
 
 /**
  * Metrics dictionary storing word -> id mapping. Used by {@link
  * MetricsCompressor}'s dictionary-based algorithm.
+ * <p>
+ * The dictionary is kept across metrics collection cycles, so the words
+ * of the descriptors collected in every cycle are encoded by a single
+ * hash lookup and only the words which are new in a cycle are stored.
+ * The words used in the current cycle are counted to let the compressor
+ * drop a dictionary which holds mostly stale words.
  */
 class MetricsDictionary {
     /**
@@ -34,7 +43,11 @@ class MetricsDictionary {
      */
     static final int MAX_WORD_LENGTH = MetricsCompressor.UNSIGNED_BYTE_MAX_VALUE;
 
-    private TreeMap<String, Word> orderedDictionary = new TreeMap<>(Comparator.naturalOrder());
+    private final Map<String, Word> dictionary = new HashMap<>();
+    // the words ordered by word, null if a word was added since they were ordered
+    private List<Word> orderedWords;
+    private int cycle;
+    private int usedWordCount;
 
     /**
      * Returns the dictionary id for the given word. If the word is not yet
@@ -46,15 +59,21 @@ class MetricsDictionary {
      */
     int getDictionaryId(String word) throws LongWordException {
         requireNonNull(word);
-        if (word.length() > MAX_WORD_LENGTH) {
-            throw new LongWordException("Too long value in the metric descriptor found, maximum is "
-                    + MAX_WORD_LENGTH + ": " + word);
+        Word dictionaryWord = dictionary.get(word);
+        if (dictionaryWord == null) {
+            if (word.length() > MAX_WORD_LENGTH) {
+                throw new LongWordException("Too long value in the metric descriptor found, maximum is "
+                        + MAX_WORD_LENGTH + ": " + word);
+            }
+            dictionaryWord = new Word(word, dictionary.size());
+            dictionary.put(word, dictionaryWord);
+            orderedWords = null;
         }
-
-        int nextWordId = orderedDictionary.size();
-        return orderedDictionary
-                .computeIfAbsent(word, key -> new Word(word, nextWordId))
-                .id;
+        if (dictionaryWord.lastUsedCycle != cycle) {
+            dictionaryWord.lastUsedCycle = cycle;
+            usedWordCount++;
+        }
+        return dictionaryWord.id;
     }
 
     /**
@@ -63,12 +82,40 @@ class MetricsDictionary {
      * @return the word<->mappings
      */
     public Collection<Word> words() {
-        return orderedDictionary.values();
+        if (orderedWords == null) {
+            orderedWords = new ArrayList<>(dictionary.values());
+            orderedWords.sort(Comparator.comparing(Word::word));
+        }
+        return orderedWords;
+    }
+
+    /**
+     * Returns the number of stored words.
+     */
+    int size() {
+        return dictionary.size();
+    }
+
+    /**
+     * Returns the number of distinct words looked up since the current
+     * cycle started.
+     */
+    int usedWordCount() {
+        return usedWordCount;
+    }
+
+    /**
+     * Starts a new cycle, resetting the {@link #usedWordCount()}.
+     */
+    void nextCycle() {
+        cycle++;
+        usedWordCount = 0;
     }
 
     static final class Word {
         private String word;
         private int id;
+        private int lastUsedCycle = -1;
 
         private Word(String word, int id) {
             this.word = word;
@@ -40,4 +40,22 @@ public interface LocalFlakeIdGeneratorStats extends LocalInstanceStats {
      * since its {@link #getCreationTime()}.
      */
     long getIdCount();
+
+    /**
+     * @return the number of batches requested by this member's proxy
+     * before the current batch was spent, since its {@link #getCreationTime()}.
+     */
+    long getPrefetchCount();
+
+    /**
+     * @return the number of times this member's proxy waited for a new
+     * batch when generating an ID, since its {@link #getCreationTime()}.
+     */
+    long getBlockingFetchCount();
+
+    /**
+     * @return the total time in milliseconds this member's proxy waited for
+     * new batches when generating IDs, since its {@link #getCreationTime()}.
+     */
+    long getTotalBlockingFetchTime();
 }
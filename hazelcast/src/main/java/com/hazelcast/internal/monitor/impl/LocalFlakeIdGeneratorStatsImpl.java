@@ -23,9 +23,13 @@ import com.hazelcast.internal.util.Clock;
 import java.util.concurrent.atomic.AtomicLongFieldUpdater;
 
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.FLAKE_ID_METRIC_BATCH_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.FLAKE_ID_METRIC_BLOCKING_FETCH_COUNT;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.FLAKE_ID_METRIC_CREATION_TIME;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.FLAKE_ID_METRIC_ID_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.FLAKE_ID_METRIC_PREFETCH_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.FLAKE_ID_METRIC_TOTAL_BLOCKING_FETCH_TIME;
 import static com.hazelcast.internal.metrics.ProbeUnit.MS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 import static java.util.concurrent.atomic.AtomicLongFieldUpdater.newUpdater;
 
 public class LocalFlakeIdGeneratorStatsImpl implements LocalFlakeIdGeneratorStats {
@@ -34,6 +38,12 @@ public class LocalFlakeIdGeneratorStatsImpl implements LocalFlakeIdGeneratorStat
             newUpdater(LocalFlakeIdGeneratorStatsImpl.class, "batchCount");
     private static final AtomicLongFieldUpdater<LocalFlakeIdGeneratorStatsImpl> ID_COUNT =
             newUpdater(LocalFlakeIdGeneratorStatsImpl.class, "idCount");
+    private static final AtomicLongFieldUpdater<LocalFlakeIdGeneratorStatsImpl> PREFETCH_COUNT =
+            newUpdater(LocalFlakeIdGeneratorStatsImpl.class, "prefetchCount");
+    private static final AtomicLongFieldUpdater<LocalFlakeIdGeneratorStatsImpl> BLOCKING_FETCH_COUNT =
+            newUpdater(LocalFlakeIdGeneratorStatsImpl.class, "blockingFetchCount");
+    private static final AtomicLongFieldUpdater<LocalFlakeIdGeneratorStatsImpl> TOTAL_BLOCKING_FETCH_NANOS =
+            newUpdater(LocalFlakeIdGeneratorStatsImpl.class, "totalBlockingFetchNanos");
 
     @Probe(name = FLAKE_ID_METRIC_CREATION_TIME, unit = MS)
     private final long creationTime;
@@ -41,6 +51,11 @@ public class LocalFlakeIdGeneratorStatsImpl implements LocalFlakeIdGeneratorStat
     private volatile long batchCount;
     @Probe(name = FLAKE_ID_METRIC_ID_COUNT)
     private volatile long idCount;
+    @Probe(name = FLAKE_ID_METRIC_PREFETCH_COUNT)
+    private volatile long prefetchCount;
+    @Probe(name = FLAKE_ID_METRIC_BLOCKING_FETCH_COUNT)
+    private volatile long blockingFetchCount;
+    private volatile long totalBlockingFetchNanos;
 
     public LocalFlakeIdGeneratorStatsImpl() {
         creationTime = Clock.currentTimeMillis();
@@ -60,17 +75,45 @@ public class LocalFlakeIdGeneratorStatsImpl implements LocalFlakeIdGeneratorStat
         return idCount;
     }
 
+    @Override
+    public long getPrefetchCount() {
+        return prefetchCount;
+    }
+
+    @Override
+    public long getBlockingFetchCount() {
+        return blockingFetchCount;
+    }
+
+    @Probe(name = FLAKE_ID_METRIC_TOTAL_BLOCKING_FETCH_TIME, unit = MS)
+    @Override
+    public long getTotalBlockingFetchTime() {
+        return NANOSECONDS.toMillis(totalBlockingFetchNanos);
+    }
+
     public void update(int batchSize) {
         BATCH_COUNT.incrementAndGet(this);
         ID_COUNT.addAndGet(this, batchSize);
     }
 
+    public void incrementPrefetchCount() {
+        PREFETCH_COUNT.incrementAndGet(this);
+    }
+
+    public void updateBlockingFetch(long waitNanos) {
+        BLOCKING_FETCH_COUNT.incrementAndGet(this);
+        TOTAL_BLOCKING_FETCH_NANOS.addAndGet(this, waitNanos);
+    }
+
     @Override
     public String toString() {
         return "LocalFlakeIdStatsImpl{"
                 + "creationTime=" + creationTime
                 + ", batchCount=" + batchCount
                 + ", idCount=" + idCount
+                + ", prefetchCount=" + prefetchCount
+                + ", blockingFetchCount=" + blockingFetchCount
+                + ", totalBlockingFetchNanos=" + totalBlockingFetchNanos
                 + '}';
     }
 }
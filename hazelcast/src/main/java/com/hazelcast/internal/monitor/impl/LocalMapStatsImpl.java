@@ -18,11 +18,13 @@ package com.hazelcast.internal.monitor.impl;
 
 import com.hazelcast.internal.metrics.Probe;
 import com.hazelcast.internal.util.Clock;
+import com.hazelcast.internal.util.LatencyHistogram;
 import com.hazelcast.map.LocalMapStats;
 import com.hazelcast.nearcache.NearCacheStats;
 import com.hazelcast.query.LocalIndexStats;
 
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -43,6 +45,10 @@ import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRI
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_MERKLE_TREES_COST;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_NUMBER_OF_EVENTS;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_NUMBER_OF_OTHER_OPERATIONS;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_EXPIRATION_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_MAX_EXPIRATION_LAG;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_OFFLOADED_ENTRY_PROCESSOR_BATCH_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_OFFLOADED_ENTRY_PROCESSOR_ENTRY_COUNT;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_OWNED_ENTRY_COUNT;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_OWNED_ENTRY_MEMORY_COST;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_PUT_COUNT;
@@ -54,6 +60,8 @@ import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRI
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_TOTAL_MAX_PUT_LATENCY;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_TOTAL_MAX_REMOVE_LATENCY;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_TOTAL_MAX_SET_LATENCY;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_OFFLOADED_ENTRY_PROCESSOR_BATCH_LATENCY;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_TOTAL_EXPIRATION_LAG;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_TOTAL_PUT_LATENCY;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_TOTAL_REMOVE_LATENCY;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_TOTAL_SET_LATENCY;
@@ -69,6 +77,11 @@ import static java.util.concurrent.atomic.AtomicLongFieldUpdater.newUpdater;
 @SuppressWarnings({"checkstyle:methodcount"})
 public class LocalMapStatsImpl implements LocalMapStats {
 
+    private static final String OPERATION_GET = "get";
+    private static final String OPERATION_PUT = "put";
+    private static final String OPERATION_SET = "set";
+    private static final String OPERATION_REMOVE = "remove";
+
     private static final AtomicLongFieldUpdater<LocalMapStatsImpl> LAST_ACCESS_TIME =
             newUpdater(LocalMapStatsImpl.class, "lastAccessTime");
     private static final AtomicLongFieldUpdater<LocalMapStatsImpl> LAST_UPDATE_TIME =
@@ -103,11 +116,29 @@ public class LocalMapStatsImpl implements LocalMapStats {
             newUpdater(LocalMapStatsImpl.class, "maxSetLatency");
     private static final AtomicLongFieldUpdater<LocalMapStatsImpl> MAX_REMOVE_LATENCY =
             newUpdater(LocalMapStatsImpl.class, "maxRemoveLatency");
+    private static final AtomicLongFieldUpdater<LocalMapStatsImpl> OFFLOADED_ENTRY_PROCESSOR_BATCH_COUNT =
+            newUpdater(LocalMapStatsImpl.class, "offloadedEntryProcessorBatchCount");
+    private static final AtomicLongFieldUpdater<LocalMapStatsImpl> OFFLOADED_ENTRY_PROCESSOR_ENTRY_COUNT =
+            newUpdater(LocalMapStatsImpl.class, "offloadedEntryProcessorEntryCount");
+    private static final AtomicLongFieldUpdater<LocalMapStatsImpl> TOTAL_OFFLOADED_ENTRY_PROCESSOR_BATCH_LATENCIES =
+            newUpdater(LocalMapStatsImpl.class, "totalOffloadedEntryProcessorBatchLatenciesNanos");
+    private static final AtomicLongFieldUpdater<LocalMapStatsImpl> EXPIRATION_COUNT =
+            newUpdater(LocalMapStatsImpl.class, "expirationCount");
+    private static final AtomicLongFieldUpdater<LocalMapStatsImpl> TOTAL_EXPIRATION_LAG =
+            newUpdater(LocalMapStatsImpl.class, "totalExpirationLagMillis");
+    private static final AtomicLongFieldUpdater<LocalMapStatsImpl> MAX_EXPIRATION_LAG =
+            newUpdater(LocalMapStatsImpl.class, "maxExpirationLagMillis");
 
     private final ConcurrentMap<String, LocalIndexStatsImpl> mutableIndexStats =
             new ConcurrentHashMap<>();
     private final Map<String, LocalIndexStats> indexStats = Collections.unmodifiableMap(mutableIndexStats);
 
+    private final LatencyHistogram getLatencyHistogram;
+    private final LatencyHistogram putLatencyHistogram;
+    private final LatencyHistogram setLatencyHistogram;
+    private final LatencyHistogram removeLatencyHistogram;
+    private final Map<String, LatencyHistogram> latencyHistograms;
+
     // These fields are only accessed through the updaters
     @Probe(name = MAP_METRIC_LAST_ACCESS_TIME, unit = MS)
     private volatile long lastAccessTime;
@@ -166,9 +197,50 @@ public class LocalMapStatsImpl implements LocalMapStats {
     private volatile long queryCount;
     @Probe(name = MAP_METRIC_INDEXED_QUERY_COUNT)
     private volatile long indexedQueryCount;
+    @Probe(name = MAP_METRIC_OFFLOADED_ENTRY_PROCESSOR_BATCH_COUNT)
+    private volatile long offloadedEntryProcessorBatchCount;
+    @Probe(name = MAP_METRIC_OFFLOADED_ENTRY_PROCESSOR_ENTRY_COUNT)
+    private volatile long offloadedEntryProcessorEntryCount;
+    private volatile long totalOffloadedEntryProcessorBatchLatenciesNanos;
+    @Probe(name = MAP_METRIC_EXPIRATION_COUNT)
+    private volatile long expirationCount;
+    @Probe(name = MAP_METRIC_TOTAL_EXPIRATION_LAG, unit = MS)
+    private volatile long totalExpirationLagMillis;
+    @Probe(name = MAP_METRIC_MAX_EXPIRATION_LAG, unit = MS)
+    private volatile long maxExpirationLagMillis;
 
     public LocalMapStatsImpl() {
+        this(0, 0);
+    }
+
+    /**
+     * @param latencyHistogramPrecision the precision of the latency
+     *                                  histograms of the map operations,
+     *                                  0 disables the histograms
+     * @param latencyIntervalMillis     the length of the interval described
+     *                                  by the latency percentiles
+     * @see LatencyHistogram
+     */
+    public LocalMapStatsImpl(int latencyHistogramPrecision, long latencyIntervalMillis) {
         creationTime = Clock.currentTimeMillis();
+        if (latencyHistogramPrecision > 0) {
+            getLatencyHistogram = new LatencyHistogram(latencyHistogramPrecision, latencyIntervalMillis);
+            putLatencyHistogram = new LatencyHistogram(latencyHistogramPrecision, latencyIntervalMillis);
+            setLatencyHistogram = new LatencyHistogram(latencyHistogramPrecision, latencyIntervalMillis);
+            removeLatencyHistogram = new LatencyHistogram(latencyHistogramPrecision, latencyIntervalMillis);
+            Map<String, LatencyHistogram> histograms = new LinkedHashMap<>();
+            histograms.put(OPERATION_GET, getLatencyHistogram);
+            histograms.put(OPERATION_PUT, putLatencyHistogram);
+            histograms.put(OPERATION_SET, setLatencyHistogram);
+            histograms.put(OPERATION_REMOVE, removeLatencyHistogram);
+            latencyHistograms = Collections.unmodifiableMap(histograms);
+        } else {
+            getLatencyHistogram = null;
+            putLatencyHistogram = null;
+            setLatencyHistogram = null;
+            removeLatencyHistogram = null;
+            latencyHistograms = Collections.emptyMap();
+        }
     }
 
     @Override
@@ -430,12 +502,18 @@ public class LocalMapStatsImpl implements LocalMapStats {
         PUT_COUNT.addAndGet(this, delta);
         TOTAL_PUT_LATENCIES.addAndGet(this, latencyNanos);
         setMax(this, MAX_PUT_LATENCY, latencyNanos);
+        if (putLatencyHistogram != null) {
+            putLatencyHistogram.recordNanos(latencyNanos);
+        }
     }
 
     public void incrementSetLatencyNanos(long latencyNanos) {
         SET_COUNT.incrementAndGet(this);
         TOTAL_SET_LATENCIES.addAndGet(this, latencyNanos);
         setMax(this, MAX_SET_LATENCY, latencyNanos);
+        if (setLatencyHistogram != null) {
+            setLatencyHistogram.recordNanos(latencyNanos);
+        }
     }
 
     public void incrementGetLatencyNanos(long latencyNanos) {
@@ -446,12 +524,77 @@ public class LocalMapStatsImpl implements LocalMapStats {
         GET_COUNT.addAndGet(this, delta);
         TOTAL_GET_LATENCIES.addAndGet(this, latencyNanos);
         setMax(this, MAX_GET_LATENCY, latencyNanos);
+        if (getLatencyHistogram != null) {
+            getLatencyHistogram.recordNanos(latencyNanos);
+        }
     }
 
     public void incrementRemoveLatencyNanos(long latencyNanos) {
         REMOVE_COUNT.incrementAndGet(this);
         TOTAL_REMOVE_LATENCIES.addAndGet(this, latencyNanos);
         setMax(this, MAX_REMOVE_LATENCY, latencyNanos);
+        if (removeLatencyHistogram != null) {
+            removeLatencyHistogram.recordNanos(latencyNanos);
+        }
+    }
+
+    /**
+     * Returns the latency histograms of the map operations by the
+     * operation type, empty if the histograms are disabled.
+     */
+    public Map<String, LatencyHistogram> getLatencyHistograms() {
+        return latencyHistograms;
+    }
+
+    /**
+     * Records a partition batch of entries processed by an offloaded
+     * entry processor.
+     *
+     * @param entryCount   the number of entries in the batch
+     * @param latencyNanos the time between taking the batch from the
+     *                     partition and sending its response
+     */
+    public void incrementOffloadedEntryProcessorBatchNanos(int entryCount, long latencyNanos) {
+        OFFLOADED_ENTRY_PROCESSOR_BATCH_COUNT.incrementAndGet(this);
+        OFFLOADED_ENTRY_PROCESSOR_ENTRY_COUNT.addAndGet(this, entryCount);
+        TOTAL_OFFLOADED_ENTRY_PROCESSOR_BATCH_LATENCIES.addAndGet(this, latencyNanos);
+    }
+
+    public long getOffloadedEntryProcessorBatchCount() {
+        return offloadedEntryProcessorBatchCount;
+    }
+
+    public long getOffloadedEntryProcessorEntryCount() {
+        return offloadedEntryProcessorEntryCount;
+    }
+
+    @Probe(name = MAP_METRIC_OFFLOADED_ENTRY_PROCESSOR_BATCH_LATENCY, unit = MS)
+    public long getTotalOffloadedEntryProcessorBatchLatency() {
+        return convertNanosToMillis(totalOffloadedEntryProcessorBatchLatenciesNanos);
+    }
+
+    /**
+     * Records an entry removed by the background expiration task.
+     *
+     * @param lagMillis the time between the expiration time
+     *                  of the entry and its removal
+     */
+    public void incrementExpirationLag(long lagMillis) {
+        EXPIRATION_COUNT.incrementAndGet(this);
+        TOTAL_EXPIRATION_LAG.addAndGet(this, lagMillis);
+        setMax(this, MAX_EXPIRATION_LAG, lagMillis);
+    }
+
+    public long getExpirationCount() {
+        return expirationCount;
+    }
+
+    public long getTotalExpirationLag() {
+        return totalExpirationLagMillis;
+    }
+
+    public long getMaxExpirationLag() {
+        return maxExpirationLagMillis;
     }
 
     public void incrementOtherOperations() {
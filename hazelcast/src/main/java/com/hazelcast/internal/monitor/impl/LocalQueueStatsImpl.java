@@ -35,7 +35,10 @@ import static com.hazelcast.internal.metrics.MetricDescriptorConstants.QUEUE_MET
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.QUEUE_METRIC_NUMBER_OF_POLLS;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.QUEUE_METRIC_NUMBER_OF_REJECTED_OFFERS;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.QUEUE_METRIC_OWNED_ITEM_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.QUEUE_METRIC_SPILLED_BYTES;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.QUEUE_METRIC_SPILLED_ITEM_COUNT;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.QUEUE_METRIC_TOTAL;
+import static com.hazelcast.internal.metrics.ProbeUnit.BYTES;
 import static com.hazelcast.internal.metrics.ProbeUnit.MS;
 import static java.util.concurrent.atomic.AtomicLongFieldUpdater.newUpdater;
 
@@ -66,6 +69,10 @@ public class LocalQueueStatsImpl implements LocalQueueStats {
     private long averageAge;
     @Probe(name = QUEUE_METRIC_CREATION_TIME, unit = MS)
     private final long creationTime;
+    @Probe(name = QUEUE_METRIC_SPILLED_BYTES, unit = BYTES)
+    private long spilledBytes;
+    @Probe(name = QUEUE_METRIC_SPILLED_ITEM_COUNT)
+    private int spilledItemCount;
 
     // These fields are only accessed through the updater
     @Probe(name = QUEUE_METRIC_NUMBER_OF_OFFERS)
@@ -135,6 +142,30 @@ public class LocalQueueStatsImpl implements LocalQueueStats {
         return creationTime;
     }
 
+    /**
+     * Returns the number of bytes the owned items of a queue using
+     * segmented storage occupy in its spill file.
+     */
+    public long getSpilledBytes() {
+        return spilledBytes;
+    }
+
+    public void setSpilledBytes(long spilledBytes) {
+        this.spilledBytes = spilledBytes;
+    }
+
+    /**
+     * Returns the number of owned items of a queue using segmented
+     * storage which are spilled to its spill file.
+     */
+    public int getSpilledItemCount() {
+        return spilledItemCount;
+    }
+
+    public void setSpilledItemCount(int spilledItemCount) {
+        this.spilledItemCount = spilledItemCount;
+    }
+
     @Probe(name = QUEUE_METRIC_TOTAL)
     public long total() {
         return numberOfOffers + numberOfPolls + numberOfOtherOperations;
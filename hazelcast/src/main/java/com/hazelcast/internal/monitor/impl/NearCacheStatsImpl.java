@@ -27,16 +27,20 @@ import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NEARCACHE
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NEARCACHE_METRIC_HITS;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NEARCACHE_METRIC_INVALIDATIONS;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NEARCACHE_METRIC_INVALIDATION_REQUESTS;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NEARCACHE_METRIC_LAST_INVALIDATION_LAG;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NEARCACHE_METRIC_LAST_PERSISTENCE_DURATION;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NEARCACHE_METRIC_LAST_PERSISTENCE_KEY_COUNT;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NEARCACHE_METRIC_LAST_PERSISTENCE_TIME;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NEARCACHE_METRIC_LAST_PERSISTENCE_WRITTEN_BYTES;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NEARCACHE_METRIC_MAX_INVALIDATION_LAG;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NEARCACHE_METRIC_MISSES;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NEARCACHE_METRIC_OWNED_ENTRY_COUNT;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NEARCACHE_METRIC_OWNED_ENTRY_MEMORY_COST;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NEARCACHE_METRIC_PENDING_INVALIDATIONS;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NEARCACHE_METRIC_PERSISTENCE_COUNT;
 import static com.hazelcast.internal.metrics.ProbeUnit.BYTES;
 import static com.hazelcast.internal.metrics.ProbeUnit.MS;
+import static com.hazelcast.internal.metrics.ProbeUnit.NS;
 import static java.lang.String.format;
 import static java.util.concurrent.atomic.AtomicLongFieldUpdater.newUpdater;
 
@@ -63,6 +67,10 @@ public class NearCacheStatsImpl implements NearCacheStats {
             newUpdater(NearCacheStatsImpl.class, "invalidationRequests");
     private static final AtomicLongFieldUpdater<NearCacheStatsImpl> PERSISTENCE_COUNT =
             newUpdater(NearCacheStatsImpl.class, "persistenceCount");
+    private static final AtomicLongFieldUpdater<NearCacheStatsImpl> PENDING_INVALIDATIONS =
+            newUpdater(NearCacheStatsImpl.class, "pendingInvalidations");
+    private static final AtomicLongFieldUpdater<NearCacheStatsImpl> MAX_INVALIDATION_LAG =
+            newUpdater(NearCacheStatsImpl.class, "maxInvalidationLag");
 
     @Probe(name = NEARCACHE_METRIC_CREATION_TIME, unit = MS)
     private final long creationTime;
@@ -83,6 +91,12 @@ public class NearCacheStatsImpl implements NearCacheStats {
     private volatile long invalidations;
     @Probe(name = NEARCACHE_METRIC_INVALIDATION_REQUESTS)
     private volatile long invalidationRequests;
+    @Probe(name = NEARCACHE_METRIC_PENDING_INVALIDATIONS)
+    private volatile long pendingInvalidations;
+    @Probe(name = NEARCACHE_METRIC_LAST_INVALIDATION_LAG, unit = NS)
+    private volatile long lastInvalidationLag;
+    @Probe(name = NEARCACHE_METRIC_MAX_INVALIDATION_LAG, unit = NS)
+    private volatile long maxInvalidationLag;
 
     @Probe(name = NEARCACHE_METRIC_PERSISTENCE_COUNT)
     private volatile long persistenceCount;
@@ -111,6 +125,9 @@ public class NearCacheStatsImpl implements NearCacheStats {
         expirations = stats.expirations;
         invalidations = stats.invalidations;
         invalidationRequests = stats.invalidationRequests;
+        pendingInvalidations = stats.pendingInvalidations;
+        lastInvalidationLag = stats.lastInvalidationLag;
+        maxInvalidationLag = stats.maxInvalidationLag;
 
         persistenceCount = stats.persistenceCount;
         lastPersistenceTime = stats.lastPersistenceTime;
@@ -243,6 +260,45 @@ public class NearCacheStatsImpl implements NearCacheStats {
         INVALIDATION_REQUESTS.set(this, 0);
     }
 
+    /**
+     * Returns the number of received invalidations which are not applied
+     * to the Near Cache yet.
+     */
+    public long getPendingInvalidations() {
+        return pendingInvalidations;
+    }
+
+    public void addPendingInvalidations(long delta) {
+        PENDING_INVALIDATIONS.addAndGet(this, delta);
+    }
+
+    /**
+     * Returns the time in nanoseconds between receiving and applying the
+     * last applied batch of invalidations.
+     */
+    public long getLastInvalidationLag() {
+        return lastInvalidationLag;
+    }
+
+    /**
+     * Returns the maximum time in nanoseconds between receiving and applying
+     * a batch of invalidations.
+     */
+    public long getMaxInvalidationLag() {
+        return maxInvalidationLag;
+    }
+
+    public void addInvalidationLag(long lagNanos) {
+        lastInvalidationLag = lagNanos;
+        long max;
+        do {
+            max = maxInvalidationLag;
+            if (lagNanos <= max) {
+                break;
+            }
+        } while (!MAX_INVALIDATION_LAG.compareAndSet(this, max, lagNanos));
+    }
+
     @Override
     public long getPersistenceCount() {
         return persistenceCount;
@@ -308,6 +364,9 @@ public class NearCacheStatsImpl implements NearCacheStats {
                 + ", expirations=" + expirations
                 + ", invalidations=" + invalidations
                 + ", invalidationRequests=" + invalidationRequests
+                + ", pendingInvalidations=" + pendingInvalidations
+                + ", lastInvalidationLag=" + lastInvalidationLag
+                + ", maxInvalidationLag=" + maxInvalidationLag
                 + ", lastPersistenceTime=" + lastPersistenceTime
                 + ", persistenceCount=" + persistenceCount
                 + ", lastPersistenceDuration=" + lastPersistenceDuration
@@ -16,16 +16,26 @@
 
 package com.hazelcast.internal.nearcache.impl.invalidation;
 
+import com.hazelcast.internal.monitor.impl.NearCacheStatsImpl;
 import com.hazelcast.internal.nearcache.NearCache;
+import com.hazelcast.internal.util.executor.StripedRunnable;
+import com.hazelcast.internal.util.executor.TimeoutRunnable;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.nearcache.NearCacheStats;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 
+import static com.hazelcast.internal.util.HashUtil.hashToIndex;
 import static java.lang.String.format;
+import static java.lang.System.nanoTime;
 
 /**
  * Handler used on Near Cache side. Observes local and remote invalidations and registers relevant
@@ -36,6 +46,13 @@ import static java.lang.String.format;
  * To make stale data unreachable {@link StaleReadDetectorImpl} is used.
  * <p>
  * An instance of this class is created per Near Cache and can concurrently be used by many threads.
+ * <p>
+ * When an invalidation executor is given, received invalidations are applied
+ * asynchronously by that executor. Invalidations are grouped into stripes by
+ * their partition ID, so invalidations of a partition are always applied by
+ * the same stripe in the order they were received and the per-partition
+ * sequence checks stay correct, while different partitions are applied in
+ * parallel.
  *
  * @see StaleReadDetectorImpl
  */
@@ -50,9 +67,24 @@ public final class RepairingHandler {
     private final SerializationService serializationService;
     private final MinimalPartitionService partitionService;
     private final MetaDataContainer[] metaDataContainers;
+    private final Executor invalidationExecutor;
+    private final int stripeCount;
+    private final NearCacheStatsImpl nearCacheStats;
 
     public RepairingHandler(ILogger logger, UUID localUuid, String name, NearCache nearCache,
                             SerializationService serializationService, MinimalPartitionService partitionService) {
+        this(logger, localUuid, name, nearCache, serializationService, partitionService, null, 0);
+    }
+
+    /**
+     * @param invalidationExecutor the executor applying invalidations or
+     *                             {@code null} to apply them on the calling thread
+     * @param stripeCount          the number of stripes of the invalidation executor
+     */
+    @SuppressWarnings("checkstyle:parameternumber")
+    public RepairingHandler(ILogger logger, UUID localUuid, String name, NearCache nearCache,
+                            SerializationService serializationService, MinimalPartitionService partitionService,
+                            Executor invalidationExecutor, int stripeCount) {
         this.logger = logger;
         this.localUuid = localUuid;
         this.name = name;
@@ -62,6 +94,14 @@ public final class RepairingHandler {
         this.partitionService = partitionService;
         this.partitionCount = partitionService.getPartitionCount();
         this.metaDataContainers = createMetadataContainers(partitionCount);
+        this.invalidationExecutor = invalidationExecutor;
+        this.stripeCount = stripeCount;
+        this.nearCacheStats = invalidationExecutor != null ? getNearCacheStatsImpl(nearCache) : null;
+    }
+
+    private static NearCacheStatsImpl getNearCacheStatsImpl(NearCache nearCache) {
+        NearCacheStats stats = nearCache.getNearCacheStats();
+        return stats instanceof NearCacheStatsImpl ? (NearCacheStatsImpl) stats : null;
     }
 
     private static MetaDataContainer[] createMetadataContainers(int partitionCount) {
@@ -80,6 +120,18 @@ public final class RepairingHandler {
      * Handles a single invalidation
      */
     public void handle(Data key, UUID sourceUuid, UUID partitionUuid, long sequence) {
+        int partitionId = getPartitionIdOrDefault(key);
+        if (invalidationExecutor == null) {
+            apply(partitionId, key, sourceUuid, partitionUuid, sequence);
+            return;
+        }
+
+        InvalidationBatch batch = new InvalidationBatch(hashToIndex(partitionId, stripeCount), 1);
+        batch.add(partitionId, key, sourceUuid, partitionUuid, sequence);
+        submit(batch);
+    }
+
+    private void apply(int partitionId, Data key, UUID sourceUuid, UUID partitionUuid, long sequence) {
         // apply invalidation if it's not originated by local member/client (because local
         // Near Caches are invalidated immediately there is no need to invalidate them twice)
         if (!localUuid.equals(sourceUuid)) {
@@ -91,7 +143,6 @@ public final class RepairingHandler {
             }
         }
 
-        int partitionId = getPartitionIdOrDefault(key);
         checkOrRepairUuid(partitionId, partitionUuid);
         checkOrRepairSequence(partitionId, sequence, false);
     }
@@ -115,12 +166,57 @@ public final class RepairingHandler {
         Iterator<UUID> partitionUuidIterator = partitionUuids.iterator();
         Iterator<UUID> sourceUuidsIterator = sourceUuids.iterator();
 
+        if (invalidationExecutor != null) {
+            submitInStripes(keys.size(), keyIterator, sourceUuidsIterator, partitionUuidIterator, sequenceIterator);
+            return;
+        }
+
         while (keyIterator.hasNext() && sourceUuidsIterator.hasNext()
                 && partitionUuidIterator.hasNext() && sequenceIterator.hasNext()) {
             handle(keyIterator.next(), sourceUuidsIterator.next(), partitionUuidIterator.next(), sequenceIterator.next());
         }
     }
 
+    private void submitInStripes(int size, Iterator<Data> keyIterator, Iterator<UUID> sourceUuidsIterator,
+                                 Iterator<UUID> partitionUuidIterator, Iterator<Long> sequenceIterator) {
+        InvalidationBatch[] batches = new InvalidationBatch[stripeCount];
+        int initialCapacity = size / stripeCount + 1;
+        while (keyIterator.hasNext() && sourceUuidsIterator.hasNext()
+                && partitionUuidIterator.hasNext() && sequenceIterator.hasNext()) {
+            Data key = keyIterator.next();
+            int partitionId = getPartitionIdOrDefault(key);
+            int stripe = hashToIndex(partitionId, stripeCount);
+            InvalidationBatch batch = batches[stripe];
+            if (batch == null) {
+                batch = new InvalidationBatch(stripe, initialCapacity);
+                batches[stripe] = batch;
+            }
+            batch.add(partitionId, key, sourceUuidsIterator.next(), partitionUuidIterator.next(), sequenceIterator.next());
+        }
+        for (InvalidationBatch batch : batches) {
+            if (batch != null) {
+                submit(batch);
+            }
+        }
+    }
+
+    private void submit(InvalidationBatch batch) {
+        if (nearCacheStats != null) {
+            nearCacheStats.addPendingInvalidations(batch.size);
+        }
+        try {
+            invalidationExecutor.execute(batch);
+        } catch (RejectedExecutionException e) {
+            // the executor is shut down together with the Near Caches
+            if (nearCacheStats != null) {
+                nearCacheStats.addPendingInvalidations(-batch.size);
+            }
+            if (logger.isFinestEnabled()) {
+                logger.finest(e.getMessage());
+            }
+        }
+    }
+
     public String getName() {
         return name;
     }
@@ -216,4 +312,81 @@ public final class RepairingHandler {
         MetaDataContainer metaData = getMetaDataContainer(partitionID);
         metaData.setSequence(partitionSequence);
     }
+
+    /**
+     * Invalidations of a single stripe, applied in the order they were received.
+     */
+    private final class InvalidationBatch implements StripedRunnable, TimeoutRunnable {
+
+        private final int stripe;
+        private final long receivedNanos = nanoTime();
+
+        private int size;
+        private int[] partitionIds;
+        private Data[] keys;
+        private UUID[] sourceUuids;
+        private UUID[] partitionUuids;
+        private long[] sequences;
+
+        InvalidationBatch(int stripe, int initialCapacity) {
+            this.stripe = stripe;
+            this.partitionIds = new int[initialCapacity];
+            this.keys = new Data[initialCapacity];
+            this.sourceUuids = new UUID[initialCapacity];
+            this.partitionUuids = new UUID[initialCapacity];
+            this.sequences = new long[initialCapacity];
+        }
+
+        void add(int partitionId, Data key, UUID sourceUuid, UUID partitionUuid, long sequence) {
+            if (size == keys.length) {
+                int newCapacity = size << 1;
+                partitionIds = Arrays.copyOf(partitionIds, newCapacity);
+                keys = Arrays.copyOf(keys, newCapacity);
+                sourceUuids = Arrays.copyOf(sourceUuids, newCapacity);
+                partitionUuids = Arrays.copyOf(partitionUuids, newCapacity);
+                sequences = Arrays.copyOf(sequences, newCapacity);
+            }
+            partitionIds[size] = partitionId;
+            keys[size] = key;
+            sourceUuids[size] = sourceUuid;
+            partitionUuids[size] = partitionUuid;
+            sequences[size] = sequence;
+            size++;
+        }
+
+        @Override
+        public void run() {
+            try {
+                for (int i = 0; i < size; i++) {
+                    apply(partitionIds[i], keys[i], sourceUuids[i], partitionUuids[i], sequences[i]);
+                }
+            } catch (Exception e) {
+                // missed invalidations are detected and repaired via sequence checks
+                if (logger.isFinestEnabled()) {
+                    logger.finest(format("Failed to apply invalidations of %s", name), e);
+                }
+            } finally {
+                if (nearCacheStats != null) {
+                    nearCacheStats.addPendingInvalidations(-size);
+                    nearCacheStats.addInvalidationLag(nanoTime() - receivedNanos);
+                }
+            }
+        }
+
+        @Override
+        public int getKey() {
+            return stripe;
+        }
+
+        @Override
+        public long getTimeout() {
+            // block the receiving thread when the stripe is full
+            return Long.MAX_VALUE;
+        }
+
+        @Override
+        public TimeUnit getTimeUnit() {
+            return TimeUnit.NANOSECONDS;
+        }
+    }
 }
@@ -21,6 +21,7 @@ import com.hazelcast.internal.nearcache.impl.DefaultNearCache;
 import com.hazelcast.internal.serialization.SerializationService;
 import com.hazelcast.internal.util.ConstructorFunction;
 import com.hazelcast.internal.util.ContextMutexFactory;
+import com.hazelcast.internal.util.executor.StripedExecutor;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.spi.impl.executionservice.TaskScheduler;
 import com.hazelcast.spi.properties.HazelcastProperties;
@@ -35,6 +36,7 @@ import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.hazelcast.internal.util.ConcurrencyUtil.getOrPutSynchronized;
 import static com.hazelcast.internal.util.Preconditions.checkNotNegative;
+import static com.hazelcast.internal.util.ThreadUtil.createThreadName;
 import static java.lang.String.format;
 import static java.lang.System.nanoTime;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
@@ -57,6 +59,10 @@ import static java.util.concurrent.TimeUnit.SECONDS;
  * {@link RepairingTask#MIN_RECONCILIATION_INTERVAL_SECONDS}).
  * </li>
  * </ul>
+ * <p>
+ * When {@link RepairingTask#INVALIDATION_APPLIER_THREAD_COUNT} is positive,
+ * this task also owns the striped executor which applies received
+ * invalidations of all its {@link RepairingHandler}s in parallel.
  */
 public final class RepairingTask implements Runnable {
 
@@ -67,6 +73,20 @@ public final class RepairingTask implements Runnable {
     // only used for testing
     public static final HazelcastProperty MIN_RECONCILIATION_INTERVAL_SECONDS
             = new HazelcastProperty("hazelcast.invalidation.min.reconciliation.interval.seconds", 30, SECONDS);
+    /**
+     * Number of threads applying received invalidations to the Near Caches.
+     * Invalidations are striped over the threads by their partition ID. When
+     * set to {@code 0}, invalidations are applied on the thread receiving
+     * them.
+     */
+    public static final HazelcastProperty INVALIDATION_APPLIER_THREAD_COUNT
+            = new HazelcastProperty("hazelcast.invalidation.applier.thread.count", 0);
+    /**
+     * Maximum number of invalidation batches waiting to be applied. When the
+     * limit is reached, the thread receiving invalidations is blocked.
+     */
+    public static final HazelcastProperty INVALIDATION_APPLIER_QUEUE_CAPACITY
+            = new HazelcastProperty("hazelcast.invalidation.applier.queue.capacity", 10000);
 
     private static final long RESCHEDULE_FAILED_INITIALIZATION_AFTER_MILLIS = 500;
 
@@ -83,12 +103,14 @@ public final class RepairingTask implements Runnable {
     private final AtomicBoolean running = new AtomicBoolean(false);
     private final ConcurrentMap<String, RepairingHandler> handlers = new ConcurrentHashMap<String, RepairingHandler>();
     private final ContextMutexFactory contextMutexFactory = new ContextMutexFactory();
+    private final StripedExecutor invalidationExecutor;
+    private final int invalidationApplierThreadCount;
 
     private volatile long lastAntiEntropyRunNanos;
 
     public RepairingTask(HazelcastProperties properties, InvalidationMetaDataFetcher invalidationMetaDataFetcher,
                          TaskScheduler scheduler, SerializationService serializationService,
-                         MinimalPartitionService partitionService, UUID localUuid, ILogger logger) {
+                         MinimalPartitionService partitionService, UUID localUuid, ILogger logger, String hzName) {
         this.reconciliationIntervalNanos = SECONDS.toNanos(getReconciliationIntervalSeconds(properties));
         this.maxToleratedMissCount = getMaxToleratedMissCount(properties);
         this.invalidationMetaDataFetcher = invalidationMetaDataFetcher;
@@ -98,6 +120,17 @@ public final class RepairingTask implements Runnable {
         this.partitionCount = partitionService.getPartitionCount();
         this.localUuid = localUuid;
         this.logger = logger;
+        this.invalidationApplierThreadCount = getInvalidationApplierThreadCount(properties);
+        this.invalidationExecutor = invalidationApplierThreadCount > 0
+                ? new StripedExecutor(logger, createThreadName(hzName, "invalidation-applier"),
+                invalidationApplierThreadCount, properties.getInteger(INVALIDATION_APPLIER_QUEUE_CAPACITY), true)
+                : null;
+    }
+
+    private int getInvalidationApplierThreadCount(HazelcastProperties properties) {
+        int threadCount = properties.getInteger(INVALIDATION_APPLIER_THREAD_COUNT);
+        return checkNotNegative(threadCount,
+                format("invalidation-applier-thread-count cannot be < 0 but found %d", threadCount));
     }
 
     private int getMaxToleratedMissCount(HazelcastProperties properties) {
@@ -184,7 +217,8 @@ public final class RepairingTask implements Runnable {
         @Override
         public RepairingHandler createNew(String dataStructureName) {
             RepairingHandler handler = new RepairingHandler(logger, localUuid, dataStructureName,
-                    nearCache, serializationService, partitionService);
+                    nearCache, serializationService, partitionService,
+                    invalidationExecutor, invalidationApplierThreadCount);
             StaleReadDetector staleReadDetector = new StaleReadDetectorImpl(handler, partitionService);
             nearCache.unwrap(DefaultNearCache.class).getNearCacheRecordStore().setStaleReadDetector(staleReadDetector);
 
@@ -210,6 +244,16 @@ public final class RepairingTask implements Runnable {
         handlers.remove(dataStructureName);
     }
 
+    /**
+     * Stops the threads applying invalidations, pending invalidations are
+     * discarded.
+     */
+    public void shutdown() {
+        if (invalidationExecutor != null && invalidationExecutor.isLive()) {
+            invalidationExecutor.shutdown();
+        }
+    }
+
     /**
      * Synchronously makes initial population of partition UUIDs & sequences.
      * <p>
@@ -18,6 +18,7 @@ package com.hazelcast.internal.nio.ascii;
 
 import com.hazelcast.internal.ascii.CommandParser;
 import com.hazelcast.internal.ascii.TextCommand;
+import com.hazelcast.internal.ascii.TextCommandPipeline;
 import com.hazelcast.internal.ascii.TextCommandService;
 import com.hazelcast.internal.ascii.memcache.ErrorCommand;
 import com.hazelcast.internal.ascii.rest.HttpCommand;
@@ -31,9 +32,12 @@ import com.hazelcast.logging.ILogger;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
 
 import static com.hazelcast.internal.ascii.TextCommandConstants.TextCommandType.ERROR_CLIENT;
 import static com.hazelcast.internal.ascii.TextCommandConstants.TextCommandType.UNKNOWN;
+import static com.hazelcast.internal.networking.HandlerStatus.BLOCKED;
 import static com.hazelcast.internal.networking.HandlerStatus.CLEAN;
 import static com.hazelcast.internal.nio.IOUtil.compactOrClear;
 
@@ -57,6 +61,9 @@ public abstract class TextDecoder extends InboundHandler<ByteBuffer, Void> {
     private final ILogger logger;
     private final TextParsers textParsers;
     private final boolean rootDecoder;
+    private final TextCommandPipeline pipeline;
+    private final List<TextCommand> receivedCommands = new ArrayList<>();
+    private final Runnable resumeReading = () -> channel.inboundPipeline().wakeup();
 
     public TextDecoder(ServerConnection connection, TextEncoder encoder, TextProtocolFilter textProtocolFilter,
                        TextParsers textParsers, boolean rootDecoder) {
@@ -68,6 +75,7 @@ public abstract class TextDecoder extends InboundHandler<ByteBuffer, Void> {
         this.textParsers = textParsers;
         this.logger = serverContext.getLoggingService().getLogger(getClass());
         this.rootDecoder = rootDecoder;
+        this.pipeline = textCommandService.createPipeline();
     }
 
     public void sendResponse(TextCommand command) {
@@ -83,6 +91,10 @@ public abstract class TextDecoder extends InboundHandler<ByteBuffer, Void> {
 
     @Override
     public HandlerStatus onRead() throws Exception {
+        if (textCommandService.awaitResponseQueueCapacity(resumeReading)) {
+            // backpressure, the responses are not written as fast as the commands are received
+            return BLOCKED;
+        }
         src.flip();
         try {
             while (src.hasRemaining()) {
@@ -92,6 +104,11 @@ public abstract class TextDecoder extends InboundHandler<ByteBuffer, Void> {
             return CLEAN;
         } finally {
             compactOrClear(src);
+            // the commands completed by this read are executed together, so pipelined ones can be batched
+            if (!receivedCommands.isEmpty()) {
+                pipeline.submit(receivedCommands);
+                receivedCommands.clear();
+            }
         }
     }
 
@@ -177,7 +194,7 @@ public abstract class TextDecoder extends InboundHandler<ByteBuffer, Void> {
         }
         long requestId = (command.shouldReply()) ? requestIdGen++ : -1;
         command.init(this, requestId);
-        textCommandService.processRequest(command);
+        receivedCommands.add(command);
     }
 
     private boolean isCommandTypeEnabled(TextCommand command) {
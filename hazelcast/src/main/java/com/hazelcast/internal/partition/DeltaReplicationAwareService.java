@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.partition;
+
+import com.hazelcast.internal.services.ServiceNamespace;
+import com.hazelcast.spi.impl.operationservice.Operation;
+import com.hazelcast.wan.impl.merkletree.MerkleTreeView;
+
+/**
+ * {@code DeltaReplicationAwareService} is an extension to the {@link FragmentedMigrationAwareService}
+ * which allows a backup replica fragment to be synchronized by transferring only the data which differs
+ * from the primary replica.
+ * <p>
+ * When a backup replica detects that a fragment is out of sync, it describes its local copy of the
+ * fragment with a Merkle tree created by {@link #createMerkleTree(int, ServiceNamespace)} and sends the
+ * leaves of the tree along with the replica sync request. The primary replica then compares the tree
+ * with its own copy in {@link #prepareDeltaReplicationOperation(PartitionReplicationEvent, ServiceNamespace,
+ * MerkleTreeView)} and replicates only the differing leaves. Fragments for which either side returns
+ * {@code null} are replicated in full.
+ *
+ * @see FragmentedMigrationAwareService
+ * @see DeltaReplicationOperation
+ */
+public interface DeltaReplicationAwareService extends FragmentedMigrationAwareService {
+
+    /**
+     * Creates a Merkle tree describing the local replica of the given fragment.
+     * <p>
+     * This method is called on the backup replica, on the partition thread.
+     *
+     * @param partitionId the partition ID
+     * @param namespace   the fragment namespace
+     * @return the Merkle tree or {@code null} if the fragment should be replicated in full
+     */
+    MerkleTreeView createMerkleTree(int partitionId, ServiceNamespace namespace);
+
+    /**
+     * Returns an operation which brings the backup replica described by {@code replicaTree} in sync
+     * with the local primary replica of the given fragment. The operation carries only the data
+     * which belongs to the Merkle tree leaves that differ, and removes the data of those leaves which
+     * no longer exists on the primary replica.
+     * <p>
+     * This method is called on the primary replica, on the partition thread. The returned operation
+     * should implement {@link DeltaReplicationOperation} to report how much data was not transferred.
+     *
+     * @param event       replication event
+     * @param namespace   the fragment namespace
+     * @param replicaTree the Merkle tree of the backup replica
+     * @return the replication operation or {@code null} if the fragment should be replicated in full
+     */
+    Operation prepareDeltaReplicationOperation(PartitionReplicationEvent event, ServiceNamespace namespace,
+                                               MerkleTreeView replicaTree);
+}
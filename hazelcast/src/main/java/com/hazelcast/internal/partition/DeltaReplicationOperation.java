@@ -0,0 +1,33 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.partition;
+
+/**
+ * Implemented by the replication operations created by
+ * {@link DeltaReplicationAwareService#prepareDeltaReplicationOperation}
+ * to report the amount of replica data which did not have to be transferred.
+ */
+public interface DeltaReplicationOperation {
+
+    /**
+     * Returns the estimated serialized size of the data which was found to
+     * be in sync and is not carried by this operation.
+     *
+     * @return the estimated number of bytes saved
+     */
+    long getSavedBytes();
+}
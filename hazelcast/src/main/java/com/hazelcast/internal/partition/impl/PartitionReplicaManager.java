@@ -18,7 +18,10 @@ package com.hazelcast.internal.partition.impl;
 
 import com.hazelcast.cluster.Member;
 import com.hazelcast.instance.impl.Node;
+import com.hazelcast.internal.cluster.Versions;
 import com.hazelcast.internal.metrics.Probe;
+import com.hazelcast.internal.metrics.ProbeUnit;
+import com.hazelcast.internal.partition.DeltaReplicationAwareService;
 import com.hazelcast.internal.partition.InternalPartition;
 import com.hazelcast.internal.partition.NonFragmentedServiceNamespace;
 import com.hazelcast.internal.partition.PartitionReplica;
@@ -37,9 +40,11 @@ import com.hazelcast.logging.ILogger;
 import com.hazelcast.spi.impl.NodeEngineImpl;
 import com.hazelcast.spi.impl.executionservice.ExecutionService;
 import com.hazelcast.spi.impl.executionservice.TaskScheduler;
+import com.hazelcast.spi.impl.operationexecutor.impl.PartitionOperationThread;
 import com.hazelcast.spi.impl.operationservice.Operation;
 import com.hazelcast.spi.properties.ClusterProperty;
 import com.hazelcast.spi.properties.HazelcastProperties;
+import com.hazelcast.wan.impl.merkletree.MerkleTreeView;
 
 import javax.annotation.Nonnull;
 import java.util.ArrayDeque;
@@ -49,6 +54,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
@@ -56,8 +62,12 @@ import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.PARTITIONS_METRIC_PARTITION_REPLICA_MANAGER_DELTA_SYNC_COUNTER;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.PARTITIONS_METRIC_PARTITION_REPLICA_MANAGER_DELTA_SYNC_SAVED_BYTES;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.PARTITIONS_METRIC_PARTITION_REPLICA_MANAGER_DELTA_SYNC_SKIPPED_COUNTER;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.PARTITIONS_METRIC_PARTITION_REPLICA_MANAGER_REPLICA_SYNC_SEMAPHORE;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.PARTITIONS_METRIC_PARTITION_REPLICA_MANAGER_SYNC_REQUEST_COUNTER;
+import static com.hazelcast.internal.util.MapUtil.createHashMap;
 import static com.hazelcast.internal.util.counters.MwCounter.newMwCounter;
 import static java.lang.String.format;
 import static java.util.Collections.newSetFromMap;
@@ -83,6 +93,12 @@ public class PartitionReplicaManager implements PartitionReplicaVersionManager {
     private final Semaphore replicaSyncSemaphore;
     @Probe(name = PARTITIONS_METRIC_PARTITION_REPLICA_MANAGER_SYNC_REQUEST_COUNTER)
     private final MwCounter replicaSyncRequestsCounter = newMwCounter();
+    @Probe(name = PARTITIONS_METRIC_PARTITION_REPLICA_MANAGER_DELTA_SYNC_COUNTER)
+    private final MwCounter deltaReplicaSyncCounter = newMwCounter();
+    @Probe(name = PARTITIONS_METRIC_PARTITION_REPLICA_MANAGER_DELTA_SYNC_SAVED_BYTES, unit = ProbeUnit.BYTES)
+    private final MwCounter deltaReplicaSyncSavedBytes = newMwCounter();
+    @Probe(name = PARTITIONS_METRIC_PARTITION_REPLICA_MANAGER_DELTA_SYNC_SKIPPED_COUNTER)
+    private final MwCounter deltaReplicaSyncSkippedCounter = newMwCounter();
 
     private final long partitionMigrationTimeout;
     private final int maxParallelReplications;
@@ -235,10 +251,65 @@ public class PartitionReplicaManager implements PartitionReplicaVersionManager {
         }
         replicaSyncRequestsCounter.inc();
 
-        PartitionReplicaSyncRequest syncRequest = new PartitionReplicaSyncRequest(partitionId, namespaces, replicaIndex);
+        Map<ServiceNamespace, MerkleTreeView> merkleTrees = createMerkleTrees(partitionId, namespaces);
+        PartitionReplicaSyncRequest syncRequest =
+                new PartitionReplicaSyncRequest(partitionId, namespaces, replicaIndex, merkleTrees);
         nodeEngine.getOperationService().send(syncRequest, target.address());
     }
 
+    /**
+     * Creates the Merkle trees of the local replicas of the namespaces which support delta replication,
+     * so that the partition owner can send only the differing data. The trees are created only when the
+     * whole cluster understands them and only on the partition thread, otherwise the namespaces are
+     * synchronized in full.
+     */
+    private Map<ServiceNamespace, MerkleTreeView> createMerkleTrees(int partitionId, List<ServiceNamespace> namespaces) {
+        if (!nodeEngine.getClusterService().getClusterVersion().isGreaterOrEqual(Versions.V4_2)) {
+            return Collections.emptyMap();
+        }
+        boolean onPartitionThread = Thread.currentThread() instanceof PartitionOperationThread;
+        Map<ServiceNamespace, MerkleTreeView> merkleTrees = null;
+        for (DeltaReplicationAwareService service : nodeEngine.getServices(DeltaReplicationAwareService.class)) {
+            for (ServiceNamespace namespace : namespaces) {
+                if (!service.isKnownServiceNamespace(namespace)) {
+                    continue;
+                }
+                if (!onPartitionThread) {
+                    logDeltaReplicaSyncSkipped(partitionId, namespace);
+                    continue;
+                }
+                MerkleTreeView merkleTree = service.createMerkleTree(partitionId, namespace);
+                if (merkleTree != null) {
+                    if (merkleTrees == null) {
+                        merkleTrees = createHashMap(namespaces.size());
+                    }
+                    merkleTrees.put(namespace, merkleTree);
+                }
+            }
+        }
+        return merkleTrees != null ? merkleTrees : Collections.emptyMap();
+    }
+
+    private void logDeltaReplicaSyncSkipped(int partitionId, ServiceNamespace namespace) {
+        deltaReplicaSyncSkippedCounter.inc();
+        if (logger.isFineEnabled()) {
+            logger.fine("Replica sync of partitionId=" + partitionId + ", namespace=" + namespace
+                    + " is requested outside of the partition thread " + Thread.currentThread().getName()
+                    + ", it will be synchronized in full.");
+        }
+    }
+
+    /**
+     * Called on the partition owner when a replica fragment is synchronized by
+     * transferring only the data which differs on the replica.
+     *
+     * @param savedBytes the estimated number of bytes which did not have to be transferred
+     */
+    public void onDeltaReplicaSync(long savedBytes) {
+        deltaReplicaSyncCounter.inc();
+        deltaReplicaSyncSavedBytes.inc(savedBytes);
+    }
+
     private List<ServiceNamespace> registerSyncInfoForNamespaces(int partitionId,
                                                                  Collection<ServiceNamespace> requestedNamespaces,
                                                                  int replicaIndex, PartitionReplica target, int permits) {
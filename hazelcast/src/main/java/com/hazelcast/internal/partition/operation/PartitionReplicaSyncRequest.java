@@ -16,6 +16,9 @@
 
 package com.hazelcast.internal.partition.operation;
 
+import com.hazelcast.internal.cluster.Versions;
+import com.hazelcast.internal.partition.DeltaReplicationAwareService;
+import com.hazelcast.internal.partition.DeltaReplicationOperation;
 import com.hazelcast.internal.partition.InternalPartition;
 import com.hazelcast.internal.partition.InternalPartitionService;
 import com.hazelcast.internal.partition.MigrationCycleOperation;
@@ -31,21 +34,30 @@ import com.hazelcast.logging.ILogger;
 import com.hazelcast.cluster.Address;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.impl.Versioned;
+import com.hazelcast.spi.impl.servicemanager.ServiceInfo;
 import com.hazelcast.spi.impl.NodeEngine;
+import com.hazelcast.spi.impl.NodeEngineImpl;
 import com.hazelcast.spi.impl.operationservice.Operation;
 import com.hazelcast.spi.impl.operationservice.OperationService;
 import com.hazelcast.internal.partition.PartitionReplicationEvent;
 import com.hazelcast.spi.impl.operationservice.PartitionAwareOperation;
 import com.hazelcast.internal.services.ServiceNamespace;
+import com.hazelcast.version.Version;
+import com.hazelcast.wan.impl.merkletree.MerkleTreeUtil;
+import com.hazelcast.wan.impl.merkletree.MerkleTreeView;
 
 import java.io.IOException;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 
 import static com.hazelcast.internal.serialization.impl.SerializationUtil.readList;
 import static com.hazelcast.internal.serialization.impl.SerializationUtil.writeList;
+import static com.hazelcast.internal.util.MapUtil.createHashMap;
+import static java.util.Collections.singleton;
 
 /**
  * The request sent from a replica to the partition owner to synchronize the replica data. The partition owner can send a
@@ -56,18 +68,30 @@ import static com.hazelcast.internal.serialization.impl.SerializationUtil.writeL
  * <li>the maximum number of parallel synchronizations has already been reached</li>
  * </ul>
  * An empty response can be sent if the current replica version is 0.
+ * <p>
+ * The request may carry the Merkle trees of the replica's copy of some namespaces, in which case only
+ * the differing data of those namespaces is sent, see {@link DeltaReplicationAwareService}. The Merkle trees
+ * are sent only when the cluster version is at least 4.2.
  */
 public final class PartitionReplicaSyncRequest extends AbstractPartitionOperation
-        implements PartitionAwareOperation, MigrationCycleOperation {
+        implements PartitionAwareOperation, MigrationCycleOperation, Versioned {
 
     private List<ServiceNamespace> namespaces;
+    private Map<ServiceNamespace, MerkleTreeView> merkleTrees;
 
     public PartitionReplicaSyncRequest() {
         namespaces = Collections.emptyList();
+        merkleTrees = Collections.emptyMap();
     }
 
     public PartitionReplicaSyncRequest(int partitionId, List<ServiceNamespace> namespaces, int replicaIndex) {
+        this(partitionId, namespaces, replicaIndex, Collections.emptyMap());
+    }
+
+    public PartitionReplicaSyncRequest(int partitionId, List<ServiceNamespace> namespaces, int replicaIndex,
+                                       Map<ServiceNamespace, MerkleTreeView> merkleTrees) {
         this.namespaces = namespaces;
+        this.merkleTrees = merkleTrees;
         setPartitionId(partitionId);
         setReplicaIndex(replicaIndex);
     }
@@ -137,7 +161,10 @@ public final class PartitionReplicaSyncRequest extends AbstractPartitionOperatio
                 if (NonFragmentedServiceNamespace.INSTANCE.equals(namespace)) {
                     operations = createNonFragmentedReplicationOperations(event);
                 } else {
-                    operations = createFragmentReplicationOperations(event, namespace);
+                    operations = createDeltaReplicationOperations(event, namespace);
+                    if (operations == null) {
+                        operations = createFragmentReplicationOperations(event, namespace);
+                    }
                 }
                 sendOperations(operations, namespace);
                 iterator.remove();
@@ -147,6 +174,36 @@ public final class PartitionReplicaSyncRequest extends AbstractPartitionOperatio
         }
     }
 
+    /**
+     * Creates the operation sending only the data which differs on the replica, if the replica
+     * sent a Merkle tree for the namespace. Returns {@code null} if the namespace has to be
+     * replicated in full.
+     */
+    private Collection<Operation> createDeltaReplicationOperations(PartitionReplicationEvent event, ServiceNamespace ns) {
+        MerkleTreeView replicaTree = merkleTrees.get(ns);
+        if (replicaTree == null) {
+            return null;
+        }
+        NodeEngineImpl nodeEngine = (NodeEngineImpl) getNodeEngine();
+        for (ServiceInfo serviceInfo : nodeEngine.getServiceInfos(DeltaReplicationAwareService.class)) {
+            DeltaReplicationAwareService service = serviceInfo.getService();
+            if (!service.isKnownServiceNamespace(ns)) {
+                continue;
+            }
+            Operation op = service.prepareDeltaReplicationOperation(event, ns, replicaTree);
+            if (op == null) {
+                return null;
+            }
+            op.setServiceName(serviceInfo.getName());
+            if (op instanceof DeltaReplicationOperation) {
+                InternalPartitionServiceImpl partitionService = getService();
+                partitionService.getReplicaManager().onDeltaReplicaSync(((DeltaReplicationOperation) op).getSavedBytes());
+            }
+            return singleton(op);
+        }
+        return null;
+    }
+
     private void sendOperations(Collection<Operation> operations, ServiceNamespace ns) {
         if (operations.isEmpty()) {
             logNoReplicaDataFound(getPartitionId(), ns, getReplicaIndex());
@@ -254,12 +311,35 @@ public final class PartitionReplicaSyncRequest extends AbstractPartitionOperatio
 
     @Override
     protected void writeInternal(ObjectDataOutput out) throws IOException {
+        // nested objects may change the version of the stream
+        Version version = out.getVersion();
         writeList(namespaces, out);
+        if (version.isLessThan(Versions.V4_2)) {
+            // members of older versions don't know the Merkle trees, the namespaces are synchronized in full
+            return;
+        }
+        out.writeInt(merkleTrees.size());
+        for (Map.Entry<ServiceNamespace, MerkleTreeView> entry : merkleTrees.entrySet()) {
+            out.writeObject(entry.getKey());
+            MerkleTreeUtil.writeLeaves(out, entry.getValue());
+        }
     }
 
     @Override
     protected void readInternal(ObjectDataInput in) throws IOException {
+        Version version = in.getVersion();
         namespaces = readList(in);
+        if (version.isLessThan(Versions.V4_2)) {
+            return;
+        }
+        int merkleTreeCount = in.readInt();
+        if (merkleTreeCount > 0) {
+            merkleTrees = createHashMap(merkleTreeCount);
+            for (int i = 0; i < merkleTreeCount; i++) {
+                ServiceNamespace namespace = in.readObject();
+                merkleTrees.put(namespace, MerkleTreeUtil.createRemoteMerkleTreeView(in));
+            }
+        }
     }
 
     @Override
@@ -0,0 +1,278 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.util;
+
+import com.hazelcast.internal.metrics.Probe;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.LATENCY_HISTOGRAM_METRIC_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.LATENCY_HISTOGRAM_METRIC_MAX;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.LATENCY_HISTOGRAM_METRIC_P50;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.LATENCY_HISTOGRAM_METRIC_P99;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.LATENCY_HISTOGRAM_METRIC_P999;
+import static com.hazelcast.internal.metrics.ProbeUnit.US;
+import static com.hazelcast.internal.util.Preconditions.checkTrue;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.atomic.AtomicReferenceFieldUpdater.newUpdater;
+
+/**
+ * A lock-free latency histogram with a bounded relative error.
+ * <p>
+ * The latencies are recorded in microseconds. Every power of two range
+ * of latencies is split into {@code 2^precisionBits} equally sized
+ * buckets, so a latency is reported with a relative error of at most
+ * {@code 2^-precisionBits}. Latencies longer than {@code 2^32} µs
+ * (about 71 minutes) are recorded as the longest trackable latency.
+ * <p>
+ * Recording is a single atomic increment and can be done concurrently
+ * by any number of threads. The percentiles exposed as probes are
+ * calculated by {@link #updateIntervalPercentiles()} from the latencies
+ * recorded since the previous interval ended, so they describe the latest
+ * metrics collection interval rather than the whole lifetime of the
+ * histogram. An interval ends at most once per half of its configured
+ * length, so several metrics collectors reading the probes in the same
+ * collection round see the same percentiles.
+ * <p>
+ * The buckets are allocated when the first latency is recorded, so a
+ * histogram which is never used only costs its object header.
+ */
+public final class LatencyHistogram {
+
+    /**
+     * The maximum supported precision.
+     */
+    public static final int MAX_PRECISION_BITS = 10;
+
+    private static final int MAX_VALUE_BITS = 32;
+    private static final long MAX_VALUE_MICROS = (1L << MAX_VALUE_BITS) - 1;
+    private static final double P50 = 0.5;
+    private static final double P99 = 0.99;
+    private static final double P999 = 0.999;
+    private static final AtomicReferenceFieldUpdater<LatencyHistogram, AtomicLongArray> BUCKETS =
+            newUpdater(LatencyHistogram.class, AtomicLongArray.class, "buckets");
+
+    private final int precisionBits;
+    private final int subBucketCount;
+    private final int bucketCount;
+    private final long minIntervalNanos;
+    private volatile AtomicLongArray buckets;
+
+    // guarded by this, only used to calculate the interval percentiles
+    private long[] previousCounts;
+    private long[] intervalCounts;
+    private long intervalStartNanos;
+    private boolean intervalStarted;
+
+    @Probe(name = LATENCY_HISTOGRAM_METRIC_COUNT)
+    private volatile long intervalCount;
+    @Probe(name = LATENCY_HISTOGRAM_METRIC_P50, unit = US)
+    private volatile long intervalP50Micros;
+    @Probe(name = LATENCY_HISTOGRAM_METRIC_P99, unit = US)
+    private volatile long intervalP99Micros;
+    @Probe(name = LATENCY_HISTOGRAM_METRIC_P999, unit = US)
+    private volatile long intervalP999Micros;
+    @Probe(name = LATENCY_HISTOGRAM_METRIC_MAX, unit = US)
+    private volatile long intervalMaxMicros;
+
+    /**
+     * Creates a histogram which ends the interval on every call of
+     * {@link #updateIntervalPercentiles()}.
+     *
+     * @param precisionBits the number of bits of a latency kept by the
+     *                      histogram, between 1 and {@link #MAX_PRECISION_BITS}
+     */
+    public LatencyHistogram(int precisionBits) {
+        this(precisionBits, 0);
+    }
+
+    /**
+     * @param precisionBits  the number of bits of a latency kept by the
+     *                       histogram, between 1 and {@link #MAX_PRECISION_BITS}
+     * @param intervalMillis the length of the interval described by the
+     *                       percentiles, usually the metrics collection
+     *                       frequency
+     */
+    public LatencyHistogram(int precisionBits, long intervalMillis) {
+        checkTrue(precisionBits > 0 && precisionBits <= MAX_PRECISION_BITS,
+                "precisionBits must be between 1 and " + MAX_PRECISION_BITS + ", but is " + precisionBits);
+        this.precisionBits = precisionBits;
+        this.subBucketCount = 1 << precisionBits;
+        this.bucketCount = (MAX_VALUE_BITS - precisionBits + 1) * subBucketCount;
+        // half of the interval, so a collector running slightly early still ends its interval
+        this.minIntervalNanos = MILLISECONDS.toNanos(intervalMillis) / 2;
+    }
+
+    public void recordNanos(long durationNanos) {
+        // nano clock is not guaranteed to be monotonic, record it as zero to count it at least
+        long micros = durationNanos <= 0 ? 0 : NANOSECONDS.toMicros(durationNanos);
+        getOrCreateBuckets().incrementAndGet(bucketIndex(Math.min(micros, MAX_VALUE_MICROS)));
+    }
+
+    private AtomicLongArray getOrCreateBuckets() {
+        AtomicLongArray current = buckets;
+        if (current != null) {
+            return current;
+        }
+        BUCKETS.compareAndSet(this, null, new AtomicLongArray(bucketCount));
+        return buckets;
+    }
+
+    /**
+     * Returns the total number of recorded latencies.
+     */
+    public long count() {
+        AtomicLongArray current = buckets;
+        if (current == null) {
+            return 0;
+        }
+        long count = 0;
+        for (int i = 0; i < current.length(); i++) {
+            count += current.get(i);
+        }
+        return count;
+    }
+
+    /**
+     * Returns the latency in microseconds at the given percentile of all
+     * recorded latencies or 0, if none has been recorded.
+     *
+     * @param percentile the percentile between 0 and 1
+     */
+    public long valueAtPercentile(double percentile) {
+        AtomicLongArray current = buckets;
+        if (current == null) {
+            return 0;
+        }
+        long[] counts = new long[current.length()];
+        long count = 0;
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = current.get(i);
+            count += counts[i];
+        }
+        return valueAtPercentile(counts, count, percentile);
+    }
+
+    public long getIntervalCount() {
+        return intervalCount;
+    }
+
+    public long getIntervalP50Micros() {
+        return intervalP50Micros;
+    }
+
+    public long getIntervalP99Micros() {
+        return intervalP99Micros;
+    }
+
+    public long getIntervalP999Micros() {
+        return intervalP999Micros;
+    }
+
+    public long getIntervalMaxMicros() {
+        return intervalMaxMicros;
+    }
+
+    /**
+     * Ends the current interval and calculates the percentiles exposed as
+     * probes from the latencies recorded in it, unless the interval
+     * started less than half of the interval length ago. Supposed to be
+     * called right before the probes of this histogram are collected.
+     */
+    public void updateIntervalPercentiles() {
+        updateIntervalPercentiles(System.nanoTime());
+    }
+
+    // package-private for testing
+    synchronized void updateIntervalPercentiles(long nowNanos) {
+        AtomicLongArray currentBuckets = buckets;
+        if (currentBuckets == null) {
+            return;
+        }
+        if (intervalStarted && nowNanos - intervalStartNanos < minIntervalNanos) {
+            return;
+        }
+        intervalStarted = true;
+        intervalStartNanos = nowNanos;
+        if (intervalCounts == null) {
+            previousCounts = new long[bucketCount];
+            intervalCounts = new long[bucketCount];
+        }
+
+        long count = 0;
+        long maxMicros = 0;
+        for (int i = 0; i < intervalCounts.length; i++) {
+            long current = currentBuckets.get(i);
+            long delta = current - previousCounts[i];
+            previousCounts[i] = current;
+            intervalCounts[i] = delta;
+            count += delta;
+            if (delta > 0) {
+                maxMicros = bucketMaxMicros(i);
+            }
+        }
+
+        intervalCount = count;
+        intervalP50Micros = valueAtPercentile(intervalCounts, count, P50);
+        intervalP99Micros = valueAtPercentile(intervalCounts, count, P99);
+        intervalP999Micros = valueAtPercentile(intervalCounts, count, P999);
+        intervalMaxMicros = maxMicros;
+    }
+
+    private long valueAtPercentile(long[] counts, long count, double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile * count));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return bucketMaxMicros(i);
+            }
+        }
+        return bucketMaxMicros(counts.length - 1);
+    }
+
+    // package-private for testing
+    int bucketIndex(long micros) {
+        if (micros < subBucketCount) {
+            return (int) micros;
+        }
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(micros);
+        int shift = exponent - precisionBits;
+        int subBucket = (int) (micros >>> shift) - subBucketCount;
+        return subBucketCount + shift * subBucketCount + subBucket;
+    }
+
+    /**
+     * Returns the highest latency in microseconds recorded into the bucket
+     * with the given index.
+     */
+    // package-private for testing
+    long bucketMaxMicros(int index) {
+        if (index < subBucketCount) {
+            return index;
+        }
+        int shift = (index - subBucketCount) / subBucketCount;
+        int subBucket = (index - subBucketCount) % subBucketCount;
+        long min = (long) (subBucketCount + subBucket) << shift;
+        return min + (1L << shift) - 1;
+    }
+}
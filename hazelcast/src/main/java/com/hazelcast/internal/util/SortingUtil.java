@@ -16,6 +16,7 @@
 
 package com.hazelcast.internal.util;
 
+import com.hazelcast.internal.util.collection.TopN;
 import com.hazelcast.query.PagingPredicate;
 import com.hazelcast.query.impl.CachedQueryEntry;
 import com.hazelcast.query.impl.QueryableEntry;
@@ -124,11 +125,43 @@ public final class SortingUtil {
         return (entry1, entry2) -> SortingUtil.compare(comparator, iterationType, entry1, entry2);
     }
 
-    private static Comparator<QueryableEntry> newComparator(final PagingPredicateImpl pagingPredicate) {
+    public static Comparator<QueryableEntry> newComparator(final PagingPredicateImpl pagingPredicate) {
         return (entry1, entry2) ->
                 SortingUtil.compare(pagingPredicate.getComparator(), pagingPredicate.getIterationType(), entry1, entry2);
     }
 
+    /**
+     * Returns the number of entries a member has to return for the current
+     * page of the paging predicate: the entries of the pages between the
+     * nearest anchor and the current page.
+     *
+     * @param pagingPredicate    the paging predicate
+     * @param nearestAnchorEntry the nearest anchor entry of the paging predicate
+     * @return the number of entries to return
+     */
+    public static long getPageLimit(PagingPredicate pagingPredicate, Map.Entry<Integer, Map.Entry> nearestAnchorEntry) {
+        return pagingPredicate.getPageSize() * ((long) pagingPredicate.getPage() - nearestAnchorEntry.getKey());
+    }
+
+    /**
+     * Sorts the {@code n} smallest elements of the list to its head. The
+     * rest of the list is left in an unspecified order. If {@code n} is less
+     * than the size of the list, a bounded heap is used instead of sorting
+     * the whole list.
+     */
+    private static <E> void sortHead(List<E> list, Comparator<? super E> comparator, long n) {
+        if (list.size() <= n) {
+            list.sort(comparator);
+            return;
+        }
+        TopN<E> topN = new TopN<>(n, comparator);
+        topN.addAll(list);
+        List<E> head = topN.toSortedList();
+        for (int i = 0; i < head.size(); i++) {
+            list.set(i, head.get(i));
+        }
+    }
+
     public static List<QueryableEntry> getSortedSubList(List<QueryableEntry> list, PagingPredicate pagingPredicate,
                                                         Map.Entry<Integer, Map.Entry> nearestAnchorEntry) {
         if (pagingPredicate == null || list.isEmpty()) {
@@ -136,11 +169,8 @@ public final class SortingUtil {
         }
         PagingPredicateImpl pagingPredicateImpl = (PagingPredicateImpl) pagingPredicate;
         Comparator<QueryableEntry> comparator = newComparator(pagingPredicateImpl);
-        Collections.sort(list, comparator);
-        int nearestPage = nearestAnchorEntry.getKey();
-        int pageSize = pagingPredicate.getPageSize();
-        int page = pagingPredicate.getPage();
-        long totalSize = pageSize * ((long) page - nearestPage);
+        long totalSize = getPageLimit(pagingPredicate, nearestAnchorEntry);
+        sortHead(list, comparator, totalSize);
         if (list.size() > totalSize) {
             // it's safe to cast totalSize back to int here since it's limited by the list size
             list = list.subList(0, (int) totalSize);
@@ -227,9 +257,10 @@ public final class SortingUtil {
         }
         PagingPredicateImpl pagingPredicateImpl = (PagingPredicateImpl) pagingPredicate;
         Comparator<Map.Entry> comparator = SortingUtil.newComparator(pagingPredicateImpl.getComparator(), iterationType);
-        Collections.sort(list, comparator);
-
         Map.Entry<Integer, Map.Entry> nearestAnchorEntry = pagingPredicateImpl.getNearestAnchorEntry();
+        // only the entries up to the end of the current page need to be sorted
+        sortHead(list, comparator, getPageLimit(pagingPredicateImpl, nearestAnchorEntry));
+
         int nearestPage = nearestAnchorEntry.getKey();
         int page = pagingPredicateImpl.getPage();
         int pageSize = pagingPredicateImpl.getPageSize();
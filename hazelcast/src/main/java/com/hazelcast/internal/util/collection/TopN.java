@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.util.collection;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Keeps the {@code n} smallest of the items added to it, according to the
+ * given comparator. The items are kept in a max-heap, so adding an item
+ * takes {@code O(log n)} time and the memory is bounded by {@code n} items
+ * regardless of the number of items added.
+ * <p>
+ * This class is not thread-safe.
+ *
+ * @param <T> the type of the items
+ */
+public class TopN<T> {
+
+    private static final int MAX_INITIAL_CAPACITY = 1024;
+
+    private final int n;
+    private final Comparator<? super T> comparator;
+    private final PriorityQueue<T> heap;
+
+    /**
+     * @param n          the maximum number of items to keep, larger
+     *                   values are capped to {@link Integer#MAX_VALUE}
+     * @param comparator the comparator ordering the items
+     */
+    public TopN(long n, Comparator<? super T> comparator) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("n must be positive, but was " + n);
+        }
+        this.n = (int) Math.min(n, Integer.MAX_VALUE);
+        this.comparator = comparator;
+        this.heap = new PriorityQueue<>(Math.min(this.n, MAX_INITIAL_CAPACITY), Collections.reverseOrder(comparator));
+    }
+
+    /**
+     * Adds the item if it's among the {@code n} smallest items added so far.
+     *
+     * @param item the item to add
+     * @return {@code true} if the item was kept, {@code false} otherwise
+     */
+    public boolean add(T item) {
+        if (heap.size() < n) {
+            heap.offer(item);
+            return true;
+        }
+        if (comparator.compare(item, heap.peek()) >= 0) {
+            return false;
+        }
+        heap.poll();
+        heap.offer(item);
+        return true;
+    }
+
+    /**
+     * Adds all the given items.
+     *
+     * @param items the items to add
+     */
+    public void addAll(Iterable<? extends T> items) {
+        for (T item : items) {
+            add(item);
+        }
+    }
+
+    public int size() {
+        return heap.size();
+    }
+
+    /**
+     * @return a new list of the kept items in ascending order
+     */
+    public List<T> toSortedList() {
+        List<T> list = new ArrayList<>(heap);
+        list.sort(comparator);
+        return list;
+    }
+}
@@ -49,8 +49,10 @@ import java.util.concurrent.ConcurrentMap;
 
 import static com.hazelcast.config.InMemoryFormat.NATIVE;
 import static com.hazelcast.map.impl.MapService.SERVICE_NAME;
+import static com.hazelcast.spi.properties.ClusterProperty.METRICS_LATENCY_HISTOGRAM_PRECISION;
 import static java.lang.Thread.currentThread;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
 
 /**
  * Provides node local statistics of a map via {@link #createLocalMapStats}
@@ -71,8 +73,7 @@ public class LocalMapStatsProvider {
     private final MapNearCacheManager mapNearCacheManager;
     private final IPartitionService partitionService;
     private final ConcurrentMap<String, LocalMapStatsImpl> statsMap;
-    private final ConstructorFunction<String, LocalMapStatsImpl> constructorFunction =
-            key -> new LocalMapStatsImpl();
+    private final ConstructorFunction<String, LocalMapStatsImpl> constructorFunction;
 
     public LocalMapStatsProvider(MapServiceContext mapServiceContext) {
         this.mapServiceContext = mapServiceContext;
@@ -83,6 +84,9 @@ public class LocalMapStatsProvider {
         this.partitionService = nodeEngine.getPartitionService();
         this.localAddress = clusterService.getThisAddress();
         this.statsMap = MapUtil.createConcurrentHashMap(nodeEngine.getConfig().getMapConfigs().size());
+        int latencyHistogramPrecision = nodeEngine.getProperties().getInteger(METRICS_LATENCY_HISTOGRAM_PRECISION);
+        long latencyIntervalMillis = SECONDS.toMillis(nodeEngine.getConfig().getMetricsConfig().getCollectionFrequencySeconds());
+        this.constructorFunction = key -> new LocalMapStatsImpl(latencyHistogramPrecision, latencyIntervalMillis);
     }
 
     protected MapServiceContext getMapServiceContext() {
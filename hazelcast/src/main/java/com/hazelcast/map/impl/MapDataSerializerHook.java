@@ -81,6 +81,7 @@ import com.hazelcast.map.impl.operation.MapSizeOperation;
 import com.hazelcast.map.impl.operation.MergeOperation;
 import com.hazelcast.map.impl.operation.MergeOperationFactory;
 import com.hazelcast.map.impl.operation.MultipleEntryBackupOperation;
+import com.hazelcast.map.impl.operation.MultipleEntryOffloadableSetUnlockOperation;
 import com.hazelcast.map.impl.operation.MultipleEntryOperation;
 import com.hazelcast.map.impl.operation.MultipleEntryOperationFactory;
 import com.hazelcast.map.impl.operation.MultipleEntryWithPredicateBackupOperation;
@@ -132,6 +133,7 @@ import com.hazelcast.map.impl.query.QueryResultRow;
 import com.hazelcast.map.impl.query.ResultSegment;
 import com.hazelcast.map.impl.querycache.accumulator.AccumulatorInfo;
 import com.hazelcast.map.impl.querycache.accumulator.ConsumeAccumulatorOperation;
+import com.hazelcast.map.impl.querycache.event.PackedBatchEventData;
 import com.hazelcast.map.impl.querycache.subscriber.operation.DestroyQueryCacheOperation;
 import com.hazelcast.map.impl.querycache.subscriber.operation.MadePublishableOperation;
 import com.hazelcast.map.impl.querycache.subscriber.operation.MadePublishableOperationFactory;
@@ -314,8 +316,10 @@ public final class MapDataSerializerHook implements DataSerializerHook {
     public static final int COMPUTE_MAP_OPERATION_PROCESSOR = 151;
     public static final int MERGE_MAP_OPERATION_PROCESSOR = 152;
     public static final int MAP_ENTRY_REPLACING_PROCESSOR = 153;
+    public static final int MULTIPLE_ENTRY_OFFLOADABLE_SET_UNLOCK = 154;
+    public static final int PACKED_BATCH_EVENT_DATA = 155;
 
-    private static final int LEN = MAP_ENTRY_REPLACING_PROCESSOR + 1;
+    private static final int LEN = PACKED_BATCH_EVENT_DATA + 1;
 
     @Override
     public int getFactoryId() {
@@ -476,6 +480,8 @@ public final class MapDataSerializerHook implements DataSerializerHook {
         constructors[COMPUTE_MAP_OPERATION_PROCESSOR] = arg -> new ComputeEntryProcessor<>();
         constructors[MERGE_MAP_OPERATION_PROCESSOR] = arg -> new MergeEntryProcessor<>();
         constructors[MAP_ENTRY_REPLACING_PROCESSOR] = arg -> new MapEntryReplacingEntryProcessor<>();
+        constructors[MULTIPLE_ENTRY_OFFLOADABLE_SET_UNLOCK] = arg -> new MultipleEntryOffloadableSetUnlockOperation();
+        constructors[PACKED_BATCH_EVENT_DATA] = arg -> new PackedBatchEventData();
 
         return new ArrayDataSerializableFactory(constructors);
     }
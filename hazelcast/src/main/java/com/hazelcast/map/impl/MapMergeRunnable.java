@@ -19,6 +19,7 @@ package com.hazelcast.map.impl;
 import com.hazelcast.config.InMemoryFormat;
 import com.hazelcast.config.MapConfig;
 import com.hazelcast.config.MergePolicyConfig;
+import com.hazelcast.config.MerkleTreeConfig;
 import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.map.impl.operation.MapOperationProvider;
 import com.hazelcast.map.impl.record.Record;
@@ -68,6 +69,12 @@ class MapMergeRunnable extends AbstractMergeRunnable<Object, Object, RecordStore
         return mergePolicyConfig.getBatchSize();
     }
 
+    @Override
+    protected int getMerkleTreeDepth(String dataStructureName) {
+        MerkleTreeConfig merkleTreeConfig = getMapConfig(dataStructureName).getMerkleTreeConfig();
+        return merkleTreeConfig.isEnabled() ? merkleTreeConfig.getDepth() : 0;
+    }
+
     @Override
     protected InMemoryFormat getInMemoryFormat(String dataStructureName) {
         MapConfig mapConfig = getMapConfig(dataStructureName);
@@ -23,7 +23,8 @@ import com.hazelcast.internal.cluster.ClusterStateListener;
 import com.hazelcast.internal.metrics.DynamicMetricsProvider;
 import com.hazelcast.internal.metrics.MetricDescriptor;
 import com.hazelcast.internal.metrics.MetricsCollectionContext;
-import com.hazelcast.internal.partition.FragmentedMigrationAwareService;
+import com.hazelcast.internal.monitor.impl.LocalMapStatsImpl;
+import com.hazelcast.internal.partition.DeltaReplicationAwareService;
 import com.hazelcast.internal.partition.IPartitionLostEvent;
 import com.hazelcast.internal.partition.PartitionAwareService;
 import com.hazelcast.internal.partition.PartitionMigrationEvent;
@@ -44,8 +45,10 @@ import com.hazelcast.internal.services.StatisticsAwareService;
 import com.hazelcast.internal.services.TenantContextAwareService;
 import com.hazelcast.internal.services.TransactionalService;
 import com.hazelcast.internal.services.WanSupportingService;
+import com.hazelcast.internal.util.LatencyHistogram;
 import com.hazelcast.map.LocalMapStats;
 import com.hazelcast.map.impl.event.MapEventPublishingService;
+import com.hazelcast.map.impl.operation.MapReplicaDelta;
 import com.hazelcast.map.impl.recordstore.RecordStore;
 import com.hazelcast.nearcache.NearCacheStats;
 import com.hazelcast.query.LocalIndexStats;
@@ -55,11 +58,13 @@ import com.hazelcast.spi.impl.NodeEngineImpl;
 import com.hazelcast.spi.impl.eventservice.EventFilter;
 import com.hazelcast.spi.impl.eventservice.EventPublishingService;
 import com.hazelcast.spi.impl.eventservice.EventRegistration;
+import com.hazelcast.spi.impl.merge.MerkleTreeMergeAwareService;
 import com.hazelcast.spi.impl.operationservice.Operation;
 import com.hazelcast.spi.properties.ClusterProperty;
 import com.hazelcast.transaction.TransactionalObject;
 import com.hazelcast.transaction.impl.Transaction;
 import com.hazelcast.wan.impl.InternalWanEvent;
+import com.hazelcast.wan.impl.merkletree.MerkleTreeView;
 
 import java.util.Collection;
 import java.util.Map;
@@ -71,8 +76,10 @@ import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_DISCR
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_PREFIX;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_PREFIX_ENTRY_PROCESSOR_OFFLOADABLE_EXECUTOR;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_PREFIX_INDEX;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_PREFIX_LATENCY;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_PREFIX_NEARCACHE;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_TAG_INDEX;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_TAG_OPERATION;
 
 /**
  * Defines map service behavior.
@@ -91,9 +98,9 @@ import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_TAG_I
  * @see MapServiceContext
  */
 @SuppressWarnings({"checkstyle:ClassFanOutComplexity", "checkstyle:MethodCount"})
-public class MapService implements ManagedService, FragmentedMigrationAwareService, TransactionalService, RemoteService,
+public class MapService implements ManagedService, DeltaReplicationAwareService, TransactionalService, RemoteService,
         EventPublishingService<Object, ListenerAdapter>, PostJoinAwareService,
-        SplitBrainHandlerService, WanSupportingService, StatisticsAwareService<LocalMapStats>,
+        MerkleTreeMergeAwareService, WanSupportingService, StatisticsAwareService<LocalMapStats>,
         PartitionAwareService, ClientAwareService, SplitBrainProtectionAwareService,
         NotifiableEventListener, ClusterStateListener, LockInterceptorService<Data>,
         DynamicMetricsProvider, TenantContextAwareService {
@@ -163,6 +170,18 @@ public class MapService implements ManagedService, FragmentedMigrationAwareServi
         return migrationAwareService.prepareReplicationOperation(event, namespaces);
     }
 
+    @Override
+    public MerkleTreeView createMerkleTree(int partitionId, ServiceNamespace namespace) {
+        return MapReplicaDelta.createMerkleTree(mapServiceContext, partitionId, (ObjectNamespace) namespace);
+    }
+
+    @Override
+    public Operation prepareDeltaReplicationOperation(PartitionReplicationEvent event, ServiceNamespace namespace,
+                                                      MerkleTreeView replicaTree) {
+        return MapReplicaDelta.prepareReplicationOperation(mapServiceContext, event, (ObjectNamespace) namespace,
+                replicaTree);
+    }
+
     @Override
     public void beforeMigration(PartitionMigrationEvent event) {
         migrationAwareService.beforeMigration(event);
@@ -209,6 +228,11 @@ public class MapService implements ManagedService, FragmentedMigrationAwareServi
         return splitBrainHandlerService.prepareMergeRunnable();
     }
 
+    @Override
+    public MerkleTreeView createMergeMerkleTree(String name, int partitionId, int depth) {
+        return MapSplitBrainHandlerService.createMerkleTree(mapServiceContext, name, partitionId, depth);
+    }
+
     @Override
     public <T extends TransactionalObject> T createTransactionalObject(String name, Transaction transaction) {
         return transactionalService.createTransactionalObject(name, transaction);
@@ -314,6 +338,20 @@ public class MapService implements ManagedService, FragmentedMigrationAwareServi
                 context.collect(indexDescriptor, indexEntry.getValue());
             }
 
+            // latency histograms
+            for (Map.Entry<String, LatencyHistogram> histogramEntry
+                    : ((LocalMapStatsImpl) localInstanceStats).getLatencyHistograms().entrySet()) {
+                LatencyHistogram histogram = histogramEntry.getValue();
+                // ends the interval at most once per collection round, whichever collector comes first
+                histogram.updateIntervalPercentiles();
+                MetricDescriptor latencyDescriptor = descriptor
+                        .copy()
+                        .withPrefix(MAP_PREFIX_LATENCY)
+                        .withDiscriminator(MAP_DISCRIMINATOR_NAME, mapName)
+                        .withTag(MAP_TAG_OPERATION, histogramEntry.getKey());
+                context.collect(latencyDescriptor, histogram);
+            }
+
             // near cache
             NearCacheStats nearCacheStats = localInstanceStats.getNearCacheStats();
             if (nearCacheStats != null) {
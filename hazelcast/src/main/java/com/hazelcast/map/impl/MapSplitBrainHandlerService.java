@@ -16,15 +16,21 @@
 
 package com.hazelcast.map.impl;
 
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.map.impl.record.Record;
 import com.hazelcast.map.impl.recordstore.DefaultRecordStore;
 import com.hazelcast.map.impl.recordstore.RecordStore;
 import com.hazelcast.spi.impl.merge.AbstractSplitBrainHandlerService;
 import com.hazelcast.spi.merge.DiscardMergePolicy;
+import com.hazelcast.wan.impl.merkletree.ArrayMerkleTree;
+import com.hazelcast.wan.impl.merkletree.MerkleTree;
+import com.hazelcast.wan.impl.merkletree.MerkleTreeView;
 
 import java.util.Collection;
 import java.util.Iterator;
 
 import static com.hazelcast.internal.util.ThreadUtil.assertRunningOnPartitionThread;
+import static com.hazelcast.wan.impl.merkletree.MerkleTreeUtil.addEntry;
 
 class MapSplitBrainHandlerService extends AbstractSplitBrainHandlerService<RecordStore> {
 
@@ -82,4 +88,20 @@ class MapSplitBrainHandlerService extends AbstractSplitBrainHandlerService<Recor
         Object mergePolicy = mapServiceContext.getNodeEngine().getSplitBrainMergePolicyProvider().getMergePolicy(policy);
         return !(mergePolicy instanceof DiscardMergePolicy);
     }
+
+    /**
+     * Creates the Merkle tree of the entries of the given map in the given
+     * partition, to be compared with the Merkle tree of a merging store.
+     *
+     * @see com.hazelcast.spi.impl.merge.MerkleTreeMergeAwareService
+     */
+    static MerkleTreeView createMerkleTree(MapServiceContext mapServiceContext, String name, int partitionId, int depth) {
+        MerkleTree merkleTree = new ArrayMerkleTree(depth);
+        RecordStore<Record> recordStore = mapServiceContext.getExistingRecordStore(partitionId, name);
+        if (recordStore != null) {
+            SerializationService ss = mapServiceContext.getNodeEngine().getSerializationService();
+            recordStore.forEach((key, record) -> addEntry(merkleTree, key, ss.toData(record.getValue())), false);
+        }
+        return merkleTree;
+    }
 }
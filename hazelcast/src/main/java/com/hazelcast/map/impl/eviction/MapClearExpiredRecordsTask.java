@@ -19,6 +19,7 @@ package com.hazelcast.map.impl.eviction;
 import com.hazelcast.internal.eviction.ClearExpiredRecordsTask;
 import com.hazelcast.internal.eviction.ExpiredKey;
 import com.hazelcast.internal.nearcache.impl.invalidation.InvalidationQueue;
+import com.hazelcast.internal.util.Clock;
 import com.hazelcast.map.impl.PartitionContainer;
 import com.hazelcast.map.impl.operation.EvictBatchBackupOperation;
 import com.hazelcast.map.impl.operation.MapClearExpiredOperation;
@@ -210,20 +211,21 @@ public class MapClearExpiredRecordsTask
     }
 
     /**
-     * Here we check if that partition has any expirable record or not,
-     * if no expirable record exists in that partition no need to fire
-     * an expiration operation.
+     * Here we check if that partition has any expirable record whose
+     * expiration time has passed or not, if no such record exists in
+     * that partition no need to fire an expiration operation.
      *
      * @param partitionContainer corresponding partition container.
-     * @return <code>true</code> if no expirable record in that
+     * @return <code>true</code> if no expirable record is due in that
      * partition <code>false</code> otherwise.
      */
     @Override
     protected boolean notHaveAnyExpirableRecord(PartitionContainer partitionContainer) {
         boolean notExist = true;
+        long now = Clock.currentTimeMillis();
         final ConcurrentMap<String, RecordStore> maps = partitionContainer.getMaps();
         for (RecordStore store : maps.values()) {
-            if (store.isExpirable()) {
+            if (store.isExpirable() && store.getExpirySystem().hasDueExpirations(now)) {
                 notExist = false;
                 break;
             }
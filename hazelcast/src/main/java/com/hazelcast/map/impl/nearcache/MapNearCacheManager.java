@@ -112,7 +112,8 @@ public class MapNearCacheManager extends DefaultNearCacheManager {
         ILogger repairingTaskLogger = nodeEngine.getLogger(RepairingTask.class);
         UUID localUuid = nodeEngine.getLocalMember().getUuid();
         return new RepairingTask(properties, invalidationMetaDataFetcher, executionService.getGlobalTaskScheduler(),
-                serializationService, partitionService, localUuid, repairingTaskLogger);
+                serializationService, partitionService, localUuid, repairingTaskLogger,
+                nodeEngine.getHazelcastInstance().getName());
     }
 
     /**
@@ -129,6 +130,7 @@ public class MapNearCacheManager extends DefaultNearCacheManager {
     public void shutdown() {
         destroyAllNearCaches();
         invalidator.shutdown();
+        repairingTask.shutdown();
     }
 
     /**
@@ -0,0 +1,390 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.operation;
+
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.core.EntryEventType;
+import com.hazelcast.core.ManagedContext;
+import com.hazelcast.core.Offloadable;
+import com.hazelcast.core.ReadOnly;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.util.RuntimeAvailableProcessors;
+import com.hazelcast.internal.util.UuidUtil;
+import com.hazelcast.map.EntryProcessor;
+import com.hazelcast.map.impl.ExecutorStats;
+import com.hazelcast.map.impl.MapEntries;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.map.impl.recordstore.RecordStore;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.spi.exception.RetryableHazelcastException;
+import com.hazelcast.spi.exception.WrongTargetException;
+import com.hazelcast.spi.impl.executionservice.impl.StatsAwareRunnable;
+import com.hazelcast.spi.impl.operationservice.Offload;
+import com.hazelcast.spi.impl.operationservice.Operation;
+import com.hazelcast.spi.impl.operationservice.OperationAccessor;
+import com.hazelcast.spi.impl.operationservice.OperationResponseHandler;
+import com.hazelcast.spi.impl.operationservice.impl.responses.CallTimeoutResponse;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.hazelcast.core.Offloadable.NO_OFFLOADING;
+import static com.hazelcast.map.impl.operation.EntryOperator.operator;
+import static com.hazelcast.spi.impl.executionservice.ExecutionService.OFFLOADABLE_EXECUTOR;
+import static com.hazelcast.spi.impl.operationservice.InvocationBuilder.DEFAULT_TRY_PAUSE_MILLIS;
+import static com.hazelcast.spi.properties.ClusterProperty.MAP_ENTRY_PROCESSOR_OFFLOAD_BATCHING_ENABLED;
+import static java.lang.String.format;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Contains implementation of the off-loadable contract for EntryProcessor
+ * execution on the entries of a single partition, used by
+ * {@link MultipleEntryOperation} and {@link PartitionWideEntryOperation}
+ * when {@link com.hazelcast.spi.properties.ClusterProperty#MAP_ENTRY_PROCESSOR_OFFLOAD_BATCHING_ENABLED}
+ * is set.
+ * <p>
+ * The threading looks as follows:
+ * <p>
+ * 1. partition-thread (fetch &amp; lock all entries of the batch)
+ * 2. execution-threads (process chunks of the batch in parallel)
+ * 3. partition-thread (set &amp; unlock all entries of the batch,
+ * see {@link MultipleEntryOffloadableSetUnlockOperation})
+ * <p>
+ * As with {@link EntryOperation}, ReadOnly entry processors do not lock
+ * the entries and respond directly from the execution-thread. Mutating
+ * entry processors can only be batched if none of the entries of the batch
+ * is locked, otherwise the operation is retried until the locks are released.
+ * <p>
+ * Each chunk is processed by its own copy of the entry processor, just as
+ * each partition gets its own copy when the processing is not offloaded.
+ * If any chunk fails, none of the changes of the batch is applied.
+ */
+final class EntryBatchOffload extends Offload {
+
+    private static final int SET_UNLOCK_FAST_RETRY_LIMIT = 10;
+    private static final int MIN_CHUNK_SIZE = 16;
+
+    private final MapOperation operation;
+    private final EntryProcessor entryProcessor;
+    private final Predicate predicate;
+    private final Collection<Data> requestedKeys;
+    private final boolean readOnly;
+    private final AtomicInteger pendingChunks = new AtomicInteger();
+
+    private Data[] keys;
+    private Data[] oldValues;
+    private Data[] newValues;
+    private EntryEventType[] modificationTypes;
+    private long[] newTtls;
+    private boolean[] matched;
+    private Data[] results;
+    private volatile Throwable failure;
+
+    private UUID caller;
+    private long threadId;
+    private long startNanos;
+    private int setUnlockRetryCount;
+
+    /**
+     * @param operation      the offloaded operation
+     * @param entryProcessor the entry processor to run
+     * @param predicate      the predicate the entries have to match or {@code null}
+     * @param requestedKeys  the keys to process or {@code null} to process
+     *                       all entries of the partition
+     */
+    EntryBatchOffload(MapOperation operation, EntryProcessor entryProcessor,
+                      Predicate predicate, Collection<Data> requestedKeys) {
+        super(operation);
+        this.operation = operation;
+        this.entryProcessor = entryProcessor;
+        this.predicate = predicate;
+        this.requestedKeys = requestedKeys;
+        this.readOnly = entryProcessor instanceof ReadOnly;
+    }
+
+    /**
+     * Checks whether the entries processed by the given operation should be
+     * processed by an {@link EntryBatchOffload}.
+     */
+    static boolean isBatchingRequested(MapOperation operation, EntryProcessor entryProcessor) {
+        if (!(entryProcessor instanceof Offloadable)
+                || ((Offloadable) entryProcessor).getExecutorName().equals(NO_OFFLOADING)) {
+            return false;
+        }
+        if (entryProcessor instanceof ReadOnly && entryProcessor.getBackupProcessor() != null) {
+            // left to the regular processing which does not verify this
+            return false;
+        }
+        return operation.mapContainer.getMapConfig().getInMemoryFormat() != InMemoryFormat.NATIVE
+                && operation.getNodeEngine().getProperties().getBoolean(MAP_ENTRY_PROCESSOR_OFFLOAD_BATCHING_ENABLED);
+    }
+
+    @Override
+    public void start() {
+        startNanos = System.nanoTime();
+        fetchEntries();
+        if (keys.length == 0) {
+            operation.sendResponse(new MapEntries(0));
+            return;
+        }
+        if (!readOnly) {
+            checkEntriesNotLocked();
+            lockEntries();
+        }
+
+        String executorName = ((Offloadable) entryProcessor).getExecutorName();
+        executorName = executorName.equals(Offloadable.OFFLOADABLE_EXECUTOR) ? OFFLOADABLE_EXECUTOR : executorName;
+        executeChunks(executorName);
+    }
+
+    private void fetchEntries() {
+        RecordStore<Record> recordStore = operation.recordStore;
+        List<Data> partitionKeys = new ArrayList<>();
+        if (requestedKeys == null) {
+            recordStore.forEach((dataKey, record) -> partitionKeys.add(dataKey), false);
+        } else {
+            int partitionId = operation.getPartitionId();
+            for (Data key : requestedKeys) {
+                if (nodeEngine.getPartitionService().getPartitionId(key) == partitionId) {
+                    partitionKeys.add(key);
+                }
+            }
+        }
+
+        List<Data> batchKeys = new ArrayList<>(partitionKeys.size());
+        List<Data> batchOldValues = new ArrayList<>(partitionKeys.size());
+        for (Data key : partitionKeys) {
+            Object oldValue = recordStore.get(key, false, operation.getCallerAddress(), false);
+            // predicated entry processors can only be applied to existing entries
+            if (predicate != null && oldValue == null) {
+                continue;
+            }
+            batchKeys.add(key);
+            batchOldValues.add(serializationService.toData(oldValue));
+        }
+
+        int size = batchKeys.size();
+        keys = batchKeys.toArray(new Data[0]);
+        oldValues = batchOldValues.toArray(new Data[0]);
+        newValues = new Data[size];
+        modificationTypes = new EntryEventType[size];
+        newTtls = new long[size];
+        matched = new boolean[size];
+        results = new Data[size];
+    }
+
+    /**
+     * Makes the operation retry if a mutating entry processor batch cannot
+     * lock all of its entries. Since the local locks are not re-entrant,
+     * this also keeps batches of the same partition from overlapping. Only
+     * the entries of the batch are checked, locks of other keys of the
+     * partition don't delay it.
+     */
+    private void checkEntriesNotLocked() {
+        RecordStore<Record> recordStore = operation.recordStore;
+        for (Data key : keys) {
+            if (recordStore.isLocked(key)) {
+                throw new RetryableHazelcastException("Entries of map " + operation.getName()
+                        + " are locked, the offloaded entry processor has to wait for them");
+            }
+        }
+    }
+
+    private void lockEntries() {
+        RecordStore<Record> recordStore = operation.recordStore;
+        // callerId is random since the local locks are NOT re-entrant
+        // using a randomID every time prevents from re-entering the already acquired lock
+        caller = UuidUtil.newUnsecureUUID();
+        threadId = Thread.currentThread().getId();
+        int lockedCount = 0;
+        try {
+            for (Data key : keys) {
+                boolean locked = recordStore.localLock(key, caller, threadId, operation.getCallId(), -1);
+                if (!locked) {
+                    // should not happen since none of the keys was locked and we are on a partition-thread
+                    throw new IllegalStateException(format("Could not obtain a lock by the caller=%s and threadId=%d",
+                            caller, threadId));
+                }
+                lockedCount++;
+            }
+        } finally {
+            if (lockedCount < keys.length) {
+                // the operation fails, nobody would unlock the keys locked so far
+                for (int i = 0; i < lockedCount; i++) {
+                    recordStore.unlock(keys[i], caller, threadId, operation.getCallId());
+                }
+            }
+        }
+    }
+
+    private void executeChunks(String executorName) {
+        int chunkCount = Math.max(1, Math.min(RuntimeAvailableProcessors.get(), keys.length / MIN_CHUNK_SIZE));
+        int chunkSize = (keys.length + chunkCount - 1) / chunkCount;
+        pendingChunks.set(chunkCount);
+        for (int chunk = 0; chunk < chunkCount; chunk++) {
+            int from = chunk * chunkSize;
+            int to = Math.min(keys.length, from + chunkSize);
+            try {
+                EntryProcessor processor = chunk == 0 ? entryProcessor : copyOfEntryProcessor();
+                doExecute(executorName, () -> processChunk(processor, from, to));
+            } catch (Throwable t) {
+                failure = t;
+                if (pendingChunks.addAndGet(chunk - chunkCount) == 0) {
+                    onProcessed();
+                }
+                return;
+            }
+        }
+    }
+
+    private EntryProcessor copyOfEntryProcessor() {
+        ManagedContext managedContext = serializationService.getManagedContext();
+        Object copy = serializationService.toObject(serializationService.toData(entryProcessor));
+        return (EntryProcessor) managedContext.initialize(copy);
+    }
+
+    private void doExecute(String executorName, Runnable runnable) {
+        boolean statisticsEnabled = operation.mapContainer.getMapConfig().isStatisticsEnabled();
+        ExecutorStats executorStats = operation.mapServiceContext.getOffloadedEntryProcessorExecutorStats();
+        try {
+            Runnable command = statisticsEnabled
+                    ? new StatsAwareRunnable(runnable, executorName, executorStats) : runnable;
+            executionService.execute(executorName, command);
+        } catch (RejectedExecutionException e) {
+            if (statisticsEnabled) {
+                executorStats.rejectExecution(executorName);
+            }
+
+            throw e;
+        }
+    }
+
+    private void processChunk(EntryProcessor processor, int from, int to) {
+        try {
+            EntryOperator operator = operator(operation, processor, predicate);
+            for (int i = from; i < to; i++) {
+                operator.operateOnKeyValue(keys[i], oldValues[i]);
+                matched[i] = operator.didMatchPredicate();
+                results[i] = operator.getResult();
+                modificationTypes[i] = operator.getEventType();
+                newTtls[i] = operator.getEntry().getNewTtl();
+                if (modificationTypes[i] != null) {
+                    newValues[i] = serializationService.toData(operator.getByPreferringDataNewValue());
+                }
+            }
+        } catch (Throwable t) {
+            failure = t;
+        } finally {
+            if (pendingChunks.decrementAndGet() == 0) {
+                onProcessed();
+            }
+        }
+    }
+
+    private void onProcessed() {
+        Throwable t = failure;
+        if (readOnly) {
+            sendResponse(t != null ? t : toMapEntries());
+        } else if (t != null) {
+            nodeEngine.getLogger(getClass()).severe("Unexpected error on Offloadable execution", t);
+            // nothing is applied, the entries are just unlocked
+            setAndUnlock(new boolean[keys.length], null, t);
+        } else {
+            setAndUnlock(matched, entryProcessor.getBackupProcessor(), toMapEntries());
+        }
+    }
+
+    private MapEntries toMapEntries() {
+        MapEntries responses = new MapEntries(keys.length);
+        for (int i = 0; i < keys.length; i++) {
+            if (results[i] != null) {
+                responses.add(keys[i], results[i]);
+            }
+        }
+        return responses;
+    }
+
+    private void sendResponse(Object response) {
+        if (!(response instanceof Throwable) && operation.mapContainer.getMapConfig().isStatisticsEnabled()) {
+            operation.mapServiceContext.getLocalMapStatsProvider().getLocalMapStatsImpl(operation.getName())
+                    .incrementOffloadedEntryProcessorBatchNanos(keys.length, System.nanoTime() - startNanos);
+        }
+        operation.sendResponse(response);
+    }
+
+    private void setAndUnlock(boolean[] applied, EntryProcessor backupProcessor, Object response) {
+        MultipleEntryOffloadableSetUnlockOperation updateOperation = new MultipleEntryOffloadableSetUnlockOperation(
+                operation.getName(), keys, oldValues, newValues, modificationTypes, newTtls, applied,
+                caller, threadId, backupProcessor);
+
+        updateOperation.setPartitionId(operation.getPartitionId());
+        updateOperation.setReplicaIndex(0);
+        updateOperation.setNodeEngine(nodeEngine);
+        updateOperation.setCallerUuid(operation.getCallerUuid());
+        OperationAccessor.setCallerAddress(updateOperation, operation.getCallerAddress());
+        updateOperation.setOperationResponseHandler(new SetUnlockResponseHandler(response));
+        operationService.execute(updateOperation);
+    }
+
+    private final class SetUnlockResponseHandler implements OperationResponseHandler {
+
+        private final Object batchResponse;
+
+        private SetUnlockResponseHandler(Object batchResponse) {
+            this.batchResponse = batchResponse;
+        }
+
+        @Override
+        public void sendResponse(Operation op, Object response) {
+            if (isRetryable(response) || response instanceof CallTimeoutResponse) {
+                retry(op);
+            } else {
+                EntryBatchOffload.this.sendResponse(toResponse(response));
+            }
+        }
+
+        private void retry(Operation op) {
+            setUnlockRetryCount++;
+            if (setUnlockRetryCount > SET_UNLOCK_FAST_RETRY_LIMIT) {
+                executionService.schedule(() -> operationService.execute(op), DEFAULT_TRY_PAUSE_MILLIS, MILLISECONDS);
+            } else {
+                operationService.execute(op);
+            }
+        }
+
+        private boolean isRetryable(Object response) {
+            return response instanceof RetryableHazelcastException && !(response instanceof WrongTargetException);
+        }
+
+        private Object toResponse(Object response) {
+            if (response instanceof Throwable) {
+                Throwable t = (Throwable) response;
+                // EntryOffloadableLockMismatchException is a marker send from the set & unlock operation
+                // meaning that the whole invocation of the offloaded operation should be retried
+                if (t instanceof EntryOffloadableLockMismatchException) {
+                    t = new RetryableHazelcastException(t.getMessage(), t);
+                }
+                return t;
+            }
+            return batchResponse;
+        }
+    }
+}
@@ -219,6 +219,10 @@ public final class EntryOperator {
         return result;
     }
 
+    public boolean didMatchPredicate() {
+        return didMatchPredicate;
+    }
+
     public EntryOperator doPostOperateOps() {
         if (!didMatchPredicate) {
             return this;
@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.operation;
+
+import com.hazelcast.config.MerkleTreeConfig;
+import com.hazelcast.internal.partition.PartitionReplicationEvent;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.internal.services.ObjectNamespace;
+import com.hazelcast.map.impl.MapServiceContext;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.map.impl.recordstore.RecordStore;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.spi.impl.operationservice.Operation;
+import com.hazelcast.wan.impl.merkletree.ArrayMerkleTree;
+import com.hazelcast.wan.impl.merkletree.MerkleTree;
+import com.hazelcast.wan.impl.merkletree.MerkleTreeView;
+
+import java.io.IOException;
+import java.util.BitSet;
+
+import static com.hazelcast.wan.impl.merkletree.MerkleTreeUtil.addEntry;
+import static com.hazelcast.wan.impl.merkletree.MerkleTreeUtil.getLeafOrderForHash;
+import static com.hazelcast.wan.impl.merkletree.MerkleTreeUtil.getLeftMostNodeOrderOnLevel;
+import static com.hazelcast.wan.impl.merkletree.MerkleTreeUtil.getNodesOnLevel;
+
+/**
+ * Describes the part of a map's partition replica which differs between
+ * the primary and a backup replica, as the set of differing Merkle tree
+ * leaves. Used to synchronize a backup replica by transferring only the
+ * entries of the differing leaves.
+ * <p>
+ * The Merkle trees are created on demand by iterating the record store,
+ * hashing the serialized key and value of each entry. They are created
+ * only for maps with {@link MerkleTreeConfig#isEnabled() Merkle trees
+ * enabled}, using the configured depth.
+ *
+ * @see com.hazelcast.internal.partition.DeltaReplicationAwareService
+ */
+public final class MapReplicaDelta {
+
+    private final int leafLevel;
+    private final BitSet leaves;
+
+    private MapReplicaDelta(int leafLevel, BitSet leaves) {
+        this.leafLevel = leafLevel;
+        this.leaves = leaves;
+    }
+
+    /**
+     * Returns {@code true} if the given key belongs to one of the differing leaves.
+     */
+    boolean contains(Data key) {
+        return leaves.get(getLeafIndex(key.hashCode(), leafLevel));
+    }
+
+    void writeTo(ObjectDataOutput out) throws IOException {
+        out.writeInt(leafLevel);
+        out.writeLongArray(leaves.toLongArray());
+    }
+
+    static MapReplicaDelta readFrom(ObjectDataInput in) throws IOException {
+        int leafLevel = in.readInt();
+        return new MapReplicaDelta(leafLevel, BitSet.valueOf(in.readLongArray()));
+    }
+
+    /**
+     * Creates the Merkle tree of the local replica of the given map in the
+     * given partition.
+     *
+     * @return the Merkle tree or {@code null} if the map has no Merkle trees
+     * enabled or has no data in the partition
+     */
+    public static MerkleTreeView createMerkleTree(MapServiceContext mapServiceContext, int partitionId,
+                                                  ObjectNamespace namespace) {
+        RecordStore<Record> recordStore = getRecordStore(mapServiceContext, partitionId, namespace);
+        if (recordStore == null) {
+            return null;
+        }
+        int depth = recordStore.getMapContainer().getMapConfig().getMerkleTreeConfig().getDepth();
+        SerializationService ss = mapServiceContext.getNodeEngine().getSerializationService();
+        return createMerkleTree(recordStore, depth, ss, null);
+    }
+
+    /**
+     * Creates the replication operation which brings the backup replica
+     * described by {@code replicaTree} in sync with the local primary replica
+     * of the given map.
+     *
+     * @return the replication operation or {@code null} if the map has to be
+     * replicated in full
+     */
+    public static Operation prepareReplicationOperation(MapServiceContext mapServiceContext,
+                                                        PartitionReplicationEvent event,
+                                                        ObjectNamespace namespace, MerkleTreeView replicaTree) {
+        int partitionId = event.getPartitionId();
+        RecordStore<Record> recordStore = getRecordStore(mapServiceContext, partitionId, namespace);
+        if (recordStore == null || event.getReplicaIndex() == 0) {
+            return null;
+        }
+        int depth = recordStore.getMapContainer().getMapConfig().getMerkleTreeConfig().getDepth();
+        if (replicaTree.depth() != depth) {
+            return null;
+        }
+
+        int leafLevel = depth - 1;
+        long[] leafBytes = new long[getNodesOnLevel(leafLevel)];
+        SerializationService ss = mapServiceContext.getNodeEngine().getSerializationService();
+        MerkleTree localTree = createMerkleTree(recordStore, depth, ss, leafBytes);
+
+        BitSet leaves = new BitSet(leafBytes.length);
+        long savedBytes = 0;
+        int leftMostLeaf = getLeftMostNodeOrderOnLevel(leafLevel);
+        for (int i = 0; i < leafBytes.length; i++) {
+            if (localTree.getNodeHash(leftMostLeaf + i) != replicaTree.getNodeHash(leftMostLeaf + i)) {
+                leaves.set(i);
+            } else {
+                savedBytes += leafBytes[i];
+            }
+        }
+
+        MapReplicationOperation operation = new MapReplicationOperation(
+                mapServiceContext.getPartitionContainer(partitionId), namespace, partitionId, event.getReplicaIndex(),
+                new MapReplicaDelta(leafLevel, leaves), savedBytes);
+        operation.setService(mapServiceContext.getService());
+        operation.setNodeEngine(mapServiceContext.getNodeEngine());
+        return operation;
+    }
+
+    private static RecordStore<Record> getRecordStore(MapServiceContext mapServiceContext, int partitionId,
+                                                      ObjectNamespace namespace) {
+        RecordStore<Record> recordStore = mapServiceContext.getExistingRecordStore(partitionId, namespace.getObjectName());
+        if (recordStore == null || !recordStore.getMapContainer().getMapConfig().getMerkleTreeConfig().isEnabled()) {
+            return null;
+        }
+        return recordStore;
+    }
+
+    /**
+     * Builds a Merkle tree over the entries of the record store. The hash of
+     * an entry combines the hashes of its serialized key and value, so that
+     * the trees of replicas holding the same entries are equal.
+     *
+     * @param leafBytes if not {@code null}, collects the serialized size of
+     *                  the entries of each leaf
+     */
+    private static MerkleTree createMerkleTree(RecordStore<Record> recordStore, int depth, SerializationService ss,
+                                               long[] leafBytes) {
+        MerkleTree tree = new ArrayMerkleTree(depth);
+        int leafLevel = depth - 1;
+        recordStore.forEach((key, record) -> {
+            Data value = ss.toData(record.getValue());
+            addEntry(tree, key, value);
+            if (leafBytes != null) {
+                leafBytes[getLeafIndex(key.hashCode(), leafLevel)] += key.totalSize() + value.totalSize();
+            }
+        }, true, true);
+        return tree;
+    }
+
+    private static int getLeafIndex(int keyHash, int leafLevel) {
+        return getLeafOrderForHash(keyHash, leafLevel) - getLeftMostNodeOrderOnLevel(leafLevel);
+    }
+}
@@ -16,6 +16,8 @@
 
 package com.hazelcast.map.impl.operation;
 
+import com.hazelcast.internal.partition.DeltaReplicationOperation;
+import com.hazelcast.internal.services.ObjectNamespace;
 import com.hazelcast.internal.services.ServiceNamespace;
 import com.hazelcast.map.impl.MapDataSerializerHook;
 import com.hazelcast.map.impl.MapService;
@@ -31,17 +33,20 @@ import com.hazelcast.spi.impl.operationservice.Operation;
 import java.io.IOException;
 import java.util.Collection;
 
+import static java.util.Collections.singleton;
+
 /**
  * Replicates all IMap-states of this partition to a repReservedCapacityCounterTestlica partition.
  */
 public class MapReplicationOperation extends Operation
-        implements IdentifiedDataSerializable {
+        implements IdentifiedDataSerializable, DeltaReplicationOperation {
 
     private MapReplicationStateHolder mapReplicationStateHolder;
     private WriteBehindStateHolder writeBehindStateHolder;
     private MapNearCacheStateHolder mapNearCacheStateHolder;
 
     private transient NativeOutOfMemoryError oome;
+    private transient long savedBytes;
 
     public MapReplicationOperation() {
     }
@@ -64,6 +69,17 @@ public class MapReplicationOperation extends Operation
         this.mapNearCacheStateHolder.prepare(container, namespaces, replicaIndex);
     }
 
+    /**
+     * Creates an operation which replicates only the entries of the given map
+     * which belong to the differing leaves of the {@code delta}.
+     */
+    MapReplicationOperation(PartitionContainer container, ObjectNamespace namespace, int partitionId,
+                            int replicaIndex, MapReplicaDelta delta, long savedBytes) {
+        this(container, singleton(namespace), partitionId, replicaIndex);
+        this.mapReplicationStateHolder.setDelta(namespace.getObjectName(), delta);
+        this.savedBytes = savedBytes;
+    }
+
     @Override
     public void run() {
         try {
@@ -137,6 +153,11 @@ public class MapReplicationOperation extends Operation
         mapNearCacheStateHolder.setMapReplicationOperation(this);
     }
 
+    @Override
+    public long getSavedBytes() {
+        return savedBytes;
+    }
+
     RecordStore getRecordStore(String mapName) {
         final boolean skipLoadingOnRecordStoreCreate = true;
         MapService mapService = getService();
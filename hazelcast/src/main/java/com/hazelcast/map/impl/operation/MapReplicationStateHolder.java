@@ -18,6 +18,7 @@ package com.hazelcast.map.impl.operation;
 
 import com.hazelcast.config.IndexConfig;
 import com.hazelcast.config.MapConfig;
+import com.hazelcast.internal.cluster.Versions;
 import com.hazelcast.internal.nio.IOUtil;
 import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.internal.serialization.SerializationService;
@@ -43,6 +44,7 @@ import com.hazelcast.query.impl.Indexes;
 import com.hazelcast.query.impl.InternalIndex;
 import com.hazelcast.query.impl.MapIndexInfo;
 import com.hazelcast.spi.impl.NodeEngine;
+import com.hazelcast.wan.impl.CallerProvenance;
 
 import java.io.IOException;
 import java.util.ArrayList;
@@ -78,6 +80,10 @@ public class MapReplicationStateHolder implements IdentifiedDataSerializable, Ve
     // operations, which meant that the index did not include some data.
     protected transient List<MapIndexInfo> mapIndexInfos;
 
+    // For maps which are replicated partially, the Merkle tree leaves whose entries are replicated.
+    // The entries of these leaves are replaced on the replica, the rest of the entries are kept.
+    protected transient Map<String, MapReplicaDelta> deltas;
+
     private MapReplicationOperation operation;
 
     /**
@@ -136,6 +142,13 @@ public class MapReplicationStateHolder implements IdentifiedDataSerializable, Ve
         }
     }
 
+    void setDelta(String mapName, MapReplicaDelta delta) {
+        if (deltas == null) {
+            deltas = createHashMap(1);
+        }
+        deltas.put(mapName, delta);
+    }
+
     @SuppressWarnings("checkstyle:npathcomplexity")
     void applyState() {
         ThreadUtil.assertRunningOnPartitionThread();
@@ -147,8 +160,13 @@ public class MapReplicationStateHolder implements IdentifiedDataSerializable, Ve
                 String mapName = dataEntry.getKey();
                 List keyRecordExpiry = dataEntry.getValue();
                 RecordStore recordStore = operation.getRecordStore(mapName);
-                recordStore.reset();
-                recordStore.setPreMigrationLoadedStatus(loaded.get(mapName));
+                MapReplicaDelta delta = deltas != null ? deltas.get(mapName) : null;
+                if (delta == null) {
+                    recordStore.reset();
+                    recordStore.setPreMigrationLoadedStatus(loaded.get(mapName));
+                } else {
+                    removeDeltaEntries(recordStore, delta);
+                }
 
                 MapContainer mapContainer = recordStore.getMapContainer();
                 PartitionContainer partitionContainer = recordStore.getMapContainer().getMapServiceContext()
@@ -197,6 +215,18 @@ public class MapReplicationStateHolder implements IdentifiedDataSerializable, Ve
         }
     }
 
+    private static void removeDeltaEntries(RecordStore<Record> recordStore, MapReplicaDelta delta) {
+        List<Data> keys = new ArrayList<>();
+        recordStore.forEach((dataKey, record) -> {
+            if (delta.contains(dataKey)) {
+                keys.add(dataKey);
+            }
+        }, true, true);
+        for (Data dataKey : keys) {
+            recordStore.removeBackup(dataKey, CallerProvenance.NOT_WAN);
+        }
+    }
+
     private void applyIndexesState() {
         if (mapIndexInfos != null) {
             for (MapIndexInfo mapIndexInfo : mapIndexInfos) {
@@ -232,25 +262,19 @@ public class MapReplicationStateHolder implements IdentifiedDataSerializable, Ve
 
     @Override
     public void writeData(ObjectDataOutput out) throws IOException {
+        // members of older versions don't know the deltas, the maps are replicated in full to them.
+        // Nested objects may change the version of the stream.
+        boolean deltaSupported = !out.getVersion().isLessThan(Versions.V4_2);
+        Map<String, MapReplicaDelta> sentDeltas = deltaSupported ? deltas : null;
         out.writeInt(storesByMapName.size());
 
         for (Map.Entry<String, RecordStore<Record>> entry : storesByMapName.entrySet()) {
             String mapName = entry.getKey();
             out.writeUTF(mapName);
 
-            SerializationService ss = getSerializationService(operation.getRecordStore(mapName).getMapContainer());
             RecordStore<Record> recordStore = entry.getValue();
-            out.writeInt(recordStore.size());
-            // No expiration should be done in forEach, since we have serialized size before.
-            recordStore.forEach((dataKey, record) -> {
-                try {
-                    IOUtil.writeData(out, dataKey);
-                    Records.writeRecord(out, record, ss.toData(record.getValue()),
-                            recordStore.getExpirySystem().getExpiredMetadata(dataKey));
-                } catch (IOException e) {
-                    throw ExceptionUtil.rethrow(e);
-                }
-            }, operation.getReplicaIndex() != 0, true);
+            MapReplicaDelta delta = sentDeltas != null ? sentDeltas.get(mapName) : null;
+            writeRecords(out, mapName, recordStore, delta);
         }
 
         out.writeInt(loaded.size());
@@ -263,6 +287,50 @@ public class MapReplicationStateHolder implements IdentifiedDataSerializable, Ve
         for (MapIndexInfo mapIndexInfo : mapIndexInfos) {
             out.writeObject(mapIndexInfo);
         }
+
+        if (deltaSupported) {
+            writeDeltas(out);
+        }
+    }
+
+    private void writeDeltas(ObjectDataOutput out) throws IOException {
+        out.writeInt(deltas == null ? 0 : deltas.size());
+        if (deltas != null) {
+            for (Map.Entry<String, MapReplicaDelta> deltaEntry : deltas.entrySet()) {
+                out.writeUTF(deltaEntry.getKey());
+                deltaEntry.getValue().writeTo(out);
+            }
+        }
+    }
+
+    private void writeRecords(ObjectDataOutput out, String mapName, RecordStore<Record> recordStore,
+                              MapReplicaDelta delta) throws IOException {
+        SerializationService ss = getSerializationService(operation.getRecordStore(mapName).getMapContainer());
+        boolean backup = operation.getReplicaIndex() != 0;
+        out.writeInt(delta == null ? recordStore.size() : countDeltaRecords(recordStore, delta, backup));
+        // No expiration should be done in forEach, since we have serialized size before.
+        recordStore.forEach((dataKey, record) -> {
+            if (delta != null && !delta.contains(dataKey)) {
+                return;
+            }
+            try {
+                IOUtil.writeData(out, dataKey);
+                Records.writeRecord(out, record, ss.toData(record.getValue()),
+                        recordStore.getExpirySystem().getExpiredMetadata(dataKey));
+            } catch (IOException e) {
+                throw ExceptionUtil.rethrow(e);
+            }
+        }, backup, true);
+    }
+
+    private static int countDeltaRecords(RecordStore<Record> recordStore, MapReplicaDelta delta, boolean backup) {
+        int[] count = new int[1];
+        recordStore.forEach((dataKey, record) -> {
+            if (delta.contains(dataKey)) {
+                count[0]++;
+            }
+        }, backup, true);
+        return count[0];
     }
 
     private static SerializationService getSerializationService(MapContainer mapContainer) {
@@ -272,6 +340,7 @@ public class MapReplicationStateHolder implements IdentifiedDataSerializable, Ve
 
     @Override
     public void readData(ObjectDataInput in) throws IOException {
+        boolean deltaSupported = !in.getVersion().isLessThan(Versions.V4_2);
         int size = in.readInt();
         data = createHashMap(size);
 
@@ -303,6 +372,14 @@ public class MapReplicationStateHolder implements IdentifiedDataSerializable, Ve
             MapIndexInfo mapIndexInfo = in.readObject();
             mapIndexInfos.add(mapIndexInfo);
         }
+
+        if (!deltaSupported) {
+            return;
+        }
+        int deltaCount = in.readInt();
+        for (int i = 0; i < deltaCount; i++) {
+            setDelta(in.readUTF(), MapReplicaDelta.readFrom(in));
+        }
     }
 
     @Override
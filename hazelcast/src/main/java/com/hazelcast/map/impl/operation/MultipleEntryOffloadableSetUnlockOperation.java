@@ -0,0 +1,241 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.operation;
+
+import com.hazelcast.core.EntryEventType;
+import com.hazelcast.internal.locksupport.LockWaitNotifyKey;
+import com.hazelcast.internal.nio.IOUtil;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.util.UUIDSerializationUtil;
+import com.hazelcast.map.EntryProcessor;
+import com.hazelcast.map.impl.MapDataSerializerHook;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.spi.impl.NodeEngineImpl;
+import com.hazelcast.spi.impl.operationparker.OperationParker;
+import com.hazelcast.spi.impl.operationservice.BackupAwareOperation;
+import com.hazelcast.spi.impl.operationservice.Notifier;
+import com.hazelcast.spi.impl.operationservice.Operation;
+import com.hazelcast.spi.impl.operationservice.PartitionAwareOperation;
+import com.hazelcast.spi.impl.operationservice.WaitNotifyKey;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.UUID;
+
+import static com.hazelcast.internal.util.SetUtil.createHashSet;
+import static com.hazelcast.map.impl.operation.EntryOperator.operator;
+
+/**
+ * Set &amp; Unlock processing for a batch of entries processed by an
+ * offloaded entry processor.
+ * <p>
+ * Applies all changes of the batch and unlocks all of its keys in one
+ * partition-thread step. If any of the keys is no longer locked by the
+ * batch, e.g. because the partition has migrated in the meantime, none of
+ * the changes is applied and the whole batch is retried.
+ *
+ * See the javadoc on {@link EntryBatchOffload}
+ */
+public class MultipleEntryOffloadableSetUnlockOperation extends MapOperation
+        implements PartitionAwareOperation, BackupAwareOperation {
+
+    protected UUID caller;
+    protected long threadId;
+    protected Data[] keys;
+    protected Data[] oldValues;
+    protected Data[] newValues;
+    protected EntryEventType[] modificationTypes;
+    protected long[] newTtls;
+    protected boolean[] matched;
+    protected EntryProcessor entryBackupProcessor;
+
+    public MultipleEntryOffloadableSetUnlockOperation() {
+    }
+
+    @SuppressWarnings("checkstyle:parameternumber")
+    public MultipleEntryOffloadableSetUnlockOperation(String name, Data[] keys, Data[] oldValues, Data[] newValues,
+                                                      EntryEventType[] modificationTypes, long[] newTtls,
+                                                      boolean[] matched, UUID caller, long threadId,
+                                                      EntryProcessor entryBackupProcessor) {
+        super(name);
+        this.keys = keys;
+        this.oldValues = oldValues;
+        this.newValues = newValues;
+        this.modificationTypes = modificationTypes;
+        this.newTtls = newTtls;
+        this.matched = matched;
+        this.caller = caller;
+        this.entryBackupProcessor = entryBackupProcessor;
+        this.threadId = threadId;
+    }
+
+    @Override
+    protected void runInternal() {
+        verifyLocks();
+        try {
+            EntryOperator operator = operator(this);
+            for (int i = 0; i < keys.length; i++) {
+                if (matched[i]) {
+                    operator.init(keys[i], oldValues[i], newValues[i], null, modificationTypes[i], null, newTtls[i])
+                            .doPostOperateOps();
+                }
+            }
+        } finally {
+            unlockKeys();
+        }
+    }
+
+    private void verifyLocks() {
+        for (Data key : keys) {
+            if (!recordStore.isLockedBy(key, caller, threadId)) {
+                // we can't send a RetryableHazelcastException explicitly since it would retry this operation and we want
+                // to retry the preceding operation that this operation is part of.
+                throw new EntryOffloadableLockMismatchException(
+                        String.format("The key is not locked by the caller=%s and threadId=%d", caller, threadId));
+            }
+        }
+    }
+
+    private void unlockKeys() {
+        OperationParker operationParker = ((NodeEngineImpl) getNodeEngine()).getOperationParker();
+        for (Data key : keys) {
+            boolean unlocked = recordStore.unlock(key, caller, threadId, getCallId());
+            if (!unlocked) {
+                throw new IllegalStateException(
+                        String.format("Unexpected error! MultipleEntryOffloadableSetUnlockOperation finished but the unlock "
+                                + "method returned false for caller=%s and threadId=%d", caller, threadId));
+            }
+            operationParker.unpark(new KeyUnlockedNotifier(new LockWaitNotifyKey(getServiceNamespace(), key)));
+        }
+    }
+
+    @Override
+    public long getThreadId() {
+        return threadId;
+    }
+
+    @Override
+    public void setThreadId(long threadId) {
+        this.threadId = threadId;
+    }
+
+    @Override
+    public boolean returnsResponse() {
+        // this has to be true, otherwise the calling side won't be notified about the exception thrown by this operation
+        return true;
+    }
+
+    @Override
+    public Operation getBackupOperation() {
+        if (entryBackupProcessor == null) {
+            return null;
+        }
+        Set<Data> backupKeys = createHashSet(keys.length);
+        for (int i = 0; i < keys.length; i++) {
+            if (matched[i]) {
+                backupKeys.add(keys[i]);
+            }
+        }
+        return new MultipleEntryBackupOperation(name, backupKeys, entryBackupProcessor);
+    }
+
+    @Override
+    public boolean shouldBackup() {
+        return mapContainer.getTotalBackupCount() > 0 && entryBackupProcessor != null;
+    }
+
+    @Override
+    public int getSyncBackupCount() {
+        return mapContainer.getBackupCount();
+    }
+
+    @Override
+    public int getAsyncBackupCount() {
+        return mapContainer.getAsyncBackupCount();
+    }
+
+    @Override
+    public int getClassId() {
+        return MapDataSerializerHook.MULTIPLE_ENTRY_OFFLOADABLE_SET_UNLOCK;
+    }
+
+    @Override
+    protected void writeInternal(ObjectDataOutput out) throws IOException {
+        super.writeInternal(out);
+        UUIDSerializationUtil.writeUUID(out, caller);
+        out.writeLong(threadId);
+        out.writeObject(entryBackupProcessor);
+        out.writeInt(keys.length);
+        for (int i = 0; i < keys.length; i++) {
+            IOUtil.writeData(out, keys[i]);
+            IOUtil.writeData(out, oldValues[i]);
+            IOUtil.writeData(out, newValues[i]);
+            out.writeUTF(modificationTypes[i] != null ? modificationTypes[i].name() : "");
+            out.writeLong(newTtls[i]);
+            out.writeBoolean(matched[i]);
+        }
+    }
+
+    @Override
+    protected void readInternal(ObjectDataInput in) throws IOException {
+        super.readInternal(in);
+        caller = UUIDSerializationUtil.readUUID(in);
+        threadId = in.readLong();
+        entryBackupProcessor = in.readObject();
+        int size = in.readInt();
+        keys = new Data[size];
+        oldValues = new Data[size];
+        newValues = new Data[size];
+        modificationTypes = new EntryEventType[size];
+        newTtls = new long[size];
+        matched = new boolean[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = IOUtil.readData(in);
+            oldValues[i] = IOUtil.readData(in);
+            newValues[i] = IOUtil.readData(in);
+            String modificationTypeName = in.readUTF();
+            modificationTypes[i] = modificationTypeName.equals("")
+                    ? null : EntryEventType.valueOf(modificationTypeName);
+            newTtls[i] = in.readLong();
+            matched[i] = in.readBoolean();
+        }
+    }
+
+    /**
+     * Wakes up the operations waiting for the lock of a single key of the
+     * batch, as {@link EntryOffloadableSetUnlockOperation} does for its key.
+     */
+    private static final class KeyUnlockedNotifier implements Notifier {
+
+        private final WaitNotifyKey notifiedKey;
+
+        private KeyUnlockedNotifier(WaitNotifyKey notifiedKey) {
+            this.notifiedKey = notifiedKey;
+        }
+
+        @Override
+        public boolean shouldNotify() {
+            return true;
+        }
+
+        @Override
+        public WaitNotifyKey getNotifiedKey() {
+            return notifiedKey;
+        }
+    }
+}
@@ -27,6 +27,7 @@ import com.hazelcast.nio.ObjectDataOutput;
 import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.query.Predicate;
 import com.hazelcast.spi.impl.operationservice.BackupAwareOperation;
+import com.hazelcast.spi.impl.operationservice.CallStatus;
 import com.hazelcast.spi.impl.operationservice.MutatingOperation;
 import com.hazelcast.spi.impl.operationservice.Operation;
 import com.hazelcast.spi.impl.operationservice.PartitionAwareOperation;
@@ -45,6 +46,8 @@ public class MultipleEntryOperation extends MapOperation
     protected MapEntries responses;
     protected EntryProcessor entryProcessor;
 
+    protected transient boolean offload;
+
     public MultipleEntryOperation() {
     }
 
@@ -63,6 +66,15 @@ public class MultipleEntryOperation extends MapOperation
         entryProcessor = (EntryProcessor) managedContext.initialize(entryProcessor);
     }
 
+    @Override
+    public CallStatus call() throws Exception {
+        offload = EntryBatchOffload.isBatchingRequested(this, entryProcessor);
+        if (offload) {
+            return new EntryBatchOffload(this, entryProcessor, getPredicate(), keys);
+        }
+        return super.call();
+    }
+
     @Override
     @SuppressWarnings("checkstyle:npathcomplexity")
     protected void runInternal() {
@@ -89,9 +101,16 @@ public class MultipleEntryOperation extends MapOperation
         return responses;
     }
 
+    @Override
+    public boolean returnsResponse() {
+        // when offloaded, the response is sent later on by the EntryBatchOffload
+        return !offload && super.returnsResponse();
+    }
+
     @Override
     public boolean shouldBackup() {
-        return mapContainer.getTotalBackupCount() > 0 && entryProcessor.getBackupProcessor() != null;
+        // when offloaded, the backups are sent by the set & unlock operation
+        return !offload && mapContainer.getTotalBackupCount() > 0 && entryProcessor.getBackupProcessor() != null;
     }
 
     @Override
@@ -31,6 +31,7 @@ import com.hazelcast.query.impl.Indexes;
 import com.hazelcast.query.impl.QueryableEntry;
 import com.hazelcast.query.impl.predicates.QueryOptimizer;
 import com.hazelcast.spi.impl.operationservice.BackupAwareOperation;
+import com.hazelcast.spi.impl.operationservice.CallStatus;
 import com.hazelcast.spi.impl.operationservice.MutatingOperation;
 import com.hazelcast.spi.impl.operationservice.Operation;
 import com.hazelcast.spi.impl.operationservice.PartitionAwareOperation;
@@ -58,6 +59,7 @@ public class PartitionWideEntryOperation extends MapOperation
     protected transient EntryOperator operator;
     protected transient Set<Data> keysFromIndex;
     protected transient QueryOptimizer queryOptimizer;
+    protected transient boolean offload;
 
     public PartitionWideEntryOperation() {
     }
@@ -83,6 +85,15 @@ public class PartitionWideEntryOperation extends MapOperation
         return null;
     }
 
+    @Override
+    public CallStatus call() throws Exception {
+        offload = EntryBatchOffload.isBatchingRequested(this, entryProcessor);
+        if (offload) {
+            return new EntryBatchOffload(this, entryProcessor, getPredicate(), null);
+        }
+        return super.call();
+    }
+
     @Override
     protected void runInternal() {
         if (mapContainer.getMapConfig().getInMemoryFormat() == InMemoryFormat.NATIVE) {
@@ -194,9 +205,16 @@ public class PartitionWideEntryOperation extends MapOperation
         return responses;
     }
 
+    @Override
+    public boolean returnsResponse() {
+        // when offloaded, the response is sent later on by the EntryBatchOffload
+        return !offload && super.returnsResponse();
+    }
+
     @Override
     public boolean shouldBackup() {
-        return mapContainer.getTotalBackupCount() > 0 && entryProcessor.getBackupProcessor() != null;
+        // when offloaded, the backups are sent by the set & unlock operation
+        return !offload && mapContainer.getTotalBackupCount() > 0 && entryProcessor.getBackupProcessor() != null;
     }
 
     @Override
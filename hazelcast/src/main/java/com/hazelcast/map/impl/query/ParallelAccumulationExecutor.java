@@ -36,10 +36,16 @@ import static java.util.concurrent.TimeUnit.MILLISECONDS;
  * Implementation of the {@link AccumulationExecutor} that runs the accumulation in a multi-threaded way.
  * Entries are split into chunks and each chunk is sent as a task to the underlying executor.
  * At the end the result is merged to a single AggregationResult.
+ * <p>
+ * The chunk size adapts to the number of entries: if it's known upfront, the entries are split into a few chunks
+ * per executor thread; otherwise the chunks start small and double in size. In both cases the chunk size is kept
+ * between {@value #MIN_CHUNK_SIZE} and {@value #MAX_CHUNK_SIZE} entries.
  */
 public class ParallelAccumulationExecutor implements AccumulationExecutor {
 
-    private static final int THREAD_SPLIT_COUNT = 8;
+    static final int MIN_CHUNK_SIZE = 8;
+    static final int MAX_CHUNK_SIZE = 8192;
+    private static final int CHUNKS_PER_THREAD = 4;
 
     private final ManagedExecutorService executor;
     private final SerializationService serializationService;
@@ -76,12 +82,17 @@ public class ParallelAccumulationExecutor implements AccumulationExecutor {
     protected Collection<Aggregator> accumulateParallel(Aggregator aggregator, Iterable<QueryableEntry> entries) {
         Collection<Future<Aggregator>> futures = new ArrayList<>();
 
-        List<QueryableEntry> buffer = new ArrayList<>();
+        boolean sized = entries instanceof Collection;
+        int chunkSize = sized ? chunkSize(((Collection) entries).size()) : MIN_CHUNK_SIZE;
+        List<QueryableEntry> buffer = new ArrayList<>(chunkSize);
         for (QueryableEntry entry : entries) {
             buffer.add(entry);
-            if (buffer.size() == THREAD_SPLIT_COUNT) {
+            if (buffer.size() == chunkSize) {
                 futures.add(executor.submit(new AccumulatePartitionCallable(clone(aggregator), buffer)));
-                buffer = new ArrayList<>();
+                if (!sized) {
+                    chunkSize = Math.min(chunkSize * 2, MAX_CHUNK_SIZE);
+                }
+                buffer = new ArrayList<>(chunkSize);
             }
         }
 
@@ -92,6 +103,12 @@ public class ParallelAccumulationExecutor implements AccumulationExecutor {
         return returnWithDeadline(futures, callTimeoutInMillis, MILLISECONDS, RETHROW_EVERYTHING);
     }
 
+    int chunkSize(int entryCount) {
+        int chunkCount = Math.max(executor.getMaximumPoolSize(), 1) * CHUNKS_PER_THREAD;
+        int chunkSize = entryCount / chunkCount + 1;
+        return Math.max(MIN_CHUNK_SIZE, Math.min(chunkSize, MAX_CHUNK_SIZE));
+    }
+
     private Aggregator clone(Aggregator aggregator) {
         return serializationService.toObject(serializationService.toData(aggregator));
     }
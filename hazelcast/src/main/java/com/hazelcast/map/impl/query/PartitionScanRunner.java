@@ -35,9 +35,11 @@ import com.hazelcast.query.Predicate;
 import com.hazelcast.query.impl.QueryableEntriesSegment;
 import com.hazelcast.query.impl.QueryableEntry;
 import com.hazelcast.query.impl.getters.Extractors;
+import com.hazelcast.query.impl.predicates.CompiledPortablePredicate;
 import com.hazelcast.query.impl.predicates.PagingPredicateImpl;
 import com.hazelcast.spi.impl.NodeEngine;
 import com.hazelcast.spi.impl.operationservice.OperationService;
+import com.hazelcast.spi.properties.ClusterProperty;
 
 import java.util.Collection;
 import java.util.LinkedList;
@@ -49,6 +51,9 @@ import java.util.function.BiConsumer;
 import static com.hazelcast.internal.util.SortingUtil.compareAnchor;
 import static com.hazelcast.internal.util.ToHeapDataConverter.toHeapData;
 import static com.hazelcast.map.impl.record.Records.getValueOrCachedValue;
+import static com.hazelcast.query.impl.predicates.CompiledPortablePredicate.MATCH;
+import static com.hazelcast.query.impl.predicates.CompiledPortablePredicate.UNKNOWN;
+import static com.hazelcast.spi.properties.ClusterProperty.QUERY_COMPILED_PORTABLE_PREDICATES;
 
 /**
  * Responsible for running a full-partition scan for a single partition in the calling thread.
@@ -62,6 +67,7 @@ public class PartitionScanRunner {
     protected final IPartitionService partitionService;
     protected final OperationService operationService;
     protected final ClusterService clusterService;
+    protected final boolean compilePortablePredicates;
 
     public PartitionScanRunner(MapServiceContext mapServiceContext) {
         this.mapServiceContext = mapServiceContext;
@@ -71,6 +77,7 @@ public class PartitionScanRunner {
         this.logger = nodeEngine.getLogger(getClass());
         this.operationService = nodeEngine.getOperationService();
         this.clusterService = nodeEngine.getClusterService();
+        this.compilePortablePredicates = nodeEngine.getProperties().getBoolean(QUERY_COMPILED_PORTABLE_PREDICATES);
     }
 
     @SuppressWarnings("unchecked")
@@ -86,6 +93,8 @@ public class PartitionScanRunner {
         Extractors extractors = mapServiceContext.getExtractors(mapName);
         Map.Entry<Integer, Map.Entry> nearestAnchorEntry =
                 pagingPredicate == null ? null : pagingPredicate.getNearestAnchorEntry();
+        CompiledPortablePredicate compiledPredicate = compilePredicate(mapContainer,
+                pagingPredicate == null ? predicate : pagingPredicate.getPredicate());
 
         recordStore.forEachAfterLoad(new BiConsumer<Data, Record>() {
             LazyMapEntry queryEntry = new LazyMapEntry();
@@ -102,7 +111,7 @@ public class PartitionScanRunner {
                 queryEntry.setRecord(record);
                 queryEntry.setMetadata(recordStore.getMetadataStore().get(key));
 
-                if (predicate.apply(queryEntry)
+                if (apply(predicate, compiledPredicate, queryEntry, value)
                         && compareAnchor(pagingPredicate, queryEntry, nearestAnchorEntry)) {
 
                     // always copy key&value to heap if map is backed by native memory
@@ -148,6 +157,7 @@ public class PartitionScanRunner {
         PartitionContainer partitionContainer = mapServiceContext.getPartitionContainer(partitionId);
         RecordStore recordStore = partitionContainer.getRecordStore(mapName);
         Extractors extractors = mapServiceContext.getExtractors(mapName);
+        CompiledPortablePredicate compiledPredicate = compilePredicate(mapServiceContext.getMapContainer(mapName), predicate);
 
         while (resultList.size() < fetchSize && pointers[pointers.length - 1].getIndex() >= 0) {
             MapEntriesWithCursor cursor = recordStore.fetchEntries(pointers, fetchSize - resultList.size());
@@ -158,7 +168,7 @@ public class PartitionScanRunner {
             }
             for (Entry<Data, Data> entry : entries) {
                 QueryableEntry queryEntry = new LazyMapEntry(entry.getKey(), entry.getValue(), ss, extractors);
-                if (predicate.apply(queryEntry)) {
+                if (apply(predicate, compiledPredicate, queryEntry, entry.getValue())) {
                     resultList.add(queryEntry);
                 }
             }
@@ -166,6 +176,32 @@ public class PartitionScanRunner {
         return new QueryableEntriesSegment(resultList, pointers);
     }
 
+    /**
+     * Compiles the predicate to be evaluated on serialized portable values,
+     * see {@link ClusterProperty#QUERY_COMPILED_PORTABLE_PREDICATES}.
+     *
+     * @return the compiled predicate or {@code null} if the predicate is not
+     * compiled
+     */
+    protected CompiledPortablePredicate compilePredicate(MapContainer mapContainer, Predicate predicate) {
+        if (!compilePortablePredicates || predicate == null
+                || !mapContainer.getMapConfig().getAttributeConfigs().isEmpty()) {
+            return null;
+        }
+        return CompiledPortablePredicate.compile(predicate, ss);
+    }
+
+    private static boolean apply(Predicate predicate, CompiledPortablePredicate compiledPredicate,
+                                 QueryableEntry queryEntry, Object value) {
+        if (compiledPredicate != null) {
+            int result = compiledPredicate.evaluate(value);
+            if (result != UNKNOWN) {
+                return result == MATCH;
+            }
+        }
+        return predicate.apply(queryEntry);
+    }
+
     protected boolean isUseCachedDeserializedValuesEnabled(MapContainer mapContainer, int partitionId) {
         CacheDeserializedValues cacheDeserializedValues = mapContainer.getMapConfig().getCacheDeserializedValues();
         switch (cacheDeserializedValues) {
@@ -23,6 +23,7 @@ import com.hazelcast.nio.ObjectDataOutput;
 import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
 import com.hazelcast.projection.Projection;
 import com.hazelcast.query.PagingPredicate;
+import com.hazelcast.query.impl.predicates.PagingPredicateImpl;
 import com.hazelcast.query.Predicate;
 import com.hazelcast.internal.serialization.SerializationService;
 import com.hazelcast.internal.util.IterationType;
@@ -99,6 +100,10 @@ public class Query implements IdentifiedDataSerializable {
             Aggregator aggregatorClone = serializationService.toObject(serializationService.toData(aggregator));
             return new AggregationResult(aggregatorClone, serializationService);
         } else {
+            if (predicate instanceof PagingPredicateImpl) {
+                return new QueryResult(iterationType, projection, serializationService, limit,
+                        (PagingPredicateImpl) predicate);
+            }
             return new QueryResult(iterationType, projection, serializationService, limit, predicate instanceof PagingPredicate);
         }
     }
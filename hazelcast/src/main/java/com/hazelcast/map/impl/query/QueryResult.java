@@ -24,10 +24,12 @@ import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.projection.Projection;
 import com.hazelcast.query.PagingPredicate;
 import com.hazelcast.query.impl.QueryableEntry;
+import com.hazelcast.query.impl.predicates.PagingPredicateImpl;
 import com.hazelcast.internal.serialization.SerializationService;
 import com.hazelcast.internal.util.IterationType;
 import com.hazelcast.internal.util.SortingUtil;
 import com.hazelcast.internal.util.collection.PartitionIdSet;
+import com.hazelcast.internal.util.collection.TopN;
 
 import java.io.IOException;
 import java.util.ArrayList;
@@ -59,6 +61,9 @@ import static com.hazelcast.internal.serialization.impl.SerializationUtil.writeN
  * intermediate result is represented directly as a collection of {@link
  * QueryResultRow rows} and no further conversion is performed.
  * </ol>
+ * When the result is constructed for a {@link PagingPredicateImpl paging
+ * predicate}, the added entries are kept in a bounded heap, so that only the
+ * entries which may make it into the requested page are retained.
  */
 public class QueryResult implements Result<QueryResult>, Iterable<QueryResultRow> {
 
@@ -71,8 +76,10 @@ public class QueryResult implements Result<QueryResult>, Iterable<QueryResultRow
     private final transient long resultLimit;
     private final transient boolean orderAndLimitExpected;
     private final transient Projection projection;
+    private final transient PagingPredicateImpl pagingPredicate;
 
     private transient long resultSize;
+    private transient TopN<QueryableEntry> topN;
 
     /**
      * Constructs an empty result for the purposes of deserialization.
@@ -82,6 +89,7 @@ public class QueryResult implements Result<QueryResult>, Iterable<QueryResultRow
         orderAndLimitExpected = false;
         resultLimit = Long.MAX_VALUE;
         projection = null;
+        pagingPredicate = null;
     }
 
     /**
@@ -107,6 +115,35 @@ public class QueryResult implements Result<QueryResult>, Iterable<QueryResultRow
         this.serializationService = serializationService;
         this.resultLimit = resultLimit;
         this.orderAndLimitExpected = orderAndLimitExpected;
+        this.pagingPredicate = null;
+    }
+
+    /**
+     * Constructs an empty result for a query with a paging predicate. The
+     * call to the {@link #orderAndLimit} method is expected and only the
+     * entries up to the end of the requested page are retained.
+     *
+     * @param iterationType        the iteration type of the query for which
+     *                             this result is constructed for.
+     * @param projection           the projection of the query for which this
+     *                             result is constructed for.
+     * @param serializationService the serialization service associated with
+     *                             the query for which this result is
+     *                             constructed for.
+     * @param resultLimit          the upper limit on the number of items that
+     *                             can be {@link #add added} to this result.
+     * @param pagingPredicate      the paging predicate of the query.
+     */
+    public QueryResult(IterationType iterationType, Projection projection, SerializationService serializationService,
+                       long resultLimit, PagingPredicateImpl pagingPredicate) {
+        this.iterationType = iterationType;
+        this.projection = projection;
+        this.serializationService = serializationService;
+        this.resultLimit = resultLimit;
+        this.orderAndLimitExpected = true;
+        this.pagingPredicate = pagingPredicate;
+        this.topN = new TopN<>(SortingUtil.getPageLimit(pagingPredicate, pagingPredicate.getNearestAnchorEntry()),
+                SortingUtil.newComparator(pagingPredicate));
     }
 
     // for testing
@@ -154,22 +191,38 @@ public class QueryResult implements Result<QueryResult>, Iterable<QueryResultRow
             throw new QueryResultSizeExceededException();
         }
 
-        rows.add(orderAndLimitExpected ? entry : convertEntryToRow(entry));
+        if (topN != null) {
+            topN.add(entry);
+        } else {
+            rows.add(orderAndLimitExpected ? entry : convertEntryToRow(entry));
+        }
     }
 
     @Override
     public QueryResult createSubResult() {
+        if (pagingPredicate != null) {
+            return new QueryResult(iterationType, projection, serializationService, resultLimit, pagingPredicate);
+        }
         return new QueryResult(iterationType, projection, serializationService, resultLimit, orderAndLimitExpected);
     }
 
     @Override
     public void orderAndLimit(PagingPredicate pagingPredicate, Map.Entry<Integer, Map.Entry> nearestAnchorEntry) {
-        rows = SortingUtil.getSortedSubList(rows, pagingPredicate, nearestAnchorEntry);
+        if (topN != null) {
+            // the heap already holds the entries up to the end of the page
+            rows = topN.toSortedList();
+        } else {
+            rows = SortingUtil.getSortedSubList(rows, pagingPredicate, nearestAnchorEntry);
+        }
     }
 
     @Override
     public void completeConstruction(PartitionIdSet partitionIds) {
         setPartitionIds(partitionIds);
+        if (topN != null) {
+            rows = topN.toSortedList();
+            topN = null;
+        }
         if (orderAndLimitExpected) {
             for (ListIterator iterator = rows.listIterator(); iterator.hasNext(); ) {
                 iterator.set(convertEntryToRow((QueryableEntry) iterator.next()));
@@ -201,7 +254,13 @@ public class QueryResult implements Result<QueryResult>, Iterable<QueryResultRow
         } else {
             partitionIds.addAll(otherPartitionIds);
         }
-        rows.addAll(result.rows);
+        if (topN == null) {
+            rows.addAll(result.rows);
+        } else if (result.topN != null) {
+            topN.addAll(result.topN.toSortedList());
+        } else {
+            topN.addAll(result.rows);
+        }
     }
 
     @Override
@@ -57,7 +57,7 @@ public class NodeQueryCacheContext implements QueryCacheContext {
     private final InvokerWrapper invokerWrapper;
     private final MapServiceContext mapServiceContext;
     private final QueryCacheScheduler queryCacheScheduler;
-    private final QueryCacheEventService queryCacheEventService;
+    private final NodeQueryCacheEventService queryCacheEventService;
     private final QueryCacheConfigurator queryCacheConfigurator;
     private final ContextMutexFactory lifecycleMutexFactory = new ContextMutexFactory();
 
@@ -74,7 +74,7 @@ public class NodeQueryCacheContext implements QueryCacheContext {
                 nodeEngine.getConfigClassLoader(), queryCacheEventService);
         this.invokerWrapper = new NodeInvokerWrapper(nodeEngine.getOperationService());
         // init these in the end
-        this.subscriberContext = new NodeSubscriberContext(this);
+        this.subscriberContext = new NodeSubscriberContext(this, mapServiceContext);
         this.publisherContext = new DefaultPublisherContext(this, nodeEngine, new RegisterMapListenerFunction());
         flushPublishersOnNodeShutdown();
     }
@@ -89,6 +89,7 @@ public class NodeQueryCacheContext implements QueryCacheContext {
         lifecycleService.addLifecycleListener(event -> {
             if (SHUTTING_DOWN == event.getState()) {
                 publisherContext.flush();
+                queryCacheEventService.flushBatchedEvents();
             }
         });
     }
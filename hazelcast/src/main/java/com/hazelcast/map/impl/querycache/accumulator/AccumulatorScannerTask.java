@@ -74,7 +74,7 @@ public class AccumulatorScannerTask implements Runnable {
                     Integer partitionId = accumulatorEntry.getKey();
                     Accumulator accumulator = accumulatorEntry.getValue();
                     int size = accumulator.size();
-                    if (size > 0) {
+                    if (size > 0 && !isPopulatedInChunks(accumulator.getInfo())) {
                         consumer.consume(accumulator, partitionId);
                     }
                 }
@@ -85,6 +85,20 @@ public class AccumulatorScannerTask implements Runnable {
         consumer.reset();
     }
 
+    /**
+     * Returns {@code true} if the query cache of the given publisher info is
+     * being populated in chunks. Its publishers take no snapshot and are not
+     * publishable until the population completes, the events they buffer
+     * meanwhile are replayed by the populating member and must not be
+     * published. Publishers of other query caches are either publishable or
+     * take a snapshot.
+     *
+     * @see com.hazelcast.map.impl.querycache.subscriber.NodeQueryCacheEndToEndConstructor
+     */
+    private static boolean isPopulatedInChunks(AccumulatorInfo info) {
+        return !info.isPopulate() && !info.isPublishable();
+    }
+
     private void sendConsumerOperation() {
         Map<Integer, Queue<Accumulator>> partitionAccumulators = consumer.getPartitionAccumulators();
         if (partitionAccumulators == null || partitionAccumulators.isEmpty()) {
@@ -39,8 +39,8 @@ import static com.hazelcast.internal.util.Preconditions.checkNotNull;
 @BinaryInterface
 public class BatchEventData implements Sequenced, EventData {
 
-    private String source;
-    private Collection<QueryCacheEventData> events;
+    protected String source;
+    protected Collection<QueryCacheEventData> events;
     private transient int partitionId;
 
     public BatchEventData() {
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.querycache.event;
+
+import com.hazelcast.internal.nio.IOUtil;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.map.impl.MapDataSerializerHook;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.hazelcast.map.impl.querycache.event.QueryCacheEventDataBuilder.newQueryCacheEventDataBuilder;
+
+/**
+ * A {@link BatchEventData} holding the events of many partitions of a
+ * query cache, serialized in a compact form:
+ * <ul>
+ * <li>the events are grouped by partition, so the partition ID is
+ * written once per partition,</li>
+ * <li>the sequence of an event is written as a variable-length delta
+ * to the sequence of the previous event of its partition,</li>
+ * <li>the values are omitted altogether if none of the events carries
+ * one, as when the query cache does not include values.</li>
+ * </ul>
+ * The order of the events of a partition is preserved.
+ */
+public class PackedBatchEventData extends BatchEventData implements IdentifiedDataSerializable {
+
+    private static final int VAR_INT_PAYLOAD_BITS = 7;
+    private static final int VAR_INT_PAYLOAD_MASK = 0x7F;
+    private static final int VAR_INT_CONTINUATION_BIT = 0x80;
+
+    public PackedBatchEventData() {
+    }
+
+    public PackedBatchEventData(Collection<QueryCacheEventData> events, String source, int partitionId) {
+        super(events, source, partitionId);
+    }
+
+    @Override
+    public void writeData(ObjectDataOutput out) throws IOException {
+        Map<Integer, List<QueryCacheEventData>> eventsByPartition = new LinkedHashMap<>();
+        boolean includeValue = false;
+        for (QueryCacheEventData eventData : events) {
+            eventsByPartition.computeIfAbsent(eventData.getPartitionId(), k -> new ArrayList<>()).add(eventData);
+            includeValue |= eventData.getDataNewValue() != null;
+        }
+
+        out.writeUTF(source);
+        out.writeBoolean(includeValue);
+        out.writeInt(eventsByPartition.size());
+        for (Map.Entry<Integer, List<QueryCacheEventData>> entry : eventsByPartition.entrySet()) {
+            List<QueryCacheEventData> partitionEvents = entry.getValue();
+            out.writeInt(entry.getKey());
+            out.writeInt(partitionEvents.size());
+            long previousSequence = 0;
+            for (QueryCacheEventData eventData : partitionEvents) {
+                writeVarLong(out, zigZagEncode(eventData.getSequence() - previousSequence));
+                writeVarLong(out, eventData.getEventType());
+                IOUtil.writeData(out, eventData.getDataKey());
+                if (includeValue) {
+                    IOUtil.writeData(out, eventData.getDataNewValue());
+                }
+                previousSequence = eventData.getSequence();
+            }
+        }
+    }
+
+    @Override
+    public void readData(ObjectDataInput in) throws IOException {
+        source = in.readUTF();
+        boolean includeValue = in.readBoolean();
+        int partitionCount = in.readInt();
+        events = new ArrayList<>();
+        for (int i = 0; i < partitionCount; i++) {
+            int partitionId = in.readInt();
+            int eventCount = in.readInt();
+            long sequence = 0;
+            for (int j = 0; j < eventCount; j++) {
+                sequence += zigZagDecode(readVarLong(in));
+                int eventType = (int) readVarLong(in);
+                Data dataKey = IOUtil.readData(in);
+                Data dataNewValue = includeValue ? IOUtil.readData(in) : null;
+
+                QueryCacheEventData eventData = newQueryCacheEventDataBuilder(includeValue)
+                        .withSequence(sequence)
+                        .withPartitionId(partitionId)
+                        .withEventType(eventType)
+                        .withDataKey(dataKey)
+                        .withDataNewValue(dataNewValue)
+                        .build();
+                events.add(eventData);
+            }
+        }
+    }
+
+    @Override
+    public int getFactoryId() {
+        return MapDataSerializerHook.F_ID;
+    }
+
+    @Override
+    public int getClassId() {
+        return MapDataSerializerHook.PACKED_BATCH_EVENT_DATA;
+    }
+
+    private static long zigZagEncode(long value) {
+        return (value << 1) ^ (value >> (Long.SIZE - 1));
+    }
+
+    private static long zigZagDecode(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void writeVarLong(ObjectDataOutput out, long value) throws IOException {
+        while ((value & ~VAR_INT_PAYLOAD_MASK) != 0) {
+            out.writeByte((int) (value & VAR_INT_PAYLOAD_MASK) | VAR_INT_CONTINUATION_BIT);
+            value >>>= VAR_INT_PAYLOAD_BITS;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarLong(ObjectDataInput in) throws IOException {
+        long value = 0;
+        int shift = 0;
+        int b;
+        do {
+            b = in.readByte();
+            value |= (long) (b & VAR_INT_PAYLOAD_MASK) << shift;
+            shift += VAR_INT_PAYLOAD_BITS;
+        } while ((b & VAR_INT_CONTINUATION_BIT) != 0);
+        return value;
+    }
+}
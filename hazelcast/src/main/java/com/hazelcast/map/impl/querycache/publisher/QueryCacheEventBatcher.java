@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.querycache.publisher;
+
+import com.hazelcast.map.impl.querycache.QueryCacheEventService;
+import com.hazelcast.map.impl.querycache.event.BatchEventData;
+import com.hazelcast.map.impl.querycache.event.PackedBatchEventData;
+import com.hazelcast.map.impl.querycache.event.QueryCacheEventData;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static com.hazelcast.internal.util.HashUtil.hashToIndex;
+
+/**
+ * Collects the events which publishers send to the subscribers of query
+ * caches and sends the events of all partitions of a query cache in a
+ * single {@link PackedBatchEventData} when {@link #flush()} is called.
+ * <p>
+ * All batches of a query cache are sent with the same order key, so the
+ * subscriber receives the events of a partition in the order they were
+ * added. Events can be added concurrently, batches are sent by a single
+ * thread at a time.
+ */
+public class QueryCacheEventBatcher {
+
+    /**
+     * The maximum number of events sent in a single batch.
+     */
+    public static final int MAX_BATCH_SIZE = 1000;
+
+    private final String source;
+    private final int partitionCount;
+    private final QueryCacheEventService eventService;
+    private final ConcurrentMap<String, List<QueryCacheEventData>> pendingEvents = new ConcurrentHashMap<>();
+
+    public QueryCacheEventBatcher(String source, int partitionCount, QueryCacheEventService eventService) {
+        this.source = source;
+        this.partitionCount = partitionCount;
+        this.eventService = eventService;
+    }
+
+    /**
+     * Adds the given {@link QueryCacheEventData} or the events of the given
+     * {@link BatchEventData} to the next batch of the query cache.
+     *
+     * @param cacheId   ID of the query cache
+     * @param eventData the event or batch of events to send
+     */
+    public void add(String cacheId, Object eventData) {
+        pendingEvents.compute(cacheId, (id, events) -> {
+            List<QueryCacheEventData> pending = events == null ? new ArrayList<>() : events;
+            if (eventData instanceof BatchEventData) {
+                pending.addAll(((BatchEventData) eventData).getEvents());
+            } else {
+                pending.add((QueryCacheEventData) eventData);
+            }
+            return pending;
+        });
+    }
+
+    /**
+     * Sends the events added so far.
+     */
+    public synchronized void flush() {
+        for (String cacheId : pendingEvents.keySet()) {
+            // the events added from now on go to a new list
+            List<QueryCacheEventData> events = pendingEvents.remove(cacheId);
+            if (events == null) {
+                continue;
+            }
+            int orderKey = hashToIndex(cacheId.hashCode(), partitionCount);
+            for (int from = 0; from < events.size(); from += MAX_BATCH_SIZE) {
+                List<QueryCacheEventData> batch = events.subList(from, Math.min(events.size(), from + MAX_BATCH_SIZE));
+                eventService.sendEventToSubscriber(cacheId, new PackedBatchEventData(batch, source, orderKey), orderKey);
+            }
+        }
+    }
+}
@@ -17,14 +17,22 @@
 package com.hazelcast.map.impl.querycache.subscriber;
 
 import com.hazelcast.cluster.Member;
+import com.hazelcast.core.EntryEventType;
+import com.hazelcast.internal.iteration.IterationPointer;
 import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.internal.util.ExceptionUtil;
+import com.hazelcast.internal.util.IterationType;
+import com.hazelcast.map.impl.MapServiceContext;
+import com.hazelcast.map.impl.query.Query;
 import com.hazelcast.map.impl.query.QueryResult;
 import com.hazelcast.map.impl.query.QueryResultRow;
+import com.hazelcast.map.impl.query.ResultSegment;
 import com.hazelcast.map.impl.querycache.InvokerWrapper;
 import com.hazelcast.map.impl.querycache.accumulator.AccumulatorInfo;
+import com.hazelcast.map.impl.querycache.event.QueryCacheEventData;
 import com.hazelcast.map.impl.querycache.subscriber.operation.MadePublishableOperation;
 import com.hazelcast.map.impl.querycache.subscriber.operation.PublisherCreateOperation;
+import com.hazelcast.map.impl.querycache.subscriber.operation.ReadAndResetAccumulatorOperation;
 import com.hazelcast.spi.impl.operationservice.Operation;
 
 import java.util.ArrayList;
@@ -35,6 +43,7 @@ import java.util.concurrent.Future;
 import static com.hazelcast.internal.util.CollectionUtil.isEmpty;
 import static com.hazelcast.internal.util.FutureUtil.returnWithDeadline;
 import static com.hazelcast.internal.util.FutureUtil.waitWithDeadline;
+import static com.hazelcast.map.impl.querycache.accumulator.AccumulatorInfo.toAccumulatorInfo;
 import static java.lang.String.format;
 import static java.util.concurrent.TimeUnit.MINUTES;
 
@@ -45,20 +54,44 @@ import static java.util.concurrent.TimeUnit.MINUTES;
  */
 public class NodeQueryCacheEndToEndConstructor extends AbstractQueryCacheEndToEndConstructor {
 
-    public NodeQueryCacheEndToEndConstructor(QueryCacheRequest request) {
+    /**
+     * The number of times a partition is loaded before the query cache
+     * gives up on an accumulator which keeps overflowing.
+     */
+    private static final int MAX_PARTITION_POPULATION_ATTEMPTS = 3;
+
+    private final MapServiceContext mapServiceContext;
+    private final int populationFetchSize;
+
+    /**
+     * @param populationFetchSize the number of entries fetched at once when
+     *                            populating the query cache partition by
+     *                            partition or {@code 0} to populate it from
+     *                            a single snapshot of every member
+     */
+    public NodeQueryCacheEndToEndConstructor(QueryCacheRequest request, MapServiceContext mapServiceContext,
+                                             int populationFetchSize) {
         super(request);
+        this.mapServiceContext = mapServiceContext;
+        this.populationFetchSize = populationFetchSize;
     }
 
     @Override
     public void createPublisherAccumulator(AccumulatorInfo info, boolean urgent) {
-        // create publishers and execute initial population query in one go
-        Collection<QueryResult> results = createPublishersAndGetQueryResults(info);
-        if (!isEmpty(results)) {
-            prepopulate(queryCache, results);
-        }
-
         boolean populate = info.isPopulate();
 
+        if (populate && populationFetchSize > 0) {
+            // create publishers which buffer the events, then populate in chunks
+            createPublishersAndGetQueryResults(withoutPopulation(info));
+            populateIncrementally(info);
+        } else {
+            // create publishers and execute initial population query in one go
+            Collection<QueryResult> results = createPublishersAndGetQueryResults(info);
+            if (!isEmpty(results)) {
+                prepopulate(queryCache, results);
+            }
+        }
+
         if (logger.isFinestEnabled()) {
             logger.finest(format("Pre population is %s", populate ? "enabled" : "disabled"));
         }
@@ -80,6 +113,147 @@ public class NodeQueryCacheEndToEndConstructor extends AbstractQueryCacheEndToEn
         return returnWithDeadline(futures, OPERATION_WAIT_TIMEOUT_MINUTES, MINUTES);
     }
 
+    /**
+     * Returns a copy of the given info which makes the publishers buffer
+     * the events of the query cache without taking a snapshot. The copy
+     * is not publishable, which keeps the accumulator scanner from
+     * publishing the buffered events.
+     */
+    private static AccumulatorInfo withoutPopulation(AccumulatorInfo info) {
+        return toAccumulatorInfo(info.getMapName(), info.getCacheId(), info.getPredicate(), info.getBatchSize(),
+                info.getBufferSize(), info.getDelaySeconds(), info.isIncludeValue(), false, info.isCoalesce());
+    }
+
+    /**
+     * Populates the query cache one partition at a time. The entries of a
+     * partition are fetched in chunks of {@code populationFetchSize} with
+     * a single chunk in flight, so neither the members nor this member
+     * have to hold the whole snapshot. The events buffered by the publisher
+     * of the partition are read after every chunk, so its accumulator only
+     * has to hold the events of a single chunk fetch, and are replayed over
+     * the loaded entries once the partition is loaded.
+     */
+    private void populateIncrementally(AccumulatorInfo info) {
+        String mapName = info.getMapName();
+        String cacheId = info.getCacheId();
+        IterationType iterationType = info.isIncludeValue() ? IterationType.ENTRY : IterationType.KEY;
+        Query query = Query.of().mapName(mapName).predicate(info.getPredicate()).iterationType(iterationType).build();
+
+        int partitionCount = context.getPartitionCount();
+        for (int partitionId = 0; partitionId < partitionCount && !queryCache.reachedMaxCapacity(); partitionId++) {
+            List<QueryCacheEventData> events = populatePartition(mapName, cacheId, query, partitionId);
+            replayEvents(events, partitionId);
+        }
+    }
+
+    /**
+     * Loads the entries of the partition and returns the events buffered
+     * meanwhile. When the accumulator of the partition overflowed while a
+     * chunk was fetched, the loaded entries are dropped and the partition
+     * is loaded again, since an update of an entry which was already
+     * fetched may have been lost.
+     */
+    private List<QueryCacheEventData> populatePartition(String mapName, String cacheId, Query query, int partitionId) {
+        for (int attempt = 1; ; attempt++) {
+            // the events buffered so far are reflected by the chunks fetched below
+            readAndResetAccumulator(mapName, cacheId, partitionId);
+            List<QueryCacheEventData> events = new ArrayList<>();
+            boolean lostEvents = fetchPartition(mapName, cacheId, query, partitionId, events);
+            if (!lostEvents) {
+                return events;
+            }
+            if (attempt == MAX_PARTITION_POPULATION_ATTEMPTS) {
+                logger.warning(format("Events of partition %d of query cache %s were lost while it was populated,"
+                        + " consider increasing its buffer size", partitionId, cacheId));
+                return events;
+            }
+            queryCache.removeEntriesOf(partitionId);
+        }
+    }
+
+    /**
+     * Fetches the entries of the partition into the query cache and adds
+     * the events buffered meanwhile to the given list.
+     *
+     * @return {@code true} if the accumulator of the partition overflowed
+     * and dropped events
+     */
+    private boolean fetchPartition(String mapName, String cacheId, Query query, int partitionId,
+                                   List<QueryCacheEventData> events) {
+        IterationPointer[] pointers = {new IterationPointer(Integer.MAX_VALUE, -1)};
+        boolean lostEvents = false;
+        do {
+            Operation operation = mapServiceContext.getMapOperationProvider(mapName)
+                    .createFetchWithQueryOperation(mapName, pointers, populationFetchSize, query);
+            ResultSegment segment = invokeOnPartition(operation, partitionId);
+            lostEvents |= drainAccumulator(mapName, cacheId, partitionId, events);
+            QueryResult queryResult = (QueryResult) segment.getResult();
+            if (queryResult == null || queryResult.isEmpty()) {
+                break;
+            }
+            for (QueryResultRow row : queryResult) {
+                if (queryCache.reachedMaxCapacity()) {
+                    return lostEvents;
+                }
+                queryCache.prepopulate(row.getKey(), row.getValue());
+            }
+            pointers = segment.getPointers();
+        } while (pointers[pointers.length - 1].getIndex() >= 0);
+        return lostEvents;
+    }
+
+    /**
+     * Moves the events buffered by the accumulator of the partition to the
+     * given list.
+     *
+     * @return {@code true} if the accumulator overflowed since its last reset
+     */
+    private boolean drainAccumulator(String mapName, String cacheId, int partitionId, List<QueryCacheEventData> events) {
+        List<QueryCacheEventData> drained = readAndResetAccumulator(mapName, cacheId, partitionId);
+        if (isEmpty(drained)) {
+            return false;
+        }
+        events.addAll(drained);
+        // a reset accumulator numbers the events from 1, an overflowing one overwrites the oldest events
+        return drained.get(0).getSequence() != 1;
+    }
+
+    private List<QueryCacheEventData> readAndResetAccumulator(String mapName, String cacheId, int partitionId) {
+        Object events = invokeOnPartition(new ReadAndResetAccumulatorOperation(mapName, cacheId), partitionId);
+        return (List<QueryCacheEventData>) toObject(events);
+    }
+
+    private void replayEvents(List<QueryCacheEventData> events, int partitionId) {
+        for (QueryCacheEventData event : events) {
+            Data keyData = event.getDataKey();
+            if (keyData == null) {
+                // a map-wide event like clear-all or evict-all
+                queryCache.removeEntriesOf(partitionId);
+                continue;
+            }
+            EntryEventType eventType = EntryEventType.getByType(event.getEventType());
+            switch (eventType) {
+                case REMOVED:
+                case EVICTED:
+                case EXPIRED:
+                    queryCache.delete(keyData, eventType);
+                    break;
+                default:
+                    queryCache.prepopulate(keyData, event.getDataNewValue());
+            }
+        }
+    }
+
+    private <T> T invokeOnPartition(Operation operation, int partitionId) {
+        InvokerWrapper invokerWrapper = context.getInvokerWrapper();
+        Future<T> future = invokerWrapper.invokeOnPartitionOwner(operation, partitionId);
+        try {
+            return future.get(OPERATION_WAIT_TIMEOUT_MINUTES, MINUTES);
+        } catch (Throwable t) {
+            throw ExceptionUtil.rethrow(t);
+        }
+    }
+
     private void madePublishable(String mapName, String cacheId) {
         InvokerWrapper invokerWrapper = context.getInvokerWrapper();
 
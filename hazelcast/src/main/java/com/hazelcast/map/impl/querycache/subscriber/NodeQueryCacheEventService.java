@@ -28,6 +28,8 @@ import com.hazelcast.map.impl.querycache.QueryCacheEventService;
 import com.hazelcast.map.impl.querycache.QueryCacheListenerAdapter;
 import com.hazelcast.map.impl.querycache.event.LocalCacheWideEventData;
 import com.hazelcast.map.impl.querycache.event.LocalEntryEventData;
+import com.hazelcast.map.impl.querycache.event.PackedBatchEventData;
+import com.hazelcast.map.impl.querycache.publisher.QueryCacheEventBatcher;
 import com.hazelcast.map.listener.MapListener;
 import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.query.impl.QueryEntry;
@@ -46,6 +48,8 @@ import java.util.Collection;
 import java.util.UUID;
 
 import static com.hazelcast.map.impl.MapService.SERVICE_NAME;
+import static com.hazelcast.spi.properties.ClusterProperty.QUERY_CACHE_EVENT_BATCHING_DELAY_MILLIS;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static com.hazelcast.map.impl.querycache.subscriber.QueryCacheEventListenerAdapters.createQueryCacheListenerAdaptor;
 import static com.hazelcast.internal.nio.IOUtil.closeResource;
 import static com.hazelcast.internal.util.Preconditions.checkHasText;
@@ -61,12 +65,35 @@ public class NodeQueryCacheEventService implements QueryCacheEventService<EventD
     private final EventService eventService;
     private final ContextMutexFactory lifecycleMutexFactory;
     private final MapServiceContext mapServiceContext;
+    private final QueryCacheEventBatcher eventBatcher;
 
     public NodeQueryCacheEventService(MapServiceContext mapServiceContext, ContextMutexFactory lifecycleMutexFactory) {
         this.mapServiceContext = mapServiceContext;
         NodeEngine nodeEngine = mapServiceContext.getNodeEngine();
         this.eventService = nodeEngine.getEventService();
         this.lifecycleMutexFactory = lifecycleMutexFactory;
+        this.eventBatcher = createEventBatcher(nodeEngine);
+    }
+
+    private QueryCacheEventBatcher createEventBatcher(NodeEngine nodeEngine) {
+        long delayMillis = nodeEngine.getProperties().getMillis(QUERY_CACHE_EVENT_BATCHING_DELAY_MILLIS);
+        if (delayMillis <= 0) {
+            return null;
+        }
+        QueryCacheEventBatcher batcher = new QueryCacheEventBatcher(nodeEngine.getThisAddress().toString(),
+                nodeEngine.getPartitionService().getPartitionCount(), this);
+        nodeEngine.getExecutionService().scheduleWithRepetition(batcher::flush, delayMillis, delayMillis, MILLISECONDS);
+        return batcher;
+    }
+
+    /**
+     * Sends the events which are batched to be sent to the subscribers,
+     * if batching of the events is enabled.
+     */
+    public void flushBatchedEvents() {
+        if (eventBatcher != null) {
+            eventBatcher.flush();
+        }
     }
 
     // TODO not used order key
@@ -228,6 +255,10 @@ public class NodeQueryCacheEventService implements QueryCacheEventService<EventD
 
     @Override
     public void sendEventToSubscriber(String name, Object eventData, int orderKey) {
+        if (eventBatcher != null && !(eventData instanceof PackedBatchEventData)) {
+            eventBatcher.add(name, eventData);
+            return;
+        }
         Collection<EventRegistration> eventRegistrations = getRegistrations(name);
         if (eventRegistrations.isEmpty()) {
             return;
@@ -16,8 +16,11 @@
 
 package com.hazelcast.map.impl.querycache.subscriber;
 
+import com.hazelcast.map.impl.MapServiceContext;
 import com.hazelcast.map.impl.querycache.QueryCacheContext;
 
+import static com.hazelcast.spi.properties.ClusterProperty.QUERY_CACHE_POPULATION_FETCH_SIZE;
+
 /**
  * Node side implementation of {@code SubscriberContext}.
  *
@@ -25,11 +28,16 @@ import com.hazelcast.map.impl.querycache.QueryCacheContext;
  */
 public class NodeSubscriberContext extends AbstractSubscriberContext {
 
+    private final MapServiceContext mapServiceContext;
     private final SubscriberContextSupport subscriberContextSupport;
+    private final int populationFetchSize;
 
-    public NodeSubscriberContext(QueryCacheContext context) {
+    public NodeSubscriberContext(QueryCacheContext context, MapServiceContext mapServiceContext) {
         super(context);
-        subscriberContextSupport = new NodeSubscriberContextSupport(context.getSerializationService());
+        this.mapServiceContext = mapServiceContext;
+        this.subscriberContextSupport = new NodeSubscriberContextSupport(context.getSerializationService());
+        this.populationFetchSize = mapServiceContext.getNodeEngine().getProperties()
+                .getInteger(QUERY_CACHE_POPULATION_FETCH_SIZE);
     }
 
     @Override
@@ -39,6 +47,6 @@ public class NodeSubscriberContext extends AbstractSubscriberContext {
 
     @Override
     public QueryCacheEndToEndConstructor newEndToEndConstructor(QueryCacheRequest request) {
-        return new NodeQueryCacheEndToEndConstructor(request);
+        return new NodeQueryCacheEndToEndConstructor(request, mapServiceContext, populationFetchSize);
     }
 }
@@ -18,8 +18,11 @@ package com.hazelcast.map.impl.recordstore;
 
 import com.hazelcast.config.EventJournalConfig;
 import com.hazelcast.config.EvictionPolicy;
+import com.hazelcast.config.HotRestartConfig;
 import com.hazelcast.config.InMemoryFormat;
 import com.hazelcast.config.MetadataPolicy;
+import com.hazelcast.internal.hotrestart.impl.DiskHotRestartService;
+import com.hazelcast.internal.hotrestart.impl.PartitionLog;
 import com.hazelcast.internal.locksupport.LockStore;
 import com.hazelcast.internal.locksupport.LockSupportService;
 import com.hazelcast.internal.monitor.LocalRecordStoreStats;
@@ -108,6 +111,18 @@ abstract class AbstractRecordStore implements RecordStore<Record> {
                     JsonMetadataInitializer.INSTANCE, metadataStore));
         }
 
+        // Add observer for hot restart persistence
+        HotRestartConfig hotRestartConfig = mapContainer.getMapConfig().getHotRestartConfig();
+        if (hotRestartConfig.isEnabled()) {
+            DiskHotRestartService hotRestartService = mapServiceContext.getNodeEngine()
+                    .getServiceOrNull(DiskHotRestartService.SERVICE_NAME);
+            if (hotRestartService != null) {
+                PartitionLog partitionLog = hotRestartService.getPartitionLog(partitionId);
+                mutationObserver.add(new HotRestartMutationObserver(partitionLog, name, hotRestartConfig.isFsync(),
+                        serializationService));
+            }
+        }
+
         // Add observer for indexing
         indexingObserver = new IndexingMutationObserver<>(this, serializationService);
         mutationObserver.add(indexingObserver);
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.recordstore;
+
+import com.hazelcast.internal.hotrestart.impl.PartitionLog;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.map.impl.record.Record;
+
+import javax.annotation.Nonnull;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Appends the mutations of a record store to the {@link PartitionLog} of
+ * its partition. Evictions are persisted as removals so that the log
+ * mirrors the entries held in memory.
+ */
+public class HotRestartMutationObserver implements MutationObserver<Record> {
+
+    private final PartitionLog partitionLog;
+    private final byte[] name;
+    private final boolean fsync;
+    private final SerializationService serializationService;
+
+    public HotRestartMutationObserver(PartitionLog partitionLog, String name, boolean fsync,
+                                      SerializationService serializationService) {
+        this.partitionLog = partitionLog;
+        this.name = name.getBytes(UTF_8);
+        this.fsync = fsync;
+        this.serializationService = serializationService;
+    }
+
+    @Override
+    public void onPutRecord(@Nonnull Data key, Record record, Object oldValue, boolean backup) {
+        put(key, record.getValue());
+    }
+
+    @Override
+    public void onReplicationPutRecord(@Nonnull Data key, @Nonnull Record record, boolean populateIndex) {
+        put(key, record.getValue());
+    }
+
+    @Override
+    public void onUpdateRecord(@Nonnull Data key, @Nonnull Record record,
+                               Object oldValue, Object newValue, boolean backup) {
+        put(key, newValue);
+    }
+
+    @Override
+    public void onRemoveRecord(@Nonnull Data key, Record record) {
+        partitionLog.remove(name, key.toByteArray(), fsync);
+    }
+
+    @Override
+    public void onEvictRecord(@Nonnull Data key, @Nonnull Record record) {
+        partitionLog.remove(name, key.toByteArray(), fsync);
+    }
+
+    @Override
+    public void onLoadRecord(@Nonnull Data key, @Nonnull Record record, boolean backup) {
+        put(key, record.getValue());
+    }
+
+    @Override
+    public void onReset() {
+        partitionLog.clear(name, fsync);
+    }
+
+    @Override
+    public void onClear() {
+        partitionLog.clear(name, fsync);
+    }
+
+    @Override
+    public void onDestroy(boolean isDuringShutdown, boolean internal) {
+        if (!isDuringShutdown) {
+            partitionLog.clear(name, fsync);
+        }
+    }
+
+    private void put(Data key, Object value) {
+        Data valueData = serializationService.toData(value);
+        partitionLog.put(name, key.toByteArray(), valueData.toByteArray(), fsync);
+    }
+}
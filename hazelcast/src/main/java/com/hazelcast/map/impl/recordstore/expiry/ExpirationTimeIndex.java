@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.recordstore.expiry;
+
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.util.collection.Long2ObjectHashMap;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Index of expirable keys by the second they expire in. Lets the
+ * {@link ExpirySystem} find expired keys by looking only at the
+ * buckets of the seconds that have passed, instead of scanning all
+ * expirable keys.
+ * <p>
+ * The index is a hint. A key is added when it gets an expiration time,
+ * but it is not removed when that time changes or the key is removed.
+ * Polled keys have to be checked against their current expiry metadata
+ * and added again if they expire later.
+ * <p>
+ * Only updated by the partition thread, {@link #hasDue(long)} can be
+ * called from any thread.
+ */
+class ExpirationTimeIndex {
+
+    private final Long2ObjectHashMap<List<Data>> keysBySecond = new Long2ObjectHashMap<>();
+
+    /**
+     * The lowest second which can have a non-empty bucket.
+     */
+    private volatile long nextSecond = Long.MAX_VALUE;
+    private long lastPolledSecond = -1;
+    private int size;
+
+    static long toSecond(long millis) {
+        return MILLISECONDS.toSeconds(millis);
+    }
+
+    void add(Data key, long expirationTime) {
+        addToSecond(key, toSecond(expirationTime));
+    }
+
+    void addToSecond(Data key, long second) {
+        List<Data> bucket = keysBySecond.get(second);
+        if (bucket == null) {
+            bucket = new ArrayList<>();
+            keysBySecond.put(second, bucket);
+        }
+        bucket.add(key);
+        size++;
+        nextSecond = Math.min(nextSecond, second);
+    }
+
+    /**
+     * @return {@code true} if a bucket of a second before or at the given
+     * time may be non-empty, {@code false} otherwise
+     */
+    boolean hasDue(long now) {
+        return nextSecond <= toSecond(now);
+    }
+
+    /**
+     * Removes the bucket of the lowest second before or at the given time.
+     * The keys which are not processed can be put back with
+     * {@link #addToSecond(Data, long)}.
+     *
+     * @return the keys of the bucket or {@code null} if no such bucket exists
+     */
+    List<Data> pollDue(long now) {
+        long nowSecond = toSecond(now);
+        while (nextSecond <= nowSecond) {
+            List<Data> bucket = keysBySecond.remove(nextSecond);
+            if (bucket != null) {
+                size -= bucket.size();
+                lastPolledSecond = nextSecond;
+                if (keysBySecond.isEmpty()) {
+                    nextSecond = Long.MAX_VALUE;
+                }
+                return bucket;
+            }
+            nextSecond = keysBySecond.isEmpty() ? Long.MAX_VALUE : nextSecond + 1;
+        }
+        return null;
+    }
+
+    /**
+     * @return the second of the bucket returned by the last
+     * {@link #pollDue(long)} call which returned a bucket
+     */
+    long lastPolledSecond() {
+        return lastPolledSecond;
+    }
+
+    /**
+     * @return the number of keys in the index, including the stale ones
+     */
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        keysBySecond.clear();
+        nextSecond = Long.MAX_VALUE;
+        size = 0;
+    }
+}
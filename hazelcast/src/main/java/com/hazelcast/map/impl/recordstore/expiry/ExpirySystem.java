@@ -39,6 +39,7 @@ import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
@@ -46,12 +47,17 @@ import static com.hazelcast.internal.util.ToHeapDataConverter.toHeapData;
 import static com.hazelcast.map.impl.ExpirationTimeSetter.pickMaxIdleMillis;
 import static com.hazelcast.map.impl.ExpirationTimeSetter.pickTTLMillis;
 import static com.hazelcast.map.impl.record.Record.UNSET;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.TimeUnit.NANOSECONDS;
 
 /**
  * This class has all logic to remove expired entries. Expiry reason
  * can be ttl or idleness. An instance of this class is created for
  * each {@link RecordStore} and it is always accessed by same single thread.
+ * <p>
+ * Expirable keys are indexed by their expiration second (see {@link
+ * ExpirationTimeIndex}), so each run of the background expiration
+ * task only visits the keys of the seconds which have passed.
  */
 public class ExpirySystem {
     private static final long DEFAULT_EXPIRED_KEY_SCAN_TIMEOUT_NANOS
@@ -61,6 +67,12 @@ public class ExpirySystem {
     private static final HazelcastProperty EXPIRED_KEY_SCAN_TIMEOUT_NANOS
             = new HazelcastProperty(PROP_EXPIRED_KEY_SCAN_TIMEOUT_NANOS,
             DEFAULT_EXPIRED_KEY_SCAN_TIMEOUT_NANOS, NANOSECONDS);
+    /**
+     * The index is rebuilt when it holds more than this many times
+     * the number of expirable keys.
+     */
+    private static final int STALE_INDEX_ENTRY_FACTOR = 2;
+    private static final int MIN_INDEX_SIZE_TO_COMPACT = 1024;
     private static final int ONE_HUNDRED_PERCENT = 100;
     private static final int MIN_SCANNABLE_ENTRY_COUNT = 100;
 
@@ -73,8 +85,8 @@ public class ExpirySystem {
     private final MapServiceContext mapServiceContext;
     private final ClearExpiredRecordsTask clearExpiredRecordsTask;
     private final InvalidationQueue<ExpiredKey> expiredKeys = new InvalidationQueue<>();
+    private final ExpirationTimeIndex expirationTimeIndex = new ExpirationTimeIndex();
 
-    private Iterator<Map.Entry<Data, ExpiryMetadata>> cachedExpirationIterator;
     private Map<Data, ExpiryMetadata> expireTimeByKey;
 
     public ExpirySystem(RecordStore recordStore,
@@ -101,8 +113,8 @@ public class ExpirySystem {
         // Operation and partition threads can have concurrent access
         // to this class that's why we used CHM here. Also its
         // iterator doesn't throw ConcurrentModificationException
-        // and this makes incremental scanning of expirable
-        // entries easy(see method `scanAndEvictExpiredKeys`).
+        // and this makes rebuilding the expiration time
+        // index easy(see method `compactIndexIfNeeded`).
         return new ConcurrentHashMap<>();
     }
 
@@ -110,6 +122,7 @@ public class ExpirySystem {
     public void clear() {
         Map<Data, ExpiryMetadata> map = getOrCreateExpireTimeByKeyMap(false);
         map.clear();
+        expirationTimeIndex.clear();
     }
 
     protected Map<Data, ExpiryMetadata> getOrCreateExpireTimeByKeyMap(boolean createIfAbsent) {
@@ -158,10 +171,16 @@ public class ExpirySystem {
             expiryMetadata = createExpiryMetadata(ttlMillis, maxIdleMillis, expirationTime);
             Data nativeKey = recordStore.getStorage().toBackingDataKeyFormat(key);
             expireTimeByKey.put(nativeKey, expiryMetadata);
+            addToIndex(key, expiryMetadata.getExpirationTime());
         } else {
+            long previousExpirationTime = expiryMetadata.getExpirationTime();
             expiryMetadata.setTtl(ttlMillis)
                     .setMaxIdle(maxIdleMillis)
                     .setExpirationTime(expirationTime);
+            // a later expiration time is picked up when the previous one is due
+            if (expiryMetadata.getExpirationTime() < previousExpirationTime) {
+                addToIndex(key, expiryMetadata.getExpirationTime());
+            }
         }
 
         mapServiceContext.getExpirationManager().scheduleExpirationTask();
@@ -182,6 +201,30 @@ public class ExpirySystem {
         callRemove(key, expireTimeByKey);
     }
 
+    private void addToIndex(Data key, long expirationTime) {
+        // the index may outlive the key, so it keeps an on-heap copy
+        expirationTimeIndex.add(toHeapData(key), expirationTime);
+        compactIndexIfNeeded();
+    }
+
+    /**
+     * Stale index entries of removed or updated keys are only dropped when
+     * their second is due, so the index is rebuilt when they dominate it.
+     */
+    private void compactIndexIfNeeded() {
+        int indexSize = expirationTimeIndex.size();
+        if (indexSize < MIN_INDEX_SIZE_TO_COMPACT
+                || indexSize <= STALE_INDEX_ENTRY_FACTOR * expireTimeByKey.size()) {
+            return;
+        }
+        expirationTimeIndex.clear();
+        Iterator<Map.Entry<Data, ExpiryMetadata>> iterator = initIteratorOf(expireTimeByKey);
+        while (iterator.hasNext()) {
+            Map.Entry<Data, ExpiryMetadata> entry = iterator.next();
+            expirationTimeIndex.add(toHeapData(entry.getKey()), entry.getValue().getExpirationTime());
+        }
+    }
+
     public void extendExpiryTime(Data dataKey, long now) {
         if (isEmpty()) {
             return;
@@ -245,10 +288,20 @@ public class ExpirySystem {
         return expiryMetadata != null ? expiryMetadata : ExpiryMetadata.NULL;
     }
 
-    @SuppressWarnings("checkstyle:magicnumber")
+    /**
+     * Removes the expired entries whose expiration second has passed.
+     * Stops when {@value #PROP_EXPIRED_KEY_SCAN_TIMEOUT_NANOS} elapses
+     * or when the given percentage of the expirable keys is scanned,
+     * the remaining expired entries are removed by the next call.
+     *
+     * @param percentage the percentage of the expirable keys which can
+     *                   be scanned in one call, at least {@value
+     *                   #MIN_SCANNABLE_ENTRY_COUNT} keys are scanned
+     */
     public void evictExpiredEntries(int percentage, long now, boolean backup) {
         Map<Data, ExpiryMetadata> expireTimeByKey = getOrCreateExpireTimeByKeyMap(false);
         if (expireTimeByKey.isEmpty()) {
+            expirationTimeIndex.clear();
             return;
         }
 
@@ -257,42 +310,49 @@ public class ExpirySystem {
         int keyCountInPercentage = (int) (1D * expirableKeysMapSize * percentage / ONE_HUNDRED_PERCENT);
         int maxScannableKeyCount = Math.max(MIN_SCANNABLE_ENTRY_COUNT, keyCountInPercentage);
 
-        scanAndEvictExpiredKeys(maxScannableKeyCount, now, backup);
+        evictExpiredKeysOfDueSeconds(maxScannableKeyCount, now, backup);
 
         accumulateOrSendExpiredKey(null);
     }
 
     /**
-     * Get cachedExpirationIterator or init it if it has no next entry.
+     * @return {@code true} if there may be entries whose expiration second
+     * has passed, {@code false} otherwise
      */
-    private Iterator<Map.Entry<Data, ExpiryMetadata>> getOrInitCachedIterator() {
-        if (cachedExpirationIterator == null || !cachedExpirationIterator.hasNext()) {
-            cachedExpirationIterator = initIteratorOf(expireTimeByKey);
-        }
-
-        return cachedExpirationIterator;
+    public boolean hasDueExpirations(long now) {
+        return expirationTimeIndex.hasDue(now);
     }
 
-    private void scanAndEvictExpiredKeys(int maxScannableKeyCount, long now, boolean backup) {
-        // Scan to find expired keys.
+    private void evictExpiredKeysOfDueSeconds(int maxScannableKeyCount, long now, boolean backup) {
         long scanLoopStartNanos = System.nanoTime();
-        List expiredKeyExpiryReasonList = new ArrayList<>();
+        // backups expire entries expiryDelayMillis later, see hasExpired
+        long dueTime = backup ? now - expiryDelayMillis : now;
+        long recheckSecond = ExpirationTimeIndex.toSecond(dueTime) + Math.max(1, MILLISECONDS.toSeconds(expiryDelayMillis));
+        DueEntryIterator iterator = new DueEntryIterator(dueTime);
+        List<Data> expiredKeyList = new ArrayList<>();
+        List<ExpiryReason> expiryReasonList = new ArrayList<>();
         int scannedKeyCount = 0;
-        int expiredKeyCount = 0;
-        do {
-            Map.Entry<Data, ExpiryMetadata> entry = getOrInitCachedIterator().next();
+        while (scannedKeyCount < maxScannableKeyCount && iterator.hasNext()) {
+            Map.Entry<Data, ExpiryMetadata> entry = iterator.next();
             scannedKeyCount++;
             Data key = entry.getKey();
             ExpiryMetadata expiryMetadata = entry.getValue();
 
             ExpiryReason expiryReason = hasExpired(expiryMetadata, now, backup);
-            if (expiryReason != ExpiryReason.NOT_EXPIRED && !recordStore.isLocked(key)) {
+            if (expiryReason == ExpiryReason.NOT_EXPIRED) {
+                long expirationSecond = ExpirationTimeIndex.toSecond(expiryMetadata.getExpirationTime());
+                // expiration time has been extended or the primary drives the expiration of this backup entry
+                expirationTimeIndex.addToSecond(key, expirationSecond > iterator.bucketSecond
+                        ? expirationSecond : recheckSecond);
+            } else if (recordStore.isLocked(key)) {
+                expirationTimeIndex.addToSecond(key, recheckSecond);
+            } else {
                 // add key and expiryReason to list to evict them later
-                expiredKeyExpiryReasonList.add(key);
-                expiredKeyExpiryReasonList.add(expiryReason);
+                expiredKeyList.add(key);
+                expiryReasonList.add(expiryReason);
+                recordExpirationLag(now - expiryMetadata.getExpirationTime(), backup);
                 // remove expired key from expirySystem
-                callIterRemove(cachedExpirationIterator);
-                expiredKeyCount++;
+                callIterRemove(iterator);
             }
 
             // - If timed out while looping, break this loop to free
@@ -303,14 +363,12 @@ public class ExpirySystem {
                     && (System.nanoTime() - scanLoopStartNanos) >= expiredKeyScanTimeoutNanos) {
                 break;
             }
-
-        } while (scannedKeyCount < maxScannableKeyCount && getOrInitCachedIterator().hasNext());
+        }
+        iterator.putBackRemainingKeys();
 
         // Evict expired keys
-        for (int i = 0; i < expiredKeyExpiryReasonList.size(); i += 2) {
-            Data key = (Data) expiredKeyExpiryReasonList.get(i);
-            ExpiryReason reason = (ExpiryReason) expiredKeyExpiryReasonList.get(i + 1);
-            recordStore.evictExpiredEntryAndPublishExpiryEvent(key, reason, backup);
+        for (int i = 0; i < expiredKeyList.size(); i++) {
+            recordStore.evictExpiredEntryAndPublishExpiryEvent(expiredKeyList.get(i), expiryReasonList.get(i), backup);
         }
 
         if (logger.isFinestEnabled()) {
@@ -318,8 +376,16 @@ public class ExpirySystem {
                             + "remainingKeyCountToExpire: %d, maxScannableKeyCount: %d, "
                             + "scannedKeyCount: %d, expiredKeyCount: %d"
                     , recordStore.getName(), recordStore.getPartitionId(), recordStore.size()
-                    , expireTimeByKey.size(), maxScannableKeyCount, scannedKeyCount, expiredKeyCount));
+                    , expireTimeByKey.size(), maxScannableKeyCount, scannedKeyCount, expiredKeyList.size()));
+        }
+    }
+
+    private void recordExpirationLag(long lagMillis, boolean backup) {
+        if (backup || !mapContainer.getMapConfig().isStatisticsEnabled()) {
+            return;
         }
+        mapServiceContext.getLocalMapStatsProvider().getLocalMapStatsImpl(recordStore.getName())
+                .incrementExpirationLag(Math.max(0, lagMillis));
     }
 
     // this method is overridden
@@ -328,6 +394,11 @@ public class ExpirySystem {
         return expireTimeByKey.get(key);
     }
 
+    // this method is overridden
+    protected void callRemove(Data key, Map<Data, ExpiryMetadata> expireTimeByKey) {
+        expireTimeByKey.remove(key);
+    }
+
     // this method is overridden
     protected void callIterRemove(Iterator<Map.Entry<Data, ExpiryMetadata>> expirationIterator) {
         expirationIterator.remove();
@@ -338,14 +409,10 @@ public class ExpirySystem {
         return expireTimeByKey.entrySet().iterator();
     }
 
-    // this method is overridden
-    protected void callRemove(Data key, Map<Data, ExpiryMetadata> expireTimeByKey) {
-        expireTimeByKey.remove(key);
-    }
-
     // this method is overridden
     public void destroy() {
         getOrCreateExpireTimeByKeyMap(false).clear();
+        expirationTimeIndex.clear();
     }
 
     // null dataKey is used to trigger backup operation sending...
@@ -360,4 +427,93 @@ public class ExpirySystem {
 
         clearExpiredRecordsTask.tryToSendBackupExpiryOp(recordStore, true);
     }
+
+    /**
+     * Iterates over the keys of the due buckets of the expiration time
+     * index which are still in this expiry system. Polled keys which
+     * are not removed have to be added back to the index by the caller,
+     * the keys not iterated yet are added back by {@link
+     * #putBackRemainingKeys()}.
+     * <p>
+     * To not allocate an entry per key, the iterator is returned as the
+     * entry of the current key.
+     */
+    private final class DueEntryIterator
+            implements Iterator<Map.Entry<Data, ExpiryMetadata>>, Map.Entry<Data, ExpiryMetadata> {
+
+        private final long dueTime;
+        private List<Data> bucket = Collections.emptyList();
+        private long bucketSecond;
+        private Data key;
+        private ExpiryMetadata expiryMetadata;
+        private boolean hasNext;
+
+        private DueEntryIterator(long dueTime) {
+            this.dueTime = dueTime;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!hasNext) {
+                if (bucket.isEmpty()) {
+                    List<Data> nextBucket = expirationTimeIndex.pollDue(dueTime);
+                    if (nextBucket == null) {
+                        return false;
+                    }
+                    bucket = nextBucket;
+                    bucketSecond = expirationTimeIndex.lastPolledSecond();
+                    continue;
+                }
+                Data nextKey = bucket.remove(bucket.size() - 1);
+                ExpiryMetadata nextExpiryMetadata = getExpiryMetadataForExpiryCheck(nextKey, expireTimeByKey);
+                // stale index entries of removed keys are skipped
+                if (nextExpiryMetadata != null) {
+                    key = nextKey;
+                    expiryMetadata = nextExpiryMetadata;
+                    hasNext = true;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public Map.Entry<Data, ExpiryMetadata> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            hasNext = false;
+            return this;
+        }
+
+        @Override
+        public void remove() {
+            callRemove(key, expireTimeByKey);
+        }
+
+        @Override
+        public Data getKey() {
+            return key;
+        }
+
+        @Override
+        public ExpiryMetadata getValue() {
+            return expiryMetadata;
+        }
+
+        @Override
+        public ExpiryMetadata setValue(ExpiryMetadata value) {
+            throw new UnsupportedOperationException();
+        }
+
+        private void putBackRemainingKeys() {
+            if (hasNext) {
+                expirationTimeIndex.addToSecond(key, bucketSecond);
+                hasNext = false;
+            }
+            for (Data remainingKey : bucket) {
+                expirationTimeIndex.addToSecond(remainingKey, bucketSecond);
+            }
+            bucket = Collections.emptyList();
+        }
+    }
 }
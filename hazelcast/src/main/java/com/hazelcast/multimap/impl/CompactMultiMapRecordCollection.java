@@ -0,0 +1,30 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.multimap.impl;
+
+/**
+ * Common interface of the multimap value collections which keep their
+ * {@link MultiMapRecord}s in a {@link CompactMultiMapRecordStore}.
+ */
+public interface CompactMultiMapRecordCollection {
+
+    /**
+     * Returns {@code true} if the collection contains a record with the given ID.
+     * Does not materialize any {@link MultiMapRecord}.
+     */
+    boolean containsRecordId(long recordId);
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.multimap.impl;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * Compact {@link java.util.List} of {@link MultiMapRecord}s backed by a
+ * {@link CompactMultiMapRecordStore}. Used instead of a {@link java.util.LinkedList}
+ * when compact value storage is enabled for the multimap.
+ *
+ * @see com.hazelcast.spi.properties.ClusterProperty#MULTIMAP_COMPACT_VALUE_STORAGE
+ */
+public class CompactMultiMapRecordList extends AbstractList<MultiMapRecord>
+        implements CompactMultiMapRecordCollection, RandomAccess {
+
+    private final CompactMultiMapRecordStore store = new CompactMultiMapRecordStore();
+
+    @Override
+    public MultiMapRecord get(int index) {
+        checkIndex(index, store.size());
+        return store.get(index);
+    }
+
+    @Override
+    public int size() {
+        return store.size();
+    }
+
+    @Override
+    public boolean add(MultiMapRecord record) {
+        store.add(record);
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public void add(int index, MultiMapRecord record) {
+        checkIndex(index, store.size() + 1);
+        store.insert(index, record);
+        modCount++;
+    }
+
+    @Override
+    public MultiMapRecord remove(int index) {
+        checkIndex(index, store.size());
+        MultiMapRecord removed = store.get(index);
+        store.remove(index);
+        modCount++;
+        return removed;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        int index = indexOf(o);
+        if (index == -1) {
+            return false;
+        }
+        store.remove(index);
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public int indexOf(Object o) {
+        if (!(o instanceof MultiMapRecord)) {
+            return -1;
+        }
+        return store.indexOf((MultiMapRecord) o);
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return indexOf(o) != -1;
+    }
+
+    @Override
+    public void clear() {
+        store.clear();
+        modCount++;
+    }
+
+    @Override
+    public boolean containsRecordId(long recordId) {
+        return store.containsRecordId(recordId);
+    }
+
+    private static void checkIndex(int index, int bound) {
+        if (index < 0 || index >= bound) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + (bound - 1));
+        }
+    }
+}
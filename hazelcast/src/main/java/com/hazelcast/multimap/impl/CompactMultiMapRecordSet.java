@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.multimap.impl;
+
+import java.util.AbstractSet;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Compact {@link java.util.Set} of {@link MultiMapRecord}s backed by a
+ * {@link CompactMultiMapRecordStore}. Used instead of a {@link java.util.HashSet}
+ * when compact value storage is enabled for the multimap.
+ *
+ * @see com.hazelcast.spi.properties.ClusterProperty#MULTIMAP_COMPACT_VALUE_STORAGE
+ */
+public class CompactMultiMapRecordSet extends AbstractSet<MultiMapRecord> implements CompactMultiMapRecordCollection {
+
+    private final CompactMultiMapRecordStore store = new CompactMultiMapRecordStore();
+    private int modCount;
+
+    @Override
+    public Iterator<MultiMapRecord> iterator() {
+        return new RecordIterator();
+    }
+
+    @Override
+    public int size() {
+        return store.size();
+    }
+
+    @Override
+    public boolean add(MultiMapRecord record) {
+        if (store.indexOf(record) != -1) {
+            return false;
+        }
+        store.add(record);
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (!(o instanceof MultiMapRecord)) {
+            return false;
+        }
+        int index = store.indexOf((MultiMapRecord) o);
+        if (index == -1) {
+            return false;
+        }
+        store.removeUnordered(index);
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return o instanceof MultiMapRecord && store.indexOf((MultiMapRecord) o) != -1;
+    }
+
+    @Override
+    public void clear() {
+        store.clear();
+        modCount++;
+    }
+
+    @Override
+    public boolean containsRecordId(long recordId) {
+        return store.containsRecordId(recordId);
+    }
+
+    /**
+     * Iterates the records from the last to the first one, so removing the
+     * current record (which moves the last record into its place) does not
+     * affect the records still to be visited.
+     */
+    private final class RecordIterator implements Iterator<MultiMapRecord> {
+
+        private int cursor = store.size() - 1;
+        private int lastReturned = -1;
+        private int expectedModCount = modCount;
+
+        @Override
+        public boolean hasNext() {
+            return cursor >= 0;
+        }
+
+        @Override
+        public MultiMapRecord next() {
+            checkForComodification();
+            if (cursor < 0) {
+                throw new NoSuchElementException();
+            }
+            lastReturned = cursor--;
+            return store.get(lastReturned);
+        }
+
+        @Override
+        public void remove() {
+            if (lastReturned < 0) {
+                throw new IllegalStateException();
+            }
+            checkForComodification();
+            store.removeUnordered(lastReturned);
+            lastReturned = -1;
+            expectedModCount = ++modCount;
+        }
+
+        private void checkForComodification() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+}
@@ -0,0 +1,404 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.multimap.impl;
+
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.impl.HeapData;
+
+import java.util.Arrays;
+
+import static com.hazelcast.internal.serialization.impl.HeapData.TYPE_OFFSET;
+import static com.hazelcast.internal.util.HashUtil.fastIntMix;
+import static com.hazelcast.internal.util.QuickMath.nextPowerOfTwo;
+
+/**
+ * Array-backed storage of the {@link MultiMapRecord}s of a single multimap
+ * key, used by {@link CompactMultiMapRecordList} and {@link CompactMultiMapRecordSet}.
+ * <p>
+ * Record IDs and value hashes are kept in primitive arrays. Serialized values
+ * are copied into a single contiguous byte arena, deserialized values (when
+ * the multimap is not binary) are kept in an object array. No
+ * {@link MultiMapRecord} is retained, records are materialized on access.
+ * <p>
+ * Once the store holds {@link #INDEX_THRESHOLD} records, an open-addressing
+ * hash index over the value hashes is maintained, so that value lookups do not
+ * depend on the number of records stored under the key.
+ * <p>
+ * This class is not thread-safe, it is only accessed by the partition thread.
+ */
+@SuppressWarnings("checkstyle:methodcount")
+final class CompactMultiMapRecordStore {
+
+    static final int INDEX_THRESHOLD = 16;
+
+    private static final int INITIAL_CAPACITY = 4;
+    private static final int INITIAL_ARENA_CAPACITY = 128;
+    private static final int NOT_IN_ARENA = -1;
+    // the index is rebuilt with a load factor of 1/INDEX_SIZE_FACTOR and grown at 1/2
+    private static final int INDEX_SIZE_FACTOR = 4;
+
+    private long[] recordIds = new long[INITIAL_CAPACITY];
+    private int[] hashes = new int[INITIAL_CAPACITY];
+    // offset of the serialized value in the arena or NOT_IN_ARENA
+    private int[] offsets = new int[INITIAL_CAPACITY];
+    private int[] lengths = new int[INITIAL_CAPACITY];
+    private Object[] objects;
+    private byte[] arena;
+    private int arenaSize;
+    private int arenaGarbage;
+    // slot -> record position + 1, zero marks a free slot
+    private int[] index;
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    MultiMapRecord get(int position) {
+        return new MultiMapRecord(recordIds[position], getValue(position));
+    }
+
+    Object getValue(int position) {
+        int offset = offsets[position];
+        if (offset == NOT_IN_ARENA) {
+            return objects[position];
+        }
+        return new HeapData(Arrays.copyOfRange(arena, offset, offset + lengths[position]));
+    }
+
+    boolean containsRecordId(long recordId) {
+        for (int i = 0; i < size; i++) {
+            if (recordIds[i] == recordId) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the position of the first record with a value equal to the
+     * value of the given record or {@code -1} if there is no such record.
+     */
+    int indexOf(MultiMapRecord record) {
+        Object value = record.getObject();
+        int hash = value.hashCode();
+        byte[] bytes = serializedBytes(value);
+        if (index == null) {
+            for (int i = 0; i < size; i++) {
+                if (hashes[i] == hash && valueEquals(i, value, bytes)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+        int mask = index.length - 1;
+        int first = -1;
+        for (int slot = fastIntMix(hash) & mask; index[slot] != 0; slot = (slot + 1) & mask) {
+            int position = index[slot] - 1;
+            if (hashes[position] == hash && (first == -1 || position < first) && valueEquals(position, value, bytes)) {
+                first = position;
+            }
+        }
+        return first;
+    }
+
+    /**
+     * Inserts the given record at the given position, shifting the subsequent
+     * records to the right.
+     */
+    void insert(int position, MultiMapRecord record) {
+        ensureCapacity(size + 1);
+        if (position < size) {
+            int moved = size - position;
+            System.arraycopy(recordIds, position, recordIds, position + 1, moved);
+            System.arraycopy(hashes, position, hashes, position + 1, moved);
+            System.arraycopy(offsets, position, offsets, position + 1, moved);
+            System.arraycopy(lengths, position, lengths, position + 1, moved);
+            if (objects != null) {
+                System.arraycopy(objects, position, objects, position + 1, moved);
+            }
+            if (index != null) {
+                shiftIndexedPositions(position, 1);
+            }
+        }
+        store(position, record);
+        size++;
+        if (index != null) {
+            addToIndex(position);
+            if (size * 2 > index.length) {
+                rebuildIndex();
+            }
+        } else if (size >= INDEX_THRESHOLD) {
+            rebuildIndex();
+        }
+    }
+
+    void add(MultiMapRecord record) {
+        insert(size, record);
+    }
+
+    /**
+     * Removes the record at the given position, keeping the order of the
+     * remaining records.
+     */
+    void remove(int position) {
+        if (index != null) {
+            removeFromIndex(position);
+        }
+        release(position);
+        int moved = size - position - 1;
+        if (moved > 0) {
+            System.arraycopy(recordIds, position + 1, recordIds, position, moved);
+            System.arraycopy(hashes, position + 1, hashes, position, moved);
+            System.arraycopy(offsets, position + 1, offsets, position, moved);
+            System.arraycopy(lengths, position + 1, lengths, position, moved);
+            if (objects != null) {
+                System.arraycopy(objects, position + 1, objects, position, moved);
+            }
+            if (index != null) {
+                shiftIndexedPositions(position + 1, -1);
+            }
+        }
+        size--;
+        clearSlot(size);
+        compactArenaIfNeeded();
+    }
+
+    /**
+     * Removes the record at the given position by moving the last record
+     * into its place. Does not preserve the order of the records.
+     */
+    void removeUnordered(int position) {
+        int last = size - 1;
+        if (index != null) {
+            removeFromIndex(position);
+        }
+        release(position);
+        if (position != last) {
+            if (index != null) {
+                relocateInIndex(last, position);
+            }
+            recordIds[position] = recordIds[last];
+            hashes[position] = hashes[last];
+            offsets[position] = offsets[last];
+            lengths[position] = lengths[last];
+            if (objects != null) {
+                objects[position] = objects[last];
+            }
+        }
+        size--;
+        clearSlot(size);
+        compactArenaIfNeeded();
+    }
+
+    void clear() {
+        recordIds = new long[INITIAL_CAPACITY];
+        hashes = new int[INITIAL_CAPACITY];
+        offsets = new int[INITIAL_CAPACITY];
+        lengths = new int[INITIAL_CAPACITY];
+        objects = null;
+        arena = null;
+        arenaSize = 0;
+        arenaGarbage = 0;
+        index = null;
+        size = 0;
+    }
+
+    private void store(int position, MultiMapRecord record) {
+        Object value = record.getObject();
+        recordIds[position] = record.getRecordId();
+        hashes[position] = value.hashCode();
+        byte[] bytes = serializedBytes(value);
+        if (bytes == null) {
+            if (objects == null) {
+                objects = new Object[recordIds.length];
+            }
+            objects[position] = value;
+            offsets[position] = NOT_IN_ARENA;
+            lengths[position] = 0;
+            return;
+        }
+        ensureArenaCapacity(bytes.length);
+        System.arraycopy(bytes, 0, arena, arenaSize, bytes.length);
+        offsets[position] = arenaSize;
+        lengths[position] = bytes.length;
+        arenaSize += bytes.length;
+        if (objects != null) {
+            objects[position] = null;
+        }
+    }
+
+    private void release(int position) {
+        if (offsets[position] != NOT_IN_ARENA) {
+            arenaGarbage += lengths[position];
+        }
+    }
+
+    private void clearSlot(int position) {
+        if (objects != null) {
+            objects[position] = null;
+        }
+    }
+
+    private boolean valueEquals(int position, Object value, byte[] bytes) {
+        int offset = offsets[position];
+        if (offset == NOT_IN_ARENA) {
+            return bytes == null && value.equals(objects[position]);
+        }
+        if (bytes == null || bytes.length != lengths[position]) {
+            return false;
+        }
+        // same semantics as HeapData#equals, the partition hash is ignored
+        for (int i = bytes.length - 1; i >= TYPE_OFFSET; i--) {
+            if (bytes[i] != arena[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void ensureCapacity(int requiredCapacity) {
+        if (requiredCapacity <= recordIds.length) {
+            return;
+        }
+        int newCapacity = Math.max(requiredCapacity, recordIds.length + (recordIds.length >> 1));
+        recordIds = Arrays.copyOf(recordIds, newCapacity);
+        hashes = Arrays.copyOf(hashes, newCapacity);
+        offsets = Arrays.copyOf(offsets, newCapacity);
+        lengths = Arrays.copyOf(lengths, newCapacity);
+        if (objects != null) {
+            objects = Arrays.copyOf(objects, newCapacity);
+        }
+    }
+
+    private void ensureArenaCapacity(int length) {
+        if (arena == null) {
+            arena = new byte[Math.max(INITIAL_ARENA_CAPACITY, length)];
+            return;
+        }
+        if (arenaSize + length <= arena.length) {
+            return;
+        }
+        if (arenaGarbage >= length) {
+            compactArena();
+            if (arenaSize + length <= arena.length) {
+                return;
+            }
+        }
+        int newCapacity = Math.max(arenaSize + length, arena.length + (arena.length >> 1));
+        arena = Arrays.copyOf(arena, newCapacity);
+    }
+
+    private void compactArenaIfNeeded() {
+        if (size == 0) {
+            arena = null;
+            arenaSize = 0;
+            arenaGarbage = 0;
+        } else if (arenaGarbage > INITIAL_ARENA_CAPACITY && arenaGarbage > (arenaSize >> 1)) {
+            compactArena();
+        }
+    }
+
+    private void compactArena() {
+        byte[] compacted = new byte[Math.max(INITIAL_ARENA_CAPACITY, arenaSize - arenaGarbage)];
+        int tail = 0;
+        for (int i = 0; i < size; i++) {
+            int offset = offsets[i];
+            if (offset != NOT_IN_ARENA) {
+                System.arraycopy(arena, offset, compacted, tail, lengths[i]);
+                offsets[i] = tail;
+                tail += lengths[i];
+            }
+        }
+        arena = compacted;
+        arenaSize = tail;
+        arenaGarbage = 0;
+    }
+
+    private void rebuildIndex() {
+        index = new int[nextPowerOfTwo(Math.max(INDEX_THRESHOLD, size) * INDEX_SIZE_FACTOR)];
+        for (int i = 0; i < size; i++) {
+            addToIndex(i);
+        }
+    }
+
+    private void addToIndex(int position) {
+        int mask = index.length - 1;
+        int slot = fastIntMix(hashes[position]) & mask;
+        while (index[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        index[slot] = position + 1;
+    }
+
+    private int findSlot(int position) {
+        int mask = index.length - 1;
+        int slot = fastIntMix(hashes[position]) & mask;
+        while (index[slot] != position + 1) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Removes the given position from the index using backward shift deletion,
+     * so no tombstones are needed.
+     */
+    private void removeFromIndex(int position) {
+        int mask = index.length - 1;
+        int free = findSlot(position);
+        int slot = free;
+        while (true) {
+            slot = (slot + 1) & mask;
+            int entry = index[slot];
+            if (entry == 0) {
+                break;
+            }
+            int home = fastIntMix(hashes[entry - 1]) & mask;
+            // move the entry back unless its home slot lies cyclically in (free, slot]
+            boolean stays = free <= slot ? (free < home && home <= slot) : (free < home || home <= slot);
+            if (!stays) {
+                index[free] = entry;
+                free = slot;
+            }
+        }
+        index[free] = 0;
+    }
+
+    private void relocateInIndex(int from, int to) {
+        index[findSlot(from)] = to + 1;
+    }
+
+    private void shiftIndexedPositions(int fromPosition, int delta) {
+        int threshold = fromPosition + 1;
+        for (int slot = 0; slot < index.length; slot++) {
+            if (index[slot] >= threshold) {
+                index[slot] += delta;
+            }
+        }
+    }
+
+    private static byte[] serializedBytes(Object value) {
+        if (value instanceof Data) {
+            Data data = (Data) value;
+            if (data.totalSize() > 0) {
+                return data.toByteArray();
+            }
+        }
+        return null;
+    }
+}
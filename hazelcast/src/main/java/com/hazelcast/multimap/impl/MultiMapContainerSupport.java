@@ -19,11 +19,13 @@ package com.hazelcast.multimap.impl;
 import com.hazelcast.config.MultiMapConfig;
 import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.spi.impl.NodeEngine;
+import com.hazelcast.spi.properties.ClusterProperty;
 
 import java.util.Collection;
 import java.util.concurrent.ConcurrentMap;
 
 import static com.hazelcast.multimap.impl.ValueCollectionFactory.createCollection;
+import static com.hazelcast.multimap.impl.ValueCollectionFactory.createCompactCollection;
 import static com.hazelcast.internal.util.MapUtil.createConcurrentHashMap;
 
 /**
@@ -36,11 +38,13 @@ abstract class MultiMapContainerSupport {
     protected final String name;
     protected final NodeEngine nodeEngine;
     protected final MultiMapConfig config;
+    protected final boolean compactValueStorage;
 
     MultiMapContainerSupport(String name, NodeEngine nodeEngine) {
         this.name = name;
         this.nodeEngine = nodeEngine;
         this.config = nodeEngine.getConfig().findMultiMapConfig(name);
+        this.compactValueStorage = nodeEngine.getProperties().getBoolean(ClusterProperty.MULTIMAP_COMPACT_VALUE_STORAGE);
     }
 
     public MultiMapValue getOrCreateMultiMapValue(Data dataKey) {
@@ -50,7 +54,8 @@ abstract class MultiMapContainerSupport {
         }
         // create multiMapValue
         final MultiMapConfig.ValueCollectionType valueCollectionType = config.getValueCollectionType();
-        final Collection<MultiMapRecord> collection = createCollection(valueCollectionType);
+        final Collection<MultiMapRecord> collection = compactValueStorage
+                ? createCompactCollection(valueCollectionType) : createCollection(valueCollectionType);
         multiMapValue = new MultiMapValue(collection);
 
         multiMapValues.put(dataKey, multiMapValue);
@@ -58,6 +63,22 @@ abstract class MultiMapContainerSupport {
         return multiMapValue;
     }
 
+    /**
+     * Converts a {@link MultiMapValue} received from another member (e.g. by
+     * migration) to the value storage used by this container.
+     */
+    MultiMapValue adaptMultiMapValue(MultiMapValue multiMapValue) {
+        Collection<MultiMapRecord> collection = multiMapValue.getCollection(false);
+        if (!compactValueStorage || collection instanceof CompactMultiMapRecordCollection) {
+            return multiMapValue;
+        }
+        Collection<MultiMapRecord> compactCollection = createCompactCollection(config.getValueCollectionType());
+        compactCollection.addAll(collection);
+        MultiMapValue adaptedValue = new MultiMapValue(compactCollection);
+        adaptedValue.setHits(multiMapValue.getHits());
+        return adaptedValue;
+    }
+
     public MultiMapValue getMultiMapValueOrNull(Data dataKey) {
         return multiMapValues.get(dataKey);
     }
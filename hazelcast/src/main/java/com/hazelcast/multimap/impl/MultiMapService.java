@@ -355,7 +355,7 @@ public class MultiMapService implements ManagedService, RemoteService, Fragmente
             long maxRecordId = -1;
 
             for (Map.Entry<Data, MultiMapValue> multiMapValueEntry : collections.entrySet()) {
-                MultiMapValue multiMapValue = multiMapValueEntry.getValue();
+                MultiMapValue multiMapValue = container.adaptMultiMapValue(multiMapValueEntry.getValue());
                 container.getMultiMapValues().put(multiMapValueEntry.getKey(), multiMapValue);
                 long recordId = getMaxRecordId(multiMapValue);
                 maxRecordId = max(maxRecordId, recordId);
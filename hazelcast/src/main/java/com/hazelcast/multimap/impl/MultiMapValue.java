@@ -16,6 +16,7 @@
 
 package com.hazelcast.multimap.impl;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.LinkedList;
@@ -43,7 +44,9 @@ public class MultiMapValue {
     }
 
     private Collection<MultiMapRecord> getCopyOfCollection() {
-        if (collection instanceof Set) {
+        if (collection instanceof CompactMultiMapRecordList) {
+            return new ArrayList<>(collection);
+        } else if (collection instanceof Set) {
             return new HashSet<>(collection);
         } else if (collection instanceof List) {
             return new LinkedList<>(collection);
@@ -64,6 +67,9 @@ public class MultiMapValue {
     }
 
     public boolean containsRecordId(long recordId) {
+        if (collection instanceof CompactMultiMapRecordCollection) {
+            return ((CompactMultiMapRecordCollection) collection).containsRecordId(recordId);
+        }
         for (MultiMapRecord record : collection) {
             if (record.getRecordId() == recordId) {
                 return true;
@@ -85,6 +85,26 @@ public final class ValueCollectionFactory {
         }
     }
 
+    /**
+     * Creates an empty compact record collection, see {@link CompactMultiMapRecordList}
+     * and {@link CompactMultiMapRecordSet}.
+     *
+     * @param collectionType one of {@link MultiMapConfig.ValueCollectionType#SET}
+     *                       or {@link MultiMapConfig.ValueCollectionType#LIST}
+     * @return compact {@link java.util.Set} or {@link java.util.List} depending on the collectionType argument
+     * @throws java.lang.IllegalArgumentException if collectionType is unknown
+     */
+    public static Collection<MultiMapRecord> createCompactCollection(MultiMapConfig.ValueCollectionType collectionType) {
+        switch (collectionType) {
+            case SET:
+                return new CompactMultiMapRecordSet();
+            case LIST:
+                return new CompactMultiMapRecordList();
+            default:
+                throw new IllegalArgumentException("[" + collectionType + "] is not a known MultiMapConfig.ValueCollectionType!");
+        }
+    }
+
     /**
      * Picks right empty collection type, like {@link java.util.Collections#emptySet()}
      * or {@link java.util.Collections#emptyList()} )} depending on the
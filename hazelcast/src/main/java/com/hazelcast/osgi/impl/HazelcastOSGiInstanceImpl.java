@@ -30,6 +30,7 @@ import com.hazelcast.core.HazelcastInstance;
 import com.hazelcast.core.ICacheManager;
 import com.hazelcast.core.IExecutorService;
 import com.hazelcast.core.LifecycleService;
+import com.hazelcast.countermap.CounterMap;
 import com.hazelcast.cp.CPSubsystem;
 import com.hazelcast.crdt.pncounter.PNCounter;
 import com.hazelcast.durableexecutor.DurableExecutorService;
@@ -266,6 +267,12 @@ class HazelcastOSGiInstanceImpl
         return delegatedInstance.getCardinalityEstimator(name);
     }
 
+    @Nonnull
+    @Override
+    public <K> CounterMap<K> getCounterMap(@Nonnull String name) {
+        return delegatedInstance.getCounterMap(name);
+    }
+
     @Nonnull
     @Override
     public PNCounter getPNCounter(@Nonnull String name) {
@@ -29,6 +29,8 @@ import com.hazelcast.query.impl.getters.MultiResult;
 import com.hazelcast.query.impl.getters.ReflectionHelper;
 
 import java.util.Map;
+import java.util.function.DoubleConsumer;
+import java.util.function.LongConsumer;
 
 import static com.hazelcast.query.QueryConstants.KEY_ATTRIBUTE_NAME;
 import static com.hazelcast.query.QueryConstants.THIS_ATTRIBUTE_NAME;
@@ -49,6 +51,10 @@ public abstract class QueryableEntry<K, V> implements Extractable, Map.Entry<K,
     private Record record;
     private transient Metadata metadata;
 
+    public InternalSerializationService getSerializationService() {
+        return serializationService;
+    }
+
     public Record getRecord() {
         return record;
     }
@@ -113,6 +119,42 @@ public abstract class QueryableEntry<K, V> implements Extractable, Map.Entry<K,
         return result;
     }
 
+    /**
+     * Extracts the given attribute of an integral primitive type without
+     * boxing it.
+     *
+     * @return {@code true} if the attribute value has been passed to the
+     * consumer, {@code false} if it can't be extracted without boxing and
+     * {@link #getAttributeValue} has to be used instead
+     */
+    public boolean extractLong(String attributeName, LongConsumer consumer) {
+        if (isAttributeQueryConstant(attributeName)) {
+            return false;
+        }
+        boolean isKey = startsWithKeyConstant(attributeName);
+        return extractors.extractLong(getTargetObject(isKey), getAttributeName(isKey, attributeName), consumer);
+    }
+
+    /**
+     * Extracts the given attribute of a floating point primitive type without
+     * boxing it.
+     *
+     * @return {@code true} if the attribute value has been passed to the
+     * consumer, {@code false} if it can't be extracted without boxing and
+     * {@link #getAttributeValue} has to be used instead
+     */
+    public boolean extractDouble(String attributeName, DoubleConsumer consumer) {
+        if (isAttributeQueryConstant(attributeName)) {
+            return false;
+        }
+        boolean isKey = startsWithKeyConstant(attributeName);
+        return extractors.extractDouble(getTargetObject(isKey), getAttributeName(isKey, attributeName), consumer);
+    }
+
+    private static boolean isAttributeQueryConstant(String attributeName) {
+        return KEY_ATTRIBUTE_NAME.value().equals(attributeName) || THIS_ATTRIBUTE_NAME.value().equals(attributeName);
+    }
+
     /**
      * Optimized version of the other extractAttributeValueIfAttributeQueryConstant() method that uses getKey() and
      * getValue() calls that may cache their results internally - like in CachedQueryEntry.
@@ -30,6 +30,10 @@ import com.hazelcast.internal.util.Preconditions;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.function.DoubleConsumer;
+import java.util.function.LongConsumer;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
 
 import static com.hazelcast.query.impl.getters.ExtractorHelper.extractArgumentsFromAttributeName;
 import static com.hazelcast.query.impl.getters.ExtractorHelper.extractAttributeNameNameWithoutArguments;
@@ -84,6 +88,60 @@ public final class Extractors {
         return null;
     }
 
+    /**
+     * Extracts the given attribute of an integral primitive type from the
+     * target without boxing it.
+     *
+     * @return {@code true} if the attribute value has been passed to the
+     * consumer, {@code false} if it can't be extracted without boxing and
+     * {@link #extract} has to be used instead
+     */
+    public boolean extractLong(Object target, String attributeName, LongConsumer consumer) {
+        Object targetObject = getTargetObject(target);
+        if (targetObject == null || targetObject instanceof Data) {
+            return false;
+        }
+        ToLongFunction<Object> reader = getGetter(targetObject, attributeName, true).getLongReader();
+        if (reader == null) {
+            return false;
+        }
+        long value;
+        try {
+            value = reader.applyAsLong(targetObject);
+        } catch (Exception ex) {
+            throw new QueryException(ex);
+        }
+        consumer.accept(value);
+        return true;
+    }
+
+    /**
+     * Extracts the given attribute of a floating point primitive type from
+     * the target without boxing it.
+     *
+     * @return {@code true} if the attribute value has been passed to the
+     * consumer, {@code false} if it can't be extracted without boxing and
+     * {@link #extract} has to be used instead
+     */
+    public boolean extractDouble(Object target, String attributeName, DoubleConsumer consumer) {
+        Object targetObject = getTargetObject(target);
+        if (targetObject == null || targetObject instanceof Data) {
+            return false;
+        }
+        ToDoubleFunction<Object> reader = getGetter(targetObject, attributeName, true).getDoubleReader();
+        if (reader == null) {
+            return false;
+        }
+        double value;
+        try {
+            value = reader.applyAsDouble(targetObject);
+        } catch (Exception ex) {
+            throw new QueryException(ex);
+        }
+        consumer.accept(value);
+        return true;
+    }
+
     /**
      * Returns the form of this data that is queryable.
      * Returns {@link Data} if {@code target} is
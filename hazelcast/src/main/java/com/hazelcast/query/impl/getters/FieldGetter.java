@@ -17,10 +17,16 @@
 package com.hazelcast.query.impl.getters;
 
 import java.lang.reflect.Field;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
 
 public final class FieldGetter extends AbstractMultiValueGetter {
 
     private final Field field;
+    private final Function<Object, Object> accessor;
+    private final ToLongFunction<Object> longReader;
+    private final ToDoubleFunction<Object> doubleReader;
 
     // for testing purposes only
     public FieldGetter(Getter parent, Field field, String modifier, Class elementType) {
@@ -28,12 +34,32 @@ public final class FieldGetter extends AbstractMultiValueGetter {
     }
 
     public FieldGetter(Getter parent, Field field, String modifier, Class type, Class elementType) {
+        this(parent, field, modifier, type, elementType, null);
+    }
+
+    /**
+     * @param accessor the accessor reading the field, or {@code null} to use
+     *                 reflection
+     */
+    public FieldGetter(Getter parent, Field field, String modifier, Class type, Class elementType,
+                       Function<Object, Object> accessor) {
         super(parent, modifier, type, elementType);
         this.field = field;
+        this.accessor = accessor;
+        boolean primitive = parent == null && modifier == null;
+        this.longReader = primitive ? PrimitiveReaders.newLongReader(field) : null;
+        this.doubleReader = primitive ? PrimitiveReaders.newDoubleReader(field) : null;
     }
 
     @Override
     protected Object extractFrom(Object object) throws IllegalAccessException {
+        if (accessor != null) {
+            try {
+                return accessor.apply(object);
+            } catch (ClassCastException e) {
+                throw new IllegalArgumentException(composeAttributeValueExtractionFailedMessage(field), e);
+            }
+        }
         try {
             return field.get(object);
         } catch (IllegalArgumentException e) {
@@ -41,6 +67,21 @@ public final class FieldGetter extends AbstractMultiValueGetter {
         }
     }
 
+    @Override
+    ToLongFunction<Object> getLongReader() {
+        return longReader;
+    }
+
+    @Override
+    ToDoubleFunction<Object> getDoubleReader() {
+        return doubleReader;
+    }
+
+    // for testing purposes only
+    Function<Object, Object> getAccessor() {
+        return accessor;
+    }
+
     @Override
     boolean isCacheable() {
         return true;
@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl.getters;
+
+import com.hazelcast.spi.properties.ClusterProperty;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaConversionException;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.function.Function;
+
+import static com.hazelcast.internal.util.EmptyStatement.ignore;
+import static com.hazelcast.internal.util.ExceptionUtil.rethrow;
+import static com.hazelcast.internal.util.ExceptionUtil.sneakyThrow;
+import static java.lang.invoke.MethodType.methodType;
+
+/**
+ * Creates accessors for fields and no-argument methods which replace the
+ * reflective {@link Field#get} and {@link Method#invoke} calls of the
+ * {@link FieldGetter} and {@link MethodGetter}.
+ * <p>
+ * Public methods of public classes visible from the Hazelcast class loader
+ * are bound with {@link LambdaMetafactory}, which spins a class calling the
+ * method directly. Fields and all other methods are read through a
+ * {@link MethodHandle} adapted to {@code (Object)Object}. When no accessor
+ * can be created, {@code null} is returned and the getter keeps using
+ * reflection.
+ *
+ * @see ClusterProperty#QUERY_GENERATED_GETTERS
+ */
+final class GeneratedAccessors {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final MethodType ACCESSOR_TYPE = methodType(Object.class, Object.class);
+    private static final MethodType FACTORY_TYPE = methodType(Function.class);
+
+    private GeneratedAccessors() {
+    }
+
+    static boolean isEnabled() {
+        return Boolean.parseBoolean(ClusterProperty.QUERY_GENERATED_GETTERS.getSystemProperty());
+    }
+
+    static Function<Object, Object> newFieldAccessor(Field field) {
+        if (Modifier.isStatic(field.getModifiers())) {
+            return null;
+        }
+        try {
+            return new HandleAccessor(LOOKUP.unreflectGetter(field).asType(ACCESSOR_TYPE));
+        } catch (IllegalAccessException e) {
+            ignore(e);
+            return null;
+        }
+    }
+
+    static Function<Object, Object> newMethodAccessor(Method method) {
+        if (Modifier.isStatic(method.getModifiers()) || method.getParameterCount() != 0) {
+            return null;
+        }
+        MethodHandle handle;
+        try {
+            handle = LOOKUP.unreflect(method);
+        } catch (IllegalAccessException e) {
+            ignore(e);
+            return null;
+        }
+        if (isLinkable(method)) {
+            Function<Object, Object> accessor = spinAccessor(method, handle);
+            if (accessor != null) {
+                return accessor;
+            }
+        }
+        return new HandleAccessor(handle.asType(ACCESSOR_TYPE));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Function<Object, Object> spinAccessor(Method method, MethodHandle handle) {
+        CallSite site;
+        try {
+            MethodType instantiatedType = methodType(method.getReturnType(), method.getDeclaringClass()).wrap();
+            site = LambdaMetafactory.metafactory(LOOKUP, "apply", FACTORY_TYPE, ACCESSOR_TYPE, handle, instantiatedType);
+        } catch (LambdaConversionException e) {
+            // fall back to the method handle
+            ignore(e);
+            return null;
+        }
+        try {
+            return (Function<Object, Object>) site.getTarget().invokeExact();
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    /**
+     * Checks whether a class spun in the Hazelcast class loader is able to
+     * call the given method directly.
+     */
+    static boolean isLinkable(Method method) {
+        return method.getReturnType() != void.class
+                && isPublic(method)
+                && isPublic(method.getDeclaringClass())
+                && isVisible(method.getDeclaringClass())
+                && isVisible(method.getReturnType());
+    }
+
+    private static boolean isPublic(Member member) {
+        return Modifier.isPublic(member.getModifiers());
+    }
+
+    private static boolean isPublic(Class<?> type) {
+        for (Class<?> c = type; c != null; c = c.getEnclosingClass()) {
+            if (!Modifier.isPublic(c.getModifiers())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isVisible(Class<?> type) {
+        Class<?> c = type;
+        while (c.isArray()) {
+            c = c.getComponentType();
+        }
+        if (c.isPrimitive()) {
+            return true;
+        }
+        try {
+            return Class.forName(c.getName(), false, GeneratedAccessors.class.getClassLoader()) == c;
+        } catch (ClassNotFoundException | LinkageError e) {
+            ignore(e);
+            return false;
+        }
+    }
+
+    private static final class HandleAccessor implements Function<Object, Object> {
+
+        private final MethodHandle handle;
+
+        HandleAccessor(MethodHandle handle) {
+            this.handle = handle;
+        }
+
+        @Override
+        public Object apply(Object target) {
+            try {
+                return (Object) handle.invokeExact(target);
+            } catch (Throwable t) {
+                throw sneakyThrow(t);
+            }
+        }
+    }
+}
@@ -16,6 +16,9 @@
 
 package com.hazelcast.query.impl.getters;
 
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+
 /**
  * Base class for extraction of values from object instances.
  * Each sub-class encapsulates extraction strategy.
@@ -56,6 +59,28 @@ abstract class Getter {
      */
     abstract Class getReturnType();
 
+    /**
+     * Returns a reader of the attribute widened to {@code long} which doesn't
+     * box it. Only available for attributes of an integral primitive type
+     * which don't have to be reduced from a parent.
+     *
+     * @return the reader or {@code null} if not available
+     */
+    ToLongFunction<Object> getLongReader() {
+        return null;
+    }
+
+    /**
+     * Returns a reader of the attribute widened to {@code double} which
+     * doesn't box it. Only available for attributes of a floating point
+     * primitive type which don't have to be reduced from a parent.
+     *
+     * @return the reader or {@code null} if not available
+     */
+    ToDoubleFunction<Object> getDoubleReader() {
+        return null;
+    }
+
     /**
      * A getter instance may be re-used for all predicates that has the same target object
      * type and attribute path.
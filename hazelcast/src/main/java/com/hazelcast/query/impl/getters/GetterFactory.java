@@ -37,12 +37,14 @@ public final class GetterFactory {
 
     public static Getter newFieldGetter(Object object, Getter parent, Field field, String modifier) throws Exception {
         return newGetter(object, parent, modifier, field.getType(), field::get,
-                (t, et) -> new FieldGetter(parent, field, modifier, t, et));
+                (t, et) -> new FieldGetter(parent, field, modifier, t, et,
+                        GeneratedAccessors.isEnabled() ? GeneratedAccessors.newFieldAccessor(field) : null));
     }
 
     public static Getter newMethodGetter(Object object, Getter parent, Method method, String modifier) throws Exception {
         return newGetter(object, parent, modifier, method.getReturnType(), o -> method.invoke(o),
-                (t, et) -> new MethodGetter(parent, method, modifier, t, et));
+                (t, et) -> new MethodGetter(parent, method, modifier, t, et,
+                        GeneratedAccessors.isEnabled() ? GeneratedAccessors.newMethodAccessor(method) : null));
     }
 
     public static Getter newThisGetter(Getter parent, Object object) {
@@ -18,10 +18,16 @@ package com.hazelcast.query.impl.getters;
 
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
 
 public final class MethodGetter extends AbstractMultiValueGetter {
 
     private final Method method;
+    private final Function<Object, Object> accessor;
+    private final ToLongFunction<Object> longReader;
+    private final ToDoubleFunction<Object> doubleReader;
 
     // for testing purposes only
     public MethodGetter(Getter parent, Method method, String modifier, Class elementType) {
@@ -29,12 +35,28 @@ public final class MethodGetter extends AbstractMultiValueGetter {
     }
 
     public MethodGetter(Getter parent, Method method, String modifier, Class type, Class elementType) {
+        this(parent, method, modifier, type, elementType, null);
+    }
+
+    /**
+     * @param accessor the accessor invoking the method, or {@code null} to
+     *                 use reflection
+     */
+    public MethodGetter(Getter parent, Method method, String modifier, Class type, Class elementType,
+                        Function<Object, Object> accessor) {
         super(parent, modifier, type, elementType);
         this.method = method;
+        this.accessor = accessor;
+        boolean primitive = parent == null && modifier == null;
+        this.longReader = primitive ? PrimitiveReaders.newLongReader(method) : null;
+        this.doubleReader = primitive ? PrimitiveReaders.newDoubleReader(method) : null;
     }
 
     @Override
     protected Object extractFrom(Object object) throws IllegalAccessException, InvocationTargetException {
+        if (accessor != null) {
+            return invokeAccessor(object);
+        }
         try {
             return method.invoke(object);
         } catch (IllegalArgumentException e) {
@@ -42,6 +64,33 @@ public final class MethodGetter extends AbstractMultiValueGetter {
         }
     }
 
+    private Object invokeAccessor(Object object) throws InvocationTargetException {
+        try {
+            return accessor.apply(object);
+        } catch (Throwable t) {
+            if (!method.getDeclaringClass().isInstance(object)) {
+                throw new IllegalArgumentException(composeAttributeValueExtractionFailedMessage(method), t);
+            }
+            // same as Method#invoke, report anything thrown by the method itself wrapped
+            throw new InvocationTargetException(t);
+        }
+    }
+
+    @Override
+    ToLongFunction<Object> getLongReader() {
+        return longReader;
+    }
+
+    @Override
+    ToDoubleFunction<Object> getDoubleReader() {
+        return doubleReader;
+    }
+
+    // for testing purposes only
+    Function<Object, Object> getAccessor() {
+        return accessor;
+    }
+
     @Override
     boolean isCacheable() {
         return true;
@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl.getters;
+
+import java.lang.invoke.LambdaConversionException;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+
+import static com.hazelcast.internal.util.EmptyStatement.ignore;
+import static com.hazelcast.internal.util.ExceptionUtil.rethrow;
+import static java.lang.invoke.MethodType.methodType;
+
+/**
+ * Creates primitive readers for fields and no-argument methods of a
+ * primitive type, so that aggregations can accumulate the attribute
+ * without boxing it.
+ * <p>
+ * Methods are bound with {@link LambdaMetafactory} to a class implementing
+ * {@link ToLongFunction} or {@link ToDoubleFunction} which calls the method
+ * directly, fields are read with {@link Field#getLong} and
+ * {@link Field#getDouble}. Methods which can't be bound this way get no
+ * primitive reader and are extracted boxed.
+ */
+final class PrimitiveReaders {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final MethodType LONG_READER_FACTORY_TYPE = methodType(ToLongFunction.class);
+    private static final MethodType DOUBLE_READER_FACTORY_TYPE = methodType(ToDoubleFunction.class);
+
+    private PrimitiveReaders() {
+    }
+
+    /**
+     * @return a reader of the field widened to {@code long}, or {@code null}
+     * if the field is not of an integral primitive type
+     */
+    static ToLongFunction<Object> newLongReader(Field field) {
+        if (Modifier.isStatic(field.getModifiers()) || !isIntegral(field.getType())) {
+            return null;
+        }
+        return object -> {
+            try {
+                return field.getLong(object);
+            } catch (IllegalAccessException e) {
+                throw rethrow(e);
+            }
+        };
+    }
+
+    /**
+     * @return a reader of the field widened to {@code double}, or
+     * {@code null} if the field is not of a floating point primitive type
+     */
+    static ToDoubleFunction<Object> newDoubleReader(Field field) {
+        if (Modifier.isStatic(field.getModifiers()) || !isFloatingPoint(field.getType())) {
+            return null;
+        }
+        return object -> {
+            try {
+                return field.getDouble(object);
+            } catch (IllegalAccessException e) {
+                throw rethrow(e);
+            }
+        };
+    }
+
+    /**
+     * @return a reader invoking the method and widening its result to
+     * {@code long}, or {@code null} if the method doesn't return an
+     * integral primitive type or can't be bound
+     */
+    @SuppressWarnings("unchecked")
+    static ToLongFunction<Object> newLongReader(Method method) {
+        if (!isIntegral(method.getReturnType())) {
+            return null;
+        }
+        return (ToLongFunction<Object>) spinReader(method, "applyAsLong", LONG_READER_FACTORY_TYPE, long.class);
+    }
+
+    /**
+     * @return a reader invoking the method and widening its result to
+     * {@code double}, or {@code null} if the method doesn't return a
+     * floating point primitive type or can't be bound
+     */
+    @SuppressWarnings("unchecked")
+    static ToDoubleFunction<Object> newDoubleReader(Method method) {
+        if (!isFloatingPoint(method.getReturnType())) {
+            return null;
+        }
+        return (ToDoubleFunction<Object>) spinReader(method, "applyAsDouble", DOUBLE_READER_FACTORY_TYPE, double.class);
+    }
+
+    private static Object spinReader(Method method, String readerMethodName, MethodType factoryType,
+                                     Class<?> readerType) {
+        if (Modifier.isStatic(method.getModifiers()) || method.getParameterCount() != 0
+                || !GeneratedAccessors.isLinkable(method)) {
+            return null;
+        }
+        MethodHandle factory;
+        try {
+            factory = LambdaMetafactory.metafactory(LOOKUP, readerMethodName, factoryType,
+                    methodType(readerType, Object.class), LOOKUP.unreflect(method),
+                    methodType(readerType, method.getDeclaringClass())).getTarget();
+        } catch (IllegalAccessException | LambdaConversionException e) {
+            ignore(e);
+            return null;
+        }
+        try {
+            return factory.invoke();
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    private static boolean isIntegral(Class<?> type) {
+        return type == long.class || type == int.class || type == short.class || type == byte.class;
+    }
+
+    private static boolean isFloatingPoint(Class<?> type) {
+        return type == double.class || type == float.class;
+    }
+}
@@ -0,0 +1,556 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl.predicates;
+
+import com.hazelcast.internal.nio.Bits;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.HeapData;
+import com.hazelcast.internal.serialization.impl.portable.PortableContext;
+import com.hazelcast.nio.serialization.ClassDefinition;
+import com.hazelcast.nio.serialization.FieldDefinition;
+import com.hazelcast.nio.serialization.FieldType;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.impl.AttributeType;
+
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static com.hazelcast.internal.nio.Bits.INT_SIZE_IN_BYTES;
+import static com.hazelcast.internal.nio.Bits.NULL_ARRAY_LENGTH;
+import static com.hazelcast.internal.nio.Bits.SHORT_SIZE_IN_BYTES;
+import static com.hazelcast.internal.serialization.impl.HeapData.HEAP_DATA_OVERHEAD;
+import static com.hazelcast.query.QueryConstants.KEY_ATTRIBUTE_NAME;
+import static com.hazelcast.query.QueryConstants.THIS_ATTRIBUTE_NAME;
+import static com.hazelcast.query.impl.predicates.PredicateUtils.isNull;
+
+/**
+ * Evaluates a predicate directly on the serialized form of a
+ * {@link com.hazelcast.nio.serialization.Portable Portable} (or portable
+ * {@link com.hazelcast.nio.serialization.GenericRecord GenericRecord}) value,
+ * without deserializing the value or creating objects for the attribute
+ * values.
+ * <p>
+ * {@link EqualPredicate}, {@link GreaterLessPredicate}, {@link BetweenPredicate}
+ * and {@link InPredicate} on top-level primitive and string fields are
+ * supported, combined with {@link AndPredicate}, {@link OrPredicate} and
+ * {@link NotPredicate}. The operands of the predicates are converted once per
+ * class definition, in the same way as the predicates convert them, and the
+ * position of a field is read from the field offset table of the serialized
+ * value.
+ * <p>
+ * If a value can not be evaluated on its serialized form, for instance
+ * because it is not a portable value, the field has a different type or the
+ * converted operand has a different type than the field, {@link #evaluate}
+ * returns {@link #UNKNOWN} and the caller must fall back to
+ * {@link Predicate#apply}.
+ * <p>
+ * Instances are not thread-safe, a new instance should be compiled for each
+ * scan.
+ */
+public final class CompiledPortablePredicate {
+
+    /**
+     * The value matches the predicate.
+     */
+    public static final int MATCH = 1;
+    /**
+     * The value does not match the predicate.
+     */
+    public static final int NO_MATCH = 0;
+    /**
+     * The predicate can not be evaluated on the serialized value.
+     */
+    public static final int UNKNOWN = -1;
+
+    // factory ID, class ID and version of the class definition
+    private static final int VERSION_OFFSET = HEAP_DATA_OVERHEAD + 2 * INT_SIZE_IN_BYTES;
+    // final position of the portable
+    private static final int FIELD_COUNT_OFFSET = VERSION_OFFSET + 2 * INT_SIZE_IN_BYTES;
+    private static final int FIELD_OFFSETS_OFFSET = FIELD_COUNT_OFFSET + INT_SIZE_IN_BYTES;
+    // field name length, followed by the field name and the field type
+    private static final int FIELD_HEADER_BYTES = SHORT_SIZE_IN_BYTES + 1;
+
+    private static final int EQUAL = 0;
+    private static final int IN = 1;
+    private static final int GREATER_LESS = 2;
+    private static final int BETWEEN = 3;
+
+    private final Node root;
+    private final PortableContext portableContext;
+    private final boolean bigEndian;
+
+    private int lastFactoryId;
+    private int lastClassId;
+    private int lastVersion = -1;
+    private ClassDefinition lastClassDefinition;
+
+    private CompiledPortablePredicate(Node root, InternalSerializationService ss) {
+        this.root = root;
+        this.portableContext = ss.getPortableContext();
+        this.bigEndian = ss.getByteOrder() == ByteOrder.BIG_ENDIAN;
+    }
+
+    /**
+     * Compiles the given predicate.
+     *
+     * @return the compiled predicate or {@code null} if the predicate is not
+     * supported
+     */
+    public static CompiledPortablePredicate compile(Predicate predicate, InternalSerializationService ss) {
+        Node root = compileNode(predicate);
+        return root == null ? null : new CompiledPortablePredicate(root, ss);
+    }
+
+    /**
+     * Evaluates the predicate on the given value.
+     *
+     * @param value the value of an entry, either serialized or deserialized
+     * @return {@link #MATCH}, {@link #NO_MATCH} or {@link #UNKNOWN}
+     */
+    public int evaluate(Object value) {
+        if (!(value instanceof HeapData)) {
+            return UNKNOWN;
+        }
+        Data data = (Data) value;
+        if (!data.isPortable()) {
+            return UNKNOWN;
+        }
+        byte[] bytes = data.toByteArray();
+        ClassDefinition cd = classDefinition(bytes);
+        if (cd == null || readInt(bytes, FIELD_COUNT_OFFSET) != cd.getFieldCount()) {
+            return UNKNOWN;
+        }
+        return root.evaluate(this, bytes, cd);
+    }
+
+    private ClassDefinition classDefinition(byte[] bytes) {
+        int factoryId = readInt(bytes, HEAP_DATA_OVERHEAD);
+        int classId = readInt(bytes, HEAP_DATA_OVERHEAD + INT_SIZE_IN_BYTES);
+        int version = readInt(bytes, VERSION_OFFSET);
+        if (factoryId != lastFactoryId || classId != lastClassId || version != lastVersion
+                || lastClassDefinition == null) {
+            lastClassDefinition = portableContext.lookupClassDefinition(factoryId, classId, version);
+            lastFactoryId = factoryId;
+            lastClassId = classId;
+            lastVersion = version;
+        }
+        return lastClassDefinition;
+    }
+
+    private int readInt(byte[] bytes, int position) {
+        return Bits.readInt(bytes, position, bigEndian);
+    }
+
+    /**
+     * Returns the position of the value of the field with the given index or
+     * {@code -1} if the field was not written.
+     */
+    private int valuePosition(byte[] bytes, int fieldIndex) {
+        int position = readInt(bytes, FIELD_OFFSETS_OFFSET + fieldIndex * INT_SIZE_IN_BYTES);
+        if (position < FIELD_OFFSETS_OFFSET || position >= bytes.length) {
+            return -1;
+        }
+        return position + FIELD_HEADER_BYTES + Bits.readShort(bytes, position, bigEndian);
+    }
+
+    @SuppressWarnings({"checkstyle:cyclomaticcomplexity", "checkstyle:npathcomplexity", "checkstyle:returncount"})
+    private static Node compileNode(Predicate predicate) {
+        if (predicate instanceof AndPredicate || predicate instanceof OrPredicate) {
+            Predicate[] predicates = predicate instanceof AndPredicate
+                    ? ((AndPredicate) predicate).predicates : ((OrPredicate) predicate).predicates;
+            Node[] nodes = new Node[predicates.length];
+            for (int i = 0; i < predicates.length; i++) {
+                nodes[i] = compileNode(predicates[i]);
+                if (nodes[i] == null) {
+                    return null;
+                }
+            }
+            return predicate instanceof AndPredicate ? new AndNode(nodes) : new OrNode(nodes);
+        }
+        if (predicate instanceof NotPredicate) {
+            Node node = compileNode(((NotPredicate) predicate).predicate);
+            return node == null ? null : new NotNode(node);
+        }
+        if (!(predicate instanceof AbstractPredicate) || !isTopLevelAttribute(((AbstractPredicate) predicate).attributeName)) {
+            return null;
+        }
+
+        String attributeName = ((AbstractPredicate) predicate).attributeName;
+        Class<?> predicateClass = predicate.getClass();
+        if (predicateClass == EqualPredicate.class) {
+            Comparable value = ((EqualPredicate) predicate).value;
+            return isNull(value) ? null : new ComparisonNode(attributeName, EQUAL, false, false, value);
+        } else if (predicateClass == InPredicate.class) {
+            Comparable[] values = ((InPredicate) predicate).values;
+            for (Comparable value : values) {
+                if (isNull(value)) {
+                    return null;
+                }
+            }
+            return new ComparisonNode(attributeName, IN, false, false, values);
+        } else if (predicateClass == GreaterLessPredicate.class) {
+            GreaterLessPredicate greaterLess = (GreaterLessPredicate) predicate;
+            return new ComparisonNode(attributeName, GREATER_LESS, greaterLess.equal, greaterLess.less, greaterLess.value);
+        } else if (predicateClass == BetweenPredicate.class) {
+            BetweenPredicate between = (BetweenPredicate) predicate;
+            return new ComparisonNode(attributeName, BETWEEN, false, false, between.from, between.to);
+        }
+        return null;
+    }
+
+    private static boolean isTopLevelAttribute(String attributeName) {
+        return attributeName != null
+                && attributeName.indexOf('.') < 0
+                && attributeName.indexOf('[') < 0
+                && !attributeName.equals(KEY_ATTRIBUTE_NAME.value())
+                && !attributeName.equals(THIS_ATTRIBUTE_NAME.value());
+    }
+
+    private abstract static class Node {
+
+        abstract int evaluate(CompiledPortablePredicate compiled, byte[] bytes, ClassDefinition cd);
+    }
+
+    private static final class AndNode extends Node {
+
+        private final Node[] nodes;
+
+        AndNode(Node[] nodes) {
+            this.nodes = nodes;
+        }
+
+        @Override
+        int evaluate(CompiledPortablePredicate compiled, byte[] bytes, ClassDefinition cd) {
+            int result = MATCH;
+            for (Node node : nodes) {
+                int nodeResult = node.evaluate(compiled, bytes, cd);
+                if (nodeResult == NO_MATCH) {
+                    return NO_MATCH;
+                } else if (nodeResult == UNKNOWN) {
+                    result = UNKNOWN;
+                }
+            }
+            return result;
+        }
+    }
+
+    private static final class OrNode extends Node {
+
+        private final Node[] nodes;
+
+        OrNode(Node[] nodes) {
+            this.nodes = nodes;
+        }
+
+        @Override
+        int evaluate(CompiledPortablePredicate compiled, byte[] bytes, ClassDefinition cd) {
+            int result = NO_MATCH;
+            for (Node node : nodes) {
+                int nodeResult = node.evaluate(compiled, bytes, cd);
+                if (nodeResult == MATCH) {
+                    return MATCH;
+                } else if (nodeResult == UNKNOWN) {
+                    result = UNKNOWN;
+                }
+            }
+            return result;
+        }
+    }
+
+    private static final class NotNode extends Node {
+
+        private final Node node;
+
+        NotNode(Node node) {
+            this.node = node;
+        }
+
+        @Override
+        int evaluate(CompiledPortablePredicate compiled, byte[] bytes, ClassDefinition cd) {
+            int result = node.evaluate(compiled, bytes, cd);
+            return result == UNKNOWN ? UNKNOWN : MATCH - result;
+        }
+    }
+
+    /**
+     * Compares a single field with the operands of a predicate. The operands
+     * are converted to the type of the field when the node is evaluated for a
+     * new class definition.
+     */
+    private static final class ComparisonNode extends Node {
+
+        private final String attributeName;
+        private final int kind;
+        private final boolean equal;
+        private final boolean less;
+        private final Comparable[] operands;
+
+        private ClassDefinition boundClassDefinition;
+        private boolean bound;
+        private int fieldIndex;
+        private FieldType fieldType;
+        private long[] longOperands;
+        private double[] doubleOperands;
+        private byte[][] stringOperands;
+
+        ComparisonNode(String attributeName, int kind, boolean equal, boolean less, Comparable... operands) {
+            this.attributeName = attributeName;
+            this.kind = kind;
+            this.equal = equal;
+            this.less = less;
+            this.operands = operands;
+        }
+
+        @Override
+        int evaluate(CompiledPortablePredicate compiled, byte[] bytes, ClassDefinition cd) {
+            if (cd != boundClassDefinition) {
+                bind(cd);
+            }
+            if (!bound) {
+                return UNKNOWN;
+            }
+            int position = compiled.valuePosition(bytes, fieldIndex);
+            if (position < 0) {
+                return UNKNOWN;
+            }
+            switch (fieldType) {
+                case FLOAT:
+                    return matchDouble(Float.intBitsToFloat(compiled.readInt(bytes, position)));
+                case DOUBLE:
+                    return matchDouble(Double.longBitsToDouble(Bits.readLong(bytes, position, compiled.bigEndian)));
+                case UTF:
+                    return matchString(compiled, bytes, position);
+                default:
+                    return matchLong(readIntegral(compiled, bytes, position));
+            }
+        }
+
+        private long readIntegral(CompiledPortablePredicate compiled, byte[] bytes, int position) {
+            switch (fieldType) {
+                case BOOLEAN:
+                    return bytes[position] != 0 ? 1 : 0;
+                case BYTE:
+                    return bytes[position];
+                case CHAR:
+                    return Bits.readChar(bytes, position, compiled.bigEndian);
+                case SHORT:
+                    return Bits.readShort(bytes, position, compiled.bigEndian);
+                case INT:
+                    return compiled.readInt(bytes, position);
+                case LONG:
+                    return Bits.readLong(bytes, position, compiled.bigEndian);
+                default:
+                    throw new IllegalStateException("Unexpected field type: " + fieldType);
+            }
+        }
+
+        private int matchLong(long value) {
+            switch (kind) {
+                case EQUAL:
+                    return toResult(value == longOperands[0]);
+                case IN:
+                    return toResult(Arrays.binarySearch(longOperands, value) >= 0);
+                case GREATER_LESS:
+                    return toResult(matchGreaterLess(Long.compare(value, longOperands[0])));
+                case BETWEEN:
+                    return toResult(value >= longOperands[0] && value <= longOperands[1]);
+                default:
+                    throw new IllegalStateException("Unexpected comparison: " + kind);
+            }
+        }
+
+        private int matchDouble(double value) {
+            switch (kind) {
+                case EQUAL:
+                    return toResult(Double.compare(value, doubleOperands[0]) == 0);
+                case IN:
+                    for (double operand : doubleOperands) {
+                        if (Double.compare(value, operand) == 0) {
+                            return MATCH;
+                        }
+                    }
+                    return NO_MATCH;
+                case GREATER_LESS:
+                    return toResult(matchGreaterLess(Double.compare(value, doubleOperands[0])));
+                case BETWEEN:
+                    return toResult(Double.compare(value, doubleOperands[0]) >= 0
+                            && Double.compare(value, doubleOperands[1]) <= 0);
+                default:
+                    throw new IllegalStateException("Unexpected comparison: " + kind);
+            }
+        }
+
+        private int matchString(CompiledPortablePredicate compiled, byte[] bytes, int position) {
+            int length = compiled.readInt(bytes, position);
+            if (length == NULL_ARRAY_LENGTH) {
+                return NO_MATCH;
+            }
+            int from = position + INT_SIZE_IN_BYTES;
+            for (byte[] operand : stringOperands) {
+                if (operand.length == length && rangeEquals(bytes, from, operand)) {
+                    return MATCH;
+                }
+            }
+            return NO_MATCH;
+        }
+
+        private boolean matchGreaterLess(int comparison) {
+            return equal && comparison == 0 || (less ? comparison < 0 : comparison > 0);
+        }
+
+        @SuppressWarnings({"checkstyle:cyclomaticcomplexity", "checkstyle:npathcomplexity"})
+        private void bind(ClassDefinition cd) {
+            boundClassDefinition = cd;
+            bound = false;
+            FieldDefinition fd = cd.getField(attributeName);
+            if (fd == null) {
+                return;
+            }
+            AttributeType attributeType = toAttributeType(fd.getType());
+            if (attributeType == null || fd.getType() == FieldType.UTF && kind != EQUAL && kind != IN) {
+                // strings are only compared for equality, the UTF-8 byte order
+                // does not match the order of String.compareTo
+                return;
+            }
+            Comparable[] converted = new Comparable[operands.length];
+            for (int i = 0; i < operands.length; i++) {
+                converted[i] = convert(attributeType, operands[i]);
+                if (converted[i] == null) {
+                    return;
+                }
+            }
+            fieldIndex = fd.getIndex();
+            fieldType = fd.getType();
+            switch (fieldType) {
+                case FLOAT:
+                case DOUBLE:
+                    doubleOperands = new double[converted.length];
+                    for (int i = 0; i < converted.length; i++) {
+                        doubleOperands[i] = ((Number) converted[i]).doubleValue();
+                    }
+                    break;
+                case UTF:
+                    stringOperands = new byte[converted.length][];
+                    for (int i = 0; i < converted.length; i++) {
+                        stringOperands[i] = ((String) converted[i]).getBytes(StandardCharsets.UTF_8);
+                    }
+                    break;
+                default:
+                    longOperands = new long[converted.length];
+                    for (int i = 0; i < converted.length; i++) {
+                        longOperands[i] = toLong(converted[i]);
+                    }
+                    if (kind == IN) {
+                        Arrays.sort(longOperands);
+                    }
+                    break;
+            }
+            bound = true;
+        }
+
+        /**
+         * Converts the operand the same way as {@link AbstractPredicate#convert}
+         * does and returns {@code null} if the converted operand does not have
+         * the type of the field.
+         */
+        private static Comparable convert(AttributeType attributeType, Comparable operand) {
+            Class<?> fieldClass = toFieldClass(attributeType);
+            Comparable converted;
+            try {
+                converted = fieldClass.isInstance(operand) ? operand : attributeType.getConverter().convert(operand);
+            } catch (RuntimeException e) {
+                // the predicate will report the failure when it is applied
+                return null;
+            }
+            return converted != null && converted.getClass() == fieldClass ? converted : null;
+        }
+
+        private static long toLong(Comparable value) {
+            if (value instanceof Boolean) {
+                return (Boolean) value ? 1 : 0;
+            } else if (value instanceof Character) {
+                return (Character) value;
+            }
+            return ((Number) value).longValue();
+        }
+
+        @SuppressWarnings("checkstyle:returncount")
+        private static AttributeType toAttributeType(FieldType fieldType) {
+            switch (fieldType) {
+                case BOOLEAN:
+                    return AttributeType.BOOLEAN;
+                case BYTE:
+                    return AttributeType.BYTE;
+                case CHAR:
+                    return AttributeType.CHAR;
+                case SHORT:
+                    return AttributeType.SHORT;
+                case INT:
+                    return AttributeType.INTEGER;
+                case LONG:
+                    return AttributeType.LONG;
+                case FLOAT:
+                    return AttributeType.FLOAT;
+                case DOUBLE:
+                    return AttributeType.DOUBLE;
+                case UTF:
+                    return AttributeType.STRING;
+                default:
+                    return null;
+            }
+        }
+
+        @SuppressWarnings("checkstyle:returncount")
+        private static Class<?> toFieldClass(AttributeType attributeType) {
+            switch (attributeType) {
+                case BOOLEAN:
+                    return Boolean.class;
+                case BYTE:
+                    return Byte.class;
+                case CHAR:
+                    return Character.class;
+                case SHORT:
+                    return Short.class;
+                case INTEGER:
+                    return Integer.class;
+                case LONG:
+                    return Long.class;
+                case FLOAT:
+                    return Float.class;
+                case DOUBLE:
+                    return Double.class;
+                default:
+                    return String.class;
+            }
+        }
+
+        private static boolean rangeEquals(byte[] bytes, int from, byte[] operand) {
+            for (int i = 0; i < operand.length; i++) {
+                if (bytes[from + i] != operand[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static int toResult(boolean match) {
+            return match ? MATCH : NO_MATCH;
+        }
+    }
+}
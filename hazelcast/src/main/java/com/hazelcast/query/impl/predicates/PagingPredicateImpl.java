@@ -19,11 +19,15 @@ package com.hazelcast.query.impl.predicates;
 import com.hazelcast.internal.serialization.BinaryInterface;
 import com.hazelcast.internal.util.IterationType;
 import com.hazelcast.internal.util.SortingUtil;
+import com.hazelcast.internal.util.collection.TopN;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
 import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
 import com.hazelcast.query.PagingPredicate;
 import com.hazelcast.query.Predicate;
+import com.hazelcast.query.QueryConstants;
+import com.hazelcast.query.impl.Comparison;
+import com.hazelcast.query.impl.Index;
 import com.hazelcast.query.impl.Indexes;
 import com.hazelcast.query.impl.QueryContext;
 import com.hazelcast.query.impl.QueryableEntry;
@@ -32,6 +36,7 @@ import java.io.IOException;
 import java.util.AbstractMap.SimpleImmutableEntry;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
@@ -178,45 +183,109 @@ public class PagingPredicateImpl<K, V>
 
     /**
      * Used if inner predicate is instanceof {@link IndexAwarePredicate} for filtering.
+     * Otherwise, if the entries are ordered by an attribute with an ordered index,
+     * the index is walked from the nearest anchor.
      *
      * @param queryContext
      * @return
      */
     @Override
     public Set<QueryableEntry<K, V>> filter(QueryContext queryContext) {
-        if (!(predicate instanceof IndexAwarePredicate)) {
-            return null;
+        if (!isInnerPredicateIndexed(queryContext)) {
+            Index orderingIndex = matchOrderingIndex(queryContext);
+            return orderingIndex == null ? null : filterUsingOrderingIndex(orderingIndex);
         }
 
         Set<QueryableEntry<K, V>> set = ((IndexAwarePredicate<K, V>) predicate).filter(queryContext);
         if (set == null || set.isEmpty()) {
             return set;
         }
-        List<QueryableEntry<K, V>> resultList = new ArrayList<QueryableEntry<K, V>>();
         Map.Entry<Integer, Map.Entry> nearestAnchorEntry = getNearestAnchorEntry();
+        TopN<QueryableEntry> topN = new TopN<>(SortingUtil.getPageLimit(this, nearestAnchorEntry),
+                SortingUtil.newComparator(this));
         for (QueryableEntry<K, V> queryableEntry : set) {
             if (SortingUtil.compareAnchor(this, queryableEntry, nearestAnchorEntry)) {
-                resultList.add(queryableEntry);
+                topN.add(queryableEntry);
             }
         }
+        return new LinkedHashSet(topN.toSortedList());
+    }
 
-        List<QueryableEntry<K, V>> sortedSubList =
-                (List) SortingUtil.getSortedSubList((List) resultList, this, nearestAnchorEntry);
-        return new LinkedHashSet<QueryableEntry<K, V>>(sortedSubList);
+    /**
+     * Walks the ordered index in ascending order, starting from the nearest
+     * anchor, until the entries up to the end of the current page are
+     * collected. The entries having the same attribute value as the last
+     * collected one are collected too, since their order is decided by
+     * their keys.
+     */
+    @SuppressWarnings("unchecked")
+    private Set<QueryableEntry<K, V>> filterUsingOrderingIndex(Index index) {
+        Map.Entry<Integer, Map.Entry> nearestAnchorEntry = getNearestAnchorEntry();
+        long limit = SortingUtil.getPageLimit(this, nearestAnchorEntry);
+        Map.Entry anchor = nearestAnchorEntry.getValue();
+        Iterator<QueryableEntry> iterator = anchor == null
+                ? index.getSqlRecordIterator(false)
+                : index.getSqlRecordIterator(Comparison.GREATER_OR_EQUAL, getOrderingValue(anchor), false);
+
+        List<QueryableEntry> entries = new ArrayList<>();
+        Comparable lastValue = null;
+        while (iterator.hasNext()) {
+            QueryableEntry entry = iterator.next();
+            Comparable value = getOrderingValue(entry);
+            if (entries.size() >= limit && value.compareTo(lastValue) != 0) {
+                break;
+            }
+            if (apply(entry) && SortingUtil.compareAnchor(this, entry, nearestAnchorEntry)) {
+                entries.add(entry);
+                lastValue = value;
+            }
+        }
+        return new LinkedHashSet(SortingUtil.getSortedSubList(entries, this, nearestAnchorEntry));
     }
 
+    private Comparable getOrderingValue(Map.Entry entry) {
+        return (Comparable) (iterationType == IterationType.KEY ? entry.getKey() : entry.getValue());
+    }
+
+    /**
+     * Matches a non-composite ordered index on the attribute the entries are
+     * ordered by. Only the natural ordering of keys or values is supported,
+     * since the attribute a comparator orders by is unknown.
+     *
+     * @return the matched index or {@code null} if there is no such index
+     */
+    private Index matchOrderingIndex(QueryContext queryContext) {
+        if (comparator != null || iterationType == null) {
+            return null;
+        }
+        String attribute;
+        switch (iterationType) {
+            case KEY:
+                attribute = QueryConstants.KEY_ATTRIBUTE_NAME.value();
+                break;
+            case VALUE:
+                attribute = QueryConstants.THIS_ATTRIBUTE_NAME.value();
+                break;
+            default:
+                return null;
+        }
+        Index index = queryContext.matchIndex(attribute, QueryContext.IndexMatchHint.PREFER_ORDERED);
+        return index != null && index.isOrdered() && index.getComponents().length == 1 ? index : null;
+    }
+
+    private boolean isInnerPredicateIndexed(QueryContext queryContext) {
+        return predicate instanceof IndexAwarePredicate && ((IndexAwarePredicate) predicate).isIndexed(queryContext);
+    }
 
     /**
      * Used if inner predicate is instanceof {@link IndexAwarePredicate} for checking if indexed.
+     * Otherwise, checks if there is an ordered index on the attribute the entries are ordered by.
      *
      * @param queryContext
      * @return
      */
     public boolean isIndexed(QueryContext queryContext) {
-        if (predicate instanceof IndexAwarePredicate) {
-            return ((IndexAwarePredicate) predicate).isIndexed(queryContext);
-        }
-        return false;
+        return isInnerPredicateIndexed(queryContext) || matchOrderingIndex(queryContext) != null;
     }
 
     /**
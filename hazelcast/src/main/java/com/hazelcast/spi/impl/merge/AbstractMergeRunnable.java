@@ -27,14 +27,19 @@ import com.hazelcast.logging.ILogger;
 import com.hazelcast.map.IMap;
 import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.replicatedmap.ReplicatedMap;
+import com.hazelcast.spi.impl.InternalCompletableFuture;
 import com.hazelcast.spi.impl.NodeEngine;
 import com.hazelcast.spi.impl.operationservice.OperationFactory;
 import com.hazelcast.spi.impl.operationservice.OperationService;
 import com.hazelcast.spi.merge.MergingEntry;
 import com.hazelcast.spi.merge.SplitBrainMergePolicy;
 import com.hazelcast.spi.merge.SplitBrainMergePolicyProvider;
+import com.hazelcast.spi.properties.ClusterProperty;
+import com.hazelcast.wan.impl.merkletree.ArrayMerkleTree;
+import com.hazelcast.wan.impl.merkletree.MerkleTree;
 
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -46,6 +51,10 @@ import java.util.concurrent.TimeUnit;
 import java.util.function.BiConsumer;
 
 import static com.hazelcast.internal.util.ExceptionUtil.rethrow;
+import static com.hazelcast.wan.impl.merkletree.MerkleTreeUtil.addEntry;
+import static com.hazelcast.wan.impl.merkletree.MerkleTreeUtil.getLeafHashes;
+import static com.hazelcast.wan.impl.merkletree.MerkleTreeUtil.getLeafOrderForHash;
+import static com.hazelcast.wan.impl.merkletree.MerkleTreeUtil.getLeftMostNodeOrderOnLevel;
 import static java.util.Collections.singleton;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
@@ -73,6 +82,7 @@ public abstract class AbstractMergeRunnable<K, V, Store, MergingItem extends Mer
     private final InternalSerializationService serializationService;
     private final AbstractSplitBrainHandlerService<Store> splitBrainHandlerService;
     private final Semaphore semaphore = new Semaphore(0);
+    private final boolean merkleTreesEnabled;
 
     private Map<String, Collection<Store>> mergingStoresByName;
 
@@ -88,6 +98,7 @@ public abstract class AbstractMergeRunnable<K, V, Store, MergingItem extends Mer
         this.operationService = nodeEngine.getOperationService();
         this.serializationService = (InternalSerializationService) nodeEngine.getSerializationService();
         this.splitBrainHandlerService = splitBrainHandlerService;
+        this.merkleTreesEnabled = nodeEngine.getProperties().getBoolean(ClusterProperty.MERGE_MERKLE_TREES_ENABLED);
     }
 
     private Map<String, Collection<Store>> groupStoresByName(Collection<Store> stores) {
@@ -126,21 +137,88 @@ public abstract class AbstractMergeRunnable<K, V, Store, MergingItem extends Mer
             Collection<Store> stores = entry.getValue();
 
             MergingItemBiConsumer consumer = newConsumer(dataStructureName);
+            int merkleTreeDepth = merkleTreesEnabled ? getMerkleTreeDepth(dataStructureName) : 0;
+            Map<Store, InternalCompletableFuture<int[]>> leafHashesByStore = merkleTreeDepth > 0
+                    ? requestLeafHashes(dataStructureName, stores, merkleTreeDepth) : null;
             for (Store store : stores) {
                 try {
-                    mergeStore(store, consumer);
+                    if (leafHashesByStore == null) {
+                        mergeStore(store, consumer);
+                    } else {
+                        mergeDifferingEntries(store, consumer, merkleTreeDepth, leafHashesByStore.get(store));
+                    }
                     consumer.consumeRemaining();
                 } finally {
                     asyncDestroyStores(singleton(store));
                 }
             }
             mergedCount += consumer.mergedCount;
+            if (consumer.skippedCount > 0 && logger.isFineEnabled()) {
+                logger.fine("Skipped merging " + consumer.skippedCount + " entries of " + dataStructureName
+                        + " which are equal in both clusters");
+            }
             onMerge(dataStructureName);
             iterator.remove();
         }
         return mergedCount;
     }
 
+    /**
+     * Requests the Merkle tree leaves of the partitions of the stores from
+     * the cluster this member joined. All requests are sent upfront, so that
+     * they are served while the stores are being merged one by one.
+     */
+    private Map<Store, InternalCompletableFuture<int[]>> requestLeafHashes(String dataStructureName,
+                                                                          Collection<Store> stores, int depth) {
+        Map<Store, InternalCompletableFuture<int[]>> leafHashesByStore = new HashMap<>();
+        for (Store store : stores) {
+            MergeMerkleTreeOperation operation = new MergeMerkleTreeOperation(dataStructureName, depth);
+            leafHashesByStore.put(store, operationService.invokeOnPartition(serviceName, operation, getPartitionId(store)));
+        }
+        return leafHashesByStore;
+    }
+
+    /**
+     * Merges only the entries of the store which fall into the Merkle tree
+     * leaves that differ from the leaves of the same partition in the
+     * cluster this member joined. If the remote leaves can't be fetched,
+     * all entries are merged.
+     */
+    private void mergeDifferingEntries(Store store, MergingItemBiConsumer consumer, int depth,
+                                       InternalCompletableFuture<int[]> remoteLeafHashesFuture) {
+        int[] remoteLeafHashes;
+        try {
+            remoteLeafHashes = remoteLeafHashesFuture.joinInternal();
+        } catch (Exception e) {
+            logger.warning("Could not fetch the Merkle tree of partition " + getPartitionId(store)
+                    + ", merging all entries of " + getDataStructureName(store) + ": " + e.getMessage());
+            mergeStore(store, consumer);
+            return;
+        }
+
+        MerkleTree localTree = new ArrayMerkleTree(depth);
+        mergeStore(store, (partitionId, mergingItem)
+                -> addEntry(localTree, toData(mergingItem.getRawKey()), toData(mergingItem.getRawValue())));
+        int[] localLeafHashes = getLeafHashes(localTree);
+        BitSet differingLeaves = new BitSet(localLeafHashes.length);
+        for (int i = 0; i < localLeafHashes.length; i++) {
+            if (localLeafHashes[i] != remoteLeafHashes[i]) {
+                differingLeaves.set(i);
+            }
+        }
+
+        int leafLevel = depth - 1;
+        int leftMostLeaf = getLeftMostNodeOrderOnLevel(leafLevel);
+        mergeStore(store, (partitionId, mergingItem) -> {
+            int keyHash = toData(mergingItem.getRawKey()).hashCode();
+            if (differingLeaves.get(getLeafOrderForHash(keyHash, leafLevel) - leftMostLeaf)) {
+                consumer.accept(partitionId, mergingItem);
+            } else {
+                consumer.skippedCount++;
+            }
+        });
+    }
+
     private MergingItemBiConsumer newConsumer(String dataStructureName) {
         SplitBrainMergePolicy<V, MergingItem, Object> policy = getMergePolicy(dataStructureName);
         int batchSize = getBatchSize(dataStructureName);
@@ -174,6 +252,7 @@ public abstract class AbstractMergeRunnable<K, V, Store, MergingItem extends Mer
         private final Map<Address, List<Integer>> memberPartitionsMap;
 
         private int mergedCount;
+        private int skippedCount;
 
         MergingItemBiConsumer(String dataStructureName, SplitBrainMergePolicy<V, MergingItem, Object> mergePolicy,
                               int batchSize) {
@@ -323,6 +402,18 @@ public abstract class AbstractMergeRunnable<K, V, Store, MergingItem extends Mer
 
     protected abstract int getPartitionId(Store store);
 
+    /**
+     * Returns the depth of the Merkle trees compared to skip merging the
+     * entries which are equal in both clusters, when
+     * {@link ClusterProperty#MERGE_MERKLE_TREES_ENABLED} is set. The service
+     * must implement {@link MerkleTreeMergeAwareService} for that.
+     *
+     * @return the Merkle tree depth or {@code 0} if all entries are merged
+     */
+    protected int getMerkleTreeDepth(String dataStructureName) {
+        return 0;
+    }
+
     /**
      * @return in memory format of data structure
      */
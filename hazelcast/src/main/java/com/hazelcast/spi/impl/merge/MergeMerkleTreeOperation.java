@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.merge;
+
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.spi.impl.operationservice.AbstractNamedOperation;
+import com.hazelcast.spi.impl.operationservice.PartitionAwareOperation;
+import com.hazelcast.spi.impl.operationservice.ReadonlyOperation;
+import com.hazelcast.wan.impl.merkletree.MerkleTreeUtil;
+
+import java.io.IOException;
+
+/**
+ * Returns the hashes of the Merkle tree leaves of a data structure in a
+ * partition, to be compared with the Merkle tree of a merging store.
+ *
+ * @see MerkleTreeMergeAwareService
+ */
+public class MergeMerkleTreeOperation extends AbstractNamedOperation
+        implements PartitionAwareOperation, ReadonlyOperation {
+
+    private int depth;
+
+    private transient int[] leafHashes;
+
+    public MergeMerkleTreeOperation() {
+    }
+
+    public MergeMerkleTreeOperation(String name, int depth) {
+        super(name);
+        this.depth = depth;
+    }
+
+    @Override
+    public void run() {
+        MerkleTreeMergeAwareService service = getService();
+        leafHashes = MerkleTreeUtil.getLeafHashes(service.createMergeMerkleTree(name, getPartitionId(), depth));
+    }
+
+    @Override
+    public Object getResponse() {
+        return leafHashes;
+    }
+
+    @Override
+    protected void writeInternal(ObjectDataOutput out) throws IOException {
+        super.writeInternal(out);
+        out.writeInt(depth);
+    }
+
+    @Override
+    protected void readInternal(ObjectDataInput in) throws IOException {
+        super.readInternal(in);
+        depth = in.readInt();
+    }
+
+    @Override
+    public int getFactoryId() {
+        return SplitBrainDataSerializerHook.F_ID;
+    }
+
+    @Override
+    public int getClassId() {
+        return SplitBrainDataSerializerHook.MERGE_MERKLE_TREE;
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.merge;
+
+import com.hazelcast.internal.services.SplitBrainHandlerService;
+import com.hazelcast.wan.impl.merkletree.MerkleTreeView;
+
+/**
+ * A {@link SplitBrainHandlerService} which can describe the entries of its
+ * data structures by Merkle trees, so that the merging cluster sends only
+ * the entries which differ from the entries of the cluster it joined.
+ *
+ * @see AbstractMergeRunnable
+ * @see com.hazelcast.spi.properties.ClusterProperty#MERGE_MERKLE_TREES_ENABLED
+ */
+public interface MerkleTreeMergeAwareService extends SplitBrainHandlerService {
+
+    /**
+     * Creates the Merkle tree of the entries of the given data structure
+     * in the given partition. The entries are added to the tree with
+     * {@link com.hazelcast.wan.impl.merkletree.MerkleTreeUtil#addEntry}.
+     * <p>
+     * Called on the partition thread of the primary replica.
+     *
+     * @param name        the name of the data structure
+     * @param partitionId the ID of the partition
+     * @param depth       the depth of the Merkle tree
+     * @return the Merkle tree, which is empty if the data structure has no
+     * entries in the partition
+     */
+    MerkleTreeView createMergeMerkleTree(String name, int partitionId, int depth);
+}
@@ -69,7 +69,9 @@ public final class SplitBrainDataSerializerHook implements DataSerializerHook {
     public static final int PASS_THROUGH = 17;
     public static final int PUT_IF_ABSENT = 18;
 
-    private static final int LEN = PUT_IF_ABSENT + 1;
+    public static final int MERGE_MERKLE_TREE = 19;
+
+    private static final int LEN = MERGE_MERKLE_TREE + 1;
 
     @Override
     public int getFactoryId() {
@@ -179,6 +181,12 @@ public final class SplitBrainDataSerializerHook implements DataSerializerHook {
             }
         };
 
+        constructors[MERGE_MERKLE_TREE] = new ConstructorFunction<Integer, IdentifiedDataSerializable>() {
+            public IdentifiedDataSerializable createNew(Integer arg) {
+                return new MergeMerkleTreeOperation();
+            }
+        };
+
         return new ArrayDataSerializableFactory(constructors);
     }
 }
@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationparker.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * A hashed timing wheel of {@link WaitSetEntry}s with a short wait timeout.
+ * <p>
+ * Every bucket of the wheel collects the entries expiring within the same
+ * tick. Adding an entry is a lock-free append to its bucket, so the partition
+ * threads parking operations do not contend with each other like they would
+ * on a {@link java.util.concurrent.DelayQueue}. Entries which are unparked
+ * before they expire are not removed from the wheel; they are dropped once
+ * their tick has passed.
+ * <p>
+ * The wheel covers {@link #WHEEL_SIZE} ticks, which is longer than the
+ * longest timeout added to it. Entries with longer timeouts are expired by
+ * periodically scanning the wait sets.
+ */
+class ExpirationWheel {
+
+    /**
+     * The duration of a tick of the wheel in milliseconds.
+     */
+    static final long TICK_MILLIS = 10;
+
+    private static final int WHEEL_SIZE = 256;
+
+    private final Queue<WaitSetEntry>[] buckets;
+    private final AtomicInteger size = new AtomicInteger();
+    private volatile Thread expiringThread;
+    // the first tick not yet expired; only written by the expiring thread
+    private volatile long currentTick;
+
+    @SuppressWarnings("unchecked")
+    ExpirationWheel(long nowMillis) {
+        buckets = new Queue[WHEEL_SIZE];
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            buckets[i] = new ConcurrentLinkedQueue<WaitSetEntry>();
+        }
+        currentTick = tick(nowMillis);
+    }
+
+    /**
+     * Adds the entry to the wheel and wakes up the expiring thread if it
+     * waits for the wheel to become non-empty.
+     */
+    void add(WaitSetEntry entry) {
+        // an entry expiring in a tick which has already passed goes into the next bucket to expire
+        long tick = Math.max(tick(entry.expirationTimeMs), currentTick);
+        buckets[index(tick)].offer(entry);
+        if (size.getAndIncrement() == 0) {
+            Thread thread = expiringThread;
+            if (thread != null) {
+                LockSupport.unpark(thread);
+            }
+        }
+    }
+
+    /**
+     * Parks the expiring thread until the next tick or, if the wheel is empty,
+     * until an entry is added but at most for the given time.
+     *
+     * @param nowMillis     the current time in milliseconds
+     * @param maxWaitMillis the maximum time to wait in milliseconds
+     */
+    void awaitNextTick(long nowMillis, long maxWaitMillis) {
+        // published before checking the size, so an entry added concurrently does unpark this thread
+        expiringThread = Thread.currentThread();
+        long waitMillis = isEmpty() ? maxWaitMillis : TICK_MILLIS - nowMillis % TICK_MILLIS;
+        LockSupport.parkNanos(this, MILLISECONDS.toNanos(waitMillis));
+    }
+
+    /**
+     * Removes the entries of all ticks which have passed and passes the
+     * entries still valid to the given consumer.
+     * <p>
+     * Should only be called by a single thread.
+     *
+     * @param nowMillis the current time in milliseconds
+     * @param consumer  consumes the expired entries
+     */
+    void expire(long nowMillis, Consumer<WaitSetEntry> consumer) {
+        long nowTick = tick(nowMillis);
+        if (nowTick - currentTick > WHEEL_SIZE) {
+            // fell behind more than a full round, every bucket needs to be visited once
+            currentTick = nowTick - WHEEL_SIZE;
+        }
+
+        List<WaitSetEntry> notExpired = null;
+        for (long tick = currentTick; tick < nowTick; tick++) {
+            Queue<WaitSetEntry> bucket = buckets[index(tick)];
+            WaitSetEntry entry;
+            while ((entry = bucket.poll()) != null) {
+                if (tick(entry.expirationTimeMs) >= nowTick) {
+                    // added by a thread ahead of the expiring thread by more than a round
+                    if (notExpired == null) {
+                        notExpired = new ArrayList<WaitSetEntry>();
+                    }
+                    notExpired.add(entry);
+                    continue;
+                }
+                size.decrementAndGet();
+                if (entry.isValid()) {
+                    consumer.accept(entry);
+                }
+            }
+        }
+        currentTick = nowTick;
+
+        if (notExpired != null) {
+            for (WaitSetEntry entry : notExpired) {
+                buckets[index(tick(entry.expirationTimeMs))].offer(entry);
+            }
+        }
+    }
+
+    boolean isEmpty() {
+        return size.get() == 0;
+    }
+
+    int size() {
+        return size.get();
+    }
+
+    void clear() {
+        for (Queue<WaitSetEntry> bucket : buckets) {
+            bucket.clear();
+        }
+        size.set(0);
+    }
+
+    private static long tick(long millis) {
+        return millis / TICK_MILLIS;
+    }
+
+    private static int index(long tick) {
+        return (int) (tick & (WHEEL_SIZE - 1));
+    }
+}
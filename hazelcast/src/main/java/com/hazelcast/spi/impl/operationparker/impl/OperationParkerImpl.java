@@ -22,6 +22,7 @@ import com.hazelcast.internal.metrics.MetricsRegistry;
 import com.hazelcast.internal.metrics.Probe;
 import com.hazelcast.internal.metrics.StaticMetricsProvider;
 import com.hazelcast.internal.partition.MigrationInfo;
+import com.hazelcast.internal.util.Clock;
 import com.hazelcast.internal.util.ConstructorFunction;
 import com.hazelcast.internal.util.executor.SingleExecutorThreadFactory;
 import com.hazelcast.logging.ILogger;
@@ -38,7 +39,6 @@ import com.hazelcast.spi.impl.operationservice.WaitNotifyKey;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.DelayQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
@@ -48,14 +48,13 @@ import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_PREFIX_PARKER;
 import static com.hazelcast.internal.util.ConcurrencyUtil.getOrPutIfAbsent;
 import static com.hazelcast.internal.util.ThreadUtil.createThreadName;
-import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
 public class OperationParkerImpl implements OperationParker, LiveOperationsTracker, StaticMetricsProvider {
 
     private static final long FIRST_WAIT_TIME = 1000;
 
     private final ConcurrentMap<WaitNotifyKey, WaitSet> waitSetMap = new ConcurrentHashMap<WaitNotifyKey, WaitSet>(100);
-    private final DelayQueue delayQueue = new DelayQueue();
+    private final ExpirationWheel expirationWheel = new ExpirationWheel(Clock.currentTimeMillis());
     private final ExecutorService expirationExecutor;
     private final Future expirationTaskFuture;
     private final NodeEngineImpl nodeEngine;
@@ -64,7 +63,7 @@ public class OperationParkerImpl implements OperationParker, LiveOperationsTrack
             = new ConstructorFunction<WaitNotifyKey, WaitSet>() {
         @Override
         public WaitSet createNew(WaitNotifyKey key) {
-            return new WaitSet(logger, nodeEngine, waitSetMap, delayQueue);
+            return new WaitSet(logger, nodeEngine, waitSetMap, expirationWheel);
         }
     };
 
@@ -118,14 +117,10 @@ public class OperationParkerImpl implements OperationParker, LiveOperationsTrack
 
     @Probe(name = OPERATION_METRIC_PARKER_TOTAL_PARKED_OPERATION_COUNT)
     public int getTotalParkedOperationCount() {
-        int count = 0;
-        for (WaitSet waitSet : waitSetMap.values()) {
-            count += waitSet.size();
-        }
-        return count;
+        // expired and cancelled entries stay in the wait sets until they are purged
+        return getTotalValidWaitingOperationCount();
     }
 
-    // for testing purposes only
     public int getTotalValidWaitingOperationCount() {
         int count = 0;
         for (WaitSet waitSet : waitSetMap.values()) {
@@ -170,7 +165,7 @@ public class OperationParkerImpl implements OperationParker, LiveOperationsTrack
     }
 
     public void reset() {
-        delayQueue.clear();
+        expirationWheel.clear();
         waitSetMap.clear();
     }
 
@@ -187,8 +182,8 @@ public class OperationParkerImpl implements OperationParker, LiveOperationsTrack
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder("OperationParker{");
-        sb.append("delayQueue=");
-        sb.append(delayQueue.size());
+        sb.append("expirationWheel=");
+        sb.append(expirationWheel.size());
         sb.append(" \n[");
         for (WaitSet waitSet : waitSetMap.values()) {
             sb.append("\t");
@@ -225,12 +220,11 @@ public class OperationParkerImpl implements OperationParker, LiveOperationsTrack
             long waitTime = FIRST_WAIT_TIME;
             while (waitTime > 0) {
                 long begin = System.currentTimeMillis();
-                WaitSetEntry entry = (WaitSetEntry) delayQueue.poll(waitTime, MILLISECONDS);
-                if (entry != null) {
-                    if (entry.isValid()) {
-                        invalidate(entry);
-                    }
+                expirationWheel.awaitNextTick(Clock.currentTimeMillis(), waitTime);
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new InterruptedException();
                 }
+                expirationWheel.expire(Clock.currentTimeMillis(), this::invalidate);
                 long end = System.currentTimeMillis();
                 waitTime -= (end - begin);
                 if (waitTime > FIRST_WAIT_TIME) {
@@ -44,26 +44,35 @@ import java.util.concurrent.ConcurrentLinkedQueue;
 public class WaitSet implements LiveOperationsTracker, Iterable<WaitSetEntry> {
 
     private static final long TIMEOUT_UPPER_BOUND = 1500;
+    private static final int MIN_INVALIDATIONS_BEFORE_PURGE = 64;
 
     private final Queue<WaitSetEntry> queue = new ConcurrentLinkedQueue<WaitSetEntry>();
     private final ILogger logger;
     private final NodeEngine nodeEngine;
     private final Map<WaitNotifyKey, WaitSet> waitSetMap;
-    private final Queue<WaitSetEntry> delayQueue;
+    private final ExpirationWheel expirationWheel;
 
-    public WaitSet(ILogger logger,
-                   NodeEngine nodeEngine,
-                   Map<WaitNotifyKey, WaitSet> waitSetMap,
-                   Queue<WaitSetEntry> delayQueue) {
+    // only accessed by the partition thread of the WaitNotifyKey
+    private int invalidationsSincePurge;
+    private int sizeAfterPurge;
+
+    WaitSet(ILogger logger,
+            NodeEngine nodeEngine,
+            Map<WaitNotifyKey, WaitSet> waitSetMap,
+            ExpirationWheel expirationWheel) {
         this.nodeEngine = nodeEngine;
         this.logger = logger;
         this.waitSetMap = waitSetMap;
-        this.delayQueue = delayQueue;
+        this.expirationWheel = expirationWheel;
     }
 
     @Override
     public void populate(LiveOperations liveOperations) {
         for (WaitSetEntry entry : queue) {
+            if (!entry.isValid()) {
+                // already answered, the entry just waits to be purged
+                continue;
+            }
             // we need to read out the data from the BlockedOperation; not from the WaitSetEntry
             Operation operation = entry.getOperation();
             liveOperations.add(operation.getCallerAddress(), operation.getCallId());
@@ -75,14 +84,41 @@ public class WaitSet implements LiveOperationsTracker, Iterable<WaitSetEntry> {
     // see javadoc
     public void park(BlockingOperation op) {
         long timeout = op.getWaitTimeout();
-        WaitSetEntry entry = new WaitSetEntry(queue, op);
+        WaitSetEntry entry = new WaitSetEntry(this, op);
         entry.setNodeEngine(nodeEngine);
         queue.offer(entry);
         if (timeout > -1 && timeout < TIMEOUT_UPPER_BOUND) {
-            delayQueue.offer(entry);
+            expirationWheel.add(entry);
         }
     }
 
+    /**
+     * Called when a parked operation expired or got cancelled. The entry is
+     * left in the queue instead of being removed from the middle of it, which
+     * would take linear time. Once as many entries got invalidated as the
+     * queue had after the last purge, the invalid entries are purged at once;
+     * so the cost of purging is amortized over the parked operations.
+     */
+    // Runs in partition-thread
+    void onEntryInvalidated() {
+        invalidationsSincePurge++;
+        if (invalidationsSincePurge < Math.max(MIN_INVALIDATIONS_BEFORE_PURGE, sizeAfterPurge)) {
+            return;
+        }
+
+        int size = 0;
+        Iterator<WaitSetEntry> it = queue.iterator();
+        while (it.hasNext()) {
+            if (it.next().isValid()) {
+                size++;
+            } else {
+                it.remove();
+            }
+        }
+        invalidationsSincePurge = 0;
+        sizeAfterPurge = size;
+    }
+
     // Runs in partition-thread, and therefor we can assume we have exclusive access to the WaitNotifyKey
     // (since each WaitNotifyKey is mapped to a single partition). So a park will not be concurrently
     // executed with an unpark for the same key.
@@ -158,6 +194,7 @@ public class WaitSet implements LiveOperationsTracker, Iterable<WaitSetEntry> {
             if (!entry.isValid()) {
                 continue;
             }
+            entry.setValid(false);
 
             Operation op = entry.getOperation();
             // only for local invocations, remote ones will be expired via #onMemberLeft()
@@ -225,7 +262,11 @@ public class WaitSet implements LiveOperationsTracker, Iterable<WaitSetEntry> {
         return queue.size();
     }
 
-    // for testing purposes only
+    /**
+     * Returns the number of parked operations which are still waiting. Unlike
+     * {@link #size()}, it doesn't count the expired and cancelled entries
+     * which have not been purged yet.
+     */
     public int totalValidWaitingOperationCount() {
         int count = 0;
         for (WaitSetEntry entry : queue) {
@@ -29,30 +29,28 @@ import com.hazelcast.spi.impl.operationservice.impl.OperationServiceImpl;
 import com.hazelcast.spi.impl.operationservice.impl.responses.CallTimeoutResponse;
 import com.hazelcast.internal.util.Clock;
 
-import java.util.Queue;
-import java.util.concurrent.Delayed;
-import java.util.concurrent.TimeUnit;
 
 import static com.hazelcast.internal.util.EmptyStatement.ignore;
 
 /**
  * A simple container for a {@link BlockingOperation} that is added to the {@link WaitSet}.
  *
- * Each WaitSetEntry is put in a delay queue (part of the {@link OperationParkerImpl}) based on its expiration time.
+ * Each WaitSetEntry with a short wait timeout is put in the {@link ExpirationWheel} (part of the {@link OperationParkerImpl})
+ * based on its expiration time.
  */
-class WaitSetEntry extends AbstractLocalOperation implements Delayed, PartitionAwareOperation, IdentifiedDataSerializable {
+class WaitSetEntry extends AbstractLocalOperation implements PartitionAwareOperation, IdentifiedDataSerializable {
 
-    final Queue<WaitSetEntry> queue;
+    final WaitSet waitSet;
     final Operation op;
     final BlockingOperation blockingOperation;
     final long expirationTimeMs;
     volatile boolean valid = true;
     volatile Object cancelResponse;
 
-    WaitSetEntry(Queue<WaitSetEntry> queue, BlockingOperation blockingOperation) {
+    WaitSetEntry(WaitSet waitSet, BlockingOperation blockingOperation) {
         this.op = (Operation) blockingOperation;
         this.blockingOperation = blockingOperation;
-        this.queue = queue;
+        this.waitSet = waitSet;
         this.expirationTimeMs = getExpirationTimeMs(blockingOperation);
 
         setPartitionId(op.getPartitionId());
@@ -108,22 +106,6 @@ class WaitSetEntry extends AbstractLocalOperation implements Delayed, PartitionA
         return blockingOperation.shouldWait();
     }
 
-    @Override
-    public long getDelay(TimeUnit unit) {
-        return unit.convert(expirationTimeMs - Clock.currentTimeMillis(), TimeUnit.MILLISECONDS);
-    }
-
-    @Override
-    public int compareTo(Delayed other) {
-        // compare zero ONLY if same object
-        if (other == this) {
-            return 0;
-        }
-        long d = (getDelay(TimeUnit.NANOSECONDS)
-                - other.getDelay(TimeUnit.NANOSECONDS));
-        return (d == 0) ? 0 : ((d < 0) ? -1 : 1);
-    }
-
     @Override
     public void run() throws Exception {
         if (!valid) {
@@ -136,11 +118,8 @@ class WaitSetEntry extends AbstractLocalOperation implements Delayed, PartitionA
             return;
         }
 
-        if (!queue.remove(this)) {
-            return;
-        }
-
         valid = false;
+        waitSet.onEntryInvalidated();
         if (expired) {
             onExpire();
         } else {
@@ -407,6 +407,24 @@ public final class ClusterProperty {
     public static final HazelcastProperty MERGE_NEXT_RUN_DELAY_SECONDS
             = new HazelcastProperty("hazelcast.merge.next.run.delay.seconds", 120, SECONDS);
 
+    /**
+     * Enables comparing Merkle trees before merging {@link com.hazelcast.map.IMap}
+     * and {@link com.hazelcast.cache.ICache} entries after a split-brain heals.
+     * <p>
+     * When enabled, a merging member fetches the Merkle tree leaves of each
+     * partition from the cluster it joined and sends to the merge policy only
+     * the entries which fall into leaves that differ from its own. Entries
+     * with the same key and value in both clusters are not merged, so their
+     * metadata (e.g. hits or expiration time) is not merged either. Only maps
+     * and caches with an enabled {@link com.hazelcast.config.MerkleTreeConfig}
+     * are compared, using the depth given there; the entries of all others
+     * are merged in full.
+     * <p>
+     * The default is {@code false}.
+     */
+    public static final HazelcastProperty MERGE_MERKLE_TREES_ENABLED
+            = new HazelcastProperty("hazelcast.merge.merkle.trees.enabled", false);
+
     /**
      * Time in seconds to sleep after a migration task.
      */
@@ -816,6 +834,24 @@ public final class ClusterProperty {
     public static final HazelcastProperty METRICS_COLLECTION_FREQUENCY
             = new HazelcastProperty("hazelcast.metrics.collection.frequency");
 
+    /**
+     * Sets the precision of the latency histograms of the map operations,
+     * as the number of bits of a latency kept by the histogram. A latency
+     * is reported with a relative error of at most {@code 2^-precision},
+     * at the cost of {@code 24 * (33 - precision) * 2^precision} bytes of
+     * memory per map and operation type, allocated when the first latency
+     * of the operation type is recorded. The percentiles of the latencies
+     * recorded in a metrics collection interval are published as
+     * {@code map.latency} metrics tagged with the operation type.
+     * <p>
+     * The value must be between 1 and 10, 0 disables the histograms.
+     * A precision of 4 (at most 6.25% relative error) takes about 11 KB
+     * per map and operation type.
+     * Default: 0, disabled
+     */
+    public static final HazelcastProperty METRICS_LATENCY_HISTOGRAM_PRECISION
+            = new HazelcastProperty("hazelcast.metrics.latency.histogram.precision", 0);
+
     /**
      * Enables or disables the
      * {@link com.hazelcast.spi.impl.operationexecutor.slowoperationdetector.SlowOperationDetector}.
@@ -880,6 +916,40 @@ public final class ClusterProperty {
     public static final HazelcastProperty QUERY_PREDICATE_PARALLEL_EVALUATION
             = new HazelcastProperty("hazelcast.query.predicate.parallel.evaluation", false);
 
+    /**
+     * Evaluate predicates of full partition scans directly on the serialized
+     * form of {@link com.hazelcast.nio.serialization.Portable Portable} values.
+     * <p>
+     * When enabled, equal, in, greater/less and between predicates on
+     * top-level primitive and string fields, and their and/or/not
+     * combinations, are evaluated on the serialized bytes of the values
+     * without deserializing them. Values which can not be evaluated that way
+     * fall back to the regular predicate evaluation. Maps with custom
+     * attributes are not affected.
+     * <p>
+     * The default is {@code false}.
+     */
+    public static final HazelcastProperty QUERY_COMPILED_PORTABLE_PREDICATES
+            = new HazelcastProperty("hazelcast.query.compiled.portable.predicates", false);
+
+    /**
+     * Read attributes of values in the {@code OBJECT} in-memory format
+     * through generated accessors instead of reflection.
+     * <p>
+     * When enabled, the fields and getter methods used by predicates,
+     * indexes and projections, including {@code [any]} collection and array
+     * paths, are read through {@link java.lang.invoke.MethodHandle}s or
+     * classes spun by {@link java.lang.invoke.LambdaMetafactory}. Attributes
+     * for which no accessor can be created keep using reflection.
+     * <p>
+     * Attribute getters are shared by all members in a JVM, so this
+     * property is read only from the JVM system properties.
+     * <p>
+     * The default is {@code false}.
+     */
+    public static final HazelcastProperty QUERY_GENERATED_GETTERS
+            = new HazelcastProperty("hazelcast.query.generated.getters", false);
+
     /**
      * Run aggregation accumulation for multiple entries in parallel.
      * <p>
@@ -1038,6 +1108,63 @@ public final class ClusterProperty {
     public static final HazelcastProperty CLIENT_ENGINE_QUERY_THREAD_COUNT
             = new HazelcastProperty("hazelcast.clientengine.query.thread.count", -1);
 
+    /**
+     * Enables the compact value storage of multimaps. When enabled, the values
+     * of a multimap key are kept in array-backed collections instead of
+     * {@link java.util.LinkedList}s and {@link java.util.HashSet}s: record IDs
+     * are stored in primitive arrays, serialized values in a contiguous byte
+     * arena and a hash index is maintained for large value collections, which
+     * makes {@code containsEntry} and {@code remove(key, value)} constant-time
+     * operations for {@code LIST} collections as well.
+     * <p>
+     * The setting is applied when a value collection is created, so it should
+     * be the same on all members.
+     */
+    public static final HazelcastProperty MULTIMAP_COMPACT_VALUE_STORAGE
+            = new HazelcastProperty("hazelcast.multimap.compact.value.storage.enabled", false);
+
+    /**
+     * Enables the segmented storage of queue items. When enabled, the items
+     * of a (non-priority) queue without an enabled queue store are kept in
+     * fixed-size array segments instead of a {@link java.util.LinkedList},
+     * {@code drainTo} detaches whole segments and {@code addAll} fills
+     * segments in bulk. Segments can be spilled to local files, see
+     * {@link #QUEUE_SPILL_MEMORY_LIMIT_MB}.
+     */
+    public static final HazelcastProperty QUEUE_SEGMENTED_STORAGE_ENABLED
+            = new HazelcastProperty("hazelcast.queue.segmented.storage.enabled", false);
+
+    /**
+     * The number of items in a segment of a queue using segmented storage.
+     * Must be positive.
+     *
+     * @see #QUEUE_SEGMENTED_STORAGE_ENABLED
+     */
+    public static final HazelcastProperty QUEUE_SEGMENT_SIZE
+            = new HazelcastProperty("hazelcast.queue.segment.size", 1024);
+
+    /**
+     * The amount of item data (in megabytes) a queue using segmented storage
+     * keeps in memory on its partition owner. Above this limit, every segment
+     * which gets full is spilled to a memory-mapped file in
+     * {@link #QUEUE_SPILL_DIRECTORY} and read back as a whole when it reaches
+     * the head of the queue. A negative value disables spilling.
+     *
+     * @see #QUEUE_SEGMENTED_STORAGE_ENABLED
+     */
+    public static final HazelcastProperty QUEUE_SPILL_MEMORY_LIMIT_MB
+            = new HazelcastProperty("hazelcast.queue.spill.memory.limit.mb", -1);
+
+    /**
+     * The directory of the files into which queue segments are spilled.
+     * Defaults to the {@code java.io.tmpdir} directory of the member, resolved
+     * when the queue is created.
+     *
+     * @see #QUEUE_SPILL_MEMORY_LIMIT_MB
+     */
+    public static final HazelcastProperty QUEUE_SPILL_DIRECTORY
+            = new HazelcastProperty("hazelcast.queue.spill.directory");
+
     /*
      * WAN REPLICATION PROPERTIES
      */
@@ -1165,6 +1292,22 @@ public final class ClusterProperty {
     public static final HazelcastProperty MAP_INVALIDATION_MESSAGE_BATCH_FREQUENCY_SECONDS
             = new HazelcastProperty("hazelcast.map.invalidation.batchfrequency.seconds", 10, SECONDS);
 
+    /**
+     * Enables batched offloading of {@link com.hazelcast.core.Offloadable}
+     * entry processors run by {@code IMap.executeOnKeys} and
+     * {@code IMap.executeOnEntries}.
+     * <p>
+     * When enabled, the entries of a partition are locked and read on the
+     * partition thread, processed in parallel chunks on the executor named by
+     * the entry processor, and the changes are written back and the keys
+     * unlocked in a single partition operation. When disabled, such entry
+     * processors are run on the partition thread like any other.
+     * <p>
+     * Default: false
+     */
+    public static final HazelcastProperty MAP_ENTRY_PROCESSOR_OFFLOAD_BATCHING_ENABLED
+            = new HazelcastProperty("hazelcast.map.entry.processor.offload.batching.enabled", false);
+
     /**
      * Setting this capacity is valid if you set {@code writeCoalescing} to {@code false}
      * (see {@link com.hazelcast.config.MapStoreConfig#setWriteCoalescing(boolean)}).
@@ -1530,6 +1673,63 @@ public final class ClusterProperty {
     public static final HazelcastProperty LOCK_MAX_LEASE_TIME_SECONDS
             = new HazelcastProperty("hazelcast.lock.max.lease.time.seconds", Long.MAX_VALUE, SECONDS);
 
+    /**
+     * Enables sending the prepare, commit and rollback operations of the
+     * transaction log records of the same partition with a single
+     * operation, instead of one operation per record.
+     * <p>
+     * Default: true
+     */
+    public static final HazelcastProperty TRANSACTION_LOG_GROUPING_ENABLED
+            = new HazelcastProperty("hazelcast.transaction.log.grouping.enabled", true);
+
+    /**
+     * The percentage of the IDs of the current batch of a
+     * {@link com.hazelcast.flakeidgen.FlakeIdGenerator} left when the next
+     * batch is requested in the background. The next batch is then usually
+     * available when the current one is spent and {@code newId()} doesn't
+     * have to wait for it.
+     * <p>
+     * Default: 0, the next batch is requested when the current one is spent
+     */
+    public static final HazelcastProperty FLAKE_ID_GENERATOR_PREFETCH_THRESHOLD_PERCENTAGE
+            = new HazelcastProperty("hazelcast.flakeidgen.prefetch.threshold.percentage", 0);
+
+    /**
+     * The maximum number of entries fetched at once when a query cache
+     * created on a member is populated. When positive, the initial
+     * snapshot is loaded partition by partition in chunks of this size,
+     * instead of each member sending the query result of all of its
+     * partitions in a single response. The events of a partition are read
+     * from its accumulator after every chunk, so the buffer size of the
+     * query cache only has to cover the updates of a partition made while a
+     * single chunk is fetched. If it still overflows, the partition is
+     * loaded again.
+     * <p>
+     * Known limitation: only query caches created on members are populated
+     * in chunks. The client protocol has no operation to read the events
+     * buffered while a partition is loaded, so query caches created by
+     * clients, such as many clients creating their query caches at
+     * startup, are still populated from a single snapshot taken by each
+     * member.
+     * <p>
+     * Default: 0, the initial snapshot is taken in one go
+     */
+    public static final HazelcastProperty QUERY_CACHE_POPULATION_FETCH_SIZE
+            = new HazelcastProperty("hazelcast.map.querycache.population.fetch.size", 0);
+
+    /**
+     * The period in milliseconds of sending the events of query caches in
+     * batches. When positive, a member collects the events it publishes
+     * to the subscribers of a query cache and sends the events of all of
+     * its partitions in a single compact batch once per period, instead
+     * of sending a message per partition.
+     * <p>
+     * Default: 0, the events are sent per partition as they are published
+     */
+    public static final HazelcastProperty QUERY_CACHE_EVENT_BATCHING_DELAY_MILLIS
+            = new HazelcastProperty("hazelcast.map.querycache.event.batching.delay.millis", 0, MILLISECONDS);
+
     /**
      * Hazelcast IMDG Enterprise license key.
      */
@@ -23,6 +23,7 @@ import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
 import com.hazelcast.transaction.impl.operations.BroadcastTxRollbackOperation;
 import com.hazelcast.transaction.impl.operations.CreateAllowedDuringPassiveStateTxBackupLogOperation;
 import com.hazelcast.transaction.impl.operations.CreateTxBackupLogOperation;
+import com.hazelcast.transaction.impl.operations.GroupedTxLogRecordOperation;
 import com.hazelcast.transaction.impl.operations.PurgeAllowedDuringPassiveStateTxBackupLogOperation;
 import com.hazelcast.transaction.impl.operations.PurgeTxBackupLogOperation;
 import com.hazelcast.transaction.impl.operations.ReplicateAllowedDuringPassiveStateTxBackupLogOperation;
@@ -65,6 +66,7 @@ public final class TransactionDataSerializerHook implements DataSerializerHook {
     public static final int PUT_REMOTE_TX = 16;
     public static final int XA_REPLICATION = 17;
     public static final int XA_TRANSACTION_DTO = 18;
+    public static final int GROUPED_TX_LOG_RECORD = 19;
 
 
     @Override
@@ -114,6 +116,8 @@ public final class TransactionDataSerializerHook implements DataSerializerHook {
                         return new XaReplicationOperation();
                     case XA_TRANSACTION_DTO:
                         return new XATransactionDTO();
+                    case GROUPED_TX_LOG_RECORD:
+                        return new GroupedTxLogRecordOperation();
                     default:
                         return null;
                 }
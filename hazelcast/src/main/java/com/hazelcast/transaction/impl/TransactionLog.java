@@ -17,10 +17,15 @@
 package com.hazelcast.transaction.impl;
 
 import com.hazelcast.cluster.Address;
+import com.hazelcast.internal.cluster.Versions;
+import com.hazelcast.spi.exception.RetryableException;
+import com.hazelcast.spi.impl.AllowedDuringPassiveState;
+import com.hazelcast.spi.impl.InternalCompletableFuture;
 import com.hazelcast.spi.impl.NodeEngine;
+import com.hazelcast.spi.impl.operationservice.BlockingOperation;
 import com.hazelcast.spi.impl.operationservice.Operation;
-import com.hazelcast.spi.impl.operationservice.OperationService;
 import com.hazelcast.spi.impl.operationservice.impl.OperationServiceImpl;
+import com.hazelcast.transaction.impl.operations.GroupedTxLogRecordOperation;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -29,6 +34,11 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Future;
 import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import static com.hazelcast.internal.util.ConcurrencyUtil.CALLER_RUNS;
+import static com.hazelcast.spi.impl.InternalCompletableFuture.completingCallback;
+import static com.hazelcast.spi.properties.ClusterProperty.TRANSACTION_LOG_GROUPING_ENABLED;
 
 /**
  * The transaction log contains all {@link
@@ -42,6 +52,9 @@ import java.util.function.BiConsumer;
  * Most transaction will be small, but an HashMap is created.
  * Instead use an array and do a linear search in that array.
  * When there are too many items added, then enable the hashmap.
+ *
+ * The prepare, commit and rollback operations of the records of the
+ * same partition are sent to the partition with a single operation.
  */
 public class TransactionLog {
 
@@ -86,12 +99,7 @@ public class TransactionLog {
     }
 
     public List<Future> commit(NodeEngine nodeEngine) {
-        List<Future> futures = new ArrayList<>(size());
-        for (TransactionLogRecord record : recordMap.values()) {
-            Future future = invoke(nodeEngine, record, record.newCommitOperation());
-            futures.add(future);
-        }
-        return futures;
+        return new ArrayList<>(invokeAll(nodeEngine, TransactionLogRecord::newCommitOperation, false));
     }
 
     public void onCommitSuccess() {
@@ -107,55 +115,144 @@ public class TransactionLog {
     }
 
     public List<Future> prepare(NodeEngine nodeEngine) {
-        List<Future> futures = new ArrayList<>(size());
-        for (TransactionLogRecord record : recordMap.values()) {
-            Future future = invoke(nodeEngine, record, record.newPrepareOperation());
-            futures.add(future);
-        }
-        return futures;
+        return new ArrayList<>(invokeAll(nodeEngine, TransactionLogRecord::newPrepareOperation, false));
     }
 
     public List<Future> rollback(NodeEngine nodeEngine) {
-        List<Future> futures = new ArrayList<>(size());
+        return new ArrayList<>(invokeAll(nodeEngine, TransactionLogRecord::newRollbackOperation, false));
+    }
+
+    public void commitAsync(NodeEngine nodeEngine, BiConsumer callback) {
+        invokeAllAsync(nodeEngine, callback, TransactionLogRecord::newCommitOperation);
+    }
+
+    public void rollbackAsync(NodeEngine nodeEngine, BiConsumer callback) {
+        invokeAllAsync(nodeEngine, callback, TransactionLogRecord::newRollbackOperation);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void invokeAllAsync(NodeEngine nodeEngine, BiConsumer callback,
+                                Function<TransactionLogRecord, Operation> operationFactory) {
+        List<InternalCompletableFuture<Object>> futures = invokeAll(nodeEngine, operationFactory, true);
+        int i = 0;
         for (TransactionLogRecord record : recordMap.values()) {
-            Future future = invoke(nodeEngine, record, record.newRollbackOperation());
-            futures.add(future);
+            InternalCompletableFuture<Object> future = futures.get(i++);
+            if (!(record instanceof TargetAwareTransactionLogRecord)) {
+                future.whenCompleteAsync(callback);
+            }
         }
-        return futures;
     }
 
-    private Future invoke(NodeEngine nodeEngine, TransactionLogRecord record, Operation op) {
-        OperationService operationService = nodeEngine.getOperationService();
-        if (record instanceof TargetAwareTransactionLogRecord) {
-            Address target = ((TargetAwareTransactionLogRecord) record).getTarget();
-            return operationService.invokeOnTarget(op.getServiceName(), op, target);
+    /**
+     * Invokes the operations of all records. The operations of the records
+     * of the same partition are sent with a single {@link
+     * GroupedTxLogRecordOperation}, unless they can not run in a group.
+     *
+     * @param async if the operations are invoked asynchronously, which
+     *              is allowed on a partition thread
+     * @return the futures of the operations, in the order of {@link #getRecords()}
+     */
+    private List<InternalCompletableFuture<Object>> invokeAll(NodeEngine nodeEngine,
+                                                             Function<TransactionLogRecord, Operation> operationFactory,
+                                                             boolean async) {
+        List<InternalCompletableFuture<Object>> futures = new ArrayList<>(size());
+        Map<Integer, List<Integer>> groupedIndexesByPartition = null;
+        List<Operation> operations = new ArrayList<>(size());
+        List<TransactionLogRecord> records = new ArrayList<>(recordMap.values());
+        boolean groupingSupported = size() > 1 && isGroupingSupported(nodeEngine);
+        for (int i = 0; i < records.size(); i++) {
+            TransactionLogRecord record = records.get(i);
+            Operation op = operationFactory.apply(record);
+            operations.add(op);
+            if (groupingSupported && canRunInGroup(record, op)) {
+                if (groupedIndexesByPartition == null) {
+                    groupedIndexesByPartition = new HashMap<>();
+                }
+                groupedIndexesByPartition.computeIfAbsent(op.getPartitionId(), k -> new ArrayList<>()).add(i);
+                futures.add(null);
+            } else {
+                futures.add(invoke(nodeEngine, record, op, async));
+            }
         }
-        return operationService.invokeOnPartition(op.getServiceName(), op, op.getPartitionId());
-    }
 
-    public void commitAsync(NodeEngine nodeEngine, BiConsumer callback) {
-        for (TransactionLogRecord record : recordMap.values()) {
-            invokeAsync(nodeEngine, callback, record, record.newCommitOperation());
+        if (groupedIndexesByPartition != null) {
+            for (Map.Entry<Integer, List<Integer>> entry : groupedIndexesByPartition.entrySet()) {
+                invokeGroup(nodeEngine, entry.getKey(), entry.getValue(), records, operations, futures, operationFactory,
+                        async);
+            }
         }
+        return futures;
     }
 
-    public void rollbackAsync(NodeEngine nodeEngine, BiConsumer callback) {
-        for (TransactionLogRecord record : recordMap.values()) {
-            invokeAsync(nodeEngine, callback, record, record.newRollbackOperation());
+    @SuppressWarnings("checkstyle:parameternumber")
+    private void invokeGroup(NodeEngine nodeEngine, int partitionId, List<Integer> indexes,
+                             List<TransactionLogRecord> records, List<Operation> operations,
+                             List<InternalCompletableFuture<Object>> futures,
+                             Function<TransactionLogRecord, Operation> operationFactory, boolean async) {
+        if (indexes.size() == 1) {
+            int index = indexes.get(0);
+            futures.set(index, invoke(nodeEngine, records.get(index), operations.get(index), async));
+            return;
         }
+
+        List<Operation> groupedOperations = new ArrayList<>(indexes.size());
+        for (int index : indexes) {
+            groupedOperations.add(operations.get(index));
+            futures.set(index, new InternalCompletableFuture<>());
+        }
+
+        Operation groupOp = new GroupedTxLogRecordOperation(groupedOperations).setPartitionId(partitionId);
+        InternalCompletableFuture<List<Object>> groupFuture = invokeOnPartition(nodeEngine, groupOp, async);
+        groupFuture.whenCompleteAsync((responses, throwable) -> {
+            for (int i = 0; i < indexes.size(); i++) {
+                int index = indexes.get(i);
+                InternalCompletableFuture<Object> future = futures.get(index);
+                Object response = throwable != null ? throwable : responses.get(i);
+                if (response instanceof RetryableException) {
+                    // the operation would be retried if it was invoked on its own
+                    TransactionLogRecord record = records.get(index);
+                    invoke(nodeEngine, record, operationFactory.apply(record), async)
+                            .whenCompleteAsync(completingCallback(future));
+                } else if (response instanceof Throwable) {
+                    future.completeExceptionally((Throwable) response);
+                } else {
+                    future.complete(response);
+                }
+            }
+        }, CALLER_RUNS);
     }
 
-    private void invokeAsync(NodeEngine nodeEngine, BiConsumer callback,
-                             TransactionLogRecord record, Operation op) {
+    private static boolean isGroupingSupported(NodeEngine nodeEngine) {
+        return nodeEngine.getProperties().getBoolean(TRANSACTION_LOG_GROUPING_ENABLED)
+                && nodeEngine.getClusterService().getClusterVersion().isGreaterOrEqual(Versions.V4_2);
+    }
 
-        OperationServiceImpl operationService = (OperationServiceImpl) nodeEngine.getOperationService();
+    /**
+     * Operations which can park, which are allowed during the passive
+     * cluster state or which are urgent keep their own invocation, these
+     * properties are lost in a group.
+     */
+    private static boolean canRunInGroup(TransactionLogRecord record, Operation op) {
+        return !(record instanceof TargetAwareTransactionLogRecord)
+                && !(op instanceof BlockingOperation)
+                && !(op instanceof AllowedDuringPassiveState)
+                && !op.isUrgent();
+    }
 
+    private static InternalCompletableFuture<Object> invoke(NodeEngine nodeEngine, TransactionLogRecord record,
+                                                            Operation op, boolean async) {
         if (record instanceof TargetAwareTransactionLogRecord) {
             Address target = ((TargetAwareTransactionLogRecord) record).getTarget();
-            operationService.invokeOnTarget(op.getServiceName(), op, target);
-        } else {
-            operationService.invokeOnPartitionAsync(op.getServiceName(), op, op.getPartitionId())
-                    .whenCompleteAsync(callback);
+            return nodeEngine.getOperationService().invokeOnTarget(op.getServiceName(), op, target);
+        }
+        return invokeOnPartition(nodeEngine, op, async);
+    }
+
+    private static <E> InternalCompletableFuture<E> invokeOnPartition(NodeEngine nodeEngine, Operation op, boolean async) {
+        if (async) {
+            OperationServiceImpl operationService = (OperationServiceImpl) nodeEngine.getOperationService();
+            return operationService.invokeOnPartitionAsync(op.getServiceName(), op, op.getPartitionId());
         }
+        return nodeEngine.getOperationService().invokeOnPartition(op.getServiceName(), op, op.getPartitionId());
     }
 }
@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.transaction.impl.operations;
+
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.spi.impl.NodeEngine;
+import com.hazelcast.spi.impl.operationservice.Operation;
+import com.hazelcast.spi.impl.operationservice.OperationResponseHandler;
+import com.hazelcast.spi.impl.operationservice.PartitionAwareOperation;
+import com.hazelcast.spi.impl.operationservice.impl.responses.NormalResponse;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.hazelcast.spi.impl.operationservice.OperationAccessor.deactivate;
+import static com.hazelcast.spi.impl.operationservice.OperationAccessor.setCallId;
+import static com.hazelcast.spi.impl.operationservice.OperationAccessor.setCallerAddress;
+import static com.hazelcast.spi.impl.operationservice.OperationAccessor.setConnection;
+import static com.hazelcast.transaction.impl.TransactionDataSerializerHook.GROUPED_TX_LOG_RECORD;
+
+/**
+ * Runs the prepare, commit or rollback operations of the transaction log
+ * records of a single partition with one invocation.
+ * <p>
+ * The operations run one after another on the partition thread, each one
+ * with its own backups. The sync backups of the operations acknowledge to
+ * the invocation of this operation, so a response of this operation is
+ * complete when the backups of all operations are. The response is a list
+ * with the response of each operation, or the exception it has thrown.
+ */
+public class GroupedTxLogRecordOperation extends AbstractTxOperation implements PartitionAwareOperation {
+
+    private List<Operation> operations;
+
+    public GroupedTxLogRecordOperation() {
+    }
+
+    public GroupedTxLogRecordOperation(List<Operation> operations) {
+        this.operations = operations;
+    }
+
+    @Override
+    public void run() throws Exception {
+        NodeEngine nodeEngine = getNodeEngine();
+        List<Object> responses = new ArrayList<>(operations.size());
+        int backupAcks = 0;
+        for (Operation op : operations) {
+            ResponseCollector collector = new ResponseCollector();
+            prepare(op, nodeEngine, collector);
+            nodeEngine.getOperationService().run(op);
+
+            Object response = collector.response;
+            if (response instanceof NormalResponse) {
+                NormalResponse normalResponse = (NormalResponse) response;
+                backupAcks += normalResponse.getBackupAcks();
+                response = normalResponse.getValue();
+            }
+            responses.add(response);
+        }
+        sendResponse(new NormalResponse(responses, getCallId(), backupAcks, isUrgent()));
+    }
+
+    private void prepare(Operation op, NodeEngine nodeEngine, OperationResponseHandler responseHandler) {
+        op.setNodeEngine(nodeEngine)
+          .setPartitionId(getPartitionId())
+          .setReplicaIndex(getReplicaIndex())
+          .setOperationResponseHandler(responseHandler);
+        if (op.getCallerUuid() == null) {
+            op.setCallerUuid(getCallerUuid());
+        }
+        setCallerAddress(op, getCallerAddress());
+        setConnection(op, getConnection());
+        // sync backups of the operation acknowledge to the invocation of this operation
+        deactivate(op);
+        setCallId(op, getCallId());
+    }
+
+    @Override
+    public boolean returnsResponse() {
+        // the response is sent by run, it carries the number of backup acks
+        return false;
+    }
+
+    @Override
+    public int getClassId() {
+        return GROUPED_TX_LOG_RECORD;
+    }
+
+    @Override
+    protected void toString(StringBuilder sb) {
+        super.toString(sb);
+        sb.append(", operationCount=").append(operations.size());
+    }
+
+    @Override
+    protected void writeInternal(ObjectDataOutput out) throws IOException {
+        out.writeInt(operations.size());
+        for (Operation op : operations) {
+            out.writeObject(op);
+        }
+    }
+
+    @Override
+    protected void readInternal(ObjectDataInput in) throws IOException {
+        int size = in.readInt();
+        operations = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            operations.add(in.readObject());
+        }
+    }
+
+    private static final class ResponseCollector implements OperationResponseHandler {
+
+        private Object response;
+
+        @Override
+        public void sendResponse(Operation op, Object response) {
+            this.response = response;
+        }
+    }
+}
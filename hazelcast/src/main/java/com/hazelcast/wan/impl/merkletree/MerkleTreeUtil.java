@@ -16,6 +16,7 @@
 
 package com.hazelcast.wan.impl.merkletree;
 
+import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.internal.util.QuickMath;
 
 import java.io.DataInput;
@@ -24,6 +25,7 @@ import java.io.IOException;
 import java.util.Collection;
 import java.util.LinkedList;
 
+import static com.hazelcast.internal.util.HashUtil.MurmurHash3_fmix;
 import static com.hazelcast.internal.util.Preconditions.checkTrue;
 
 /**
@@ -54,6 +56,36 @@ public final class MerkleTreeUtil {
         return leftMostNodeOrderOnLevel + steps;
     }
 
+    /**
+     * Adds an entry to the Merkle tree by the hashes of its serialized key
+     * and value. Trees built this way on different members are equal if
+     * they hold the same entries, regardless of the in-memory format.
+     *
+     * @param merkleTree The Merkle tree to be updated
+     * @param key        The serialized key of the entry
+     * @param value      The serialized value of the entry
+     */
+    public static void addEntry(MerkleTree merkleTree, Data key, Data value) {
+        merkleTree.updateAdd(key, MurmurHash3_fmix(key.hashCode()) ^ value.hashCode());
+    }
+
+    /**
+     * Returns the hashes of the leaves of a Merkle tree, ordered from
+     * the leftmost leaf
+     *
+     * @param merkleTreeView The Merkle tree which leaves to be returned
+     * @return the hashes of the leaves
+     */
+    public static int[] getLeafHashes(MerkleTreeView merkleTreeView) {
+        int leafLevel = merkleTreeView.depth() - 1;
+        int leftMostLeaf = getLeftMostNodeOrderOnLevel(leafLevel);
+        int[] leafHashes = new int[getNodesOnLevel(leafLevel)];
+        for (int i = 0; i < leafHashes.length; i++) {
+            leafHashes[i] = merkleTreeView.getNodeHash(leftMostLeaf + i);
+        }
+        return leafHashes;
+    }
+
     /**
      * Returns the hash range that one node covers on the given {@code level}
      *
@@ -179,7 +211,7 @@ public final class MerkleTreeUtil {
      *              calculated
      * @return the order of the leftmost node on the given level
      */
-    static int getLeftMostNodeOrderOnLevel(int level) {
+    public static int getLeftMostNodeOrderOnLevel(int level) {
         return (1 << level) - 1;
     }
 
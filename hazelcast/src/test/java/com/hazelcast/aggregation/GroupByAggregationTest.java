@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.aggregation;
+
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.map.QueryResultSizeExceededException;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.hazelcast.aggregation.TestSamples.createEntryWithValue;
+import static com.hazelcast.aggregation.TestSamples.createExtractableEntryWithValue;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class GroupByAggregationTest {
+
+    private final InternalSerializationService ss = new DefaultSerializationServiceBuilder().build();
+
+    @Test(timeout = TimeoutInMillis.MINUTE)
+    public void testGroupByAggregator() {
+        List<String> values = Arrays.asList("a", "b", "a", "c", "a", null, "b", null);
+        Map<String, Long> expectation = new HashMap<>();
+        expectation.put("a", 3L);
+        expectation.put("b", 2L);
+        expectation.put("c", 1L);
+        expectation.put(null, 2L);
+
+        Aggregator<Map.Entry<String, String>, Map<String, Long>> aggregation = groupByValueCount();
+        for (String value : values) {
+            aggregation.accumulate(createEntryWithValue(value));
+        }
+        aggregation.onAccumulationFinished();
+
+        Aggregator<Map.Entry<String, String>, Map<String, Long>> resultAggregation = groupByValueCount();
+        resultAggregation.combine(aggregation);
+        resultAggregation.onCombinationFinished();
+        Map<String, Long> result = resultAggregation.aggregate();
+
+        assertThat(result, is(equalTo(expectation)));
+    }
+
+    @Test(timeout = TimeoutInMillis.MINUTE)
+    public void testGroupByAggregator_withAttributePath() {
+        Person[] people = {new Person(5.1), new Person(3.3), new Person(5.1)};
+        Map<Double, Double> expectation = new HashMap<>();
+        expectation.put(5.1, 10.2);
+        expectation.put(3.3, 3.3);
+
+        Aggregator<Map.Entry<Person, Person>, Map<Double, Double>> aggregation
+                = ss.toObject(ss.toData(Aggregators.groupBy("age", Aggregators.doubleSum("age"))));
+        for (Person value : people) {
+            aggregation.accumulate(createExtractableEntryWithValue(value, ss));
+        }
+
+        Aggregator<Map.Entry<Person, Person>, Map<Double, Double>> resultAggregation
+                = Aggregators.groupBy("age", Aggregators.doubleSum("age"));
+        resultAggregation.combine(aggregation);
+        Map<Double, Double> result = resultAggregation.aggregate();
+
+        assertThat(result, is(equalTo(expectation)));
+    }
+
+    @Test(timeout = TimeoutInMillis.MINUTE)
+    public void testGroupByAggregator_combineSerialized() {
+        Aggregator<Map.Entry<String, String>, Map<String, Long>> aggregation1 = groupByValueCount();
+        aggregation1.accumulate(createEntryWithValue("a"));
+        aggregation1.accumulate(createEntryWithValue("b"));
+        Aggregator<Map.Entry<String, String>, Map<String, Long>> aggregation2 = groupByValueCount();
+        aggregation2.accumulate(createEntryWithValue("a"));
+        aggregation2.accumulate(createEntryWithValue("c"));
+
+        Aggregator<Map.Entry<String, String>, Map<String, Long>> resultAggregation
+                = ss.toObject(ss.toData(groupByValueCount()));
+        resultAggregation.combine(ss.toObject(ss.toData(aggregation1)));
+        resultAggregation.combine(ss.toObject(ss.toData(aggregation2)));
+        Map<String, Long> result = resultAggregation.aggregate();
+
+        Map<String, Long> expectation = new HashMap<>();
+        expectation.put("a", 2L);
+        expectation.put("b", 1L);
+        expectation.put("c", 1L);
+        assertThat(result, is(equalTo(expectation)));
+    }
+
+    @Test(timeout = TimeoutInMillis.MINUTE)
+    public void testGroupByAggregator_withLongSum() {
+        List<Long> values = Arrays.asList(5L, -3L, 5L, 2L, -1L);
+        Map<Long, Long> expectation = new HashMap<>();
+        expectation.put(5L, 10L);
+        expectation.put(-3L, -3L);
+        expectation.put(2L, 2L);
+        expectation.put(-1L, -1L);
+
+        Aggregator<Map.Entry<Long, Long>, Map<Long, Long>> aggregation
+                = Aggregators.groupBy(null, Aggregators.longSum("this"));
+        for (Long value : values) {
+            aggregation.accumulate(createExtractableEntryWithValue(value, ss));
+        }
+
+        Aggregator<Map.Entry<Long, Long>, Map<Long, Long>> resultAggregation
+                = ss.toObject(ss.toData(Aggregators.groupBy(null, Aggregators.longSum("this"))));
+        resultAggregation.combine(ss.toObject(ss.toData(aggregation)));
+        Map<Long, Long> result = resultAggregation.aggregate();
+
+        assertThat(result, is(equalTo(expectation)));
+    }
+
+    @Test(timeout = TimeoutInMillis.MINUTE, expected = IllegalStateException.class)
+    public void testGroupByAggregator_whenNotDeserialized_thenNewGroupFails() {
+        Aggregator<Map.Entry<String, String>, Map<String, Double>> aggregation
+                = Aggregators.groupBy(null, Aggregators.doubleSum());
+        aggregation.accumulate(createEntryWithValue("a"));
+    }
+
+    @Test(timeout = TimeoutInMillis.MINUTE, expected = QueryResultSizeExceededException.class)
+    public void testGroupByAggregator_tooManyGroups() {
+        Aggregator<Map.Entry<String, String>, Map<String, Long>> aggregation
+                = Aggregators.groupBy(null, Aggregators.count(), 2);
+        aggregation.accumulate(createEntryWithValue("a"));
+        aggregation.accumulate(createEntryWithValue("b"));
+        aggregation.accumulate(createEntryWithValue("a"));
+        aggregation.accumulate(createEntryWithValue("c"));
+    }
+
+    @Test(timeout = TimeoutInMillis.MINUTE, expected = QueryResultSizeExceededException.class)
+    public void testGroupByAggregator_tooManyGroupsOnCombine() {
+        Aggregator<Map.Entry<String, String>, Map<String, Long>> aggregation1
+                = Aggregators.groupBy(null, Aggregators.count(), 2);
+        aggregation1.accumulate(createEntryWithValue("a"));
+        aggregation1.accumulate(createEntryWithValue("b"));
+        Aggregator<Map.Entry<String, String>, Map<String, Long>> aggregation2
+                = Aggregators.groupBy(null, Aggregators.count(), 2);
+        aggregation2.accumulate(createEntryWithValue("c"));
+
+        aggregation1.combine(aggregation2);
+    }
+
+    private static Aggregator<Map.Entry<String, String>, Map<String, Long>> groupByValueCount() {
+        return Aggregators.groupBy(null, Aggregators.count());
+    }
+}
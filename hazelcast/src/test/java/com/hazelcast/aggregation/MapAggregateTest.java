@@ -22,6 +22,7 @@ import com.hazelcast.config.InMemoryFormat;
 import com.hazelcast.config.MapConfig;
 import com.hazelcast.core.HazelcastInstance;
 import com.hazelcast.map.IMap;
+import com.hazelcast.map.QueryResultSizeExceededException;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
 import com.hazelcast.nio.serialization.DataSerializable;
@@ -180,6 +181,52 @@ public class MapAggregateTest extends HazelcastTestSupport {
         assertEquals(Double.valueOf(5.5d), avg);
     }
 
+    @Test
+    public void groupBy_3Nodes_count() {
+        IMap<String, Double> map = getMapWithNodeCount(3);
+        populateMapWithGroups(map);
+
+        Map<Double, Long> counts = map.aggregate(Aggregators.<Map.Entry<String, Double>, Double, Long>groupBy("this",
+                Aggregators.count()));
+
+        Map<Double, Long> expected = new HashMap<>();
+        expected.put(0.0d, 10L);
+        expected.put(1.0d, 10L);
+        expected.put(2.0d, 10L);
+        assertEquals(expected, counts);
+    }
+
+    @Test
+    public void groupBy_3Nodes_sum_withPredicate() {
+        IMap<String, Double> map = getMapWithNodeCount(3);
+        populateMapWithGroups(map);
+
+        Map<Double, Double> sums = map.aggregate(Aggregators.<Map.Entry<String, Double>, Double, Double>groupBy("this",
+                Aggregators.doubleSum()), greaterThan("this", 0.0d));
+
+        Map<Double, Double> expected = new HashMap<>();
+        expected.put(1.0d, 10.0d);
+        expected.put(2.0d, 20.0d);
+        assertEquals(expected, sums);
+    }
+
+    @Test
+    public void groupBy_3Nodes_tooManyGroups() {
+        IMap<String, Double> map = getMapWithNodeCount(3);
+        populateMapWithGroups(map);
+
+        expected.expect(QueryResultSizeExceededException.class);
+
+        map.aggregate(Aggregators.groupBy("this", Aggregators.count(), 2));
+    }
+
+    private IMap<String, Double> populateMapWithGroups(IMap<String, Double> map) {
+        for (int i = 0; i < 30; i++) {
+            map.put("key" + i, (double) (i % 3));
+        }
+        return map;
+    }
+
     private IMap<String, Person> populateMapWithPersons(IMap<String, Person> map) {
         map.put("key1", new Person(1.0d));
         map.put("key2", new Person(4.0d));
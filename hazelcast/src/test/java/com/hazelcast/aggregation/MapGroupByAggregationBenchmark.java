@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.aggregation;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.config.MapConfig;
+import com.hazelcast.config.NetworkConfig;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.internal.util.StringUtil;
+import com.hazelcast.map.IMap;
+import com.hazelcast.test.HazelcastTestSupport;
+
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.LineNumberReader;
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.StringTokenizer;
+
+import static java.util.Collections.singletonList;
+
+/**
+ * Compares {@link Aggregators#groupBy(String, Aggregator)} with the hand-written word
+ * count aggregator of the {@link MapWordCountAggregationBenchmark} on a map holding
+ * one word per entry.
+ * <p>
+ * This is no JUnit test.
+ */
+public class MapGroupByAggregationBenchmark extends HazelcastTestSupport {
+
+    private static final String[] DATA_RESOURCES_TO_LOAD = {"dracula.txt"};
+
+    private static final String MAP_NAME = "words";
+
+    public static void main(String[] args) throws Exception {
+        HazelcastInstance hazelcastInstance = buildCluster(3);
+
+        try {
+            System.out.println("Filling map...");
+            for (int i = 0; i < 4; i++) {
+                fillMapWithDataEachWordNewEntry(hazelcastInstance, i);
+            }
+            IMap<Integer, String> map = hazelcastInstance.getMap(MAP_NAME);
+
+            System.out.println("Garbage collecting...");
+            for (int i = 0; i < 10; i++) {
+                System.gc();
+            }
+
+            for (int i = 0; i < 10; i++) {
+                System.out.println("Executing word count aggregator...");
+                long start = System.currentTimeMillis();
+                Map<String, MutableInt> wordCounts = map.aggregate(new WordCountAggregator());
+                System.err.println(wordCounts.size());
+                System.err.println("TimeTaken=" + (System.currentTimeMillis() - start));
+
+                System.out.println("Executing group by aggregator...");
+                start = System.currentTimeMillis();
+                Map<String, Long> groupCounts = map.aggregate(
+                        Aggregators.<Map.Entry<Integer, String>, String, Long>groupBy("this", Aggregators.count()));
+                System.err.println(groupCounts.size());
+                System.err.println("TimeTaken=" + (System.currentTimeMillis() - start));
+                System.err.println("---------------------------------------------");
+                System.gc();
+            }
+        } finally {
+            Hazelcast.shutdownAll();
+        }
+    }
+
+    private static HazelcastInstance buildCluster(int memberCount) {
+        Config config = new Config();
+        NetworkConfig networkConfig = config.getNetworkConfig();
+        networkConfig.getJoin().getMulticastConfig().setEnabled(false);
+        networkConfig.getJoin().getTcpIpConfig().setEnabled(true);
+        networkConfig.getJoin().getTcpIpConfig().setMembers(singletonList("127.0.0.1"));
+
+        MapConfig mapConfig = new MapConfig();
+        mapConfig.setInMemoryFormat(InMemoryFormat.OBJECT);
+        mapConfig.setName(MAP_NAME);
+        mapConfig.setBackupCount(0);
+        config.addMapConfig(mapConfig);
+
+        config.setProperty("hazelcast.query.predicate.parallel.evaluation", "true");
+        config.setProperty("hazelcast.aggregation.accumulation.parallel.evaluation", "true");
+
+        HazelcastInstance[] hazelcastInstances = new HazelcastInstance[memberCount];
+        for (int i = 0; i < memberCount; i++) {
+            hazelcastInstances[i] = Hazelcast.newHazelcastInstance(config);
+        }
+        return hazelcastInstances[0];
+    }
+
+    private static void fillMapWithDataEachWordNewEntry(HazelcastInstance hazelcastInstance, int round) throws Exception {
+        IMap<Integer, String> map = hazelcastInstance.getMap(MAP_NAME);
+        int batchSize = 10000;
+        int keyBase = round * 10000000;
+        for (String file : DATA_RESOURCES_TO_LOAD) {
+            InputStream is = MapGroupByAggregationBenchmark.class.getResourceAsStream("/wordcount/" + file);
+            LineNumberReader reader = new LineNumberReader(new InputStreamReader(is));
+
+            Map<Integer, String> batch = new HashMap<Integer, String>(batchSize);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                StringTokenizer tokenizer = new StringTokenizer(line);
+                while (tokenizer.hasMoreTokens()) {
+                    String word = cleanWord(tokenizer.nextToken()).toLowerCase(StringUtil.LOCALE_INTERNAL);
+                    batch.put(keyBase++, word);
+                    if (batch.size() == batchSize) {
+                        map.putAll(batch);
+                        batch.clear();
+                    }
+                }
+            }
+
+            if (!batch.isEmpty()) {
+                map.putAll(batch);
+                batch.clear();
+            }
+
+            is.close();
+            reader.close();
+        }
+    }
+
+    private static String cleanWord(String word) {
+        return word.replaceAll("[^A-Za-z0-9]", "");
+    }
+
+    private static class MutableInt implements Serializable {
+
+        private int value = 0;
+
+        @Override
+        public String toString() {
+            return String.valueOf(value);
+        }
+    }
+
+    private static class WordCountAggregator implements Aggregator<Map.Entry<Integer, String>, Map<String, MutableInt>> {
+
+        Map<String, MutableInt> result = new HashMap<String, MutableInt>(1000);
+
+        @Override
+        public void accumulate(Map.Entry<Integer, String> entry) {
+            add(entry.getValue(), 1);
+        }
+
+        @Override
+        public void combine(Aggregator aggregator) {
+            WordCountAggregator aggr = (WordCountAggregator) aggregator;
+            for (Map.Entry<String, MutableInt> toCombine : aggr.result.entrySet()) {
+                add(toCombine.getKey(), toCombine.getValue().value);
+            }
+        }
+
+        private void add(String word, int times) {
+            MutableInt count = result.get(word);
+            if (count == null) {
+                count = new MutableInt();
+                result.put(word, count);
+            }
+            count.value += times;
+        }
+
+        @Override
+        public Map<String, MutableInt> aggregate() {
+            return result;
+        }
+    }
+}
@@ -22,6 +22,7 @@ import com.hazelcast.test.HazelcastTestSupport;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.Collections;
 import java.util.function.Consumer;
 
 import static org.junit.Assert.fail;
@@ -32,6 +33,9 @@ public abstract class AbstractCardinalityEstimatorNullTest extends HazelcastTest
     public void testNullability() {
         assertThrowsNPE(c -> c.add(null));
         assertThrowsNPE(c -> c.addAsync(null));
+        assertThrowsNPE(c -> c.addAll(null));
+        assertThrowsNPE(c -> c.addAll(Collections.singletonList(null)));
+        assertThrowsNPE(c -> c.addAllAsync(null));
     }
 
     private void assertThrowsNPE(ConsumerEx<CardinalityEstimator> method) {
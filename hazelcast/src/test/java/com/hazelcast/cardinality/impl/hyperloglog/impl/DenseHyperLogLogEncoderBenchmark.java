@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.cardinality.impl.hyperloglog.impl;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures merging two dense HyperLogLog encoders, estimating the
+ * cardinality of a dense encoder and adding a batch of hashes to a
+ * {@link HyperLogLogImpl}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class DenseHyperLogLogEncoderBenchmark {
+
+    private static final int BATCH_SIZE = 1000;
+
+    @Param({"10", "14"})
+    private int precision;
+
+    private DenseHyperLogLogEncoder encoder;
+    private DenseHyperLogLogEncoder other;
+    private long[] hashes;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random();
+        encoder = new DenseHyperLogLogEncoder(precision);
+        other = new DenseHyperLogLogEncoder(precision);
+        for (int i = 0; i < 10 << precision; i++) {
+            encoder.add(random.nextLong());
+            other.add(random.nextLong());
+        }
+        hashes = new long[BATCH_SIZE];
+        for (int i = 0; i < hashes.length; i++) {
+            hashes[i] = random.nextLong();
+        }
+    }
+
+    @Benchmark
+    public HyperLogLogEncoder merge() {
+        return encoder.merge(other);
+    }
+
+    @Benchmark
+    public long estimate() {
+        return encoder.estimate();
+    }
+
+    @Benchmark
+    public long addAll() {
+        HyperLogLogImpl hll = new HyperLogLogImpl(precision);
+        hll.addAll(hashes);
+        return hll.estimate();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(DenseHyperLogLogEncoderBenchmark.class.getSimpleName())
+                .build();
+        new Runner(opt).run();
+    }
+}
@@ -16,6 +16,8 @@
 
 package com.hazelcast.cardinality.impl.hyperloglog.impl;
 
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
 import com.hazelcast.test.HazelcastParallelClassRunner;
 import com.hazelcast.test.RequireAssertEnabled;
 import com.hazelcast.test.annotation.ParallelJVMTest;
@@ -24,6 +26,8 @@ import org.junit.Test;
 import org.junit.experimental.categories.Category;
 import org.junit.runner.RunWith;
 
+import java.util.Random;
+
 import static org.junit.Assert.assertEquals;
 
 @RunWith(HazelcastParallelClassRunner.class)
@@ -58,7 +62,68 @@ public class DenseHyperLogLogEncoderTest extends HyperLogLogEncoderAbstractTest
         DenseHyperLogLogEncoder encoder = getDenseHyperLogLogEncoder();
         int memoryFootprint = encoder.getMemoryFootprint();
 
-        assertEquals(1 << precision(), memoryFootprint);
+        // 6-bit registers packed ten to a long
+        assertEquals(((1 << precision()) + 9) / 10 * 8, memoryFootprint);
+    }
+
+    @Test
+    public void testMerge_keepsGreaterRegisters() {
+        Random random = new Random();
+        int m = 1 << precision();
+        byte[] registers = new byte[m];
+        byte[] otherRegisters = new byte[m];
+        for (int i = 0; i < m; i++) {
+            registers[i] = (byte) random.nextInt(64);
+            otherRegisters[i] = (byte) (i % 7 == 0 ? registers[i] : random.nextInt(64));
+        }
+        DenseHyperLogLogEncoder encoder = new DenseHyperLogLogEncoder(precision(), registers);
+
+        encoder.merge(new DenseHyperLogLogEncoder(precision(), otherRegisters));
+
+        for (int i = 0; i < m; i++) {
+            assertEquals(Math.max(registers[i], otherRegisters[i]), encoder.getRegister(i));
+        }
+    }
+
+    @Test
+    public void testMerge_withSparse() {
+        SparseHyperLogLogEncoder sparse = new SparseHyperLogLogEncoder(precision());
+        DenseHyperLogLogEncoder expected = new DenseHyperLogLogEncoder(precision());
+        DenseHyperLogLogEncoder encoder = new DenseHyperLogLogEncoder(precision());
+        Random random = new Random();
+        for (int i = 0; i < 1000; i++) {
+            long hash = random.nextLong();
+            sparse.add(hash);
+            if (i % 2 == 0) {
+                expected.add(hash);
+                encoder.add(hash);
+            }
+        }
+
+        encoder.merge(sparse);
+        expected.merge(sparse.asDense());
+
+        for (int i = 0; i < 1 << precision(); i++) {
+            assertEquals(expected.getRegister(i), encoder.getRegister(i));
+        }
+        assertEquals(expected.estimate(), encoder.estimate());
+    }
+
+    @Test
+    public void testSerialization() {
+        DenseHyperLogLogEncoder encoder = new DenseHyperLogLogEncoder(precision());
+        Random random = new Random();
+        for (int i = 0; i < 100000; i++) {
+            encoder.add(random.nextLong());
+        }
+        SerializationService serializationService = new DefaultSerializationServiceBuilder().build();
+
+        DenseHyperLogLogEncoder deserialized = serializationService.toObject(serializationService.toData(encoder));
+
+        for (int i = 0; i < 1 << precision(); i++) {
+            assertEquals(encoder.getRegister(i), deserialized.getRegister(i));
+        }
+        assertEquals(encoder.estimate(), deserialized.estimate());
     }
 
     @RequireAssertEnabled
@@ -37,6 +37,7 @@ import org.junit.runner.RunWith;
 
 import java.io.IOException;
 
+import static java.util.Arrays.asList;
 import static org.junit.Assert.assertEquals;
 
 @RunWith(HazelcastParallelClassRunner.class)
@@ -112,6 +113,20 @@ public class ClientCardinalityEstimatorTest extends HazelcastTestSupport {
         assertEquals(4L, estimator.estimateAsync().toCompletableFuture().get().longValue());
     }
 
+    @Test
+    public void addAll() {
+        estimator = client.getCardinalityEstimator("aggregateAll");
+        estimator.addAll(asList(1L, 1L, 2L, 3L, "Test"));
+        assertEquals(4L, estimator.estimate());
+    }
+
+    @Test
+    public void addAllAsync() throws Exception {
+        estimator = client.getCardinalityEstimator("aggregateAllAsync");
+        estimator.addAllAsync(asList(1L, 1L, 2L, 3L, "Test")).toCompletableFuture().get();
+        assertEquals(4L, estimator.estimateAsync().toCompletableFuture().get().longValue());
+    }
+
     @Test
     public void addString() {
         estimator = client.getCardinalityEstimator("aggregateString");
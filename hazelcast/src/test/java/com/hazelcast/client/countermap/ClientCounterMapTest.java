@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.client.countermap;
+
+import com.hazelcast.client.test.TestHazelcastFactory;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.countermap.CounterMap;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class ClientCounterMapTest extends HazelcastTestSupport {
+
+    private final TestHazelcastFactory hazelcastFactory = new TestHazelcastFactory();
+
+    private HazelcastInstance member;
+    private HazelcastInstance client;
+
+    @Before
+    public void setup() {
+        member = hazelcastFactory.newHazelcastInstance();
+        hazelcastFactory.newHazelcastInstance();
+        client = hazelcastFactory.newHazelcastClient();
+    }
+
+    @After
+    public void tearDown() {
+        hazelcastFactory.terminateAll();
+    }
+
+    @Test
+    public void testGet_whenNeverUpdated() {
+        CounterMap<String> counters = client.getCounterMap(randomName());
+
+        assertEquals(0, counters.get("key"));
+    }
+
+    @Test
+    public void testAddAndGet() {
+        String name = randomName();
+        CounterMap<String> counters = client.getCounterMap(name);
+
+        assertEquals(5, counters.addAndGet("key", 5));
+        assertEquals(3, counters.addAndGet("key", -2));
+        assertEquals(3, counters.get("key"));
+        assertEquals(3, member.<String>getCounterMap(name).get("key"));
+    }
+
+    @Test
+    public void testAddAndGetAsync() throws Exception {
+        CounterMap<String> counters = client.getCounterMap(randomName());
+
+        assertEquals(5, counters.addAndGetAsync("key", 5).toCompletableFuture().get().longValue());
+        assertEquals(5, counters.get("key"));
+    }
+
+    @Test
+    public void testAddAndGetAll() {
+        String name = randomName();
+        CounterMap<Integer> counters = client.getCounterMap(name);
+        Map<Integer, Long> deltas = new HashMap<>();
+        Map<Integer, Long> expected = new HashMap<>();
+        for (int i = 0; i < 1000; i++) {
+            deltas.put(i, (long) i);
+            expected.put(i, 2L * i);
+        }
+
+        counters.addAndGetAll(deltas);
+        Map<Integer, Long> result = counters.addAndGetAll(deltas);
+
+        assertEquals(expected, result);
+        CounterMap<Integer> memberCounters = member.getCounterMap(name);
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(2L * i, memberCounters.get(i));
+        }
+    }
+
+    @Test
+    public void testRemove() {
+        CounterMap<String> counters = client.getCounterMap(randomName());
+        counters.addAndGet("key", 5);
+
+        assertEquals(5, counters.remove("key"));
+        assertEquals(0, counters.get("key"));
+    }
+}
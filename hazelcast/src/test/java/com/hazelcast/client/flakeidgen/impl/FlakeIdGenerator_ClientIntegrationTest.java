@@ -18,10 +18,12 @@ package com.hazelcast.client.flakeidgen.impl;
 
 import com.hazelcast.client.config.ClientConfig;
 import com.hazelcast.client.config.ClientFlakeIdGeneratorConfig;
+import com.hazelcast.client.impl.proxy.ClientFlakeIdGeneratorProxy;
 import com.hazelcast.client.test.TestHazelcastFactory;
 import com.hazelcast.config.FlakeIdGeneratorConfig;
 import com.hazelcast.core.HazelcastInstance;
 import com.hazelcast.flakeidgen.FlakeIdGenerator;
+import com.hazelcast.flakeidgen.impl.AutoBatcher;
 import com.hazelcast.flakeidgen.impl.FlakeIdConcurrencyTestUtil;
 import com.hazelcast.test.HazelcastParallelClassRunner;
 import com.hazelcast.test.annotation.ParallelJVMTest;
@@ -31,6 +33,7 @@ import org.junit.Test;
 import org.junit.experimental.categories.Category;
 import org.junit.runner.RunWith;
 
+import static com.hazelcast.client.properties.ClientProperty.FLAKE_ID_GENERATOR_PREFETCH_THRESHOLD_PERCENTAGE;
 import static com.hazelcast.config.FlakeIdGeneratorConfig.DEFAULT_BITS_NODE_ID;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
@@ -83,4 +86,19 @@ public class FlakeIdGenerator_ClientIntegrationTest {
         long id3 = generator.newId();
         assertTrue(id1 + increment * myBatchSize < id3);
     }
+
+    @Test
+    public void smokeTest_withPrefetch() throws Exception {
+        ClientConfig config = new ClientConfig()
+                .setProperty(FLAKE_ID_GENERATOR_PREFETCH_THRESHOLD_PERCENTAGE.getName(), "20")
+                .addFlakeIdGeneratorConfig(new ClientFlakeIdGeneratorConfig("gen").setPrefetchCount(100));
+        before(config);
+        final FlakeIdGenerator generator = instance.getFlakeIdGenerator("gen");
+        FlakeIdConcurrencyTestUtil.concurrentlyGenerateIds(generator::newId);
+
+        AutoBatcher batcher = ((ClientFlakeIdGeneratorProxy) generator).getBatcher();
+        assertTrue(batcher.getPrefetchCount() > 0);
+        // the first batch is always fetched when an ID is needed
+        assertTrue(batcher.getBlockingFetchCount() > 0);
+    }
 }
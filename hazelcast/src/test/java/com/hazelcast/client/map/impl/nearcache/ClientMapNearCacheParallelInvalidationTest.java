@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.client.map.impl.nearcache;
+
+import com.hazelcast.client.config.ClientConfig;
+import com.hazelcast.client.test.ClientTestSupport;
+import com.hazelcast.client.test.TestHazelcastFactory;
+import com.hazelcast.config.Config;
+import com.hazelcast.config.NearCacheConfig;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.internal.monitor.impl.NearCacheStatsImpl;
+import com.hazelcast.internal.nearcache.impl.invalidation.MetaDataContainer;
+import com.hazelcast.internal.nearcache.impl.invalidation.RepairingHandler;
+import com.hazelcast.map.IMap;
+import com.hazelcast.map.impl.MapService;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static com.hazelcast.config.InMemoryFormat.OBJECT;
+import static com.hazelcast.internal.nearcache.impl.NearCacheTestUtils.getBaseConfig;
+import static com.hazelcast.internal.nearcache.impl.invalidation.RepairingTask.INVALIDATION_APPLIER_THREAD_COUNT;
+import static com.hazelcast.spi.properties.ClusterProperty.MAP_INVALIDATION_MESSAGE_BATCH_ENABLED;
+import static com.hazelcast.spi.properties.ClusterProperty.MAP_INVALIDATION_MESSAGE_BATCH_FREQUENCY_SECONDS;
+import static com.hazelcast.spi.properties.ClusterProperty.MAP_INVALIDATION_MESSAGE_BATCH_SIZE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class ClientMapNearCacheParallelInvalidationTest extends ClientTestSupport {
+
+    private static final int ENTRY_COUNT = 1000;
+
+    private TestHazelcastFactory factory = new TestHazelcastFactory();
+    private String mapName = randomMapName();
+    private HazelcastInstance server;
+    private IMap<Integer, Integer> serverMap;
+    private IMap<Integer, Integer> clientMap;
+
+    @Before
+    public void setUp() {
+        Config config = getBaseConfig()
+                .setProperty(MAP_INVALIDATION_MESSAGE_BATCH_ENABLED.getName(), "true")
+                .setProperty(MAP_INVALIDATION_MESSAGE_BATCH_SIZE.getName(), "100")
+                .setProperty(MAP_INVALIDATION_MESSAGE_BATCH_FREQUENCY_SECONDS.getName(), "1");
+        NearCacheConfig nearCacheConfig = new NearCacheConfig(mapName)
+                .setInMemoryFormat(OBJECT)
+                .setInvalidateOnChange(true);
+        ClientConfig clientConfig = new ClientConfig()
+                .addNearCacheConfig(nearCacheConfig)
+                .setProperty(INVALIDATION_APPLIER_THREAD_COUNT.getName(), "4");
+
+        server = factory.newHazelcastInstance(config);
+        factory.newHazelcastInstance(config);
+        HazelcastInstance client = factory.newHazelcastClient(clientConfig);
+        makeSureConnectedToServers(client, 2);
+
+        serverMap = server.getMap(mapName);
+        clientMap = client.getMap(mapName);
+
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            serverMap.put(i, i);
+        }
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            clientMap.get(i);
+        }
+    }
+
+    @After
+    public void tearDown() {
+        factory.terminateAll();
+    }
+
+    @Test
+    public void testInvalidationsApplied() {
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            serverMap.put(i, -i);
+        }
+
+        assertNearCacheSizeEventually(0);
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            assertEquals(-i, (int) clientMap.get(i));
+        }
+    }
+
+    @Test
+    public void testMapClear_clearsNearCache() {
+        serverMap.clear();
+
+        assertNearCacheSizeEventually(0);
+    }
+
+    @Test
+    public void testInvalidationLagStats() {
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            serverMap.put(i, -i);
+        }
+
+        assertNearCacheSizeEventually(0);
+        NearCacheStatsImpl stats = (NearCacheStatsImpl) clientMap.getLocalMapStats().getNearCacheStats();
+        assertTrueEventually(() -> assertEquals(0, stats.getPendingInvalidations()));
+        assertTrue(stats.getMaxInvalidationLag() > 0);
+        assertTrue(stats.getLastInvalidationLag() > 0);
+    }
+
+    @Test
+    public void testSequencesOfPartitionsAppliedInOrder() {
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            serverMap.put(i, -i);
+        }
+
+        assertNearCacheSizeEventually(0);
+        RepairingHandler handler = ((NearCachedClientMapProxy<Integer, Integer>) clientMap).getContext()
+                .getRepairingTask(MapService.SERVICE_NAME).getHandlers().get(mapName);
+        NearCacheStatsImpl stats = (NearCacheStatsImpl) clientMap.getLocalMapStats().getNearCacheStats();
+        assertTrueEventually(() -> assertEquals(0, stats.getPendingInvalidations()));
+        int partitionCount = server.getPartitionService().getPartitions().size();
+        for (int partition = 0; partition < partitionCount; partition++) {
+            MetaDataContainer metaData = handler.getMetaDataContainer(partition);
+            assertEquals("partition " + partition, 0, metaData.getMissedSequenceCount());
+        }
+    }
+
+    private void assertNearCacheSizeEventually(int nearCacheSize) {
+        assertTrueEventually(() -> assertEquals(nearCacheSize,
+                ((NearCachedClientMapProxy) clientMap).getNearCache().size()));
+    }
+}
@@ -18,6 +18,7 @@ package com.hazelcast.client.map.impl.querycache;
 
 import com.hazelcast.client.config.ClientConfig;
 import com.hazelcast.client.test.TestHazelcastFactory;
+import com.hazelcast.config.Config;
 import com.hazelcast.config.QueryCacheConfig;
 import com.hazelcast.core.EntryAdapter;
 import com.hazelcast.core.EntryEvent;
@@ -28,6 +29,7 @@ import com.hazelcast.map.QueryCache;
 import com.hazelcast.map.listener.EntryAddedListener;
 import com.hazelcast.query.Predicate;
 import com.hazelcast.query.Predicates;
+import com.hazelcast.spi.properties.ClusterProperty;
 import com.hazelcast.test.AssertTask;
 import com.hazelcast.test.HazelcastParallelClassRunner;
 import com.hazelcast.test.HazelcastTestSupport;
@@ -101,6 +103,32 @@ public class ClientQueryCacheTest extends HazelcastTestSupport {
         testWithInitialPopulation(enableInitialPopulation, expectedSizeOfQueryCache, numberOfElementsToBePutToIMap);
     }
 
+    @Test
+    public void testQueryCache_withEventBatching() {
+        TestHazelcastFactory batchingFactory = new TestHazelcastFactory();
+        try {
+            Config config = new Config()
+                    .setProperty(ClusterProperty.QUERY_CACHE_EVENT_BATCHING_DELAY_MILLIS.getName(), "10");
+            batchingFactory.newHazelcastInstance(config);
+            batchingFactory.newHazelcastInstance(config);
+            HazelcastInstance client = batchingFactory.newHazelcastClient();
+            IMap<Integer, Integer> map = client.getMap(randomString());
+            QueryCache<Integer, Integer> cache = map.getQueryCache(randomString(), TRUE_PREDICATE, true);
+
+            for (int i = 0; i < 1000; i++) {
+                map.put(i, i);
+            }
+            for (int i = 0; i < 500; i++) {
+                map.remove(i);
+            }
+
+            assertQueryCacheSize(500, cache);
+            assertTrueEventually(() -> assertEquals(map.keySet(), cache.keySet()));
+        } finally {
+            batchingFactory.shutdownAll();
+        }
+    }
+
     @Test
     public void testQueryCache_withLocalListener() {
         String mapName = randomString();
@@ -6723,6 +6723,66 @@ public class ClientCompatibilityTest_2_2 {
         assertTrue(isEqual(aBoolean, CPSubsystemRemoveGroupAvailabilityListenerCodec.decodeResponse(fromFile)));
     }
 
+    @Test
+    public void test_CounterMapGetCodec_encodeRequest() {
+        int fileClientMessageIndex = 853;
+        ClientMessage encoded = CounterMapGetCodec.encodeRequest(aString, aData);
+        ClientMessage fromFile = clientMessages.get(fileClientMessageIndex);
+        compareClientMessages(fromFile, encoded);
+    }
+
+    @Test
+    public void test_CounterMapGetCodec_decodeResponse() {
+        int fileClientMessageIndex = 854;
+        ClientMessage fromFile = clientMessages.get(fileClientMessageIndex);
+        assertTrue(isEqual(aLong, CounterMapGetCodec.decodeResponse(fromFile)));
+    }
+
+    @Test
+    public void test_CounterMapAddAndGetCodec_encodeRequest() {
+        int fileClientMessageIndex = 855;
+        ClientMessage encoded = CounterMapAddAndGetCodec.encodeRequest(aString, aData, aLong);
+        ClientMessage fromFile = clientMessages.get(fileClientMessageIndex);
+        compareClientMessages(fromFile, encoded);
+    }
+
+    @Test
+    public void test_CounterMapAddAndGetCodec_decodeResponse() {
+        int fileClientMessageIndex = 856;
+        ClientMessage fromFile = clientMessages.get(fileClientMessageIndex);
+        assertTrue(isEqual(aLong, CounterMapAddAndGetCodec.decodeResponse(fromFile)));
+    }
+
+    @Test
+    public void test_CounterMapAddAndGetAllCodec_encodeRequest() {
+        int fileClientMessageIndex = 857;
+        ClientMessage encoded = CounterMapAddAndGetAllCodec.encodeRequest(aString, aListOfData, aLongArray);
+        ClientMessage fromFile = clientMessages.get(fileClientMessageIndex);
+        compareClientMessages(fromFile, encoded);
+    }
+
+    @Test
+    public void test_CounterMapAddAndGetAllCodec_decodeResponse() {
+        int fileClientMessageIndex = 858;
+        ClientMessage fromFile = clientMessages.get(fileClientMessageIndex);
+        assertTrue(isEqual(aLongArray, CounterMapAddAndGetAllCodec.decodeResponse(fromFile)));
+    }
+
+    @Test
+    public void test_CounterMapRemoveCodec_encodeRequest() {
+        int fileClientMessageIndex = 859;
+        ClientMessage encoded = CounterMapRemoveCodec.encodeRequest(aString, aData);
+        ClientMessage fromFile = clientMessages.get(fileClientMessageIndex);
+        compareClientMessages(fromFile, encoded);
+    }
+
+    @Test
+    public void test_CounterMapRemoveCodec_decodeResponse() {
+        int fileClientMessageIndex = 860;
+        ClientMessage fromFile = clientMessages.get(fileClientMessageIndex);
+        assertTrue(isEqual(aLong, CounterMapRemoveCodec.decodeResponse(fromFile)));
+    }
+
     private void compareClientMessages(ClientMessage binaryMessage, ClientMessage encodedMessage) {
         ClientMessage.Frame binaryFrame, encodedFrame;
 
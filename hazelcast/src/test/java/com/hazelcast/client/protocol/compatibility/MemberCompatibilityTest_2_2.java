@@ -7563,6 +7563,76 @@ public class MemberCompatibilityTest_2_2 {
         compareClientMessages(fromFile, encoded);
     }
 
+    @Test
+    public void test_CounterMapGetCodec_decodeRequest() {
+        int fileClientMessageIndex = 853;
+        ClientMessage fromFile = clientMessages.get(fileClientMessageIndex);
+        CounterMapGetCodec.RequestParameters parameters = CounterMapGetCodec.decodeRequest(fromFile);
+        assertTrue(isEqual(aString, parameters.name));
+        assertTrue(isEqual(aData, parameters.key));
+    }
+
+    @Test
+    public void test_CounterMapGetCodec_encodeResponse() {
+        int fileClientMessageIndex = 854;
+        ClientMessage encoded = CounterMapGetCodec.encodeResponse(aLong);
+        ClientMessage fromFile = clientMessages.get(fileClientMessageIndex);
+        compareClientMessages(fromFile, encoded);
+    }
+
+    @Test
+    public void test_CounterMapAddAndGetCodec_decodeRequest() {
+        int fileClientMessageIndex = 855;
+        ClientMessage fromFile = clientMessages.get(fileClientMessageIndex);
+        CounterMapAddAndGetCodec.RequestParameters parameters = CounterMapAddAndGetCodec.decodeRequest(fromFile);
+        assertTrue(isEqual(aString, parameters.name));
+        assertTrue(isEqual(aData, parameters.key));
+        assertTrue(isEqual(aLong, parameters.delta));
+    }
+
+    @Test
+    public void test_CounterMapAddAndGetCodec_encodeResponse() {
+        int fileClientMessageIndex = 856;
+        ClientMessage encoded = CounterMapAddAndGetCodec.encodeResponse(aLong);
+        ClientMessage fromFile = clientMessages.get(fileClientMessageIndex);
+        compareClientMessages(fromFile, encoded);
+    }
+
+    @Test
+    public void test_CounterMapAddAndGetAllCodec_decodeRequest() {
+        int fileClientMessageIndex = 857;
+        ClientMessage fromFile = clientMessages.get(fileClientMessageIndex);
+        CounterMapAddAndGetAllCodec.RequestParameters parameters = CounterMapAddAndGetAllCodec.decodeRequest(fromFile);
+        assertTrue(isEqual(aString, parameters.name));
+        assertTrue(isEqual(aListOfData, parameters.keys));
+        assertTrue(isEqual(aLongArray, parameters.deltas));
+    }
+
+    @Test
+    public void test_CounterMapAddAndGetAllCodec_encodeResponse() {
+        int fileClientMessageIndex = 858;
+        ClientMessage encoded = CounterMapAddAndGetAllCodec.encodeResponse(aLongArray);
+        ClientMessage fromFile = clientMessages.get(fileClientMessageIndex);
+        compareClientMessages(fromFile, encoded);
+    }
+
+    @Test
+    public void test_CounterMapRemoveCodec_decodeRequest() {
+        int fileClientMessageIndex = 859;
+        ClientMessage fromFile = clientMessages.get(fileClientMessageIndex);
+        CounterMapRemoveCodec.RequestParameters parameters = CounterMapRemoveCodec.decodeRequest(fromFile);
+        assertTrue(isEqual(aString, parameters.name));
+        assertTrue(isEqual(aData, parameters.key));
+    }
+
+    @Test
+    public void test_CounterMapRemoveCodec_encodeResponse() {
+        int fileClientMessageIndex = 860;
+        ClientMessage encoded = CounterMapRemoveCodec.encodeResponse(aLong);
+        ClientMessage fromFile = clientMessages.get(fileClientMessageIndex);
+        compareClientMessages(fromFile, encoded);
+    }
+
     private void compareClientMessages(ClientMessage binaryMessage, ClientMessage encodedMessage) {
         ClientMessage.Frame binaryFrame, encodedFrame;
 
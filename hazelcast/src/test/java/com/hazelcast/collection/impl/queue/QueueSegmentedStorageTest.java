@@ -0,0 +1,235 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.collection.impl.queue;
+
+import com.hazelcast.collection.IQueue;
+import com.hazelcast.config.Config;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.internal.monitor.impl.LocalQueueStatsImpl;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.TestHazelcastInstanceFactory;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import com.hazelcast.transaction.TransactionContext;
+import com.hazelcast.transaction.TransactionalQueue;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+import static com.hazelcast.spi.properties.ClusterProperty.QUEUE_SEGMENTED_STORAGE_ENABLED;
+import static com.hazelcast.spi.properties.ClusterProperty.QUEUE_SEGMENT_SIZE;
+import static com.hazelcast.spi.properties.ClusterProperty.QUEUE_SPILL_DIRECTORY;
+import static com.hazelcast.spi.properties.ClusterProperty.QUEUE_SPILL_MEMORY_LIMIT_MB;
+import static com.hazelcast.test.Accessors.getNodeEngineImpl;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class QueueSegmentedStorageTest extends HazelcastTestSupport {
+
+    private static final int ITEM_COUNT = 1000;
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private TestHazelcastInstanceFactory factory;
+    private Config config;
+    private File spillDirectory;
+
+    @Before
+    public void setUp() throws IOException {
+        factory = createHazelcastInstanceFactory(2);
+        spillDirectory = tempFolder.newFolder();
+        config = smallInstanceConfig()
+                .setProperty(QUEUE_SEGMENTED_STORAGE_ENABLED.getName(), "true")
+                .setProperty(QUEUE_SEGMENT_SIZE.getName(), "16")
+                .setProperty(QUEUE_SPILL_MEMORY_LIMIT_MB.getName(), "0")
+                .setProperty(QUEUE_SPILL_DIRECTORY.getName(), spillDirectory.getAbsolutePath());
+    }
+
+    @Test
+    public void testOfferPoll() {
+        HazelcastInstance instance = factory.newHazelcastInstance(config);
+        IQueue<Integer> queue = instance.getQueue(randomName());
+
+        offer(queue, 0, ITEM_COUNT);
+
+        assertEquals(ITEM_COUNT, queue.size());
+        assertEquals(0, (int) queue.peek());
+        assertPolled(queue, 0, ITEM_COUNT);
+        assertNull(queue.poll());
+    }
+
+    @Test
+    public void testSpilledStats() {
+        HazelcastInstance instance = factory.newHazelcastInstance(config);
+        String name = randomName();
+        IQueue<Integer> queue = instance.getQueue(name);
+        offer(queue, 0, ITEM_COUNT);
+
+        QueueService service = getNodeEngineImpl(instance).getService(QueueService.SERVICE_NAME);
+        LocalQueueStatsImpl stats = (LocalQueueStatsImpl) service.createLocalQueueStats(name, getPartitionId(instance, name));
+
+        assertEquals(ITEM_COUNT, stats.getOwnedItemCount());
+        assertTrue(stats.getSpilledItemCount() > 0);
+        assertTrue(stats.getSpilledBytes() > 0);
+    }
+
+    @Test
+    public void testDestroy_deletesSpillFile() {
+        HazelcastInstance instance = factory.newHazelcastInstance(config);
+        IQueue<Integer> queue = instance.getQueue(randomName());
+        offer(queue, 0, ITEM_COUNT);
+        assertEquals(1, spillDirectory.listFiles().length);
+
+        queue.destroy();
+
+        assertEquals(0, spillDirectory.listFiles().length);
+    }
+
+    @Test
+    public void testContainerCollectorDestroy_deletesSpillFile() {
+        HazelcastInstance instance = factory.newHazelcastInstance(config);
+        String name = randomName();
+        IQueue<Integer> queue = instance.getQueue(name);
+        offer(queue, 0, ITEM_COUNT);
+        QueueService service = getNodeEngineImpl(instance).getService(QueueService.SERVICE_NAME);
+        QueueContainer container = service.getExistingContainerOrNull(name);
+        QueueContainerCollector collector = new QueueContainerCollector(getNodeEngineImpl(instance),
+                new ConcurrentHashMap<>());
+
+        collector.destroy(container);
+
+        assertEquals(0, spillDirectory.listFiles().length);
+    }
+
+    @Test
+    public void testReset_deletesSpillFile() {
+        HazelcastInstance instance = factory.newHazelcastInstance(config);
+        IQueue<Integer> queue = instance.getQueue(randomName());
+        offer(queue, 0, ITEM_COUNT);
+        QueueService service = getNodeEngineImpl(instance).getService(QueueService.SERVICE_NAME);
+
+        service.reset();
+
+        assertEquals(0, spillDirectory.listFiles().length);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNonPositiveSegmentSize() {
+        config.setProperty(QUEUE_SEGMENT_SIZE.getName(), "0");
+        HazelcastInstance instance = factory.newHazelcastInstance(config);
+        QueueService service = getNodeEngineImpl(instance).getService(QueueService.SERVICE_NAME);
+
+        service.getOrCreateContainer(randomName(), false);
+    }
+
+    @Test
+    public void testIteratorAndContains() {
+        HazelcastInstance instance = factory.newHazelcastInstance(config);
+        IQueue<Integer> queue = instance.getQueue(randomName());
+        offer(queue, 0, ITEM_COUNT);
+
+        int expected = 0;
+        for (Integer item : queue) {
+            assertEquals(expected++, (int) item);
+        }
+        assertEquals(ITEM_COUNT, expected);
+        assertTrue(queue.contains(ITEM_COUNT - 1));
+        assertTrue(queue.remove(ITEM_COUNT / 2));
+        assertEquals(ITEM_COUNT - 1, queue.size());
+    }
+
+    @Test
+    public void testAddAllAndDrainTo() {
+        HazelcastInstance instance = factory.newHazelcastInstance(config);
+        IQueue<Integer> queue = instance.getQueue(randomName());
+        List<Integer> items = new ArrayList<>();
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            items.add(i);
+        }
+        queue.addAll(items);
+
+        List<Integer> drained = new ArrayList<>();
+        assertEquals(ITEM_COUNT / 2, queue.drainTo(drained, ITEM_COUNT / 2));
+        assertEquals(items.subList(0, ITEM_COUNT / 2), drained);
+
+        drained.clear();
+        assertEquals(ITEM_COUNT / 2, queue.drainTo(drained));
+        assertEquals(items.subList(ITEM_COUNT / 2, ITEM_COUNT), drained);
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    public void testTransactionalPoll_rollback() {
+        HazelcastInstance instance = factory.newHazelcastInstance(config);
+        String name = randomName();
+        IQueue<Integer> queue = instance.getQueue(name);
+        offer(queue, 0, ITEM_COUNT);
+
+        TransactionContext context = instance.newTransactionContext();
+        context.beginTransaction();
+        TransactionalQueue<Integer> txQueue = context.getQueue(name);
+        for (int i = 0; i < 10; i++) {
+            assertEquals(i, (int) txQueue.poll());
+        }
+        context.rollbackTransaction();
+
+        assertEquals(ITEM_COUNT, queue.size());
+        assertPolled(queue, 0, ITEM_COUNT);
+    }
+
+    @Test
+    public void testMemberLeft_itemsRecoveredFromBackup() {
+        HazelcastInstance instance1 = factory.newHazelcastInstance(config);
+        HazelcastInstance instance2 = factory.newHazelcastInstance(config);
+        String name = randomNameOwnedBy(instance2);
+        IQueue<Integer> queue = instance1.getQueue(name);
+        offer(queue, 0, ITEM_COUNT);
+        waitAllForSafeState(instance1, instance2);
+
+        instance2.shutdown();
+
+        assertEquals(ITEM_COUNT, queue.size());
+        assertPolled(queue, 0, ITEM_COUNT);
+    }
+
+    private static void offer(IQueue<Integer> queue, int from, int to) {
+        for (int i = from; i < to; i++) {
+            assertTrue(queue.offer(i));
+        }
+    }
+
+    private static void assertPolled(IQueue<Integer> queue, int from, int to) {
+        for (int i = from; i < to; i++) {
+            assertEquals(i, (int) queue.poll());
+        }
+    }
+}
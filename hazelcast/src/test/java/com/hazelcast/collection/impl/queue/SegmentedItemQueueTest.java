@@ -0,0 +1,318 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.collection.impl.queue;
+
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class SegmentedItemQueueTest {
+
+    private static final int SEGMENT_SIZE = 4;
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private InternalSerializationService serializationService;
+    private QueueContainer container;
+    private File spillDirectory;
+    private SegmentedItemQueue queue;
+
+    @Before
+    public void setUp() throws IOException {
+        serializationService = new DefaultSerializationServiceBuilder().build();
+        container = mock(QueueContainer.class);
+        when(container.getName()).thenReturn("queue");
+        spillDirectory = tempFolder.newFolder();
+        queue = new SegmentedItemQueue(container, SEGMENT_SIZE, 0, spillDirectory);
+    }
+
+    @After
+    public void tearDown() {
+        queue.destroy();
+        serializationService.dispose();
+    }
+
+    @Test
+    public void testOfferPoll_keepsFifoOrder() {
+        offer(0, 20);
+
+        assertEquals(20, queue.size());
+        assertPolled(0, 20);
+        assertNull(queue.poll());
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    public void testOffer_spillsFullSegments() {
+        offer(0, 20);
+
+        assertTrue(queue.getSpilledItemCount() > 0);
+        assertTrue(queue.getSpilledBytes() > 0);
+        assertEquals(5, queue.getSegmentCount());
+        assertEquals(1, spillDirectory.listFiles().length);
+    }
+
+    @Test
+    public void testPoll_releasesSpilledSegments() {
+        offer(0, 20);
+
+        assertPolled(0, 20);
+
+        assertEquals(0, queue.getSpilledItemCount());
+        assertEquals(0, queue.getSpilledBytes());
+        assertEquals(0, queue.getInMemoryBytes());
+    }
+
+    @Test
+    public void testSpilledItems_keepIdDataAndCreationTime() {
+        QueueItem first = new QueueItem(container, 0, null, 42);
+        queue.offer(first);
+        for (int i = 1; i < 20; i++) {
+            queue.offer(new QueueItem(container, i, serializationService.toData("item-" + i), 100 + i));
+        }
+
+        queue.poll();
+        for (int i = 1; i < 20; i++) {
+            QueueItem item = queue.poll();
+            assertEquals(i, item.getItemId());
+            assertEquals(100 + i, item.getCreationTime());
+            assertEquals("item-" + i, serializationService.toObject(item.getSerializedObject()));
+        }
+    }
+
+    @Test
+    public void testPeek() {
+        offer(0, 20);
+
+        assertEquals(0, queue.peek().getItemId());
+        assertEquals(19, queue.peekLast().getItemId());
+        queue.drain(SEGMENT_SIZE * 2, item -> { });
+        assertEquals(SEGMENT_SIZE * 2, queue.peek().getItemId());
+    }
+
+    @Test
+    public void testOfferFirst() {
+        offer(10, 20);
+        for (int i = 9; i >= 0; i--) {
+            queue.offerFirst(item(i));
+        }
+
+        assertPolled(0, 20);
+    }
+
+    @Test
+    public void testOfferOrdered() {
+        for (int i = 0; i < 20; i += 2) {
+            queue.offer(item(i));
+        }
+        for (int i = 1; i < 20; i += 2) {
+            queue.offerOrdered(item(i));
+        }
+
+        assertEquals(20, queue.size());
+        assertPolled(0, 20);
+    }
+
+    @Test
+    public void testOfferOrdered_whenGreatestId_thenAppended() {
+        offer(0, 10);
+        queue.offerOrdered(item(10));
+
+        assertEquals(10, queue.peekLast().getItemId());
+        assertPolled(0, 11);
+    }
+
+    @Test
+    public void testAddAll() {
+        offer(0, 3);
+        List<QueueItem> items = new ArrayList<>();
+        for (int i = 3; i < 20; i++) {
+            items.add(item(i));
+        }
+        queue.addAll(items);
+
+        assertEquals(20, queue.size());
+        assertPolled(0, 20);
+    }
+
+    @Test
+    public void testDrain() {
+        offer(0, 20);
+        List<Long> drained = new ArrayList<>();
+
+        assertEquals(7, queue.drain(7, item -> drained.add(item.getItemId())));
+        assertEquals(asList(0L, 1L, 2L, 3L, 4L, 5L, 6L), drained);
+        assertEquals(13, queue.size());
+        assertPolled(7, 20);
+    }
+
+    @Test
+    public void testDrain_all() {
+        offer(0, 20);
+        List<Long> drained = new ArrayList<>();
+
+        assertEquals(20, queue.drain(Integer.MAX_VALUE, item -> drained.add(item.getItemId())));
+
+        assertEquals(20, drained.size());
+        for (int i = 0; i < 20; i++) {
+            assertEquals(i, (long) drained.get(i));
+        }
+        assertEquals(0, queue.size());
+        assertEquals(0, queue.getSpilledItemCount());
+        assertEquals(0, queue.getInMemoryBytes());
+    }
+
+    @Test
+    public void testIterator_readsSpilledSegments() {
+        offer(0, 20);
+        int spilledItemCount = queue.getSpilledItemCount();
+
+        long expected = 0;
+        for (QueueItem item : queue) {
+            assertEquals(expected++, item.getItemId());
+        }
+        assertEquals(20, expected);
+        assertEquals(spilledItemCount, queue.getSpilledItemCount());
+    }
+
+    @Test
+    public void testIteratorRemove() {
+        offer(0, 20);
+
+        Iterator<QueueItem> iterator = queue.iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().getItemId() % 2 == 1) {
+                iterator.remove();
+            }
+        }
+
+        assertEquals(10, queue.size());
+        for (int i = 0; i < 20; i += 2) {
+            assertEquals(i, queue.poll().getItemId());
+        }
+        assertNull(queue.poll());
+    }
+
+    @Test
+    public void testClear() {
+        offer(0, 20);
+
+        queue.clear();
+
+        assertEquals(0, queue.size());
+        assertEquals(0, queue.getSegmentCount());
+        assertEquals(0, queue.getSpilledBytes());
+        assertEquals(0, queue.getSpilledItemCount());
+        assertNull(queue.poll());
+        offer(0, 5);
+        assertPolled(0, 5);
+    }
+
+    @Test
+    public void testDestroy_deletesSpillFile() {
+        offer(0, 20);
+
+        queue.destroy();
+
+        assertEquals(0, spillDirectory.listFiles().length);
+    }
+
+    @Test
+    public void testClear_deletesSpillFile() {
+        offer(0, 20);
+
+        queue.clear();
+
+        assertEquals(0, spillDirectory.listFiles().length);
+    }
+
+    @Test
+    public void testSpillFile_whenBacklogNeverDrains_thenReleasedRegionsAreReused() {
+        offer(0, 20);
+        long initialFileSize = spillFileSize();
+
+        // keeps the backlog constant, so there is always a spilled segment left
+        for (int i = 20; i < 2000; i += SEGMENT_SIZE) {
+            assertPolled(i - 20, i - 20 + SEGMENT_SIZE);
+            offer(i, i + SEGMENT_SIZE);
+        }
+
+        assertTrue(queue.getSpilledItemCount() > 0);
+        assertTrue("spill file grew from " + initialFileSize + " to " + spillFileSize(),
+                spillFileSize() <= 2 * initialFileSize);
+        assertPolled(1980, 2000);
+    }
+
+    @Test
+    public void testWithoutSpillDirectory_keepsItemsInMemory() {
+        queue = new SegmentedItemQueue(container, SEGMENT_SIZE, 0, null);
+        offer(0, 20);
+
+        assertEquals(0, queue.getSpilledItemCount());
+        assertTrue(queue.getInMemoryBytes() > 0);
+        assertPolled(0, 20);
+    }
+
+    private void offer(int from, int to) {
+        for (int i = from; i < to; i++) {
+            queue.offer(item(i));
+        }
+    }
+
+    private long spillFileSize() {
+        File[] files = spillDirectory.listFiles();
+        assertEquals(1, files.length);
+        return files[0].length();
+    }
+
+    private QueueItem item(long itemId) {
+        return new QueueItem(container, itemId, serializationService.toData("item-" + itemId));
+    }
+
+    private void assertPolled(int from, int to) {
+        for (int i = from; i < to; i++) {
+            QueueItem item = queue.poll();
+            assertEquals(i, item.getItemId());
+            assertEquals("item-" + i, serializationService.toObject(item.getSerializedObject()));
+        }
+    }
+}
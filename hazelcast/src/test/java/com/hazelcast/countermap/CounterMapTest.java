@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.countermap;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.countermap.impl.CounterMapService;
+import com.hazelcast.internal.partition.PartitionReplicationEvent;
+import com.hazelcast.spi.impl.NodeEngineImpl;
+import com.hazelcast.spi.impl.operationservice.Operation;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.TestHazelcastInstanceFactory;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.hazelcast.test.Accessors.getNodeEngineImpl;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class CounterMapTest extends HazelcastTestSupport {
+
+    private static final int KEY_COUNT = 1000;
+
+    private TestHazelcastInstanceFactory factory;
+    private HazelcastInstance instance1;
+    private HazelcastInstance instance2;
+    private String name;
+
+    @Before
+    public void setup() {
+        factory = createHazelcastInstanceFactory(3);
+        instance1 = factory.newHazelcastInstance();
+        instance2 = factory.newHazelcastInstance();
+        name = randomName();
+    }
+
+    @Test
+    public void testGet_whenNeverUpdated() {
+        CounterMap<String> counters = instance1.getCounterMap(name);
+
+        assertEquals(0, counters.get("key"));
+    }
+
+    @Test
+    public void testAddAndGet() {
+        CounterMap<String> counters = instance1.getCounterMap(name);
+
+        assertEquals(5, counters.addAndGet("key", 5));
+        assertEquals(3, counters.addAndGet("key", -2));
+        assertEquals(3, counters.get("key"));
+        assertEquals(3, instance2.<String>getCounterMap(name).get("key"));
+    }
+
+    @Test
+    public void testAddAndGetAsync() throws Exception {
+        CounterMap<String> counters = instance1.getCounterMap(name);
+
+        assertEquals(5, counters.addAndGetAsync("key", 5).toCompletableFuture().get().longValue());
+        assertEquals(5, counters.get("key"));
+    }
+
+    @Test
+    public void testAddAndGet_backToZero() {
+        CounterMap<String> counters = instance1.getCounterMap(name);
+
+        counters.addAndGet("key", 5);
+        assertEquals(0, counters.addAndGet("key", -5));
+        assertEquals(0, counters.get("key"));
+        assertEquals(-1, counters.addAndGet("key", -1));
+    }
+
+    @Test
+    public void testAddAndGetAll() {
+        CounterMap<Integer> counters = instance1.getCounterMap(name);
+
+        assertEquals(deltas(1), counters.addAndGetAll(deltas(1)));
+        assertEquals(deltas(3), counters.addAndGetAll(deltas(2)));
+        for (int i = 0; i < KEY_COUNT; i++) {
+            assertEquals(3L * i, counters.get(i));
+        }
+    }
+
+    @Test
+    public void testAddAndGetAll_whenEmpty() {
+        CounterMap<Integer> counters = instance1.getCounterMap(name);
+
+        assertEquals(new HashMap<Integer, Long>(), counters.addAndGetAll(new HashMap<>()));
+    }
+
+    @Test
+    public void testRemove() {
+        CounterMap<String> counters = instance1.getCounterMap(name);
+        counters.addAndGet("key", 5);
+
+        assertEquals(5, counters.remove("key"));
+        assertEquals(0, counters.get("key"));
+        assertEquals(0, counters.remove("key"));
+    }
+
+    @Test
+    public void testCounterMapsAreIndependent() {
+        CounterMap<String> counters = instance1.getCounterMap(name);
+        CounterMap<String> otherCounters = instance1.getCounterMap(randomName());
+
+        counters.addAndGet("key", 5);
+
+        assertEquals(0, otherCounters.get("key"));
+    }
+
+    @Test
+    public void testDestroy() {
+        CounterMap<String> counters = instance1.getCounterMap(name);
+        counters.addAndGet("key", 5);
+
+        counters.destroy();
+
+        assertEquals(0, instance1.<String>getCounterMap(name).get("key"));
+    }
+
+    @Test
+    public void testCounters_whenMemberTerminated() {
+        instance1.<Integer>getCounterMap(name).addAndGetAll(deltas(1));
+
+        instance2.getLifecycleService().terminate();
+
+        assertCounters(instance1.getCounterMap(name), 1);
+    }
+
+    @Test
+    public void testCounters_afterMigration() {
+        instance1.<Integer>getCounterMap(name).addAndGetAll(deltas(1));
+
+        HazelcastInstance instance3 = factory.newHazelcastInstance();
+        waitAllForSafeState(instance1, instance2, instance3);
+        instance1.shutdown();
+        waitAllForSafeState(instance2, instance3);
+        instance2.shutdown();
+
+        assertCounters(instance3.getCounterMap(name), 1);
+    }
+
+    @Test
+    public void testReplication_dropsCountersMissingFromReplicationData() throws Exception {
+        CounterMap<String> counters = instance1.getCounterMap(name);
+        counters.addAndGet("key", 5);
+
+        NodeEngineImpl nodeEngine = getNodeEngineImpl(instance1);
+        CounterMapService service = nodeEngine.getService(CounterMapService.SERVICE_NAME);
+        int partitionId = nodeEngine.getPartitionService().getPartitionId("key");
+        int emptyPartitionId = (partitionId + 1) % nodeEngine.getPartitionService().getPartitionCount();
+
+        // replicate the empty partition over the partition of the key
+        Operation operation = service.prepareReplicationOperation(new PartitionReplicationEvent(emptyPartitionId, 1));
+        assertNotNull(operation);
+        nodeEngine.getOperationService().invokeOnPartition(CounterMapService.SERVICE_NAME, operation, partitionId).get();
+
+        assertEquals(0, counters.get("key"));
+    }
+
+    private static Map<Integer, Long> deltas(long multiplier) {
+        Map<Integer, Long> deltas = new HashMap<>();
+        for (int i = 0; i < KEY_COUNT; i++) {
+            deltas.put(i, multiplier * i);
+        }
+        return deltas;
+    }
+
+    private static void assertCounters(CounterMap<Integer> counters, long multiplier) {
+        for (int i = 0; i < KEY_COUNT; i++) {
+            assertEquals(multiplier * i, counters.get(i));
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.countermap.impl;
+
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class CounterMapContainerTest {
+
+    private final InternalSerializationService serializationService = new DefaultSerializationServiceBuilder().build();
+    private final CounterMapContainer container = new CounterMapContainer();
+
+    @Test
+    public void testAddAndGet() {
+        assertEquals(5, container.addAndGet(key(1), 5));
+        assertEquals(-2, container.addAndGet(key(1), -7));
+        assertEquals(-2, container.get(key(1)));
+        assertEquals(0, container.get(key(2)));
+    }
+
+    @Test
+    public void testAddAndGet_whenBackToZero_thenCounterIsNotStored() {
+        container.addAndGet(key(1), 5);
+        container.addAndGet(key(2), 5);
+
+        container.addAndGet(key(1), -5);
+
+        assertEquals(1, container.size());
+        assertEquals(0, container.get(key(1)));
+    }
+
+    @Test
+    public void testSet() {
+        container.set(key(1), 5);
+        container.set(key(2), 5);
+        container.set(key(2), 0);
+
+        assertEquals(5, container.get(key(1)));
+        assertEquals(1, container.size());
+    }
+
+    @Test
+    public void testRemove() {
+        container.addAndGet(key(1), 5);
+
+        assertEquals(5, container.remove(key(1)));
+        assertEquals(0, container.remove(key(1)));
+        assertEquals(0, container.size());
+    }
+
+    @Test
+    public void testCopy_isIndependent() {
+        container.addAndGet(key(1), 5);
+
+        CounterMapContainer copy = container.copy();
+        container.addAndGet(key(1), 5);
+
+        assertEquals(5, copy.get(key(1)));
+        assertEquals(10, container.get(key(1)));
+    }
+
+    @Test
+    public void testSerialization() {
+        for (int i = 0; i < 1000; i++) {
+            container.addAndGet(key(i), i + 1);
+        }
+
+        CounterMapContainer deserialized = serializationService.toObject(serializationService.toData(container));
+
+        assertEquals(container.size(), deserialized.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i + 1, deserialized.get(key(i)));
+        }
+    }
+
+    private Data key(int key) {
+        return serializationService.toData(key);
+    }
+}
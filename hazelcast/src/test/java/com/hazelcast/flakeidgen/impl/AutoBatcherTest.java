@@ -24,10 +24,15 @@ import org.junit.experimental.categories.Category;
 import org.junit.runner.RunWith;
 
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.hazelcast.flakeidgen.impl.FlakeIdConcurrencyTestUtil.IDS_IN_THREAD;
 import static com.hazelcast.flakeidgen.impl.FlakeIdConcurrencyTestUtil.NUM_THREADS;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 @RunWith(HazelcastParallelClassRunner.class)
@@ -72,4 +77,100 @@ public class AutoBatcherTest {
             assertTrue("Missing ID: " + i, ids.contains((long) i));
         }
     }
+
+    @Test
+    public void when_prefetchThresholdReached_then_nextBatchFetchedBeforeSpent() {
+        AutoBatcher batcher = new AutoBatcher(10, VALIDITY, 3, new SequentialIdBatchSupplier(), Runnable::run, null);
+
+        for (int i = 0; i < 7; i++) {
+            assertEquals(i, batcher.newId());
+        }
+        assertEquals(0, batcher.getPrefetchCount());
+        assertEquals(7, batcher.newId());
+        assertEquals(1, batcher.getPrefetchCount());
+
+        for (int i = 8; i < 30; i++) {
+            assertEquals(i, batcher.newId());
+        }
+        assertEquals(3, batcher.getPrefetchCount());
+        // only the first batch was fetched when an ID was needed
+        assertEquals(1, batcher.getBlockingFetchCount());
+    }
+
+    @Test
+    public void when_prefetchFails_then_fetchedWhenSpent() {
+        SequentialIdBatchSupplier supplier = new SequentialIdBatchSupplier() {
+            @Override
+            public CompletableFuture<IdBatch> newIdBatchAsync(int batchSize, Executor executor) {
+                CompletableFuture<IdBatch> future = new CompletableFuture<>();
+                future.completeExceptionally(new RuntimeException("expected"));
+                return future;
+            }
+        };
+        AutoBatcher batcher = new AutoBatcher(3, VALIDITY, 1, supplier, Runnable::run, null);
+
+        for (int i = 0; i < 6; i++) {
+            assertEquals(i, batcher.newId());
+        }
+        assertEquals(2, batcher.getPrefetchCount());
+        assertEquals(2, batcher.getBlockingFetchCount());
+    }
+
+    @Test
+    public void when_prefetching_then_listenerNotified() {
+        AtomicInteger prefetches = new AtomicInteger();
+        AtomicInteger blockingFetches = new AtomicInteger();
+        AutoBatcher batcher = new AutoBatcher(3, VALIDITY, 1, new SequentialIdBatchSupplier(), Runnable::run,
+                new AutoBatcher.FetchListener() {
+                    @Override
+                    public void onPrefetch() {
+                        prefetches.incrementAndGet();
+                    }
+
+                    @Override
+                    public void onBlockingFetch(long waitNanos) {
+                        assertFalse(waitNanos < 0);
+                        blockingFetches.incrementAndGet();
+                    }
+                });
+
+        for (int i = 0; i < 9; i++) {
+            batcher.newId();
+        }
+        assertEquals(3, prefetches.get());
+        assertEquals(1, blockingFetches.get());
+        assertEquals(1, batcher.getBlockingFetchCount());
+    }
+
+    @Test
+    public void concurrencySmokeTest_withPrefetch() throws Exception {
+        AutoBatcher batcher = new AutoBatcher(3, VALIDITY, 1, new SequentialIdBatchSupplier(),
+                ForkJoinPool.commonPool(), null);
+        // checks that the IDs are unique, a batch prefetched concurrently with a blocking fetch
+        // can be left unused, so the IDs are not necessarily contiguous
+        FlakeIdConcurrencyTestUtil.concurrentlyGenerateIds(() -> batcher.newId());
+        assertTrue(batcher.getPrefetchCount() > 0);
+    }
+
+    @Test
+    public void test_prefetchThreshold() {
+        assertEquals(0, AutoBatcher.prefetchThreshold(100, 0));
+        assertEquals(25, AutoBatcher.prefetchThreshold(100, 25));
+        assertEquals(1, AutoBatcher.prefetchThreshold(3, 10));
+        assertEquals(3, AutoBatcher.prefetchThreshold(3, 100));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_prefetchThreshold_outOfRange() {
+        AutoBatcher.prefetchThreshold(100, 101);
+    }
+
+    private static class SequentialIdBatchSupplier implements AutoBatcher.IdBatchSupplier {
+        private final AtomicInteger base = new AtomicInteger();
+
+        @Override
+        public IdBatch newIdBatch(int batchSize) {
+            return new IdBatch(base.getAndAdd(batchSize), 1, batchSize);
+        }
+    }
 }
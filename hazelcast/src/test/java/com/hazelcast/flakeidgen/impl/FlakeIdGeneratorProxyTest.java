@@ -26,6 +26,7 @@ import com.hazelcast.internal.cluster.ClusterService;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.logging.Logger;
 import com.hazelcast.spi.impl.NodeEngine;
+import com.hazelcast.spi.properties.HazelcastProperties;
 import com.hazelcast.test.HazelcastSerialClassRunner;
 import com.hazelcast.test.annotation.ParallelJVMTest;
 import com.hazelcast.test.annotation.QuickTest;
@@ -87,7 +88,9 @@ public class FlakeIdGeneratorProxyTest {
         when(nodeEngine.getLogger(FlakeIdGeneratorProxy.class)).thenReturn(logger);
         when(nodeEngine.isRunning()).thenReturn(true);
         config.setName("foo");
-        when(nodeEngine.getConfig()).thenReturn(new Config().addFlakeIdGeneratorConfig(config));
+        Config hzConfig = new Config().addFlakeIdGeneratorConfig(config);
+        when(nodeEngine.getConfig()).thenReturn(hzConfig);
+        when(nodeEngine.getProperties()).thenReturn(new HazelcastProperties(hzConfig));
         when(nodeEngine.getClusterService()).thenReturn(clusterService);
         Address address = null;
         try {
@@ -16,6 +16,8 @@
 
 package com.hazelcast.flakeidgen.impl;
 
+import com.hazelcast.config.Config;
+import com.hazelcast.config.FlakeIdGeneratorConfig;
 import com.hazelcast.core.HazelcastInstance;
 import com.hazelcast.flakeidgen.FlakeIdGenerator;
 import com.hazelcast.internal.monitor.LocalFlakeIdGeneratorStats;
@@ -35,6 +37,7 @@ import org.junit.runner.RunWith;
 
 import java.util.Map;
 
+import static com.hazelcast.spi.properties.ClusterProperty.FLAKE_ID_GENERATOR_PREFETCH_THRESHOLD_PERCENTAGE;
 import static com.hazelcast.test.Accessors.getNodeEngineImpl;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
@@ -81,4 +84,24 @@ public class FlakeIdGenerator_MemberIntegrationTest extends HazelcastTestSupport
         assertEquals(1L, genStats.getBatchCount());
         assertTrue(genStats.getIdCount() > 0);
     }
+
+    @Test
+    public void statistics_withPrefetch() {
+        Config config = smallInstanceConfig()
+                .setProperty(FLAKE_ID_GENERATOR_PREFETCH_THRESHOLD_PERCENTAGE.getName(), "50")
+                .addFlakeIdGeneratorConfig(new FlakeIdGeneratorConfig("gen").setPrefetchCount(10));
+        HazelcastInstance instance = factory.newHazelcastInstance(config);
+
+        FlakeIdGenerator gen = instance.getFlakeIdGenerator("gen");
+        for (int i = 0; i < 26; i++) {
+            gen.newId();
+        }
+
+        FlakeIdGeneratorService service = getNodeEngineImpl(instance).getService(FlakeIdGeneratorService.SERVICE_NAME);
+        LocalFlakeIdGeneratorStats genStats = service.getStats().get("gen");
+        assertEquals(3L, genStats.getPrefetchCount());
+        assertTrue(genStats.getBlockingFetchCount() >= 1);
+        assertTrue(genStats.getBlockingFetchCount() <= 3);
+        assertTrueEventually(() -> assertEquals(4L, genStats.getBatchCount()));
+    }
 }
@@ -52,6 +52,7 @@ public abstract class AbstractHazelcastInstanceNullTest extends HazelcastTestSup
         assertThrowsNPE(c -> c.getDistributedObject("", null));
         assertThrowsNPE(c -> c.getDistributedObject(null, ""));
         assertThrowsNPE(c -> c.getCardinalityEstimator(null));
+        assertThrowsNPE(c -> c.getCounterMap(null));
         assertThrowsNPE(c -> c.getPNCounter(null));
         assertThrowsNPE(c -> c.getScheduledExecutorService(null));
     }
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.ascii;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.test.HazelcastTestSupport;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.hazelcast.instance.EndpointQualifier.MEMCACHE;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Measures the memcache throughput of a single member for growing pipeline
+ * depths. Each connection of the load generator writes {@code depth} "set"
+ * commands followed by {@code depth} "get" commands in one go and reads all
+ * responses before sending the next round.
+ * <p>
+ * This is no JUnit test.
+ */
+public class MemcachePipeliningBenchmark extends HazelcastTestSupport {
+
+    private static final int CONNECTIONS = 8;
+    private static final int KEYS_PER_CONNECTION = 10000;
+    private static final int[] DEPTHS = {1, 16, 128};
+    private static final long DURATION_MILLIS = 10000;
+    private static final String VALUE = "0123456789abcdef0123456789abcdef";
+
+    public static void main(String[] args) throws Exception {
+        Config config = smallInstanceConfig();
+        config.getNetworkConfig().getMemcacheProtocolConfig().setEnabled(true);
+        HazelcastInstance instance = Hazelcast.newHazelcastInstance(config);
+        InetSocketAddress address = instance.getCluster().getLocalMember().getSocketAddress(MEMCACHE);
+        ExecutorService executor = Executors.newFixedThreadPool(CONNECTIONS);
+        try {
+            for (int round = 0; round < 3; round++) {
+                for (int depth : DEPTHS) {
+                    List<Future<Long>> futures = new ArrayList<>();
+                    for (int connection = 0; connection < CONNECTIONS; connection++) {
+                        futures.add(executor.submit(new LoadGenerator(address, connection, depth)));
+                    }
+                    long commands = 0;
+                    for (Future<Long> future : futures) {
+                        commands += future.get();
+                    }
+                    System.err.println("depth=" + depth + " commands/s=" + commands * 1000 / DURATION_MILLIS);
+                }
+                System.err.println("---------------------------------------------");
+            }
+        } finally {
+            executor.shutdownNow();
+            Hazelcast.shutdownAll();
+        }
+    }
+
+    private static final class LoadGenerator implements Callable<Long> {
+
+        private final InetSocketAddress address;
+        private final int connection;
+        private final int depth;
+
+        LoadGenerator(InetSocketAddress address, int connection, int depth) {
+            this.address = address;
+            this.connection = connection;
+            this.depth = depth;
+        }
+
+        @Override
+        public Long call() throws IOException {
+            long commands = 0;
+            try (Socket socket = new Socket()) {
+                socket.connect(address);
+                socket.setTcpNoDelay(true);
+                OutputStream out = socket.getOutputStream();
+                DataInputStream in = new DataInputStream(socket.getInputStream());
+                long deadline = System.currentTimeMillis() + DURATION_MILLIS;
+                int next = 0;
+                while (System.currentTimeMillis() < deadline) {
+                    StringBuilder request = new StringBuilder();
+                    int responseLength = 0;
+                    for (int i = 0; i < depth; i++) {
+                        String key = key(next + i);
+                        request.append("set ").append(key).append(" 0 0 ").append(VALUE.length()).append("\r\n")
+                               .append(VALUE).append("\r\n");
+                        responseLength += "STORED\r\n".length();
+                    }
+                    for (int i = 0; i < depth; i++) {
+                        String key = key(next + i);
+                        request.append("get ").append(key).append("\r\n");
+                        responseLength += ("VALUE " + key + " 0 " + VALUE.length() + "\r\n" + VALUE + "\r\nEND\r\n").length();
+                    }
+                    out.write(request.toString().getBytes(UTF_8));
+                    out.flush();
+                    in.readFully(new byte[responseLength]);
+                    commands += 2 * depth;
+                    next = (next + depth) % KEYS_PER_CONNECTION;
+                }
+            }
+            return commands;
+        }
+
+        private String key(int index) {
+            return String.format("key-%02d-%06d", connection, index);
+        }
+    }
+}
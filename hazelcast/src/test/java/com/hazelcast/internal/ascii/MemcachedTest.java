@@ -38,7 +38,10 @@ import org.junit.Test;
 import org.junit.experimental.categories.Category;
 import org.junit.runner.RunWith;
 
+import java.io.DataInputStream;
+import java.io.IOException;
 import java.net.InetSocketAddress;
+import java.net.Socket;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -49,6 +52,8 @@ import java.util.ConcurrentModificationException;
 
 import static com.hazelcast.instance.EndpointQualifier.MEMCACHE;
 import static com.hazelcast.test.MemcacheTestUtil.shutdownQuietly;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.concurrent.TimeUnit.MINUTES;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
@@ -360,6 +365,92 @@ public class MemcachedTest extends HazelcastTestSupport {
         }
     }
 
+    @Test
+    public void testPipelinedCommands_areRespondedInOrder() throws Exception {
+        int numberOfKeys = 100;
+        StringBuilder request = new StringBuilder();
+        StringBuilder expectedResponse = new StringBuilder();
+        for (int i = 0; i < numberOfKeys; i++) {
+            String value = "value" + i;
+            request.append("set key").append(i).append(" 0 0 ").append(value.length()).append("\r\n")
+                   .append(value).append("\r\n");
+            expectedResponse.append("STORED\r\n");
+        }
+        for (int i = 0; i < numberOfKeys; i++) {
+            String value = "value" + i;
+            request.append("get key").append(i).append("\r\n");
+            expectedResponse.append("VALUE key").append(i).append(" 0 ").append(value.length()).append("\r\n")
+                            .append(value).append("\r\nEND\r\n");
+        }
+        // a command which is not batched must observe the batched sets before it
+        request.append("append key0 0 0 1\r\nx\r\nget key0\r\n");
+        expectedResponse.append("STORED\r\nVALUE key0 0 7\r\nvalue0x\r\nEND\r\n");
+
+        assertEquals(expectedResponse.toString(), sendRaw(request.toString(), expectedResponse.length()));
+        checkStats(numberOfKeys + 1, numberOfKeys + 1, numberOfKeys + 1, 0, 0, 0, 0, 0, 0, 0);
+    }
+
+    @Test
+    public void testPipelinedSets_withCustomIMapsAndExpiration() throws Exception {
+        String request = "set map1:key 0 0 2\r\nv1\r\n"
+                + "set map2:key 0 0 2\r\nv2\r\n"
+                + "set map1:expiring 0 3600 2\r\nv3\r\n"
+                + "set map1:key 0 0 2\r\nv4\r\n";
+
+        assertEquals("STORED\r\nSTORED\r\nSTORED\r\nSTORED\r\n", sendRaw(request, 32));
+
+        IMap<String, MemcacheEntry> map1 = instance.getMap(MemcacheCommandProcessor.MAP_NAME_PREFIX + "map1");
+        IMap<String, MemcacheEntry> map2 = instance.getMap(MemcacheCommandProcessor.MAP_NAME_PREFIX + "map2");
+        assertEquals("v4", new String(map1.get("key").getValue()));
+        assertEquals("v2", new String(map2.get("key").getValue()));
+        assertEquals("v3", new String(map1.get("expiring").getValue()));
+        assertTrue(map1.getEntryView("expiring").getTtl() > 0);
+    }
+
+    @Test
+    public void testPipelinedSets_withAndWithoutExpirationOnSameKey() throws Exception {
+        String request = "set key1 0 0 2\r\nv1\r\n"
+                + "set key1 0 3600 2\r\nv2\r\n"
+                + "set key2 0 3600 2\r\nv3\r\n"
+                + "set key2 0 0 2\r\nv4\r\n"
+                + "set key2 0 3600 2\r\nv5\r\n"
+                + "set key2 0 0 2\r\nv6\r\n";
+
+        assertEquals("STORED\r\nSTORED\r\nSTORED\r\nSTORED\r\nSTORED\r\nSTORED\r\n", sendRaw(request, 48));
+
+        IMap<String, MemcacheEntry> map = instance.getMap(MemcacheCommandProcessor.DEFAULT_MAP_NAME);
+        assertEquals("v2", new String(map.get("key1").getValue()));
+        assertTrue(map.getEntryView("key1").getTtl() > 0);
+        assertEquals("v6", new String(map.get("key2").getValue()));
+        assertEquals(Long.MAX_VALUE, map.getEntryView("key2").getTtl());
+        checkStats(6, 0, 0, 0, 0, 0, 0, 0, 0, 0);
+    }
+
+    @Test
+    public void testPipelinedGets_whenMoreResponsesThanResponseQueueCapacity() throws Exception {
+        int numberOfGets = 5000;
+        StringBuilder request = new StringBuilder();
+        StringBuilder expectedResponse = new StringBuilder();
+        for (int i = 0; i < numberOfGets; i++) {
+            request.append("get missing").append(i).append("\r\n");
+            expectedResponse.append("END\r\n");
+        }
+
+        assertEquals(expectedResponse.toString(), sendRaw(request.toString(), expectedResponse.length()));
+    }
+
+    private String sendRaw(String request, int responseLength) throws IOException {
+        try (Socket socket = new Socket()) {
+            socket.connect(getMemcachedAddr(instance));
+            socket.setSoTimeout((int) MINUTES.toMillis(1));
+            socket.getOutputStream().write(request.getBytes(UTF_8));
+            socket.getOutputStream().flush();
+            byte[] response = new byte[responseLength];
+            new DataInputStream(socket.getInputStream()).readFully(response);
+            return new String(response, UTF_8);
+        }
+    }
+
     @SuppressWarnings("checkstyle:parameternumber")
     private void checkStats(int sets, int gets, int getHits, int getMisses, int deleteHits, int deleteMisses,
                             int incHits, int incMisses, int decHits, int decMisses) {
@@ -25,6 +25,7 @@ import com.hazelcast.core.HazelcastInstance;
 import com.hazelcast.core.HazelcastJsonValue;
 import com.hazelcast.instance.EndpointQualifier;
 import com.hazelcast.internal.ascii.HTTPCommunicator.ConnectionResponse;
+import com.hazelcast.internal.ascii.rest.RestEndpointMetrics;
 import com.hazelcast.internal.json.Json;
 import com.hazelcast.internal.json.JsonObject;
 import com.hazelcast.internal.management.dto.WanReplicationConfigDTO;
@@ -39,7 +40,9 @@ import org.junit.Test;
 import org.junit.experimental.categories.Category;
 import org.junit.runner.RunWith;
 
+import java.io.EOFException;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.InetSocketAddress;
 import java.net.Socket;
@@ -59,6 +62,7 @@ import static java.net.HttpURLConnection.HTTP_BAD_REQUEST;
 import static java.net.HttpURLConnection.HTTP_OK;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -404,6 +408,124 @@ public class RestTest {
         }
     }
 
+    @Test
+    public void testPipelinedRequests_areRespondedInOrder() throws Exception {
+        String mapName = randomMapName();
+        String queueName = randomName();
+        InetSocketAddress address = getNode(instance).getLocalMember().getSocketAddress(EndpointQualifier.REST);
+        Socket socket = new Socket(address.getAddress(), address.getPort());
+        socket.setSoTimeout(20000);
+        try {
+            OutputStream os = socket.getOutputStream();
+            os.write(stringToBytes("GET /hazelcast/rest/queues/" + queueName + "/10 HTTP/1.1\r\n\r\n"
+                    + "POST /hazelcast/rest/maps/" + mapName + "/key HTTP/1.1\r\n"
+                    + "Content-Type: text/plain\r\nContent-Length: 5\r\n\r\nvalue"
+                    + "GET /hazelcast/rest/maps/" + mapName + "/key HTTP/1.1\r\n\r\n"));
+            os.flush();
+            // the poll waits for the item, the following requests are answered after it
+            sleepAtLeastSeconds(1);
+            assertTrue(instance.getMap(mapName).isEmpty());
+            instance.getQueue(queueName).offer("item");
+
+            InputStream is = socket.getInputStream();
+            assertEquals("HTTP/1.1 200 OK|item", readResponse(is));
+            assertEquals("HTTP/1.1 200 OK|", readResponse(is));
+            assertEquals("HTTP/1.1 200 OK|value", readResponse(is));
+        } finally {
+            socket.close();
+        }
+    }
+
+    @Test
+    public void testWaitingQueuePolls_doNotBlockOtherRequests() throws Exception {
+        String queueName = randomName();
+        int pollCount = 32;
+        InetSocketAddress address = getNode(instance).getLocalMember().getSocketAddress(EndpointQualifier.REST);
+        Socket[] sockets = new Socket[pollCount];
+        try {
+            for (int i = 0; i < pollCount; i++) {
+                sockets[i] = new Socket(address.getAddress(), address.getPort());
+                sockets[i].setSoTimeout(20000);
+                sockets[i].getOutputStream()
+                        .write(stringToBytes("GET /hazelcast/rest/queues/" + queueName + "/30 HTTP/1.1\r\n\r\n"));
+            }
+            String mapName = randomMapName();
+            assertEquals(HTTP_OK, communicator.mapPut(mapName, "key", "value"));
+            assertEquals("value", communicator.mapGetAndResponse(mapName, "key"));
+
+            IQueue<String> queue = instance.getQueue(queueName);
+            for (int i = 0; i < pollCount; i++) {
+                queue.offer("item");
+            }
+            for (Socket socket : sockets) {
+                assertEquals("HTTP/1.1 200 OK|item", readResponse(socket.getInputStream()));
+            }
+        } finally {
+            for (Socket socket : sockets) {
+                if (socket != null) {
+                    socket.close();
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testMapPutGet_largeValue() throws Exception {
+        String name = randomMapName();
+        String value = randomString() + new String(new char[1 << 20]).replace('\0', 'x');
+
+        assertEquals(HTTP_OK, communicator.mapPut(name, "key", value));
+        assertEquals(value, communicator.mapGetAndResponse(name, "key"));
+    }
+
+    @Test
+    public void testEndpointLatencies_areRecorded() throws Exception {
+        String name = randomMapName();
+        communicator.mapPut(name, "key", "value");
+        communicator.mapGetAndResponse(name, "key");
+        communicator.mapGetAndResponse(name, "key");
+        communicator.getClusterHealth();
+
+        TextCommandServiceImpl textCommandService = (TextCommandServiceImpl) getNode(instance).getTextCommandService();
+        RestEndpointMetrics metrics = textCommandService.getRestEndpointMetrics();
+        assertEquals(1, metrics.getLatency("POST", "maps").count());
+        assertEquals(2, metrics.getLatency("GET", "maps").count());
+        assertEquals(1, metrics.getLatency("GET", "health").count());
+        assertNull(metrics.getLatency("DELETE", "maps"));
+    }
+
+    /**
+     * Reads a response with a content length and returns its status line
+     * and content separated by {@code |}.
+     */
+    private static String readResponse(InputStream is) throws IOException {
+        String statusLine = readLine(is);
+        int contentLength = 0;
+        String header;
+        while (!(header = readLine(is)).isEmpty()) {
+            if (header.toLowerCase().startsWith("content-length:")) {
+                contentLength = Integer.parseInt(header.substring("content-length:".length()).trim());
+            }
+        }
+        byte[] content = new byte[contentLength];
+        readFully(is, content);
+        return statusLine + "|" + bytesToString(content);
+    }
+
+    private static String readLine(InputStream is) throws IOException {
+        StringBuilder line = new StringBuilder();
+        int c;
+        while ((c = is.read()) != '\n') {
+            if (c == -1) {
+                throw new EOFException();
+            }
+            if (c != '\r') {
+                line.append((char) c);
+            }
+        }
+        return line.toString();
+    }
+
     private JsonObject assertJsonContains(String json, String... attributesAndValues) {
         JsonObject object = Json.parse(json).asObject();
         for (int i = 0; i < attributesAndValues.length; ) {
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.ascii;
+
+import com.hazelcast.internal.ascii.memcache.GetCommand;
+import com.hazelcast.internal.ascii.memcache.GetCommandProcessor;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+import org.mockito.InOrder;
+
+import java.util.concurrent.CompletableFuture;
+
+import static java.util.Arrays.asList;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class TextCommandPipelineTest {
+
+    private TextCommandServiceImpl textCommandService;
+    private GetCommandProcessor getCommandProcessor;
+    private TextCommandPipeline pipeline;
+
+    @Before
+    public void setUp() {
+        textCommandService = mock(TextCommandServiceImpl.class);
+        getCommandProcessor = mock(GetCommandProcessor.class);
+        when(textCommandService.getGetCommandProcessor()).thenReturn(getCommandProcessor);
+        // run the pipeline on the calling thread, so a resumed pipeline runs while the suspending one still unwinds
+        doAnswer(invocation -> {
+            ((TextCommandPipeline) invocation.getArgument(0)).run();
+            return null;
+        }).when(textCommandService).execute(any(TextCommandPipeline.class));
+        pipeline = new TextCommandPipeline(textCommandService);
+    }
+
+    @Test
+    public void resumedPipeline_whenInFlightCompletesWhileSuspending() {
+        GetCommand get1 = new GetCommand("key1");
+        GetCommand get2 = new GetCommand("key2");
+        GetCommand get3 = new GetCommand("key3");
+        NoOpCommand barrier = new NoOpCommand(new byte[0]);
+        when(getCommandProcessor.handleAsync(get1)).thenReturn(completingWhileSuspending());
+        when(getCommandProcessor.handleAsync(get2)).thenReturn(completingWhileSuspending());
+        when(getCommandProcessor.handleAsync(get3)).thenReturn(new CompletableFuture<>());
+
+        pipeline.submit(asList(get1, get2, barrier, get3));
+
+        InOrder inOrder = inOrder(getCommandProcessor, textCommandService);
+        inOrder.verify(getCommandProcessor).handleAsync(get1);
+        inOrder.verify(getCommandProcessor).handleAsync(get2);
+        inOrder.verify(textCommandService).handle(barrier);
+        inOrder.verify(getCommandProcessor).handleAsync(get3);
+    }
+
+    /**
+     * Returns a completed future which the pipeline sees as outstanding when
+     * it suspends, as if it completed right after the pipeline checked it.
+     */
+    private static CompletableFuture<Object> completingWhileSuspending() {
+        CompletableFuture<Object> future = new CompletableFuture<Object>() {
+            private boolean checked;
+
+            @Override
+            public boolean isDone() {
+                if (!checked) {
+                    checked = true;
+                    return false;
+                }
+                return super.isDone();
+            }
+        };
+        future.complete(null);
+        return future;
+    }
+}
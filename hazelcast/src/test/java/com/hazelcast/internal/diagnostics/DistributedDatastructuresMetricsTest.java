@@ -39,9 +39,11 @@ import com.hazelcast.flakeidgen.FlakeIdGenerator;
 import com.hazelcast.internal.metrics.MetricDescriptor;
 import com.hazelcast.internal.metrics.MetricsRegistry;
 import com.hazelcast.internal.metrics.collectors.MetricsCollector;
+import com.hazelcast.internal.monitor.impl.LocalMapStatsImpl;
 import com.hazelcast.map.IMap;
 import com.hazelcast.multimap.MultiMap;
 import com.hazelcast.replicatedmap.ReplicatedMap;
+import com.hazelcast.spi.properties.HazelcastProperties;
 import com.hazelcast.test.HazelcastParallelClassRunner;
 import com.hazelcast.test.HazelcastTestSupport;
 import com.hazelcast.test.annotation.ParallelJVMTest;
@@ -54,6 +56,7 @@ import org.junit.experimental.categories.Category;
 import org.junit.runner.RunWith;
 
 import static com.hazelcast.cache.CacheUtil.getDistributedObjectName;
+import static com.hazelcast.spi.properties.ClusterProperty.METRICS_LATENCY_HISTOGRAM_PRECISION;
 import static com.hazelcast.test.Accessors.getNode;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
@@ -91,6 +94,7 @@ public class DistributedDatastructuresMetricsTest extends HazelcastTestSupport {
     @Before
     public void setup() {
         Config config = new Config();
+        config.setProperty(METRICS_LATENCY_HISTOGRAM_PRECISION.getName(), "4");
         config.addMapConfig(new MapConfig(NEAR_CACHE_MAP_NAME).setNearCacheConfig(new NearCacheConfig("nearCache")));
         config.addCacheConfig(new CacheSimpleConfig()
                 .setName(CACHE_NAME)
@@ -142,6 +146,39 @@ public class DistributedDatastructuresMetricsTest extends HazelcastTestSupport {
         assertHasNoStats(MAP_NAME_NO_STAT, "map.");
     }
 
+    @Test
+    public void testMapLatencyHistograms() {
+        final IMap<Integer, Integer> map = hz.getMap(MAP_NAME);
+        final IMap<Integer, Integer> mapNoStat = hz.getMap(MAP_NAME_NO_STAT);
+
+        for (int i = 0; i < EVENT_COUNTER; i++) {
+            map.put(i, 23);
+            map.get(i);
+            mapNoStat.put(i, 23);
+            mapNoStat.get(i);
+        }
+
+        final MetricsRegistry registry = getNode(hz).nodeEngine.getMetricsRegistry();
+        assertTrueEventually(() -> {
+            final StringMetricsCollector collector = new StringMetricsCollector(MAP_NAME, "map.latency.");
+            registry.collect(collector);
+            for (String operation : new String[]{"get", "put", "set", "remove"}) {
+                for (String metric : new String[]{"count", "p50", "p99", "p999", "max"}) {
+                    assertTrue(collector.toString(), collector.probes.keySet().stream().anyMatch(
+                            name -> name.contains("operation=" + operation) && name.contains("metric=map.latency." + metric)));
+                }
+            }
+        });
+        assertHasNoStats(MAP_NAME_NO_STAT, "map.latency.");
+    }
+
+    @Test
+    public void testMapLatencyHistograms_disabledByDefault() {
+        HazelcastProperties properties = new HazelcastProperties(new Config());
+        int precision = properties.getInteger(METRICS_LATENCY_HISTOGRAM_PRECISION);
+        assertTrue(new LocalMapStatsImpl(precision, 0).getLatencyHistograms().isEmpty());
+    }
+
     @Test
     public void testMultiMap() {
         final MultiMap<Integer, Integer> map = hz.getMultiMap(MAP_NAME);
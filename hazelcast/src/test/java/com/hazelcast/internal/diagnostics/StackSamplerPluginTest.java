@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.diagnostics;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.EntryProcessor;
+import com.hazelcast.map.impl.operation.EntryOperation;
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+import static com.hazelcast.internal.diagnostics.StackSamplerPlugin.NIO_INPUT_THREAD;
+import static com.hazelcast.internal.diagnostics.StackSamplerPlugin.NIO_OUTPUT_THREAD;
+import static com.hazelcast.internal.diagnostics.StackSamplerPlugin.TRUNCATED_FRAME;
+import static com.hazelcast.test.Accessors.getNodeEngineImpl;
+import static org.junit.Assert.assertEquals;
+
+@RunWith(HazelcastSerialClassRunner.class)
+@Category(QuickTest.class)
+public class StackSamplerPluginTest extends AbstractDiagnosticsPluginTest {
+
+    private static volatile CountDownLatch releaseLatch;
+
+    private StackSamplerPlugin plugin;
+    private HazelcastInstance hz;
+
+    private void setup(int maxStacks) {
+        releaseLatch = new CountDownLatch(1);
+        Config config = new Config()
+                .setProperty(StackSamplerPlugin.PERIOD_SECONDS.getName(), "1")
+                .setProperty(StackSamplerPlugin.MAX_STACKS.getName(), String.valueOf(maxStacks));
+
+        // we need to start a real Hazelcast instance here, since the mocked network doesn't have NIO threads
+        hz = Hazelcast.newHazelcastInstance(config);
+
+        // the samples are taken by the test, so the plugin is not started
+        plugin = new StackSamplerPlugin(getNodeEngineImpl(hz));
+    }
+
+    @After
+    public void tearDown() {
+        releaseLatch.countDown();
+        hz.shutdown();
+    }
+
+    @Test
+    public void testGetPeriodMillis() {
+        setup(1000);
+
+        assertEquals(1000, plugin.getPeriodMillis());
+    }
+
+    @Test
+    public void testRun() {
+        setup(1000);
+        spawn(() -> hz.getMap("foo").executeOnKey("bar", new BlockingEntryProcessor()));
+
+        assertTrueEventually(() -> {
+            plugin.sample();
+            plugin.run(logWriter);
+
+            assertContains("StackSamples");
+            assertContains("PartitionOperationThread;" + EntryOperation.class.getName() + ";");
+            assertContains(BlockingEntryProcessor.class.getName() + ".process");
+            assertContains(NIO_INPUT_THREAD + ";");
+            assertContains(NIO_OUTPUT_THREAD + ";");
+        });
+    }
+
+    @Test
+    public void testRun_resetsSamples() {
+        setup(1000);
+        plugin.sample();
+        plugin.run(logWriter);
+        assertContains(NIO_INPUT_THREAD);
+
+        reset();
+        plugin.run(logWriter);
+
+        assertContains("StackSamples");
+        assertNotContains(NIO_INPUT_THREAD);
+    }
+
+    @Test
+    public void testRun_whenMaxStacksReached_thenTruncated() {
+        setup(1);
+        plugin.sample();
+        plugin.sample();
+
+        plugin.run(logWriter);
+
+        assertContains(";" + TRUNCATED_FRAME + " ");
+    }
+
+    static class BlockingEntryProcessor implements EntryProcessor {
+        @Override
+        public Object process(Map.Entry entry) {
+            try {
+                releaseLatch.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        }
+
+        @Override
+        public EntryProcessor getBackupProcessor() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.hotrestart.impl;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.MapConfig;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.TestHazelcastInstanceFactory;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.io.IOException;
+
+import static com.hazelcast.test.Accessors.getNodeEngineImpl;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class DiskHotRestartServiceTest extends HazelcastTestSupport {
+
+    private static final int ENTRY_COUNT = 1000;
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Test
+    public void testClusterRestart_restoresPersistentMaps() throws IOException {
+        File baseDir = tempFolder.newFolder();
+        TestHazelcastInstanceFactory factory = createHazelcastInstanceFactory(4);
+        HazelcastInstance[] instances = {factory.newHazelcastInstance(getConfig(baseDir)),
+                factory.newHazelcastInstance(getConfig(baseDir))};
+        IMap<Integer, String> map = instances[0].getMap("persistent");
+        IMap<Integer, String> transientMap = instances[0].getMap("transient");
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.put(i, "value" + i);
+            transientMap.put(i, "value" + i);
+        }
+        for (int i = 0; i < ENTRY_COUNT / 2; i++) {
+            map.put(i, "updated" + i);
+        }
+        for (int i = 0; i < ENTRY_COUNT / 10; i++) {
+            map.remove(i);
+        }
+        instances[0].getCluster().shutdown();
+
+        instances = new HazelcastInstance[]{factory.newHazelcastInstance(getConfig(baseDir)),
+                factory.newHazelcastInstance(getConfig(baseDir))};
+        map = instances[1].getMap("persistent");
+        transientMap = instances[1].getMap("transient");
+
+        assertEquals(ENTRY_COUNT - ENTRY_COUNT / 10, map.size());
+        assertNull(map.get(0));
+        assertEquals("updated" + (ENTRY_COUNT / 10), map.get(ENTRY_COUNT / 10));
+        assertEquals("value" + (ENTRY_COUNT - 1), map.get(ENTRY_COUNT - 1));
+        assertEquals(0, transientMap.size());
+    }
+
+    @Test
+    public void testClusterRestart_clearedMapStaysEmpty() throws IOException {
+        File baseDir = tempFolder.newFolder();
+        TestHazelcastInstanceFactory factory = createHazelcastInstanceFactory(2);
+        HazelcastInstance instance = factory.newHazelcastInstance(getConfig(baseDir));
+        IMap<Integer, String> map = instance.getMap("persistent");
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.put(i, "value" + i);
+        }
+        map.clear();
+        map.put(1, "afterClear");
+        instance.getCluster().shutdown();
+
+        instance = factory.newHazelcastInstance(getConfig(baseDir));
+        map = instance.getMap("persistent");
+
+        assertEquals(1, map.size());
+        assertEquals("afterClear", map.get(1));
+    }
+
+    @Test
+    public void testJoiningRunningCluster_discardsLocalData() throws IOException {
+        File staleDir = tempFolder.newFolder();
+        TestHazelcastInstanceFactory factory = createHazelcastInstanceFactory(3);
+        HazelcastInstance instance = factory.newHazelcastInstance(getConfig(staleDir));
+        instance.getMap("persistent").put(1, "stale");
+        instance.getCluster().shutdown();
+
+        HazelcastInstance running = factory.newHazelcastInstance(getConfig(tempFolder.newFolder()));
+        IMap<Integer, String> map = running.getMap("persistent");
+        map.put(2, "current");
+        sleepSeconds(2);
+        factory.newHazelcastInstance(getConfig(staleDir));
+
+        assertEquals(1, map.size());
+        assertNull(map.get(1));
+    }
+
+    @Test
+    public void testService_registeredOnlyWhenEnabled() throws IOException {
+        TestHazelcastInstanceFactory factory = createHazelcastInstanceFactory(2);
+        HazelcastInstance enabled = factory.newHazelcastInstance(getConfig(tempFolder.newFolder()));
+        HazelcastInstance disabled = factory.newHazelcastInstance(smallInstanceConfig());
+
+        assertNotNull(getNodeEngineImpl(enabled).getServiceOrNull(DiskHotRestartService.SERVICE_NAME));
+        assertNull(getNodeEngineImpl(disabled).getServiceOrNull(DiskHotRestartService.SERVICE_NAME));
+    }
+
+    private static Config getConfig(File baseDir) {
+        Config config = smallInstanceConfig();
+        config.getHotRestartPersistenceConfig()
+              .setEnabled(true)
+              .setBaseDir(baseDir)
+              .setValidationTimeoutSeconds(1);
+        config.addMapConfig(new MapConfig("persistent")
+                .setBackupCount(1));
+        config.getMapConfig("persistent").getHotRestartConfig().setEnabled(true);
+        return config;
+    }
+}
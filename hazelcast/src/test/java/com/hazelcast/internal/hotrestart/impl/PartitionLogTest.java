@@ -0,0 +1,249 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.hotrestart.impl;
+
+import com.hazelcast.internal.hotrestart.impl.PartitionLog.LogKey;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class PartitionLogTest {
+
+    private static final long SEGMENT_SIZE = 1024;
+    private static final byte[] MAP = bytes("map");
+    private static final byte[] OTHER_MAP = bytes("other");
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private File dir;
+    private PartitionLog log;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = tempFolder.newFolder();
+        log = new PartitionLog(dir, SEGMENT_SIZE);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        log.close();
+    }
+
+    @Test
+    public void testReopen_restoresLatestValues() throws IOException {
+        log.put(MAP, bytes("k1"), bytes("v1"), false);
+        log.put(MAP, bytes("k2"), bytes("v2"), true);
+        log.put(MAP, bytes("k1"), bytes("v1-updated"), false);
+        log.remove(MAP, bytes("k2"), false);
+        log.put(OTHER_MAP, bytes("k1"), bytes("other"), false);
+
+        Map<String, Map<LogKey, byte[]>> live = reopen();
+
+        assertEquals(1, live.get("map").size());
+        assertValue(live, "map", "k1", "v1-updated");
+        assertValue(live, "other", "k1", "other");
+    }
+
+    @Test
+    public void testReopen_clearDropsEarlierEntriesOfTheMapOnly() throws IOException {
+        log.put(MAP, bytes("k1"), bytes("v1"), false);
+        log.put(OTHER_MAP, bytes("k1"), bytes("other"), false);
+        log.clear(MAP, false);
+        log.put(MAP, bytes("k2"), bytes("v2"), false);
+
+        Map<String, Map<LogKey, byte[]>> live = reopen();
+
+        assertEquals(1, live.get("map").size());
+        assertValue(live, "map", "k2", "v2");
+        assertValue(live, "other", "k1", "other");
+    }
+
+    @Test
+    public void testReopen_spansRolledSegments() throws IOException {
+        put(0, 100, "v");
+
+        Map<String, Map<LogKey, byte[]>> live = reopen();
+
+        assertTrue(segmentCount() > 1);
+        assertEquals(100, live.get("map").size());
+        assertValue(live, "map", "k99", "v99");
+    }
+
+    @Test
+    public void testReopen_ignoresTruncatedTail() throws IOException {
+        log.put(MAP, bytes("k1"), bytes("v1"), false);
+        log.put(MAP, bytes("k2"), bytes("v2"), false);
+        log.close();
+        File segment = new File(dir, "0" + PartitionLog.SEGMENT_SUFFIX);
+        try (RandomAccessFile file = new RandomAccessFile(segment, "rw")) {
+            file.setLength(file.length() - 3);
+        }
+
+        Map<String, Map<LogKey, byte[]>> live = reopen();
+
+        assertEquals(1, live.get("map").size());
+        assertValue(live, "map", "k1", "v1");
+    }
+
+    @Test
+    public void testReopen_ignoresCorruptedRecord() throws IOException {
+        log.put(MAP, bytes("k1"), bytes("v1"), false);
+        log.put(MAP, bytes("k2"), bytes("v2"), false);
+        log.close();
+        File segment = new File(dir, "0" + PartitionLog.SEGMENT_SUFFIX);
+        try (RandomAccessFile file = new RandomAccessFile(segment, "rw")) {
+            file.seek(file.length() - 1);
+            file.write('x');
+        }
+
+        Map<String, Map<LogKey, byte[]>> live = reopen();
+
+        assertEquals(1, live.get("map").size());
+        assertNull(live.get("map").get(new LogKey(bytes("k2"))));
+    }
+
+    @Test
+    public void testCompact_notBeforeRecoveryDataDiscarded() throws IOException {
+        log.put(MAP, bytes("k1"), bytes("v1"), false);
+        reopen();
+        put(0, 100, "v");
+
+        assertTrue(log.hasRecoveryData());
+        assertFalse(log.compact());
+
+        log.discardRecoveryData();
+
+        assertFalse(log.hasRecoveryData());
+        assertTrue(log.compact());
+    }
+
+    @Test
+    public void testCompact_keepsLiveEntriesOnly() throws IOException {
+        log.discardRecoveryData();
+        put(0, 100, "v");
+        put(0, 100, "updated");
+        for (int i = 50; i < 100; i++) {
+            log.remove(MAP, bytes("k" + i), false);
+        }
+        long sizeBefore = directorySize();
+
+        assertTrue(log.compact());
+
+        assertTrue(directorySize() < sizeBefore);
+        Map<String, Map<LogKey, byte[]>> live = reopen();
+        assertEquals(50, live.get("map").size());
+        assertValue(live, "map", "k0", "updated0");
+        assertValue(live, "map", "k49", "updated49");
+    }
+
+    @Test
+    public void testCompact_notRepeatedUntilEnoughNewData() throws IOException {
+        log.discardRecoveryData();
+        put(0, 100, "v");
+
+        assertTrue(log.compact());
+        assertFalse(log.compact());
+    }
+
+    @Test
+    public void testReopen_completesInterruptedCompaction() throws IOException {
+        log.discardRecoveryData();
+        put(0, 100, "v");
+        log.close();
+
+        // simulate a crash after the compaction output has been renamed: the output holds
+        // only the first entry and replaces all segments up to and including the second one
+        File first = new File(dir, "0" + PartitionLog.SEGMENT_SUFFIX);
+        File second = new File(dir, "1" + PartitionLog.SEGMENT_SUFFIX);
+        File outputDir = tempFolder.newFolder();
+        try (PartitionLog output = new PartitionLog(outputDir, SEGMENT_SIZE)) {
+            output.put(MAP, bytes("k0"), bytes("compacted"), false);
+        }
+        Files.move(new File(outputDir, "0" + PartitionLog.SEGMENT_SUFFIX).toPath(),
+                new File(dir, second.getName() + PartitionLog.COMPACTED_SUFFIX).toPath());
+
+        log = new PartitionLog(dir, SEGMENT_SIZE);
+        Map<String, Map<LogKey, byte[]>> live = recover();
+
+        assertFalse(first.exists());
+        assertTrue(second.exists());
+        assertValue(live, "map", "k0", "compacted");
+        assertNull(live.get("map").get(new LogKey(bytes("k1"))));
+    }
+
+    private void put(int from, int to, String valuePrefix) {
+        for (int i = from; i < to; i++) {
+            log.put(MAP, bytes("k" + i), bytes(valuePrefix + i), false);
+        }
+    }
+
+    private Map<String, Map<LogKey, byte[]>> reopen() throws IOException {
+        log.close();
+        log = new PartitionLog(dir, SEGMENT_SIZE);
+        return recover();
+    }
+
+    private Map<String, Map<LogKey, byte[]>> recover() throws IOException {
+        Map<String, Map<LogKey, byte[]>> live = new HashMap<>();
+        log.readRecoveryData((name, key, value) -> {
+            byte[] previous = live.computeIfAbsent(name, n -> new HashMap<>()).put(new LogKey(key), value);
+            assertNull("Entry recovered twice", previous);
+        });
+        return live;
+    }
+
+    private int segmentCount() {
+        return dir.listFiles((d, name) -> name.endsWith(PartitionLog.SEGMENT_SUFFIX)).length;
+    }
+
+    private long directorySize() {
+        return Arrays.stream(dir.listFiles()).mapToLong(File::length).sum();
+    }
+
+    private static void assertValue(Map<String, Map<LogKey, byte[]>> live, String map, String key, String value) {
+        assertArrayEquals(bytes(value), live.get(map).get(new LogKey(bytes(key))));
+    }
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(UTF_8);
+    }
+}
@@ -0,0 +1,221 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.metrics.impl;
+
+import com.hazelcast.internal.metrics.DynamicMetricsProvider;
+import com.hazelcast.internal.metrics.MetricDescriptor;
+import com.hazelcast.internal.metrics.MetricsCollectionContext;
+import com.hazelcast.internal.metrics.Probe;
+import com.hazelcast.internal.metrics.ProbeLevel;
+import com.hazelcast.internal.metrics.collectors.MetricsCollector;
+import com.hazelcast.logging.Logger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.GENERAL_DISCRIMINATOR_NAME;
+
+/**
+ * Measures the cost of a metrics collection cycle of {@code metricCount}
+ * dynamic metrics, provided by sources with 5 field and 5 method probes,
+ * with a collector discarding the metrics and with one compressing them
+ * like the Management Center publisher does. Run with {@code -prof gc} to
+ * see the allocation rate.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class MetricsCollectionBenchmark {
+
+    private static final int PROBES_PER_SOURCE = 10;
+
+    @Param({"50000"})
+    private int metricCount;
+
+    private MetricsRegistryImpl registry;
+    private MetricsCompressor compressor;
+
+    @Setup
+    public void setUp() {
+        registry = new MetricsRegistryImpl(Logger.getLogger(MetricsCollectionBenchmark.class), ProbeLevel.INFO);
+        ProbeSource[] sources = new ProbeSource[metricCount / PROBES_PER_SOURCE];
+        for (int i = 0; i < sources.length; i++) {
+            sources[i] = new ProbeSource("source-" + i, i);
+        }
+        registry.registerDynamicMetricsProvider(new SourcesProvider(sources));
+        compressor = new MetricsCompressor();
+    }
+
+    @Benchmark
+    public void collect(Blackhole blackhole) {
+        registry.collect(new BlackholeCollector(blackhole));
+    }
+
+    @Benchmark
+    public byte[] collectAndCompress() {
+        registry.collect(new CompressingCollector(compressor));
+        return compressor.getBlobAndReset();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(MetricsCollectionBenchmark.class.getSimpleName())
+                .build();
+        new Runner(opt).run();
+    }
+
+    private static final class SourcesProvider implements DynamicMetricsProvider {
+        private final ProbeSource[] sources;
+
+        SourcesProvider(ProbeSource[] sources) {
+            this.sources = sources;
+        }
+
+        @Override
+        public void provideDynamicMetrics(MetricDescriptor descriptor, MetricsCollectionContext context) {
+            for (ProbeSource source : sources) {
+                context.collect(descriptor.copy()
+                                          .withPrefix("benchmark")
+                                          .withDiscriminator(GENERAL_DISCRIMINATOR_NAME, source.name), source);
+            }
+        }
+    }
+
+    @SuppressWarnings("unused")
+    private static final class ProbeSource {
+        private final String name;
+
+        @Probe(name = "field1")
+        private volatile long field1;
+        @Probe(name = "field2")
+        private volatile long field2;
+        @Probe(name = "field3")
+        private volatile long field3;
+        @Probe(name = "field4")
+        private volatile int field4;
+        @Probe(name = "field5")
+        private volatile double field5;
+
+        ProbeSource(String name, long value) {
+            this.name = name;
+            this.field1 = value;
+            this.field2 = value << 1;
+            this.field3 = value << 2;
+            this.field4 = (int) value;
+            this.field5 = value / 2d;
+        }
+
+        @Probe(name = "method1")
+        private long method1() {
+            return field1 + 1000;
+        }
+
+        @Probe(name = "method2")
+        private long method2() {
+            return field2 + 1000;
+        }
+
+        @Probe(name = "method3")
+        private long method3() {
+            return field3 + 1000;
+        }
+
+        @Probe(name = "method4")
+        private int method4() {
+            return field4 + 1000;
+        }
+
+        @Probe(name = "method5")
+        private double method5() {
+            return field5 + 1000;
+        }
+    }
+
+    private static final class BlackholeCollector implements MetricsCollector {
+        private final Blackhole blackhole;
+
+        BlackholeCollector(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Override
+        public void collectLong(MetricDescriptor descriptor, long value) {
+            blackhole.consume(value);
+        }
+
+        @Override
+        public void collectDouble(MetricDescriptor descriptor, double value) {
+            blackhole.consume(value);
+        }
+
+        @Override
+        public void collectException(MetricDescriptor descriptor, Exception e) {
+            throw new AssertionError(e);
+        }
+
+        @Override
+        public void collectNoValue(MetricDescriptor descriptor) {
+            throw new AssertionError(descriptor);
+        }
+    }
+
+    private static final class CompressingCollector implements MetricsCollector {
+        private final MetricsCompressor compressor;
+
+        CompressingCollector(MetricsCompressor compressor) {
+            this.compressor = compressor;
+        }
+
+        @Override
+        public void collectLong(MetricDescriptor descriptor, long value) {
+            compressor.addLong(descriptor, value);
+        }
+
+        @Override
+        public void collectDouble(MetricDescriptor descriptor, double value) {
+            compressor.addDouble(descriptor, value);
+        }
+
+        @Override
+        public void collectException(MetricDescriptor descriptor, Exception e) {
+            throw new AssertionError(e);
+        }
+
+        @Override
+        public void collectNoValue(MetricDescriptor descriptor) {
+            throw new AssertionError(descriptor);
+        }
+    }
+}
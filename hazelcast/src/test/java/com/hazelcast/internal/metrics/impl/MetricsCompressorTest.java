@@ -77,6 +77,26 @@ public class MetricsCompressorTest {
         verify(supplierSpy, only()).get();
     }
 
+    @Test
+    public void testDictionaryKeptAcrossBlobs() {
+        MetricDescriptor metric1 = supplier.get()
+                                           .withPrefix("prefix")
+                                           .withMetric("metricName")
+                                           .withDiscriminator("ds", "dsName1");
+        MetricDescriptor metric2 = metric1.copy().withDiscriminator("ds", "dsName2");
+        compressor.addLong(metric1, 42L);
+        compressor.addLong(metric2, 43L);
+        compressor.getBlobAndReset();
+
+        compressor.addLong(metric2, 44L);
+        byte[] blob = compressor.getBlobAndReset();
+
+        MetricConsumer metricConsumerMock = mock(MetricConsumer.class);
+        MetricsCompressor.extractMetrics(blob, metricConsumerMock, supplierSpy);
+        verify(metricConsumerMock).consumeLong(metric2, 44L);
+        verifyNoMoreInteractions(metricConsumerMock);
+    }
+
     @Test
     public void testSingleDoubleMetric() {
         MetricDescriptor originalMetric = supplier.get()
@@ -70,6 +70,22 @@ public class MetricsDictionaryTest {
         assertEquals(word1Id, dictionary.getDictionaryId("word1"));
     }
 
+    @Test
+    public void testUsedWordCount_perCycle() {
+        dictionary.getDictionaryId("word1");
+        dictionary.getDictionaryId("word2");
+        dictionary.getDictionaryId("word1");
+        assertEquals(2, dictionary.usedWordCount());
+
+        dictionary.nextCycle();
+        int word2Id = dictionary.getDictionaryId("word2");
+        dictionary.getDictionaryId("word3");
+
+        assertEquals(1, word2Id);
+        assertEquals(3, dictionary.size());
+        assertEquals(2, dictionary.usedWordCount());
+    }
+
     @Test
     public void when_tooLongWord_then_fails() {
         String longWord = Stream.generate(() -> "a")
@@ -102,6 +102,6 @@ public class RepairingTaskTest extends HazelcastTestSupport {
         ILogger logger = Logger.getLogger(RepairingTask.class);
 
         return new RepairingTask(hazelcastProperties, invalidationMetaDataFetcher, executionService.getGlobalTaskScheduler(),
-                serializationService, minimalPartitionService, uuid, logger);
+                serializationService, minimalPartitionService, uuid, logger, "test");
     }
 }
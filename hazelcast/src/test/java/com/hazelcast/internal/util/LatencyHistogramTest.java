@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.util;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class LatencyHistogramTest {
+
+    @Test
+    public void bucketIndex_isMonotonic_andCoversBucketRange() {
+        LatencyHistogram histogram = new LatencyHistogram(3);
+        int previous = -1;
+        for (long micros = 0; micros < 100000; micros++) {
+            int index = histogram.bucketIndex(micros);
+            assertTrue(index == previous || index == previous + 1);
+            assertTrue(micros <= histogram.bucketMaxMicros(index));
+            if (index > 0) {
+                assertTrue(micros > histogram.bucketMaxMicros(index - 1));
+            }
+            previous = index;
+        }
+    }
+
+    @Test
+    public void unusedHistogram_reportsNoLatencies() {
+        LatencyHistogram histogram = new LatencyHistogram(4);
+        histogram.updateIntervalPercentiles();
+        assertEquals(0, histogram.count());
+        assertEquals(0, histogram.valueAtPercentile(0.99));
+        assertEquals(0, histogram.getIntervalCount());
+        assertEquals(0, histogram.getIntervalMaxMicros());
+    }
+
+    @Test
+    public void maxTrackableLatency_inLastBucket() {
+        LatencyHistogram histogram = new LatencyHistogram(4);
+        histogram.recordNanos(Long.MAX_VALUE);
+        assertEquals(1, histogram.count());
+        assertEquals((1L << 32) - 1, histogram.valueAtPercentile(1));
+    }
+
+    @Test
+    public void negativeLatency_recordedAsZero() {
+        LatencyHistogram histogram = new LatencyHistogram(4);
+        histogram.recordNanos(-100);
+        assertEquals(1, histogram.count());
+        assertEquals(0, histogram.valueAtPercentile(0.5));
+    }
+
+    @Test
+    public void valueAtPercentile_withinRelativeError() {
+        int precisionBits = 5;
+        LatencyHistogram histogram = new LatencyHistogram(precisionBits);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long[] values = new long[100000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextLong(1, 10000000);
+            histogram.recordNanos(MICROSECONDS.toNanos(values[i]));
+        }
+        Arrays.sort(values);
+
+        for (double percentile : new double[]{0.5, 0.9, 0.99, 0.999, 1}) {
+            long expected = values[(int) Math.ceil(percentile * values.length) - 1];
+            long actual = histogram.valueAtPercentile(percentile);
+            assertTrue(actual >= expected);
+            assertTrue("percentile=" + percentile + ", expected=" + expected + ", actual=" + actual,
+                    actual - expected <= expected >> precisionBits);
+        }
+    }
+
+    @Test
+    public void intervalPercentiles_onlyContainLatenciesSincePreviousUpdate() {
+        LatencyHistogram histogram = new LatencyHistogram(4);
+        for (int i = 0; i < 1000; i++) {
+            histogram.recordNanos(MICROSECONDS.toNanos(1000));
+        }
+        histogram.updateIntervalPercentiles();
+        assertEquals(1000, histogram.getIntervalCount());
+        assertEquals(1023, histogram.getIntervalP50Micros());
+        assertEquals(1023, histogram.getIntervalMaxMicros());
+
+        for (int i = 0; i < 98; i++) {
+            histogram.recordNanos(MICROSECONDS.toNanos(10));
+        }
+        histogram.recordNanos(MICROSECONDS.toNanos(1000));
+        histogram.recordNanos(MICROSECONDS.toNanos(100000));
+        histogram.updateIntervalPercentiles();
+        assertEquals(100, histogram.getIntervalCount());
+        assertEquals(10, histogram.getIntervalP50Micros());
+        assertEquals(1023, histogram.getIntervalP99Micros());
+        assertTrue(histogram.getIntervalP999Micros() >= 100000);
+        assertEquals(histogram.getIntervalP999Micros(), histogram.getIntervalMaxMicros());
+
+        histogram.updateIntervalPercentiles();
+        assertEquals(0, histogram.getIntervalCount());
+        assertEquals(0, histogram.getIntervalP99Micros());
+        assertEquals(0, histogram.getIntervalMaxMicros());
+        assertEquals(1100, histogram.count());
+    }
+
+    @Test
+    public void intervalPercentiles_sameForCollectorsOfSameInterval() {
+        LatencyHistogram histogram = new LatencyHistogram(4, SECONDS.toMillis(5));
+        long now = System.nanoTime();
+        histogram.recordNanos(MICROSECONDS.toNanos(1000));
+        histogram.updateIntervalPercentiles(now);
+        assertEquals(1, histogram.getIntervalCount());
+
+        // another collector in the same collection round
+        histogram.recordNanos(MICROSECONDS.toNanos(10));
+        histogram.updateIntervalPercentiles(now + MILLISECONDS.toNanos(100));
+        assertEquals(1, histogram.getIntervalCount());
+        assertEquals(1023, histogram.getIntervalMaxMicros());
+
+        // the next collection round, slightly early
+        histogram.updateIntervalPercentiles(now + MILLISECONDS.toNanos(4900));
+        assertEquals(1, histogram.getIntervalCount());
+        assertEquals(10, histogram.getIntervalMaxMicros());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void whenPrecisionOutOfRange_thenFail() {
+        new LatencyHistogram(LatencyHistogram.MAX_PRECISION_BITS + 1);
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.util.collection;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class TopNTest {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testZeroLimit() {
+        new TopN<Integer>(0, Comparator.naturalOrder());
+    }
+
+    @Test
+    public void testFewerItemsThanLimit() {
+        TopN<Integer> topN = new TopN<>(10, Comparator.naturalOrder());
+        topN.addAll(asList(3, 1, 2));
+
+        assertEquals(3, topN.size());
+        assertEquals(asList(1, 2, 3), topN.toSortedList());
+    }
+
+    @Test
+    public void testKeepsSmallestItems() {
+        TopN<Integer> topN = new TopN<>(3, Comparator.naturalOrder());
+        assertTrue(topN.add(5));
+        assertTrue(topN.add(4));
+        assertTrue(topN.add(3));
+        assertFalse(topN.add(6));
+        assertTrue(topN.add(1));
+        assertFalse(topN.add(4));
+
+        assertEquals(3, topN.size());
+        assertEquals(asList(1, 3, 4), topN.toSortedList());
+    }
+
+    @Test
+    public void testReversedComparator() {
+        TopN<Integer> topN = new TopN<>(2, Comparator.<Integer>reverseOrder());
+        topN.addAll(asList(1, 5, 3, 4));
+
+        assertEquals(asList(5, 4), topN.toSortedList());
+    }
+
+    @Test
+    public void testLargeLimit() {
+        TopN<Integer> topN = new TopN<>(Long.MAX_VALUE, Comparator.naturalOrder());
+        topN.addAll(asList(2, 1));
+
+        assertEquals(asList(1, 2), topN.toSortedList());
+    }
+
+    @Test
+    public void testMatchesSortedPrefix() {
+        Random random = new Random();
+        List<Integer> items = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            items.add(random.nextInt(100));
+        }
+
+        TopN<Integer> topN = new TopN<>(50, Comparator.naturalOrder());
+        topN.addAll(items);
+
+        Collections.sort(items);
+        assertEquals(items.subList(0, 50), topN.toSortedList());
+    }
+}
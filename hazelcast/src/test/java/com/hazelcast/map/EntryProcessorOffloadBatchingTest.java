@@ -0,0 +1,306 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map;
+
+import com.hazelcast.cluster.Member;
+import com.hazelcast.config.Config;
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.config.MapConfig;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.Offloadable;
+import com.hazelcast.core.ReadOnly;
+import com.hazelcast.internal.monitor.impl.LocalMapStatsImpl;
+import com.hazelcast.map.impl.MapService;
+import com.hazelcast.map.impl.MapServiceContext;
+import com.hazelcast.query.Predicates;
+import com.hazelcast.test.HazelcastParallelParametersRunnerFactory;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+import org.junit.runners.Parameterized.UseParametersRunnerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Future;
+
+import static com.hazelcast.config.InMemoryFormat.BINARY;
+import static com.hazelcast.config.InMemoryFormat.OBJECT;
+import static com.hazelcast.spi.properties.ClusterProperty.MAP_ENTRY_PROCESSOR_OFFLOAD_BATCHING_ENABLED;
+import static com.hazelcast.test.Accessors.getNodeEngineImpl;
+import static com.hazelcast.test.Accessors.getPartitionService;
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+@RunWith(Parameterized.class)
+@UseParametersRunnerFactory(HazelcastParallelParametersRunnerFactory.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class EntryProcessorOffloadBatchingTest extends HazelcastTestSupport {
+
+    private static final String MAP_NAME = "EntryProcessorOffloadBatchingTest";
+    private static final int ENTRY_COUNT = 1000;
+
+    @Parameter(0)
+    public InMemoryFormat inMemoryFormat;
+
+    @Parameter(1)
+    public int backupCount;
+
+    private HazelcastInstance[] instances;
+    private IMap<Integer, Integer> map;
+
+    @Parameters(name = "{index}: {0} backups={1}")
+    public static Collection<Object[]> data() {
+        return asList(new Object[][]{
+                {BINARY, 0}, {OBJECT, 0},
+                {BINARY, 1}, {OBJECT, 1},
+        });
+    }
+
+    @Override
+    protected Config getConfig() {
+        Config config = smallInstanceConfig();
+        config.setProperty(MAP_ENTRY_PROCESSOR_OFFLOAD_BATCHING_ENABLED.getName(), "true");
+        config.addMapConfig(new MapConfig(MAP_NAME)
+                .setInMemoryFormat(inMemoryFormat)
+                .setBackupCount(backupCount));
+        return config;
+    }
+
+    @Before
+    public void setUp() {
+        instances = createHazelcastInstanceFactory(2).newInstances(getConfig());
+        map = instances[1].getMap(MAP_NAME);
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.put(i, i);
+        }
+    }
+
+    @Test
+    public void testExecuteOnEntries() {
+        Map<Integer, Integer> results = map.executeOnEntries(new IncrementingOffloadable());
+
+        assertEquals(ENTRY_COUNT, results.size());
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            assertEquals(i, (int) results.get(i));
+            assertEquals(i + 1, (int) map.get(i));
+            assertFalse(map.isLocked(i));
+        }
+        assertEquals(ENTRY_COUNT, getOffloadedEntryCount());
+        assertBackupsEventually(1);
+    }
+
+    @Test
+    public void testExecuteOnEntries_withPredicate() {
+        Map<Integer, Integer> results = map.executeOnEntries(new IncrementingOffloadable(), Predicates.sql("this < 10"));
+
+        assertEquals(10, results.size());
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            assertEquals(i < 10 ? i + 1 : i, (int) map.get(i));
+        }
+    }
+
+    @Test
+    public void testExecuteOnKeys() {
+        Set<Integer> keys = new HashSet<>();
+        for (int i = 0; i < ENTRY_COUNT / 2; i++) {
+            keys.add(i);
+        }
+        keys.add(ENTRY_COUNT);
+
+        Map<Integer, Integer> results = map.executeOnKeys(keys, new IncrementingOffloadable());
+
+        assertEquals(keys.size(), results.size());
+        assertEquals(0, (int) map.get(ENTRY_COUNT));
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            assertEquals(i < ENTRY_COUNT / 2 ? i + 1 : i, (int) map.get(i));
+        }
+        assertEquals(keys.size(), getOffloadedEntryCount());
+    }
+
+    @Test
+    public void testExecuteOnEntries_readOnly() {
+        Map<Integer, Integer> results = map.executeOnEntries(new ReadingOffloadable());
+
+        assertEquals(ENTRY_COUNT, results.size());
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            assertEquals(i, (int) results.get(i));
+            assertEquals(i, (int) map.get(i));
+        }
+        assertEquals(ENTRY_COUNT, getOffloadedEntryCount());
+    }
+
+    @Test
+    public void testConcurrentExecuteOnEntries_doNotLoseUpdates() throws Exception {
+        int concurrency = 4;
+        List<Future> futures = new ArrayList<>();
+        for (int i = 0; i < concurrency; i++) {
+            futures.add(spawn(() -> map.executeOnEntries(new IncrementingOffloadable())));
+        }
+        for (Future future : futures) {
+            future.get();
+        }
+
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            assertEquals(i + concurrency, (int) map.get(i));
+        }
+    }
+
+    @Test
+    public void testExecuteOnKeys_waitsForLockedKey() throws Exception {
+        map.lock(1);
+        Future future = spawn(() -> map.executeOnKeys(new HashSet<>(asList(1, 2)), new IncrementingOffloadable()));
+
+        assertTrueAllTheTime(() -> assertFalse(future.isDone()), 2);
+        map.unlock(1);
+        future.get();
+
+        assertEquals(2, (int) map.get(1));
+        assertEquals(3, (int) map.get(2));
+    }
+
+    @Test
+    public void testExecuteOnEntries_notDelayedByLockOfAbsentKey() {
+        map.lock(ENTRY_COUNT);
+
+        map.executeOnEntries(new IncrementingOffloadable());
+
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            assertEquals(i + 1, (int) map.get(i));
+        }
+        assertTrue(map.isLocked(ENTRY_COUNT));
+        map.unlock(ENTRY_COUNT);
+    }
+
+    @Test
+    public void testExecuteOnKeys_notDelayedByLockOfOtherKey() {
+        map.lock(2);
+
+        map.executeOnKeys(new HashSet<>(asList(1, 3)), new IncrementingOffloadable());
+
+        assertEquals(2, (int) map.get(1));
+        assertEquals(4, (int) map.get(3));
+        assertTrue(map.isLocked(2));
+        map.unlock(2);
+    }
+
+    @Test
+    public void testExecuteOnEntries_failureAppliesNothingInFailedPartition() {
+        try {
+            map.executeOnEntries(new FailingOffloadable());
+            fail();
+        } catch (IllegalStateException expected) {
+            ignore(expected);
+        }
+
+        int failedPartitionId = getPartitionService(instances[1]).getPartitionId(FailingOffloadable.FAILING_KEY);
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            boolean inFailedPartition = getPartitionService(instances[1]).getPartitionId(i) == failedPartitionId;
+            assertEquals(inFailedPartition ? i : -1, (int) map.get(i));
+            assertFalse(map.isLocked(i));
+        }
+    }
+
+    private long getOffloadedEntryCount() {
+        long count = 0;
+        for (HazelcastInstance instance : instances) {
+            MapService mapService = getNodeEngineImpl(instance).getService(MapService.SERVICE_NAME);
+            MapServiceContext mapServiceContext = mapService.getMapServiceContext();
+            LocalMapStatsImpl stats = mapServiceContext.getLocalMapStatsProvider().getLocalMapStatsImpl(MAP_NAME);
+            count += stats.getOffloadedEntryProcessorEntryCount();
+            assertTrue(stats.getOffloadedEntryProcessorBatchCount() > 0);
+        }
+        return count;
+    }
+
+    private void assertBackupsEventually(int delta) {
+        if (backupCount == 0) {
+            return;
+        }
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            int key = i;
+            Member owner = instances[0].getPartitionService().getPartition(key).getOwner();
+            HazelcastInstance backupInstance = owner.localMember() ? instances[1] : instances[0];
+            assertEqualsEventually(() -> readFromMapBackup(backupInstance, MAP_NAME, key), i + delta);
+        }
+    }
+
+    private static class IncrementingOffloadable implements EntryProcessor<Integer, Integer, Integer>, Offloadable {
+
+        @Override
+        public Integer process(Map.Entry<Integer, Integer> entry) {
+            Integer value = entry.getValue();
+            entry.setValue(value == null ? 0 : value + 1);
+            return value == null ? -1 : value;
+        }
+
+        @Override
+        public String getExecutorName() {
+            return OFFLOADABLE_EXECUTOR;
+        }
+    }
+
+    private static class ReadingOffloadable implements EntryProcessor<Integer, Integer, Integer>, Offloadable, ReadOnly {
+
+        @Override
+        public Integer process(Map.Entry<Integer, Integer> entry) {
+            return entry.getValue();
+        }
+
+        @Override
+        public EntryProcessor<Integer, Integer, Integer> getBackupProcessor() {
+            return null;
+        }
+
+        @Override
+        public String getExecutorName() {
+            return OFFLOADABLE_EXECUTOR;
+        }
+    }
+
+    private static class FailingOffloadable implements EntryProcessor<Integer, Integer, Integer>, Offloadable {
+
+        static final int FAILING_KEY = ENTRY_COUNT / 2;
+
+        @Override
+        public Integer process(Map.Entry<Integer, Integer> entry) {
+            entry.setValue(-1);
+            if (entry.getKey() == FAILING_KEY) {
+                throw new IllegalStateException("EP exception");
+            }
+            return null;
+        }
+
+        @Override
+        public String getExecutorName() {
+            return OFFLOADABLE_EXECUTOR;
+        }
+    }
+}
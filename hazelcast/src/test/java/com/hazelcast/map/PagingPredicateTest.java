@@ -254,6 +254,88 @@ public class PagingPredicateTest extends HazelcastTestSupport {
         assertIterableEquals(values, 7, 8, 8);
     }
 
+    @Test
+    public void testEqualValuesPagingWithOrderedIndex() {
+        map.addIndex(IndexType.SORTED, "this");
+        // keys[50-99] values[0-49]
+        for (int i = size; i < 2 * size; i++) {
+            map.put(i, i - size);
+        }
+
+        // entries which has value less than 8, not evaluated by the index
+        PagingPredicate<Integer, Integer> predicate
+                = Predicates.pagingPredicate(new ValueLessEqualPredicate(8), pageSize);
+
+        Collection<Integer> values = map.values(predicate);
+        assertIterableEquals(values, 0, 0, 1, 1, 2);
+
+        predicate.nextPage();
+        values = map.values(predicate);
+        assertIterableEquals(values, 2, 3, 3, 4, 4);
+
+        predicate.nextPage();
+        values = map.values(predicate);
+        assertIterableEquals(values, 5, 5, 6, 6, 7);
+
+        predicate.nextPage();
+        values = map.values(predicate);
+        assertIterableEquals(values, 7, 8, 8);
+
+        predicate.nextPage();
+        values = map.values(predicate);
+        assertEquals(0, values.size());
+
+        predicate.previousPage();
+        predicate.previousPage();
+        values = map.values(predicate);
+        assertIterableEquals(values, 5, 5, 6, 6, 7);
+    }
+
+    @Test
+    public void testKeyPagingWithOrderedIndex() {
+        map.addIndex(IndexType.SORTED, "__key");
+        map.clear();
+        // keys [50-1] values [0-49]
+        for (int i = 0; i < size; i++) {
+            map.put(size - i, i);
+        }
+
+        PagingPredicate<Integer, Integer> predicate
+                = Predicates.pagingPredicate(new ValueLessEqualPredicate(8), pageSize);
+
+        Set<Integer> keySet = map.keySet(predicate);
+        assertIterableEquals(keySet, 42, 43, 44, 45, 46);
+
+        predicate.nextPage();
+        keySet = map.keySet(predicate);
+        assertIterableEquals(keySet, 47, 48, 49, 50);
+
+        predicate.nextPage();
+        keySet = map.keySet(predicate);
+        assertEquals(0, keySet.size());
+    }
+
+    @Test
+    public void testPagingWithOrderedIndexWithoutFiltering() {
+        map.addIndex(IndexType.SORTED, "this");
+
+        List<Integer> result = new ArrayList<>();
+        PagingPredicate<Integer, Integer> predicate = Predicates.pagingPredicate(pageSize);
+        Collection<Integer> values = map.values(predicate);
+        while (values.size() > 0) {
+            assertEquals(pageSize, values.size());
+            result.addAll(values);
+
+            predicate.nextPage();
+            values = map.values(predicate);
+        }
+
+        assertEquals(size, result.size());
+        for (int i = 0; i < size; i++) {
+            assertEquals(i, (int) result.get(i));
+        }
+    }
+
     @Test
     public void testGoToPreviousPageBeforeTheStart() {
         final PagingPredicate<Integer, Integer> predicate = Predicates.pagingPredicate(pageSize);
@@ -571,6 +653,20 @@ public class PagingPredicateTest extends HazelcastTestSupport {
         }
     }
 
+    static class ValueLessEqualPredicate implements Predicate<Integer, Integer> {
+
+        final int max;
+
+        ValueLessEqualPredicate(int max) {
+            this.max = max;
+        }
+
+        @Override
+        public boolean apply(Map.Entry<Integer, Integer> mapEntry) {
+            return mapEntry.getValue() <= max;
+        }
+    }
+
     static class CustomComparator implements Comparator<Map.Entry<Integer, Integer>>, Serializable {
 
         @Override
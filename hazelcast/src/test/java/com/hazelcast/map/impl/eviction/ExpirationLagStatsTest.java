@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.eviction;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.internal.monitor.impl.LocalMapStatsImpl;
+import com.hazelcast.internal.util.Clock;
+import com.hazelcast.map.IMap;
+import com.hazelcast.map.impl.MapService;
+import com.hazelcast.map.impl.recordstore.RecordStore;
+import com.hazelcast.spi.properties.ClusterProperty;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static com.hazelcast.map.impl.eviction.MapClearExpiredRecordsTask.PROP_CLEANUP_ENABLED;
+import static com.hazelcast.map.impl.eviction.MapClearExpiredRecordsTask.PROP_CLEANUP_PERCENTAGE;
+import static com.hazelcast.map.impl.eviction.MapClearExpiredRecordsTask.PROP_TASK_PERIOD_SECONDS;
+import static com.hazelcast.test.Accessors.getNodeEngineImpl;
+import static java.util.concurrent.TimeUnit.HOURS;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class ExpirationLagStatsTest extends HazelcastTestSupport {
+
+    private static final int ENTRY_COUNT = 5000;
+
+    @Test
+    public void expired_entries_are_removed_by_background_task_and_lag_is_recorded() {
+        Config config = smallInstanceConfig();
+        config.setProperty(PROP_TASK_PERIOD_SECONDS, "1");
+        config.setProperty(PROP_CLEANUP_PERCENTAGE, "100");
+        HazelcastInstance node = createHazelcastInstance(config);
+        IMap<Integer, Integer> map = node.getMap("test");
+
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            // spread expiration times over a few seconds
+            map.set(i, i, 1 + i % 3, SECONDS);
+        }
+        map.set(-1, -1, 1, HOURS);
+
+        // entries are not touched, only the background task can remove them
+        assertTrueEventually(() -> assertEquals(1, map.getLocalMapStats().getOwnedEntryCount()));
+
+        LocalMapStatsImpl stats = (LocalMapStatsImpl) map.getLocalMapStats();
+        assertEquals(ENTRY_COUNT, stats.getExpirationCount());
+        assertTrue(stats.getMaxExpirationLag() >= 0);
+        assertTrue(stats.getTotalExpirationLag() >= stats.getMaxExpirationLag());
+        assertEquals(Integer.valueOf(-1), map.get(-1));
+    }
+
+    @Test
+    public void expired_entries_removed_per_run_are_capped_by_cleanup_percentage() {
+        Config config = smallInstanceConfig();
+        config.setProperty(ClusterProperty.PARTITION_COUNT.getName(), "1");
+        config.setProperty(PROP_CLEANUP_ENABLED, "false");
+        config.setProperty("hazelcast.internal.map.expired.key.scan.timeout.nanos", String.valueOf(MINUTES.toNanos(1)));
+        HazelcastInstance node = createHazelcastInstance(config);
+        IMap<Integer, Integer> map = node.getMap("test");
+
+        for (int i = 0; i < 1000; i++) {
+            map.set(i, i, 1, SECONDS);
+        }
+        sleepAtLeastSeconds(2);
+
+        MapService mapService = getNodeEngineImpl(node).getService(MapService.SERVICE_NAME);
+        RecordStore recordStore = mapService.getMapServiceContext().getExistingRecordStore(0, "test");
+
+        // 10 percent of 1000 expirable keys
+        recordStore.evictExpiredEntries(10, Clock.currentTimeMillis(), false);
+        assertEquals(900, recordStore.size());
+
+        recordStore.evictExpiredEntries(100, Clock.currentTimeMillis(), false);
+        assertEquals(0, recordStore.size());
+    }
+}
@@ -0,0 +1,263 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.operation;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.MapConfig;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.internal.cluster.Versions;
+import com.hazelcast.internal.nio.BufferObjectDataInput;
+import com.hazelcast.internal.nio.BufferObjectDataOutput;
+import com.hazelcast.internal.partition.impl.InternalPartitionServiceImpl;
+import com.hazelcast.internal.partition.impl.PartitionReplicaManager;
+import com.hazelcast.internal.partition.operation.PartitionReplicaSyncRequest;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.services.DistributedObjectNamespace;
+import com.hazelcast.internal.services.ServiceNamespace;
+import com.hazelcast.internal.util.counters.MwCounter;
+import com.hazelcast.map.IMap;
+import com.hazelcast.map.impl.MapService;
+import com.hazelcast.map.impl.MapServiceContext;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.map.impl.recordstore.RecordStore;
+import com.hazelcast.spi.impl.NodeEngineImpl;
+import com.hazelcast.spi.impl.PartitionSpecificRunnable;
+import com.hazelcast.spi.properties.ClusterProperty;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.TestHazelcastInstanceFactory;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import com.hazelcast.wan.impl.CallerProvenance;
+import com.hazelcast.wan.impl.merkletree.ArrayMerkleTree;
+import com.hazelcast.wan.impl.merkletree.MerkleTreeView;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+import static com.hazelcast.test.Accessors.getNodeEngineImpl;
+import static com.hazelcast.test.Accessors.getPartitionService;
+import static com.hazelcast.test.Accessors.getSerializationService;
+import static com.hazelcast.test.starter.ReflectionUtils.getFieldValueReflectively;
+import static java.util.Collections.singleton;
+import static java.util.Collections.singletonList;
+import static java.util.Collections.singletonMap;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class MapDeltaReplicaSyncTest extends HazelcastTestSupport {
+
+    private static final int PARTITION_COUNT = 3;
+    private static final int ENTRY_COUNT = 3000;
+
+    private HazelcastInstance primary;
+    private HazelcastInstance backup;
+    private int partitionId;
+
+    @Before
+    public void setUp() {
+        Config config = smallInstanceConfig()
+                .setProperty(ClusterProperty.PARTITION_COUNT.getName(), String.valueOf(PARTITION_COUNT))
+                .setProperty(ClusterProperty.PARTITION_BACKUP_SYNC_INTERVAL.getName(), "1");
+        config.addMapConfig(new MapConfig("delta-*").setBackupCount(1));
+        config.getMapConfig("delta-*").getMerkleTreeConfig().setEnabled(true).setDepth(8);
+
+        TestHazelcastInstanceFactory factory = createHazelcastInstanceFactory(2);
+        HazelcastInstance[] instances = factory.newInstances(config);
+        warmUpPartitions(instances);
+
+        primary = instances[0];
+        backup = instances[1];
+        partitionId = getPartitionId(primary);
+    }
+
+    @Test
+    public void testBackupReplicaSynchronizedWithDelta() throws Exception {
+        String mapName = "delta-map";
+        fill(mapName);
+
+        Map<Data, Object> primaryEntries = getEntries(primary, mapName);
+        runOnPartitionThread(backup, recordStore(backup, mapName), store -> {
+            int i = 0;
+            for (Data key : primaryEntries.keySet()) {
+                if (i == 0) {
+                    store.removeBackup(key, CallerProvenance.NOT_WAN);
+                } else if (i == 1) {
+                    store.putBackup(key, "stale", -1, -1, -1, CallerProvenance.NOT_WAN);
+                } else {
+                    break;
+                }
+                i++;
+            }
+            Data strayKey = getNodeEngineImpl(backup).toData(generateKeyForPartition(backup, partitionId));
+            store.putBackup(strayKey, "stray", -1, -1, -1, CallerProvenance.NOT_WAN);
+        }, mapName);
+
+        assertEquals(primaryEntries, getEntries(primary, mapName));
+        assertBackupEquals(mapName, primaryEntries);
+        assertTrue(getCounter(primary, "deltaReplicaSyncCounter") > 0);
+        assertTrue(getCounter(primary, "deltaReplicaSyncSavedBytes") > 0);
+    }
+
+    @Test
+    public void testBackupReplicaSynchronizedWithDelta_byAntiEntropy() throws Exception {
+        String mapName = "delta-anti-entropy-map";
+        fill(mapName);
+
+        Map<Data, Object> primaryEntries = getEntries(primary, mapName);
+        RecordStore<Record> recordStore = recordStore(backup, mapName);
+        DistributedObjectNamespace namespace = new DistributedObjectNamespace(MapService.SERVICE_NAME, mapName);
+        // lose an entry and the replica version of the backup, the anti-entropy operation handled
+        // on the partition thread of the backup then requests the sync
+        runOnPartitionThread(backup, () -> {
+            recordStore.removeBackup(primaryEntries.keySet().iterator().next(), CallerProvenance.NOT_WAN);
+            getReplicaManager(backup).clearPartitionReplicaVersions(partitionId, namespace);
+        });
+
+        assertBackupEquals(mapName, primaryEntries);
+        assertTrueEventually(() -> assertTrue(getCounter(primary, "deltaReplicaSyncCounter") > 0));
+        assertEquals(0, getCounter(backup, "deltaReplicaSyncSkippedCounter"));
+    }
+
+    @Test
+    public void testSyncRequest_whenPreviousClusterVersion_thenMerkleTreesNotSerialized() throws Exception {
+        DistributedObjectNamespace namespace = new DistributedObjectNamespace(MapService.SERVICE_NAME, "delta-map");
+        PartitionReplicaSyncRequest request = new PartitionReplicaSyncRequest(partitionId, singletonList(namespace), 1,
+                singletonMap(namespace, new ArrayMerkleTree(8)));
+        InternalSerializationService ss = getSerializationService(primary);
+
+        BufferObjectDataOutput out = ss.createObjectDataOutput();
+        out.setVersion(Versions.V4_1);
+        request.writeData(out);
+        BufferObjectDataInput in = ss.createObjectDataInput(out.toByteArray());
+        in.setVersion(Versions.V4_1);
+        PartitionReplicaSyncRequest deserialized = new PartitionReplicaSyncRequest();
+        deserialized.readData(in);
+
+        assertEquals(out.position(), in.position());
+        Map<ServiceNamespace, MerkleTreeView> merkleTrees = getFieldValueReflectively(deserialized, "merkleTrees");
+        assertTrue(merkleTrees.isEmpty());
+    }
+
+    @Test
+    public void testBackupReplicaSynchronizedInFull_whenMerkleTreesDisabled() throws Exception {
+        String mapName = "full-map";
+        fill(mapName);
+
+        Map<Data, Object> primaryEntries = getEntries(primary, mapName);
+        runOnPartitionThread(backup, recordStore(backup, mapName), RecordStore::reset, mapName);
+
+        assertBackupEquals(mapName, primaryEntries);
+        assertEquals(0, getCounter(primary, "deltaReplicaSyncCounter"));
+    }
+
+    private void fill(String mapName) {
+        IMap<Integer, String> map = primary.getMap(mapName);
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.put(i, "value-" + i);
+        }
+    }
+
+    private void assertBackupEquals(String mapName, Map<Data, Object> expected) {
+        assertTrueEventually(() -> assertEquals(expected, getEntries(backup, mapName)));
+    }
+
+    /**
+     * Applies the modification to the backup replica and triggers the replica sync
+     * on the partition thread, as the backup operations and anti-entropy do.
+     */
+    private void runOnPartitionThread(HazelcastInstance instance, RecordStore<Record> recordStore,
+                                      RecordStoreTask task, String mapName) throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        NodeEngineImpl nodeEngine = getNodeEngineImpl(instance);
+        nodeEngine.getOperationService().execute(new PartitionSpecificRunnable() {
+            @Override
+            public int getPartitionId() {
+                return partitionId;
+            }
+
+            @Override
+            public void run() {
+                try {
+                    task.run(recordStore);
+                    InternalPartitionServiceImpl partitionService = (InternalPartitionServiceImpl) getPartitionService(instance);
+                    partitionService.getReplicaManager().triggerPartitionReplicaSync(partitionId,
+                            singleton(new DistributedObjectNamespace(MapService.SERVICE_NAME, mapName)), 1);
+                } finally {
+                    latch.countDown();
+                }
+            }
+        });
+        assertOpenEventually(latch);
+    }
+
+    private void runOnPartitionThread(HazelcastInstance instance, Runnable task) {
+        CountDownLatch latch = new CountDownLatch(1);
+        getNodeEngineImpl(instance).getOperationService().execute(new PartitionSpecificRunnable() {
+            @Override
+            public int getPartitionId() {
+                return partitionId;
+            }
+
+            @Override
+            public void run() {
+                try {
+                    task.run();
+                } finally {
+                    latch.countDown();
+                }
+            }
+        });
+        assertOpenEventually(latch);
+    }
+
+    private static PartitionReplicaManager getReplicaManager(HazelcastInstance instance) {
+        return ((InternalPartitionServiceImpl) getPartitionService(instance)).getReplicaManager();
+    }
+
+    private RecordStore<Record> recordStore(HazelcastInstance instance, String mapName) {
+        MapService mapService = getNodeEngineImpl(instance).getService(MapService.SERVICE_NAME);
+        MapServiceContext mapServiceContext = mapService.getMapServiceContext();
+        return mapServiceContext.getRecordStore(partitionId, mapName);
+    }
+
+    private Map<Data, Object> getEntries(HazelcastInstance instance, String mapName) {
+        NodeEngineImpl nodeEngine = getNodeEngineImpl(instance);
+        Map<Data, Object> entries = new HashMap<>();
+        recordStore(instance, mapName).forEach((key, record) -> entries.put(key, nodeEngine.toObject(record.getValue())),
+                true, true);
+        return entries;
+    }
+
+    private static long getCounter(HazelcastInstance instance, String name) throws Exception {
+        MwCounter counter = getFieldValueReflectively(getReplicaManager(instance), name);
+        return counter.get();
+    }
+
+    private interface RecordStoreTask {
+
+        void run(RecordStore<Record> recordStore);
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.query;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import com.hazelcast.nio.serialization.ClassDefinition;
+import com.hazelcast.nio.serialization.ClassDefinitionBuilder;
+import com.hazelcast.nio.serialization.GenericRecord;
+import com.hazelcast.nio.serialization.GenericRecordBuilder;
+import com.hazelcast.query.PagingPredicate;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.Predicates;
+import com.hazelcast.test.HazelcastParallelParametersRunnerFactory;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+import org.junit.runners.Parameterized.UseParametersRunnerFactory;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.IntPredicate;
+
+import static com.hazelcast.query.Predicates.and;
+import static com.hazelcast.query.Predicates.between;
+import static com.hazelcast.query.Predicates.equal;
+import static com.hazelcast.query.Predicates.greaterThan;
+import static com.hazelcast.query.Predicates.in;
+import static com.hazelcast.query.Predicates.not;
+import static com.hazelcast.query.Predicates.or;
+import static com.hazelcast.spi.properties.ClusterProperty.QUERY_COMPILED_PORTABLE_PREDICATES;
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+
+@RunWith(Parameterized.class)
+@UseParametersRunnerFactory(HazelcastParallelParametersRunnerFactory.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class CompiledPortablePredicateQueryTest extends HazelcastTestSupport {
+
+    private static final int ENTRY_COUNT = 1000;
+
+    @Parameters(name = "compiled:{0}")
+    public static Collection<Object> parameters() {
+        return asList(new Object[]{false, true});
+    }
+
+    @Parameter
+    public boolean compiled;
+
+    private IMap<Integer, GenericRecord> map;
+
+    @Before
+    public void setUp() {
+        Config config = smallInstanceConfig()
+                .setProperty(QUERY_COMPILED_PORTABLE_PREDICATES.getName(), String.valueOf(compiled));
+        HazelcastInstance[] instances = createHazelcastInstanceFactory(2).newInstances(config);
+        map = instances[0].getMap(randomMapName());
+
+        ClassDefinition definition = new ClassDefinitionBuilder(1, 1)
+                .addIntField("id")
+                .addDoubleField("price")
+                .addStringField("status")
+                .build();
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.put(i, GenericRecordBuilder.portable(definition)
+                    .setInt("id", i)
+                    .setDouble("price", i / 10d)
+                    .setString("status", i % 3 == 0 ? "CLOSED" : "OPEN")
+                    .build());
+        }
+    }
+
+    @Test
+    public void testEqual() {
+        assertKeys(equal("status", "CLOSED"), id -> id % 3 == 0);
+    }
+
+    @Test
+    public void testIn() {
+        assertKeys(in("id", 1, 2, 3, 5000), id -> id >= 1 && id <= 3);
+    }
+
+    @Test
+    public void testBetween() {
+        assertKeys(between("price", 10, 20), id -> id >= 100 && id <= 200);
+    }
+
+    @Test
+    public void testCompound() {
+        assertKeys(and(greaterThan("id", 500), not(equal("status", "CLOSED"))), id -> id > 500 && id % 3 != 0);
+        assertKeys(or(equal("id", 7), between("price", 99.95, 100.05)), id -> id == 7 || id == 1000);
+    }
+
+    @Test
+    public void testUnsupportedPredicate() {
+        assertKeys(Predicates.like("status", "CLO%"), id -> id % 3 == 0);
+    }
+
+    @Test
+    public void testPagingPredicate() {
+        PagingPredicate<Integer, GenericRecord> predicate = Predicates.pagingPredicate(equal("status", "OPEN"), 10);
+        assertEquals(10, map.keySet(predicate).size());
+        predicate.nextPage();
+        assertEquals(10, map.keySet(predicate).size());
+    }
+
+    private void assertKeys(Predicate<Integer, GenericRecord> predicate, IntPredicate expected) {
+        Set<Integer> expectedKeys = new HashSet<>();
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            if (expected.test(i)) {
+                expectedKeys.add(i);
+            }
+        }
+        assertEquals(expectedKeys, map.keySet(predicate));
+    }
+}
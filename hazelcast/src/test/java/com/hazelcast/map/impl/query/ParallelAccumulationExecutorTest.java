@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.query;
+
+import com.hazelcast.aggregation.Aggregators;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.internal.util.collection.PartitionIdSet;
+import com.hazelcast.internal.util.executor.NamedThreadPoolExecutor;
+import com.hazelcast.internal.util.executor.PoolExecutorThreadFactory;
+import com.hazelcast.query.impl.QueryableEntry;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static com.hazelcast.map.impl.query.ParallelAccumulationExecutor.MAX_CHUNK_SIZE;
+import static com.hazelcast.map.impl.query.ParallelAccumulationExecutor.MIN_CHUNK_SIZE;
+import static java.lang.Thread.currentThread;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class ParallelAccumulationExecutorTest {
+
+    private static final int THREAD_COUNT = 2;
+
+    private final NamedThreadPoolExecutor pool = new NamedThreadPoolExecutor(UUID.randomUUID().toString(),
+            THREAD_COUNT, THREAD_COUNT, 100, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+            new PoolExecutorThreadFactory(UUID.randomUUID().toString(), currentThread().getContextClassLoader()));
+
+    private final ParallelAccumulationExecutor executor = new ParallelAccumulationExecutor(pool,
+            new DefaultSerializationServiceBuilder().build(), 60000);
+
+    @After
+    public void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    public void chunkSize_adaptsToEntryCount() {
+        assertEquals(MIN_CHUNK_SIZE, executor.chunkSize(0));
+        assertEquals(MIN_CHUNK_SIZE, executor.chunkSize(10));
+        assertEquals(101, executor.chunkSize(800));
+        assertEquals(MAX_CHUNK_SIZE, executor.chunkSize(Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void execute_sizedEntries() {
+        List<QueryableEntry> entries = entries(10000);
+
+        AggregationResult result = executor.execute(Aggregators.count(), entries, new PartitionIdSet(1));
+
+        assertEquals(10000L, result.getAggregator().aggregate());
+    }
+
+    @Test
+    public void execute_unsizedEntries() {
+        List<QueryableEntry> entries = entries(10000);
+
+        AggregationResult result = executor.execute(Aggregators.count(), entries::iterator, new PartitionIdSet(1));
+
+        assertEquals(10000L, result.getAggregator().aggregate());
+    }
+
+    private static List<QueryableEntry> entries(int count) {
+        QueryableEntry entry = mock(QueryableEntry.class);
+        List<QueryableEntry> entries = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            entries.add(entry);
+        }
+        return entries;
+    }
+}
@@ -99,6 +99,6 @@ public class QueryCacheEventLostListenerTest extends HazelcastTestSupport {
         MapService service = node.getNodeEngine().getService(MapService.SERVICE_NAME);
         MapServiceContext mapServiceContext = service.getMapServiceContext();
         QueryCacheContext queryCacheContext = mapServiceContext.getQueryCacheContext();
-        queryCacheContext.setSubscriberContext(new TestSubscriberContext(queryCacheContext, eventCount, true));
+        queryCacheContext.setSubscriberContext(new TestSubscriberContext(queryCacheContext, mapServiceContext, eventCount, true));
     }
 }
@@ -43,6 +43,7 @@ import org.junit.runner.RunWith;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.assertEquals;
@@ -90,6 +91,91 @@ public class QueryCacheTest extends AbstractQueryCacheTestSupport {
         testWithInitialPopulation(enableInitialPopulation, expectedSizeOfQueryCache, numberOfElementsToBePutToIMap);
     }
 
+    @Test
+    public void testQueryCache_whenInitialPopulation_inChunks() {
+        QueryCacheConfig queryCacheConfig = new QueryCacheConfig(cacheName);
+        Config config = new Config()
+                .setProperty(ClusterProperty.QUERY_CACHE_POPULATION_FETCH_SIZE.getName(), "10");
+        config.getMapConfig(mapName).addQueryCacheConfig(queryCacheConfig);
+
+        IMap<Integer, Employee> map = getIMap(config);
+
+        populateMap(map, 1000);
+        QueryCache<Integer, Employee> queryCache = map.getQueryCache(cacheName, TRUE_PREDICATE, true);
+
+        assertEquals(1000, queryCache.size());
+        assertEquals(999, queryCache.get(999).getId());
+    }
+
+    @Test
+    public void testQueryCache_whenInitialPopulation_inChunks_withConcurrentUpdates() throws Exception {
+        QueryCacheConfig queryCacheConfig = new QueryCacheConfig(cacheName);
+        Config config = new Config()
+                .setProperty(ClusterProperty.QUERY_CACHE_POPULATION_FETCH_SIZE.getName(), "10");
+        config.getMapConfig(mapName).addQueryCacheConfig(queryCacheConfig);
+
+        IMap<Integer, Employee> map = getIMap(config);
+        populateMap(map, 1000);
+
+        Future<?> updater = spawn(() -> {
+            removeEntriesFromMap(map, 0, 500);
+            populateMap(map, 1000, 1500);
+        });
+        QueryCache<Integer, Employee> queryCache = map.getQueryCache(cacheName, TRUE_PREDICATE, true);
+        updater.get();
+
+        assertQueryCacheSizeEventually(1000, queryCache);
+        assertTrueEventually(() -> {
+            assertEquals(map.keySet(), queryCache.keySet());
+            assertEquals(1499, queryCache.get(1499).getId());
+        });
+    }
+
+    @Test
+    public void testQueryCache_withEventBatching() {
+        QueryCacheConfig queryCacheConfig = new QueryCacheConfig(cacheName);
+        Config config = new Config()
+                .setProperty(ClusterProperty.QUERY_CACHE_EVENT_BATCHING_DELAY_MILLIS.getName(), "10");
+        config.getMapConfig(mapName).addQueryCacheConfig(queryCacheConfig);
+
+        IMap<Integer, Employee> map = getIMap(config);
+        QueryCache<Integer, Employee> queryCache = map.getQueryCache(cacheName, TRUE_PREDICATE, true);
+
+        populateMap(map, 1000);
+        removeEntriesFromMap(map, 0, 500);
+
+        assertQueryCacheSizeEventually(500, queryCache);
+        assertTrueEventually(() -> assertEquals(map.keySet(), queryCache.keySet()));
+    }
+
+    @Test
+    public void testQueryCache_whenInitialPopulation_inChunks_withMoreUpdatesThanBufferSize() throws Exception {
+        int bufferSize = 16;
+        QueryCacheConfig queryCacheConfig = new QueryCacheConfig(cacheName).setBufferSize(bufferSize);
+        Config config = new Config()
+                .setProperty(ClusterProperty.PARTITION_COUNT.getName(), "1")
+                .setProperty(ClusterProperty.QUERY_CACHE_POPULATION_FETCH_SIZE.getName(), "10");
+        config.getMapConfig(mapName).addQueryCacheConfig(queryCacheConfig);
+
+        IMap<Integer, Employee> map = getIMap(config);
+        populateMap(map, 1000);
+
+        // every key is updated once, an update lost during the population is never repaired
+        Future<?> updater = spawn(() -> {
+            for (int i = 0; i < 1000; i++) {
+                map.set(i, new Employee(1000 + i));
+            }
+        });
+        QueryCache<Integer, Employee> queryCache = map.getQueryCache(cacheName, TRUE_PREDICATE, true);
+        updater.get();
+
+        assertTrueEventually(() -> {
+            for (int i = 0; i < 1000; i++) {
+                assertEquals(1000 + i, queryCache.get(i).getId());
+            }
+        });
+    }
+
     @Test
     public void testQueryCache_withLocalListener() {
         Config config = new Config().setProperty(ClusterProperty.PARTITION_COUNT.getName(), "1");
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.querycache.event;
+
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static com.hazelcast.core.EntryEventType.ADDED;
+import static com.hazelcast.core.EntryEventType.CLEAR_ALL;
+import static com.hazelcast.core.EntryEventType.REMOVED;
+import static com.hazelcast.core.EntryEventType.UPDATED;
+import static com.hazelcast.map.impl.querycache.event.QueryCacheEventDataBuilder.newQueryCacheEventDataBuilder;
+import static com.hazelcast.map.impl.querycache.publisher.AccumulatorSweeper.END_SEQUENCE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class PackedBatchEventDataTest {
+
+    private final InternalSerializationService serializationService = new DefaultSerializationServiceBuilder().build();
+
+    @Test
+    public void testSerialization_keepsEventsOfEachPartitionInOrder() {
+        List<QueryCacheEventData> events = new ArrayList<>();
+        events.add(event(3, 41, ADDED.getType(), "a", "1"));
+        events.add(event(7, 1, ADDED.getType(), "b", "2"));
+        events.add(event(3, 42, UPDATED.getType(), "a", "3"));
+        events.add(event(7, 2, REMOVED.getType(), "b", null));
+        // the sequence restarts after the accumulator is reset
+        events.add(event(3, 1, ADDED.getType(), "c", "4"));
+        events.add(event(7, 3, CLEAR_ALL.getType(), null, null));
+        events.add(event(7, END_SEQUENCE, 0, null, null));
+
+        PackedBatchEventData deserialized = roundTrip(new PackedBatchEventData(events, "source", 5));
+
+        assertEquals("source", deserialized.getSource());
+        assertEquals(events.size(), deserialized.size());
+        assertEventsOfPartition(events, deserialized, 3);
+        assertEventsOfPartition(events, deserialized, 7);
+    }
+
+    @Test
+    public void testSerialization_withoutValues() {
+        List<QueryCacheEventData> events = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            events.add(event(i % 2, i, ADDED.getType(), "key" + i, null));
+        }
+        PackedBatchEventData batch = new PackedBatchEventData(events, "source", 0);
+
+        PackedBatchEventData deserialized = roundTrip(batch);
+
+        assertEventsOfPartition(events, deserialized, 0);
+        assertEventsOfPartition(events, deserialized, 1);
+        for (QueryCacheEventData eventData : deserialized.getEvents()) {
+            assertNull(eventData.getDataNewValue());
+        }
+        BatchEventData unpacked = new BatchEventData(events, "source", 0);
+        assertTrue(serializationService.toData(batch).totalSize() < serializationService.toData(unpacked).totalSize());
+    }
+
+    @Test
+    public void testSerialization_whenEmpty() {
+        PackedBatchEventData deserialized = roundTrip(new PackedBatchEventData(new ArrayList<>(), "source", 0));
+
+        assertTrue(deserialized.isEmpty());
+    }
+
+    private PackedBatchEventData roundTrip(PackedBatchEventData batch) {
+        Data data = serializationService.toData(batch);
+        return serializationService.toObject(data);
+    }
+
+    private QueryCacheEventData event(int partitionId, long sequence, int eventType, String key, String value) {
+        return newQueryCacheEventDataBuilder(true)
+                .withPartitionId(partitionId)
+                .withSequence(sequence)
+                .withEventType(eventType)
+                .withDataKey(key == null ? null : serializationService.toData(key))
+                .withDataNewValue(value == null ? null : serializationService.toData(value))
+                .build();
+    }
+
+    private static void assertEventsOfPartition(List<QueryCacheEventData> expected, BatchEventData actual,
+                                                int partitionId) {
+        Iterator<QueryCacheEventData> actualEvents = actual.getEvents().stream()
+                .filter(e -> e.getPartitionId() == partitionId).iterator();
+        for (QueryCacheEventData expectedEvent : expected) {
+            if (expectedEvent.getPartitionId() != partitionId) {
+                continue;
+            }
+            QueryCacheEventData actualEvent = actualEvents.next();
+            assertEquals(expectedEvent.getSequence(), actualEvent.getSequence());
+            assertEquals(expectedEvent.getEventType(), actualEvent.getEventType());
+            assertEquals(expectedEvent.getDataKey(), actualEvent.getDataKey());
+            assertEquals(expectedEvent.getDataNewValue(), actualEvent.getDataNewValue());
+        }
+        assertFalse(actualEvents.hasNext());
+    }
+}
@@ -125,7 +125,7 @@ public class QueryCacheRecoveryUponEventLossTest extends HazelcastTestSupport {
         MapService service = node.getNodeEngine().getService(MapService.SERVICE_NAME);
         MapServiceContext mapServiceContext = service.getMapServiceContext();
         QueryCacheContext queryCacheContext = mapServiceContext.getQueryCacheContext();
-        queryCacheContext.setSubscriberContext(new TestSubscriberContext(queryCacheContext, eventCount, true));
+        queryCacheContext.setSubscriberContext(new TestSubscriberContext(queryCacheContext, mapServiceContext, eventCount, true));
     }
 
     private Map getBrokenSequences(HazelcastInstance instance, String mapName, QueryCache queryCache) {
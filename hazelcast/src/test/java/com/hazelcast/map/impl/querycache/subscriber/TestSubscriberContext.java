@@ -16,6 +16,7 @@
 
 package com.hazelcast.map.impl.querycache.subscriber;
 
+import com.hazelcast.map.impl.MapServiceContext;
 import com.hazelcast.map.impl.querycache.QueryCacheContext;
 import com.hazelcast.map.impl.querycache.accumulator.Accumulator;
 import com.hazelcast.map.impl.querycache.accumulator.AccumulatorInfo;
@@ -33,8 +34,9 @@ public class TestSubscriberContext extends NodeSubscriberContext {
     private final int eventCount;
     private final boolean enableEventLoss;
 
-    public TestSubscriberContext(QueryCacheContext context, int eventCount, boolean enableEventLoss) {
-        super(context);
+    public TestSubscriberContext(QueryCacheContext context, MapServiceContext mapServiceContext,
+                                 int eventCount, boolean enableEventLoss) {
+        super(context, mapServiceContext);
         this.eventCount = eventCount;
         this.enableEventLoss = enableEventLoss;
         this.mapSubscriberRegistry = new TestMapSubscriberRegistry(context);
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.recordstore.expiry;
+
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.impl.HeapData;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class ExpirationTimeIndexTest {
+
+    private final ExpirationTimeIndex index = new ExpirationTimeIndex();
+
+    @Test
+    public void empty_index_has_nothing_due() {
+        assertFalse(index.hasDue(Long.MAX_VALUE - 1));
+        assertNull(index.pollDue(Long.MAX_VALUE - 1));
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    public void keys_are_polled_by_expiration_second() {
+        Data key1 = key(1);
+        Data key2 = key(2);
+        Data key3 = key(3);
+        index.add(key1, 10_500);
+        index.add(key2, 10_900);
+        index.add(key3, 12_000);
+
+        assertFalse(index.hasDue(9_999));
+        assertTrue(index.hasDue(10_000));
+
+        List<Data> bucket = index.pollDue(11_999);
+        assertEquals(asList(key1, key2), bucket);
+        assertEquals(10, index.lastPolledSecond());
+        assertNull(index.pollDue(11_999));
+        assertFalse(index.hasDue(11_999));
+
+        assertEquals(asList(key3), index.pollDue(12_000));
+        assertEquals(12, index.lastPolledSecond());
+        assertEquals(0, index.size());
+        assertFalse(index.hasDue(Long.MAX_VALUE - 1));
+    }
+
+    @Test
+    public void key_added_to_earlier_second_is_polled_first() {
+        Data key1 = key(1);
+        Data key2 = key(2);
+        index.add(key1, 20_000);
+        index.addToSecond(key2, 5);
+
+        assertEquals(asList(key2), index.pollDue(30_000));
+        assertEquals(5, index.lastPolledSecond());
+        assertEquals(asList(key1), index.pollDue(30_000));
+        assertEquals(20, index.lastPolledSecond());
+    }
+
+    @Test
+    public void clear_removes_all_keys() {
+        index.add(key(1), 1_000);
+        index.add(key(2), 2_000);
+
+        index.clear();
+
+        assertEquals(0, index.size());
+        assertFalse(index.hasDue(Long.MAX_VALUE - 1));
+    }
+
+    private static Data key(int i) {
+        return new HeapData(new byte[]{0, 0, 0, 0, 0, 0, 0, 0, (byte) i});
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.multimap;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.MultiMapConfig.ValueCollectionType;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.spi.properties.ClusterProperty;
+import com.hazelcast.test.HazelcastParallelParametersRunnerFactory;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.TestHazelcastInstanceFactory;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+import org.junit.runners.Parameterized.UseParametersRunnerFactory;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(Parameterized.class)
+@UseParametersRunnerFactory(HazelcastParallelParametersRunnerFactory.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class MultiMapCompactValueStorageTest extends HazelcastTestSupport {
+
+    private static final int VALUE_COUNT = 100;
+
+    @Parameters(name = "collectionType:{0}, isBinary:{1}")
+    public static Collection<Object[]> parameters() {
+        return asList(new Object[][]{
+                {ValueCollectionType.LIST, true},
+                {ValueCollectionType.LIST, false},
+                {ValueCollectionType.SET, true},
+                {ValueCollectionType.SET, false},
+        });
+    }
+
+    @Parameter
+    public ValueCollectionType collectionType;
+
+    @Parameter(value = 1)
+    public boolean isBinary;
+
+    private TestHazelcastInstanceFactory factory;
+    private Config config;
+    private String name;
+
+    @Before
+    public void setUp() {
+        name = randomMapName();
+        config = smallInstanceConfig()
+                .setProperty(ClusterProperty.MULTIMAP_COMPACT_VALUE_STORAGE.getName(), "true");
+        config.getMultiMapConfig(name)
+                .setValueCollectionType(collectionType)
+                .setBinary(isBinary);
+        factory = createHazelcastInstanceFactory(3);
+    }
+
+    @Test
+    public void testBasicOperations() {
+        HazelcastInstance instance = factory.newHazelcastInstance(config);
+        MultiMap<String, String> multiMap = instance.getMultiMap(name);
+
+        for (int i = 0; i < VALUE_COUNT; i++) {
+            assertTrue(multiMap.put("key", "value-" + i));
+        }
+        assertEquals(collectionType == ValueCollectionType.LIST, multiMap.put("key", "value-0"));
+
+        assertTrue(multiMap.containsEntry("key", "value-50"));
+        assertFalse(multiMap.containsEntry("key", "value-" + VALUE_COUNT));
+        assertTrue(multiMap.containsValue("value-99"));
+        assertTrue(multiMap.remove("key", "value-50"));
+        assertFalse(multiMap.containsEntry("key", "value-50"));
+
+        Collection<String> values = multiMap.get("key");
+        if (collectionType == ValueCollectionType.LIST) {
+            assertTrue(values instanceof List);
+            assertEquals(VALUE_COUNT, values.size());
+            assertEquals("value-0", ((List<String>) values).get(0));
+            assertEquals("value-51", ((List<String>) values).get(50));
+        } else {
+            assertTrue(values instanceof Set);
+            assertEquals(VALUE_COUNT - 1, values.size());
+        }
+
+        Collection<String> removed = multiMap.remove("key");
+        assertEquals(values.size(), removed.size());
+        assertEquals(0, multiMap.size());
+    }
+
+    @Test
+    public void testValuesSurviveMigrationAndMemberLoss() {
+        HazelcastInstance instance1 = factory.newHazelcastInstance(config);
+        MultiMap<Integer, Integer> multiMap = instance1.getMultiMap(name);
+        for (int key = 0; key < 50; key++) {
+            for (int value = 0; value < 20; value++) {
+                multiMap.put(key, value);
+            }
+        }
+
+        HazelcastInstance instance2 = factory.newHazelcastInstance(config);
+        HazelcastInstance instance3 = factory.newHazelcastInstance(config);
+        waitAllForSafeState(instance1, instance2, instance3);
+        instance1.getLifecycleService().terminate();
+        waitAllForSafeState(instance2, instance3);
+
+        MultiMap<Integer, Integer> survivingMultiMap = instance2.getMultiMap(name);
+        assertEquals(1000, survivingMultiMap.size());
+        for (int key = 0; key < 50; key++) {
+            assertTrue(survivingMultiMap.containsEntry(key, 19));
+            assertTrue(survivingMultiMap.remove(key, 0));
+            assertEquals(19, survivingMultiMap.valueCount(key));
+        }
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.multimap.impl;
+
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class CompactMultiMapRecordListTest {
+
+    private InternalSerializationService serializationService;
+    private CompactMultiMapRecordList list;
+
+    @Before
+    public void setUp() {
+        serializationService = new DefaultSerializationServiceBuilder().build();
+        list = new CompactMultiMapRecordList();
+    }
+
+    @Test
+    public void testAdd_keepsInsertionOrderAndDuplicates() {
+        list.add(record(1, "a"));
+        list.add(record(2, "b"));
+        list.add(record(3, "a"));
+
+        assertEquals(3, list.size());
+        assertEquals(1, list.get(0).getRecordId());
+        assertEquals(data("b"), list.get(1).getObject());
+        assertEquals(data("a"), list.get(2).getObject());
+    }
+
+    @Test
+    public void testAddAtIndex() {
+        list.add(record(1, "a"));
+        list.add(record(2, "c"));
+        list.add(1, record(3, "b"));
+
+        assertEquals(data("a"), list.get(0).getObject());
+        assertEquals(data("b"), list.get(1).getObject());
+        assertEquals(data("c"), list.get(2).getObject());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testAddAtIndex_whenOutOfBounds() {
+        list.add(1, record(1, "a"));
+    }
+
+    @Test
+    public void testContains_withSerializedValues() {
+        for (int i = 0; i < 1000; i++) {
+            list.add(record(i, "value-" + i));
+        }
+
+        assertTrue(list.contains(new MultiMapRecord(data("value-0"))));
+        assertTrue(list.contains(new MultiMapRecord(data("value-999"))));
+        assertFalse(list.contains(new MultiMapRecord(data("value-1000"))));
+    }
+
+    @Test
+    public void testContains_withObjectValues() {
+        for (int i = 0; i < 1000; i++) {
+            list.add(new MultiMapRecord(i, i));
+        }
+
+        assertTrue(list.contains(new MultiMapRecord(500)));
+        assertFalse(list.contains(new MultiMapRecord(1000)));
+        assertFalse(list.contains(new MultiMapRecord(data(500))));
+    }
+
+    @Test
+    public void testRemove_removesFirstOccurrence() {
+        for (int i = 0; i < 100; i++) {
+            list.add(record(i, "value-" + (i % 10)));
+        }
+
+        assertTrue(list.remove(new MultiMapRecord(data("value-3"))));
+
+        assertEquals(99, list.size());
+        assertEquals(13, list.get(12).getRecordId());
+        assertEquals(4, list.get(3).getRecordId());
+        assertTrue(list.contains(new MultiMapRecord(data("value-3"))));
+    }
+
+    @Test
+    public void testContainsRecordId() {
+        list.add(record(42, "a"));
+
+        assertTrue(list.containsRecordId(42));
+        assertFalse(list.containsRecordId(43));
+    }
+
+    @Test
+    public void testIteratorRemove() {
+        for (int i = 0; i < 100; i++) {
+            list.add(record(i, "value-" + i));
+        }
+
+        Iterator<MultiMapRecord> iterator = list.iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().getRecordId() % 2 == 0) {
+                iterator.remove();
+            }
+        }
+
+        assertEquals(50, list.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i % 2 != 0, list.contains(new MultiMapRecord(data("value-" + i))));
+        }
+    }
+
+    @Test
+    public void testClear() {
+        for (int i = 0; i < 100; i++) {
+            list.add(record(i, "value-" + i));
+        }
+
+        list.clear();
+
+        assertTrue(list.isEmpty());
+        assertFalse(list.contains(new MultiMapRecord(data("value-1"))));
+        list.add(record(1, "value-1"));
+        assertTrue(list.contains(new MultiMapRecord(data("value-1"))));
+    }
+
+    @Test
+    public void testRandomOperations_matchLinkedList() {
+        Random random = new Random(42);
+        List<MultiMapRecord> expected = new LinkedList<>();
+        for (int i = 0; i < 20000; i++) {
+            MultiMapRecord record = record(i, "value-" + random.nextInt(200));
+            int operation = random.nextInt(4);
+            if (operation < 2) {
+                expected.add(record);
+                list.add(record);
+            } else if (operation == 2) {
+                assertEquals(expected.remove(record), list.remove(record));
+            } else {
+                assertEquals(expected.contains(record), list.contains(record));
+            }
+        }
+
+        assertEquals(expected.size(), list.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getRecordId(), list.get(i).getRecordId());
+            assertEquals(expected.get(i).getObject(), list.get(i).getObject());
+        }
+        assertEquals(expected, list);
+    }
+
+    private MultiMapRecord record(long recordId, Object value) {
+        return new MultiMapRecord(recordId, data(value));
+    }
+
+    private Data data(Object value) {
+        return serializationService.toData(value);
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.multimap.impl;
+
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class CompactMultiMapRecordSetTest {
+
+    private InternalSerializationService serializationService;
+    private CompactMultiMapRecordSet set;
+
+    @Before
+    public void setUp() {
+        serializationService = new DefaultSerializationServiceBuilder().build();
+        set = new CompactMultiMapRecordSet();
+    }
+
+    @Test
+    public void testAdd_rejectsDuplicates() {
+        assertTrue(set.add(record(1, "a")));
+        assertTrue(set.add(record(2, "b")));
+        assertFalse(set.add(record(3, "a")));
+
+        assertEquals(2, set.size());
+        assertTrue(set.containsRecordId(1));
+        assertFalse(set.containsRecordId(3));
+    }
+
+    @Test
+    public void testRemove() {
+        for (int i = 0; i < 1000; i++) {
+            set.add(record(i, "value-" + i));
+        }
+
+        assertTrue(set.remove(new MultiMapRecord(data("value-10"))));
+        assertFalse(set.remove(new MultiMapRecord(data("value-10"))));
+
+        assertEquals(999, set.size());
+        assertFalse(set.contains(new MultiMapRecord(data("value-10"))));
+        assertTrue(set.contains(new MultiMapRecord(data("value-999"))));
+    }
+
+    @Test
+    public void testIteratorRemove() {
+        for (int i = 0; i < 100; i++) {
+            set.add(record(i, "value-" + i));
+        }
+
+        int visited = 0;
+        Iterator<MultiMapRecord> iterator = set.iterator();
+        while (iterator.hasNext()) {
+            visited++;
+            if (iterator.next().getRecordId() % 3 == 0) {
+                iterator.remove();
+            }
+        }
+
+        assertEquals(100, visited);
+        assertEquals(66, set.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i % 3 != 0, set.contains(new MultiMapRecord(data("value-" + i))));
+        }
+    }
+
+    @Test
+    public void testRandomOperations_matchHashSet() {
+        Random random = new Random(42);
+        Set<MultiMapRecord> expected = new HashSet<>();
+        for (int i = 0; i < 20000; i++) {
+            MultiMapRecord record = record(i, "value-" + random.nextInt(500));
+            int operation = random.nextInt(3);
+            if (operation == 0) {
+                assertEquals(expected.add(record), set.add(record));
+            } else if (operation == 1) {
+                assertEquals(expected.remove(record), set.remove(record));
+            } else {
+                assertEquals(expected.contains(record), set.contains(record));
+            }
+        }
+
+        assertEquals(expected, set);
+        assertEquals(set, expected);
+    }
+
+    private MultiMapRecord record(long recordId, Object value) {
+        return new MultiMapRecord(recordId, data(value));
+    }
+
+    private Data data(Object value) {
+        return serializationService.toData(value);
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.multimap.impl;
+
+import com.hazelcast.config.MultiMapConfig.ValueCollectionType;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+import static com.hazelcast.multimap.impl.ValueCollectionFactory.createCollection;
+import static com.hazelcast.multimap.impl.ValueCollectionFactory.createCompactCollection;
+
+/**
+ * Compares the value collections used by default by the multimap with the
+ * compact ones enabled by
+ * {@link com.hazelcast.spi.properties.ClusterProperty#MULTIMAP_COMPACT_VALUE_STORAGE}.
+ * <p>
+ * The footprint of the collections can be compared by adding the
+ * {@code GCProfiler} and looking at the allocation rate of the {@code fill}
+ * benchmark.
+ */
+@BenchmarkMode({Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class MultiMapValueCollectionBenchmark {
+
+    private static final int HUGE_PRIME = 982455757;
+
+    @Param({"LIST", "SET"})
+    private ValueCollectionType collectionType;
+
+    @Param({"false", "true"})
+    private boolean compact;
+
+    @Param({"10", "100", "1000"})
+    private int valueCount;
+
+    private Collection<MultiMapRecord> collection;
+    private MultiMapRecord[] records;
+    private MultiMapRecord[] probes;
+    private int anInt = HUGE_PRIME;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        InternalSerializationService serializationService = new DefaultSerializationServiceBuilder().build();
+        records = new MultiMapRecord[valueCount];
+        probes = new MultiMapRecord[valueCount];
+        for (int i = 0; i < valueCount; i++) {
+            String value = "tag-value-" + i;
+            records[i] = new MultiMapRecord(i, serializationService.toData(value));
+            probes[i] = new MultiMapRecord(serializationService.toData(value));
+        }
+        collection = newCollection();
+        for (MultiMapRecord record : records) {
+            collection.add(record);
+        }
+    }
+
+    @Benchmark
+    public boolean containsEntry() {
+        return collection.contains(probes[nextIndex()]);
+    }
+
+    @Benchmark
+    public boolean removeAndAdd() {
+        int index = nextIndex();
+        return collection.remove(probes[index]) & collection.add(records[index]);
+    }
+
+    @Benchmark
+    public int iterate() {
+        int hash = 0;
+        for (MultiMapRecord record : collection) {
+            hash += (int) record.getRecordId();
+        }
+        return hash;
+    }
+
+    @Benchmark
+    public Collection<MultiMapRecord> fill() {
+        Collection<MultiMapRecord> filled = newCollection();
+        for (MultiMapRecord record : records) {
+            filled.add(record);
+        }
+        return filled;
+    }
+
+    private Collection<MultiMapRecord> newCollection() {
+        return compact ? createCompactCollection(collectionType) : createCollection(collectionType);
+    }
+
+    private int nextIndex() {
+        anInt = (anInt + HUGE_PRIME) % valueCount;
+        return anInt;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(MultiMapValueCollectionBenchmark.class.getSimpleName())
+                .build();
+
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.map.IMap;
+import com.hazelcast.nio.serialization.ClassDefinition;
+import com.hazelcast.nio.serialization.ClassDefinitionBuilder;
+import com.hazelcast.nio.serialization.GenericRecord;
+import com.hazelcast.nio.serialization.GenericRecordBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.hazelcast.spi.properties.ClusterProperty.QUERY_COMPILED_PORTABLE_PREDICATES;
+
+/**
+ * Measures full partition scans over portable values, with and without
+ * evaluating the predicates on the serialized values. The number of scanned
+ * entries per second is {@code ENTRY_COUNT} times the reported throughput.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, warmups = 0)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+public class PortablePredicateScanBenchmark {
+
+    private static final int ENTRY_COUNT = 100000;
+
+    @Param({"false", "true"})
+    public boolean compiled;
+
+    private IMap<Integer, GenericRecord> map;
+
+    @Setup
+    public void setup() {
+        Config config = new Config()
+                .setProperty(QUERY_COMPILED_PORTABLE_PREDICATES.getName(), String.valueOf(compiled));
+        map = Hazelcast.newHazelcastInstance(config).getMap("map");
+
+        ClassDefinition definition = new ClassDefinitionBuilder(1, 1)
+                .addIntField("id")
+                .addLongField("amount")
+                .addDoubleField("price")
+                .addStringField("status")
+                .build();
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.put(i, GenericRecordBuilder.portable(definition)
+                    .setInt("id", i)
+                    .setLong("amount", i % 1000)
+                    .setDouble("price", i / 100d)
+                    .setString("status", i % 10 == 0 ? "CLOSED" : "OPEN")
+                    .build());
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        Hazelcast.shutdownAll();
+    }
+
+    @Benchmark
+    public int equal() {
+        return map.keySet(Predicates.equal("status", "CLOSED")).size();
+    }
+
+    @Benchmark
+    public int between() {
+        return map.keySet(Predicates.between("price", 100, 200)).size();
+    }
+
+    @Benchmark
+    public int in() {
+        return map.keySet(Predicates.in("amount", 1, 10, 100)).size();
+    }
+
+    @Benchmark
+    public int and() {
+        return map.keySet(Predicates.and(Predicates.greaterThan("id", ENTRY_COUNT / 2),
+                Predicates.equal("status", "OPEN"), Predicates.lessEqual("amount", 10))).size();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(PortablePredicateScanBenchmark.class.getSimpleName())
+                .build();
+
+        new Runner(opt).run();
+    }
+}
@@ -40,7 +40,11 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 @RunWith(Parameterized.class)
 @UseParametersRunnerFactory(HazelcastSerialParametersRunnerFactory.class)
@@ -156,8 +160,88 @@ public class ExtractorsTest {
         createExtractors(null).extract(bond, null, null);
     }
 
+    @Test
+    public void extractLong_primitiveField() {
+        Extractors extractors = createExtractors(null);
+        long[] result = new long[1];
+
+        assertTrue(extractors.extractLong(bond, "id", value -> result[0] = value));
+        assertEquals(7L, result[0]);
+
+        assertTrue(extractors.extractLong(bond, "rating", value -> result[0] = value));
+        assertEquals(3L, result[0]);
+    }
+
+    @Test
+    public void extractDouble_primitiveField() {
+        Extractors extractors = createExtractors(null);
+        double[] result = new double[1];
+
+        assertTrue(extractors.extractDouble(bond, "price", value -> result[0] = value));
+        assertEquals(99.5d, result[0], 0.0d);
+    }
+
+    @Test
+    public void extractPrimitive_primitiveMethod() {
+        Extractors extractors = createExtractors(null);
+        Account account = new Account();
+        long[] longResult = new long[1];
+        double[] doubleResult = new double[1];
+
+        assertTrue(extractors.extractLong(account, "balance", value -> longResult[0] = value));
+        assertEquals(1000L, longResult[0]);
+        assertTrue(extractors.extractLong(account, "branch", value -> longResult[0] = value));
+        assertEquals(42L, longResult[0]);
+        assertTrue(extractors.extractDouble(account, "rate", value -> doubleResult[0] = value));
+        assertEquals(0.25d, doubleResult[0], 0.0d);
+    }
+
+    @Test
+    public void extractPrimitive_notApplicable() {
+        AttributeConfig config
+                = new AttributeConfig("gimmePower", "com.hazelcast.query.impl.getters.ExtractorsTest$PowerExtractor");
+        Extractors extractors = createExtractors(config);
+
+        // boxed field
+        assertFalse(extractors.extractLong(bond, "boxedId", value -> fail()));
+        // nested field
+        assertFalse(extractors.extractLong(bond, "car.power", value -> fail()));
+        // extractor
+        assertFalse(extractors.extractLong(bond, "gimmePower", value -> fail()));
+        // type mismatch
+        assertFalse(extractors.extractDouble(bond, "id", value -> fail()));
+        assertFalse(extractors.extractLong(bond, "price", value -> fail()));
+        // method of a non-public class
+        assertFalse(extractors.extractLong(bond, "rank", value -> fail()));
+        // null target
+        assertFalse(extractors.extractLong(null, "id", value -> fail()));
+    }
+
     private static class Bond {
         Car car = new Car();
+        long id = 7;
+        int rating = 3;
+        double price = 99.5d;
+        Long boxedId = 7L;
+
+        public int getRank() {
+            return 1;
+        }
+    }
+
+    public static class Account {
+
+        public long getBalance() {
+            return 1000L;
+        }
+
+        public int getBranch() {
+            return 42;
+        }
+
+        public float getRate() {
+            return 0.25f;
+        }
     }
 
     private static class Car {
@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl.getters;
+
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.OverridePropertyRule;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.function.Function;
+
+import static com.hazelcast.spi.properties.ClusterProperty.QUERY_GENERATED_GETTERS;
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+@RunWith(HazelcastSerialClassRunner.class)
+@Category(QuickTest.class)
+public class GeneratedAccessorsTest {
+
+    @Rule
+    public final OverridePropertyRule generatedGetters = OverridePropertyRule.set(QUERY_GENERATED_GETTERS.getName(), "true");
+
+    @Test
+    public void newMethodAccessor_whenPublicMethodOfPublicClass_thenSpinsClass() throws Exception {
+        Function<Object, Object> accessor = GeneratedAccessors.newMethodAccessor(PublicItem.class.getMethod("getCount"));
+
+        assertNotNull(accessor);
+        assertTrue(accessor.getClass().isSynthetic());
+        assertEquals(5, accessor.apply(new PublicItem(5)));
+    }
+
+    @Test
+    public void newMethodAccessor_whenMethodOfNonPublicClass_thenUsesMethodHandle() throws Exception {
+        Method method = PrivateItem.class.getMethod("getName");
+        method.setAccessible(true);
+        Function<Object, Object> accessor = GeneratedAccessors.newMethodAccessor(method);
+
+        assertNotNull(accessor);
+        assertFalse(accessor.getClass().isSynthetic());
+        assertEquals("item", accessor.apply(new PrivateItem("item")));
+    }
+
+    @Test
+    public void newMethodAccessor_whenStaticMethod_thenNull() throws Exception {
+        assertNull(GeneratedAccessors.newMethodAccessor(PublicItem.class.getMethod("create")));
+    }
+
+    @Test
+    public void newFieldAccessor_whenPrivateField() throws Exception {
+        Field field = PrivateItem.class.getDeclaredField("name");
+        field.setAccessible(true);
+        Function<Object, Object> accessor = GeneratedAccessors.newFieldAccessor(field);
+
+        assertNotNull(accessor);
+        assertEquals("item", accessor.apply(new PrivateItem("item")));
+    }
+
+    @Test
+    public void newFieldAccessor_whenPrimitiveField_thenBoxed() throws Exception {
+        Function<Object, Object> accessor = GeneratedAccessors.newFieldAccessor(PublicItem.class.getField("count"));
+
+        assertEquals(7, accessor.apply(new PublicItem(7)));
+    }
+
+    @Test
+    public void newFieldAccessor_whenNotAccessible_thenNull() throws Exception {
+        assertNull(GeneratedAccessors.newFieldAccessor(PrivateItem.class.getDeclaredField("name")));
+    }
+
+    @Test
+    public void getValue_whenWrongTargetType_thenThrowIllegalArgumentException() throws Exception {
+        Getter fieldGetter = GetterFactory.newFieldGetter(new PublicItem(1), null, PublicItem.class.getField("count"), null);
+        Getter methodGetter = GetterFactory.newMethodGetter(new PublicItem(1), null, PublicItem.class.getMethod("getCount"), null);
+
+        assertGetValueFails(fieldGetter, "not an item", IllegalArgumentException.class);
+        assertGetValueFails(methodGetter, "not an item", IllegalArgumentException.class);
+    }
+
+    @Test
+    public void getValue_whenMethodThrows_thenThrowInvocationTargetException() throws Exception {
+        Method method = PublicItem.class.getMethod("getFailure");
+        Getter getter = GetterFactory.newMethodGetter(new PublicItem(1), null, method, null);
+
+        assertGetValueFails(getter, new PublicItem(1), InvocationTargetException.class);
+    }
+
+    @Test
+    public void createGetter_whenAnyModifierOnCollectionAndArray() throws Exception {
+        PublicItem item = new PublicItem(1, new PrivateItem("a"), new PrivateItem("b"));
+
+        Getter collectionGetter = ReflectionHelper.createGetter(item, "items[any].name");
+        Getter arrayGetter = ReflectionHelper.createGetter(item, "itemArray[any].name");
+        Getter positionGetter = ReflectionHelper.createGetter(item, "itemArray[1].name");
+
+        assertEquals(asList("a", "b"), ((MultiResult) collectionGetter.getValue(item)).getResults());
+        assertEquals(asList("a", "b"), ((MultiResult) arrayGetter.getValue(item)).getResults());
+        assertEquals("b", positionGetter.getValue(item));
+        assertUsesAccessors(collectionGetter);
+        assertUsesAccessors(arrayGetter);
+        assertUsesAccessors(positionGetter);
+    }
+
+    @Test
+    public void createGetter_whenDisabled_thenUsesReflection() throws Exception {
+        generatedGetters.setOrClearProperty("false");
+        PublicItem item = new PublicItem(1, new PrivateItem("a"));
+
+        Getter getter = ReflectionHelper.createGetter(item, "items[any].name");
+
+        assertEquals(asList("a"), ((MultiResult) getter.getValue(item)).getResults());
+        assertNull(((MethodGetter) getter).getAccessor());
+        assertNull(((MethodGetter) getter.parent).getAccessor());
+    }
+
+    @Test
+    public void createGetter_whenPrimitiveArrayWithAnyModifier() throws Exception {
+        PublicItem item = new PublicItem(1);
+
+        Getter getter = ReflectionHelper.createGetter(item, "counts[any]");
+
+        assertEquals(asList(1, 2, 3), ((MultiResult) getter.getValue(item)).getResults());
+    }
+
+    /**
+     * Asserts that the getter and all its parents read through generated
+     * accessors.
+     */
+    private static void assertUsesAccessors(Getter getter) {
+        for (Getter g = getter; g != null; g = g.parent) {
+            Function<Object, Object> accessor = g instanceof FieldGetter
+                    ? ((FieldGetter) g).getAccessor()
+                    : ((MethodGetter) g).getAccessor();
+            assertNotNull(g.toString(), accessor);
+        }
+    }
+
+    private static void assertGetValueFails(Getter getter, Object target, Class<? extends Exception> expected) {
+        try {
+            getter.getValue(target);
+            fail();
+        } catch (Exception e) {
+            assertEquals(expected, e.getClass());
+        }
+    }
+
+    public static final class PublicItem {
+
+        public final int count;
+        public final int[] counts = {1, 2, 3};
+        public final PrivateItem[] itemArray;
+
+        private final Collection<PrivateItem> items;
+
+        PublicItem(int count, PrivateItem... items) {
+            this.count = count;
+            this.itemArray = items;
+            this.items = Arrays.asList(items);
+        }
+
+        public static PublicItem create() {
+            return new PublicItem(0);
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public Collection<PrivateItem> getItems() {
+            return items;
+        }
+
+        public String getFailure() {
+            throw new IllegalStateException();
+        }
+    }
+
+    private static final class PrivateItem {
+
+        private final String name;
+
+        PrivateItem(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+}
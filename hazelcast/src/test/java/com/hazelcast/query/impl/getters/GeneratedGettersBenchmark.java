@@ -0,0 +1,224 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl.getters;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.config.IndexType;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import com.hazelcast.query.Predicates;
+import com.hazelcast.query.impl.IndexUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.hazelcast.spi.properties.ClusterProperty.QUERY_GENERATED_GETTERS;
+
+/**
+ * Compares reflective and generated attribute getters of {@code OBJECT}
+ * in-memory format values: the cost of a single getter call, predicate
+ * scans and index updates. The getter benchmarks report nanoseconds per
+ * attribute read, the map benchmarks operations per second.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 2, warmups = 0)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+public class GeneratedGettersBenchmark {
+
+    private static final int PERSON_COUNT = 1024;
+    private static final int ENTRY_COUNT = 100000;
+
+    @Param({"false", "true"})
+    public boolean generated;
+
+    private Person[] persons;
+    private Getter fieldGetter;
+    private Getter methodGetter;
+    private Getter anyGetter;
+
+    @Setup
+    public void setup() throws Exception {
+        QUERY_GENERATED_GETTERS.setSystemProperty(String.valueOf(generated));
+        persons = new Person[PERSON_COUNT];
+        for (int i = 0; i < PERSON_COUNT; i++) {
+            persons[i] = new Person(i);
+        }
+        fieldGetter = ReflectionHelper.createGetter(persons[0], "age");
+        methodGetter = ReflectionHelper.createGetter(persons[0], "name");
+        anyGetter = ReflectionHelper.createGetter(persons[0], "tags[any]");
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.clearProperty(QUERY_GENERATED_GETTERS.getName());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PERSON_COUNT)
+    public int getField() throws Exception {
+        return getAll(fieldGetter);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PERSON_COUNT)
+    public int getMethod() throws Exception {
+        return getAll(methodGetter);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PERSON_COUNT)
+    public int getAny() throws Exception {
+        return getAll(anyGetter);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PERSON_COUNT)
+    public int getMixed() throws Exception {
+        // all three getters behind the same call sites, as in a scan evaluating several attributes
+        int count = 0;
+        for (Person person : persons) {
+            if (fieldGetter.getValue(person) != null
+                    && methodGetter.getValue(person) != null
+                    && anyGetter.getValue(person) != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public int scanField(MapState state) {
+        return state.scanMap.keySet(Predicates.greaterThan("age", ENTRY_COUNT / 2)).size();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public int scanMethod(MapState state) {
+        return state.scanMap.keySet(Predicates.equal("name", "person-1")).size();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public int scanAny(MapState state) {
+        return state.scanMap.keySet(Predicates.equal("tags[any]", "tag-3")).size();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public void indexUpdate(MapState state) {
+        int k = state.key++ % ENTRY_COUNT;
+        state.indexedMap.set(k, new Person(k));
+    }
+
+    private int getAll(Getter getter) throws Exception {
+        int count = 0;
+        for (Person person : persons) {
+            if (getter.getValue(person) != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(GeneratedGettersBenchmark.class.getSimpleName())
+                .build();
+
+        new Runner(opt).run();
+    }
+
+    @State(Scope.Benchmark)
+    public static class MapState {
+
+        private IMap<Integer, Person> scanMap;
+        private IMap<Integer, Person> indexedMap;
+        private int key;
+
+        @Setup
+        public void setup(GeneratedGettersBenchmark benchmark) {
+            // the benchmark state has already set the getter mode
+            Config config = new Config();
+            config.getMapConfig("scan").setInMemoryFormat(InMemoryFormat.OBJECT);
+            config.getMapConfig("indexed").setInMemoryFormat(InMemoryFormat.OBJECT)
+                    .addIndexConfig(IndexUtils.createTestIndexConfig(IndexType.SORTED, "age"))
+                    .addIndexConfig(IndexUtils.createTestIndexConfig(IndexType.HASH, "tags[any]"));
+            HazelcastInstance instance = Hazelcast.newHazelcastInstance(config);
+
+            scanMap = instance.getMap("scan");
+            indexedMap = instance.getMap("indexed");
+            for (int i = 0; i < ENTRY_COUNT; i++) {
+                scanMap.put(i, new Person(i));
+            }
+        }
+
+        @TearDown
+        public void tearDown() {
+            Hazelcast.shutdownAll();
+        }
+    }
+
+    public static class Person implements Serializable {
+
+        public final int age;
+        private final String name;
+        private final List<String> tags;
+
+        Person(int id) {
+            this.age = id;
+            this.name = "person-" + id;
+            this.tags = Arrays.asList("tag-" + id % 10, "tag-" + id % 7);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public List<String> getTags() {
+            return tags;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl.getters;
+
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleConsumer;
+import java.util.function.LongConsumer;
+
+/**
+ * Compares the boxed extraction of primitive attributes ({@link Extractors#extract})
+ * with the primitive one ({@link Extractors#extractLong} and
+ * {@link Extractors#extractDouble}) used by the sum and average aggregators.
+ * Reports nanoseconds per extracted value; run with {@code -prof gc} to see
+ * the allocation rate.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 2, warmups = 0)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+public class PrimitiveExtractionBenchmark {
+
+    private static final int VALUE_COUNT = 1024;
+
+    /**
+     * {@code field} and {@code method} are longs, {@code intField} an int
+     * widened to long and {@code doubleMethod} a double.
+     */
+    @Param({"field", "method", "intField", "doubleMethod"})
+    public String attribute;
+
+    private Extractors extractors;
+    private Value[] values;
+    private LongSum longSum;
+    private DoubleSum doubleSum;
+
+    @Setup
+    public void setup() {
+        extractors = Extractors.newBuilder(new DefaultSerializationServiceBuilder().build()).build();
+        values = new Value[VALUE_COUNT];
+        for (int i = 0; i < VALUE_COUNT; i++) {
+            values[i] = new Value(i);
+        }
+        longSum = new LongSum();
+        doubleSum = new DoubleSum();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUE_COUNT)
+    public double boxed() {
+        double sum = 0;
+        for (Value value : values) {
+            sum += ((Number) extractors.extract(value, attribute, null)).doubleValue();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUE_COUNT)
+    public double primitive() {
+        boolean isDouble = attribute.startsWith("double");
+        for (Value value : values) {
+            boolean extracted = isDouble
+                    ? extractors.extractDouble(value, attribute, doubleSum)
+                    : extractors.extractLong(value, attribute, longSum);
+            if (!extracted) {
+                throw new AssertionError("no primitive reader for " + attribute);
+            }
+        }
+        return longSum.sum + doubleSum.sum;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(PrimitiveExtractionBenchmark.class.getSimpleName())
+                .build();
+
+        new Runner(opt).run();
+    }
+
+    private static final class LongSum implements LongConsumer {
+
+        private long sum;
+
+        @Override
+        public void accept(long value) {
+            sum += value;
+        }
+    }
+
+    private static final class DoubleSum implements DoubleConsumer {
+
+        private double sum;
+
+        @Override
+        public void accept(double value) {
+            sum += value;
+        }
+    }
+
+    public static class Value {
+
+        public final long field;
+        public final int intField;
+
+        Value(int id) {
+            this.field = id;
+            this.intField = id;
+        }
+
+        public long getMethod() {
+            return field;
+        }
+
+        public double getDoubleMethod() {
+            return field / 2d;
+        }
+    }
+}
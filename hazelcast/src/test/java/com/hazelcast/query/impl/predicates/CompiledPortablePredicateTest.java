@@ -0,0 +1,272 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl.predicates;
+
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.nio.serialization.ClassDefinition;
+import com.hazelcast.nio.serialization.ClassDefinitionBuilder;
+import com.hazelcast.nio.serialization.GenericRecord;
+import com.hazelcast.nio.serialization.GenericRecordBuilder;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.impl.QueryEntry;
+import com.hazelcast.query.impl.getters.Extractors;
+import com.hazelcast.test.HazelcastParallelParametersRunnerFactory;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+import org.junit.runners.Parameterized.UseParametersRunnerFactory;
+
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static com.hazelcast.query.Predicates.and;
+import static com.hazelcast.query.Predicates.between;
+import static com.hazelcast.query.Predicates.equal;
+import static com.hazelcast.query.Predicates.greaterEqual;
+import static com.hazelcast.query.Predicates.greaterThan;
+import static com.hazelcast.query.Predicates.in;
+import static com.hazelcast.query.Predicates.lessEqual;
+import static com.hazelcast.query.Predicates.lessThan;
+import static com.hazelcast.query.Predicates.like;
+import static com.hazelcast.query.Predicates.not;
+import static com.hazelcast.query.Predicates.notEqual;
+import static com.hazelcast.query.Predicates.or;
+import static com.hazelcast.query.impl.predicates.CompiledPortablePredicate.MATCH;
+import static com.hazelcast.query.impl.predicates.CompiledPortablePredicate.NO_MATCH;
+import static com.hazelcast.query.impl.predicates.CompiledPortablePredicate.UNKNOWN;
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+@RunWith(Parameterized.class)
+@UseParametersRunnerFactory(HazelcastParallelParametersRunnerFactory.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class CompiledPortablePredicateTest {
+
+    private static final int RECORD_COUNT = 50;
+
+    @Parameters(name = "byteOrder:{0}")
+    public static Collection<Object> parameters() {
+        return asList(new Object[]{ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN});
+    }
+
+    @Parameter
+    public ByteOrder byteOrder;
+
+    private InternalSerializationService ss;
+    private Extractors extractors;
+    private Data key;
+    private List<Data> values;
+
+    @Before
+    public void setUp() {
+        ss = new DefaultSerializationServiceBuilder().setByteOrder(byteOrder).build();
+        extractors = Extractors.newBuilder(ss).build();
+        key = ss.toData("key");
+
+        ClassDefinition innerDefinition = new ClassDefinitionBuilder(1, 2)
+                .addIntField("i")
+                .build();
+        ClassDefinition definition = new ClassDefinitionBuilder(1, 1)
+                .addBooleanField("bool")
+                .addByteField("b")
+                .addCharField("c")
+                .addShortField("s")
+                .addIntField("i")
+                .addLongField("l")
+                .addFloatField("f")
+                .addDoubleField("d")
+                .addStringField("str")
+                .addPortableField("inner", innerDefinition)
+                .build();
+
+        values = new ArrayList<>();
+        for (int i = 0; i < RECORD_COUNT; i++) {
+            GenericRecord inner = GenericRecordBuilder.portable(innerDefinition)
+                    .setInt("i", i)
+                    .build();
+            GenericRecord record = GenericRecordBuilder.portable(definition)
+                    .setBoolean("bool", i % 2 == 0)
+                    .setByte("b", (byte) (i - 25))
+                    .setChar("c", (char) ('a' + i % 26))
+                    .setShort("s", (short) (i * 100))
+                    .setInt("i", i)
+                    .setLong("l", i * 1000000000L)
+                    .setFloat("f", i / 2f)
+                    .setDouble("d", i == 0 ? -0.0 : i / 4d)
+                    .setString("str", i % 5 == 0 ? null : "value-" + i % 7 + "-é")
+                    .setGenericRecord("inner", inner)
+                    .build();
+            values.add(ss.toData(record));
+        }
+    }
+
+    @After
+    public void tearDown() {
+        ss.dispose();
+    }
+
+    @Test
+    public void testEqual() {
+        assertSameAsPredicate(equal("i", 10));
+        assertSameAsPredicate(equal("i", 10L));
+        assertSameAsPredicate(equal("i", "10"));
+        assertSameAsPredicate(equal("b", (byte) -5));
+        assertSameAsPredicate(equal("s", 300));
+        assertSameAsPredicate(equal("l", 7000000000L));
+        assertSameAsPredicate(equal("l", 7));
+        assertSameAsPredicate(equal("c", 'c'));
+        assertSameAsPredicate(equal("c", "c"));
+        assertSameAsPredicate(equal("bool", true));
+        assertSameAsPredicate(equal("bool", "false"));
+        assertSameAsPredicate(equal("f", 2.5f));
+        assertSameAsPredicate(equal("f", 2.5));
+        assertSameAsPredicate(equal("d", 0.0));
+        assertSameAsPredicate(equal("d", -0.0));
+        assertSameAsPredicate(equal("d", 2.25));
+        assertSameAsPredicate(equal("str", "value-3-é"));
+        assertSameAsPredicate(equal("str", "value-3"));
+    }
+
+    @Test
+    public void testIn() {
+        assertSameAsPredicate(in("i", 1, 5, 49, 100));
+        assertSameAsPredicate(in("l", 0L, 3000000000L));
+        assertSameAsPredicate(in("d", 0.5, 1.0, -0.0));
+        assertSameAsPredicate(in("str", "value-1-é", "value-6-é", "other"));
+        assertSameAsPredicate(in("c", 'a', 'z'));
+    }
+
+    @Test
+    public void testGreaterLess() {
+        assertSameAsPredicate(greaterThan("i", 10));
+        assertSameAsPredicate(greaterEqual("i", 10));
+        assertSameAsPredicate(lessThan("b", 0));
+        assertSameAsPredicate(lessEqual("s", (short) 2500));
+        assertSameAsPredicate(greaterThan("l", 20000000000L));
+        assertSameAsPredicate(lessThan("f", 10.5f));
+        assertSameAsPredicate(greaterEqual("d", 0.0));
+        assertSameAsPredicate(lessThan("d", 0.0));
+        assertSameAsPredicate(greaterThan("c", 'm'));
+        assertSameAsPredicate(greaterThan("bool", false));
+    }
+
+    @Test
+    public void testBetween() {
+        assertSameAsPredicate(between("i", 10, 20));
+        assertSameAsPredicate(between("i", "10", "20"));
+        assertSameAsPredicate(between("l", 5000000000L, 6000000000L));
+        assertSameAsPredicate(between("d", -0.0, 1.0));
+        assertSameAsPredicate(between("f", 1, 2));
+    }
+
+    @Test
+    public void testCompound() {
+        assertSameAsPredicate(and(greaterThan("i", 10), lessThan("i", 30), equal("bool", true)));
+        assertSameAsPredicate(or(equal("i", 3), in("str", "value-4-é"), between("d", 10, 11)));
+        assertSameAsPredicate(not(and(greaterThan("i", 10), equal("str", "value-0-é"))));
+    }
+
+    @Test
+    public void testUnknown_whenOperandNotConvertibleToFieldType() {
+        CompiledPortablePredicate compiled = compile(equal("i", 10.5));
+        for (Data value : values) {
+            assertEquals(UNKNOWN, compiled.evaluate(value));
+        }
+    }
+
+    @Test
+    public void testUnknown_whenRangeOnString() {
+        CompiledPortablePredicate compiled = compile(greaterThan("str", "value"));
+        for (Data value : values) {
+            assertEquals(UNKNOWN, compiled.evaluate(value));
+        }
+    }
+
+    @Test
+    public void testUnknown_whenFieldIsMissing() {
+        CompiledPortablePredicate compiled = compile(equal("missing", 10));
+        for (Data value : values) {
+            assertEquals(UNKNOWN, compiled.evaluate(value));
+        }
+    }
+
+    @Test
+    public void testUnknown_whenFieldIsPortable() {
+        CompiledPortablePredicate compiled = compile(equal("inner", 10));
+        assertEquals(UNKNOWN, compiled.evaluate(values.get(0)));
+    }
+
+    @Test
+    public void testUnknown_whenValueIsNotPortable() {
+        CompiledPortablePredicate compiled = compile(equal("i", 10));
+        assertEquals(UNKNOWN, compiled.evaluate(ss.toData(10)));
+        assertEquals(UNKNOWN, compiled.evaluate("value"));
+        assertEquals(UNKNOWN, compiled.evaluate(null));
+    }
+
+    @Test
+    public void testAnd_whenOneNodeDoesNotMatch_thenNoMatch() {
+        CompiledPortablePredicate compiled = compile(and(equal("missing", 10), equal("i", -1)));
+        assertEquals(NO_MATCH, compiled.evaluate(values.get(0)));
+    }
+
+    @Test
+    public void testOr_whenOneNodeMatches_thenMatch() {
+        CompiledPortablePredicate compiled = compile(or(equal("missing", 10), equal("i", 0)));
+        assertEquals(MATCH, compiled.evaluate(values.get(0)));
+    }
+
+    @Test
+    public void testNotCompiled() {
+        assertNull(compile(equal("inner.i", 10)));
+        assertNull(compile(equal("__key", 10)));
+        assertNull(compile(equal("this", 10)));
+        assertNull(compile(equal("i", null)));
+        assertNull(compile(in("i", 1, null)));
+        assertNull(compile(notEqual("i", 10)));
+        assertNull(compile(like("str", "value%")));
+        assertNull(compile(and(equal("i", 1), like("str", "value%"))));
+        assertNotNull(compile(and(equal("i", 1), equal("str", "value"))));
+    }
+
+    private CompiledPortablePredicate compile(Predicate predicate) {
+        return CompiledPortablePredicate.compile(predicate, ss);
+    }
+
+    private void assertSameAsPredicate(Predicate predicate) {
+        CompiledPortablePredicate compiled = compile(predicate);
+        assertNotNull(compiled);
+        for (int i = 0; i < values.size(); i++) {
+            Data value = values.get(i);
+            boolean expected = predicate.apply(new QueryEntry(ss, key, value, extractors));
+            assertEquals(predicate + " on record " + i, expected ? MATCH : NO_MATCH, compiled.evaluate(value));
+        }
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.merge;
+
+import com.hazelcast.cache.ICache;
+import com.hazelcast.config.CacheSimpleConfig;
+import com.hazelcast.config.Config;
+import com.hazelcast.config.MapConfig;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.spi.merge.MergingEntry;
+import com.hazelcast.spi.merge.SplitBrainMergePolicy;
+import com.hazelcast.spi.properties.ClusterProperty;
+import com.hazelcast.test.HazelcastParallelParametersRunnerFactory;
+import com.hazelcast.test.SplitBrainTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+import org.junit.runners.Parameterized.UseParametersRunnerFactory;
+
+import javax.cache.Cache;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests that with {@link ClusterProperty#MERGE_MERKLE_TREES_ENABLED} only the
+ * entries which differ between the clusters are passed to the merge policy,
+ * while the merged data is the same as with a full merge. Data structures
+ * without an enabled {@link com.hazelcast.config.MerkleTreeConfig} are
+ * merged in full.
+ */
+@RunWith(Parameterized.class)
+@UseParametersRunnerFactory(HazelcastParallelParametersRunnerFactory.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class MerkleTreeMergeSplitBrainTest extends SplitBrainTestSupport {
+
+    private static final int ENTRY_COUNT = 1000;
+    private static final int CHANGED_COUNT = 10;
+
+    private static final Map<String, AtomicInteger> MERGE_COUNTS = new ConcurrentHashMap<>();
+
+    @Parameters(name = "merkleTrees:{0}, merkleTreeConfigEnabled:{1}")
+    public static Collection<Object[]> parameters() {
+        return asList(new Object[][]{
+                {false, true},
+                {true, false},
+                {true, true},
+        });
+    }
+
+    @Parameter
+    public boolean merkleTrees;
+
+    @Parameter(1)
+    public boolean merkleTreeConfigEnabled;
+
+    private final String mapName = randomMapName("map-");
+    private final String cacheName = randomMapName("cache-");
+    private MergeLifecycleListener mergeLifecycleListener;
+
+    @Override
+    protected Config config() {
+        Config config = super.config()
+                .setProperty(ClusterProperty.MERGE_MERKLE_TREES_ENABLED.getName(), String.valueOf(merkleTrees));
+        MapConfig mapConfig = new MapConfig(mapName).setBackupCount(2);
+        mapConfig.getMergePolicyConfig().setPolicy(CountingPassThroughMergePolicy.class.getName());
+        mapConfig.getMerkleTreeConfig().setEnabled(merkleTreeConfigEnabled);
+        config.addMapConfig(mapConfig);
+        CacheSimpleConfig cacheConfig = config.getCacheConfig(cacheName).setBackupCount(2);
+        cacheConfig.getMergePolicyConfig().setPolicy(CountingPassThroughMergePolicy.class.getName());
+        cacheConfig.getMerkleTreeConfig().setEnabled(merkleTreeConfigEnabled);
+        return config;
+    }
+
+    @Override
+    protected void onBeforeSplitBrainCreated(HazelcastInstance[] instances) {
+        IMap<String, Integer> map = instances[0].getMap(mapName);
+        Cache<String, Integer> cache = instances[0].getCacheManager().getCache(cacheName);
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.put(key(mapName, i), i);
+            cache.put(key(cacheName, i), i);
+        }
+        waitAllForSafeState(instances);
+    }
+
+    @Override
+    protected void onAfterSplitBrainCreated(HazelcastInstance[] firstBrain, HazelcastInstance[] secondBrain) {
+        mergeLifecycleListener = new MergeLifecycleListener(secondBrain.length);
+        for (HazelcastInstance instance : secondBrain) {
+            instance.getLifecycleService().addLifecycleListener(mergeLifecycleListener);
+        }
+
+        changeEntries(firstBrain[0].getMap(mapName), firstBrain[0].getCacheManager().getCache(cacheName),
+                secondBrain[0].getMap(mapName), secondBrain[0].getCacheManager().getCache(cacheName));
+    }
+
+    private void changeEntries(IMap<String, Integer> map1, ICache<String, Integer> cache1,
+                               IMap<String, Integer> map2, ICache<String, Integer> cache2) {
+        for (int i = 0; i < CHANGED_COUNT; i++) {
+            // changed in the merging cluster
+            map2.put(key(mapName, i), -i);
+            cache2.put(key(cacheName, i), -i);
+            // changed in the cluster which is joined
+            map1.put(key(mapName, CHANGED_COUNT + i), -i);
+            cache1.put(key(cacheName, CHANGED_COUNT + i), -i);
+            // added in the merging cluster
+            map2.put(key(mapName, ENTRY_COUNT + i), ENTRY_COUNT + i);
+            cache2.put(key(cacheName, ENTRY_COUNT + i), ENTRY_COUNT + i);
+        }
+    }
+
+    @Override
+    protected void onAfterSplitBrainHealed(HazelcastInstance[] instances) {
+        mergeLifecycleListener.await();
+
+        IMap<String, Integer> map = instances[0].getMap(mapName);
+        ICache<String, Integer> cache = instances[0].getCacheManager().getCache(cacheName);
+        assertEquals(ENTRY_COUNT + CHANGED_COUNT, map.size());
+        assertEquals(ENTRY_COUNT + CHANGED_COUNT, cache.size());
+        for (int i = 0; i < ENTRY_COUNT + CHANGED_COUNT; i++) {
+            int expected = i < CHANGED_COUNT ? -i : i;
+            assertEquals(expected, (int) map.get(key(mapName, i)));
+            assertEquals(expected, (int) cache.get(key(cacheName, i)));
+        }
+
+        assertMergeCount(mapName);
+        assertMergeCount(cacheName);
+    }
+
+    private void assertMergeCount(String name) {
+        int mergeCount = MERGE_COUNTS.get(name).get();
+        if (merkleTrees && merkleTreeConfigEnabled) {
+            assertTrue("Merged " + mergeCount + " entries", mergeCount >= 3 * CHANGED_COUNT);
+            assertTrue("Merged " + mergeCount + " entries", mergeCount < ENTRY_COUNT / 2);
+        } else {
+            assertEquals(ENTRY_COUNT + CHANGED_COUNT, mergeCount);
+        }
+    }
+
+    private static String key(String name, int i) {
+        return name + ":" + i;
+    }
+
+    /**
+     * Counts the merged entries per data structure, which is encoded in the key.
+     */
+    public static class CountingPassThroughMergePolicy
+            implements SplitBrainMergePolicy<Object, MergingEntry<Object, Object>, Object> {
+
+        @Override
+        public Object merge(MergingEntry<Object, Object> mergingValue, MergingEntry<Object, Object> existingValue) {
+            String key = (String) mergingValue.getKey();
+            String name = key.substring(0, key.indexOf(':'));
+            MERGE_COUNTS.computeIfAbsent(name, k -> new AtomicInteger()).incrementAndGet();
+            return mergingValue.getRawValue();
+        }
+
+        @Override
+        public void writeData(ObjectDataOutput out) {
+        }
+
+        @Override
+        public void readData(ObjectDataInput in) {
+        }
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationparker.impl;
+
+import com.hazelcast.internal.util.Clock;
+import com.hazelcast.spi.impl.operationservice.BlockingOperation;
+import com.hazelcast.spi.impl.operationservice.Operation;
+import com.hazelcast.spi.impl.operationservice.WaitNotifyKey;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.hazelcast.spi.impl.operationparker.impl.ExpirationWheel.TICK_MILLIS;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class ExpirationWheelTest {
+
+    private final ExpirationWheel wheel = new ExpirationWheel(Clock.currentTimeMillis());
+    private final List<WaitSetEntry> expired = new ArrayList<WaitSetEntry>();
+
+    @Test
+    public void expire_onlyPassedTicks() {
+        WaitSetEntry entry1 = newEntry(0);
+        WaitSetEntry entry2 = newEntry(100);
+        wheel.add(entry1);
+        wheel.add(entry2);
+
+        // the tick of entry1 has not passed yet
+        wheel.expire(entry1.expirationTimeMs, expired::add);
+        assertTrue(expired.isEmpty());
+
+        wheel.expire(entry1.expirationTimeMs + TICK_MILLIS, expired::add);
+        assertEquals(singletonList(entry1), expired);
+        assertEquals(1, wheel.size());
+
+        wheel.expire(entry2.expirationTimeMs + TICK_MILLIS, expired::add);
+        assertEquals(asList(entry1, entry2), expired);
+        assertTrue(wheel.isEmpty());
+    }
+
+    @Test
+    public void expire_dropsInvalidEntries() {
+        WaitSetEntry entry = newEntry(0);
+        wheel.add(entry);
+        entry.setValid(false);
+
+        wheel.expire(entry.expirationTimeMs + TICK_MILLIS, expired::add);
+
+        assertTrue(expired.isEmpty());
+        assertTrue(wheel.isEmpty());
+    }
+
+    @Test
+    public void add_whenTickAlreadyPassed_thenExpiredWithNextTick() {
+        WaitSetEntry entry = newEntry(0);
+        wheel.expire(entry.expirationTimeMs + 10 * TICK_MILLIS, expired::add);
+        wheel.add(entry);
+
+        wheel.expire(entry.expirationTimeMs + 11 * TICK_MILLIS, expired::add);
+
+        assertEquals(singletonList(entry), expired);
+    }
+
+    @Test
+    public void expire_whenBehindMoreThanFullRound() {
+        WaitSetEntry entry = newEntry(1000);
+        wheel.add(entry);
+
+        wheel.expire(entry.expirationTimeMs + 10000 * TICK_MILLIS, expired::add);
+
+        assertEquals(singletonList(entry), expired);
+        assertTrue(wheel.isEmpty());
+    }
+
+    @Test
+    public void clear() {
+        WaitSetEntry entry = newEntry(0);
+        wheel.add(entry);
+
+        wheel.clear();
+        wheel.expire(entry.expirationTimeMs + TICK_MILLIS, expired::add);
+
+        assertTrue(wheel.isEmpty());
+        assertTrue(expired.isEmpty());
+    }
+
+    private static WaitSetEntry newEntry(long waitTimeoutMillis) {
+        BlockedOperation op = new BlockedOperation();
+        op.setWaitTimeout(waitTimeoutMillis);
+        return new WaitSetEntry(null, op);
+    }
+
+    private static class BlockedOperation extends Operation implements BlockingOperation {
+
+        @Override
+        public WaitNotifyKey getWaitKey() {
+            return null;
+        }
+
+        @Override
+        public boolean shouldWait() {
+            return true;
+        }
+
+        @Override
+        public void onWaitExpire() {
+        }
+
+        @Override
+        public void run() throws Exception {
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationparker.impl;
+
+import com.hazelcast.collection.IQueue;
+import com.hazelcast.collection.impl.queue.QueueService;
+import com.hazelcast.collection.impl.queue.operations.PollOperation;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.spi.impl.operationservice.OperationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.hazelcast.test.Accessors.getNodeEngineImpl;
+
+/**
+ * Measures the throughput of {@link IQueue#offer(Object)} while
+ * {@code consumerCount} poll operations are parked on the queue. Every
+ * consumer polls again as soon as its poll returned an item or timed out,
+ * so the number of parked operations stays constant. A poll timeout below
+ * 1.5 seconds exercises the expiration of short wait timeouts.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class OperationParkerBenchmark {
+
+    private static final String QUEUE_NAME = "queue";
+
+    @Param({"10000"})
+    private int consumerCount;
+
+    @Param({"100", "1000", "10000"})
+    private long pollTimeoutMillis;
+
+    private HazelcastInstance hz;
+    private IQueue<Integer> queue;
+    private OperationService operationService;
+    private int partitionId;
+    private volatile boolean running;
+    private int item;
+
+    @Setup
+    public void setUp() {
+        hz = Hazelcast.newHazelcastInstance();
+        queue = hz.getQueue(QUEUE_NAME);
+        operationService = getNodeEngineImpl(hz).getOperationService();
+        partitionId = hz.getPartitionService().getPartition(QUEUE_NAME).getPartitionId();
+        running = true;
+        for (int i = 0; i < consumerCount; i++) {
+            poll();
+        }
+    }
+
+    private void poll() {
+        operationService.invokeOnPartition(QueueService.SERVICE_NAME, new PollOperation(QUEUE_NAME, pollTimeoutMillis),
+                partitionId)
+                .whenComplete((response, throwable) -> {
+                    if (running) {
+                        poll();
+                    }
+                });
+    }
+
+    @TearDown
+    public void tearDown() {
+        running = false;
+        Hazelcast.shutdownAll();
+    }
+
+    @Benchmark
+    public boolean offer() {
+        return queue.offer(item++);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(OperationParkerBenchmark.class.getSimpleName())
+                .build();
+        new Runner(opt).run();
+    }
+}
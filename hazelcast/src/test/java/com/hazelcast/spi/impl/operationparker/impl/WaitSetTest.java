@@ -16,12 +16,16 @@
 
 package com.hazelcast.spi.impl.operationparker.impl;
 
+import com.hazelcast.cluster.Address;
+import com.hazelcast.internal.util.Clock;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.logging.Logger;
 import com.hazelcast.spi.impl.operationservice.BlockingOperation;
+import com.hazelcast.spi.impl.operationservice.CallsPerMember;
 import com.hazelcast.spi.impl.NodeEngine;
 import com.hazelcast.spi.impl.operationservice.Notifier;
 import com.hazelcast.spi.impl.operationservice.Operation;
+import com.hazelcast.spi.impl.operationservice.OperationResponseHandler;
 import com.hazelcast.spi.impl.operationservice.OperationService;
 import com.hazelcast.spi.impl.operationservice.WaitNotifyKey;
 import com.hazelcast.test.HazelcastParallelClassRunner;
@@ -32,13 +36,15 @@ import org.junit.Test;
 import org.junit.experimental.categories.Category;
 import org.junit.runner.RunWith;
 
+import java.util.ArrayList;
 import java.util.Iterator;
-import java.util.Queue;
+import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.LinkedBlockingQueue;
 
+import static com.hazelcast.spi.impl.operationservice.OperationAccessor.setCallId;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertSame;
@@ -53,7 +59,7 @@ public class WaitSetTest {
 
     private ILogger logger = Logger.getLogger(WaitSetTest.class);
     private ConcurrentMap<WaitNotifyKey, WaitSet> waitSetMap = new ConcurrentHashMap<WaitNotifyKey, WaitSet>();
-    private Queue<WaitSetEntry> delayQueue = new LinkedBlockingQueue<WaitSetEntry>();
+    private ExpirationWheel expirationWheel = new ExpirationWheel(Clock.currentTimeMillis());
     private NodeEngine nodeEngine;
     private OperationService operationService;
 
@@ -72,11 +78,11 @@ public class WaitSetTest {
         waitSet.park(op);
 
         assertEquals(1, waitSet.size());
-        assertTrue(delayQueue.isEmpty());
+        assertTrue(expirationWheel.isEmpty());
     }
 
     private WaitSet newWaitSet() {
-        return new WaitSet(logger, nodeEngine, waitSetMap, delayQueue);
+        return new WaitSet(logger, nodeEngine, waitSetMap, expirationWheel);
     }
 
     @Test
@@ -93,8 +99,11 @@ public class WaitSetTest {
         assertFalse(entry.isExpired());
         assertFalse(entry.isCancelled());
 
-        assertEquals(1, delayQueue.size());
-        assertSame(entry, delayQueue.poll());
+        assertEquals(1, expirationWheel.size());
+        List<WaitSetEntry> expired = new ArrayList<WaitSetEntry>();
+        expirationWheel.expire(entry.expirationTimeMs + ExpirationWheel.TICK_MILLIS, expired::add);
+        assertEquals(1, expired.size());
+        assertSame(entry, expired.get(0));
     }
 
     @Test
@@ -128,6 +137,54 @@ public class WaitSetTest {
         assertEquals(0, waitSetMap.size());
     }
 
+    @Test
+    public void cancelledEntries_arePurged() throws Exception {
+        WaitSet waitSet = newWaitSet();
+        OperationResponseHandler responseHandler = mock(OperationResponseHandler.class);
+        List<BlockedOperation> ops = new ArrayList<BlockedOperation>();
+        for (int i = 0; i < 100; i++) {
+            BlockedOperation op = new BlockedOperation();
+            op.setOperationResponseHandler(responseHandler);
+            waitSet.park(op);
+            ops.add(op);
+        }
+
+        for (int i = 0; i < 64; i++) {
+            WaitSetEntry entry = waitSet.find(ops.get(i));
+            entry.cancel(new Exception());
+            entry.run();
+        }
+
+        assertEquals(36, waitSet.size());
+        assertEquals(36, waitSet.totalValidWaitingOperationCount());
+        assertSame(ops.get(64), waitSet.iterator().next().op);
+    }
+
+    @Test
+    public void cancelledEntries_notReportedAsLive_beforePurge() throws Exception {
+        WaitSet waitSet = newWaitSet();
+        Address address = new Address("127.0.0.1", 5701);
+        List<BlockedOperation> ops = new ArrayList<BlockedOperation>();
+        for (int i = 1; i <= 3; i++) {
+            BlockedOperation op = new BlockedOperation();
+            op.setOperationResponseHandler(mock(OperationResponseHandler.class));
+            setCallId(op, i);
+            waitSet.park(op);
+            ops.add(op);
+        }
+        WaitSetEntry entry = waitSet.find(ops.get(0));
+        entry.cancel(new Exception());
+        entry.run();
+
+        CallsPerMember liveOperations = new CallsPerMember(address);
+        waitSet.populate(liveOperations);
+
+        // the cancelled entry is not purged yet
+        assertEquals(3, waitSet.size());
+        assertEquals(2, waitSet.totalValidWaitingOperationCount());
+        assertArrayEquals(new long[]{2, 3}, liveOperations.toOpControl(address).runningOperations());
+    }
+
     @Test
     public void totalValidWaitingOperations() {
         WaitSet waitSet = newWaitSet();
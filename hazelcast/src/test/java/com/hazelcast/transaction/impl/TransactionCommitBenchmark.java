@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.transaction.impl;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.spi.properties.ClusterProperty;
+import com.hazelcast.transaction.TransactionContext;
+import com.hazelcast.transaction.TransactionOptions;
+import com.hazelcast.transaction.TransactionalMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.hazelcast.transaction.TransactionOptions.TransactionType.TWO_PHASE;
+
+/**
+ * Measures the latency of a {@code TWO_PHASE} transaction putting
+ * {@code transactionSize} keys into a map of a two member cluster, with and
+ * without {@link ClusterProperty#TRANSACTION_LOG_GROUPING_ENABLED}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class TransactionCommitBenchmark {
+
+    @Param({"1", "10", "100", "500"})
+    private int transactionSize;
+
+    @Param({"false", "true"})
+    private boolean groupingEnabled;
+
+    private HazelcastInstance hz;
+    private TransactionOptions options;
+    private int round;
+
+    @Setup
+    public void setUp() {
+        Config config = new Config();
+        config.setProperty(ClusterProperty.TRANSACTION_LOG_GROUPING_ENABLED.getName(), String.valueOf(groupingEnabled));
+        config.getMapConfig("map").setBackupCount(1);
+        hz = Hazelcast.newHazelcastInstance(config);
+        Hazelcast.newHazelcastInstance(config);
+        options = new TransactionOptions().setTransactionType(TWO_PHASE);
+    }
+
+    @TearDown
+    public void tearDown() {
+        Hazelcast.shutdownAll();
+    }
+
+    @Benchmark
+    public void commit() {
+        TransactionContext context = hz.newTransactionContext(options);
+        context.beginTransaction();
+        TransactionalMap<Integer, Integer> map = context.getMap("map");
+        int value = round++;
+        for (int i = 0; i < transactionSize; i++) {
+            map.set(i, value);
+        }
+        context.commitTransaction();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(TransactionCommitBenchmark.class.getSimpleName())
+                .build();
+        new Runner(opt).run();
+    }
+}
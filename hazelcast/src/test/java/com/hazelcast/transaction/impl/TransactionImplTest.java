@@ -32,6 +32,7 @@ import org.junit.runner.RunWith;
 
 import java.util.UUID;
 
+import static com.hazelcast.test.Accessors.getNodeEngineImpl;
 import static com.hazelcast.test.Accessors.getOperationService;
 import static com.hazelcast.transaction.TransactionOptions.TransactionType.ONE_PHASE;
 import static java.lang.String.format;
@@ -62,6 +63,8 @@ public class TransactionImplTest extends HazelcastTestSupport {
 
         nodeEngine = mock(NodeEngine.class);
         when(nodeEngine.getOperationService()).thenReturn(operationService);
+        when(nodeEngine.getProperties()).thenReturn(getNodeEngineImpl(hz).getProperties());
+        when(nodeEngine.getClusterService()).thenReturn(getNodeEngineImpl(hz).getClusterService());
         when(nodeEngine.getLocalMember()).thenReturn(new MemberImpl());
         when(nodeEngine.getLogger(TransactionImpl.class)).thenReturn(logger);
         options = new TransactionOptions().setTransactionType(ONE_PHASE);
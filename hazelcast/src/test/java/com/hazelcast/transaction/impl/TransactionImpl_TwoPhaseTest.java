@@ -35,6 +35,7 @@ import org.junit.runner.RunWith;
 
 import java.util.UUID;
 
+import static com.hazelcast.test.Accessors.getNodeEngineImpl;
 import static com.hazelcast.test.Accessors.getOperationService;
 import static com.hazelcast.transaction.TransactionOptions.TransactionType.TWO_PHASE;
 import static com.hazelcast.transaction.impl.Transaction.State.COMMITTED;
@@ -68,6 +69,8 @@ public class TransactionImpl_TwoPhaseTest extends HazelcastTestSupport {
 
         nodeEngine = mock(NodeEngine.class);
         when(nodeEngine.getOperationService()).thenReturn(operationService);
+        when(nodeEngine.getProperties()).thenReturn(getNodeEngineImpl(hz).getProperties());
+        when(nodeEngine.getClusterService()).thenReturn(getNodeEngineImpl(hz).getClusterService());
         when(nodeEngine.getLogger(TransactionImpl.class)).thenReturn(logger);
         when(nodeEngine.getLocalMember()).thenReturn(new MemberImpl());
     }
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.transaction.impl;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import com.hazelcast.test.HazelcastParallelParametersRunnerFactory;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import com.hazelcast.transaction.TransactionContext;
+import com.hazelcast.transaction.TransactionOptions;
+import com.hazelcast.transaction.TransactionOptions.TransactionType;
+import com.hazelcast.transaction.TransactionalMap;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+import org.junit.runners.Parameterized.UseParametersRunnerFactory;
+
+import java.util.Collection;
+
+import static com.hazelcast.spi.properties.ClusterProperty.PARTITION_COUNT;
+import static com.hazelcast.spi.properties.ClusterProperty.TRANSACTION_LOG_GROUPING_ENABLED;
+import static com.hazelcast.transaction.TransactionOptions.TransactionType.ONE_PHASE;
+import static com.hazelcast.transaction.TransactionOptions.TransactionType.TWO_PHASE;
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+@RunWith(Parameterized.class)
+@UseParametersRunnerFactory(HazelcastParallelParametersRunnerFactory.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class TransactionLogGroupingTest extends HazelcastTestSupport {
+
+    private static final int KEY_COUNT = 500;
+
+    @Parameter(0)
+    public TransactionType transactionType;
+
+    @Parameter(1)
+    public boolean groupingEnabled;
+
+    private HazelcastInstance[] instances;
+
+    @Parameters(name = "transactionType:{0}, groupingEnabled:{1}")
+    public static Collection<Object[]> parameters() {
+        return asList(new Object[][]{
+                {ONE_PHASE, true},
+                {TWO_PHASE, true},
+                {TWO_PHASE, false},
+        });
+    }
+
+    @Before
+    public void setup() {
+        Config config = smallInstanceConfig();
+        // few partitions, so many records are grouped
+        config.setProperty(PARTITION_COUNT.getName(), "7");
+        config.setProperty(TRANSACTION_LOG_GROUPING_ENABLED.getName(), String.valueOf(groupingEnabled));
+        config.getMapConfig("default").setBackupCount(1);
+        instances = createHazelcastInstanceFactory(2).newInstances(config);
+    }
+
+    @Test
+    public void commit_appliesAllRecordsAndTheirBackups() {
+        TransactionContext context = instances[0].newTransactionContext(options());
+        context.beginTransaction();
+        TransactionalMap<Integer, Integer> txMap = context.getMap("map");
+        for (int i = 0; i < KEY_COUNT; i++) {
+            txMap.put(i, i);
+        }
+        context.commitTransaction();
+
+        IMap<Integer, Integer> map = instances[1].getMap("map");
+        assertEquals(KEY_COUNT, map.size());
+        for (int i = 0; i < KEY_COUNT; i++) {
+            assertEquals(Integer.valueOf(i), map.get(i));
+            assertFalse(map.isLocked(i));
+        }
+        assertTrueEventually(() -> {
+            long backupEntryCount = 0;
+            for (HazelcastInstance instance : instances) {
+                backupEntryCount += instance.getMap("map").getLocalMapStats().getBackupEntryCount();
+            }
+            assertEquals(KEY_COUNT, backupEntryCount);
+        });
+    }
+
+    @Test
+    public void rollback_releasesAllRecords() {
+        IMap<Integer, Integer> map = instances[1].getMap("map");
+        for (int i = 0; i < KEY_COUNT; i++) {
+            map.put(i, -i);
+        }
+
+        TransactionContext context = instances[0].newTransactionContext(options());
+        context.beginTransaction();
+        TransactionalMap<Integer, Integer> txMap = context.getMap("map");
+        for (int i = 0; i < KEY_COUNT; i++) {
+            txMap.put(i, i);
+        }
+        context.rollbackTransaction();
+
+        for (int i = 0; i < KEY_COUNT; i++) {
+            assertEquals(Integer.valueOf(-i), map.get(i));
+            assertFalse(map.isLocked(i));
+        }
+    }
+
+    private TransactionOptions options() {
+        return new TransactionOptions().setTransactionType(transactionType);
+    }
+}
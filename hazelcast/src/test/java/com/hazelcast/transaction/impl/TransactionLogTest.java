@@ -17,12 +17,17 @@
 package com.hazelcast.transaction.impl;
 
 import com.hazelcast.cluster.Address;
+import com.hazelcast.config.Config;
+import com.hazelcast.internal.cluster.ClusterService;
+import com.hazelcast.internal.cluster.Versions;
 import com.hazelcast.spi.impl.NodeEngine;
 import com.hazelcast.spi.impl.operationservice.Operation;
 import com.hazelcast.spi.impl.operationservice.OperationService;
+import com.hazelcast.spi.properties.HazelcastProperties;
 import com.hazelcast.test.HazelcastParallelClassRunner;
 import com.hazelcast.test.annotation.ParallelJVMTest;
 import com.hazelcast.test.annotation.QuickTest;
+import com.hazelcast.transaction.impl.operations.GroupedTxLogRecordOperation;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 import org.junit.runner.RunWith;
@@ -34,7 +39,12 @@ import static org.hamcrest.Matchers.contains;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -230,9 +240,45 @@ public class TransactionLogTest {
                 .invokeOnTarget(targetOperation.getServiceName(), targetOperation, target);
     }
 
+    @Test
+    public void commit_partitionSpecificRecordsOfSamePartition_whenClusterVersionIsOld_thenNotGrouped() {
+        OperationService operationService = mock(OperationService.class);
+        NodeEngine nodeEngine = mockNodeEngine(operationService);
+        when(nodeEngine.getClusterService().getClusterVersion()).thenReturn(Versions.V4_1);
+
+        TransactionLog log = new TransactionLog();
+        for (int i = 0; i < 3; i++) {
+            TransactionLogRecord record = mock(TransactionLogRecord.class);
+            when(record.newCommitOperation()).thenReturn(new DummyPartitionOperation());
+            log.add(record);
+        }
+
+        log.commit(nodeEngine);
+
+        verify(operationService, never())
+                .invokeOnPartition(anyString(), any(GroupedTxLogRecordOperation.class), anyInt());
+        verify(operationService, times(3))
+                .invokeOnPartition(eq("dummy"), any(DummyPartitionOperation.class), eq(0));
+    }
+
+    private static NodeEngine mockNodeEngine(OperationService operationService) {
+        NodeEngine nodeEngine = mock(NodeEngine.class);
+        ClusterService clusterService = mock(ClusterService.class);
+        when(clusterService.getClusterVersion()).thenReturn(Versions.CURRENT_CLUSTER_VERSION);
+        when(nodeEngine.getClusterService()).thenReturn(clusterService);
+        when(nodeEngine.getOperationService()).thenReturn(operationService);
+        when(nodeEngine.getProperties()).thenReturn(new HazelcastProperties(new Config()));
+        return nodeEngine;
+    }
+
     private static class DummyPartitionOperation extends Operation {
-        {
-            setPartitionId(0);
+
+        DummyPartitionOperation() {
+            this(0);
+        }
+
+        DummyPartitionOperation(int partitionId) {
+            setPartitionId(partitionId);
         }
 
         @Override